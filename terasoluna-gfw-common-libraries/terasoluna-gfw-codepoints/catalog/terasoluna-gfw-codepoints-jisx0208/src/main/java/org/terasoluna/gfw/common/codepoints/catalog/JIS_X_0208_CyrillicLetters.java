@@ -1,66 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0208's row 7 (Cyrillic letters)
- * @since 5.1.0
- */
-public final class JIS_X_0208_CyrillicLetters extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0208_CyrillicLetters() {
-        super(0x0410 /* А (07-01) */, 0x0411 /* Б (07-02) */,
-                0x0412 /* В (07-03) */, 0x0413 /* Г (07-04) */,
-                0x0414 /* Д (07-05) */, 0x0415 /* Е (07-06) */,
-                0x0401 /* Ё (07-07) */, 0x0416 /* Ж (07-08) */,
-                0x0417 /* З (07-09) */, 0x0418 /* И (07-10) */,
-                0x0419 /* Й (07-11) */, 0x041A /* К (07-12) */,
-                0x041B /* Л (07-13) */, 0x041C /* М (07-14) */,
-                0x041D /* Н (07-15) */, 0x041E /* О (07-16) */,
-                0x041F /* П (07-17) */, 0x0420 /* Р (07-18) */,
-                0x0421 /* С (07-19) */, 0x0422 /* Т (07-20) */,
-                0x0423 /* У (07-21) */, 0x0424 /* Ф (07-22) */,
-                0x0425 /* Х (07-23) */, 0x0426 /* Ц (07-24) */,
-                0x0427 /* Ч (07-25) */, 0x0428 /* Ш (07-26) */,
-                0x0429 /* Щ (07-27) */, 0x042A /* Ъ (07-28) */,
-                0x042B /* Ы (07-29) */, 0x042C /* Ь (07-30) */,
-                0x042D /* Э (07-31) */, 0x042E /* Ю (07-32) */,
-                0x042F /* Я (07-33) */, 0x0430 /* а (07-49) */,
-                0x0431 /* б (07-50) */, 0x0432 /* в (07-51) */,
-                0x0433 /* г (07-52) */, 0x0434 /* д (07-53) */,
-                0x0435 /* е (07-54) */, 0x0451 /* ё (07-55) */,
-                0x0436 /* ж (07-56) */, 0x0437 /* з (07-57) */,
-                0x0438 /* и (07-58) */, 0x0439 /* й (07-59) */,
-                0x043A /* к (07-60) */, 0x043B /* л (07-61) */,
-                0x043C /* м (07-62) */, 0x043D /* н (07-63) */,
-                0x043E /* о (07-64) */, 0x043F /* п (07-65) */,
-                0x0440 /* р (07-66) */, 0x0441 /* с (07-67) */,
-                0x0442 /* т (07-68) */, 0x0443 /* у (07-69) */,
-                0x0444 /* ф (07-70) */, 0x0445 /* х (07-71) */,
-                0x0446 /* ц (07-72) */, 0x0447 /* ч (07-73) */,
-                0x0448 /* ш (07-74) */, 0x0449 /* щ (07-75) */,
-                0x044A /* ъ (07-76) */, 0x044B /* ы (07-77) */,
-                0x044C /* ь (07-78) */, 0x044D /* э (07-79) */,
-                0x044E /* ю (07-80) */, 0x044F /* я (07-81) */);
-    }
-}
@@ -1,57 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0208's row 6 (Greek letters)
- * @since 5.1.0
- */
-public final class JIS_X_0208_GreekLetters extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0208_GreekLetters() {
-        super(0x0391 /* Α (06-01) */, 0x0392 /* Β (06-02) */,
-                0x0393 /* Γ (06-03) */, 0x0394 /* Δ (06-04) */,
-                0x0395 /* Ε (06-05) */, 0x0396 /* Ζ (06-06) */,
-                0x0397 /* Η (06-07) */, 0x0398 /* Θ (06-08) */,
-                0x0399 /* Ι (06-09) */, 0x039A /* Κ (06-10) */,
-                0x039B /* Λ (06-11) */, 0x039C /* Μ (06-12) */,
-                0x039D /* Ν (06-13) */, 0x039E /* Ξ (06-14) */,
-                0x039F /* Ο (06-15) */, 0x03A0 /* Π (06-16) */,
-                0x03A1 /* Ρ (06-17) */, 0x03A3 /* Σ (06-18) */,
-                0x03A4 /* Τ (06-19) */, 0x03A5 /* Υ (06-20) */,
-                0x03A6 /* Φ (06-21) */, 0x03A7 /* Χ (06-22) */,
-                0x03A8 /* Ψ (06-23) */, 0x03A9 /* Ω (06-24) */,
-                0x03B1 /* α (06-33) */, 0x03B2 /* β (06-34) */,
-                0x03B3 /* γ (06-35) */, 0x03B4 /* δ (06-36) */,
-                0x03B5 /* ε (06-37) */, 0x03B6 /* ζ (06-38) */,
-                0x03B7 /* η (06-39) */, 0x03B8 /* θ (06-40) */,
-                0x03B9 /* ι (06-41) */, 0x03BA /* κ (06-42) */,
-                0x03BB /* λ (06-43) */, 0x03BC /* μ (06-44) */,
-                0x03BD /* ν (06-45) */, 0x03BE /* ξ (06-46) */,
-                0x03BF /* ο (06-47) */, 0x03C0 /* π (06-48) */,
-                0x03C1 /* ρ (06-49) */, 0x03C3 /* σ (06-50) */,
-                0x03C4 /* τ (06-51) */, 0x03C5 /* υ (06-52) */,
-                0x03C6 /* φ (06-53) */, 0x03C7 /* χ (06-54) */,
-                0x03C8 /* ψ (06-55) */, 0x03C9 /* ω (06-56) */);
-    }
-}
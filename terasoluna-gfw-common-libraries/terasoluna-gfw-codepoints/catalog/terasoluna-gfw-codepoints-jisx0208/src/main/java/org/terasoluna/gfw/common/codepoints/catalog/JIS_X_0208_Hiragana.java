@@ -1,75 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0208's row 4 (Hiragana)
- * @since 5.1.0
- */
-public final class JIS_X_0208_Hiragana extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0208_Hiragana() {
-        super(0x3041 /* ぁ (04-01) */, 0x3042 /* あ (04-02) */,
-                0x3043 /* ぃ (04-03) */, 0x3044 /* い (04-04) */,
-                0x3045 /* ぅ (04-05) */, 0x3046 /* う (04-06) */,
-                0x3047 /* ぇ (04-07) */, 0x3048 /* え (04-08) */,
-                0x3049 /* ぉ (04-09) */, 0x304A /* お (04-10) */,
-                0x304B /* か (04-11) */, 0x304C /* が (04-12) */,
-                0x304D /* き (04-13) */, 0x304E /* ぎ (04-14) */,
-                0x304F /* く (04-15) */, 0x3050 /* ぐ (04-16) */,
-                0x3051 /* け (04-17) */, 0x3052 /* げ (04-18) */,
-                0x3053 /* こ (04-19) */, 0x3054 /* ご (04-20) */,
-                0x3055 /* さ (04-21) */, 0x3056 /* ざ (04-22) */,
-                0x3057 /* し (04-23) */, 0x3058 /* じ (04-24) */,
-                0x3059 /* す (04-25) */, 0x305A /* ず (04-26) */,
-                0x305B /* せ (04-27) */, 0x305C /* ぜ (04-28) */,
-                0x305D /* そ (04-29) */, 0x305E /* ぞ (04-30) */,
-                0x305F /* た (04-31) */, 0x3060 /* だ (04-32) */,
-                0x3061 /* ち (04-33) */, 0x3062 /* ぢ (04-34) */,
-                0x3063 /* っ (04-35) */, 0x3064 /* つ (04-36) */,
-                0x3065 /* づ (04-37) */, 0x3066 /* て (04-38) */,
-                0x3067 /* で (04-39) */, 0x3068 /* と (04-40) */,
-                0x3069 /* ど (04-41) */, 0x306A /* な (04-42) */,
-                0x306B /* に (04-43) */, 0x306C /* ぬ (04-44) */,
-                0x306D /* ね (04-45) */, 0x306E /* の (04-46) */,
-                0x306F /* は (04-47) */, 0x3070 /* ば (04-48) */,
-                0x3071 /* ぱ (04-49) */, 0x3072 /* ひ (04-50) */,
-                0x3073 /* び (04-51) */, 0x3074 /* ぴ (04-52) */,
-                0x3075 /* ふ (04-53) */, 0x3076 /* ぶ (04-54) */,
-                0x3077 /* ぷ (04-55) */, 0x3078 /* へ (04-56) */,
-                0x3079 /* べ (04-57) */, 0x307A /* ぺ (04-58) */,
-                0x307B /* ほ (04-59) */, 0x307C /* ぼ (04-60) */,
-                0x307D /* ぽ (04-61) */, 0x307E /* ま (04-62) */,
-                0x307F /* み (04-63) */, 0x3080 /* む (04-64) */,
-                0x3081 /* め (04-65) */, 0x3082 /* も (04-66) */,
-                0x3083 /* ゃ (04-67) */, 0x3084 /* や (04-68) */,
-                0x3085 /* ゅ (04-69) */, 0x3086 /* ゆ (04-70) */,
-                0x3087 /* ょ (04-71) */, 0x3088 /* よ (04-72) */,
-                0x3089 /* ら (04-73) */, 0x308A /* り (04-74) */,
-                0x308B /* る (04-75) */, 0x308C /* れ (04-76) */,
-                0x308D /* ろ (04-77) */, 0x308E /* ゎ (04-78) */,
-                0x308F /* わ (04-79) */, 0x3090 /* ゐ (04-80) */,
-                0x3091 /* ゑ (04-81) */, 0x3092 /* を (04-82) */,
-                0x3093 /* ん (04-83) */);
-    }
-}
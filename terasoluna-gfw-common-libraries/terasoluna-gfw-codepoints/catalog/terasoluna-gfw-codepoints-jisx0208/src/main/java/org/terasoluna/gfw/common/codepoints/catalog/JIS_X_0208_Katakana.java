@@ -1,76 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0208's row 5 (Katanaka)
- * @since 5.1.0
- */
-public final class JIS_X_0208_Katakana extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0208_Katakana() {
-        super(0x30A1 /* ァ (05-01) */, 0x30A2 /* ア (05-02) */,
-                0x30A3 /* ィ (05-03) */, 0x30A4 /* イ (05-04) */,
-                0x30A5 /* ゥ (05-05) */, 0x30A6 /* ウ (05-06) */,
-                0x30A7 /* ェ (05-07) */, 0x30A8 /* エ (05-08) */,
-                0x30A9 /* ォ (05-09) */, 0x30AA /* オ (05-10) */,
-                0x30AB /* カ (05-11) */, 0x30AC /* ガ (05-12) */,
-                0x30AD /* キ (05-13) */, 0x30AE /* ギ (05-14) */,
-                0x30AF /* ク (05-15) */, 0x30B0 /* グ (05-16) */,
-                0x30B1 /* ケ (05-17) */, 0x30B2 /* ゲ (05-18) */,
-                0x30B3 /* コ (05-19) */, 0x30B4 /* ゴ (05-20) */,
-                0x30B5 /* サ (05-21) */, 0x30B6 /* ザ (05-22) */,
-                0x30B7 /* シ (05-23) */, 0x30B8 /* ジ (05-24) */,
-                0x30B9 /* ス (05-25) */, 0x30BA /* ズ (05-26) */,
-                0x30BB /* セ (05-27) */, 0x30BC /* ゼ (05-28) */,
-                0x30BD /* ソ (05-29) */, 0x30BE /* ゾ (05-30) */,
-                0x30BF /* タ (05-31) */, 0x30C0 /* ダ (05-32) */,
-                0x30C1 /* チ (05-33) */, 0x30C2 /* ヂ (05-34) */,
-                0x30C3 /* ッ (05-35) */, 0x30C4 /* ツ (05-36) */,
-                0x30C5 /* ヅ (05-37) */, 0x30C6 /* テ (05-38) */,
-                0x30C7 /* デ (05-39) */, 0x30C8 /* ト (05-40) */,
-                0x30C9 /* ド (05-41) */, 0x30CA /* ナ (05-42) */,
-                0x30CB /* ニ (05-43) */, 0x30CC /* ヌ (05-44) */,
-                0x30CD /* ネ (05-45) */, 0x30CE /* ノ (05-46) */,
-                0x30CF /* ハ (05-47) */, 0x30D0 /* バ (05-48) */,
-                0x30D1 /* パ (05-49) */, 0x30D2 /* ヒ (05-50) */,
-                0x30D3 /* ビ (05-51) */, 0x30D4 /* ピ (05-52) */,
-                0x30D5 /* フ (05-53) */, 0x30D6 /* ブ (05-54) */,
-                0x30D7 /* プ (05-55) */, 0x30D8 /* ヘ (05-56) */,
-                0x30D9 /* ベ (05-57) */, 0x30DA /* ペ (05-58) */,
-                0x30DB /* ホ (05-59) */, 0x30DC /* ボ (05-60) */,
-                0x30DD /* ポ (05-61) */, 0x30DE /* マ (05-62) */,
-                0x30DF /* ミ (05-63) */, 0x30E0 /* ム (05-64) */,
-                0x30E1 /* メ (05-65) */, 0x30E2 /* モ (05-66) */,
-                0x30E3 /* ャ (05-67) */, 0x30E4 /* ヤ (05-68) */,
-                0x30E5 /* ュ (05-69) */, 0x30E6 /* ユ (05-70) */,
-                0x30E7 /* ョ (05-71) */, 0x30E8 /* ヨ (05-72) */,
-                0x30E9 /* ラ (05-73) */, 0x30EA /* リ (05-74) */,
-                0x30EB /* ル (05-75) */, 0x30EC /* レ (05-76) */,
-                0x30ED /* ロ (05-77) */, 0x30EE /* ヮ (05-78) */,
-                0x30EF /* ワ (05-79) */, 0x30F0 /* ヰ (05-80) */,
-                0x30F1 /* ヱ (05-81) */, 0x30F2 /* ヲ (05-82) */,
-                0x30F3 /* ン (05-83) */, 0x30F4 /* ヴ (05-84) */,
-                0x30F5 /* ヵ (05-85) */, 0x30F6 /* ヶ (05-86) */);
-    }
-}
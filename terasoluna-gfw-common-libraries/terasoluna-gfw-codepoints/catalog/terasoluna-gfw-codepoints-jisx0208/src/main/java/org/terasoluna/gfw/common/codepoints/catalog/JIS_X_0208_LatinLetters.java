@@ -1,64 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0208's row 3 (Latin letters)
- * @since 5.1.0
- */
-public final class JIS_X_0208_LatinLetters extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0208_LatinLetters() {
-        super(0xFF10 /* ０ (03-16) */, 0xFF11 /* １ (03-17) */,
-                0xFF12 /* ２ (03-18) */, 0xFF13 /* ３ (03-19) */,
-                0xFF14 /* ４ (03-20) */, 0xFF15 /* ５ (03-21) */,
-                0xFF16 /* ６ (03-22) */, 0xFF17 /* ７ (03-23) */,
-                0xFF18 /* ８ (03-24) */, 0xFF19 /* ９ (03-25) */,
-                0xFF21 /* Ａ (03-33) */, 0xFF22 /* Ｂ (03-34) */,
-                0xFF23 /* Ｃ (03-35) */, 0xFF24 /* Ｄ (03-36) */,
-                0xFF25 /* Ｅ (03-37) */, 0xFF26 /* Ｆ (03-38) */,
-                0xFF27 /* Ｇ (03-39) */, 0xFF28 /* Ｈ (03-40) */,
-                0xFF29 /* Ｉ (03-41) */, 0xFF2A /* Ｊ (03-42) */,
-                0xFF2B /* Ｋ (03-43) */, 0xFF2C /* Ｌ (03-44) */,
-                0xFF2D /* Ｍ (03-45) */, 0xFF2E /* Ｎ (03-46) */,
-                0xFF2F /* Ｏ (03-47) */, 0xFF30 /* Ｐ (03-48) */,
-                0xFF31 /* Ｑ (03-49) */, 0xFF32 /* Ｒ (03-50) */,
-                0xFF33 /* Ｓ (03-51) */, 0xFF34 /* Ｔ (03-52) */,
-                0xFF35 /* Ｕ (03-53) */, 0xFF36 /* Ｖ (03-54) */,
-                0xFF37 /* Ｗ (03-55) */, 0xFF38 /* Ｘ (03-56) */,
-                0xFF39 /* Ｙ (03-57) */, 0xFF3A /* Ｚ (03-58) */,
-                0xFF41 /* ａ (03-65) */, 0xFF42 /* ｂ (03-66) */,
-                0xFF43 /* ｃ (03-67) */, 0xFF44 /* ｄ (03-68) */,
-                0xFF45 /* ｅ (03-69) */, 0xFF46 /* ｆ (03-70) */,
-                0xFF47 /* ｇ (03-71) */, 0xFF48 /* ｈ (03-72) */,
-                0xFF49 /* ｉ (03-73) */, 0xFF4A /* ｊ (03-74) */,
-                0xFF4B /* ｋ (03-75) */, 0xFF4C /* ｌ (03-76) */,
-                0xFF4D /* ｍ (03-77) */, 0xFF4E /* ｎ (03-78) */,
-                0xFF4F /* ｏ (03-79) */, 0xFF50 /* ｐ (03-80) */,
-                0xFF51 /* ｑ (03-81) */, 0xFF52 /* ｒ (03-82) */,
-                0xFF53 /* ｓ (03-83) */, 0xFF54 /* ｔ (03-84) */,
-                0xFF55 /* ｕ (03-85) */, 0xFF56 /* ｖ (03-86) */,
-                0xFF57 /* ｗ (03-87) */, 0xFF58 /* ｘ (03-88) */,
-                0xFF59 /* ｙ (03-89) */, 0xFF5A /* ｚ (03-90) */);
-    }
-}
@@ -18,6 +18,10 @@ package org.terasoluna.gfw.common.codepoints.catalog;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 import org.terasoluna.gfw.common.codepoints.CodePoints;
 
@@ -37,4 +41,34 @@ public class JIS_X_0208_KanjiTest {
         assertThat(codePoints.containsAll("\uD867\uDE15網代" /* きびなごあじろ */), is(
                 false));
     }
+
+    @Test
+    public void testIsValid_firstAndLast() {
+        CodePoints codePoints = CodePoints.of(clazz);
+        assertThat(codePoints.containsAll("亜" /* 16-01 */), is(true));
+        assertThat(codePoints.containsAll("熙" /* 84-06 */), is(true));
+    }
+
+    @Test
+    public void testEqualsBaseline() {
+        // level 1 and 2 Kanji are all characters from row 16 to row 84, which are encoded as 0xB0A1-0xF4FE in EUC-JP
+        Charset eucJp = Charset.forName("EUC-JP");
+        Set<Integer> baseline = new HashSet<Integer>();
+        for (int row = 16; row <= 84; row++) {
+            for (int cell = 1; cell <= 94; cell++) {
+                addIfMapped(baseline, new String(new byte[] { (byte) (0xA0
+                        + row), (byte) (0xA0 + cell) }, eucJp));
+            }
+        }
+
+        assertThat(baseline.size(), is(6355));
+        assertThat(new CodePoints(CodePoints.of(clazz)), is(
+                new CodePoints(baseline)));
+    }
+
+    private static void addIfMapped(Set<Integer> codePoints, String s) {
+        if (s.codePointCount(0, s.length()) == 1 && s.charAt(0) != '\uFFFD') {
+            codePoints.add(s.codePointAt(0));
+        }
+    }
 }
@@ -1,10128 +0,0 @@
-/*
- * Copyright(c) 2013 NTT DATA Corporation.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
- * either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package org.terasoluna.gfw.common.codepoints.catalog;
-
-import org.terasoluna.gfw.common.codepoints.CodePoints;
-
-/**
- * Code points which consist of JIS X 0213:2004's level 1, 2, 3 and 4 Kanji.
- * @since 5.1.0
- */
-public final class JIS_X_0213_Kanji extends CodePoints {
-
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constructor.
-     */
-    public JIS_X_0213_Kanji() {
-        super(t0(new Integer[10050]));
-    }
-
-    private static Integer[] t0(Integer[] cp) {
-        cp[0] = 0x4E9C; // 亜 (16-01)
-        cp[1] = 0x5516; // 唖 (16-02)
-        cp[2] = 0x5A03; // 娃 (16-03)
-        cp[3] = 0x963F; // 阿 (16-04)
-        cp[4] = 0x54C0; // 哀 (16-05)
-        cp[5] = 0x611B; // 愛 (16-06)
-        cp[6] = 0x6328; // 挨 (16-07)
-        cp[7] = 0x59F6; // 姶 (16-08)
-        cp[8] = 0x9022; // 逢 (16-09)
-        cp[9] = 0x8475; // 葵 (16-10)
-        cp[10] = 0x831C; // 茜 (16-11)
-        cp[11] = 0x7A50; // 穐 (16-12)
-        cp[12] = 0x60AA; // 悪 (16-13)
-        cp[13] = 0x63E1; // 握 (16-14)
-        cp[14] = 0x6E25; // 渥 (16-15)
-        cp[15] = 0x65ED; // 旭 (16-16)
-        cp[16] = 0x8466; // 葦 (16-17)
-        cp[17] = 0x82A6; // 芦 (16-18)
-        cp[18] = 0x9BF5; // 鯵 (16-19)
-        cp[19] = 0x6893; // 梓 (16-20)
-        cp[20] = 0x5727; // 圧 (16-21)
-        cp[21] = 0x65A1; // 斡 (16-22)
-        cp[22] = 0x6271; // 扱 (16-23)
-        cp[23] = 0x5B9B; // 宛 (16-24)
-        cp[24] = 0x59D0; // 姐 (16-25)
-        cp[25] = 0x867B; // 虻 (16-26)
-        cp[26] = 0x98F4; // 飴 (16-27)
-        cp[27] = 0x7D62; // 絢 (16-28)
-        cp[28] = 0x7DBE; // 綾 (16-29)
-        cp[29] = 0x9B8E; // 鮎 (16-30)
-        cp[30] = 0x6216; // 或 (16-31)
-        cp[31] = 0x7C9F; // 粟 (16-32)
-        cp[32] = 0x88B7; // 袷 (16-33)
-        cp[33] = 0x5B89; // 安 (16-34)
-        cp[34] = 0x5EB5; // 庵 (16-35)
-        cp[35] = 0x6309; // 按 (16-36)
-        cp[36] = 0x6697; // 暗 (16-37)
-        cp[37] = 0x6848; // 案 (16-38)
-        cp[38] = 0x95C7; // 闇 (16-39)
-        cp[39] = 0x978D; // 鞍 (16-40)
-        cp[40] = 0x674F; // 杏 (16-41)
-        cp[41] = 0x4EE5; // 以 (16-42)
-        cp[42] = 0x4F0A; // 伊 (16-43)
-        cp[43] = 0x4F4D; // 位 (16-44)
-        cp[44] = 0x4F9D; // 依 (16-45)
-        cp[45] = 0x5049; // 偉 (16-46)
-        cp[46] = 0x56F2; // 囲 (16-47)
-        cp[47] = 0x5937; // 夷 (16-48)
-        cp[48] = 0x59D4; // 委 (16-49)
-        cp[49] = 0x5A01; // 威 (16-50)
-        cp[50] = 0x5C09; // 尉 (16-51)
-        cp[51] = 0x60DF; // 惟 (16-52)
-        cp[52] = 0x610F; // 意 (16-53)
-        cp[53] = 0x6170; // 慰 (16-54)
-        cp[54] = 0x6613; // 易 (16-55)
-        cp[55] = 0x6905; // 椅 (16-56)
-        cp[56] = 0x70BA; // 為 (16-57)
-        cp[57] = 0x754F; // 畏 (16-58)
-        cp[58] = 0x7570; // 異 (16-59)
-        cp[59] = 0x79FB; // 移 (16-60)
-        cp[60] = 0x7DAD; // 維 (16-61)
-        cp[61] = 0x7DEF; // 緯 (16-62)
-        cp[62] = 0x80C3; // 胃 (16-63)
-        cp[63] = 0x840E; // 萎 (16-64)
-        cp[64] = 0x8863; // 衣 (16-65)
-        cp[65] = 0x8B02; // 謂 (16-66)
-        cp[66] = 0x9055; // 違 (16-67)
-        cp[67] = 0x907A; // 遺 (16-68)
-        cp[68] = 0x533B; // 医 (16-69)
-        cp[69] = 0x4E95; // 井 (16-70)
-        cp[70] = 0x4EA5; // 亥 (16-71)
-        cp[71] = 0x57DF; // 域 (16-72)
-        cp[72] = 0x80B2; // 育 (16-73)
-        cp[73] = 0x90C1; // 郁 (16-74)
-        cp[74] = 0x78EF; // 磯 (16-75)
-        cp[75] = 0x4E00; // 一 (16-76)
-        cp[76] = 0x58F1; // 壱 (16-77)
-        cp[77] = 0x6EA2; // 溢 (16-78)
-        cp[78] = 0x9038; // 逸 (16-79)
-        cp[79] = 0x7A32; // 稲 (16-80)
-        cp[80] = 0x8328; // 茨 (16-81)
-        cp[81] = 0x828B; // 芋 (16-82)
-        cp[82] = 0x9C2F; // 鰯 (16-83)
-        cp[83] = 0x5141; // 允 (16-84)
-        cp[84] = 0x5370; // 印 (16-85)
-        cp[85] = 0x54BD; // 咽 (16-86)
-        cp[86] = 0x54E1; // 員 (16-87)
-        cp[87] = 0x56E0; // 因 (16-88)
-        cp[88] = 0x59FB; // 姻 (16-89)
-        cp[89] = 0x5F15; // 引 (16-90)
-        cp[90] = 0x98F2; // 飲 (16-91)
-        cp[91] = 0x6DEB; // 淫 (16-92)
-        cp[92] = 0x80E4; // 胤 (16-93)
-        cp[93] = 0x852D; // 蔭 (16-94)
-        cp[94] = 0x9662; // 院 (17-01)
-        cp[95] = 0x9670; // 陰 (17-02)
-        cp[96] = 0x96A0; // 隠 (17-03)
-        cp[97] = 0x97FB; // 韻 (17-04)
-        cp[98] = 0x540B; // 吋 (17-05)
-        cp[99] = 0x53F3; // 右 (17-06)
-        cp[100] = 0x5B87; // 宇 (17-07)
-        cp[101] = 0x70CF; // 烏 (17-08)
-        cp[102] = 0x7FBD; // 羽 (17-09)
-        cp[103] = 0x8FC2; // 迂 (17-10)
-        cp[104] = 0x96E8; // 雨 (17-11)
-        cp[105] = 0x536F; // 卯 (17-12)
-        cp[106] = 0x9D5C; // 鵜 (17-13)
-        cp[107] = 0x7ABA; // 窺 (17-14)
-        cp[108] = 0x4E11; // 丑 (17-15)
-        cp[109] = 0x7893; // 碓 (17-16)
-        cp[110] = 0x81FC; // 臼 (17-17)
-        cp[111] = 0x6E26; // 渦 (17-18)
-        cp[112] = 0x5618; // 嘘 (17-19)
-        cp[113] = 0x5504; // 唄 (17-20)
-        cp[114] = 0x6B1D; // 欝 (17-21)
-        cp[115] = 0x851A; // 蔚 (17-22)
-        cp[116] = 0x9C3B; // 鰻 (17-23)
-        cp[117] = 0x59E5; // 姥 (17-24)
-        cp[118] = 0x53A9; // 厩 (17-25)
-        cp[119] = 0x6D66; // 浦 (17-26)
-        cp[120] = 0x74DC; // 瓜 (17-27)
-        cp[121] = 0x958F; // 閏 (17-28)
-        cp[122] = 0x5642; // 噂 (17-29)
-        cp[123] = 0x4E91; // 云 (17-30)
-        cp[124] = 0x904B; // 運 (17-31)
-        cp[125] = 0x96F2; // 雲 (17-32)
-        cp[126] = 0x834F; // 荏 (17-33)
-        cp[127] = 0x990C; // 餌 (17-34)
-        cp[128] = 0x53E1; // 叡 (17-35)
-        cp[129] = 0x55B6; // 営 (17-36)
-        cp[130] = 0x5B30; // 嬰 (17-37)
-        cp[131] = 0x5F71; // 影 (17-38)
-        cp[132] = 0x6620; // 映 (17-39)
-        cp[133] = 0x66F3; // 曳 (17-40)
-        cp[134] = 0x6804; // 栄 (17-41)
-        cp[135] = 0x6C38; // 永 (17-42)
-        cp[136] = 0x6CF3; // 泳 (17-43)
-        cp[137] = 0x6D29; // 洩 (17-44)
-        cp[138] = 0x745B; // 瑛 (17-45)
-        cp[139] = 0x76C8; // 盈 (17-46)
-        cp[140] = 0x7A4E; // 穎 (17-47)
-        cp[141] = 0x9834; // 頴 (17-48)
-        cp[142] = 0x82F1; // 英 (17-49)
-        cp[143] = 0x885B; // 衛 (17-50)
-        cp[144] = 0x8A60; // 詠 (17-51)
-        cp[145] = 0x92ED; // 鋭 (17-52)
-        cp[146] = 0x6DB2; // 液 (17-53)
-        cp[147] = 0x75AB; // 疫 (17-54)
-        cp[148] = 0x76CA; // 益 (17-55)
-        cp[149] = 0x99C5; // 駅 (17-56)
-        cp[150] = 0x60A6; // 悦 (17-57)
-        cp[151] = 0x8B01; // 謁 (17-58)
-        cp[152] = 0x8D8A; // 越 (17-59)
-        cp[153] = 0x95B2; // 閲 (17-60)
-        cp[154] = 0x698E; // 榎 (17-61)
-        cp[155] = 0x53AD; // 厭 (17-62)
-        cp[156] = 0x5186; // 円 (17-63)
-        cp[157] = 0x5712; // 園 (17-64)
-        cp[158] = 0x5830; // 堰 (17-65)
-        cp[159] = 0x5944; // 奄 (17-66)
-        cp[160] = 0x5BB4; // 宴 (17-67)
-        cp[161] = 0x5EF6; // 延 (17-68)
-        cp[162] = 0x6028; // 怨 (17-69)
-        cp[163] = 0x63A9; // 掩 (17-70)
-        cp[164] = 0x63F4; // 援 (17-71)
-        cp[165] = 0x6CBF; // 沿 (17-72)
-        cp[166] = 0x6F14; // 演 (17-73)
-        cp[167] = 0x708E; // 炎 (17-74)
-        cp[168] = 0x7114; // 焔 (17-75)
-        cp[169] = 0x7159; // 煙 (17-76)
-        cp[170] = 0x71D5; // 燕 (17-77)
-        cp[171] = 0x733F; // 猿 (17-78)
-        cp[172] = 0x7E01; // 縁 (17-79)
-        cp[173] = 0x8276; // 艶 (17-80)
-        cp[174] = 0x82D1; // 苑 (17-81)
-        cp[175] = 0x8597; // 薗 (17-82)
-        cp[176] = 0x9060; // 遠 (17-83)
-        cp[177] = 0x925B; // 鉛 (17-84)
-        cp[178] = 0x9D1B; // 鴛 (17-85)
-        cp[179] = 0x5869; // 塩 (17-86)
-        cp[180] = 0x65BC; // 於 (17-87)
-        cp[181] = 0x6C5A; // 汚 (17-88)
-        cp[182] = 0x7525; // 甥 (17-89)
-        cp[183] = 0x51F9; // 凹 (17-90)
-        cp[184] = 0x592E; // 央 (17-91)
-        cp[185] = 0x5965; // 奥 (17-92)
-        cp[186] = 0x5F80; // 往 (17-93)
-        cp[187] = 0x5FDC; // 応 (17-94)
-        cp[188] = 0x62BC; // 押 (18-01)
-        cp[189] = 0x65FA; // 旺 (18-02)
-        cp[190] = 0x6A2A; // 横 (18-03)
-        cp[191] = 0x6B27; // 欧 (18-04)
-        cp[192] = 0x6BB4; // 殴 (18-05)
-        cp[193] = 0x738B; // 王 (18-06)
-        cp[194] = 0x7FC1; // 翁 (18-07)
-        cp[195] = 0x8956; // 襖 (18-08)
-        cp[196] = 0x9D2C; // 鴬 (18-09)
-        cp[197] = 0x9D0E; // 鴎 (18-10)
-        cp[198] = 0x9EC4; // 黄 (18-11)
-        cp[199] = 0x5CA1; // 岡 (18-12)
-        cp[200] = 0x6C96; // 沖 (18-13)
-        cp[201] = 0x837B; // 荻 (18-14)
-        cp[202] = 0x5104; // 億 (18-15)
-        cp[203] = 0x5C4B; // 屋 (18-16)
-        cp[204] = 0x61B6; // 憶 (18-17)
-        cp[205] = 0x81C6; // 臆 (18-18)
-        cp[206] = 0x6876; // 桶 (18-19)
-        cp[207] = 0x7261; // 牡 (18-20)
-        cp[208] = 0x4E59; // 乙 (18-21)
-        cp[209] = 0x4FFA; // 俺 (18-22)
-        cp[210] = 0x5378; // 卸 (18-23)
-        cp[211] = 0x6069; // 恩 (18-24)
-        cp[212] = 0x6E29; // 温 (18-25)
-        cp[213] = 0x7A4F; // 穏 (18-26)
-        cp[214] = 0x97F3; // 音 (18-27)
-        cp[215] = 0x4E0B; // 下 (18-28)
-        cp[216] = 0x5316; // 化 (18-29)
-        cp[217] = 0x4EEE; // 仮 (18-30)
-        cp[218] = 0x4F55; // 何 (18-31)
-        cp[219] = 0x4F3D; // 伽 (18-32)
-        cp[220] = 0x4FA1; // 価 (18-33)
-        cp[221] = 0x4F73; // 佳 (18-34)
-        cp[222] = 0x52A0; // 加 (18-35)
-        cp[223] = 0x53EF; // 可 (18-36)
-        cp[224] = 0x5609; // 嘉 (18-37)
-        cp[225] = 0x590F; // 夏 (18-38)
-        cp[226] = 0x5AC1; // 嫁 (18-39)
-        cp[227] = 0x5BB6; // 家 (18-40)
-        cp[228] = 0x5BE1; // 寡 (18-41)
-        cp[229] = 0x79D1; // 科 (18-42)
-        cp[230] = 0x6687; // 暇 (18-43)
-        cp[231] = 0x679C; // 果 (18-44)
-        cp[232] = 0x67B6; // 架 (18-45)
-        cp[233] = 0x6B4C; // 歌 (18-46)
-        cp[234] = 0x6CB3; // 河 (18-47)
-        cp[235] = 0x706B; // 火 (18-48)
-        cp[236] = 0x73C2; // 珂 (18-49)
-        cp[237] = 0x798D; // 禍 (18-50)
-        cp[238] = 0x79BE; // 禾 (18-51)
-        cp[239] = 0x7A3C; // 稼 (18-52)
-        cp[240] = 0x7B87; // 箇 (18-53)
-        cp[241] = 0x82B1; // 花 (18-54)
-        cp[242] = 0x82DB; // 苛 (18-55)
-        cp[243] = 0x8304; // 茄 (18-56)
-        cp[244] = 0x8377; // 荷 (18-57)
-        cp[245] = 0x83EF; // 華 (18-58)
-        cp[246] = 0x83D3; // 菓 (18-59)
-        cp[247] = 0x8766; // 蝦 (18-60)
-        cp[248] = 0x8AB2; // 課 (18-61)
-        cp[249] = 0x5629; // 嘩 (18-62)
-        cp[250] = 0x8CA8; // 貨 (18-63)
-        cp[251] = 0x8FE6; // 迦 (18-64)
-        cp[252] = 0x904E; // 過 (18-65)
-        cp[253] = 0x971E; // 霞 (18-66)
-        cp[254] = 0x868A; // 蚊 (18-67)
-        cp[255] = 0x4FC4; // 俄 (18-68)
-        cp[256] = 0x5CE8; // 峨 (18-69)
-        cp[257] = 0x6211; // 我 (18-70)
-        cp[258] = 0x7259; // 牙 (18-71)
-        cp[259] = 0x753B; // 画 (18-72)
-        cp[260] = 0x81E5; // 臥 (18-73)
-        cp[261] = 0x82BD; // 芽 (18-74)
-        cp[262] = 0x86FE; // 蛾 (18-75)
-        cp[263] = 0x8CC0; // 賀 (18-76)
-        cp[264] = 0x96C5; // 雅 (18-77)
-        cp[265] = 0x9913; // 餓 (18-78)
-        cp[266] = 0x99D5; // 駕 (18-79)
-        cp[267] = 0x4ECB; // 介 (18-80)
-        cp[268] = 0x4F1A; // 会 (18-81)
-        cp[269] = 0x89E3; // 解 (18-82)
-        cp[270] = 0x56DE; // 回 (18-83)
-        cp[271] = 0x584A; // 塊 (18-84)
-        cp[272] = 0x58CA; // 壊 (18-85)
-        cp[273] = 0x5EFB; // 廻 (18-86)
-        cp[274] = 0x5FEB; // 快 (18-87)
-        cp[275] = 0x602A; // 怪 (18-88)
-        cp[276] = 0x6094; // 悔 (18-89)
-        cp[277] = 0x6062; // 恢 (18-90)
-        cp[278] = 0x61D0; // 懐 (18-91)
-        cp[279] = 0x6212; // 戒 (18-92)
-        cp[280] = 0x62D0; // 拐 (18-93)
-        cp[281] = 0x6539; // 改 (18-94)
-        cp[282] = 0x9B41; // 魁 (19-01)
-        cp[283] = 0x6666; // 晦 (19-02)
-        cp[284] = 0x68B0; // 械 (19-03)
-        cp[285] = 0x6D77; // 海 (19-04)
-        cp[286] = 0x7070; // 灰 (19-05)
-        cp[287] = 0x754C; // 界 (19-06)
-        cp[288] = 0x7686; // 皆 (19-07)
-        cp[289] = 0x7D75; // 絵 (19-08)
-        cp[290] = 0x82A5; // 芥 (19-09)
-        cp[291] = 0x87F9; // 蟹 (19-10)
-        cp[292] = 0x958B; // 開 (19-11)
-        cp[293] = 0x968E; // 階 (19-12)
-        cp[294] = 0x8C9D; // 貝 (19-13)
-        cp[295] = 0x51F1; // 凱 (19-14)
-        cp[296] = 0x52BE; // 劾 (19-15)
-        cp[297] = 0x5916; // 外 (19-16)
-        cp[298] = 0x54B3; // 咳 (19-17)
-        cp[299] = 0x5BB3; // 害 (19-18)
-        cp[300] = 0x5D16; // 崖 (19-19)
-        cp[301] = 0x6168; // 慨 (19-20)
-        cp[302] = 0x6982; // 概 (19-21)
-        cp[303] = 0x6DAF; // 涯 (19-22)
-        cp[304] = 0x788D; // 碍 (19-23)
-        cp[305] = 0x84CB; // 蓋 (19-24)
-        cp[306] = 0x8857; // 街 (19-25)
-        cp[307] = 0x8A72; // 該 (19-26)
-        cp[308] = 0x93A7; // 鎧 (19-27)
-        cp[309] = 0x9AB8; // 骸 (19-28)
-        cp[310] = 0x6D6C; // 浬 (19-29)
-        cp[311] = 0x99A8; // 馨 (19-30)
-        cp[312] = 0x86D9; // 蛙 (19-31)
-        cp[313] = 0x57A3; // 垣 (19-32)
-        cp[314] = 0x67FF; // 柿 (19-33)
-        cp[315] = 0x86CE; // 蛎 (19-34)
-        cp[316] = 0x920E; // 鈎 (19-35)
-        cp[317] = 0x5283; // 劃 (19-36)
-        cp[318] = 0x5687; // 嚇 (19-37)
-        cp[319] = 0x5404; // 各 (19-38)
-        cp[320] = 0x5ED3; // 廓 (19-39)
-        cp[321] = 0x62E1; // 拡 (19-40)
-        cp[322] = 0x64B9; // 撹 (19-41)
-        cp[323] = 0x683C; // 格 (19-42)
-        cp[324] = 0x6838; // 核 (19-43)
-        cp[325] = 0x6BBB; // 殻 (19-44)
-        cp[326] = 0x7372; // 獲 (19-45)
-        cp[327] = 0x78BA; // 確 (19-46)
-        cp[328] = 0x7A6B; // 穫 (19-47)
-        cp[329] = 0x899A; // 覚 (19-48)
-        cp[330] = 0x89D2; // 角 (19-49)
-        cp[331] = 0x8D6B; // 赫 (19-50)
-        cp[332] = 0x8F03; // 較 (19-51)
-        cp[333] = 0x90ED; // 郭 (19-52)
-        cp[334] = 0x95A3; // 閣 (19-53)
-        cp[335] = 0x9694; // 隔 (19-54)
-        cp[336] = 0x9769; // 革 (19-55)
-        cp[337] = 0x5B66; // 学 (19-56)
-        cp[338] = 0x5CB3; // 岳 (19-57)
-        cp[339] = 0x697D; // 楽 (19-58)
-        cp[340] = 0x984D; // 額 (19-59)
-        cp[341] = 0x984E; // 顎 (19-60)
-        cp[342] = 0x639B; // 掛 (19-61)
-        cp[343] = 0x7B20; // 笠 (19-62)
-        cp[344] = 0x6A2B; // 樫 (19-63)
-        cp[345] = 0x6A7F; // 橿 (19-64)
-        cp[346] = 0x68B6; // 梶 (19-65)
-        cp[347] = 0x9C0D; // 鰍 (19-66)
-        cp[348] = 0x6F5F; // 潟 (19-67)
-        cp[349] = 0x5272; // 割 (19-68)
-        cp[350] = 0x559D; // 喝 (19-69)
-        cp[351] = 0x6070; // 恰 (19-70)
-        cp[352] = 0x62EC; // 括 (19-71)
-        cp[353] = 0x6D3B; // 活 (19-72)
-        cp[354] = 0x6E07; // 渇 (19-73)
-        cp[355] = 0x6ED1; // 滑 (19-74)
-        cp[356] = 0x845B; // 葛 (19-75)
-        cp[357] = 0x8910; // 褐 (19-76)
-        cp[358] = 0x8F44; // 轄 (19-77)
-        cp[359] = 0x4E14; // 且 (19-78)
-        cp[360] = 0x9C39; // 鰹 (19-79)
-        cp[361] = 0x53F6; // 叶 (19-80)
-        cp[362] = 0x691B; // 椛 (19-81)
-        cp[363] = 0x6A3A; // 樺 (19-82)
-        cp[364] = 0x9784; // 鞄 (19-83)
-        cp[365] = 0x682A; // 株 (19-84)
-        cp[366] = 0x515C; // 兜 (19-85)
-        cp[367] = 0x7AC3; // 竃 (19-86)
-        cp[368] = 0x84B2; // 蒲 (19-87)
-        cp[369] = 0x91DC; // 釜 (19-88)
-        cp[370] = 0x938C; // 鎌 (19-89)
-        cp[371] = 0x565B; // 噛 (19-90)
-        cp[372] = 0x9D28; // 鴨 (19-91)
-        cp[373] = 0x6822; // 栢 (19-92)
-        cp[374] = 0x8305; // 茅 (19-93)
-        cp[375] = 0x8431; // 萱 (19-94)
-        cp[376] = 0x7CA5; // 粥 (20-01)
-        cp[377] = 0x5208; // 刈 (20-02)
-        cp[378] = 0x82C5; // 苅 (20-03)
-        cp[379] = 0x74E6; // 瓦 (20-04)
-        cp[380] = 0x4E7E; // 乾 (20-05)
-        cp[381] = 0x4F83; // 侃 (20-06)
-        cp[382] = 0x51A0; // 冠 (20-07)
-        cp[383] = 0x5BD2; // 寒 (20-08)
-        cp[384] = 0x520A; // 刊 (20-09)
-        cp[385] = 0x52D8; // 勘 (20-10)
-        cp[386] = 0x52E7; // 勧 (20-11)
-        cp[387] = 0x5DFB; // 巻 (20-12)
-        cp[388] = 0x559A; // 喚 (20-13)
-        cp[389] = 0x582A; // 堪 (20-14)
-        cp[390] = 0x59E6; // 姦 (20-15)
-        cp[391] = 0x5B8C; // 完 (20-16)
-        cp[392] = 0x5B98; // 官 (20-17)
-        cp[393] = 0x5BDB; // 寛 (20-18)
-        cp[394] = 0x5E72; // 干 (20-19)
-        cp[395] = 0x5E79; // 幹 (20-20)
-        cp[396] = 0x60A3; // 患 (20-21)
-        cp[397] = 0x611F; // 感 (20-22)
-        cp[398] = 0x6163; // 慣 (20-23)
-        cp[399] = 0x61BE; // 憾 (20-24)
-        cp[400] = 0x63DB; // 換 (20-25)
-        cp[401] = 0x6562; // 敢 (20-26)
-        cp[402] = 0x67D1; // 柑 (20-27)
-        cp[403] = 0x6853; // 桓 (20-28)
-        cp[404] = 0x68FA; // 棺 (20-29)
-        cp[405] = 0x6B3E; // 款 (20-30)
-        cp[406] = 0x6B53; // 歓 (20-31)
-        cp[407] = 0x6C57; // 汗 (20-32)
-        cp[408] = 0x6F22; // 漢 (20-33)
-        cp[409] = 0x6F97; // 澗 (20-34)
-        cp[410] = 0x6F45; // 潅 (20-35)
-        cp[411] = 0x74B0; // 環 (20-36)
-        cp[412] = 0x7518; // 甘 (20-37)
-        cp[413] = 0x76E3; // 監 (20-38)
-        cp[414] = 0x770B; // 看 (20-39)
-        cp[415] = 0x7AFF; // 竿 (20-40)
-        cp[416] = 0x7BA1; // 管 (20-41)
-        cp[417] = 0x7C21; // 簡 (20-42)
-        cp[418] = 0x7DE9; // 緩 (20-43)
-        cp[419] = 0x7F36; // 缶 (20-44)
-        cp[420] = 0x7FF0; // 翰 (20-45)
-        cp[421] = 0x809D; // 肝 (20-46)
-        cp[422] = 0x8266; // 艦 (20-47)
-        cp[423] = 0x839E; // 莞 (20-48)
-        cp[424] = 0x89B3; // 観 (20-49)
-        cp[425] = 0x8ACC; // 諌 (20-50)
-        cp[426] = 0x8CAB; // 貫 (20-51)
-        cp[427] = 0x9084; // 還 (20-52)
-        cp[428] = 0x9451; // 鑑 (20-53)
-        cp[429] = 0x9593; // 間 (20-54)
-        cp[430] = 0x9591; // 閑 (20-55)
-        cp[431] = 0x95A2; // 関 (20-56)
-        cp[432] = 0x9665; // 陥 (20-57)
-        cp[433] = 0x97D3; // 韓 (20-58)
-        cp[434] = 0x9928; // 館 (20-59)
-        cp[435] = 0x8218; // 舘 (20-60)
-        cp[436] = 0x4E38; // 丸 (20-61)
-        cp[437] = 0x542B; // 含 (20-62)
-        cp[438] = 0x5CB8; // 岸 (20-63)
-        cp[439] = 0x5DCC; // 巌 (20-64)
-        cp[440] = 0x73A9; // 玩 (20-65)
-        cp[441] = 0x764C; // 癌 (20-66)
-        cp[442] = 0x773C; // 眼 (20-67)
-        cp[443] = 0x5CA9; // 岩 (20-68)
-        cp[444] = 0x7FEB; // 翫 (20-69)
-        cp[445] = 0x8D0B; // 贋 (20-70)
-        cp[446] = 0x96C1; // 雁 (20-71)
-        cp[447] = 0x9811; // 頑 (20-72)
-        cp[448] = 0x9854; // 顔 (20-73)
-        cp[449] = 0x9858; // 願 (20-74)
-        cp[450] = 0x4F01; // 企 (20-75)
-        cp[451] = 0x4F0E; // 伎 (20-76)
-        cp[452] = 0x5371; // 危 (20-77)
-        cp[453] = 0x559C; // 喜 (20-78)
-        cp[454] = 0x5668; // 器 (20-79)
-        cp[455] = 0x57FA; // 基 (20-80)
-        cp[456] = 0x5947; // 奇 (20-81)
-        cp[457] = 0x5B09; // 嬉 (20-82)
-        cp[458] = 0x5BC4; // 寄 (20-83)
-        cp[459] = 0x5C90; // 岐 (20-84)
-        cp[460] = 0x5E0C; // 希 (20-85)
-        cp[461] = 0x5E7E; // 幾 (20-86)
-        cp[462] = 0x5FCC; // 忌 (20-87)
-        cp[463] = 0x63EE; // 揮 (20-88)
-        cp[464] = 0x673A; // 机 (20-89)
-        cp[465] = 0x65D7; // 旗 (20-90)
-        cp[466] = 0x65E2; // 既 (20-91)
-        cp[467] = 0x671F; // 期 (20-92)
-        cp[468] = 0x68CB; // 棋 (20-93)
-        cp[469] = 0x68C4; // 棄 (20-94)
-        cp[470] = 0x6A5F; // 機 (21-01)
-        cp[471] = 0x5E30; // 帰 (21-02)
-        cp[472] = 0x6BC5; // 毅 (21-03)
-        cp[473] = 0x6C17; // 気 (21-04)
-        cp[474] = 0x6C7D; // 汽 (21-05)
-        cp[475] = 0x757F; // 畿 (21-06)
-        cp[476] = 0x7948; // 祈 (21-07)
-        cp[477] = 0x5B63; // 季 (21-08)
-        cp[478] = 0x7A00; // 稀 (21-09)
-        cp[479] = 0x7D00; // 紀 (21-10)
-        cp[480] = 0x5FBD; // 徽 (21-11)
-        cp[481] = 0x898F; // 規 (21-12)
-        cp[482] = 0x8A18; // 記 (21-13)
-        cp[483] = 0x8CB4; // 貴 (21-14)
-        cp[484] = 0x8D77; // 起 (21-15)
-        cp[485] = 0x8ECC; // 軌 (21-16)
-        cp[486] = 0x8F1D; // 輝 (21-17)
-        cp[487] = 0x98E2; // 飢 (21-18)
-        cp[488] = 0x9A0E; // 騎 (21-19)
-        cp[489] = 0x9B3C; // 鬼 (21-20)
-        cp[490] = 0x4E80; // 亀 (21-21)
-        cp[491] = 0x507D; // 偽 (21-22)
-        cp[492] = 0x5100; // 儀 (21-23)
-        cp[493] = 0x5993; // 妓 (21-24)
-        cp[494] = 0x5B9C; // 宜 (21-25)
-        cp[495] = 0x622F; // 戯 (21-26)
-        cp[496] = 0x6280; // 技 (21-27)
-        cp[497] = 0x64EC; // 擬 (21-28)
-        cp[498] = 0x6B3A; // 欺 (21-29)
-        cp[499] = 0x72A0; // 犠 (21-30)
-        cp[500] = 0x7591; // 疑 (21-31)
-        cp[501] = 0x7947; // 祇 (21-32)
-        cp[502] = 0x7FA9; // 義 (21-33)
-        cp[503] = 0x87FB; // 蟻 (21-34)
-        cp[504] = 0x8ABC; // 誼 (21-35)
-        cp[505] = 0x8B70; // 議 (21-36)
-        cp[506] = 0x63AC; // 掬 (21-37)
-        cp[507] = 0x83CA; // 菊 (21-38)
-        cp[508] = 0x97A0; // 鞠 (21-39)
-        cp[509] = 0x5409; // 吉 (21-40)
-        cp[510] = 0x5403; // 吃 (21-41)
-        cp[511] = 0x55AB; // 喫 (21-42)
-        cp[512] = 0x6854; // 桔 (21-43)
-        cp[513] = 0x6A58; // 橘 (21-44)
-        cp[514] = 0x8A70; // 詰 (21-45)
-        cp[515] = 0x7827; // 砧 (21-46)
-        cp[516] = 0x6775; // 杵 (21-47)
-        cp[517] = 0x9ECD; // 黍 (21-48)
-        cp[518] = 0x5374; // 却 (21-49)
-        cp[519] = 0x5BA2; // 客 (21-50)
-        cp[520] = 0x811A; // 脚 (21-51)
-        cp[521] = 0x8650; // 虐 (21-52)
-        cp[522] = 0x9006; // 逆 (21-53)
-        cp[523] = 0x4E18; // 丘 (21-54)
-        cp[524] = 0x4E45; // 久 (21-55)
-        cp[525] = 0x4EC7; // 仇 (21-56)
-        cp[526] = 0x4F11; // 休 (21-57)
-        cp[527] = 0x53CA; // 及 (21-58)
-        cp[528] = 0x5438; // 吸 (21-59)
-        cp[529] = 0x5BAE; // 宮 (21-60)
-        cp[530] = 0x5F13; // 弓 (21-61)
-        cp[531] = 0x6025; // 急 (21-62)
-        cp[532] = 0x6551; // 救 (21-63)
-        cp[533] = 0x673D; // 朽 (21-64)
-        cp[534] = 0x6C42; // 求 (21-65)
-        cp[535] = 0x6C72; // 汲 (21-66)
-        cp[536] = 0x6CE3; // 泣 (21-67)
-        cp[537] = 0x7078; // 灸 (21-68)
-        cp[538] = 0x7403; // 球 (21-69)
-        cp[539] = 0x7A76; // 究 (21-70)
-        cp[540] = 0x7AAE; // 窮 (21-71)
-        cp[541] = 0x7B08; // 笈 (21-72)
-        cp[542] = 0x7D1A; // 級 (21-73)
-        cp[543] = 0x7CFE; // 糾 (21-74)
-        cp[544] = 0x7D66; // 給 (21-75)
-        cp[545] = 0x65E7; // 旧 (21-76)
-        cp[546] = 0x725B; // 牛 (21-77)
-        cp[547] = 0x53BB; // 去 (21-78)
-        cp[548] = 0x5C45; // 居 (21-79)
-        cp[549] = 0x5DE8; // 巨 (21-80)
-        cp[550] = 0x62D2; // 拒 (21-81)
-        cp[551] = 0x62E0; // 拠 (21-82)
-        cp[552] = 0x6319; // 挙 (21-83)
-        cp[553] = 0x6E20; // 渠 (21-84)
-        cp[554] = 0x865A; // 虚 (21-85)
-        cp[555] = 0x8A31; // 許 (21-86)
-        cp[556] = 0x8DDD; // 距 (21-87)
-        cp[557] = 0x92F8; // 鋸 (21-88)
-        cp[558] = 0x6F01; // 漁 (21-89)
-        cp[559] = 0x79A6; // 禦 (21-90)
-        cp[560] = 0x9B5A; // 魚 (21-91)
-        cp[561] = 0x4EA8; // 亨 (21-92)
-        cp[562] = 0x4EAB; // 享 (21-93)
-        cp[563] = 0x4EAC; // 京 (21-94)
-        cp[564] = 0x4F9B; // 供 (22-01)
-        cp[565] = 0x4FA0; // 侠 (22-02)
-        cp[566] = 0x50D1; // 僑 (22-03)
-        cp[567] = 0x5147; // 兇 (22-04)
-        cp[568] = 0x7AF6; // 競 (22-05)
-        cp[569] = 0x5171; // 共 (22-06)
-        cp[570] = 0x51F6; // 凶 (22-07)
-        cp[571] = 0x5354; // 協 (22-08)
-        cp[572] = 0x5321; // 匡 (22-09)
-        cp[573] = 0x537F; // 卿 (22-10)
-        cp[574] = 0x53EB; // 叫 (22-11)
-        cp[575] = 0x55AC; // 喬 (22-12)
-        cp[576] = 0x5883; // 境 (22-13)
-        cp[577] = 0x5CE1; // 峡 (22-14)
-        cp[578] = 0x5F37; // 強 (22-15)
-        cp[579] = 0x5F4A; // 彊 (22-16)
-        cp[580] = 0x602F; // 怯 (22-17)
-        cp[581] = 0x6050; // 恐 (22-18)
-        cp[582] = 0x606D; // 恭 (22-19)
-        cp[583] = 0x631F; // 挟 (22-20)
-        cp[584] = 0x6559; // 教 (22-21)
-        cp[585] = 0x6A4B; // 橋 (22-22)
-        cp[586] = 0x6CC1; // 況 (22-23)
-        cp[587] = 0x72C2; // 狂 (22-24)
-        cp[588] = 0x72ED; // 狭 (22-25)
-        cp[589] = 0x77EF; // 矯 (22-26)
-        cp[590] = 0x80F8; // 胸 (22-27)
-        cp[591] = 0x8105; // 脅 (22-28)
-        cp[592] = 0x8208; // 興 (22-29)
-        cp[593] = 0x854E; // 蕎 (22-30)
-        cp[594] = 0x90F7; // 郷 (22-31)
-        cp[595] = 0x93E1; // 鏡 (22-32)
-        cp[596] = 0x97FF; // 響 (22-33)
-        cp[597] = 0x9957; // 饗 (22-34)
-        cp[598] = 0x9A5A; // 驚 (22-35)
-        cp[599] = 0x4EF0; // 仰 (22-36)
-        cp[600] = 0x51DD; // 凝 (22-37)
-        cp[601] = 0x5C2D; // 尭 (22-38)
-        cp[602] = 0x6681; // 暁 (22-39)
-        cp[603] = 0x696D; // 業 (22-40)
-        cp[604] = 0x5C40; // 局 (22-41)
-        cp[605] = 0x66F2; // 曲 (22-42)
-        cp[606] = 0x6975; // 極 (22-43)
-        cp[607] = 0x7389; // 玉 (22-44)
-        cp[608] = 0x6850; // 桐 (22-45)
-        cp[609] = 0x7C81; // 粁 (22-46)
-        cp[610] = 0x50C5; // 僅 (22-47)
-        cp[611] = 0x52E4; // 勤 (22-48)
-        cp[612] = 0x5747; // 均 (22-49)
-        cp[613] = 0x5DFE; // 巾 (22-50)
-        cp[614] = 0x9326; // 錦 (22-51)
-        cp[615] = 0x65A4; // 斤 (22-52)
-        cp[616] = 0x6B23; // 欣 (22-53)
-        cp[617] = 0x6B3D; // 欽 (22-54)
-        cp[618] = 0x7434; // 琴 (22-55)
-        cp[619] = 0x7981; // 禁 (22-56)
-        cp[620] = 0x79BD; // 禽 (22-57)
-        cp[621] = 0x7B4B; // 筋 (22-58)
-        cp[622] = 0x7DCA; // 緊 (22-59)
-        cp[623] = 0x82B9; // 芹 (22-60)
-        cp[624] = 0x83CC; // 菌 (22-61)
-        cp[625] = 0x887F; // 衿 (22-62)
-        cp[626] = 0x895F; // 襟 (22-63)
-        cp[627] = 0x8B39; // 謹 (22-64)
-        cp[628] = 0x8FD1; // 近 (22-65)
-        cp[629] = 0x91D1; // 金 (22-66)
-        cp[630] = 0x541F; // 吟 (22-67)
-        cp[631] = 0x9280; // 銀 (22-68)
-        cp[632] = 0x4E5D; // 九 (22-69)
-        cp[633] = 0x5036; // 倶 (22-70)
-        cp[634] = 0x53E5; // 句 (22-71)
-        cp[635] = 0x533A; // 区 (22-72)
-        cp[636] = 0x72D7; // 狗 (22-73)
-        cp[637] = 0x7396; // 玖 (22-74)
-        cp[638] = 0x77E9; // 矩 (22-75)
-        cp[639] = 0x82E6; // 苦 (22-76)
-        cp[640] = 0x8EAF; // 躯 (22-77)
-        cp[641] = 0x99C6; // 駆 (22-78)
-        cp[642] = 0x99C8; // 駈 (22-79)
-        cp[643] = 0x99D2; // 駒 (22-80)
-        cp[644] = 0x5177; // 具 (22-81)
-        cp[645] = 0x611A; // 愚 (22-82)
-        cp[646] = 0x865E; // 虞 (22-83)
-        cp[647] = 0x55B0; // 喰 (22-84)
-        cp[648] = 0x7A7A; // 空 (22-85)
-        cp[649] = 0x5076; // 偶 (22-86)
-        cp[650] = 0x5BD3; // 寓 (22-87)
-        cp[651] = 0x9047; // 遇 (22-88)
-        cp[652] = 0x9685; // 隅 (22-89)
-        cp[653] = 0x4E32; // 串 (22-90)
-        cp[654] = 0x6ADB; // 櫛 (22-91)
-        cp[655] = 0x91E7; // 釧 (22-92)
-        cp[656] = 0x5C51; // 屑 (22-93)
-        cp[657] = 0x5C48; // 屈 (22-94)
-        cp[658] = 0x6398; // 掘 (23-01)
-        cp[659] = 0x7A9F; // 窟 (23-02)
-        cp[660] = 0x6C93; // 沓 (23-03)
-        cp[661] = 0x9774; // 靴 (23-04)
-        cp[662] = 0x8F61; // 轡 (23-05)
-        cp[663] = 0x7AAA; // 窪 (23-06)
-        cp[664] = 0x718A; // 熊 (23-07)
-        cp[665] = 0x9688; // 隈 (23-08)
-        cp[666] = 0x7C82; // 粂 (23-09)
-        cp[667] = 0x6817; // 栗 (23-10)
-        cp[668] = 0x7E70; // 繰 (23-11)
-        cp[669] = 0x6851; // 桑 (23-12)
-        cp[670] = 0x936C; // 鍬 (23-13)
-        cp[671] = 0x52F2; // 勲 (23-14)
-        cp[672] = 0x541B; // 君 (23-15)
-        cp[673] = 0x85AB; // 薫 (23-16)
-        cp[674] = 0x8A13; // 訓 (23-17)
-        cp[675] = 0x7FA4; // 群 (23-18)
-        cp[676] = 0x8ECD; // 軍 (23-19)
-        cp[677] = 0x90E1; // 郡 (23-20)
-        cp[678] = 0x5366; // 卦 (23-21)
-        cp[679] = 0x8888; // 袈 (23-22)
-        cp[680] = 0x7941; // 祁 (23-23)
-        cp[681] = 0x4FC2; // 係 (23-24)
-        cp[682] = 0x50BE; // 傾 (23-25)
-        cp[683] = 0x5211; // 刑 (23-26)
-        cp[684] = 0x5144; // 兄 (23-27)
-        cp[685] = 0x5553; // 啓 (23-28)
-        cp[686] = 0x572D; // 圭 (23-29)
-        cp[687] = 0x73EA; // 珪 (23-30)
-        cp[688] = 0x578B; // 型 (23-31)
-        cp[689] = 0x5951; // 契 (23-32)
-        cp[690] = 0x5F62; // 形 (23-33)
-        cp[691] = 0x5F84; // 径 (23-34)
-        cp[692] = 0x6075; // 恵 (23-35)
-        cp[693] = 0x6176; // 慶 (23-36)
-        cp[694] = 0x6167; // 慧 (23-37)
-        cp[695] = 0x61A9; // 憩 (23-38)
-        cp[696] = 0x63B2; // 掲 (23-39)
-        cp[697] = 0x643A; // 携 (23-40)
-        cp[698] = 0x656C; // 敬 (23-41)
-        cp[699] = 0x666F; // 景 (23-42)
-        cp[700] = 0x6842; // 桂 (23-43)
-        cp[701] = 0x6E13; // 渓 (23-44)
-        cp[702] = 0x7566; // 畦 (23-45)
-        cp[703] = 0x7A3D; // 稽 (23-46)
-        cp[704] = 0x7CFB; // 系 (23-47)
-        cp[705] = 0x7D4C; // 経 (23-48)
-        cp[706] = 0x7D99; // 継 (23-49)
-        cp[707] = 0x7E4B; // 繋 (23-50)
-        cp[708] = 0x7F6B; // 罫 (23-51)
-        cp[709] = 0x830E; // 茎 (23-52)
-        cp[710] = 0x834A; // 荊 (23-53)
-        cp[711] = 0x86CD; // 蛍 (23-54)
-        cp[712] = 0x8A08; // 計 (23-55)
-        cp[713] = 0x8A63; // 詣 (23-56)
-        cp[714] = 0x8B66; // 警 (23-57)
-        cp[715] = 0x8EFD; // 軽 (23-58)
-        cp[716] = 0x981A; // 頚 (23-59)
-        cp[717] = 0x9D8F; // 鶏 (23-60)
-        cp[718] = 0x82B8; // 芸 (23-61)
-        cp[719] = 0x8FCE; // 迎 (23-62)
-        cp[720] = 0x9BE8; // 鯨 (23-63)
-        cp[721] = 0x5287; // 劇 (23-64)
-        cp[722] = 0x621F; // 戟 (23-65)
-        cp[723] = 0x6483; // 撃 (23-66)
-        cp[724] = 0x6FC0; // 激 (23-67)
-        cp[725] = 0x9699; // 隙 (23-68)
-        cp[726] = 0x6841; // 桁 (23-69)
-        cp[727] = 0x5091; // 傑 (23-70)
-        cp[728] = 0x6B20; // 欠 (23-71)
-        cp[729] = 0x6C7A; // 決 (23-72)
-        cp[730] = 0x6F54; // 潔 (23-73)
-        cp[731] = 0x7A74; // 穴 (23-74)
-        cp[732] = 0x7D50; // 結 (23-75)
-        cp[733] = 0x8840; // 血 (23-76)
-        cp[734] = 0x8A23; // 訣 (23-77)
-        cp[735] = 0x6708; // 月 (23-78)
-        cp[736] = 0x4EF6; // 件 (23-79)
-        cp[737] = 0x5039; // 倹 (23-80)
-        cp[738] = 0x5026; // 倦 (23-81)
-        cp[739] = 0x5065; // 健 (23-82)
-        cp[740] = 0x517C; // 兼 (23-83)
-        cp[741] = 0x5238; // 券 (23-84)
-        cp[742] = 0x5263; // 剣 (23-85)
-        cp[743] = 0x55A7; // 喧 (23-86)
-        cp[744] = 0x570F; // 圏 (23-87)
-        cp[745] = 0x5805; // 堅 (23-88)
-        cp[746] = 0x5ACC; // 嫌 (23-89)
-        cp[747] = 0x5EFA; // 建 (23-90)
-        cp[748] = 0x61B2; // 憲 (23-91)
-        cp[749] = 0x61F8; // 懸 (23-92)
-        cp[750] = 0x62F3; // 拳 (23-93)
-        cp[751] = 0x6372; // 捲 (23-94)
-        cp[752] = 0x691C; // 検 (24-01)
-        cp[753] = 0x6A29; // 権 (24-02)
-        cp[754] = 0x727D; // 牽 (24-03)
-        cp[755] = 0x72AC; // 犬 (24-04)
-        cp[756] = 0x732E; // 献 (24-05)
-        cp[757] = 0x7814; // 研 (24-06)
-        cp[758] = 0x786F; // 硯 (24-07)
-        cp[759] = 0x7D79; // 絹 (24-08)
-        cp[760] = 0x770C; // 県 (24-09)
-        cp[761] = 0x80A9; // 肩 (24-10)
-        cp[762] = 0x898B; // 見 (24-11)
-        cp[763] = 0x8B19; // 謙 (24-12)
-        cp[764] = 0x8CE2; // 賢 (24-13)
-        cp[765] = 0x8ED2; // 軒 (24-14)
-        cp[766] = 0x9063; // 遣 (24-15)
-        cp[767] = 0x9375; // 鍵 (24-16)
-        cp[768] = 0x967A; // 険 (24-17)
-        cp[769] = 0x9855; // 顕 (24-18)
-        cp[770] = 0x9A13; // 験 (24-19)
-        cp[771] = 0x9E78; // 鹸 (24-20)
-        cp[772] = 0x5143; // 元 (24-21)
-        cp[773] = 0x539F; // 原 (24-22)
-        cp[774] = 0x53B3; // 厳 (24-23)
-        cp[775] = 0x5E7B; // 幻 (24-24)
-        cp[776] = 0x5F26; // 弦 (24-25)
-        cp[777] = 0x6E1B; // 減 (24-26)
-        cp[778] = 0x6E90; // 源 (24-27)
-        cp[779] = 0x7384; // 玄 (24-28)
-        cp[780] = 0x73FE; // 現 (24-29)
-        cp[781] = 0x7D43; // 絃 (24-30)
-        cp[782] = 0x8237; // 舷 (24-31)
-        cp[783] = 0x8A00; // 言 (24-32)
-        cp[784] = 0x8AFA; // 諺 (24-33)
-        cp[785] = 0x9650; // 限 (24-34)
-        cp[786] = 0x4E4E; // 乎 (24-35)
-        cp[787] = 0x500B; // 個 (24-36)
-        cp[788] = 0x53E4; // 古 (24-37)
-        cp[789] = 0x547C; // 呼 (24-38)
-        cp[790] = 0x56FA; // 固 (24-39)
-        cp[791] = 0x59D1; // 姑 (24-40)
-        cp[792] = 0x5B64; // 孤 (24-41)
-        cp[793] = 0x5DF1; // 己 (24-42)
-        cp[794] = 0x5EAB; // 庫 (24-43)
-        cp[795] = 0x5F27; // 弧 (24-44)
-        cp[796] = 0x6238; // 戸 (24-45)
-        cp[797] = 0x6545; // 故 (24-46)
-        cp[798] = 0x67AF; // 枯 (24-47)
-        cp[799] = 0x6E56; // 湖 (24-48)
-        cp[800] = 0x72D0; // 狐 (24-49)
-        cp[801] = 0x7CCA; // 糊 (24-50)
-        cp[802] = 0x88B4; // 袴 (24-51)
-        cp[803] = 0x80A1; // 股 (24-52)
-        cp[804] = 0x80E1; // 胡 (24-53)
-        cp[805] = 0x83F0; // 菰 (24-54)
-        cp[806] = 0x864E; // 虎 (24-55)
-        cp[807] = 0x8A87; // 誇 (24-56)
-        cp[808] = 0x8DE8; // 跨 (24-57)
-        cp[809] = 0x9237; // 鈷 (24-58)
-        cp[810] = 0x96C7; // 雇 (24-59)
-        cp[811] = 0x9867; // 顧 (24-60)
-        cp[812] = 0x9F13; // 鼓 (24-61)
-        cp[813] = 0x4E94; // 五 (24-62)
-        cp[814] = 0x4E92; // 互 (24-63)
-        cp[815] = 0x4F0D; // 伍 (24-64)
-        cp[816] = 0x5348; // 午 (24-65)
-        cp[817] = 0x5449; // 呉 (24-66)
-        cp[818] = 0x543E; // 吾 (24-67)
-        cp[819] = 0x5A2F; // 娯 (24-68)
-        cp[820] = 0x5F8C; // 後 (24-69)
-        cp[821] = 0x5FA1; // 御 (24-70)
-        cp[822] = 0x609F; // 悟 (24-71)
-        cp[823] = 0x68A7; // 梧 (24-72)
-        cp[824] = 0x6A8E; // 檎 (24-73)
-        cp[825] = 0x745A; // 瑚 (24-74)
-        cp[826] = 0x7881; // 碁 (24-75)
-        cp[827] = 0x8A9E; // 語 (24-76)
-        cp[828] = 0x8AA4; // 誤 (24-77)
-        cp[829] = 0x8B77; // 護 (24-78)
-        cp[830] = 0x9190; // 醐 (24-79)
-        cp[831] = 0x4E5E; // 乞 (24-80)
-        cp[832] = 0x9BC9; // 鯉 (24-81)
-        cp[833] = 0x4EA4; // 交 (24-82)
-        cp[834] = 0x4F7C; // 佼 (24-83)
-        cp[835] = 0x4FAF; // 侯 (24-84)
-        cp[836] = 0x5019; // 候 (24-85)
-        cp[837] = 0x5016; // 倖 (24-86)
-        cp[838] = 0x5149; // 光 (24-87)
-        cp[839] = 0x516C; // 公 (24-88)
-        cp[840] = 0x529F; // 功 (24-89)
-        cp[841] = 0x52B9; // 効 (24-90)
-        cp[842] = 0x52FE; // 勾 (24-91)
-        cp[843] = 0x539A; // 厚 (24-92)
-        cp[844] = 0x53E3; // 口 (24-93)
-        cp[845] = 0x5411; // 向 (24-94)
-        cp[846] = 0x540E; // 后 (25-01)
-        cp[847] = 0x5589; // 喉 (25-02)
-        cp[848] = 0x5751; // 坑 (25-03)
-        cp[849] = 0x57A2; // 垢 (25-04)
-        cp[850] = 0x597D; // 好 (25-05)
-        cp[851] = 0x5B54; // 孔 (25-06)
-        cp[852] = 0x5B5D; // 孝 (25-07)
-        cp[853] = 0x5B8F; // 宏 (25-08)
-        cp[854] = 0x5DE5; // 工 (25-09)
-        cp[855] = 0x5DE7; // 巧 (25-10)
-        cp[856] = 0x5DF7; // 巷 (25-11)
-        cp[857] = 0x5E78; // 幸 (25-12)
-        cp[858] = 0x5E83; // 広 (25-13)
-        cp[859] = 0x5E9A; // 庚 (25-14)
-        cp[860] = 0x5EB7; // 康 (25-15)
-        cp[861] = 0x5F18; // 弘 (25-16)
-        cp[862] = 0x6052; // 恒 (25-17)
-        cp[863] = 0x614C; // 慌 (25-18)
-        cp[864] = 0x6297; // 抗 (25-19)
-        cp[865] = 0x62D8; // 拘 (25-20)
-        cp[866] = 0x63A7; // 控 (25-21)
-        cp[867] = 0x653B; // 攻 (25-22)
-        cp[868] = 0x6602; // 昂 (25-23)
-        cp[869] = 0x6643; // 晃 (25-24)
-        cp[870] = 0x66F4; // 更 (25-25)
-        cp[871] = 0x676D; // 杭 (25-26)
-        cp[872] = 0x6821; // 校 (25-27)
-        cp[873] = 0x6897; // 梗 (25-28)
-        cp[874] = 0x69CB; // 構 (25-29)
-        cp[875] = 0x6C5F; // 江 (25-30)
-        cp[876] = 0x6D2A; // 洪 (25-31)
-        cp[877] = 0x6D69; // 浩 (25-32)
-        cp[878] = 0x6E2F; // 港 (25-33)
-        cp[879] = 0x6E9D; // 溝 (25-34)
-        cp[880] = 0x7532; // 甲 (25-35)
-        cp[881] = 0x7687; // 皇 (25-36)
-        cp[882] = 0x786C; // 硬 (25-37)
-        cp[883] = 0x7A3F; // 稿 (25-38)
-        cp[884] = 0x7CE0; // 糠 (25-39)
-        cp[885] = 0x7D05; // 紅 (25-40)
-        cp[886] = 0x7D18; // 紘 (25-41)
-        cp[887] = 0x7D5E; // 絞 (25-42)
-        cp[888] = 0x7DB1; // 綱 (25-43)
-        cp[889] = 0x8015; // 耕 (25-44)
-        cp[890] = 0x8003; // 考 (25-45)
-        cp[891] = 0x80AF; // 肯 (25-46)
-        cp[892] = 0x80B1; // 肱 (25-47)
-        cp[893] = 0x8154; // 腔 (25-48)
-        cp[894] = 0x818F; // 膏 (25-49)
-        cp[895] = 0x822A; // 航 (25-50)
-        cp[896] = 0x8352; // 荒 (25-51)
-        cp[897] = 0x884C; // 行 (25-52)
-        cp[898] = 0x8861; // 衡 (25-53)
-        cp[899] = 0x8B1B; // 講 (25-54)
-        cp[900] = 0x8CA2; // 貢 (25-55)
-        cp[901] = 0x8CFC; // 購 (25-56)
-        cp[902] = 0x90CA; // 郊 (25-57)
-        cp[903] = 0x9175; // 酵 (25-58)
-        cp[904] = 0x9271; // 鉱 (25-59)
-        cp[905] = 0x783F; // 砿 (25-60)
-        cp[906] = 0x92FC; // 鋼 (25-61)
-        cp[907] = 0x95A4; // 閤 (25-62)
-        cp[908] = 0x964D; // 降 (25-63)
-        cp[909] = 0x9805; // 項 (25-64)
-        cp[910] = 0x9999; // 香 (25-65)
-        cp[911] = 0x9AD8; // 高 (25-66)
-        cp[912] = 0x9D3B; // 鴻 (25-67)
-        cp[913] = 0x525B; // 剛 (25-68)
-        cp[914] = 0x52AB; // 劫 (25-69)
-        cp[915] = 0x53F7; // 号 (25-70)
-        cp[916] = 0x5408; // 合 (25-71)
-        cp[917] = 0x58D5; // 壕 (25-72)
-        cp[918] = 0x62F7; // 拷 (25-73)
-        cp[919] = 0x6FE0; // 濠 (25-74)
-        cp[920] = 0x8C6A; // 豪 (25-75)
-        cp[921] = 0x8F5F; // 轟 (25-76)
-        cp[922] = 0x9EB9; // 麹 (25-77)
-        cp[923] = 0x514B; // 克 (25-78)
-        cp[924] = 0x523B; // 刻 (25-79)
-        cp[925] = 0x544A; // 告 (25-80)
-        cp[926] = 0x56FD; // 国 (25-81)
-        cp[927] = 0x7A40; // 穀 (25-82)
-        cp[928] = 0x9177; // 酷 (25-83)
-        cp[929] = 0x9D60; // 鵠 (25-84)
-        cp[930] = 0x9ED2; // 黒 (25-85)
-        cp[931] = 0x7344; // 獄 (25-86)
-        cp[932] = 0x6F09; // 漉 (25-87)
-        cp[933] = 0x8170; // 腰 (25-88)
-        cp[934] = 0x7511; // 甑 (25-89)
-        cp[935] = 0x5FFD; // 忽 (25-90)
-        cp[936] = 0x60DA; // 惚 (25-91)
-        cp[937] = 0x9AA8; // 骨 (25-92)
-        cp[938] = 0x72DB; // 狛 (25-93)
-        cp[939] = 0x8FBC; // 込 (25-94)
-        cp[940] = 0x6B64; // 此 (26-01)
-        cp[941] = 0x9803; // 頃 (26-02)
-        cp[942] = 0x4ECA; // 今 (26-03)
-        cp[943] = 0x56F0; // 困 (26-04)
-        cp[944] = 0x5764; // 坤 (26-05)
-        cp[945] = 0x58BE; // 墾 (26-06)
-        cp[946] = 0x5A5A; // 婚 (26-07)
-        cp[947] = 0x6068; // 恨 (26-08)
-        cp[948] = 0x61C7; // 懇 (26-09)
-        cp[949] = 0x660F; // 昏 (26-10)
-        cp[950] = 0x6606; // 昆 (26-11)
-        cp[951] = 0x6839; // 根 (26-12)
-        cp[952] = 0x68B1; // 梱 (26-13)
-        cp[953] = 0x6DF7; // 混 (26-14)
-        cp[954] = 0x75D5; // 痕 (26-15)
-        cp[955] = 0x7D3A; // 紺 (26-16)
-        cp[956] = 0x826E; // 艮 (26-17)
-        cp[957] = 0x9B42; // 魂 (26-18)
-        cp[958] = 0x4E9B; // 些 (26-19)
-        cp[959] = 0x4F50; // 佐 (26-20)
-        cp[960] = 0x53C9; // 叉 (26-21)
-        cp[961] = 0x5506; // 唆 (26-22)
-        cp[962] = 0x5D6F; // 嵯 (26-23)
-        cp[963] = 0x5DE6; // 左 (26-24)
-        cp[964] = 0x5DEE; // 差 (26-25)
-        cp[965] = 0x67FB; // 査 (26-26)
-        cp[966] = 0x6C99; // 沙 (26-27)
-        cp[967] = 0x7473; // 瑳 (26-28)
-        cp[968] = 0x7802; // 砂 (26-29)
-        cp[969] = 0x8A50; // 詐 (26-30)
-        cp[970] = 0x9396; // 鎖 (26-31)
-        cp[971] = 0x88DF; // 裟 (26-32)
-        cp[972] = 0x5750; // 坐 (26-33)
-        cp[973] = 0x5EA7; // 座 (26-34)
-        cp[974] = 0x632B; // 挫 (26-35)
-        cp[975] = 0x50B5; // 債 (26-36)
-        cp[976] = 0x50AC; // 催 (26-37)
-        cp[977] = 0x518D; // 再 (26-38)
-        cp[978] = 0x6700; // 最 (26-39)
-        cp[979] = 0x54C9; // 哉 (26-40)
-        cp[980] = 0x585E; // 塞 (26-41)
-        cp[981] = 0x59BB; // 妻 (26-42)
-        cp[982] = 0x5BB0; // 宰 (26-43)
-        cp[983] = 0x5F69; // 彩 (26-44)
-        cp[984] = 0x624D; // 才 (26-45)
-        cp[985] = 0x63A1; // 採 (26-46)
-        cp[986] = 0x683D; // 栽 (26-47)
-        cp[987] = 0x6B73; // 歳 (26-48)
-        cp[988] = 0x6E08; // 済 (26-49)
-        cp[989] = 0x707D; // 災 (26-50)
-        cp[990] = 0x91C7; // 采 (26-51)
-        cp[991] = 0x7280; // 犀 (26-52)
-        cp[992] = 0x7815; // 砕 (26-53)
-        cp[993] = 0x7826; // 砦 (26-54)
-        cp[994] = 0x796D; // 祭 (26-55)
-        cp[995] = 0x658E; // 斎 (26-56)
-        cp[996] = 0x7D30; // 細 (26-57)
-        cp[997] = 0x83DC; // 菜 (26-58)
-        cp[998] = 0x88C1; // 裁 (26-59)
-        cp[999] = 0x8F09; // 載 (26-60)
-        return t1(cp);
-    }
-
-    private static Integer[] t1(Integer[] cp) {
-        cp[1000] = 0x969B; // 際 (26-61)
-        cp[1001] = 0x5264; // 剤 (26-62)
-        cp[1002] = 0x5728; // 在 (26-63)
-        cp[1003] = 0x6750; // 材 (26-64)
-        cp[1004] = 0x7F6A; // 罪 (26-65)
-        cp[1005] = 0x8CA1; // 財 (26-66)
-        cp[1006] = 0x51B4; // 冴 (26-67)
-        cp[1007] = 0x5742; // 坂 (26-68)
-        cp[1008] = 0x962A; // 阪 (26-69)
-        cp[1009] = 0x583A; // 堺 (26-70)
-        cp[1010] = 0x698A; // 榊 (26-71)
-        cp[1011] = 0x80B4; // 肴 (26-72)
-        cp[1012] = 0x54B2; // 咲 (26-73)
-        cp[1013] = 0x5D0E; // 崎 (26-74)
-        cp[1014] = 0x57FC; // 埼 (26-75)
-        cp[1015] = 0x7895; // 碕 (26-76)
-        cp[1016] = 0x9DFA; // 鷺 (26-77)
-        cp[1017] = 0x4F5C; // 作 (26-78)
-        cp[1018] = 0x524A; // 削 (26-79)
-        cp[1019] = 0x548B; // 咋 (26-80)
-        cp[1020] = 0x643E; // 搾 (26-81)
-        cp[1021] = 0x6628; // 昨 (26-82)
-        cp[1022] = 0x6714; // 朔 (26-83)
-        cp[1023] = 0x67F5; // 柵 (26-84)
-        cp[1024] = 0x7A84; // 窄 (26-85)
-        cp[1025] = 0x7B56; // 策 (26-86)
-        cp[1026] = 0x7D22; // 索 (26-87)
-        cp[1027] = 0x932F; // 錯 (26-88)
-        cp[1028] = 0x685C; // 桜 (26-89)
-        cp[1029] = 0x9BAD; // 鮭 (26-90)
-        cp[1030] = 0x7B39; // 笹 (26-91)
-        cp[1031] = 0x5319; // 匙 (26-92)
-        cp[1032] = 0x518A; // 冊 (26-93)
-        cp[1033] = 0x5237; // 刷 (26-94)
-        cp[1034] = 0x5BDF; // 察 (27-01)
-        cp[1035] = 0x62F6; // 拶 (27-02)
-        cp[1036] = 0x64AE; // 撮 (27-03)
-        cp[1037] = 0x64E6; // 擦 (27-04)
-        cp[1038] = 0x672D; // 札 (27-05)
-        cp[1039] = 0x6BBA; // 殺 (27-06)
-        cp[1040] = 0x85A9; // 薩 (27-07)
-        cp[1041] = 0x96D1; // 雑 (27-08)
-        cp[1042] = 0x7690; // 皐 (27-09)
-        cp[1043] = 0x9BD6; // 鯖 (27-10)
-        cp[1044] = 0x634C; // 捌 (27-11)
-        cp[1045] = 0x9306; // 錆 (27-12)
-        cp[1046] = 0x9BAB; // 鮫 (27-13)
-        cp[1047] = 0x76BF; // 皿 (27-14)
-        cp[1048] = 0x6652; // 晒 (27-15)
-        cp[1049] = 0x4E09; // 三 (27-16)
-        cp[1050] = 0x5098; // 傘 (27-17)
-        cp[1051] = 0x53C2; // 参 (27-18)
-        cp[1052] = 0x5C71; // 山 (27-19)
-        cp[1053] = 0x60E8; // 惨 (27-20)
-        cp[1054] = 0x6492; // 撒 (27-21)
-        cp[1055] = 0x6563; // 散 (27-22)
-        cp[1056] = 0x685F; // 桟 (27-23)
-        cp[1057] = 0x71E6; // 燦 (27-24)
-        cp[1058] = 0x73CA; // 珊 (27-25)
-        cp[1059] = 0x7523; // 産 (27-26)
-        cp[1060] = 0x7B97; // 算 (27-27)
-        cp[1061] = 0x7E82; // 纂 (27-28)
-        cp[1062] = 0x8695; // 蚕 (27-29)
-        cp[1063] = 0x8B83; // 讃 (27-30)
-        cp[1064] = 0x8CDB; // 賛 (27-31)
-        cp[1065] = 0x9178; // 酸 (27-32)
-        cp[1066] = 0x9910; // 餐 (27-33)
-        cp[1067] = 0x65AC; // 斬 (27-34)
-        cp[1068] = 0x66AB; // 暫 (27-35)
-        cp[1069] = 0x6B8B; // 残 (27-36)
-        cp[1070] = 0x4ED5; // 仕 (27-37)
-        cp[1071] = 0x4ED4; // 仔 (27-38)
-        cp[1072] = 0x4F3A; // 伺 (27-39)
-        cp[1073] = 0x4F7F; // 使 (27-40)
-        cp[1074] = 0x523A; // 刺 (27-41)
-        cp[1075] = 0x53F8; // 司 (27-42)
-        cp[1076] = 0x53F2; // 史 (27-43)
-        cp[1077] = 0x55E3; // 嗣 (27-44)
-        cp[1078] = 0x56DB; // 四 (27-45)
-        cp[1079] = 0x58EB; // 士 (27-46)
-        cp[1080] = 0x59CB; // 始 (27-47)
-        cp[1081] = 0x59C9; // 姉 (27-48)
-        cp[1082] = 0x59FF; // 姿 (27-49)
-        cp[1083] = 0x5B50; // 子 (27-50)
-        cp[1084] = 0x5C4D; // 屍 (27-51)
-        cp[1085] = 0x5E02; // 市 (27-52)
-        cp[1086] = 0x5E2B; // 師 (27-53)
-        cp[1087] = 0x5FD7; // 志 (27-54)
-        cp[1088] = 0x601D; // 思 (27-55)
-        cp[1089] = 0x6307; // 指 (27-56)
-        cp[1090] = 0x652F; // 支 (27-57)
-        cp[1091] = 0x5B5C; // 孜 (27-58)
-        cp[1092] = 0x65AF; // 斯 (27-59)
-        cp[1093] = 0x65BD; // 施 (27-60)
-        cp[1094] = 0x65E8; // 旨 (27-61)
-        cp[1095] = 0x679D; // 枝 (27-62)
-        cp[1096] = 0x6B62; // 止 (27-63)
-        cp[1097] = 0x6B7B; // 死 (27-64)
-        cp[1098] = 0x6C0F; // 氏 (27-65)
-        cp[1099] = 0x7345; // 獅 (27-66)
-        cp[1100] = 0x7949; // 祉 (27-67)
-        cp[1101] = 0x79C1; // 私 (27-68)
-        cp[1102] = 0x7CF8; // 糸 (27-69)
-        cp[1103] = 0x7D19; // 紙 (27-70)
-        cp[1104] = 0x7D2B; // 紫 (27-71)
-        cp[1105] = 0x80A2; // 肢 (27-72)
-        cp[1106] = 0x8102; // 脂 (27-73)
-        cp[1107] = 0x81F3; // 至 (27-74)
-        cp[1108] = 0x8996; // 視 (27-75)
-        cp[1109] = 0x8A5E; // 詞 (27-76)
-        cp[1110] = 0x8A69; // 詩 (27-77)
-        cp[1111] = 0x8A66; // 試 (27-78)
-        cp[1112] = 0x8A8C; // 誌 (27-79)
-        cp[1113] = 0x8AEE; // 諮 (27-80)
-        cp[1114] = 0x8CC7; // 資 (27-81)
-        cp[1115] = 0x8CDC; // 賜 (27-82)
-        cp[1116] = 0x96CC; // 雌 (27-83)
-        cp[1117] = 0x98FC; // 飼 (27-84)
-        cp[1118] = 0x6B6F; // 歯 (27-85)
-        cp[1119] = 0x4E8B; // 事 (27-86)
-        cp[1120] = 0x4F3C; // 似 (27-87)
-        cp[1121] = 0x4F8D; // 侍 (27-88)
-        cp[1122] = 0x5150; // 児 (27-89)
-        cp[1123] = 0x5B57; // 字 (27-90)
-        cp[1124] = 0x5BFA; // 寺 (27-91)
-        cp[1125] = 0x6148; // 慈 (27-92)
-        cp[1126] = 0x6301; // 持 (27-93)
-        cp[1127] = 0x6642; // 時 (27-94)
-        cp[1128] = 0x6B21; // 次 (28-01)
-        cp[1129] = 0x6ECB; // 滋 (28-02)
-        cp[1130] = 0x6CBB; // 治 (28-03)
-        cp[1131] = 0x723E; // 爾 (28-04)
-        cp[1132] = 0x74BD; // 璽 (28-05)
-        cp[1133] = 0x75D4; // 痔 (28-06)
-        cp[1134] = 0x78C1; // 磁 (28-07)
-        cp[1135] = 0x793A; // 示 (28-08)
-        cp[1136] = 0x800C; // 而 (28-09)
-        cp[1137] = 0x8033; // 耳 (28-10)
-        cp[1138] = 0x81EA; // 自 (28-11)
-        cp[1139] = 0x8494; // 蒔 (28-12)
-        cp[1140] = 0x8F9E; // 辞 (28-13)
-        cp[1141] = 0x6C50; // 汐 (28-14)
-        cp[1142] = 0x9E7F; // 鹿 (28-15)
-        cp[1143] = 0x5F0F; // 式 (28-16)
-        cp[1144] = 0x8B58; // 識 (28-17)
-        cp[1145] = 0x9D2B; // 鴫 (28-18)
-        cp[1146] = 0x7AFA; // 竺 (28-19)
-        cp[1147] = 0x8EF8; // 軸 (28-20)
-        cp[1148] = 0x5B8D; // 宍 (28-21)
-        cp[1149] = 0x96EB; // 雫 (28-22)
-        cp[1150] = 0x4E03; // 七 (28-23)
-        cp[1151] = 0x53F1; // 叱 (28-24)
-        cp[1152] = 0x57F7; // 執 (28-25)
-        cp[1153] = 0x5931; // 失 (28-26)
-        cp[1154] = 0x5AC9; // 嫉 (28-27)
-        cp[1155] = 0x5BA4; // 室 (28-28)
-        cp[1156] = 0x6089; // 悉 (28-29)
-        cp[1157] = 0x6E7F; // 湿 (28-30)
-        cp[1158] = 0x6F06; // 漆 (28-31)
-        cp[1159] = 0x75BE; // 疾 (28-32)
-        cp[1160] = 0x8CEA; // 質 (28-33)
-        cp[1161] = 0x5B9F; // 実 (28-34)
-        cp[1162] = 0x8500; // 蔀 (28-35)
-        cp[1163] = 0x7BE0; // 篠 (28-36)
-        cp[1164] = 0x5072; // 偲 (28-37)
-        cp[1165] = 0x67F4; // 柴 (28-38)
-        cp[1166] = 0x829D; // 芝 (28-39)
-        cp[1167] = 0x5C61; // 屡 (28-40)
-        cp[1168] = 0x854A; // 蕊 (28-41)
-        cp[1169] = 0x7E1E; // 縞 (28-42)
-        cp[1170] = 0x820E; // 舎 (28-43)
-        cp[1171] = 0x5199; // 写 (28-44)
-        cp[1172] = 0x5C04; // 射 (28-45)
-        cp[1173] = 0x6368; // 捨 (28-46)
-        cp[1174] = 0x8D66; // 赦 (28-47)
-        cp[1175] = 0x659C; // 斜 (28-48)
-        cp[1176] = 0x716E; // 煮 (28-49)
-        cp[1177] = 0x793E; // 社 (28-50)
-        cp[1178] = 0x7D17; // 紗 (28-51)
-        cp[1179] = 0x8005; // 者 (28-52)
-        cp[1180] = 0x8B1D; // 謝 (28-53)
-        cp[1181] = 0x8ECA; // 車 (28-54)
-        cp[1182] = 0x906E; // 遮 (28-55)
-        cp[1183] = 0x86C7; // 蛇 (28-56)
-        cp[1184] = 0x90AA; // 邪 (28-57)
-        cp[1185] = 0x501F; // 借 (28-58)
-        cp[1186] = 0x52FA; // 勺 (28-59)
-        cp[1187] = 0x5C3A; // 尺 (28-60)
-        cp[1188] = 0x6753; // 杓 (28-61)
-        cp[1189] = 0x707C; // 灼 (28-62)
-        cp[1190] = 0x7235; // 爵 (28-63)
-        cp[1191] = 0x914C; // 酌 (28-64)
-        cp[1192] = 0x91C8; // 釈 (28-65)
-        cp[1193] = 0x932B; // 錫 (28-66)
-        cp[1194] = 0x82E5; // 若 (28-67)
-        cp[1195] = 0x5BC2; // 寂 (28-68)
-        cp[1196] = 0x5F31; // 弱 (28-69)
-        cp[1197] = 0x60F9; // 惹 (28-70)
-        cp[1198] = 0x4E3B; // 主 (28-71)
-        cp[1199] = 0x53D6; // 取 (28-72)
-        cp[1200] = 0x5B88; // 守 (28-73)
-        cp[1201] = 0x624B; // 手 (28-74)
-        cp[1202] = 0x6731; // 朱 (28-75)
-        cp[1203] = 0x6B8A; // 殊 (28-76)
-        cp[1204] = 0x72E9; // 狩 (28-77)
-        cp[1205] = 0x73E0; // 珠 (28-78)
-        cp[1206] = 0x7A2E; // 種 (28-79)
-        cp[1207] = 0x816B; // 腫 (28-80)
-        cp[1208] = 0x8DA3; // 趣 (28-81)
-        cp[1209] = 0x9152; // 酒 (28-82)
-        cp[1210] = 0x9996; // 首 (28-83)
-        cp[1211] = 0x5112; // 儒 (28-84)
-        cp[1212] = 0x53D7; // 受 (28-85)
-        cp[1213] = 0x546A; // 呪 (28-86)
-        cp[1214] = 0x5BFF; // 寿 (28-87)
-        cp[1215] = 0x6388; // 授 (28-88)
-        cp[1216] = 0x6A39; // 樹 (28-89)
-        cp[1217] = 0x7DAC; // 綬 (28-90)
-        cp[1218] = 0x9700; // 需 (28-91)
-        cp[1219] = 0x56DA; // 囚 (28-92)
-        cp[1220] = 0x53CE; // 収 (28-93)
-        cp[1221] = 0x5468; // 周 (28-94)
-        cp[1222] = 0x5B97; // 宗 (29-01)
-        cp[1223] = 0x5C31; // 就 (29-02)
-        cp[1224] = 0x5DDE; // 州 (29-03)
-        cp[1225] = 0x4FEE; // 修 (29-04)
-        cp[1226] = 0x6101; // 愁 (29-05)
-        cp[1227] = 0x62FE; // 拾 (29-06)
-        cp[1228] = 0x6D32; // 洲 (29-07)
-        cp[1229] = 0x79C0; // 秀 (29-08)
-        cp[1230] = 0x79CB; // 秋 (29-09)
-        cp[1231] = 0x7D42; // 終 (29-10)
-        cp[1232] = 0x7E4D; // 繍 (29-11)
-        cp[1233] = 0x7FD2; // 習 (29-12)
-        cp[1234] = 0x81ED; // 臭 (29-13)
-        cp[1235] = 0x821F; // 舟 (29-14)
-        cp[1236] = 0x8490; // 蒐 (29-15)
-        cp[1237] = 0x8846; // 衆 (29-16)
-        cp[1238] = 0x8972; // 襲 (29-17)
-        cp[1239] = 0x8B90; // 讐 (29-18)
-        cp[1240] = 0x8E74; // 蹴 (29-19)
-        cp[1241] = 0x8F2F; // 輯 (29-20)
-        cp[1242] = 0x9031; // 週 (29-21)
-        cp[1243] = 0x914B; // 酋 (29-22)
-        cp[1244] = 0x916C; // 酬 (29-23)
-        cp[1245] = 0x96C6; // 集 (29-24)
-        cp[1246] = 0x919C; // 醜 (29-25)
-        cp[1247] = 0x4EC0; // 什 (29-26)
-        cp[1248] = 0x4F4F; // 住 (29-27)
-        cp[1249] = 0x5145; // 充 (29-28)
-        cp[1250] = 0x5341; // 十 (29-29)
-        cp[1251] = 0x5F93; // 従 (29-30)
-        cp[1252] = 0x620E; // 戎 (29-31)
-        cp[1253] = 0x67D4; // 柔 (29-32)
-        cp[1254] = 0x6C41; // 汁 (29-33)
-        cp[1255] = 0x6E0B; // 渋 (29-34)
-        cp[1256] = 0x7363; // 獣 (29-35)
-        cp[1257] = 0x7E26; // 縦 (29-36)
-        cp[1258] = 0x91CD; // 重 (29-37)
-        cp[1259] = 0x9283; // 銃 (29-38)
-        cp[1260] = 0x53D4; // 叔 (29-39)
-        cp[1261] = 0x5919; // 夙 (29-40)
-        cp[1262] = 0x5BBF; // 宿 (29-41)
-        cp[1263] = 0x6DD1; // 淑 (29-42)
-        cp[1264] = 0x795D; // 祝 (29-43)
-        cp[1265] = 0x7E2E; // 縮 (29-44)
-        cp[1266] = 0x7C9B; // 粛 (29-45)
-        cp[1267] = 0x587E; // 塾 (29-46)
-        cp[1268] = 0x719F; // 熟 (29-47)
-        cp[1269] = 0x51FA; // 出 (29-48)
-        cp[1270] = 0x8853; // 術 (29-49)
-        cp[1271] = 0x8FF0; // 述 (29-50)
-        cp[1272] = 0x4FCA; // 俊 (29-51)
-        cp[1273] = 0x5CFB; // 峻 (29-52)
-        cp[1274] = 0x6625; // 春 (29-53)
-        cp[1275] = 0x77AC; // 瞬 (29-54)
-        cp[1276] = 0x7AE3; // 竣 (29-55)
-        cp[1277] = 0x821C; // 舜 (29-56)
-        cp[1278] = 0x99FF; // 駿 (29-57)
-        cp[1279] = 0x51C6; // 准 (29-58)
-        cp[1280] = 0x5FAA; // 循 (29-59)
-        cp[1281] = 0x65EC; // 旬 (29-60)
-        cp[1282] = 0x696F; // 楯 (29-61)
-        cp[1283] = 0x6B89; // 殉 (29-62)
-        cp[1284] = 0x6DF3; // 淳 (29-63)
-        cp[1285] = 0x6E96; // 準 (29-64)
-        cp[1286] = 0x6F64; // 潤 (29-65)
-        cp[1287] = 0x76FE; // 盾 (29-66)
-        cp[1288] = 0x7D14; // 純 (29-67)
-        cp[1289] = 0x5DE1; // 巡 (29-68)
-        cp[1290] = 0x9075; // 遵 (29-69)
-        cp[1291] = 0x9187; // 醇 (29-70)
-        cp[1292] = 0x9806; // 順 (29-71)
-        cp[1293] = 0x51E6; // 処 (29-72)
-        cp[1294] = 0x521D; // 初 (29-73)
-        cp[1295] = 0x6240; // 所 (29-74)
-        cp[1296] = 0x6691; // 暑 (29-75)
-        cp[1297] = 0x66D9; // 曙 (29-76)
-        cp[1298] = 0x6E1A; // 渚 (29-77)
-        cp[1299] = 0x5EB6; // 庶 (29-78)
-        cp[1300] = 0x7DD2; // 緒 (29-79)
-        cp[1301] = 0x7F72; // 署 (29-80)
-        cp[1302] = 0x66F8; // 書 (29-81)
-        cp[1303] = 0x85AF; // 薯 (29-82)
-        cp[1304] = 0x85F7; // 藷 (29-83)
-        cp[1305] = 0x8AF8; // 諸 (29-84)
-        cp[1306] = 0x52A9; // 助 (29-85)
-        cp[1307] = 0x53D9; // 叙 (29-86)
-        cp[1308] = 0x5973; // 女 (29-87)
-        cp[1309] = 0x5E8F; // 序 (29-88)
-        cp[1310] = 0x5F90; // 徐 (29-89)
-        cp[1311] = 0x6055; // 恕 (29-90)
-        cp[1312] = 0x92E4; // 鋤 (29-91)
-        cp[1313] = 0x9664; // 除 (29-92)
-        cp[1314] = 0x50B7; // 傷 (29-93)
-        cp[1315] = 0x511F; // 償 (29-94)
-        cp[1316] = 0x52DD; // 勝 (30-01)
-        cp[1317] = 0x5320; // 匠 (30-02)
-        cp[1318] = 0x5347; // 升 (30-03)
-        cp[1319] = 0x53EC; // 召 (30-04)
-        cp[1320] = 0x54E8; // 哨 (30-05)
-        cp[1321] = 0x5546; // 商 (30-06)
-        cp[1322] = 0x5531; // 唱 (30-07)
-        cp[1323] = 0x5617; // 嘗 (30-08)
-        cp[1324] = 0x5968; // 奨 (30-09)
-        cp[1325] = 0x59BE; // 妾 (30-10)
-        cp[1326] = 0x5A3C; // 娼 (30-11)
-        cp[1327] = 0x5BB5; // 宵 (30-12)
-        cp[1328] = 0x5C06; // 将 (30-13)
-        cp[1329] = 0x5C0F; // 小 (30-14)
-        cp[1330] = 0x5C11; // 少 (30-15)
-        cp[1331] = 0x5C1A; // 尚 (30-16)
-        cp[1332] = 0x5E84; // 庄 (30-17)
-        cp[1333] = 0x5E8A; // 床 (30-18)
-        cp[1334] = 0x5EE0; // 廠 (30-19)
-        cp[1335] = 0x5F70; // 彰 (30-20)
-        cp[1336] = 0x627F; // 承 (30-21)
-        cp[1337] = 0x6284; // 抄 (30-22)
-        cp[1338] = 0x62DB; // 招 (30-23)
-        cp[1339] = 0x638C; // 掌 (30-24)
-        cp[1340] = 0x6377; // 捷 (30-25)
-        cp[1341] = 0x6607; // 昇 (30-26)
-        cp[1342] = 0x660C; // 昌 (30-27)
-        cp[1343] = 0x662D; // 昭 (30-28)
-        cp[1344] = 0x6676; // 晶 (30-29)
-        cp[1345] = 0x677E; // 松 (30-30)
-        cp[1346] = 0x68A2; // 梢 (30-31)
-        cp[1347] = 0x6A1F; // 樟 (30-32)
-        cp[1348] = 0x6A35; // 樵 (30-33)
-        cp[1349] = 0x6CBC; // 沼 (30-34)
-        cp[1350] = 0x6D88; // 消 (30-35)
-        cp[1351] = 0x6E09; // 渉 (30-36)
-        cp[1352] = 0x6E58; // 湘 (30-37)
-        cp[1353] = 0x713C; // 焼 (30-38)
-        cp[1354] = 0x7126; // 焦 (30-39)
-        cp[1355] = 0x7167; // 照 (30-40)
-        cp[1356] = 0x75C7; // 症 (30-41)
-        cp[1357] = 0x7701; // 省 (30-42)
-        cp[1358] = 0x785D; // 硝 (30-43)
-        cp[1359] = 0x7901; // 礁 (30-44)
-        cp[1360] = 0x7965; // 祥 (30-45)
-        cp[1361] = 0x79F0; // 称 (30-46)
-        cp[1362] = 0x7AE0; // 章 (30-47)
-        cp[1363] = 0x7B11; // 笑 (30-48)
-        cp[1364] = 0x7CA7; // 粧 (30-49)
-        cp[1365] = 0x7D39; // 紹 (30-50)
-        cp[1366] = 0x8096; // 肖 (30-51)
-        cp[1367] = 0x83D6; // 菖 (30-52)
-        cp[1368] = 0x848B; // 蒋 (30-53)
-        cp[1369] = 0x8549; // 蕉 (30-54)
-        cp[1370] = 0x885D; // 衝 (30-55)
-        cp[1371] = 0x88F3; // 裳 (30-56)
-        cp[1372] = 0x8A1F; // 訟 (30-57)
-        cp[1373] = 0x8A3C; // 証 (30-58)
-        cp[1374] = 0x8A54; // 詔 (30-59)
-        cp[1375] = 0x8A73; // 詳 (30-60)
-        cp[1376] = 0x8C61; // 象 (30-61)
-        cp[1377] = 0x8CDE; // 賞 (30-62)
-        cp[1378] = 0x91A4; // 醤 (30-63)
-        cp[1379] = 0x9266; // 鉦 (30-64)
-        cp[1380] = 0x937E; // 鍾 (30-65)
-        cp[1381] = 0x9418; // 鐘 (30-66)
-        cp[1382] = 0x969C; // 障 (30-67)
-        cp[1383] = 0x9798; // 鞘 (30-68)
-        cp[1384] = 0x4E0A; // 上 (30-69)
-        cp[1385] = 0x4E08; // 丈 (30-70)
-        cp[1386] = 0x4E1E; // 丞 (30-71)
-        cp[1387] = 0x4E57; // 乗 (30-72)
-        cp[1388] = 0x5197; // 冗 (30-73)
-        cp[1389] = 0x5270; // 剰 (30-74)
-        cp[1390] = 0x57CE; // 城 (30-75)
-        cp[1391] = 0x5834; // 場 (30-76)
-        cp[1392] = 0x58CC; // 壌 (30-77)
-        cp[1393] = 0x5B22; // 嬢 (30-78)
-        cp[1394] = 0x5E38; // 常 (30-79)
-        cp[1395] = 0x60C5; // 情 (30-80)
-        cp[1396] = 0x64FE; // 擾 (30-81)
-        cp[1397] = 0x6761; // 条 (30-82)
-        cp[1398] = 0x6756; // 杖 (30-83)
-        cp[1399] = 0x6D44; // 浄 (30-84)
-        cp[1400] = 0x72B6; // 状 (30-85)
-        cp[1401] = 0x7573; // 畳 (30-86)
-        cp[1402] = 0x7A63; // 穣 (30-87)
-        cp[1403] = 0x84B8; // 蒸 (30-88)
-        cp[1404] = 0x8B72; // 譲 (30-89)
-        cp[1405] = 0x91B8; // 醸 (30-90)
-        cp[1406] = 0x9320; // 錠 (30-91)
-        cp[1407] = 0x5631; // 嘱 (30-92)
-        cp[1408] = 0x57F4; // 埴 (30-93)
-        cp[1409] = 0x98FE; // 飾 (30-94)
-        cp[1410] = 0x62ED; // 拭 (31-01)
-        cp[1411] = 0x690D; // 植 (31-02)
-        cp[1412] = 0x6B96; // 殖 (31-03)
-        cp[1413] = 0x71ED; // 燭 (31-04)
-        cp[1414] = 0x7E54; // 織 (31-05)
-        cp[1415] = 0x8077; // 職 (31-06)
-        cp[1416] = 0x8272; // 色 (31-07)
-        cp[1417] = 0x89E6; // 触 (31-08)
-        cp[1418] = 0x98DF; // 食 (31-09)
-        cp[1419] = 0x8755; // 蝕 (31-10)
-        cp[1420] = 0x8FB1; // 辱 (31-11)
-        cp[1421] = 0x5C3B; // 尻 (31-12)
-        cp[1422] = 0x4F38; // 伸 (31-13)
-        cp[1423] = 0x4FE1; // 信 (31-14)
-        cp[1424] = 0x4FB5; // 侵 (31-15)
-        cp[1425] = 0x5507; // 唇 (31-16)
-        cp[1426] = 0x5A20; // 娠 (31-17)
-        cp[1427] = 0x5BDD; // 寝 (31-18)
-        cp[1428] = 0x5BE9; // 審 (31-19)
-        cp[1429] = 0x5FC3; // 心 (31-20)
-        cp[1430] = 0x614E; // 慎 (31-21)
-        cp[1431] = 0x632F; // 振 (31-22)
-        cp[1432] = 0x65B0; // 新 (31-23)
-        cp[1433] = 0x664B; // 晋 (31-24)
-        cp[1434] = 0x68EE; // 森 (31-25)
-        cp[1435] = 0x699B; // 榛 (31-26)
-        cp[1436] = 0x6D78; // 浸 (31-27)
-        cp[1437] = 0x6DF1; // 深 (31-28)
-        cp[1438] = 0x7533; // 申 (31-29)
-        cp[1439] = 0x75B9; // 疹 (31-30)
-        cp[1440] = 0x771F; // 真 (31-31)
-        cp[1441] = 0x795E; // 神 (31-32)
-        cp[1442] = 0x79E6; // 秦 (31-33)
-        cp[1443] = 0x7D33; // 紳 (31-34)
-        cp[1444] = 0x81E3; // 臣 (31-35)
-        cp[1445] = 0x82AF; // 芯 (31-36)
-        cp[1446] = 0x85AA; // 薪 (31-37)
-        cp[1447] = 0x89AA; // 親 (31-38)
-        cp[1448] = 0x8A3A; // 診 (31-39)
-        cp[1449] = 0x8EAB; // 身 (31-40)
-        cp[1450] = 0x8F9B; // 辛 (31-41)
-        cp[1451] = 0x9032; // 進 (31-42)
-        cp[1452] = 0x91DD; // 針 (31-43)
-        cp[1453] = 0x9707; // 震 (31-44)
-        cp[1454] = 0x4EBA; // 人 (31-45)
-        cp[1455] = 0x4EC1; // 仁 (31-46)
-        cp[1456] = 0x5203; // 刃 (31-47)
-        cp[1457] = 0x5875; // 塵 (31-48)
-        cp[1458] = 0x58EC; // 壬 (31-49)
-        cp[1459] = 0x5C0B; // 尋 (31-50)
-        cp[1460] = 0x751A; // 甚 (31-51)
-        cp[1461] = 0x5C3D; // 尽 (31-52)
-        cp[1462] = 0x814E; // 腎 (31-53)
-        cp[1463] = 0x8A0A; // 訊 (31-54)
-        cp[1464] = 0x8FC5; // 迅 (31-55)
-        cp[1465] = 0x9663; // 陣 (31-56)
-        cp[1466] = 0x976D; // 靭 (31-57)
-        cp[1467] = 0x7B25; // 笥 (31-58)
-        cp[1468] = 0x8ACF; // 諏 (31-59)
-        cp[1469] = 0x9808; // 須 (31-60)
-        cp[1470] = 0x9162; // 酢 (31-61)
-        cp[1471] = 0x56F3; // 図 (31-62)
-        cp[1472] = 0x53A8; // 厨 (31-63)
-        cp[1473] = 0x9017; // 逗 (31-64)
-        cp[1474] = 0x5439; // 吹 (31-65)
-        cp[1475] = 0x5782; // 垂 (31-66)
-        cp[1476] = 0x5E25; // 帥 (31-67)
-        cp[1477] = 0x63A8; // 推 (31-68)
-        cp[1478] = 0x6C34; // 水 (31-69)
-        cp[1479] = 0x708A; // 炊 (31-70)
-        cp[1480] = 0x7761; // 睡 (31-71)
-        cp[1481] = 0x7C8B; // 粋 (31-72)
-        cp[1482] = 0x7FE0; // 翠 (31-73)
-        cp[1483] = 0x8870; // 衰 (31-74)
-        cp[1484] = 0x9042; // 遂 (31-75)
-        cp[1485] = 0x9154; // 酔 (31-76)
-        cp[1486] = 0x9310; // 錐 (31-77)
-        cp[1487] = 0x9318; // 錘 (31-78)
-        cp[1488] = 0x968F; // 随 (31-79)
-        cp[1489] = 0x745E; // 瑞 (31-80)
-        cp[1490] = 0x9AC4; // 髄 (31-81)
-        cp[1491] = 0x5D07; // 崇 (31-82)
-        cp[1492] = 0x5D69; // 嵩 (31-83)
-        cp[1493] = 0x6570; // 数 (31-84)
-        cp[1494] = 0x67A2; // 枢 (31-85)
-        cp[1495] = 0x8DA8; // 趨 (31-86)
-        cp[1496] = 0x96DB; // 雛 (31-87)
-        cp[1497] = 0x636E; // 据 (31-88)
-        cp[1498] = 0x6749; // 杉 (31-89)
-        cp[1499] = 0x6919; // 椙 (31-90)
-        cp[1500] = 0x83C5; // 菅 (31-91)
-        cp[1501] = 0x9817; // 頗 (31-92)
-        cp[1502] = 0x96C0; // 雀 (31-93)
-        cp[1503] = 0x88FE; // 裾 (31-94)
-        cp[1504] = 0x6F84; // 澄 (32-01)
-        cp[1505] = 0x647A; // 摺 (32-02)
-        cp[1506] = 0x5BF8; // 寸 (32-03)
-        cp[1507] = 0x4E16; // 世 (32-04)
-        cp[1508] = 0x702C; // 瀬 (32-05)
-        cp[1509] = 0x755D; // 畝 (32-06)
-        cp[1510] = 0x662F; // 是 (32-07)
-        cp[1511] = 0x51C4; // 凄 (32-08)
-        cp[1512] = 0x5236; // 制 (32-09)
-        cp[1513] = 0x52E2; // 勢 (32-10)
-        cp[1514] = 0x59D3; // 姓 (32-11)
-        cp[1515] = 0x5F81; // 征 (32-12)
-        cp[1516] = 0x6027; // 性 (32-13)
-        cp[1517] = 0x6210; // 成 (32-14)
-        cp[1518] = 0x653F; // 政 (32-15)
-        cp[1519] = 0x6574; // 整 (32-16)
-        cp[1520] = 0x661F; // 星 (32-17)
-        cp[1521] = 0x6674; // 晴 (32-18)
-        cp[1522] = 0x68F2; // 棲 (32-19)
-        cp[1523] = 0x6816; // 栖 (32-20)
-        cp[1524] = 0x6B63; // 正 (32-21)
-        cp[1525] = 0x6E05; // 清 (32-22)
-        cp[1526] = 0x7272; // 牲 (32-23)
-        cp[1527] = 0x751F; // 生 (32-24)
-        cp[1528] = 0x76DB; // 盛 (32-25)
-        cp[1529] = 0x7CBE; // 精 (32-26)
-        cp[1530] = 0x8056; // 聖 (32-27)
-        cp[1531] = 0x58F0; // 声 (32-28)
-        cp[1532] = 0x88FD; // 製 (32-29)
-        cp[1533] = 0x897F; // 西 (32-30)
-        cp[1534] = 0x8AA0; // 誠 (32-31)
-        cp[1535] = 0x8A93; // 誓 (32-32)
-        cp[1536] = 0x8ACB; // 請 (32-33)
-        cp[1537] = 0x901D; // 逝 (32-34)
-        cp[1538] = 0x9192; // 醒 (32-35)
-        cp[1539] = 0x9752; // 青 (32-36)
-        cp[1540] = 0x9759; // 静 (32-37)
-        cp[1541] = 0x6589; // 斉 (32-38)
-        cp[1542] = 0x7A0E; // 税 (32-39)
-        cp[1543] = 0x8106; // 脆 (32-40)
-        cp[1544] = 0x96BB; // 隻 (32-41)
-        cp[1545] = 0x5E2D; // 席 (32-42)
-        cp[1546] = 0x60DC; // 惜 (32-43)
-        cp[1547] = 0x621A; // 戚 (32-44)
-        cp[1548] = 0x65A5; // 斥 (32-45)
-        cp[1549] = 0x6614; // 昔 (32-46)
-        cp[1550] = 0x6790; // 析 (32-47)
-        cp[1551] = 0x77F3; // 石 (32-48)
-        cp[1552] = 0x7A4D; // 積 (32-49)
-        cp[1553] = 0x7C4D; // 籍 (32-50)
-        cp[1554] = 0x7E3E; // 績 (32-51)
-        cp[1555] = 0x810A; // 脊 (32-52)
-        cp[1556] = 0x8CAC; // 責 (32-53)
-        cp[1557] = 0x8D64; // 赤 (32-54)
-        cp[1558] = 0x8DE1; // 跡 (32-55)
-        cp[1559] = 0x8E5F; // 蹟 (32-56)
-        cp[1560] = 0x78A9; // 碩 (32-57)
-        cp[1561] = 0x5207; // 切 (32-58)
-        cp[1562] = 0x62D9; // 拙 (32-59)
-        cp[1563] = 0x63A5; // 接 (32-60)
-        cp[1564] = 0x6442; // 摂 (32-61)
-        cp[1565] = 0x6298; // 折 (32-62)
-        cp[1566] = 0x8A2D; // 設 (32-63)
-        cp[1567] = 0x7A83; // 窃 (32-64)
-        cp[1568] = 0x7BC0; // 節 (32-65)
-        cp[1569] = 0x8AAC; // 説 (32-66)
-        cp[1570] = 0x96EA; // 雪 (32-67)
-        cp[1571] = 0x7D76; // 絶 (32-68)
-        cp[1572] = 0x820C; // 舌 (32-69)
-        cp[1573] = 0x8749; // 蝉 (32-70)
-        cp[1574] = 0x4ED9; // 仙 (32-71)
-        cp[1575] = 0x5148; // 先 (32-72)
-        cp[1576] = 0x5343; // 千 (32-73)
-        cp[1577] = 0x5360; // 占 (32-74)
-        cp[1578] = 0x5BA3; // 宣 (32-75)
-        cp[1579] = 0x5C02; // 専 (32-76)
-        cp[1580] = 0x5C16; // 尖 (32-77)
-        cp[1581] = 0x5DDD; // 川 (32-78)
-        cp[1582] = 0x6226; // 戦 (32-79)
-        cp[1583] = 0x6247; // 扇 (32-80)
-        cp[1584] = 0x64B0; // 撰 (32-81)
-        cp[1585] = 0x6813; // 栓 (32-82)
-        cp[1586] = 0x6834; // 栴 (32-83)
-        cp[1587] = 0x6CC9; // 泉 (32-84)
-        cp[1588] = 0x6D45; // 浅 (32-85)
-        cp[1589] = 0x6D17; // 洗 (32-86)
-        cp[1590] = 0x67D3; // 染 (32-87)
-        cp[1591] = 0x6F5C; // 潜 (32-88)
-        cp[1592] = 0x714E; // 煎 (32-89)
-        cp[1593] = 0x717D; // 煽 (32-90)
-        cp[1594] = 0x65CB; // 旋 (32-91)
-        cp[1595] = 0x7A7F; // 穿 (32-92)
-        cp[1596] = 0x7BAD; // 箭 (32-93)
-        cp[1597] = 0x7DDA; // 線 (32-94)
-        cp[1598] = 0x7E4A; // 繊 (33-01)
-        cp[1599] = 0x7FA8; // 羨 (33-02)
-        cp[1600] = 0x817A; // 腺 (33-03)
-        cp[1601] = 0x821B; // 舛 (33-04)
-        cp[1602] = 0x8239; // 船 (33-05)
-        cp[1603] = 0x85A6; // 薦 (33-06)
-        cp[1604] = 0x8A6E; // 詮 (33-07)
-        cp[1605] = 0x8CCE; // 賎 (33-08)
-        cp[1606] = 0x8DF5; // 践 (33-09)
-        cp[1607] = 0x9078; // 選 (33-10)
-        cp[1608] = 0x9077; // 遷 (33-11)
-        cp[1609] = 0x92AD; // 銭 (33-12)
-        cp[1610] = 0x9291; // 銑 (33-13)
-        cp[1611] = 0x9583; // 閃 (33-14)
-        cp[1612] = 0x9BAE; // 鮮 (33-15)
-        cp[1613] = 0x524D; // 前 (33-16)
-        cp[1614] = 0x5584; // 善 (33-17)
-        cp[1615] = 0x6F38; // 漸 (33-18)
-        cp[1616] = 0x7136; // 然 (33-19)
-        cp[1617] = 0x5168; // 全 (33-20)
-        cp[1618] = 0x7985; // 禅 (33-21)
-        cp[1619] = 0x7E55; // 繕 (33-22)
-        cp[1620] = 0x81B3; // 膳 (33-23)
-        cp[1621] = 0x7CCE; // 糎 (33-24)
-        cp[1622] = 0x564C; // 噌 (33-25)
-        cp[1623] = 0x5851; // 塑 (33-26)
-        cp[1624] = 0x5CA8; // 岨 (33-27)
-        cp[1625] = 0x63AA; // 措 (33-28)
-        cp[1626] = 0x66FE; // 曾 (33-29)
-        cp[1627] = 0x66FD; // 曽 (33-30)
-        cp[1628] = 0x695A; // 楚 (33-31)
-        cp[1629] = 0x72D9; // 狙 (33-32)
-        cp[1630] = 0x758F; // 疏 (33-33)
-        cp[1631] = 0x758E; // 疎 (33-34)
-        cp[1632] = 0x790E; // 礎 (33-35)
-        cp[1633] = 0x7956; // 祖 (33-36)
-        cp[1634] = 0x79DF; // 租 (33-37)
-        cp[1635] = 0x7C97; // 粗 (33-38)
-        cp[1636] = 0x7D20; // 素 (33-39)
-        cp[1637] = 0x7D44; // 組 (33-40)
-        cp[1638] = 0x8607; // 蘇 (33-41)
-        cp[1639] = 0x8A34; // 訴 (33-42)
-        cp[1640] = 0x963B; // 阻 (33-43)
-        cp[1641] = 0x9061; // 遡 (33-44)
-        cp[1642] = 0x9F20; // 鼠 (33-45)
-        cp[1643] = 0x50E7; // 僧 (33-46)
-        cp[1644] = 0x5275; // 創 (33-47)
-        cp[1645] = 0x53CC; // 双 (33-48)
-        cp[1646] = 0x53E2; // 叢 (33-49)
-        cp[1647] = 0x5009; // 倉 (33-50)
-        cp[1648] = 0x55AA; // 喪 (33-51)
-        cp[1649] = 0x58EE; // 壮 (33-52)
-        cp[1650] = 0x594F; // 奏 (33-53)
-        cp[1651] = 0x723D; // 爽 (33-54)
-        cp[1652] = 0x5B8B; // 宋 (33-55)
-        cp[1653] = 0x5C64; // 層 (33-56)
-        cp[1654] = 0x531D; // 匝 (33-57)
-        cp[1655] = 0x60E3; // 惣 (33-58)
-        cp[1656] = 0x60F3; // 想 (33-59)
-        cp[1657] = 0x635C; // 捜 (33-60)
-        cp[1658] = 0x6383; // 掃 (33-61)
-        cp[1659] = 0x633F; // 挿 (33-62)
-        cp[1660] = 0x63BB; // 掻 (33-63)
-        cp[1661] = 0x64CD; // 操 (33-64)
-        cp[1662] = 0x65E9; // 早 (33-65)
-        cp[1663] = 0x66F9; // 曹 (33-66)
-        cp[1664] = 0x5DE3; // 巣 (33-67)
-        cp[1665] = 0x69CD; // 槍 (33-68)
-        cp[1666] = 0x69FD; // 槽 (33-69)
-        cp[1667] = 0x6F15; // 漕 (33-70)
-        cp[1668] = 0x71E5; // 燥 (33-71)
-        cp[1669] = 0x4E89; // 争 (33-72)
-        cp[1670] = 0x75E9; // 痩 (33-73)
-        cp[1671] = 0x76F8; // 相 (33-74)
-        cp[1672] = 0x7A93; // 窓 (33-75)
-        cp[1673] = 0x7CDF; // 糟 (33-76)
-        cp[1674] = 0x7DCF; // 総 (33-77)
-        cp[1675] = 0x7D9C; // 綜 (33-78)
-        cp[1676] = 0x8061; // 聡 (33-79)
-        cp[1677] = 0x8349; // 草 (33-80)
-        cp[1678] = 0x8358; // 荘 (33-81)
-        cp[1679] = 0x846C; // 葬 (33-82)
-        cp[1680] = 0x84BC; // 蒼 (33-83)
-        cp[1681] = 0x85FB; // 藻 (33-84)
-        cp[1682] = 0x88C5; // 装 (33-85)
-        cp[1683] = 0x8D70; // 走 (33-86)
-        cp[1684] = 0x9001; // 送 (33-87)
-        cp[1685] = 0x906D; // 遭 (33-88)
-        cp[1686] = 0x9397; // 鎗 (33-89)
-        cp[1687] = 0x971C; // 霜 (33-90)
-        cp[1688] = 0x9A12; // 騒 (33-91)
-        cp[1689] = 0x50CF; // 像 (33-92)
-        cp[1690] = 0x5897; // 増 (33-93)
-        cp[1691] = 0x618E; // 憎 (33-94)
-        cp[1692] = 0x81D3; // 臓 (34-01)
-        cp[1693] = 0x8535; // 蔵 (34-02)
-        cp[1694] = 0x8D08; // 贈 (34-03)
-        cp[1695] = 0x9020; // 造 (34-04)
-        cp[1696] = 0x4FC3; // 促 (34-05)
-        cp[1697] = 0x5074; // 側 (34-06)
-        cp[1698] = 0x5247; // 則 (34-07)
-        cp[1699] = 0x5373; // 即 (34-08)
-        cp[1700] = 0x606F; // 息 (34-09)
-        cp[1701] = 0x6349; // 捉 (34-10)
-        cp[1702] = 0x675F; // 束 (34-11)
-        cp[1703] = 0x6E2C; // 測 (34-12)
-        cp[1704] = 0x8DB3; // 足 (34-13)
-        cp[1705] = 0x901F; // 速 (34-14)
-        cp[1706] = 0x4FD7; // 俗 (34-15)
-        cp[1707] = 0x5C5E; // 属 (34-16)
-        cp[1708] = 0x8CCA; // 賊 (34-17)
-        cp[1709] = 0x65CF; // 族 (34-18)
-        cp[1710] = 0x7D9A; // 続 (34-19)
-        cp[1711] = 0x5352; // 卒 (34-20)
-        cp[1712] = 0x8896; // 袖 (34-21)
-        cp[1713] = 0x5176; // 其 (34-22)
-        cp[1714] = 0x63C3; // 揃 (34-23)
-        cp[1715] = 0x5B58; // 存 (34-24)
-        cp[1716] = 0x5B6B; // 孫 (34-25)
-        cp[1717] = 0x5C0A; // 尊 (34-26)
-        cp[1718] = 0x640D; // 損 (34-27)
-        cp[1719] = 0x6751; // 村 (34-28)
-        cp[1720] = 0x905C; // 遜 (34-29)
-        cp[1721] = 0x4ED6; // 他 (34-30)
-        cp[1722] = 0x591A; // 多 (34-31)
-        cp[1723] = 0x592A; // 太 (34-32)
-        cp[1724] = 0x6C70; // 汰 (34-33)
-        cp[1725] = 0x8A51; // 詑 (34-34)
-        cp[1726] = 0x553E; // 唾 (34-35)
-        cp[1727] = 0x5815; // 堕 (34-36)
-        cp[1728] = 0x59A5; // 妥 (34-37)
-        cp[1729] = 0x60F0; // 惰 (34-38)
-        cp[1730] = 0x6253; // 打 (34-39)
-        cp[1731] = 0x67C1; // 柁 (34-40)
-        cp[1732] = 0x8235; // 舵 (34-41)
-        cp[1733] = 0x6955; // 楕 (34-42)
-        cp[1734] = 0x9640; // 陀 (34-43)
-        cp[1735] = 0x99C4; // 駄 (34-44)
-        cp[1736] = 0x9A28; // 騨 (34-45)
-        cp[1737] = 0x4F53; // 体 (34-46)
-        cp[1738] = 0x5806; // 堆 (34-47)
-        cp[1739] = 0x5BFE; // 対 (34-48)
-        cp[1740] = 0x8010; // 耐 (34-49)
-        cp[1741] = 0x5CB1; // 岱 (34-50)
-        cp[1742] = 0x5E2F; // 帯 (34-51)
-        cp[1743] = 0x5F85; // 待 (34-52)
-        cp[1744] = 0x6020; // 怠 (34-53)
-        cp[1745] = 0x614B; // 態 (34-54)
-        cp[1746] = 0x6234; // 戴 (34-55)
-        cp[1747] = 0x66FF; // 替 (34-56)
-        cp[1748] = 0x6CF0; // 泰 (34-57)
-        cp[1749] = 0x6EDE; // 滞 (34-58)
-        cp[1750] = 0x80CE; // 胎 (34-59)
-        cp[1751] = 0x817F; // 腿 (34-60)
-        cp[1752] = 0x82D4; // 苔 (34-61)
-        cp[1753] = 0x888B; // 袋 (34-62)
-        cp[1754] = 0x8CB8; // 貸 (34-63)
-        cp[1755] = 0x9000; // 退 (34-64)
-        cp[1756] = 0x902E; // 逮 (34-65)
-        cp[1757] = 0x968A; // 隊 (34-66)
-        cp[1758] = 0x9EDB; // 黛 (34-67)
-        cp[1759] = 0x9BDB; // 鯛 (34-68)
-        cp[1760] = 0x4EE3; // 代 (34-69)
-        cp[1761] = 0x53F0; // 台 (34-70)
-        cp[1762] = 0x5927; // 大 (34-71)
-        cp[1763] = 0x7B2C; // 第 (34-72)
-        cp[1764] = 0x918D; // 醍 (34-73)
-        cp[1765] = 0x984C; // 題 (34-74)
-        cp[1766] = 0x9DF9; // 鷹 (34-75)
-        cp[1767] = 0x6EDD; // 滝 (34-76)
-        cp[1768] = 0x7027; // 瀧 (34-77)
-        cp[1769] = 0x5353; // 卓 (34-78)
-        cp[1770] = 0x5544; // 啄 (34-79)
-        cp[1771] = 0x5B85; // 宅 (34-80)
-        cp[1772] = 0x6258; // 托 (34-81)
-        cp[1773] = 0x629E; // 択 (34-82)
-        cp[1774] = 0x62D3; // 拓 (34-83)
-        cp[1775] = 0x6CA2; // 沢 (34-84)
-        cp[1776] = 0x6FEF; // 濯 (34-85)
-        cp[1777] = 0x7422; // 琢 (34-86)
-        cp[1778] = 0x8A17; // 託 (34-87)
-        cp[1779] = 0x9438; // 鐸 (34-88)
-        cp[1780] = 0x6FC1; // 濁 (34-89)
-        cp[1781] = 0x8AFE; // 諾 (34-90)
-        cp[1782] = 0x8338; // 茸 (34-91)
-        cp[1783] = 0x51E7; // 凧 (34-92)
-        cp[1784] = 0x86F8; // 蛸 (34-93)
-        cp[1785] = 0x53EA; // 只 (34-94)
-        cp[1786] = 0x53E9; // 叩 (35-01)
-        cp[1787] = 0x4F46; // 但 (35-02)
-        cp[1788] = 0x9054; // 達 (35-03)
-        cp[1789] = 0x8FB0; // 辰 (35-04)
-        cp[1790] = 0x596A; // 奪 (35-05)
-        cp[1791] = 0x8131; // 脱 (35-06)
-        cp[1792] = 0x5DFD; // 巽 (35-07)
-        cp[1793] = 0x7AEA; // 竪 (35-08)
-        cp[1794] = 0x8FBF; // 辿 (35-09)
-        cp[1795] = 0x68DA; // 棚 (35-10)
-        cp[1796] = 0x8C37; // 谷 (35-11)
-        cp[1797] = 0x72F8; // 狸 (35-12)
-        cp[1798] = 0x9C48; // 鱈 (35-13)
-        cp[1799] = 0x6A3D; // 樽 (35-14)
-        cp[1800] = 0x8AB0; // 誰 (35-15)
-        cp[1801] = 0x4E39; // 丹 (35-16)
-        cp[1802] = 0x5358; // 単 (35-17)
-        cp[1803] = 0x5606; // 嘆 (35-18)
-        cp[1804] = 0x5766; // 坦 (35-19)
-        cp[1805] = 0x62C5; // 担 (35-20)
-        cp[1806] = 0x63A2; // 探 (35-21)
-        cp[1807] = 0x65E6; // 旦 (35-22)
-        cp[1808] = 0x6B4E; // 歎 (35-23)
-        cp[1809] = 0x6DE1; // 淡 (35-24)
-        cp[1810] = 0x6E5B; // 湛 (35-25)
-        cp[1811] = 0x70AD; // 炭 (35-26)
-        cp[1812] = 0x77ED; // 短 (35-27)
-        cp[1813] = 0x7AEF; // 端 (35-28)
-        cp[1814] = 0x7BAA; // 箪 (35-29)
-        cp[1815] = 0x7DBB; // 綻 (35-30)
-        cp[1816] = 0x803D; // 耽 (35-31)
-        cp[1817] = 0x80C6; // 胆 (35-32)
-        cp[1818] = 0x86CB; // 蛋 (35-33)
-        cp[1819] = 0x8A95; // 誕 (35-34)
-        cp[1820] = 0x935B; // 鍛 (35-35)
-        cp[1821] = 0x56E3; // 団 (35-36)
-        cp[1822] = 0x58C7; // 壇 (35-37)
-        cp[1823] = 0x5F3E; // 弾 (35-38)
-        cp[1824] = 0x65AD; // 断 (35-39)
-        cp[1825] = 0x6696; // 暖 (35-40)
-        cp[1826] = 0x6A80; // 檀 (35-41)
-        cp[1827] = 0x6BB5; // 段 (35-42)
-        cp[1828] = 0x7537; // 男 (35-43)
-        cp[1829] = 0x8AC7; // 談 (35-44)
-        cp[1830] = 0x5024; // 値 (35-45)
-        cp[1831] = 0x77E5; // 知 (35-46)
-        cp[1832] = 0x5730; // 地 (35-47)
-        cp[1833] = 0x5F1B; // 弛 (35-48)
-        cp[1834] = 0x6065; // 恥 (35-49)
-        cp[1835] = 0x667A; // 智 (35-50)
-        cp[1836] = 0x6C60; // 池 (35-51)
-        cp[1837] = 0x75F4; // 痴 (35-52)
-        cp[1838] = 0x7A1A; // 稚 (35-53)
-        cp[1839] = 0x7F6E; // 置 (35-54)
-        cp[1840] = 0x81F4; // 致 (35-55)
-        cp[1841] = 0x8718; // 蜘 (35-56)
-        cp[1842] = 0x9045; // 遅 (35-57)
-        cp[1843] = 0x99B3; // 馳 (35-58)
-        cp[1844] = 0x7BC9; // 築 (35-59)
-        cp[1845] = 0x755C; // 畜 (35-60)
-        cp[1846] = 0x7AF9; // 竹 (35-61)
-        cp[1847] = 0x7B51; // 筑 (35-62)
-        cp[1848] = 0x84C4; // 蓄 (35-63)
-        cp[1849] = 0x9010; // 逐 (35-64)
-        cp[1850] = 0x79E9; // 秩 (35-65)
-        cp[1851] = 0x7A92; // 窒 (35-66)
-        cp[1852] = 0x8336; // 茶 (35-67)
-        cp[1853] = 0x5AE1; // 嫡 (35-68)
-        cp[1854] = 0x7740; // 着 (35-69)
-        cp[1855] = 0x4E2D; // 中 (35-70)
-        cp[1856] = 0x4EF2; // 仲 (35-71)
-        cp[1857] = 0x5B99; // 宙 (35-72)
-        cp[1858] = 0x5FE0; // 忠 (35-73)
-        cp[1859] = 0x62BD; // 抽 (35-74)
-        cp[1860] = 0x663C; // 昼 (35-75)
-        cp[1861] = 0x67F1; // 柱 (35-76)
-        cp[1862] = 0x6CE8; // 注 (35-77)
-        cp[1863] = 0x866B; // 虫 (35-78)
-        cp[1864] = 0x8877; // 衷 (35-79)
-        cp[1865] = 0x8A3B; // 註 (35-80)
-        cp[1866] = 0x914E; // 酎 (35-81)
-        cp[1867] = 0x92F3; // 鋳 (35-82)
-        cp[1868] = 0x99D0; // 駐 (35-83)
-        cp[1869] = 0x6A17; // 樗 (35-84)
-        cp[1870] = 0x7026; // 瀦 (35-85)
-        cp[1871] = 0x732A; // 猪 (35-86)
-        cp[1872] = 0x82E7; // 苧 (35-87)
-        cp[1873] = 0x8457; // 著 (35-88)
-        cp[1874] = 0x8CAF; // 貯 (35-89)
-        cp[1875] = 0x4E01; // 丁 (35-90)
-        cp[1876] = 0x5146; // 兆 (35-91)
-        cp[1877] = 0x51CB; // 凋 (35-92)
-        cp[1878] = 0x558B; // 喋 (35-93)
-        cp[1879] = 0x5BF5; // 寵 (35-94)
-        cp[1880] = 0x5E16; // 帖 (36-01)
-        cp[1881] = 0x5E33; // 帳 (36-02)
-        cp[1882] = 0x5E81; // 庁 (36-03)
-        cp[1883] = 0x5F14; // 弔 (36-04)
-        cp[1884] = 0x5F35; // 張 (36-05)
-        cp[1885] = 0x5F6B; // 彫 (36-06)
-        cp[1886] = 0x5FB4; // 徴 (36-07)
-        cp[1887] = 0x61F2; // 懲 (36-08)
-        cp[1888] = 0x6311; // 挑 (36-09)
-        cp[1889] = 0x66A2; // 暢 (36-10)
-        cp[1890] = 0x671D; // 朝 (36-11)
-        cp[1891] = 0x6F6E; // 潮 (36-12)
-        cp[1892] = 0x7252; // 牒 (36-13)
-        cp[1893] = 0x753A; // 町 (36-14)
-        cp[1894] = 0x773A; // 眺 (36-15)
-        cp[1895] = 0x8074; // 聴 (36-16)
-        cp[1896] = 0x8139; // 脹 (36-17)
-        cp[1897] = 0x8178; // 腸 (36-18)
-        cp[1898] = 0x8776; // 蝶 (36-19)
-        cp[1899] = 0x8ABF; // 調 (36-20)
-        cp[1900] = 0x8ADC; // 諜 (36-21)
-        cp[1901] = 0x8D85; // 超 (36-22)
-        cp[1902] = 0x8DF3; // 跳 (36-23)
-        cp[1903] = 0x929A; // 銚 (36-24)
-        cp[1904] = 0x9577; // 長 (36-25)
-        cp[1905] = 0x9802; // 頂 (36-26)
-        cp[1906] = 0x9CE5; // 鳥 (36-27)
-        cp[1907] = 0x52C5; // 勅 (36-28)
-        cp[1908] = 0x6357; // 捗 (36-29)
-        cp[1909] = 0x76F4; // 直 (36-30)
-        cp[1910] = 0x6715; // 朕 (36-31)
-        cp[1911] = 0x6C88; // 沈 (36-32)
-        cp[1912] = 0x73CD; // 珍 (36-33)
-        cp[1913] = 0x8CC3; // 賃 (36-34)
-        cp[1914] = 0x93AE; // 鎮 (36-35)
-        cp[1915] = 0x9673; // 陳 (36-36)
-        cp[1916] = 0x6D25; // 津 (36-37)
-        cp[1917] = 0x589C; // 墜 (36-38)
-        cp[1918] = 0x690E; // 椎 (36-39)
-        cp[1919] = 0x69CC; // 槌 (36-40)
-        cp[1920] = 0x8FFD; // 追 (36-41)
-        cp[1921] = 0x939A; // 鎚 (36-42)
-        cp[1922] = 0x75DB; // 痛 (36-43)
-        cp[1923] = 0x901A; // 通 (36-44)
-        cp[1924] = 0x585A; // 塚 (36-45)
-        cp[1925] = 0x6802; // 栂 (36-46)
-        cp[1926] = 0x63B4; // 掴 (36-47)
-        cp[1927] = 0x69FB; // 槻 (36-48)
-        cp[1928] = 0x4F43; // 佃 (36-49)
-        cp[1929] = 0x6F2C; // 漬 (36-50)
-        cp[1930] = 0x67D8; // 柘 (36-51)
-        cp[1931] = 0x8FBB; // 辻 (36-52)
-        cp[1932] = 0x8526; // 蔦 (36-53)
-        cp[1933] = 0x7DB4; // 綴 (36-54)
-        cp[1934] = 0x9354; // 鍔 (36-55)
-        cp[1935] = 0x693F; // 椿 (36-56)
-        cp[1936] = 0x6F70; // 潰 (36-57)
-        cp[1937] = 0x576A; // 坪 (36-58)
-        cp[1938] = 0x58F7; // 壷 (36-59)
-        cp[1939] = 0x5B2C; // 嬬 (36-60)
-        cp[1940] = 0x7D2C; // 紬 (36-61)
-        cp[1941] = 0x722A; // 爪 (36-62)
-        cp[1942] = 0x540A; // 吊 (36-63)
-        cp[1943] = 0x91E3; // 釣 (36-64)
-        cp[1944] = 0x9DB4; // 鶴 (36-65)
-        cp[1945] = 0x4EAD; // 亭 (36-66)
-        cp[1946] = 0x4F4E; // 低 (36-67)
-        cp[1947] = 0x505C; // 停 (36-68)
-        cp[1948] = 0x5075; // 偵 (36-69)
-        cp[1949] = 0x5243; // 剃 (36-70)
-        cp[1950] = 0x8C9E; // 貞 (36-71)
-        cp[1951] = 0x5448; // 呈 (36-72)
-        cp[1952] = 0x5824; // 堤 (36-73)
-        cp[1953] = 0x5B9A; // 定 (36-74)
-        cp[1954] = 0x5E1D; // 帝 (36-75)
-        cp[1955] = 0x5E95; // 底 (36-76)
-        cp[1956] = 0x5EAD; // 庭 (36-77)
-        cp[1957] = 0x5EF7; // 廷 (36-78)
-        cp[1958] = 0x5F1F; // 弟 (36-79)
-        cp[1959] = 0x608C; // 悌 (36-80)
-        cp[1960] = 0x62B5; // 抵 (36-81)
-        cp[1961] = 0x633A; // 挺 (36-82)
-        cp[1962] = 0x63D0; // 提 (36-83)
-        cp[1963] = 0x68AF; // 梯 (36-84)
-        cp[1964] = 0x6C40; // 汀 (36-85)
-        cp[1965] = 0x7887; // 碇 (36-86)
-        cp[1966] = 0x798E; // 禎 (36-87)
-        cp[1967] = 0x7A0B; // 程 (36-88)
-        cp[1968] = 0x7DE0; // 締 (36-89)
-        cp[1969] = 0x8247; // 艇 (36-90)
-        cp[1970] = 0x8A02; // 訂 (36-91)
-        cp[1971] = 0x8AE6; // 諦 (36-92)
-        cp[1972] = 0x8E44; // 蹄 (36-93)
-        cp[1973] = 0x9013; // 逓 (36-94)
-        cp[1974] = 0x90B8; // 邸 (37-01)
-        cp[1975] = 0x912D; // 鄭 (37-02)
-        cp[1976] = 0x91D8; // 釘 (37-03)
-        cp[1977] = 0x9F0E; // 鼎 (37-04)
-        cp[1978] = 0x6CE5; // 泥 (37-05)
-        cp[1979] = 0x6458; // 摘 (37-06)
-        cp[1980] = 0x64E2; // 擢 (37-07)
-        cp[1981] = 0x6575; // 敵 (37-08)
-        cp[1982] = 0x6EF4; // 滴 (37-09)
-        cp[1983] = 0x7684; // 的 (37-10)
-        cp[1984] = 0x7B1B; // 笛 (37-11)
-        cp[1985] = 0x9069; // 適 (37-12)
-        cp[1986] = 0x93D1; // 鏑 (37-13)
-        cp[1987] = 0x6EBA; // 溺 (37-14)
-        cp[1988] = 0x54F2; // 哲 (37-15)
-        cp[1989] = 0x5FB9; // 徹 (37-16)
-        cp[1990] = 0x64A4; // 撤 (37-17)
-        cp[1991] = 0x8F4D; // 轍 (37-18)
-        cp[1992] = 0x8FED; // 迭 (37-19)
-        cp[1993] = 0x9244; // 鉄 (37-20)
-        cp[1994] = 0x5178; // 典 (37-21)
-        cp[1995] = 0x586B; // 填 (37-22)
-        cp[1996] = 0x5929; // 天 (37-23)
-        cp[1997] = 0x5C55; // 展 (37-24)
-        cp[1998] = 0x5E97; // 店 (37-25)
-        cp[1999] = 0x6DFB; // 添 (37-26)
-        return t2(cp);
-    }
-
-    private static Integer[] t2(Integer[] cp) {
-        cp[2000] = 0x7E8F; // 纏 (37-27)
-        cp[2001] = 0x751C; // 甜 (37-28)
-        cp[2002] = 0x8CBC; // 貼 (37-29)
-        cp[2003] = 0x8EE2; // 転 (37-30)
-        cp[2004] = 0x985B; // 顛 (37-31)
-        cp[2005] = 0x70B9; // 点 (37-32)
-        cp[2006] = 0x4F1D; // 伝 (37-33)
-        cp[2007] = 0x6BBF; // 殿 (37-34)
-        cp[2008] = 0x6FB1; // 澱 (37-35)
-        cp[2009] = 0x7530; // 田 (37-36)
-        cp[2010] = 0x96FB; // 電 (37-37)
-        cp[2011] = 0x514E; // 兎 (37-38)
-        cp[2012] = 0x5410; // 吐 (37-39)
-        cp[2013] = 0x5835; // 堵 (37-40)
-        cp[2014] = 0x5857; // 塗 (37-41)
-        cp[2015] = 0x59AC; // 妬 (37-42)
-        cp[2016] = 0x5C60; // 屠 (37-43)
-        cp[2017] = 0x5F92; // 徒 (37-44)
-        cp[2018] = 0x6597; // 斗 (37-45)
-        cp[2019] = 0x675C; // 杜 (37-46)
-        cp[2020] = 0x6E21; // 渡 (37-47)
-        cp[2021] = 0x767B; // 登 (37-48)
-        cp[2022] = 0x83DF; // 菟 (37-49)
-        cp[2023] = 0x8CED; // 賭 (37-50)
-        cp[2024] = 0x9014; // 途 (37-51)
-        cp[2025] = 0x90FD; // 都 (37-52)
-        cp[2026] = 0x934D; // 鍍 (37-53)
-        cp[2027] = 0x7825; // 砥 (37-54)
-        cp[2028] = 0x783A; // 砺 (37-55)
-        cp[2029] = 0x52AA; // 努 (37-56)
-        cp[2030] = 0x5EA6; // 度 (37-57)
-        cp[2031] = 0x571F; // 土 (37-58)
-        cp[2032] = 0x5974; // 奴 (37-59)
-        cp[2033] = 0x6012; // 怒 (37-60)
-        cp[2034] = 0x5012; // 倒 (37-61)
-        cp[2035] = 0x515A; // 党 (37-62)
-        cp[2036] = 0x51AC; // 冬 (37-63)
-        cp[2037] = 0x51CD; // 凍 (37-64)
-        cp[2038] = 0x5200; // 刀 (37-65)
-        cp[2039] = 0x5510; // 唐 (37-66)
-        cp[2040] = 0x5854; // 塔 (37-67)
-        cp[2041] = 0x5858; // 塘 (37-68)
-        cp[2042] = 0x5957; // 套 (37-69)
-        cp[2043] = 0x5B95; // 宕 (37-70)
-        cp[2044] = 0x5CF6; // 島 (37-71)
-        cp[2045] = 0x5D8B; // 嶋 (37-72)
-        cp[2046] = 0x60BC; // 悼 (37-73)
-        cp[2047] = 0x6295; // 投 (37-74)
-        cp[2048] = 0x642D; // 搭 (37-75)
-        cp[2049] = 0x6771; // 東 (37-76)
-        cp[2050] = 0x6843; // 桃 (37-77)
-        cp[2051] = 0x68BC; // 梼 (37-78)
-        cp[2052] = 0x68DF; // 棟 (37-79)
-        cp[2053] = 0x76D7; // 盗 (37-80)
-        cp[2054] = 0x6DD8; // 淘 (37-81)
-        cp[2055] = 0x6E6F; // 湯 (37-82)
-        cp[2056] = 0x6D9B; // 涛 (37-83)
-        cp[2057] = 0x706F; // 灯 (37-84)
-        cp[2058] = 0x71C8; // 燈 (37-85)
-        cp[2059] = 0x5F53; // 当 (37-86)
-        cp[2060] = 0x75D8; // 痘 (37-87)
-        cp[2061] = 0x7977; // 祷 (37-88)
-        cp[2062] = 0x7B49; // 等 (37-89)
-        cp[2063] = 0x7B54; // 答 (37-90)
-        cp[2064] = 0x7B52; // 筒 (37-91)
-        cp[2065] = 0x7CD6; // 糖 (37-92)
-        cp[2066] = 0x7D71; // 統 (37-93)
-        cp[2067] = 0x5230; // 到 (37-94)
-        cp[2068] = 0x8463; // 董 (38-01)
-        cp[2069] = 0x8569; // 蕩 (38-02)
-        cp[2070] = 0x85E4; // 藤 (38-03)
-        cp[2071] = 0x8A0E; // 討 (38-04)
-        cp[2072] = 0x8B04; // 謄 (38-05)
-        cp[2073] = 0x8C46; // 豆 (38-06)
-        cp[2074] = 0x8E0F; // 踏 (38-07)
-        cp[2075] = 0x9003; // 逃 (38-08)
-        cp[2076] = 0x900F; // 透 (38-09)
-        cp[2077] = 0x9419; // 鐙 (38-10)
-        cp[2078] = 0x9676; // 陶 (38-11)
-        cp[2079] = 0x982D; // 頭 (38-12)
-        cp[2080] = 0x9A30; // 騰 (38-13)
-        cp[2081] = 0x95D8; // 闘 (38-14)
-        cp[2082] = 0x50CD; // 働 (38-15)
-        cp[2083] = 0x52D5; // 動 (38-16)
-        cp[2084] = 0x540C; // 同 (38-17)
-        cp[2085] = 0x5802; // 堂 (38-18)
-        cp[2086] = 0x5C0E; // 導 (38-19)
-        cp[2087] = 0x61A7; // 憧 (38-20)
-        cp[2088] = 0x649E; // 撞 (38-21)
-        cp[2089] = 0x6D1E; // 洞 (38-22)
-        cp[2090] = 0x77B3; // 瞳 (38-23)
-        cp[2091] = 0x7AE5; // 童 (38-24)
-        cp[2092] = 0x80F4; // 胴 (38-25)
-        cp[2093] = 0x8404; // 萄 (38-26)
-        cp[2094] = 0x9053; // 道 (38-27)
-        cp[2095] = 0x9285; // 銅 (38-28)
-        cp[2096] = 0x5CE0; // 峠 (38-29)
-        cp[2097] = 0x9D07; // 鴇 (38-30)
-        cp[2098] = 0x533F; // 匿 (38-31)
-        cp[2099] = 0x5F97; // 得 (38-32)
-        cp[2100] = 0x5FB3; // 徳 (38-33)
-        cp[2101] = 0x6D9C; // 涜 (38-34)
-        cp[2102] = 0x7279; // 特 (38-35)
-        cp[2103] = 0x7763; // 督 (38-36)
-        cp[2104] = 0x79BF; // 禿 (38-37)
-        cp[2105] = 0x7BE4; // 篤 (38-38)
-        cp[2106] = 0x6BD2; // 毒 (38-39)
-        cp[2107] = 0x72EC; // 独 (38-40)
-        cp[2108] = 0x8AAD; // 読 (38-41)
-        cp[2109] = 0x6803; // 栃 (38-42)
-        cp[2110] = 0x6A61; // 橡 (38-43)
-        cp[2111] = 0x51F8; // 凸 (38-44)
-        cp[2112] = 0x7A81; // 突 (38-45)
-        cp[2113] = 0x6934; // 椴 (38-46)
-        cp[2114] = 0x5C4A; // 届 (38-47)
-        cp[2115] = 0x9CF6; // 鳶 (38-48)
-        cp[2116] = 0x82EB; // 苫 (38-49)
-        cp[2117] = 0x5BC5; // 寅 (38-50)
-        cp[2118] = 0x9149; // 酉 (38-51)
-        cp[2119] = 0x701E; // 瀞 (38-52)
-        cp[2120] = 0x5678; // 噸 (38-53)
-        cp[2121] = 0x5C6F; // 屯 (38-54)
-        cp[2122] = 0x60C7; // 惇 (38-55)
-        cp[2123] = 0x6566; // 敦 (38-56)
-        cp[2124] = 0x6C8C; // 沌 (38-57)
-        cp[2125] = 0x8C5A; // 豚 (38-58)
-        cp[2126] = 0x9041; // 遁 (38-59)
-        cp[2127] = 0x9813; // 頓 (38-60)
-        cp[2128] = 0x5451; // 呑 (38-61)
-        cp[2129] = 0x66C7; // 曇 (38-62)
-        cp[2130] = 0x920D; // 鈍 (38-63)
-        cp[2131] = 0x5948; // 奈 (38-64)
-        cp[2132] = 0x90A3; // 那 (38-65)
-        cp[2133] = 0x5185; // 内 (38-66)
-        cp[2134] = 0x4E4D; // 乍 (38-67)
-        cp[2135] = 0x51EA; // 凪 (38-68)
-        cp[2136] = 0x8599; // 薙 (38-69)
-        cp[2137] = 0x8B0E; // 謎 (38-70)
-        cp[2138] = 0x7058; // 灘 (38-71)
-        cp[2139] = 0x637A; // 捺 (38-72)
-        cp[2140] = 0x934B; // 鍋 (38-73)
-        cp[2141] = 0x6962; // 楢 (38-74)
-        cp[2142] = 0x99B4; // 馴 (38-75)
-        cp[2143] = 0x7E04; // 縄 (38-76)
-        cp[2144] = 0x7577; // 畷 (38-77)
-        cp[2145] = 0x5357; // 南 (38-78)
-        cp[2146] = 0x6960; // 楠 (38-79)
-        cp[2147] = 0x8EDF; // 軟 (38-80)
-        cp[2148] = 0x96E3; // 難 (38-81)
-        cp[2149] = 0x6C5D; // 汝 (38-82)
-        cp[2150] = 0x4E8C; // 二 (38-83)
-        cp[2151] = 0x5C3C; // 尼 (38-84)
-        cp[2152] = 0x5F10; // 弐 (38-85)
-        cp[2153] = 0x8FE9; // 迩 (38-86)
-        cp[2154] = 0x5302; // 匂 (38-87)
-        cp[2155] = 0x8CD1; // 賑 (38-88)
-        cp[2156] = 0x8089; // 肉 (38-89)
-        cp[2157] = 0x8679; // 虹 (38-90)
-        cp[2158] = 0x5EFF; // 廿 (38-91)
-        cp[2159] = 0x65E5; // 日 (38-92)
-        cp[2160] = 0x4E73; // 乳 (38-93)
-        cp[2161] = 0x5165; // 入 (38-94)
-        cp[2162] = 0x5982; // 如 (39-01)
-        cp[2163] = 0x5C3F; // 尿 (39-02)
-        cp[2164] = 0x97EE; // 韮 (39-03)
-        cp[2165] = 0x4EFB; // 任 (39-04)
-        cp[2166] = 0x598A; // 妊 (39-05)
-        cp[2167] = 0x5FCD; // 忍 (39-06)
-        cp[2168] = 0x8A8D; // 認 (39-07)
-        cp[2169] = 0x6FE1; // 濡 (39-08)
-        cp[2170] = 0x79B0; // 禰 (39-09)
-        cp[2171] = 0x7962; // 祢 (39-10)
-        cp[2172] = 0x5BE7; // 寧 (39-11)
-        cp[2173] = 0x8471; // 葱 (39-12)
-        cp[2174] = 0x732B; // 猫 (39-13)
-        cp[2175] = 0x71B1; // 熱 (39-14)
-        cp[2176] = 0x5E74; // 年 (39-15)
-        cp[2177] = 0x5FF5; // 念 (39-16)
-        cp[2178] = 0x637B; // 捻 (39-17)
-        cp[2179] = 0x649A; // 撚 (39-18)
-        cp[2180] = 0x71C3; // 燃 (39-19)
-        cp[2181] = 0x7C98; // 粘 (39-20)
-        cp[2182] = 0x4E43; // 乃 (39-21)
-        cp[2183] = 0x5EFC; // 廼 (39-22)
-        cp[2184] = 0x4E4B; // 之 (39-23)
-        cp[2185] = 0x57DC; // 埜 (39-24)
-        cp[2186] = 0x56A2; // 嚢 (39-25)
-        cp[2187] = 0x60A9; // 悩 (39-26)
-        cp[2188] = 0x6FC3; // 濃 (39-27)
-        cp[2189] = 0x7D0D; // 納 (39-28)
-        cp[2190] = 0x80FD; // 能 (39-29)
-        cp[2191] = 0x8133; // 脳 (39-30)
-        cp[2192] = 0x81BF; // 膿 (39-31)
-        cp[2193] = 0x8FB2; // 農 (39-32)
-        cp[2194] = 0x8997; // 覗 (39-33)
-        cp[2195] = 0x86A4; // 蚤 (39-34)
-        cp[2196] = 0x5DF4; // 巴 (39-35)
-        cp[2197] = 0x628A; // 把 (39-36)
-        cp[2198] = 0x64AD; // 播 (39-37)
-        cp[2199] = 0x8987; // 覇 (39-38)
-        cp[2200] = 0x6777; // 杷 (39-39)
-        cp[2201] = 0x6CE2; // 波 (39-40)
-        cp[2202] = 0x6D3E; // 派 (39-41)
-        cp[2203] = 0x7436; // 琶 (39-42)
-        cp[2204] = 0x7834; // 破 (39-43)
-        cp[2205] = 0x5A46; // 婆 (39-44)
-        cp[2206] = 0x7F75; // 罵 (39-45)
-        cp[2207] = 0x82AD; // 芭 (39-46)
-        cp[2208] = 0x99AC; // 馬 (39-47)
-        cp[2209] = 0x4FF3; // 俳 (39-48)
-        cp[2210] = 0x5EC3; // 廃 (39-49)
-        cp[2211] = 0x62DD; // 拝 (39-50)
-        cp[2212] = 0x6392; // 排 (39-51)
-        cp[2213] = 0x6557; // 敗 (39-52)
-        cp[2214] = 0x676F; // 杯 (39-53)
-        cp[2215] = 0x76C3; // 盃 (39-54)
-        cp[2216] = 0x724C; // 牌 (39-55)
-        cp[2217] = 0x80CC; // 背 (39-56)
-        cp[2218] = 0x80BA; // 肺 (39-57)
-        cp[2219] = 0x8F29; // 輩 (39-58)
-        cp[2220] = 0x914D; // 配 (39-59)
-        cp[2221] = 0x500D; // 倍 (39-60)
-        cp[2222] = 0x57F9; // 培 (39-61)
-        cp[2223] = 0x5A92; // 媒 (39-62)
-        cp[2224] = 0x6885; // 梅 (39-63)
-        cp[2225] = 0x6973; // 楳 (39-64)
-        cp[2226] = 0x7164; // 煤 (39-65)
-        cp[2227] = 0x72FD; // 狽 (39-66)
-        cp[2228] = 0x8CB7; // 買 (39-67)
-        cp[2229] = 0x58F2; // 売 (39-68)
-        cp[2230] = 0x8CE0; // 賠 (39-69)
-        cp[2231] = 0x966A; // 陪 (39-70)
-        cp[2232] = 0x9019; // 這 (39-71)
-        cp[2233] = 0x877F; // 蝿 (39-72)
-        cp[2234] = 0x79E4; // 秤 (39-73)
-        cp[2235] = 0x77E7; // 矧 (39-74)
-        cp[2236] = 0x8429; // 萩 (39-75)
-        cp[2237] = 0x4F2F; // 伯 (39-76)
-        cp[2238] = 0x5265; // 剥 (39-77)
-        cp[2239] = 0x535A; // 博 (39-78)
-        cp[2240] = 0x62CD; // 拍 (39-79)
-        cp[2241] = 0x67CF; // 柏 (39-80)
-        cp[2242] = 0x6CCA; // 泊 (39-81)
-        cp[2243] = 0x767D; // 白 (39-82)
-        cp[2244] = 0x7B94; // 箔 (39-83)
-        cp[2245] = 0x7C95; // 粕 (39-84)
-        cp[2246] = 0x8236; // 舶 (39-85)
-        cp[2247] = 0x8584; // 薄 (39-86)
-        cp[2248] = 0x8FEB; // 迫 (39-87)
-        cp[2249] = 0x66DD; // 曝 (39-88)
-        cp[2250] = 0x6F20; // 漠 (39-89)
-        cp[2251] = 0x7206; // 爆 (39-90)
-        cp[2252] = 0x7E1B; // 縛 (39-91)
-        cp[2253] = 0x83AB; // 莫 (39-92)
-        cp[2254] = 0x99C1; // 駁 (39-93)
-        cp[2255] = 0x9EA6; // 麦 (39-94)
-        cp[2256] = 0x51FD; // 函 (40-01)
-        cp[2257] = 0x7BB1; // 箱 (40-02)
-        cp[2258] = 0x7872; // 硲 (40-03)
-        cp[2259] = 0x7BB8; // 箸 (40-04)
-        cp[2260] = 0x8087; // 肇 (40-05)
-        cp[2261] = 0x7B48; // 筈 (40-06)
-        cp[2262] = 0x6AE8; // 櫨 (40-07)
-        cp[2263] = 0x5E61; // 幡 (40-08)
-        cp[2264] = 0x808C; // 肌 (40-09)
-        cp[2265] = 0x7551; // 畑 (40-10)
-        cp[2266] = 0x7560; // 畠 (40-11)
-        cp[2267] = 0x516B; // 八 (40-12)
-        cp[2268] = 0x9262; // 鉢 (40-13)
-        cp[2269] = 0x6E8C; // 溌 (40-14)
-        cp[2270] = 0x767A; // 発 (40-15)
-        cp[2271] = 0x9197; // 醗 (40-16)
-        cp[2272] = 0x9AEA; // 髪 (40-17)
-        cp[2273] = 0x4F10; // 伐 (40-18)
-        cp[2274] = 0x7F70; // 罰 (40-19)
-        cp[2275] = 0x629C; // 抜 (40-20)
-        cp[2276] = 0x7B4F; // 筏 (40-21)
-        cp[2277] = 0x95A5; // 閥 (40-22)
-        cp[2278] = 0x9CE9; // 鳩 (40-23)
-        cp[2279] = 0x567A; // 噺 (40-24)
-        cp[2280] = 0x5859; // 塙 (40-25)
-        cp[2281] = 0x86E4; // 蛤 (40-26)
-        cp[2282] = 0x96BC; // 隼 (40-27)
-        cp[2283] = 0x4F34; // 伴 (40-28)
-        cp[2284] = 0x5224; // 判 (40-29)
-        cp[2285] = 0x534A; // 半 (40-30)
-        cp[2286] = 0x53CD; // 反 (40-31)
-        cp[2287] = 0x53DB; // 叛 (40-32)
-        cp[2288] = 0x5E06; // 帆 (40-33)
-        cp[2289] = 0x642C; // 搬 (40-34)
-        cp[2290] = 0x6591; // 斑 (40-35)
-        cp[2291] = 0x677F; // 板 (40-36)
-        cp[2292] = 0x6C3E; // 氾 (40-37)
-        cp[2293] = 0x6C4E; // 汎 (40-38)
-        cp[2294] = 0x7248; // 版 (40-39)
-        cp[2295] = 0x72AF; // 犯 (40-40)
-        cp[2296] = 0x73ED; // 班 (40-41)
-        cp[2297] = 0x7554; // 畔 (40-42)
-        cp[2298] = 0x7E41; // 繁 (40-43)
-        cp[2299] = 0x822C; // 般 (40-44)
-        cp[2300] = 0x85E9; // 藩 (40-45)
-        cp[2301] = 0x8CA9; // 販 (40-46)
-        cp[2302] = 0x7BC4; // 範 (40-47)
-        cp[2303] = 0x91C6; // 釆 (40-48)
-        cp[2304] = 0x7169; // 煩 (40-49)
-        cp[2305] = 0x9812; // 頒 (40-50)
-        cp[2306] = 0x98EF; // 飯 (40-51)
-        cp[2307] = 0x633D; // 挽 (40-52)
-        cp[2308] = 0x6669; // 晩 (40-53)
-        cp[2309] = 0x756A; // 番 (40-54)
-        cp[2310] = 0x76E4; // 盤 (40-55)
-        cp[2311] = 0x78D0; // 磐 (40-56)
-        cp[2312] = 0x8543; // 蕃 (40-57)
-        cp[2313] = 0x86EE; // 蛮 (40-58)
-        cp[2314] = 0x532A; // 匪 (40-59)
-        cp[2315] = 0x5351; // 卑 (40-60)
-        cp[2316] = 0x5426; // 否 (40-61)
-        cp[2317] = 0x5983; // 妃 (40-62)
-        cp[2318] = 0x5E87; // 庇 (40-63)
-        cp[2319] = 0x5F7C; // 彼 (40-64)
-        cp[2320] = 0x60B2; // 悲 (40-65)
-        cp[2321] = 0x6249; // 扉 (40-66)
-        cp[2322] = 0x6279; // 批 (40-67)
-        cp[2323] = 0x62AB; // 披 (40-68)
-        cp[2324] = 0x6590; // 斐 (40-69)
-        cp[2325] = 0x6BD4; // 比 (40-70)
-        cp[2326] = 0x6CCC; // 泌 (40-71)
-        cp[2327] = 0x75B2; // 疲 (40-72)
-        cp[2328] = 0x76AE; // 皮 (40-73)
-        cp[2329] = 0x7891; // 碑 (40-74)
-        cp[2330] = 0x79D8; // 秘 (40-75)
-        cp[2331] = 0x7DCB; // 緋 (40-76)
-        cp[2332] = 0x7F77; // 罷 (40-77)
-        cp[2333] = 0x80A5; // 肥 (40-78)
-        cp[2334] = 0x88AB; // 被 (40-79)
-        cp[2335] = 0x8AB9; // 誹 (40-80)
-        cp[2336] = 0x8CBB; // 費 (40-81)
-        cp[2337] = 0x907F; // 避 (40-82)
-        cp[2338] = 0x975E; // 非 (40-83)
-        cp[2339] = 0x98DB; // 飛 (40-84)
-        cp[2340] = 0x6A0B; // 樋 (40-85)
-        cp[2341] = 0x7C38; // 簸 (40-86)
-        cp[2342] = 0x5099; // 備 (40-87)
-        cp[2343] = 0x5C3E; // 尾 (40-88)
-        cp[2344] = 0x5FAE; // 微 (40-89)
-        cp[2345] = 0x6787; // 枇 (40-90)
-        cp[2346] = 0x6BD8; // 毘 (40-91)
-        cp[2347] = 0x7435; // 琵 (40-92)
-        cp[2348] = 0x7709; // 眉 (40-93)
-        cp[2349] = 0x7F8E; // 美 (40-94)
-        cp[2350] = 0x9F3B; // 鼻 (41-01)
-        cp[2351] = 0x67CA; // 柊 (41-02)
-        cp[2352] = 0x7A17; // 稗 (41-03)
-        cp[2353] = 0x5339; // 匹 (41-04)
-        cp[2354] = 0x758B; // 疋 (41-05)
-        cp[2355] = 0x9AED; // 髭 (41-06)
-        cp[2356] = 0x5F66; // 彦 (41-07)
-        cp[2357] = 0x819D; // 膝 (41-08)
-        cp[2358] = 0x83F1; // 菱 (41-09)
-        cp[2359] = 0x8098; // 肘 (41-10)
-        cp[2360] = 0x5F3C; // 弼 (41-11)
-        cp[2361] = 0x5FC5; // 必 (41-12)
-        cp[2362] = 0x7562; // 畢 (41-13)
-        cp[2363] = 0x7B46; // 筆 (41-14)
-        cp[2364] = 0x903C; // 逼 (41-15)
-        cp[2365] = 0x6867; // 桧 (41-16)
-        cp[2366] = 0x59EB; // 姫 (41-17)
-        cp[2367] = 0x5A9B; // 媛 (41-18)
-        cp[2368] = 0x7D10; // 紐 (41-19)
-        cp[2369] = 0x767E; // 百 (41-20)
-        cp[2370] = 0x8B2C; // 謬 (41-21)
-        cp[2371] = 0x4FF5; // 俵 (41-22)
-        cp[2372] = 0x5F6A; // 彪 (41-23)
-        cp[2373] = 0x6A19; // 標 (41-24)
-        cp[2374] = 0x6C37; // 氷 (41-25)
-        cp[2375] = 0x6F02; // 漂 (41-26)
-        cp[2376] = 0x74E2; // 瓢 (41-27)
-        cp[2377] = 0x7968; // 票 (41-28)
-        cp[2378] = 0x8868; // 表 (41-29)
-        cp[2379] = 0x8A55; // 評 (41-30)
-        cp[2380] = 0x8C79; // 豹 (41-31)
-        cp[2381] = 0x5EDF; // 廟 (41-32)
-        cp[2382] = 0x63CF; // 描 (41-33)
-        cp[2383] = 0x75C5; // 病 (41-34)
-        cp[2384] = 0x79D2; // 秒 (41-35)
-        cp[2385] = 0x82D7; // 苗 (41-36)
-        cp[2386] = 0x9328; // 錨 (41-37)
-        cp[2387] = 0x92F2; // 鋲 (41-38)
-        cp[2388] = 0x849C; // 蒜 (41-39)
-        cp[2389] = 0x86ED; // 蛭 (41-40)
-        cp[2390] = 0x9C2D; // 鰭 (41-41)
-        cp[2391] = 0x54C1; // 品 (41-42)
-        cp[2392] = 0x5F6C; // 彬 (41-43)
-        cp[2393] = 0x658C; // 斌 (41-44)
-        cp[2394] = 0x6D5C; // 浜 (41-45)
-        cp[2395] = 0x7015; // 瀕 (41-46)
-        cp[2396] = 0x8CA7; // 貧 (41-47)
-        cp[2397] = 0x8CD3; // 賓 (41-48)
-        cp[2398] = 0x983B; // 頻 (41-49)
-        cp[2399] = 0x654F; // 敏 (41-50)
-        cp[2400] = 0x74F6; // 瓶 (41-51)
-        cp[2401] = 0x4E0D; // 不 (41-52)
-        cp[2402] = 0x4ED8; // 付 (41-53)
-        cp[2403] = 0x57E0; // 埠 (41-54)
-        cp[2404] = 0x592B; // 夫 (41-55)
-        cp[2405] = 0x5A66; // 婦 (41-56)
-        cp[2406] = 0x5BCC; // 富 (41-57)
-        cp[2407] = 0x51A8; // 冨 (41-58)
-        cp[2408] = 0x5E03; // 布 (41-59)
-        cp[2409] = 0x5E9C; // 府 (41-60)
-        cp[2410] = 0x6016; // 怖 (41-61)
-        cp[2411] = 0x6276; // 扶 (41-62)
-        cp[2412] = 0x6577; // 敷 (41-63)
-        cp[2413] = 0x65A7; // 斧 (41-64)
-        cp[2414] = 0x666E; // 普 (41-65)
-        cp[2415] = 0x6D6E; // 浮 (41-66)
-        cp[2416] = 0x7236; // 父 (41-67)
-        cp[2417] = 0x7B26; // 符 (41-68)
-        cp[2418] = 0x8150; // 腐 (41-69)
-        cp[2419] = 0x819A; // 膚 (41-70)
-        cp[2420] = 0x8299; // 芙 (41-71)
-        cp[2421] = 0x8B5C; // 譜 (41-72)
-        cp[2422] = 0x8CA0; // 負 (41-73)
-        cp[2423] = 0x8CE6; // 賦 (41-74)
-        cp[2424] = 0x8D74; // 赴 (41-75)
-        cp[2425] = 0x961C; // 阜 (41-76)
-        cp[2426] = 0x9644; // 附 (41-77)
-        cp[2427] = 0x4FAE; // 侮 (41-78)
-        cp[2428] = 0x64AB; // 撫 (41-79)
-        cp[2429] = 0x6B66; // 武 (41-80)
-        cp[2430] = 0x821E; // 舞 (41-81)
-        cp[2431] = 0x8461; // 葡 (41-82)
-        cp[2432] = 0x856A; // 蕪 (41-83)
-        cp[2433] = 0x90E8; // 部 (41-84)
-        cp[2434] = 0x5C01; // 封 (41-85)
-        cp[2435] = 0x6953; // 楓 (41-86)
-        cp[2436] = 0x98A8; // 風 (41-87)
-        cp[2437] = 0x847A; // 葺 (41-88)
-        cp[2438] = 0x8557; // 蕗 (41-89)
-        cp[2439] = 0x4F0F; // 伏 (41-90)
-        cp[2440] = 0x526F; // 副 (41-91)
-        cp[2441] = 0x5FA9; // 復 (41-92)
-        cp[2442] = 0x5E45; // 幅 (41-93)
-        cp[2443] = 0x670D; // 服 (41-94)
-        cp[2444] = 0x798F; // 福 (42-01)
-        cp[2445] = 0x8179; // 腹 (42-02)
-        cp[2446] = 0x8907; // 複 (42-03)
-        cp[2447] = 0x8986; // 覆 (42-04)
-        cp[2448] = 0x6DF5; // 淵 (42-05)
-        cp[2449] = 0x5F17; // 弗 (42-06)
-        cp[2450] = 0x6255; // 払 (42-07)
-        cp[2451] = 0x6CB8; // 沸 (42-08)
-        cp[2452] = 0x4ECF; // 仏 (42-09)
-        cp[2453] = 0x7269; // 物 (42-10)
-        cp[2454] = 0x9B92; // 鮒 (42-11)
-        cp[2455] = 0x5206; // 分 (42-12)
-        cp[2456] = 0x543B; // 吻 (42-13)
-        cp[2457] = 0x5674; // 噴 (42-14)
-        cp[2458] = 0x58B3; // 墳 (42-15)
-        cp[2459] = 0x61A4; // 憤 (42-16)
-        cp[2460] = 0x626E; // 扮 (42-17)
-        cp[2461] = 0x711A; // 焚 (42-18)
-        cp[2462] = 0x596E; // 奮 (42-19)
-        cp[2463] = 0x7C89; // 粉 (42-20)
-        cp[2464] = 0x7CDE; // 糞 (42-21)
-        cp[2465] = 0x7D1B; // 紛 (42-22)
-        cp[2466] = 0x96F0; // 雰 (42-23)
-        cp[2467] = 0x6587; // 文 (42-24)
-        cp[2468] = 0x805E; // 聞 (42-25)
-        cp[2469] = 0x4E19; // 丙 (42-26)
-        cp[2470] = 0x4F75; // 併 (42-27)
-        cp[2471] = 0x5175; // 兵 (42-28)
-        cp[2472] = 0x5840; // 塀 (42-29)
-        cp[2473] = 0x5E63; // 幣 (42-30)
-        cp[2474] = 0x5E73; // 平 (42-31)
-        cp[2475] = 0x5F0A; // 弊 (42-32)
-        cp[2476] = 0x67C4; // 柄 (42-33)
-        cp[2477] = 0x4E26; // 並 (42-34)
-        cp[2478] = 0x853D; // 蔽 (42-35)
-        cp[2479] = 0x9589; // 閉 (42-36)
-        cp[2480] = 0x965B; // 陛 (42-37)
-        cp[2481] = 0x7C73; // 米 (42-38)
-        cp[2482] = 0x9801; // 頁 (42-39)
-        cp[2483] = 0x50FB; // 僻 (42-40)
-        cp[2484] = 0x58C1; // 壁 (42-41)
-        cp[2485] = 0x7656; // 癖 (42-42)
-        cp[2486] = 0x78A7; // 碧 (42-43)
-        cp[2487] = 0x5225; // 別 (42-44)
-        cp[2488] = 0x77A5; // 瞥 (42-45)
-        cp[2489] = 0x8511; // 蔑 (42-46)
-        cp[2490] = 0x7B86; // 箆 (42-47)
-        cp[2491] = 0x504F; // 偏 (42-48)
-        cp[2492] = 0x5909; // 変 (42-49)
-        cp[2493] = 0x7247; // 片 (42-50)
-        cp[2494] = 0x7BC7; // 篇 (42-51)
-        cp[2495] = 0x7DE8; // 編 (42-52)
-        cp[2496] = 0x8FBA; // 辺 (42-53)
-        cp[2497] = 0x8FD4; // 返 (42-54)
-        cp[2498] = 0x904D; // 遍 (42-55)
-        cp[2499] = 0x4FBF; // 便 (42-56)
-        cp[2500] = 0x52C9; // 勉 (42-57)
-        cp[2501] = 0x5A29; // 娩 (42-58)
-        cp[2502] = 0x5F01; // 弁 (42-59)
-        cp[2503] = 0x97AD; // 鞭 (42-60)
-        cp[2504] = 0x4FDD; // 保 (42-61)
-        cp[2505] = 0x8217; // 舗 (42-62)
-        cp[2506] = 0x92EA; // 鋪 (42-63)
-        cp[2507] = 0x5703; // 圃 (42-64)
-        cp[2508] = 0x6355; // 捕 (42-65)
-        cp[2509] = 0x6B69; // 歩 (42-66)
-        cp[2510] = 0x752B; // 甫 (42-67)
-        cp[2511] = 0x88DC; // 補 (42-68)
-        cp[2512] = 0x8F14; // 輔 (42-69)
-        cp[2513] = 0x7A42; // 穂 (42-70)
-        cp[2514] = 0x52DF; // 募 (42-71)
-        cp[2515] = 0x5893; // 墓 (42-72)
-        cp[2516] = 0x6155; // 慕 (42-73)
-        cp[2517] = 0x620A; // 戊 (42-74)
-        cp[2518] = 0x66AE; // 暮 (42-75)
-        cp[2519] = 0x6BCD; // 母 (42-76)
-        cp[2520] = 0x7C3F; // 簿 (42-77)
-        cp[2521] = 0x83E9; // 菩 (42-78)
-        cp[2522] = 0x5023; // 倣 (42-79)
-        cp[2523] = 0x4FF8; // 俸 (42-80)
-        cp[2524] = 0x5305; // 包 (42-81)
-        cp[2525] = 0x5446; // 呆 (42-82)
-        cp[2526] = 0x5831; // 報 (42-83)
-        cp[2527] = 0x5949; // 奉 (42-84)
-        cp[2528] = 0x5B9D; // 宝 (42-85)
-        cp[2529] = 0x5CF0; // 峰 (42-86)
-        cp[2530] = 0x5CEF; // 峯 (42-87)
-        cp[2531] = 0x5D29; // 崩 (42-88)
-        cp[2532] = 0x5E96; // 庖 (42-89)
-        cp[2533] = 0x62B1; // 抱 (42-90)
-        cp[2534] = 0x6367; // 捧 (42-91)
-        cp[2535] = 0x653E; // 放 (42-92)
-        cp[2536] = 0x65B9; // 方 (42-93)
-        cp[2537] = 0x670B; // 朋 (42-94)
-        cp[2538] = 0x6CD5; // 法 (43-01)
-        cp[2539] = 0x6CE1; // 泡 (43-02)
-        cp[2540] = 0x70F9; // 烹 (43-03)
-        cp[2541] = 0x7832; // 砲 (43-04)
-        cp[2542] = 0x7E2B; // 縫 (43-05)
-        cp[2543] = 0x80DE; // 胞 (43-06)
-        cp[2544] = 0x82B3; // 芳 (43-07)
-        cp[2545] = 0x840C; // 萌 (43-08)
-        cp[2546] = 0x84EC; // 蓬 (43-09)
-        cp[2547] = 0x8702; // 蜂 (43-10)
-        cp[2548] = 0x8912; // 褒 (43-11)
-        cp[2549] = 0x8A2A; // 訪 (43-12)
-        cp[2550] = 0x8C4A; // 豊 (43-13)
-        cp[2551] = 0x90A6; // 邦 (43-14)
-        cp[2552] = 0x92D2; // 鋒 (43-15)
-        cp[2553] = 0x98FD; // 飽 (43-16)
-        cp[2554] = 0x9CF3; // 鳳 (43-17)
-        cp[2555] = 0x9D6C; // 鵬 (43-18)
-        cp[2556] = 0x4E4F; // 乏 (43-19)
-        cp[2557] = 0x4EA1; // 亡 (43-20)
-        cp[2558] = 0x508D; // 傍 (43-21)
-        cp[2559] = 0x5256; // 剖 (43-22)
-        cp[2560] = 0x574A; // 坊 (43-23)
-        cp[2561] = 0x59A8; // 妨 (43-24)
-        cp[2562] = 0x5E3D; // 帽 (43-25)
-        cp[2563] = 0x5FD8; // 忘 (43-26)
-        cp[2564] = 0x5FD9; // 忙 (43-27)
-        cp[2565] = 0x623F; // 房 (43-28)
-        cp[2566] = 0x66B4; // 暴 (43-29)
-        cp[2567] = 0x671B; // 望 (43-30)
-        cp[2568] = 0x67D0; // 某 (43-31)
-        cp[2569] = 0x68D2; // 棒 (43-32)
-        cp[2570] = 0x5192; // 冒 (43-33)
-        cp[2571] = 0x7D21; // 紡 (43-34)
-        cp[2572] = 0x80AA; // 肪 (43-35)
-        cp[2573] = 0x81A8; // 膨 (43-36)
-        cp[2574] = 0x8B00; // 謀 (43-37)
-        cp[2575] = 0x8C8C; // 貌 (43-38)
-        cp[2576] = 0x8CBF; // 貿 (43-39)
-        cp[2577] = 0x927E; // 鉾 (43-40)
-        cp[2578] = 0x9632; // 防 (43-41)
-        cp[2579] = 0x5420; // 吠 (43-42)
-        cp[2580] = 0x982C; // 頬 (43-43)
-        cp[2581] = 0x5317; // 北 (43-44)
-        cp[2582] = 0x50D5; // 僕 (43-45)
-        cp[2583] = 0x535C; // 卜 (43-46)
-        cp[2584] = 0x58A8; // 墨 (43-47)
-        cp[2585] = 0x64B2; // 撲 (43-48)
-        cp[2586] = 0x6734; // 朴 (43-49)
-        cp[2587] = 0x7267; // 牧 (43-50)
-        cp[2588] = 0x7766; // 睦 (43-51)
-        cp[2589] = 0x7A46; // 穆 (43-52)
-        cp[2590] = 0x91E6; // 釦 (43-53)
-        cp[2591] = 0x52C3; // 勃 (43-54)
-        cp[2592] = 0x6CA1; // 没 (43-55)
-        cp[2593] = 0x6B86; // 殆 (43-56)
-        cp[2594] = 0x5800; // 堀 (43-57)
-        cp[2595] = 0x5E4C; // 幌 (43-58)
-        cp[2596] = 0x5954; // 奔 (43-59)
-        cp[2597] = 0x672C; // 本 (43-60)
-        cp[2598] = 0x7FFB; // 翻 (43-61)
-        cp[2599] = 0x51E1; // 凡 (43-62)
-        cp[2600] = 0x76C6; // 盆 (43-63)
-        cp[2601] = 0x6469; // 摩 (43-64)
-        cp[2602] = 0x78E8; // 磨 (43-65)
-        cp[2603] = 0x9B54; // 魔 (43-66)
-        cp[2604] = 0x9EBB; // 麻 (43-67)
-        cp[2605] = 0x57CB; // 埋 (43-68)
-        cp[2606] = 0x59B9; // 妹 (43-69)
-        cp[2607] = 0x6627; // 昧 (43-70)
-        cp[2608] = 0x679A; // 枚 (43-71)
-        cp[2609] = 0x6BCE; // 毎 (43-72)
-        cp[2610] = 0x54E9; // 哩 (43-73)
-        cp[2611] = 0x69D9; // 槙 (43-74)
-        cp[2612] = 0x5E55; // 幕 (43-75)
-        cp[2613] = 0x819C; // 膜 (43-76)
-        cp[2614] = 0x6795; // 枕 (43-77)
-        cp[2615] = 0x9BAA; // 鮪 (43-78)
-        cp[2616] = 0x67FE; // 柾 (43-79)
-        cp[2617] = 0x9C52; // 鱒 (43-80)
-        cp[2618] = 0x685D; // 桝 (43-81)
-        cp[2619] = 0x4EA6; // 亦 (43-82)
-        cp[2620] = 0x4FE3; // 俣 (43-83)
-        cp[2621] = 0x53C8; // 又 (43-84)
-        cp[2622] = 0x62B9; // 抹 (43-85)
-        cp[2623] = 0x672B; // 末 (43-86)
-        cp[2624] = 0x6CAB; // 沫 (43-87)
-        cp[2625] = 0x8FC4; // 迄 (43-88)
-        cp[2626] = 0x4FAD; // 侭 (43-89)
-        cp[2627] = 0x7E6D; // 繭 (43-90)
-        cp[2628] = 0x9EBF; // 麿 (43-91)
-        cp[2629] = 0x4E07; // 万 (43-92)
-        cp[2630] = 0x6162; // 慢 (43-93)
-        cp[2631] = 0x6E80; // 満 (43-94)
-        cp[2632] = 0x6F2B; // 漫 (44-01)
-        cp[2633] = 0x8513; // 蔓 (44-02)
-        cp[2634] = 0x5473; // 味 (44-03)
-        cp[2635] = 0x672A; // 未 (44-04)
-        cp[2636] = 0x9B45; // 魅 (44-05)
-        cp[2637] = 0x5DF3; // 巳 (44-06)
-        cp[2638] = 0x7B95; // 箕 (44-07)
-        cp[2639] = 0x5CAC; // 岬 (44-08)
-        cp[2640] = 0x5BC6; // 密 (44-09)
-        cp[2641] = 0x871C; // 蜜 (44-10)
-        cp[2642] = 0x6E4A; // 湊 (44-11)
-        cp[2643] = 0x84D1; // 蓑 (44-12)
-        cp[2644] = 0x7A14; // 稔 (44-13)
-        cp[2645] = 0x8108; // 脈 (44-14)
-        cp[2646] = 0x5999; // 妙 (44-15)
-        cp[2647] = 0x7C8D; // 粍 (44-16)
-        cp[2648] = 0x6C11; // 民 (44-17)
-        cp[2649] = 0x7720; // 眠 (44-18)
-        cp[2650] = 0x52D9; // 務 (44-19)
-        cp[2651] = 0x5922; // 夢 (44-20)
-        cp[2652] = 0x7121; // 無 (44-21)
-        cp[2653] = 0x725F; // 牟 (44-22)
-        cp[2654] = 0x77DB; // 矛 (44-23)
-        cp[2655] = 0x9727; // 霧 (44-24)
-        cp[2656] = 0x9D61; // 鵡 (44-25)
-        cp[2657] = 0x690B; // 椋 (44-26)
-        cp[2658] = 0x5A7F; // 婿 (44-27)
-        cp[2659] = 0x5A18; // 娘 (44-28)
-        cp[2660] = 0x51A5; // 冥 (44-29)
-        cp[2661] = 0x540D; // 名 (44-30)
-        cp[2662] = 0x547D; // 命 (44-31)
-        cp[2663] = 0x660E; // 明 (44-32)
-        cp[2664] = 0x76DF; // 盟 (44-33)
-        cp[2665] = 0x8FF7; // 迷 (44-34)
-        cp[2666] = 0x9298; // 銘 (44-35)
-        cp[2667] = 0x9CF4; // 鳴 (44-36)
-        cp[2668] = 0x59EA; // 姪 (44-37)
-        cp[2669] = 0x725D; // 牝 (44-38)
-        cp[2670] = 0x6EC5; // 滅 (44-39)
-        cp[2671] = 0x514D; // 免 (44-40)
-        cp[2672] = 0x68C9; // 棉 (44-41)
-        cp[2673] = 0x7DBF; // 綿 (44-42)
-        cp[2674] = 0x7DEC; // 緬 (44-43)
-        cp[2675] = 0x9762; // 面 (44-44)
-        cp[2676] = 0x9EBA; // 麺 (44-45)
-        cp[2677] = 0x6478; // 摸 (44-46)
-        cp[2678] = 0x6A21; // 模 (44-47)
-        cp[2679] = 0x8302; // 茂 (44-48)
-        cp[2680] = 0x5984; // 妄 (44-49)
-        cp[2681] = 0x5B5F; // 孟 (44-50)
-        cp[2682] = 0x6BDB; // 毛 (44-51)
-        cp[2683] = 0x731B; // 猛 (44-52)
-        cp[2684] = 0x76F2; // 盲 (44-53)
-        cp[2685] = 0x7DB2; // 網 (44-54)
-        cp[2686] = 0x8017; // 耗 (44-55)
-        cp[2687] = 0x8499; // 蒙 (44-56)
-        cp[2688] = 0x5132; // 儲 (44-57)
-        cp[2689] = 0x6728; // 木 (44-58)
-        cp[2690] = 0x9ED9; // 黙 (44-59)
-        cp[2691] = 0x76EE; // 目 (44-60)
-        cp[2692] = 0x6762; // 杢 (44-61)
-        cp[2693] = 0x52FF; // 勿 (44-62)
-        cp[2694] = 0x9905; // 餅 (44-63)
-        cp[2695] = 0x5C24; // 尤 (44-64)
-        cp[2696] = 0x623B; // 戻 (44-65)
-        cp[2697] = 0x7C7E; // 籾 (44-66)
-        cp[2698] = 0x8CB0; // 貰 (44-67)
-        cp[2699] = 0x554F; // 問 (44-68)
-        cp[2700] = 0x60B6; // 悶 (44-69)
-        cp[2701] = 0x7D0B; // 紋 (44-70)
-        cp[2702] = 0x9580; // 門 (44-71)
-        cp[2703] = 0x5301; // 匁 (44-72)
-        cp[2704] = 0x4E5F; // 也 (44-73)
-        cp[2705] = 0x51B6; // 冶 (44-74)
-        cp[2706] = 0x591C; // 夜 (44-75)
-        cp[2707] = 0x723A; // 爺 (44-76)
-        cp[2708] = 0x8036; // 耶 (44-77)
-        cp[2709] = 0x91CE; // 野 (44-78)
-        cp[2710] = 0x5F25; // 弥 (44-79)
-        cp[2711] = 0x77E2; // 矢 (44-80)
-        cp[2712] = 0x5384; // 厄 (44-81)
-        cp[2713] = 0x5F79; // 役 (44-82)
-        cp[2714] = 0x7D04; // 約 (44-83)
-        cp[2715] = 0x85AC; // 薬 (44-84)
-        cp[2716] = 0x8A33; // 訳 (44-85)
-        cp[2717] = 0x8E8D; // 躍 (44-86)
-        cp[2718] = 0x9756; // 靖 (44-87)
-        cp[2719] = 0x67F3; // 柳 (44-88)
-        cp[2720] = 0x85AE; // 薮 (44-89)
-        cp[2721] = 0x9453; // 鑓 (44-90)
-        cp[2722] = 0x6109; // 愉 (44-91)
-        cp[2723] = 0x6108; // 愈 (44-92)
-        cp[2724] = 0x6CB9; // 油 (44-93)
-        cp[2725] = 0x7652; // 癒 (44-94)
-        cp[2726] = 0x8AED; // 諭 (45-01)
-        cp[2727] = 0x8F38; // 輸 (45-02)
-        cp[2728] = 0x552F; // 唯 (45-03)
-        cp[2729] = 0x4F51; // 佑 (45-04)
-        cp[2730] = 0x512A; // 優 (45-05)
-        cp[2731] = 0x52C7; // 勇 (45-06)
-        cp[2732] = 0x53CB; // 友 (45-07)
-        cp[2733] = 0x5BA5; // 宥 (45-08)
-        cp[2734] = 0x5E7D; // 幽 (45-09)
-        cp[2735] = 0x60A0; // 悠 (45-10)
-        cp[2736] = 0x6182; // 憂 (45-11)
-        cp[2737] = 0x63D6; // 揖 (45-12)
-        cp[2738] = 0x6709; // 有 (45-13)
-        cp[2739] = 0x67DA; // 柚 (45-14)
-        cp[2740] = 0x6E67; // 湧 (45-15)
-        cp[2741] = 0x6D8C; // 涌 (45-16)
-        cp[2742] = 0x7336; // 猶 (45-17)
-        cp[2743] = 0x7337; // 猷 (45-18)
-        cp[2744] = 0x7531; // 由 (45-19)
-        cp[2745] = 0x7950; // 祐 (45-20)
-        cp[2746] = 0x88D5; // 裕 (45-21)
-        cp[2747] = 0x8A98; // 誘 (45-22)
-        cp[2748] = 0x904A; // 遊 (45-23)
-        cp[2749] = 0x9091; // 邑 (45-24)
-        cp[2750] = 0x90F5; // 郵 (45-25)
-        cp[2751] = 0x96C4; // 雄 (45-26)
-        cp[2752] = 0x878D; // 融 (45-27)
-        cp[2753] = 0x5915; // 夕 (45-28)
-        cp[2754] = 0x4E88; // 予 (45-29)
-        cp[2755] = 0x4F59; // 余 (45-30)
-        cp[2756] = 0x4E0E; // 与 (45-31)
-        cp[2757] = 0x8A89; // 誉 (45-32)
-        cp[2758] = 0x8F3F; // 輿 (45-33)
-        cp[2759] = 0x9810; // 預 (45-34)
-        cp[2760] = 0x50AD; // 傭 (45-35)
-        cp[2761] = 0x5E7C; // 幼 (45-36)
-        cp[2762] = 0x5996; // 妖 (45-37)
-        cp[2763] = 0x5BB9; // 容 (45-38)
-        cp[2764] = 0x5EB8; // 庸 (45-39)
-        cp[2765] = 0x63DA; // 揚 (45-40)
-        cp[2766] = 0x63FA; // 揺 (45-41)
-        cp[2767] = 0x64C1; // 擁 (45-42)
-        cp[2768] = 0x66DC; // 曜 (45-43)
-        cp[2769] = 0x694A; // 楊 (45-44)
-        cp[2770] = 0x69D8; // 様 (45-45)
-        cp[2771] = 0x6D0B; // 洋 (45-46)
-        cp[2772] = 0x6EB6; // 溶 (45-47)
-        cp[2773] = 0x7194; // 熔 (45-48)
-        cp[2774] = 0x7528; // 用 (45-49)
-        cp[2775] = 0x7AAF; // 窯 (45-50)
-        cp[2776] = 0x7F8A; // 羊 (45-51)
-        cp[2777] = 0x8000; // 耀 (45-52)
-        cp[2778] = 0x8449; // 葉 (45-53)
-        cp[2779] = 0x84C9; // 蓉 (45-54)
-        cp[2780] = 0x8981; // 要 (45-55)
-        cp[2781] = 0x8B21; // 謡 (45-56)
-        cp[2782] = 0x8E0A; // 踊 (45-57)
-        cp[2783] = 0x9065; // 遥 (45-58)
-        cp[2784] = 0x967D; // 陽 (45-59)
-        cp[2785] = 0x990A; // 養 (45-60)
-        cp[2786] = 0x617E; // 慾 (45-61)
-        cp[2787] = 0x6291; // 抑 (45-62)
-        cp[2788] = 0x6B32; // 欲 (45-63)
-        cp[2789] = 0x6C83; // 沃 (45-64)
-        cp[2790] = 0x6D74; // 浴 (45-65)
-        cp[2791] = 0x7FCC; // 翌 (45-66)
-        cp[2792] = 0x7FFC; // 翼 (45-67)
-        cp[2793] = 0x6DC0; // 淀 (45-68)
-        cp[2794] = 0x7F85; // 羅 (45-69)
-        cp[2795] = 0x87BA; // 螺 (45-70)
-        cp[2796] = 0x88F8; // 裸 (45-71)
-        cp[2797] = 0x6765; // 来 (45-72)
-        cp[2798] = 0x83B1; // 莱 (45-73)
-        cp[2799] = 0x983C; // 頼 (45-74)
-        cp[2800] = 0x96F7; // 雷 (45-75)
-        cp[2801] = 0x6D1B; // 洛 (45-76)
-        cp[2802] = 0x7D61; // 絡 (45-77)
-        cp[2803] = 0x843D; // 落 (45-78)
-        cp[2804] = 0x916A; // 酪 (45-79)
-        cp[2805] = 0x4E71; // 乱 (45-80)
-        cp[2806] = 0x5375; // 卵 (45-81)
-        cp[2807] = 0x5D50; // 嵐 (45-82)
-        cp[2808] = 0x6B04; // 欄 (45-83)
-        cp[2809] = 0x6FEB; // 濫 (45-84)
-        cp[2810] = 0x85CD; // 藍 (45-85)
-        cp[2811] = 0x862D; // 蘭 (45-86)
-        cp[2812] = 0x89A7; // 覧 (45-87)
-        cp[2813] = 0x5229; // 利 (45-88)
-        cp[2814] = 0x540F; // 吏 (45-89)
-        cp[2815] = 0x5C65; // 履 (45-90)
-        cp[2816] = 0x674E; // 李 (45-91)
-        cp[2817] = 0x68A8; // 梨 (45-92)
-        cp[2818] = 0x7406; // 理 (45-93)
-        cp[2819] = 0x7483; // 璃 (45-94)
-        cp[2820] = 0x75E2; // 痢 (46-01)
-        cp[2821] = 0x88CF; // 裏 (46-02)
-        cp[2822] = 0x88E1; // 裡 (46-03)
-        cp[2823] = 0x91CC; // 里 (46-04)
-        cp[2824] = 0x96E2; // 離 (46-05)
-        cp[2825] = 0x9678; // 陸 (46-06)
-        cp[2826] = 0x5F8B; // 律 (46-07)
-        cp[2827] = 0x7387; // 率 (46-08)
-        cp[2828] = 0x7ACB; // 立 (46-09)
-        cp[2829] = 0x844E; // 葎 (46-10)
-        cp[2830] = 0x63A0; // 掠 (46-11)
-        cp[2831] = 0x7565; // 略 (46-12)
-        cp[2832] = 0x5289; // 劉 (46-13)
-        cp[2833] = 0x6D41; // 流 (46-14)
-        cp[2834] = 0x6E9C; // 溜 (46-15)
-        cp[2835] = 0x7409; // 琉 (46-16)
-        cp[2836] = 0x7559; // 留 (46-17)
-        cp[2837] = 0x786B; // 硫 (46-18)
-        cp[2838] = 0x7C92; // 粒 (46-19)
-        cp[2839] = 0x9686; // 隆 (46-20)
-        cp[2840] = 0x7ADC; // 竜 (46-21)
-        cp[2841] = 0x9F8D; // 龍 (46-22)
-        cp[2842] = 0x4FB6; // 侶 (46-23)
-        cp[2843] = 0x616E; // 慮 (46-24)
-        cp[2844] = 0x65C5; // 旅 (46-25)
-        cp[2845] = 0x865C; // 虜 (46-26)
-        cp[2846] = 0x4E86; // 了 (46-27)
-        cp[2847] = 0x4EAE; // 亮 (46-28)
-        cp[2848] = 0x50DA; // 僚 (46-29)
-        cp[2849] = 0x4E21; // 両 (46-30)
-        cp[2850] = 0x51CC; // 凌 (46-31)
-        cp[2851] = 0x5BEE; // 寮 (46-32)
-        cp[2852] = 0x6599; // 料 (46-33)
-        cp[2853] = 0x6881; // 梁 (46-34)
-        cp[2854] = 0x6DBC; // 涼 (46-35)
-        cp[2855] = 0x731F; // 猟 (46-36)
-        cp[2856] = 0x7642; // 療 (46-37)
-        cp[2857] = 0x77AD; // 瞭 (46-38)
-        cp[2858] = 0x7A1C; // 稜 (46-39)
-        cp[2859] = 0x7CE7; // 糧 (46-40)
-        cp[2860] = 0x826F; // 良 (46-41)
-        cp[2861] = 0x8AD2; // 諒 (46-42)
-        cp[2862] = 0x907C; // 遼 (46-43)
-        cp[2863] = 0x91CF; // 量 (46-44)
-        cp[2864] = 0x9675; // 陵 (46-45)
-        cp[2865] = 0x9818; // 領 (46-46)
-        cp[2866] = 0x529B; // 力 (46-47)
-        cp[2867] = 0x7DD1; // 緑 (46-48)
-        cp[2868] = 0x502B; // 倫 (46-49)
-        cp[2869] = 0x5398; // 厘 (46-50)
-        cp[2870] = 0x6797; // 林 (46-51)
-        cp[2871] = 0x6DCB; // 淋 (46-52)
-        cp[2872] = 0x71D0; // 燐 (46-53)
-        cp[2873] = 0x7433; // 琳 (46-54)
-        cp[2874] = 0x81E8; // 臨 (46-55)
-        cp[2875] = 0x8F2A; // 輪 (46-56)
-        cp[2876] = 0x96A3; // 隣 (46-57)
-        cp[2877] = 0x9C57; // 鱗 (46-58)
-        cp[2878] = 0x9E9F; // 麟 (46-59)
-        cp[2879] = 0x7460; // 瑠 (46-60)
-        cp[2880] = 0x5841; // 塁 (46-61)
-        cp[2881] = 0x6D99; // 涙 (46-62)
-        cp[2882] = 0x7D2F; // 累 (46-63)
-        cp[2883] = 0x985E; // 類 (46-64)
-        cp[2884] = 0x4EE4; // 令 (46-65)
-        cp[2885] = 0x4F36; // 伶 (46-66)
-        cp[2886] = 0x4F8B; // 例 (46-67)
-        cp[2887] = 0x51B7; // 冷 (46-68)
-        cp[2888] = 0x52B1; // 励 (46-69)
-        cp[2889] = 0x5DBA; // 嶺 (46-70)
-        cp[2890] = 0x601C; // 怜 (46-71)
-        cp[2891] = 0x73B2; // 玲 (46-72)
-        cp[2892] = 0x793C; // 礼 (46-73)
-        cp[2893] = 0x82D3; // 苓 (46-74)
-        cp[2894] = 0x9234; // 鈴 (46-75)
-        cp[2895] = 0x96B7; // 隷 (46-76)
-        cp[2896] = 0x96F6; // 零 (46-77)
-        cp[2897] = 0x970A; // 霊 (46-78)
-        cp[2898] = 0x9E97; // 麗 (46-79)
-        cp[2899] = 0x9F62; // 齢 (46-80)
-        cp[2900] = 0x66A6; // 暦 (46-81)
-        cp[2901] = 0x6B74; // 歴 (46-82)
-        cp[2902] = 0x5217; // 列 (46-83)
-        cp[2903] = 0x52A3; // 劣 (46-84)
-        cp[2904] = 0x70C8; // 烈 (46-85)
-        cp[2905] = 0x88C2; // 裂 (46-86)
-        cp[2906] = 0x5EC9; // 廉 (46-87)
-        cp[2907] = 0x604B; // 恋 (46-88)
-        cp[2908] = 0x6190; // 憐 (46-89)
-        cp[2909] = 0x6F23; // 漣 (46-90)
-        cp[2910] = 0x7149; // 煉 (46-91)
-        cp[2911] = 0x7C3E; // 簾 (46-92)
-        cp[2912] = 0x7DF4; // 練 (46-93)
-        cp[2913] = 0x806F; // 聯 (46-94)
-        cp[2914] = 0x84EE; // 蓮 (47-01)
-        cp[2915] = 0x9023; // 連 (47-02)
-        cp[2916] = 0x932C; // 錬 (47-03)
-        cp[2917] = 0x5442; // 呂 (47-04)
-        cp[2918] = 0x9B6F; // 魯 (47-05)
-        cp[2919] = 0x6AD3; // 櫓 (47-06)
-        cp[2920] = 0x7089; // 炉 (47-07)
-        cp[2921] = 0x8CC2; // 賂 (47-08)
-        cp[2922] = 0x8DEF; // 路 (47-09)
-        cp[2923] = 0x9732; // 露 (47-10)
-        cp[2924] = 0x52B4; // 労 (47-11)
-        cp[2925] = 0x5A41; // 婁 (47-12)
-        cp[2926] = 0x5ECA; // 廊 (47-13)
-        cp[2927] = 0x5F04; // 弄 (47-14)
-        cp[2928] = 0x6717; // 朗 (47-15)
-        cp[2929] = 0x697C; // 楼 (47-16)
-        cp[2930] = 0x6994; // 榔 (47-17)
-        cp[2931] = 0x6D6A; // 浪 (47-18)
-        cp[2932] = 0x6F0F; // 漏 (47-19)
-        cp[2933] = 0x7262; // 牢 (47-20)
-        cp[2934] = 0x72FC; // 狼 (47-21)
-        cp[2935] = 0x7BED; // 篭 (47-22)
-        cp[2936] = 0x8001; // 老 (47-23)
-        cp[2937] = 0x807E; // 聾 (47-24)
-        cp[2938] = 0x874B; // 蝋 (47-25)
-        cp[2939] = 0x90CE; // 郎 (47-26)
-        cp[2940] = 0x516D; // 六 (47-27)
-        cp[2941] = 0x9E93; // 麓 (47-28)
-        cp[2942] = 0x7984; // 禄 (47-29)
-        cp[2943] = 0x808B; // 肋 (47-30)
-        cp[2944] = 0x9332; // 録 (47-31)
-        cp[2945] = 0x8AD6; // 論 (47-32)
-        cp[2946] = 0x502D; // 倭 (47-33)
-        cp[2947] = 0x548C; // 和 (47-34)
-        cp[2948] = 0x8A71; // 話 (47-35)
-        cp[2949] = 0x6B6A; // 歪 (47-36)
-        cp[2950] = 0x8CC4; // 賄 (47-37)
-        cp[2951] = 0x8107; // 脇 (47-38)
-        cp[2952] = 0x60D1; // 惑 (47-39)
-        cp[2953] = 0x67A0; // 枠 (47-40)
-        cp[2954] = 0x9DF2; // 鷲 (47-41)
-        cp[2955] = 0x4E99; // 亙 (47-42)
-        cp[2956] = 0x4E98; // 亘 (47-43)
-        cp[2957] = 0x9C10; // 鰐 (47-44)
-        cp[2958] = 0x8A6B; // 詫 (47-45)
-        cp[2959] = 0x85C1; // 藁 (47-46)
-        cp[2960] = 0x8568; // 蕨 (47-47)
-        cp[2961] = 0x6900; // 椀 (47-48)
-        cp[2962] = 0x6E7E; // 湾 (47-49)
-        cp[2963] = 0x7897; // 碗 (47-50)
-        cp[2964] = 0x8155; // 腕 (47-51)
-        cp[2965] = 0x5F0C; // 弌 (48-01)
-        cp[2966] = 0x4E10; // 丐 (48-02)
-        cp[2967] = 0x4E15; // 丕 (48-03)
-        cp[2968] = 0x4E2A; // 个 (48-04)
-        cp[2969] = 0x4E31; // 丱 (48-05)
-        cp[2970] = 0x4E36; // 丶 (48-06)
-        cp[2971] = 0x4E3C; // 丼 (48-07)
-        cp[2972] = 0x4E3F; // 丿 (48-08)
-        cp[2973] = 0x4E42; // 乂 (48-09)
-        cp[2974] = 0x4E56; // 乖 (48-10)
-        cp[2975] = 0x4E58; // 乘 (48-11)
-        cp[2976] = 0x4E82; // 亂 (48-12)
-        cp[2977] = 0x4E85; // 亅 (48-13)
-        cp[2978] = 0x8C6B; // 豫 (48-14)
-        cp[2979] = 0x4E8A; // 亊 (48-15)
-        cp[2980] = 0x8212; // 舒 (48-16)
-        cp[2981] = 0x5F0D; // 弍 (48-17)
-        cp[2982] = 0x4E8E; // 于 (48-18)
-        cp[2983] = 0x4E9E; // 亞 (48-19)
-        cp[2984] = 0x4E9F; // 亟 (48-20)
-        cp[2985] = 0x4EA0; // 亠 (48-21)
-        cp[2986] = 0x4EA2; // 亢 (48-22)
-        cp[2987] = 0x4EB0; // 亰 (48-23)
-        cp[2988] = 0x4EB3; // 亳 (48-24)
-        cp[2989] = 0x4EB6; // 亶 (48-25)
-        cp[2990] = 0x4ECE; // 从 (48-26)
-        cp[2991] = 0x4ECD; // 仍 (48-27)
-        cp[2992] = 0x4EC4; // 仄 (48-28)
-        cp[2993] = 0x4EC6; // 仆 (48-29)
-        cp[2994] = 0x4EC2; // 仂 (48-30)
-        cp[2995] = 0x4ED7; // 仗 (48-31)
-        cp[2996] = 0x4EDE; // 仞 (48-32)
-        cp[2997] = 0x4EED; // 仭 (48-33)
-        cp[2998] = 0x4EDF; // 仟 (48-34)
-        cp[2999] = 0x4EF7; // 价 (48-35)
-        return t3(cp);
-    }
-
-    private static Integer[] t3(Integer[] cp) {
-        cp[3000] = 0x4F09; // 伉 (48-36)
-        cp[3001] = 0x4F5A; // 佚 (48-37)
-        cp[3002] = 0x4F30; // 估 (48-38)
-        cp[3003] = 0x4F5B; // 佛 (48-39)
-        cp[3004] = 0x4F5D; // 佝 (48-40)
-        cp[3005] = 0x4F57; // 佗 (48-41)
-        cp[3006] = 0x4F47; // 佇 (48-42)
-        cp[3007] = 0x4F76; // 佶 (48-43)
-        cp[3008] = 0x4F88; // 侈 (48-44)
-        cp[3009] = 0x4F8F; // 侏 (48-45)
-        cp[3010] = 0x4F98; // 侘 (48-46)
-        cp[3011] = 0x4F7B; // 佻 (48-47)
-        cp[3012] = 0x4F69; // 佩 (48-48)
-        cp[3013] = 0x4F70; // 佰 (48-49)
-        cp[3014] = 0x4F91; // 侑 (48-50)
-        cp[3015] = 0x4F6F; // 佯 (48-51)
-        cp[3016] = 0x4F86; // 來 (48-52)
-        cp[3017] = 0x4F96; // 侖 (48-53)
-        cp[3018] = 0x5118; // 儘 (48-54)
-        cp[3019] = 0x4FD4; // 俔 (48-55)
-        cp[3020] = 0x4FDF; // 俟 (48-56)
-        cp[3021] = 0x4FCE; // 俎 (48-57)
-        cp[3022] = 0x4FD8; // 俘 (48-58)
-        cp[3023] = 0x4FDB; // 俛 (48-59)
-        cp[3024] = 0x4FD1; // 俑 (48-60)
-        cp[3025] = 0x4FDA; // 俚 (48-61)
-        cp[3026] = 0x4FD0; // 俐 (48-62)
-        cp[3027] = 0x4FE4; // 俤 (48-63)
-        cp[3028] = 0x4FE5; // 俥 (48-64)
-        cp[3029] = 0x501A; // 倚 (48-65)
-        cp[3030] = 0x5028; // 倨 (48-66)
-        cp[3031] = 0x5014; // 倔 (48-67)
-        cp[3032] = 0x502A; // 倪 (48-68)
-        cp[3033] = 0x5025; // 倥 (48-69)
-        cp[3034] = 0x5005; // 倅 (48-70)
-        cp[3035] = 0x4F1C; // 伜 (48-71)
-        cp[3036] = 0x4FF6; // 俶 (48-72)
-        cp[3037] = 0x5021; // 倡 (48-73)
-        cp[3038] = 0x5029; // 倩 (48-74)
-        cp[3039] = 0x502C; // 倬 (48-75)
-        cp[3040] = 0x4FFE; // 俾 (48-76)
-        cp[3041] = 0x4FEF; // 俯 (48-77)
-        cp[3042] = 0x5011; // 們 (48-78)
-        cp[3043] = 0x5006; // 倆 (48-79)
-        cp[3044] = 0x5043; // 偃 (48-80)
-        cp[3045] = 0x5047; // 假 (48-81)
-        cp[3046] = 0x6703; // 會 (48-82)
-        cp[3047] = 0x5055; // 偕 (48-83)
-        cp[3048] = 0x5050; // 偐 (48-84)
-        cp[3049] = 0x5048; // 偈 (48-85)
-        cp[3050] = 0x505A; // 做 (48-86)
-        cp[3051] = 0x5056; // 偖 (48-87)
-        cp[3052] = 0x506C; // 偬 (48-88)
-        cp[3053] = 0x5078; // 偸 (48-89)
-        cp[3054] = 0x5080; // 傀 (48-90)
-        cp[3055] = 0x509A; // 傚 (48-91)
-        cp[3056] = 0x5085; // 傅 (48-92)
-        cp[3057] = 0x50B4; // 傴 (48-93)
-        cp[3058] = 0x50B2; // 傲 (48-94)
-        cp[3059] = 0x50C9; // 僉 (49-01)
-        cp[3060] = 0x50CA; // 僊 (49-02)
-        cp[3061] = 0x50B3; // 傳 (49-03)
-        cp[3062] = 0x50C2; // 僂 (49-04)
-        cp[3063] = 0x50D6; // 僖 (49-05)
-        cp[3064] = 0x50DE; // 僞 (49-06)
-        cp[3065] = 0x50E5; // 僥 (49-07)
-        cp[3066] = 0x50ED; // 僭 (49-08)
-        cp[3067] = 0x50E3; // 僣 (49-09)
-        cp[3068] = 0x50EE; // 僮 (49-10)
-        cp[3069] = 0x50F9; // 價 (49-11)
-        cp[3070] = 0x50F5; // 僵 (49-12)
-        cp[3071] = 0x5109; // 儉 (49-13)
-        cp[3072] = 0x5101; // 儁 (49-14)
-        cp[3073] = 0x5102; // 儂 (49-15)
-        cp[3074] = 0x5116; // 儖 (49-16)
-        cp[3075] = 0x5115; // 儕 (49-17)
-        cp[3076] = 0x5114; // 儔 (49-18)
-        cp[3077] = 0x511A; // 儚 (49-19)
-        cp[3078] = 0x5121; // 儡 (49-20)
-        cp[3079] = 0x513A; // 儺 (49-21)
-        cp[3080] = 0x5137; // 儷 (49-22)
-        cp[3081] = 0x513C; // 儼 (49-23)
-        cp[3082] = 0x513B; // 儻 (49-24)
-        cp[3083] = 0x513F; // 儿 (49-25)
-        cp[3084] = 0x5140; // 兀 (49-26)
-        cp[3085] = 0x5152; // 兒 (49-27)
-        cp[3086] = 0x514C; // 兌 (49-28)
-        cp[3087] = 0x5154; // 兔 (49-29)
-        cp[3088] = 0x5162; // 兢 (49-30)
-        cp[3089] = 0x7AF8; // 竸 (49-31)
-        cp[3090] = 0x5169; // 兩 (49-32)
-        cp[3091] = 0x516A; // 兪 (49-33)
-        cp[3092] = 0x516E; // 兮 (49-34)
-        cp[3093] = 0x5180; // 冀 (49-35)
-        cp[3094] = 0x5182; // 冂 (49-36)
-        cp[3095] = 0x56D8; // 囘 (49-37)
-        cp[3096] = 0x518C; // 册 (49-38)
-        cp[3097] = 0x5189; // 冉 (49-39)
-        cp[3098] = 0x518F; // 冏 (49-40)
-        cp[3099] = 0x5191; // 冑 (49-41)
-        cp[3100] = 0x5193; // 冓 (49-42)
-        cp[3101] = 0x5195; // 冕 (49-43)
-        cp[3102] = 0x5196; // 冖 (49-44)
-        cp[3103] = 0x51A4; // 冤 (49-45)
-        cp[3104] = 0x51A6; // 冦 (49-46)
-        cp[3105] = 0x51A2; // 冢 (49-47)
-        cp[3106] = 0x51A9; // 冩 (49-48)
-        cp[3107] = 0x51AA; // 冪 (49-49)
-        cp[3108] = 0x51AB; // 冫 (49-50)
-        cp[3109] = 0x51B3; // 决 (49-51)
-        cp[3110] = 0x51B1; // 冱 (49-52)
-        cp[3111] = 0x51B2; // 冲 (49-53)
-        cp[3112] = 0x51B0; // 冰 (49-54)
-        cp[3113] = 0x51B5; // 况 (49-55)
-        cp[3114] = 0x51BD; // 冽 (49-56)
-        cp[3115] = 0x51C5; // 凅 (49-57)
-        cp[3116] = 0x51C9; // 凉 (49-58)
-        cp[3117] = 0x51DB; // 凛 (49-59)
-        cp[3118] = 0x51E0; // 几 (49-60)
-        cp[3119] = 0x8655; // 處 (49-61)
-        cp[3120] = 0x51E9; // 凩 (49-62)
-        cp[3121] = 0x51ED; // 凭 (49-63)
-        cp[3122] = 0x51F0; // 凰 (49-64)
-        cp[3123] = 0x51F5; // 凵 (49-65)
-        cp[3124] = 0x51FE; // 凾 (49-66)
-        cp[3125] = 0x5204; // 刄 (49-67)
-        cp[3126] = 0x520B; // 刋 (49-68)
-        cp[3127] = 0x5214; // 刔 (49-69)
-        cp[3128] = 0x520E; // 刎 (49-70)
-        cp[3129] = 0x5227; // 刧 (49-71)
-        cp[3130] = 0x522A; // 刪 (49-72)
-        cp[3131] = 0x522E; // 刮 (49-73)
-        cp[3132] = 0x5233; // 刳 (49-74)
-        cp[3133] = 0x5239; // 刹 (49-75)
-        cp[3134] = 0x524F; // 剏 (49-76)
-        cp[3135] = 0x5244; // 剄 (49-77)
-        cp[3136] = 0x524B; // 剋 (49-78)
-        cp[3137] = 0x524C; // 剌 (49-79)
-        cp[3138] = 0x525E; // 剞 (49-80)
-        cp[3139] = 0x5254; // 剔 (49-81)
-        cp[3140] = 0x526A; // 剪 (49-82)
-        cp[3141] = 0x5274; // 剴 (49-83)
-        cp[3142] = 0x5269; // 剩 (49-84)
-        cp[3143] = 0x5273; // 剳 (49-85)
-        cp[3144] = 0x527F; // 剿 (49-86)
-        cp[3145] = 0x527D; // 剽 (49-87)
-        cp[3146] = 0x528D; // 劍 (49-88)
-        cp[3147] = 0x5294; // 劔 (49-89)
-        cp[3148] = 0x5292; // 劒 (49-90)
-        cp[3149] = 0x5271; // 剱 (49-91)
-        cp[3150] = 0x5288; // 劈 (49-92)
-        cp[3151] = 0x5291; // 劑 (49-93)
-        cp[3152] = 0x8FA8; // 辨 (49-94)
-        cp[3153] = 0x8FA7; // 辧 (50-01)
-        cp[3154] = 0x52AC; // 劬 (50-02)
-        cp[3155] = 0x52AD; // 劭 (50-03)
-        cp[3156] = 0x52BC; // 劼 (50-04)
-        cp[3157] = 0x52B5; // 劵 (50-05)
-        cp[3158] = 0x52C1; // 勁 (50-06)
-        cp[3159] = 0x52CD; // 勍 (50-07)
-        cp[3160] = 0x52D7; // 勗 (50-08)
-        cp[3161] = 0x52DE; // 勞 (50-09)
-        cp[3162] = 0x52E3; // 勣 (50-10)
-        cp[3163] = 0x52E6; // 勦 (50-11)
-        cp[3164] = 0x98ED; // 飭 (50-12)
-        cp[3165] = 0x52E0; // 勠 (50-13)
-        cp[3166] = 0x52F3; // 勳 (50-14)
-        cp[3167] = 0x52F5; // 勵 (50-15)
-        cp[3168] = 0x52F8; // 勸 (50-16)
-        cp[3169] = 0x52F9; // 勹 (50-17)
-        cp[3170] = 0x5306; // 匆 (50-18)
-        cp[3171] = 0x5308; // 匈 (50-19)
-        cp[3172] = 0x7538; // 甸 (50-20)
-        cp[3173] = 0x530D; // 匍 (50-21)
-        cp[3174] = 0x5310; // 匐 (50-22)
-        cp[3175] = 0x530F; // 匏 (50-23)
-        cp[3176] = 0x5315; // 匕 (50-24)
-        cp[3177] = 0x531A; // 匚 (50-25)
-        cp[3178] = 0x5323; // 匣 (50-26)
-        cp[3179] = 0x532F; // 匯 (50-27)
-        cp[3180] = 0x5331; // 匱 (50-28)
-        cp[3181] = 0x5333; // 匳 (50-29)
-        cp[3182] = 0x5338; // 匸 (50-30)
-        cp[3183] = 0x5340; // 區 (50-31)
-        cp[3184] = 0x5346; // 卆 (50-32)
-        cp[3185] = 0x5345; // 卅 (50-33)
-        cp[3186] = 0x4E17; // 丗 (50-34)
-        cp[3187] = 0x5349; // 卉 (50-35)
-        cp[3188] = 0x534D; // 卍 (50-36)
-        cp[3189] = 0x51D6; // 凖 (50-37)
-        cp[3190] = 0x535E; // 卞 (50-38)
-        cp[3191] = 0x5369; // 卩 (50-39)
-        cp[3192] = 0x536E; // 卮 (50-40)
-        cp[3193] = 0x5918; // 夘 (50-41)
-        cp[3194] = 0x537B; // 卻 (50-42)
-        cp[3195] = 0x5377; // 卷 (50-43)
-        cp[3196] = 0x5382; // 厂 (50-44)
-        cp[3197] = 0x5396; // 厖 (50-45)
-        cp[3198] = 0x53A0; // 厠 (50-46)
-        cp[3199] = 0x53A6; // 厦 (50-47)
-        cp[3200] = 0x53A5; // 厥 (50-48)
-        cp[3201] = 0x53AE; // 厮 (50-49)
-        cp[3202] = 0x53B0; // 厰 (50-50)
-        cp[3203] = 0x53B6; // 厶 (50-51)
-        cp[3204] = 0x53C3; // 參 (50-52)
-        cp[3205] = 0x7C12; // 簒 (50-53)
-        cp[3206] = 0x96D9; // 雙 (50-54)
-        cp[3207] = 0x53DF; // 叟 (50-55)
-        cp[3208] = 0x66FC; // 曼 (50-56)
-        cp[3209] = 0x71EE; // 燮 (50-57)
-        cp[3210] = 0x53EE; // 叮 (50-58)
-        cp[3211] = 0x53E8; // 叨 (50-59)
-        cp[3212] = 0x53ED; // 叭 (50-60)
-        cp[3213] = 0x53FA; // 叺 (50-61)
-        cp[3214] = 0x5401; // 吁 (50-62)
-        cp[3215] = 0x543D; // 吽 (50-63)
-        cp[3216] = 0x5440; // 呀 (50-64)
-        cp[3217] = 0x542C; // 听 (50-65)
-        cp[3218] = 0x542D; // 吭 (50-66)
-        cp[3219] = 0x543C; // 吼 (50-67)
-        cp[3220] = 0x542E; // 吮 (50-68)
-        cp[3221] = 0x5436; // 吶 (50-69)
-        cp[3222] = 0x5429; // 吩 (50-70)
-        cp[3223] = 0x541D; // 吝 (50-71)
-        cp[3224] = 0x544E; // 呎 (50-72)
-        cp[3225] = 0x548F; // 咏 (50-73)
-        cp[3226] = 0x5475; // 呵 (50-74)
-        cp[3227] = 0x548E; // 咎 (50-75)
-        cp[3228] = 0x545F; // 呟 (50-76)
-        cp[3229] = 0x5471; // 呱 (50-77)
-        cp[3230] = 0x5477; // 呷 (50-78)
-        cp[3231] = 0x5470; // 呰 (50-79)
-        cp[3232] = 0x5492; // 咒 (50-80)
-        cp[3233] = 0x547B; // 呻 (50-81)
-        cp[3234] = 0x5480; // 咀 (50-82)
-        cp[3235] = 0x5476; // 呶 (50-83)
-        cp[3236] = 0x5484; // 咄 (50-84)
-        cp[3237] = 0x5490; // 咐 (50-85)
-        cp[3238] = 0x5486; // 咆 (50-86)
-        cp[3239] = 0x54C7; // 哇 (50-87)
-        cp[3240] = 0x54A2; // 咢 (50-88)
-        cp[3241] = 0x54B8; // 咸 (50-89)
-        cp[3242] = 0x54A5; // 咥 (50-90)
-        cp[3243] = 0x54AC; // 咬 (50-91)
-        cp[3244] = 0x54C4; // 哄 (50-92)
-        cp[3245] = 0x54C8; // 哈 (50-93)
-        cp[3246] = 0x54A8; // 咨 (50-94)
-        cp[3247] = 0x54AB; // 咫 (51-01)
-        cp[3248] = 0x54C2; // 哂 (51-02)
-        cp[3249] = 0x54A4; // 咤 (51-03)
-        cp[3250] = 0x54BE; // 咾 (51-04)
-        cp[3251] = 0x54BC; // 咼 (51-05)
-        cp[3252] = 0x54D8; // 哘 (51-06)
-        cp[3253] = 0x54E5; // 哥 (51-07)
-        cp[3254] = 0x54E6; // 哦 (51-08)
-        cp[3255] = 0x550F; // 唏 (51-09)
-        cp[3256] = 0x5514; // 唔 (51-10)
-        cp[3257] = 0x54FD; // 哽 (51-11)
-        cp[3258] = 0x54EE; // 哮 (51-12)
-        cp[3259] = 0x54ED; // 哭 (51-13)
-        cp[3260] = 0x54FA; // 哺 (51-14)
-        cp[3261] = 0x54E2; // 哢 (51-15)
-        cp[3262] = 0x5539; // 唹 (51-16)
-        cp[3263] = 0x5540; // 啀 (51-17)
-        cp[3264] = 0x5563; // 啣 (51-18)
-        cp[3265] = 0x554C; // 啌 (51-19)
-        cp[3266] = 0x552E; // 售 (51-20)
-        cp[3267] = 0x555C; // 啜 (51-21)
-        cp[3268] = 0x5545; // 啅 (51-22)
-        cp[3269] = 0x5556; // 啖 (51-23)
-        cp[3270] = 0x5557; // 啗 (51-24)
-        cp[3271] = 0x5538; // 唸 (51-25)
-        cp[3272] = 0x5533; // 唳 (51-26)
-        cp[3273] = 0x555D; // 啝 (51-27)
-        cp[3274] = 0x5599; // 喙 (51-28)
-        cp[3275] = 0x5580; // 喀 (51-29)
-        cp[3276] = 0x54AF; // 咯 (51-30)
-        cp[3277] = 0x558A; // 喊 (51-31)
-        cp[3278] = 0x559F; // 喟 (51-32)
-        cp[3279] = 0x557B; // 啻 (51-33)
-        cp[3280] = 0x557E; // 啾 (51-34)
-        cp[3281] = 0x5598; // 喘 (51-35)
-        cp[3282] = 0x559E; // 喞 (51-36)
-        cp[3283] = 0x55AE; // 單 (51-37)
-        cp[3284] = 0x557C; // 啼 (51-38)
-        cp[3285] = 0x5583; // 喃 (51-39)
-        cp[3286] = 0x55A9; // 喩 (51-40)
-        cp[3287] = 0x5587; // 喇 (51-41)
-        cp[3288] = 0x55A8; // 喨 (51-42)
-        cp[3289] = 0x55DA; // 嗚 (51-43)
-        cp[3290] = 0x55C5; // 嗅 (51-44)
-        cp[3291] = 0x55DF; // 嗟 (51-45)
-        cp[3292] = 0x55C4; // 嗄 (51-46)
-        cp[3293] = 0x55DC; // 嗜 (51-47)
-        cp[3294] = 0x55E4; // 嗤 (51-48)
-        cp[3295] = 0x55D4; // 嗔 (51-49)
-        cp[3296] = 0x5614; // 嘔 (51-50)
-        cp[3297] = 0x55F7; // 嗷 (51-51)
-        cp[3298] = 0x5616; // 嘖 (51-52)
-        cp[3299] = 0x55FE; // 嗾 (51-53)
-        cp[3300] = 0x55FD; // 嗽 (51-54)
-        cp[3301] = 0x561B; // 嘛 (51-55)
-        cp[3302] = 0x55F9; // 嗹 (51-56)
-        cp[3303] = 0x564E; // 噎 (51-57)
-        cp[3304] = 0x5650; // 噐 (51-58)
-        cp[3305] = 0x71DF; // 營 (51-59)
-        cp[3306] = 0x5634; // 嘴 (51-60)
-        cp[3307] = 0x5636; // 嘶 (51-61)
-        cp[3308] = 0x5632; // 嘲 (51-62)
-        cp[3309] = 0x5638; // 嘸 (51-63)
-        cp[3310] = 0x566B; // 噫 (51-64)
-        cp[3311] = 0x5664; // 噤 (51-65)
-        cp[3312] = 0x562F; // 嘯 (51-66)
-        cp[3313] = 0x566C; // 噬 (51-67)
-        cp[3314] = 0x566A; // 噪 (51-68)
-        cp[3315] = 0x5686; // 嚆 (51-69)
-        cp[3316] = 0x5680; // 嚀 (51-70)
-        cp[3317] = 0x568A; // 嚊 (51-71)
-        cp[3318] = 0x56A0; // 嚠 (51-72)
-        cp[3319] = 0x5694; // 嚔 (51-73)
-        cp[3320] = 0x568F; // 嚏 (51-74)
-        cp[3321] = 0x56A5; // 嚥 (51-75)
-        cp[3322] = 0x56AE; // 嚮 (51-76)
-        cp[3323] = 0x56B6; // 嚶 (51-77)
-        cp[3324] = 0x56B4; // 嚴 (51-78)
-        cp[3325] = 0x56C2; // 囂 (51-79)
-        cp[3326] = 0x56BC; // 嚼 (51-80)
-        cp[3327] = 0x56C1; // 囁 (51-81)
-        cp[3328] = 0x56C3; // 囃 (51-82)
-        cp[3329] = 0x56C0; // 囀 (51-83)
-        cp[3330] = 0x56C8; // 囈 (51-84)
-        cp[3331] = 0x56CE; // 囎 (51-85)
-        cp[3332] = 0x56D1; // 囑 (51-86)
-        cp[3333] = 0x56D3; // 囓 (51-87)
-        cp[3334] = 0x56D7; // 囗 (51-88)
-        cp[3335] = 0x56EE; // 囮 (51-89)
-        cp[3336] = 0x56F9; // 囹 (51-90)
-        cp[3337] = 0x5700; // 圀 (51-91)
-        cp[3338] = 0x56FF; // 囿 (51-92)
-        cp[3339] = 0x5704; // 圄 (51-93)
-        cp[3340] = 0x5709; // 圉 (51-94)
-        cp[3341] = 0x5708; // 圈 (52-01)
-        cp[3342] = 0x570B; // 國 (52-02)
-        cp[3343] = 0x570D; // 圍 (52-03)
-        cp[3344] = 0x5713; // 圓 (52-04)
-        cp[3345] = 0x5718; // 團 (52-05)
-        cp[3346] = 0x5716; // 圖 (52-06)
-        cp[3347] = 0x55C7; // 嗇 (52-07)
-        cp[3348] = 0x571C; // 圜 (52-08)
-        cp[3349] = 0x5726; // 圦 (52-09)
-        cp[3350] = 0x5737; // 圷 (52-10)
-        cp[3351] = 0x5738; // 圸 (52-11)
-        cp[3352] = 0x574E; // 坎 (52-12)
-        cp[3353] = 0x573B; // 圻 (52-13)
-        cp[3354] = 0x5740; // 址 (52-14)
-        cp[3355] = 0x574F; // 坏 (52-15)
-        cp[3356] = 0x5769; // 坩 (52-16)
-        cp[3357] = 0x57C0; // 埀 (52-17)
-        cp[3358] = 0x5788; // 垈 (52-18)
-        cp[3359] = 0x5761; // 坡 (52-19)
-        cp[3360] = 0x577F; // 坿 (52-20)
-        cp[3361] = 0x5789; // 垉 (52-21)
-        cp[3362] = 0x5793; // 垓 (52-22)
-        cp[3363] = 0x57A0; // 垠 (52-23)
-        cp[3364] = 0x57B3; // 垳 (52-24)
-        cp[3365] = 0x57A4; // 垤 (52-25)
-        cp[3366] = 0x57AA; // 垪 (52-26)
-        cp[3367] = 0x57B0; // 垰 (52-27)
-        cp[3368] = 0x57C3; // 埃 (52-28)
-        cp[3369] = 0x57C6; // 埆 (52-29)
-        cp[3370] = 0x57D4; // 埔 (52-30)
-        cp[3371] = 0x57D2; // 埒 (52-31)
-        cp[3372] = 0x57D3; // 埓 (52-32)
-        cp[3373] = 0x580A; // 堊 (52-33)
-        cp[3374] = 0x57D6; // 埖 (52-34)
-        cp[3375] = 0x57E3; // 埣 (52-35)
-        cp[3376] = 0x580B; // 堋 (52-36)
-        cp[3377] = 0x5819; // 堙 (52-37)
-        cp[3378] = 0x581D; // 堝 (52-38)
-        cp[3379] = 0x5872; // 塲 (52-39)
-        cp[3380] = 0x5821; // 堡 (52-40)
-        cp[3381] = 0x5862; // 塢 (52-41)
-        cp[3382] = 0x584B; // 塋 (52-42)
-        cp[3383] = 0x5870; // 塰 (52-43)
-        cp[3384] = 0x6BC0; // 毀 (52-44)
-        cp[3385] = 0x5852; // 塒 (52-45)
-        cp[3386] = 0x583D; // 堽 (52-46)
-        cp[3387] = 0x5879; // 塹 (52-47)
-        cp[3388] = 0x5885; // 墅 (52-48)
-        cp[3389] = 0x58B9; // 墹 (52-49)
-        cp[3390] = 0x589F; // 墟 (52-50)
-        cp[3391] = 0x58AB; // 墫 (52-51)
-        cp[3392] = 0x58BA; // 墺 (52-52)
-        cp[3393] = 0x58DE; // 壞 (52-53)
-        cp[3394] = 0x58BB; // 墻 (52-54)
-        cp[3395] = 0x58B8; // 墸 (52-55)
-        cp[3396] = 0x58AE; // 墮 (52-56)
-        cp[3397] = 0x58C5; // 壅 (52-57)
-        cp[3398] = 0x58D3; // 壓 (52-58)
-        cp[3399] = 0x58D1; // 壑 (52-59)
-        cp[3400] = 0x58D7; // 壗 (52-60)
-        cp[3401] = 0x58D9; // 壙 (52-61)
-        cp[3402] = 0x58D8; // 壘 (52-62)
-        cp[3403] = 0x58E5; // 壥 (52-63)
-        cp[3404] = 0x58DC; // 壜 (52-64)
-        cp[3405] = 0x58E4; // 壤 (52-65)
-        cp[3406] = 0x58DF; // 壟 (52-66)
-        cp[3407] = 0x58EF; // 壯 (52-67)
-        cp[3408] = 0x58FA; // 壺 (52-68)
-        cp[3409] = 0x58F9; // 壹 (52-69)
-        cp[3410] = 0x58FB; // 壻 (52-70)
-        cp[3411] = 0x58FC; // 壼 (52-71)
-        cp[3412] = 0x58FD; // 壽 (52-72)
-        cp[3413] = 0x5902; // 夂 (52-73)
-        cp[3414] = 0x590A; // 夊 (52-74)
-        cp[3415] = 0x5910; // 夐 (52-75)
-        cp[3416] = 0x591B; // 夛 (52-76)
-        cp[3417] = 0x68A6; // 梦 (52-77)
-        cp[3418] = 0x5925; // 夥 (52-78)
-        cp[3419] = 0x592C; // 夬 (52-79)
-        cp[3420] = 0x592D; // 夭 (52-80)
-        cp[3421] = 0x5932; // 夲 (52-81)
-        cp[3422] = 0x5938; // 夸 (52-82)
-        cp[3423] = 0x593E; // 夾 (52-83)
-        cp[3424] = 0x7AD2; // 竒 (52-84)
-        cp[3425] = 0x5955; // 奕 (52-85)
-        cp[3426] = 0x5950; // 奐 (52-86)
-        cp[3427] = 0x594E; // 奎 (52-87)
-        cp[3428] = 0x595A; // 奚 (52-88)
-        cp[3429] = 0x5958; // 奘 (52-89)
-        cp[3430] = 0x5962; // 奢 (52-90)
-        cp[3431] = 0x5960; // 奠 (52-91)
-        cp[3432] = 0x5967; // 奧 (52-92)
-        cp[3433] = 0x596C; // 奬 (52-93)
-        cp[3434] = 0x5969; // 奩 (52-94)
-        cp[3435] = 0x5978; // 奸 (53-01)
-        cp[3436] = 0x5981; // 妁 (53-02)
-        cp[3437] = 0x599D; // 妝 (53-03)
-        cp[3438] = 0x4F5E; // 佞 (53-04)
-        cp[3439] = 0x4FAB; // 侫 (53-05)
-        cp[3440] = 0x59A3; // 妣 (53-06)
-        cp[3441] = 0x59B2; // 妲 (53-07)
-        cp[3442] = 0x59C6; // 姆 (53-08)
-        cp[3443] = 0x59E8; // 姨 (53-09)
-        cp[3444] = 0x59DC; // 姜 (53-10)
-        cp[3445] = 0x598D; // 妍 (53-11)
-        cp[3446] = 0x59D9; // 姙 (53-12)
-        cp[3447] = 0x59DA; // 姚 (53-13)
-        cp[3448] = 0x5A25; // 娥 (53-14)
-        cp[3449] = 0x5A1F; // 娟 (53-15)
-        cp[3450] = 0x5A11; // 娑 (53-16)
-        cp[3451] = 0x5A1C; // 娜 (53-17)
-        cp[3452] = 0x5A09; // 娉 (53-18)
-        cp[3453] = 0x5A1A; // 娚 (53-19)
-        cp[3454] = 0x5A40; // 婀 (53-20)
-        cp[3455] = 0x5A6C; // 婬 (53-21)
-        cp[3456] = 0x5A49; // 婉 (53-22)
-        cp[3457] = 0x5A35; // 娵 (53-23)
-        cp[3458] = 0x5A36; // 娶 (53-24)
-        cp[3459] = 0x5A62; // 婢 (53-25)
-        cp[3460] = 0x5A6A; // 婪 (53-26)
-        cp[3461] = 0x5A9A; // 媚 (53-27)
-        cp[3462] = 0x5ABC; // 媼 (53-28)
-        cp[3463] = 0x5ABE; // 媾 (53-29)
-        cp[3464] = 0x5ACB; // 嫋 (53-30)
-        cp[3465] = 0x5AC2; // 嫂 (53-31)
-        cp[3466] = 0x5ABD; // 媽 (53-32)
-        cp[3467] = 0x5AE3; // 嫣 (53-33)
-        cp[3468] = 0x5AD7; // 嫗 (53-34)
-        cp[3469] = 0x5AE6; // 嫦 (53-35)
-        cp[3470] = 0x5AE9; // 嫩 (53-36)
-        cp[3471] = 0x5AD6; // 嫖 (53-37)
-        cp[3472] = 0x5AFA; // 嫺 (53-38)
-        cp[3473] = 0x5AFB; // 嫻 (53-39)
-        cp[3474] = 0x5B0C; // 嬌 (53-40)
-        cp[3475] = 0x5B0B; // 嬋 (53-41)
-        cp[3476] = 0x5B16; // 嬖 (53-42)
-        cp[3477] = 0x5B32; // 嬲 (53-43)
-        cp[3478] = 0x5AD0; // 嫐 (53-44)
-        cp[3479] = 0x5B2A; // 嬪 (53-45)
-        cp[3480] = 0x5B36; // 嬶 (53-46)
-        cp[3481] = 0x5B3E; // 嬾 (53-47)
-        cp[3482] = 0x5B43; // 孃 (53-48)
-        cp[3483] = 0x5B45; // 孅 (53-49)
-        cp[3484] = 0x5B40; // 孀 (53-50)
-        cp[3485] = 0x5B51; // 孑 (53-51)
-        cp[3486] = 0x5B55; // 孕 (53-52)
-        cp[3487] = 0x5B5A; // 孚 (53-53)
-        cp[3488] = 0x5B5B; // 孛 (53-54)
-        cp[3489] = 0x5B65; // 孥 (53-55)
-        cp[3490] = 0x5B69; // 孩 (53-56)
-        cp[3491] = 0x5B70; // 孰 (53-57)
-        cp[3492] = 0x5B73; // 孳 (53-58)
-        cp[3493] = 0x5B75; // 孵 (53-59)
-        cp[3494] = 0x5B78; // 學 (53-60)
-        cp[3495] = 0x6588; // 斈 (53-61)
-        cp[3496] = 0x5B7A; // 孺 (53-62)
-        cp[3497] = 0x5B80; // 宀 (53-63)
-        cp[3498] = 0x5B83; // 它 (53-64)
-        cp[3499] = 0x5BA6; // 宦 (53-65)
-        cp[3500] = 0x5BB8; // 宸 (53-66)
-        cp[3501] = 0x5BC3; // 寃 (53-67)
-        cp[3502] = 0x5BC7; // 寇 (53-68)
-        cp[3503] = 0x5BC9; // 寉 (53-69)
-        cp[3504] = 0x5BD4; // 寔 (53-70)
-        cp[3505] = 0x5BD0; // 寐 (53-71)
-        cp[3506] = 0x5BE4; // 寤 (53-72)
-        cp[3507] = 0x5BE6; // 實 (53-73)
-        cp[3508] = 0x5BE2; // 寢 (53-74)
-        cp[3509] = 0x5BDE; // 寞 (53-75)
-        cp[3510] = 0x5BE5; // 寥 (53-76)
-        cp[3511] = 0x5BEB; // 寫 (53-77)
-        cp[3512] = 0x5BF0; // 寰 (53-78)
-        cp[3513] = 0x5BF6; // 寶 (53-79)
-        cp[3514] = 0x5BF3; // 寳 (53-80)
-        cp[3515] = 0x5C05; // 尅 (53-81)
-        cp[3516] = 0x5C07; // 將 (53-82)
-        cp[3517] = 0x5C08; // 專 (53-83)
-        cp[3518] = 0x5C0D; // 對 (53-84)
-        cp[3519] = 0x5C13; // 尓 (53-85)
-        cp[3520] = 0x5C20; // 尠 (53-86)
-        cp[3521] = 0x5C22; // 尢 (53-87)
-        cp[3522] = 0x5C28; // 尨 (53-88)
-        cp[3523] = 0x5C38; // 尸 (53-89)
-        cp[3524] = 0x5C39; // 尹 (53-90)
-        cp[3525] = 0x5C41; // 屁 (53-91)
-        cp[3526] = 0x5C46; // 屆 (53-92)
-        cp[3527] = 0x5C4E; // 屎 (53-93)
-        cp[3528] = 0x5C53; // 屓 (53-94)
-        cp[3529] = 0x5C50; // 屐 (54-01)
-        cp[3530] = 0x5C4F; // 屏 (54-02)
-        cp[3531] = 0x5B71; // 孱 (54-03)
-        cp[3532] = 0x5C6C; // 屬 (54-04)
-        cp[3533] = 0x5C6E; // 屮 (54-05)
-        cp[3534] = 0x4E62; // 乢 (54-06)
-        cp[3535] = 0x5C76; // 屶 (54-07)
-        cp[3536] = 0x5C79; // 屹 (54-08)
-        cp[3537] = 0x5C8C; // 岌 (54-09)
-        cp[3538] = 0x5C91; // 岑 (54-10)
-        cp[3539] = 0x5C94; // 岔 (54-11)
-        cp[3540] = 0x599B; // 妛 (54-12)
-        cp[3541] = 0x5CAB; // 岫 (54-13)
-        cp[3542] = 0x5CBB; // 岻 (54-14)
-        cp[3543] = 0x5CB6; // 岶 (54-15)
-        cp[3544] = 0x5CBC; // 岼 (54-16)
-        cp[3545] = 0x5CB7; // 岷 (54-17)
-        cp[3546] = 0x5CC5; // 峅 (54-18)
-        cp[3547] = 0x5CBE; // 岾 (54-19)
-        cp[3548] = 0x5CC7; // 峇 (54-20)
-        cp[3549] = 0x5CD9; // 峙 (54-21)
-        cp[3550] = 0x5CE9; // 峩 (54-22)
-        cp[3551] = 0x5CFD; // 峽 (54-23)
-        cp[3552] = 0x5CFA; // 峺 (54-24)
-        cp[3553] = 0x5CED; // 峭 (54-25)
-        cp[3554] = 0x5D8C; // 嶌 (54-26)
-        cp[3555] = 0x5CEA; // 峪 (54-27)
-        cp[3556] = 0x5D0B; // 崋 (54-28)
-        cp[3557] = 0x5D15; // 崕 (54-29)
-        cp[3558] = 0x5D17; // 崗 (54-30)
-        cp[3559] = 0x5D5C; // 嵜 (54-31)
-        cp[3560] = 0x5D1F; // 崟 (54-32)
-        cp[3561] = 0x5D1B; // 崛 (54-33)
-        cp[3562] = 0x5D11; // 崑 (54-34)
-        cp[3563] = 0x5D14; // 崔 (54-35)
-        cp[3564] = 0x5D22; // 崢 (54-36)
-        cp[3565] = 0x5D1A; // 崚 (54-37)
-        cp[3566] = 0x5D19; // 崙 (54-38)
-        cp[3567] = 0x5D18; // 崘 (54-39)
-        cp[3568] = 0x5D4C; // 嵌 (54-40)
-        cp[3569] = 0x5D52; // 嵒 (54-41)
-        cp[3570] = 0x5D4E; // 嵎 (54-42)
-        cp[3571] = 0x5D4B; // 嵋 (54-43)
-        cp[3572] = 0x5D6C; // 嵬 (54-44)
-        cp[3573] = 0x5D73; // 嵳 (54-45)
-        cp[3574] = 0x5D76; // 嵶 (54-46)
-        cp[3575] = 0x5D87; // 嶇 (54-47)
-        cp[3576] = 0x5D84; // 嶄 (54-48)
-        cp[3577] = 0x5D82; // 嶂 (54-49)
-        cp[3578] = 0x5DA2; // 嶢 (54-50)
-        cp[3579] = 0x5D9D; // 嶝 (54-51)
-        cp[3580] = 0x5DAC; // 嶬 (54-52)
-        cp[3581] = 0x5DAE; // 嶮 (54-53)
-        cp[3582] = 0x5DBD; // 嶽 (54-54)
-        cp[3583] = 0x5D90; // 嶐 (54-55)
-        cp[3584] = 0x5DB7; // 嶷 (54-56)
-        cp[3585] = 0x5DBC; // 嶼 (54-57)
-        cp[3586] = 0x5DC9; // 巉 (54-58)
-        cp[3587] = 0x5DCD; // 巍 (54-59)
-        cp[3588] = 0x5DD3; // 巓 (54-60)
-        cp[3589] = 0x5DD2; // 巒 (54-61)
-        cp[3590] = 0x5DD6; // 巖 (54-62)
-        cp[3591] = 0x5DDB; // 巛 (54-63)
-        cp[3592] = 0x5DEB; // 巫 (54-64)
-        cp[3593] = 0x5DF2; // 已 (54-65)
-        cp[3594] = 0x5DF5; // 巵 (54-66)
-        cp[3595] = 0x5E0B; // 帋 (54-67)
-        cp[3596] = 0x5E1A; // 帚 (54-68)
-        cp[3597] = 0x5E19; // 帙 (54-69)
-        cp[3598] = 0x5E11; // 帑 (54-70)
-        cp[3599] = 0x5E1B; // 帛 (54-71)
-        cp[3600] = 0x5E36; // 帶 (54-72)
-        cp[3601] = 0x5E37; // 帷 (54-73)
-        cp[3602] = 0x5E44; // 幄 (54-74)
-        cp[3603] = 0x5E43; // 幃 (54-75)
-        cp[3604] = 0x5E40; // 幀 (54-76)
-        cp[3605] = 0x5E4E; // 幎 (54-77)
-        cp[3606] = 0x5E57; // 幗 (54-78)
-        cp[3607] = 0x5E54; // 幔 (54-79)
-        cp[3608] = 0x5E5F; // 幟 (54-80)
-        cp[3609] = 0x5E62; // 幢 (54-81)
-        cp[3610] = 0x5E64; // 幤 (54-82)
-        cp[3611] = 0x5E47; // 幇 (54-83)
-        cp[3612] = 0x5E75; // 幵 (54-84)
-        cp[3613] = 0x5E76; // 并 (54-85)
-        cp[3614] = 0x5E7A; // 幺 (54-86)
-        cp[3615] = 0x9EBC; // 麼 (54-87)
-        cp[3616] = 0x5E7F; // 广 (54-88)
-        cp[3617] = 0x5EA0; // 庠 (54-89)
-        cp[3618] = 0x5EC1; // 廁 (54-90)
-        cp[3619] = 0x5EC2; // 廂 (54-91)
-        cp[3620] = 0x5EC8; // 廈 (54-92)
-        cp[3621] = 0x5ED0; // 廐 (54-93)
-        cp[3622] = 0x5ECF; // 廏 (54-94)
-        cp[3623] = 0x5ED6; // 廖 (55-01)
-        cp[3624] = 0x5EE3; // 廣 (55-02)
-        cp[3625] = 0x5EDD; // 廝 (55-03)
-        cp[3626] = 0x5EDA; // 廚 (55-04)
-        cp[3627] = 0x5EDB; // 廛 (55-05)
-        cp[3628] = 0x5EE2; // 廢 (55-06)
-        cp[3629] = 0x5EE1; // 廡 (55-07)
-        cp[3630] = 0x5EE8; // 廨 (55-08)
-        cp[3631] = 0x5EE9; // 廩 (55-09)
-        cp[3632] = 0x5EEC; // 廬 (55-10)
-        cp[3633] = 0x5EF1; // 廱 (55-11)
-        cp[3634] = 0x5EF3; // 廳 (55-12)
-        cp[3635] = 0x5EF0; // 廰 (55-13)
-        cp[3636] = 0x5EF4; // 廴 (55-14)
-        cp[3637] = 0x5EF8; // 廸 (55-15)
-        cp[3638] = 0x5EFE; // 廾 (55-16)
-        cp[3639] = 0x5F03; // 弃 (55-17)
-        cp[3640] = 0x5F09; // 弉 (55-18)
-        cp[3641] = 0x5F5D; // 彝 (55-19)
-        cp[3642] = 0x5F5C; // 彜 (55-20)
-        cp[3643] = 0x5F0B; // 弋 (55-21)
-        cp[3644] = 0x5F11; // 弑 (55-22)
-        cp[3645] = 0x5F16; // 弖 (55-23)
-        cp[3646] = 0x5F29; // 弩 (55-24)
-        cp[3647] = 0x5F2D; // 弭 (55-25)
-        cp[3648] = 0x5F38; // 弸 (55-26)
-        cp[3649] = 0x5F41; // 彁 (55-27)
-        cp[3650] = 0x5F48; // 彈 (55-28)
-        cp[3651] = 0x5F4C; // 彌 (55-29)
-        cp[3652] = 0x5F4E; // 彎 (55-30)
-        cp[3653] = 0x5F2F; // 弯 (55-31)
-        cp[3654] = 0x5F51; // 彑 (55-32)
-        cp[3655] = 0x5F56; // 彖 (55-33)
-        cp[3656] = 0x5F57; // 彗 (55-34)
-        cp[3657] = 0x5F59; // 彙 (55-35)
-        cp[3658] = 0x5F61; // 彡 (55-36)
-        cp[3659] = 0x5F6D; // 彭 (55-37)
-        cp[3660] = 0x5F73; // 彳 (55-38)
-        cp[3661] = 0x5F77; // 彷 (55-39)
-        cp[3662] = 0x5F83; // 徃 (55-40)
-        cp[3663] = 0x5F82; // 徂 (55-41)
-        cp[3664] = 0x5F7F; // 彿 (55-42)
-        cp[3665] = 0x5F8A; // 徊 (55-43)
-        cp[3666] = 0x5F88; // 很 (55-44)
-        cp[3667] = 0x5F91; // 徑 (55-45)
-        cp[3668] = 0x5F87; // 徇 (55-46)
-        cp[3669] = 0x5F9E; // 從 (55-47)
-        cp[3670] = 0x5F99; // 徙 (55-48)
-        cp[3671] = 0x5F98; // 徘 (55-49)
-        cp[3672] = 0x5FA0; // 徠 (55-50)
-        cp[3673] = 0x5FA8; // 徨 (55-51)
-        cp[3674] = 0x5FAD; // 徭 (55-52)
-        cp[3675] = 0x5FBC; // 徼 (55-53)
-        cp[3676] = 0x5FD6; // 忖 (55-54)
-        cp[3677] = 0x5FFB; // 忻 (55-55)
-        cp[3678] = 0x5FE4; // 忤 (55-56)
-        cp[3679] = 0x5FF8; // 忸 (55-57)
-        cp[3680] = 0x5FF1; // 忱 (55-58)
-        cp[3681] = 0x5FDD; // 忝 (55-59)
-        cp[3682] = 0x60B3; // 悳 (55-60)
-        cp[3683] = 0x5FFF; // 忿 (55-61)
-        cp[3684] = 0x6021; // 怡 (55-62)
-        cp[3685] = 0x6060; // 恠 (55-63)
-        cp[3686] = 0x6019; // 怙 (55-64)
-        cp[3687] = 0x6010; // 怐 (55-65)
-        cp[3688] = 0x6029; // 怩 (55-66)
-        cp[3689] = 0x600E; // 怎 (55-67)
-        cp[3690] = 0x6031; // 怱 (55-68)
-        cp[3691] = 0x601B; // 怛 (55-69)
-        cp[3692] = 0x6015; // 怕 (55-70)
-        cp[3693] = 0x602B; // 怫 (55-71)
-        cp[3694] = 0x6026; // 怦 (55-72)
-        cp[3695] = 0x600F; // 怏 (55-73)
-        cp[3696] = 0x603A; // 怺 (55-74)
-        cp[3697] = 0x605A; // 恚 (55-75)
-        cp[3698] = 0x6041; // 恁 (55-76)
-        cp[3699] = 0x606A; // 恪 (55-77)
-        cp[3700] = 0x6077; // 恷 (55-78)
-        cp[3701] = 0x605F; // 恟 (55-79)
-        cp[3702] = 0x604A; // 恊 (55-80)
-        cp[3703] = 0x6046; // 恆 (55-81)
-        cp[3704] = 0x604D; // 恍 (55-82)
-        cp[3705] = 0x6063; // 恣 (55-83)
-        cp[3706] = 0x6043; // 恃 (55-84)
-        cp[3707] = 0x6064; // 恤 (55-85)
-        cp[3708] = 0x6042; // 恂 (55-86)
-        cp[3709] = 0x606C; // 恬 (55-87)
-        cp[3710] = 0x606B; // 恫 (55-88)
-        cp[3711] = 0x6059; // 恙 (55-89)
-        cp[3712] = 0x6081; // 悁 (55-90)
-        cp[3713] = 0x608D; // 悍 (55-91)
-        cp[3714] = 0x60E7; // 惧 (55-92)
-        cp[3715] = 0x6083; // 悃 (55-93)
-        cp[3716] = 0x609A; // 悚 (55-94)
-        cp[3717] = 0x6084; // 悄 (56-01)
-        cp[3718] = 0x609B; // 悛 (56-02)
-        cp[3719] = 0x6096; // 悖 (56-03)
-        cp[3720] = 0x6097; // 悗 (56-04)
-        cp[3721] = 0x6092; // 悒 (56-05)
-        cp[3722] = 0x60A7; // 悧 (56-06)
-        cp[3723] = 0x608B; // 悋 (56-07)
-        cp[3724] = 0x60E1; // 惡 (56-08)
-        cp[3725] = 0x60B8; // 悸 (56-09)
-        cp[3726] = 0x60E0; // 惠 (56-10)
-        cp[3727] = 0x60D3; // 惓 (56-11)
-        cp[3728] = 0x60B4; // 悴 (56-12)
-        cp[3729] = 0x5FF0; // 忰 (56-13)
-        cp[3730] = 0x60BD; // 悽 (56-14)
-        cp[3731] = 0x60C6; // 惆 (56-15)
-        cp[3732] = 0x60B5; // 悵 (56-16)
-        cp[3733] = 0x60D8; // 惘 (56-17)
-        cp[3734] = 0x614D; // 慍 (56-18)
-        cp[3735] = 0x6115; // 愕 (56-19)
-        cp[3736] = 0x6106; // 愆 (56-20)
-        cp[3737] = 0x60F6; // 惶 (56-21)
-        cp[3738] = 0x60F7; // 惷 (56-22)
-        cp[3739] = 0x6100; // 愀 (56-23)
-        cp[3740] = 0x60F4; // 惴 (56-24)
-        cp[3741] = 0x60FA; // 惺 (56-25)
-        cp[3742] = 0x6103; // 愃 (56-26)
-        cp[3743] = 0x6121; // 愡 (56-27)
-        cp[3744] = 0x60FB; // 惻 (56-28)
-        cp[3745] = 0x60F1; // 惱 (56-29)
-        cp[3746] = 0x610D; // 愍 (56-30)
-        cp[3747] = 0x610E; // 愎 (56-31)
-        cp[3748] = 0x6147; // 慇 (56-32)
-        cp[3749] = 0x613E; // 愾 (56-33)
-        cp[3750] = 0x6128; // 愨 (56-34)
-        cp[3751] = 0x6127; // 愧 (56-35)
-        cp[3752] = 0x614A; // 慊 (56-36)
-        cp[3753] = 0x613F; // 愿 (56-37)
-        cp[3754] = 0x613C; // 愼 (56-38)
-        cp[3755] = 0x612C; // 愬 (56-39)
-        cp[3756] = 0x6134; // 愴 (56-40)
-        cp[3757] = 0x613D; // 愽 (56-41)
-        cp[3758] = 0x6142; // 慂 (56-42)
-        cp[3759] = 0x6144; // 慄 (56-43)
-        cp[3760] = 0x6173; // 慳 (56-44)
-        cp[3761] = 0x6177; // 慷 (56-45)
-        cp[3762] = 0x6158; // 慘 (56-46)
-        cp[3763] = 0x6159; // 慙 (56-47)
-        cp[3764] = 0x615A; // 慚 (56-48)
-        cp[3765] = 0x616B; // 慫 (56-49)
-        cp[3766] = 0x6174; // 慴 (56-50)
-        cp[3767] = 0x616F; // 慯 (56-51)
-        cp[3768] = 0x6165; // 慥 (56-52)
-        cp[3769] = 0x6171; // 慱 (56-53)
-        cp[3770] = 0x615F; // 慟 (56-54)
-        cp[3771] = 0x615D; // 慝 (56-55)
-        cp[3772] = 0x6153; // 慓 (56-56)
-        cp[3773] = 0x6175; // 慵 (56-57)
-        cp[3774] = 0x6199; // 憙 (56-58)
-        cp[3775] = 0x6196; // 憖 (56-59)
-        cp[3776] = 0x6187; // 憇 (56-60)
-        cp[3777] = 0x61AC; // 憬 (56-61)
-        cp[3778] = 0x6194; // 憔 (56-62)
-        cp[3779] = 0x619A; // 憚 (56-63)
-        cp[3780] = 0x618A; // 憊 (56-64)
-        cp[3781] = 0x6191; // 憑 (56-65)
-        cp[3782] = 0x61AB; // 憫 (56-66)
-        cp[3783] = 0x61AE; // 憮 (56-67)
-        cp[3784] = 0x61CC; // 懌 (56-68)
-        cp[3785] = 0x61CA; // 懊 (56-69)
-        cp[3786] = 0x61C9; // 應 (56-70)
-        cp[3787] = 0x61F7; // 懷 (56-71)
-        cp[3788] = 0x61C8; // 懈 (56-72)
-        cp[3789] = 0x61C3; // 懃 (56-73)
-        cp[3790] = 0x61C6; // 懆 (56-74)
-        cp[3791] = 0x61BA; // 憺 (56-75)
-        cp[3792] = 0x61CB; // 懋 (56-76)
-        cp[3793] = 0x7F79; // 罹 (56-77)
-        cp[3794] = 0x61CD; // 懍 (56-78)
-        cp[3795] = 0x61E6; // 懦 (56-79)
-        cp[3796] = 0x61E3; // 懣 (56-80)
-        cp[3797] = 0x61F6; // 懶 (56-81)
-        cp[3798] = 0x61FA; // 懺 (56-82)
-        cp[3799] = 0x61F4; // 懴 (56-83)
-        cp[3800] = 0x61FF; // 懿 (56-84)
-        cp[3801] = 0x61FD; // 懽 (56-85)
-        cp[3802] = 0x61FC; // 懼 (56-86)
-        cp[3803] = 0x61FE; // 懾 (56-87)
-        cp[3804] = 0x6200; // 戀 (56-88)
-        cp[3805] = 0x6208; // 戈 (56-89)
-        cp[3806] = 0x6209; // 戉 (56-90)
-        cp[3807] = 0x620D; // 戍 (56-91)
-        cp[3808] = 0x620C; // 戌 (56-92)
-        cp[3809] = 0x6214; // 戔 (56-93)
-        cp[3810] = 0x621B; // 戛 (56-94)
-        cp[3811] = 0x621E; // 戞 (57-01)
-        cp[3812] = 0x6221; // 戡 (57-02)
-        cp[3813] = 0x622A; // 截 (57-03)
-        cp[3814] = 0x622E; // 戮 (57-04)
-        cp[3815] = 0x6230; // 戰 (57-05)
-        cp[3816] = 0x6232; // 戲 (57-06)
-        cp[3817] = 0x6233; // 戳 (57-07)
-        cp[3818] = 0x6241; // 扁 (57-08)
-        cp[3819] = 0x624E; // 扎 (57-09)
-        cp[3820] = 0x625E; // 扞 (57-10)
-        cp[3821] = 0x6263; // 扣 (57-11)
-        cp[3822] = 0x625B; // 扛 (57-12)
-        cp[3823] = 0x6260; // 扠 (57-13)
-        cp[3824] = 0x6268; // 扨 (57-14)
-        cp[3825] = 0x627C; // 扼 (57-15)
-        cp[3826] = 0x6282; // 抂 (57-16)
-        cp[3827] = 0x6289; // 抉 (57-17)
-        cp[3828] = 0x627E; // 找 (57-18)
-        cp[3829] = 0x6292; // 抒 (57-19)
-        cp[3830] = 0x6293; // 抓 (57-20)
-        cp[3831] = 0x6296; // 抖 (57-21)
-        cp[3832] = 0x62D4; // 拔 (57-22)
-        cp[3833] = 0x6283; // 抃 (57-23)
-        cp[3834] = 0x6294; // 抔 (57-24)
-        cp[3835] = 0x62D7; // 拗 (57-25)
-        cp[3836] = 0x62D1; // 拑 (57-26)
-        cp[3837] = 0x62BB; // 抻 (57-27)
-        cp[3838] = 0x62CF; // 拏 (57-28)
-        cp[3839] = 0x62FF; // 拿 (57-29)
-        cp[3840] = 0x62C6; // 拆 (57-30)
-        cp[3841] = 0x64D4; // 擔 (57-31)
-        cp[3842] = 0x62C8; // 拈 (57-32)
-        cp[3843] = 0x62DC; // 拜 (57-33)
-        cp[3844] = 0x62CC; // 拌 (57-34)
-        cp[3845] = 0x62CA; // 拊 (57-35)
-        cp[3846] = 0x62C2; // 拂 (57-36)
-        cp[3847] = 0x62C7; // 拇 (57-37)
-        cp[3848] = 0x629B; // 抛 (57-38)
-        cp[3849] = 0x62C9; // 拉 (57-39)
-        cp[3850] = 0x630C; // 挌 (57-40)
-        cp[3851] = 0x62EE; // 拮 (57-41)
-        cp[3852] = 0x62F1; // 拱 (57-42)
-        cp[3853] = 0x6327; // 挧 (57-43)
-        cp[3854] = 0x6302; // 挂 (57-44)
-        cp[3855] = 0x6308; // 挈 (57-45)
-        cp[3856] = 0x62EF; // 拯 (57-46)
-        cp[3857] = 0x62F5; // 拵 (57-47)
-        cp[3858] = 0x6350; // 捐 (57-48)
-        cp[3859] = 0x633E; // 挾 (57-49)
-        cp[3860] = 0x634D; // 捍 (57-50)
-        cp[3861] = 0x641C; // 搜 (57-51)
-        cp[3862] = 0x634F; // 捏 (57-52)
-        cp[3863] = 0x6396; // 掖 (57-53)
-        cp[3864] = 0x638E; // 掎 (57-54)
-        cp[3865] = 0x6380; // 掀 (57-55)
-        cp[3866] = 0x63AB; // 掫 (57-56)
-        cp[3867] = 0x6376; // 捶 (57-57)
-        cp[3868] = 0x63A3; // 掣 (57-58)
-        cp[3869] = 0x638F; // 掏 (57-59)
-        cp[3870] = 0x6389; // 掉 (57-60)
-        cp[3871] = 0x639F; // 掟 (57-61)
-        cp[3872] = 0x63B5; // 掵 (57-62)
-        cp[3873] = 0x636B; // 捫 (57-63)
-        cp[3874] = 0x6369; // 捩 (57-64)
-        cp[3875] = 0x63BE; // 掾 (57-65)
-        cp[3876] = 0x63E9; // 揩 (57-66)
-        cp[3877] = 0x63C0; // 揀 (57-67)
-        cp[3878] = 0x63C6; // 揆 (57-68)
-        cp[3879] = 0x63E3; // 揣 (57-69)
-        cp[3880] = 0x63C9; // 揉 (57-70)
-        cp[3881] = 0x63D2; // 插 (57-71)
-        cp[3882] = 0x63F6; // 揶 (57-72)
-        cp[3883] = 0x63C4; // 揄 (57-73)
-        cp[3884] = 0x6416; // 搖 (57-74)
-        cp[3885] = 0x6434; // 搴 (57-75)
-        cp[3886] = 0x6406; // 搆 (57-76)
-        cp[3887] = 0x6413; // 搓 (57-77)
-        cp[3888] = 0x6426; // 搦 (57-78)
-        cp[3889] = 0x6436; // 搶 (57-79)
-        cp[3890] = 0x651D; // 攝 (57-80)
-        cp[3891] = 0x6417; // 搗 (57-81)
-        cp[3892] = 0x6428; // 搨 (57-82)
-        cp[3893] = 0x640F; // 搏 (57-83)
-        cp[3894] = 0x6467; // 摧 (57-84)
-        cp[3895] = 0x646F; // 摯 (57-85)
-        cp[3896] = 0x6476; // 摶 (57-86)
-        cp[3897] = 0x644E; // 摎 (57-87)
-        cp[3898] = 0x652A; // 攪 (57-88)
-        cp[3899] = 0x6495; // 撕 (57-89)
-        cp[3900] = 0x6493; // 撓 (57-90)
-        cp[3901] = 0x64A5; // 撥 (57-91)
-        cp[3902] = 0x64A9; // 撩 (57-92)
-        cp[3903] = 0x6488; // 撈 (57-93)
-        cp[3904] = 0x64BC; // 撼 (57-94)
-        cp[3905] = 0x64DA; // 據 (58-01)
-        cp[3906] = 0x64D2; // 擒 (58-02)
-        cp[3907] = 0x64C5; // 擅 (58-03)
-        cp[3908] = 0x64C7; // 擇 (58-04)
-        cp[3909] = 0x64BB; // 撻 (58-05)
-        cp[3910] = 0x64D8; // 擘 (58-06)
-        cp[3911] = 0x64C2; // 擂 (58-07)
-        cp[3912] = 0x64F1; // 擱 (58-08)
-        cp[3913] = 0x64E7; // 擧 (58-09)
-        cp[3914] = 0x8209; // 舉 (58-10)
-        cp[3915] = 0x64E0; // 擠 (58-11)
-        cp[3916] = 0x64E1; // 擡 (58-12)
-        cp[3917] = 0x62AC; // 抬 (58-13)
-        cp[3918] = 0x64E3; // 擣 (58-14)
-        cp[3919] = 0x64EF; // 擯 (58-15)
-        cp[3920] = 0x652C; // 攬 (58-16)
-        cp[3921] = 0x64F6; // 擶 (58-17)
-        cp[3922] = 0x64F4; // 擴 (58-18)
-        cp[3923] = 0x64F2; // 擲 (58-19)
-        cp[3924] = 0x64FA; // 擺 (58-20)
-        cp[3925] = 0x6500; // 攀 (58-21)
-        cp[3926] = 0x64FD; // 擽 (58-22)
-        cp[3927] = 0x6518; // 攘 (58-23)
-        cp[3928] = 0x651C; // 攜 (58-24)
-        cp[3929] = 0x6505; // 攅 (58-25)
-        cp[3930] = 0x6524; // 攤 (58-26)
-        cp[3931] = 0x6523; // 攣 (58-27)
-        cp[3932] = 0x652B; // 攫 (58-28)
-        cp[3933] = 0x6534; // 攴 (58-29)
-        cp[3934] = 0x6535; // 攵 (58-30)
-        cp[3935] = 0x6537; // 攷 (58-31)
-        cp[3936] = 0x6536; // 收 (58-32)
-        cp[3937] = 0x6538; // 攸 (58-33)
-        cp[3938] = 0x754B; // 畋 (58-34)
-        cp[3939] = 0x6548; // 效 (58-35)
-        cp[3940] = 0x6556; // 敖 (58-36)
-        cp[3941] = 0x6555; // 敕 (58-37)
-        cp[3942] = 0x654D; // 敍 (58-38)
-        cp[3943] = 0x6558; // 敘 (58-39)
-        cp[3944] = 0x655E; // 敞 (58-40)
-        cp[3945] = 0x655D; // 敝 (58-41)
-        cp[3946] = 0x6572; // 敲 (58-42)
-        cp[3947] = 0x6578; // 數 (58-43)
-        cp[3948] = 0x6582; // 斂 (58-44)
-        cp[3949] = 0x6583; // 斃 (58-45)
-        cp[3950] = 0x8B8A; // 變 (58-46)
-        cp[3951] = 0x659B; // 斛 (58-47)
-        cp[3952] = 0x659F; // 斟 (58-48)
-        cp[3953] = 0x65AB; // 斫 (58-49)
-        cp[3954] = 0x65B7; // 斷 (58-50)
-        cp[3955] = 0x65C3; // 旃 (58-51)
-        cp[3956] = 0x65C6; // 旆 (58-52)
-        cp[3957] = 0x65C1; // 旁 (58-53)
-        cp[3958] = 0x65C4; // 旄 (58-54)
-        cp[3959] = 0x65CC; // 旌 (58-55)
-        cp[3960] = 0x65D2; // 旒 (58-56)
-        cp[3961] = 0x65DB; // 旛 (58-57)
-        cp[3962] = 0x65D9; // 旙 (58-58)
-        cp[3963] = 0x65E0; // 无 (58-59)
-        cp[3964] = 0x65E1; // 旡 (58-60)
-        cp[3965] = 0x65F1; // 旱 (58-61)
-        cp[3966] = 0x6772; // 杲 (58-62)
-        cp[3967] = 0x660A; // 昊 (58-63)
-        cp[3968] = 0x6603; // 昃 (58-64)
-        cp[3969] = 0x65FB; // 旻 (58-65)
-        cp[3970] = 0x6773; // 杳 (58-66)
-        cp[3971] = 0x6635; // 昵 (58-67)
-        cp[3972] = 0x6636; // 昶 (58-68)
-        cp[3973] = 0x6634; // 昴 (58-69)
-        cp[3974] = 0x661C; // 昜 (58-70)
-        cp[3975] = 0x664F; // 晏 (58-71)
-        cp[3976] = 0x6644; // 晄 (58-72)
-        cp[3977] = 0x6649; // 晉 (58-73)
-        cp[3978] = 0x6641; // 晁 (58-74)
-        cp[3979] = 0x665E; // 晞 (58-75)
-        cp[3980] = 0x665D; // 晝 (58-76)
-        cp[3981] = 0x6664; // 晤 (58-77)
-        cp[3982] = 0x6667; // 晧 (58-78)
-        cp[3983] = 0x6668; // 晨 (58-79)
-        cp[3984] = 0x665F; // 晟 (58-80)
-        cp[3985] = 0x6662; // 晢 (58-81)
-        cp[3986] = 0x6670; // 晰 (58-82)
-        cp[3987] = 0x6683; // 暃 (58-83)
-        cp[3988] = 0x6688; // 暈 (58-84)
-        cp[3989] = 0x668E; // 暎 (58-85)
-        cp[3990] = 0x6689; // 暉 (58-86)
-        cp[3991] = 0x6684; // 暄 (58-87)
-        cp[3992] = 0x6698; // 暘 (58-88)
-        cp[3993] = 0x669D; // 暝 (58-89)
-        cp[3994] = 0x66C1; // 曁 (58-90)
-        cp[3995] = 0x66B9; // 暹 (58-91)
-        cp[3996] = 0x66C9; // 曉 (58-92)
-        cp[3997] = 0x66BE; // 暾 (58-93)
-        cp[3998] = 0x66BC; // 暼 (58-94)
-        cp[3999] = 0x66C4; // 曄 (59-01)
-        return t4(cp);
-    }
-
-    private static Integer[] t4(Integer[] cp) {
-        cp[4000] = 0x66B8; // 暸 (59-02)
-        cp[4001] = 0x66D6; // 曖 (59-03)
-        cp[4002] = 0x66DA; // 曚 (59-04)
-        cp[4003] = 0x66E0; // 曠 (59-05)
-        cp[4004] = 0x663F; // 昿 (59-06)
-        cp[4005] = 0x66E6; // 曦 (59-07)
-        cp[4006] = 0x66E9; // 曩 (59-08)
-        cp[4007] = 0x66F0; // 曰 (59-09)
-        cp[4008] = 0x66F5; // 曵 (59-10)
-        cp[4009] = 0x66F7; // 曷 (59-11)
-        cp[4010] = 0x670F; // 朏 (59-12)
-        cp[4011] = 0x6716; // 朖 (59-13)
-        cp[4012] = 0x671E; // 朞 (59-14)
-        cp[4013] = 0x6726; // 朦 (59-15)
-        cp[4014] = 0x6727; // 朧 (59-16)
-        cp[4015] = 0x9738; // 霸 (59-17)
-        cp[4016] = 0x672E; // 朮 (59-18)
-        cp[4017] = 0x673F; // 朿 (59-19)
-        cp[4018] = 0x6736; // 朶 (59-20)
-        cp[4019] = 0x6741; // 杁 (59-21)
-        cp[4020] = 0x6738; // 朸 (59-22)
-        cp[4021] = 0x6737; // 朷 (59-23)
-        cp[4022] = 0x6746; // 杆 (59-24)
-        cp[4023] = 0x675E; // 杞 (59-25)
-        cp[4024] = 0x6760; // 杠 (59-26)
-        cp[4025] = 0x6759; // 杙 (59-27)
-        cp[4026] = 0x6763; // 杣 (59-28)
-        cp[4027] = 0x6764; // 杤 (59-29)
-        cp[4028] = 0x6789; // 枉 (59-30)
-        cp[4029] = 0x6770; // 杰 (59-31)
-        cp[4030] = 0x67A9; // 枩 (59-32)
-        cp[4031] = 0x677C; // 杼 (59-33)
-        cp[4032] = 0x676A; // 杪 (59-34)
-        cp[4033] = 0x678C; // 枌 (59-35)
-        cp[4034] = 0x678B; // 枋 (59-36)
-        cp[4035] = 0x67A6; // 枦 (59-37)
-        cp[4036] = 0x67A1; // 枡 (59-38)
-        cp[4037] = 0x6785; // 枅 (59-39)
-        cp[4038] = 0x67B7; // 枷 (59-40)
-        cp[4039] = 0x67EF; // 柯 (59-41)
-        cp[4040] = 0x67B4; // 枴 (59-42)
-        cp[4041] = 0x67EC; // 柬 (59-43)
-        cp[4042] = 0x67B3; // 枳 (59-44)
-        cp[4043] = 0x67E9; // 柩 (59-45)
-        cp[4044] = 0x67B8; // 枸 (59-46)
-        cp[4045] = 0x67E4; // 柤 (59-47)
-        cp[4046] = 0x67DE; // 柞 (59-48)
-        cp[4047] = 0x67DD; // 柝 (59-49)
-        cp[4048] = 0x67E2; // 柢 (59-50)
-        cp[4049] = 0x67EE; // 柮 (59-51)
-        cp[4050] = 0x67B9; // 枹 (59-52)
-        cp[4051] = 0x67CE; // 柎 (59-53)
-        cp[4052] = 0x67C6; // 柆 (59-54)
-        cp[4053] = 0x67E7; // 柧 (59-55)
-        cp[4054] = 0x6A9C; // 檜 (59-56)
-        cp[4055] = 0x681E; // 栞 (59-57)
-        cp[4056] = 0x6846; // 框 (59-58)
-        cp[4057] = 0x6829; // 栩 (59-59)
-        cp[4058] = 0x6840; // 桀 (59-60)
-        cp[4059] = 0x684D; // 桍 (59-61)
-        cp[4060] = 0x6832; // 栲 (59-62)
-        cp[4061] = 0x684E; // 桎 (59-63)
-        cp[4062] = 0x68B3; // 梳 (59-64)
-        cp[4063] = 0x682B; // 栫 (59-65)
-        cp[4064] = 0x6859; // 桙 (59-66)
-        cp[4065] = 0x6863; // 档 (59-67)
-        cp[4066] = 0x6877; // 桷 (59-68)
-        cp[4067] = 0x687F; // 桿 (59-69)
-        cp[4068] = 0x689F; // 梟 (59-70)
-        cp[4069] = 0x688F; // 梏 (59-71)
-        cp[4070] = 0x68AD; // 梭 (59-72)
-        cp[4071] = 0x6894; // 梔 (59-73)
-        cp[4072] = 0x689D; // 條 (59-74)
-        cp[4073] = 0x689B; // 梛 (59-75)
-        cp[4074] = 0x6883; // 梃 (59-76)
-        cp[4075] = 0x6AAE; // 檮 (59-77)
-        cp[4076] = 0x68B9; // 梹 (59-78)
-        cp[4077] = 0x6874; // 桴 (59-79)
-        cp[4078] = 0x68B5; // 梵 (59-80)
-        cp[4079] = 0x68A0; // 梠 (59-81)
-        cp[4080] = 0x68BA; // 梺 (59-82)
-        cp[4081] = 0x690F; // 椏 (59-83)
-        cp[4082] = 0x688D; // 梍 (59-84)
-        cp[4083] = 0x687E; // 桾 (59-85)
-        cp[4084] = 0x6901; // 椁 (59-86)
-        cp[4085] = 0x68CA; // 棊 (59-87)
-        cp[4086] = 0x6908; // 椈 (59-88)
-        cp[4087] = 0x68D8; // 棘 (59-89)
-        cp[4088] = 0x6922; // 椢 (59-90)
-        cp[4089] = 0x6926; // 椦 (59-91)
-        cp[4090] = 0x68E1; // 棡 (59-92)
-        cp[4091] = 0x690C; // 椌 (59-93)
-        cp[4092] = 0x68CD; // 棍 (59-94)
-        cp[4093] = 0x68D4; // 棔 (60-01)
-        cp[4094] = 0x68E7; // 棧 (60-02)
-        cp[4095] = 0x68D5; // 棕 (60-03)
-        cp[4096] = 0x6936; // 椶 (60-04)
-        cp[4097] = 0x6912; // 椒 (60-05)
-        cp[4098] = 0x6904; // 椄 (60-06)
-        cp[4099] = 0x68D7; // 棗 (60-07)
-        cp[4100] = 0x68E3; // 棣 (60-08)
-        cp[4101] = 0x6925; // 椥 (60-09)
-        cp[4102] = 0x68F9; // 棹 (60-10)
-        cp[4103] = 0x68E0; // 棠 (60-11)
-        cp[4104] = 0x68EF; // 棯 (60-12)
-        cp[4105] = 0x6928; // 椨 (60-13)
-        cp[4106] = 0x692A; // 椪 (60-14)
-        cp[4107] = 0x691A; // 椚 (60-15)
-        cp[4108] = 0x6923; // 椣 (60-16)
-        cp[4109] = 0x6921; // 椡 (60-17)
-        cp[4110] = 0x68C6; // 棆 (60-18)
-        cp[4111] = 0x6979; // 楹 (60-19)
-        cp[4112] = 0x6977; // 楷 (60-20)
-        cp[4113] = 0x695C; // 楜 (60-21)
-        cp[4114] = 0x6978; // 楸 (60-22)
-        cp[4115] = 0x696B; // 楫 (60-23)
-        cp[4116] = 0x6954; // 楔 (60-24)
-        cp[4117] = 0x697E; // 楾 (60-25)
-        cp[4118] = 0x696E; // 楮 (60-26)
-        cp[4119] = 0x6939; // 椹 (60-27)
-        cp[4120] = 0x6974; // 楴 (60-28)
-        cp[4121] = 0x693D; // 椽 (60-29)
-        cp[4122] = 0x6959; // 楙 (60-30)
-        cp[4123] = 0x6930; // 椰 (60-31)
-        cp[4124] = 0x6961; // 楡 (60-32)
-        cp[4125] = 0x695E; // 楞 (60-33)
-        cp[4126] = 0x695D; // 楝 (60-34)
-        cp[4127] = 0x6981; // 榁 (60-35)
-        cp[4128] = 0x696A; // 楪 (60-36)
-        cp[4129] = 0x69B2; // 榲 (60-37)
-        cp[4130] = 0x69AE; // 榮 (60-38)
-        cp[4131] = 0x69D0; // 槐 (60-39)
-        cp[4132] = 0x69BF; // 榿 (60-40)
-        cp[4133] = 0x69C1; // 槁 (60-41)
-        cp[4134] = 0x69D3; // 槓 (60-42)
-        cp[4135] = 0x69BE; // 榾 (60-43)
-        cp[4136] = 0x69CE; // 槎 (60-44)
-        cp[4137] = 0x5BE8; // 寨 (60-45)
-        cp[4138] = 0x69CA; // 槊 (60-46)
-        cp[4139] = 0x69DD; // 槝 (60-47)
-        cp[4140] = 0x69BB; // 榻 (60-48)
-        cp[4141] = 0x69C3; // 槃 (60-49)
-        cp[4142] = 0x69A7; // 榧 (60-50)
-        cp[4143] = 0x6A2E; // 樮 (60-51)
-        cp[4144] = 0x6991; // 榑 (60-52)
-        cp[4145] = 0x69A0; // 榠 (60-53)
-        cp[4146] = 0x699C; // 榜 (60-54)
-        cp[4147] = 0x6995; // 榕 (60-55)
-        cp[4148] = 0x69B4; // 榴 (60-56)
-        cp[4149] = 0x69DE; // 槞 (60-57)
-        cp[4150] = 0x69E8; // 槨 (60-58)
-        cp[4151] = 0x6A02; // 樂 (60-59)
-        cp[4152] = 0x6A1B; // 樛 (60-60)
-        cp[4153] = 0x69FF; // 槿 (60-61)
-        cp[4154] = 0x6B0A; // 權 (60-62)
-        cp[4155] = 0x69F9; // 槹 (60-63)
-        cp[4156] = 0x69F2; // 槲 (60-64)
-        cp[4157] = 0x69E7; // 槧 (60-65)
-        cp[4158] = 0x6A05; // 樅 (60-66)
-        cp[4159] = 0x69B1; // 榱 (60-67)
-        cp[4160] = 0x6A1E; // 樞 (60-68)
-        cp[4161] = 0x69ED; // 槭 (60-69)
-        cp[4162] = 0x6A14; // 樔 (60-70)
-        cp[4163] = 0x69EB; // 槫 (60-71)
-        cp[4164] = 0x6A0A; // 樊 (60-72)
-        cp[4165] = 0x6A12; // 樒 (60-73)
-        cp[4166] = 0x6AC1; // 櫁 (60-74)
-        cp[4167] = 0x6A23; // 樣 (60-75)
-        cp[4168] = 0x6A13; // 樓 (60-76)
-        cp[4169] = 0x6A44; // 橄 (60-77)
-        cp[4170] = 0x6A0C; // 樌 (60-78)
-        cp[4171] = 0x6A72; // 橲 (60-79)
-        cp[4172] = 0x6A36; // 樶 (60-80)
-        cp[4173] = 0x6A78; // 橸 (60-81)
-        cp[4174] = 0x6A47; // 橇 (60-82)
-        cp[4175] = 0x6A62; // 橢 (60-83)
-        cp[4176] = 0x6A59; // 橙 (60-84)
-        cp[4177] = 0x6A66; // 橦 (60-85)
-        cp[4178] = 0x6A48; // 橈 (60-86)
-        cp[4179] = 0x6A38; // 樸 (60-87)
-        cp[4180] = 0x6A22; // 樢 (60-88)
-        cp[4181] = 0x6A90; // 檐 (60-89)
-        cp[4182] = 0x6A8D; // 檍 (60-90)
-        cp[4183] = 0x6AA0; // 檠 (60-91)
-        cp[4184] = 0x6A84; // 檄 (60-92)
-        cp[4185] = 0x6AA2; // 檢 (60-93)
-        cp[4186] = 0x6AA3; // 檣 (60-94)
-        cp[4187] = 0x6A97; // 檗 (61-01)
-        cp[4188] = 0x8617; // 蘗 (61-02)
-        cp[4189] = 0x6ABB; // 檻 (61-03)
-        cp[4190] = 0x6AC3; // 櫃 (61-04)
-        cp[4191] = 0x6AC2; // 櫂 (61-05)
-        cp[4192] = 0x6AB8; // 檸 (61-06)
-        cp[4193] = 0x6AB3; // 檳 (61-07)
-        cp[4194] = 0x6AAC; // 檬 (61-08)
-        cp[4195] = 0x6ADE; // 櫞 (61-09)
-        cp[4196] = 0x6AD1; // 櫑 (61-10)
-        cp[4197] = 0x6ADF; // 櫟 (61-11)
-        cp[4198] = 0x6AAA; // 檪 (61-12)
-        cp[4199] = 0x6ADA; // 櫚 (61-13)
-        cp[4200] = 0x6AEA; // 櫪 (61-14)
-        cp[4201] = 0x6AFB; // 櫻 (61-15)
-        cp[4202] = 0x6B05; // 欅 (61-16)
-        cp[4203] = 0x8616; // 蘖 (61-17)
-        cp[4204] = 0x6AFA; // 櫺 (61-18)
-        cp[4205] = 0x6B12; // 欒 (61-19)
-        cp[4206] = 0x6B16; // 欖 (61-20)
-        cp[4207] = 0x9B31; // 鬱 (61-21)
-        cp[4208] = 0x6B1F; // 欟 (61-22)
-        cp[4209] = 0x6B38; // 欸 (61-23)
-        cp[4210] = 0x6B37; // 欷 (61-24)
-        cp[4211] = 0x76DC; // 盜 (61-25)
-        cp[4212] = 0x6B39; // 欹 (61-26)
-        cp[4213] = 0x98EE; // 飮 (61-27)
-        cp[4214] = 0x6B47; // 歇 (61-28)
-        cp[4215] = 0x6B43; // 歃 (61-29)
-        cp[4216] = 0x6B49; // 歉 (61-30)
-        cp[4217] = 0x6B50; // 歐 (61-31)
-        cp[4218] = 0x6B59; // 歙 (61-32)
-        cp[4219] = 0x6B54; // 歔 (61-33)
-        cp[4220] = 0x6B5B; // 歛 (61-34)
-        cp[4221] = 0x6B5F; // 歟 (61-35)
-        cp[4222] = 0x6B61; // 歡 (61-36)
-        cp[4223] = 0x6B78; // 歸 (61-37)
-        cp[4224] = 0x6B79; // 歹 (61-38)
-        cp[4225] = 0x6B7F; // 歿 (61-39)
-        cp[4226] = 0x6B80; // 殀 (61-40)
-        cp[4227] = 0x6B84; // 殄 (61-41)
-        cp[4228] = 0x6B83; // 殃 (61-42)
-        cp[4229] = 0x6B8D; // 殍 (61-43)
-        cp[4230] = 0x6B98; // 殘 (61-44)
-        cp[4231] = 0x6B95; // 殕 (61-45)
-        cp[4232] = 0x6B9E; // 殞 (61-46)
-        cp[4233] = 0x6BA4; // 殤 (61-47)
-        cp[4234] = 0x6BAA; // 殪 (61-48)
-        cp[4235] = 0x6BAB; // 殫 (61-49)
-        cp[4236] = 0x6BAF; // 殯 (61-50)
-        cp[4237] = 0x6BB2; // 殲 (61-51)
-        cp[4238] = 0x6BB1; // 殱 (61-52)
-        cp[4239] = 0x6BB3; // 殳 (61-53)
-        cp[4240] = 0x6BB7; // 殷 (61-54)
-        cp[4241] = 0x6BBC; // 殼 (61-55)
-        cp[4242] = 0x6BC6; // 毆 (61-56)
-        cp[4243] = 0x6BCB; // 毋 (61-57)
-        cp[4244] = 0x6BD3; // 毓 (61-58)
-        cp[4245] = 0x6BDF; // 毟 (61-59)
-        cp[4246] = 0x6BEC; // 毬 (61-60)
-        cp[4247] = 0x6BEB; // 毫 (61-61)
-        cp[4248] = 0x6BF3; // 毳 (61-62)
-        cp[4249] = 0x6BEF; // 毯 (61-63)
-        cp[4250] = 0x9EBE; // 麾 (61-64)
-        cp[4251] = 0x6C08; // 氈 (61-65)
-        cp[4252] = 0x6C13; // 氓 (61-66)
-        cp[4253] = 0x6C14; // 气 (61-67)
-        cp[4254] = 0x6C1B; // 氛 (61-68)
-        cp[4255] = 0x6C24; // 氤 (61-69)
-        cp[4256] = 0x6C23; // 氣 (61-70)
-        cp[4257] = 0x6C5E; // 汞 (61-71)
-        cp[4258] = 0x6C55; // 汕 (61-72)
-        cp[4259] = 0x6C62; // 汢 (61-73)
-        cp[4260] = 0x6C6A; // 汪 (61-74)
-        cp[4261] = 0x6C82; // 沂 (61-75)
-        cp[4262] = 0x6C8D; // 沍 (61-76)
-        cp[4263] = 0x6C9A; // 沚 (61-77)
-        cp[4264] = 0x6C81; // 沁 (61-78)
-        cp[4265] = 0x6C9B; // 沛 (61-79)
-        cp[4266] = 0x6C7E; // 汾 (61-80)
-        cp[4267] = 0x6C68; // 汨 (61-81)
-        cp[4268] = 0x6C73; // 汳 (61-82)
-        cp[4269] = 0x6C92; // 沒 (61-83)
-        cp[4270] = 0x6C90; // 沐 (61-84)
-        cp[4271] = 0x6CC4; // 泄 (61-85)
-        cp[4272] = 0x6CF1; // 泱 (61-86)
-        cp[4273] = 0x6CD3; // 泓 (61-87)
-        cp[4274] = 0x6CBD; // 沽 (61-88)
-        cp[4275] = 0x6CD7; // 泗 (61-89)
-        cp[4276] = 0x6CC5; // 泅 (61-90)
-        cp[4277] = 0x6CDD; // 泝 (61-91)
-        cp[4278] = 0x6CAE; // 沮 (61-92)
-        cp[4279] = 0x6CB1; // 沱 (61-93)
-        cp[4280] = 0x6CBE; // 沾 (61-94)
-        cp[4281] = 0x6CBA; // 沺 (62-01)
-        cp[4282] = 0x6CDB; // 泛 (62-02)
-        cp[4283] = 0x6CEF; // 泯 (62-03)
-        cp[4284] = 0x6CD9; // 泙 (62-04)
-        cp[4285] = 0x6CEA; // 泪 (62-05)
-        cp[4286] = 0x6D1F; // 洟 (62-06)
-        cp[4287] = 0x884D; // 衍 (62-07)
-        cp[4288] = 0x6D36; // 洶 (62-08)
-        cp[4289] = 0x6D2B; // 洫 (62-09)
-        cp[4290] = 0x6D3D; // 洽 (62-10)
-        cp[4291] = 0x6D38; // 洸 (62-11)
-        cp[4292] = 0x6D19; // 洙 (62-12)
-        cp[4293] = 0x6D35; // 洵 (62-13)
-        cp[4294] = 0x6D33; // 洳 (62-14)
-        cp[4295] = 0x6D12; // 洒 (62-15)
-        cp[4296] = 0x6D0C; // 洌 (62-16)
-        cp[4297] = 0x6D63; // 浣 (62-17)
-        cp[4298] = 0x6D93; // 涓 (62-18)
-        cp[4299] = 0x6D64; // 浤 (62-19)
-        cp[4300] = 0x6D5A; // 浚 (62-20)
-        cp[4301] = 0x6D79; // 浹 (62-21)
-        cp[4302] = 0x6D59; // 浙 (62-22)
-        cp[4303] = 0x6D8E; // 涎 (62-23)
-        cp[4304] = 0x6D95; // 涕 (62-24)
-        cp[4305] = 0x6FE4; // 濤 (62-25)
-        cp[4306] = 0x6D85; // 涅 (62-26)
-        cp[4307] = 0x6DF9; // 淹 (62-27)
-        cp[4308] = 0x6E15; // 渕 (62-28)
-        cp[4309] = 0x6E0A; // 渊 (62-29)
-        cp[4310] = 0x6DB5; // 涵 (62-30)
-        cp[4311] = 0x6DC7; // 淇 (62-31)
-        cp[4312] = 0x6DE6; // 淦 (62-32)
-        cp[4313] = 0x6DB8; // 涸 (62-33)
-        cp[4314] = 0x6DC6; // 淆 (62-34)
-        cp[4315] = 0x6DEC; // 淬 (62-35)
-        cp[4316] = 0x6DDE; // 淞 (62-36)
-        cp[4317] = 0x6DCC; // 淌 (62-37)
-        cp[4318] = 0x6DE8; // 淨 (62-38)
-        cp[4319] = 0x6DD2; // 淒 (62-39)
-        cp[4320] = 0x6DC5; // 淅 (62-40)
-        cp[4321] = 0x6DFA; // 淺 (62-41)
-        cp[4322] = 0x6DD9; // 淙 (62-42)
-        cp[4323] = 0x6DE4; // 淤 (62-43)
-        cp[4324] = 0x6DD5; // 淕 (62-44)
-        cp[4325] = 0x6DEA; // 淪 (62-45)
-        cp[4326] = 0x6DEE; // 淮 (62-46)
-        cp[4327] = 0x6E2D; // 渭 (62-47)
-        cp[4328] = 0x6E6E; // 湮 (62-48)
-        cp[4329] = 0x6E2E; // 渮 (62-49)
-        cp[4330] = 0x6E19; // 渙 (62-50)
-        cp[4331] = 0x6E72; // 湲 (62-51)
-        cp[4332] = 0x6E5F; // 湟 (62-52)
-        cp[4333] = 0x6E3E; // 渾 (62-53)
-        cp[4334] = 0x6E23; // 渣 (62-54)
-        cp[4335] = 0x6E6B; // 湫 (62-55)
-        cp[4336] = 0x6E2B; // 渫 (62-56)
-        cp[4337] = 0x6E76; // 湶 (62-57)
-        cp[4338] = 0x6E4D; // 湍 (62-58)
-        cp[4339] = 0x6E1F; // 渟 (62-59)
-        cp[4340] = 0x6E43; // 湃 (62-60)
-        cp[4341] = 0x6E3A; // 渺 (62-61)
-        cp[4342] = 0x6E4E; // 湎 (62-62)
-        cp[4343] = 0x6E24; // 渤 (62-63)
-        cp[4344] = 0x6EFF; // 滿 (62-64)
-        cp[4345] = 0x6E1D; // 渝 (62-65)
-        cp[4346] = 0x6E38; // 游 (62-66)
-        cp[4347] = 0x6E82; // 溂 (62-67)
-        cp[4348] = 0x6EAA; // 溪 (62-68)
-        cp[4349] = 0x6E98; // 溘 (62-69)
-        cp[4350] = 0x6EC9; // 滉 (62-70)
-        cp[4351] = 0x6EB7; // 溷 (62-71)
-        cp[4352] = 0x6ED3; // 滓 (62-72)
-        cp[4353] = 0x6EBD; // 溽 (62-73)
-        cp[4354] = 0x6EAF; // 溯 (62-74)
-        cp[4355] = 0x6EC4; // 滄 (62-75)
-        cp[4356] = 0x6EB2; // 溲 (62-76)
-        cp[4357] = 0x6ED4; // 滔 (62-77)
-        cp[4358] = 0x6ED5; // 滕 (62-78)
-        cp[4359] = 0x6E8F; // 溏 (62-79)
-        cp[4360] = 0x6EA5; // 溥 (62-80)
-        cp[4361] = 0x6EC2; // 滂 (62-81)
-        cp[4362] = 0x6E9F; // 溟 (62-82)
-        cp[4363] = 0x6F41; // 潁 (62-83)
-        cp[4364] = 0x6F11; // 漑 (62-84)
-        cp[4365] = 0x704C; // 灌 (62-85)
-        cp[4366] = 0x6EEC; // 滬 (62-86)
-        cp[4367] = 0x6EF8; // 滸 (62-87)
-        cp[4368] = 0x6EFE; // 滾 (62-88)
-        cp[4369] = 0x6F3F; // 漿 (62-89)
-        cp[4370] = 0x6EF2; // 滲 (62-90)
-        cp[4371] = 0x6F31; // 漱 (62-91)
-        cp[4372] = 0x6EEF; // 滯 (62-92)
-        cp[4373] = 0x6F32; // 漲 (62-93)
-        cp[4374] = 0x6ECC; // 滌 (62-94)
-        cp[4375] = 0x6F3E; // 漾 (63-01)
-        cp[4376] = 0x6F13; // 漓 (63-02)
-        cp[4377] = 0x6EF7; // 滷 (63-03)
-        cp[4378] = 0x6F86; // 澆 (63-04)
-        cp[4379] = 0x6F7A; // 潺 (63-05)
-        cp[4380] = 0x6F78; // 潸 (63-06)
-        cp[4381] = 0x6F81; // 澁 (63-07)
-        cp[4382] = 0x6F80; // 澀 (63-08)
-        cp[4383] = 0x6F6F; // 潯 (63-09)
-        cp[4384] = 0x6F5B; // 潛 (63-10)
-        cp[4385] = 0x6FF3; // 濳 (63-11)
-        cp[4386] = 0x6F6D; // 潭 (63-12)
-        cp[4387] = 0x6F82; // 澂 (63-13)
-        cp[4388] = 0x6F7C; // 潼 (63-14)
-        cp[4389] = 0x6F58; // 潘 (63-15)
-        cp[4390] = 0x6F8E; // 澎 (63-16)
-        cp[4391] = 0x6F91; // 澑 (63-17)
-        cp[4392] = 0x6FC2; // 濂 (63-18)
-        cp[4393] = 0x6F66; // 潦 (63-19)
-        cp[4394] = 0x6FB3; // 澳 (63-20)
-        cp[4395] = 0x6FA3; // 澣 (63-21)
-        cp[4396] = 0x6FA1; // 澡 (63-22)
-        cp[4397] = 0x6FA4; // 澤 (63-23)
-        cp[4398] = 0x6FB9; // 澹 (63-24)
-        cp[4399] = 0x6FC6; // 濆 (63-25)
-        cp[4400] = 0x6FAA; // 澪 (63-26)
-        cp[4401] = 0x6FDF; // 濟 (63-27)
-        cp[4402] = 0x6FD5; // 濕 (63-28)
-        cp[4403] = 0x6FEC; // 濬 (63-29)
-        cp[4404] = 0x6FD4; // 濔 (63-30)
-        cp[4405] = 0x6FD8; // 濘 (63-31)
-        cp[4406] = 0x6FF1; // 濱 (63-32)
-        cp[4407] = 0x6FEE; // 濮 (63-33)
-        cp[4408] = 0x6FDB; // 濛 (63-34)
-        cp[4409] = 0x7009; // 瀉 (63-35)
-        cp[4410] = 0x700B; // 瀋 (63-36)
-        cp[4411] = 0x6FFA; // 濺 (63-37)
-        cp[4412] = 0x7011; // 瀑 (63-38)
-        cp[4413] = 0x7001; // 瀁 (63-39)
-        cp[4414] = 0x700F; // 瀏 (63-40)
-        cp[4415] = 0x6FFE; // 濾 (63-41)
-        cp[4416] = 0x701B; // 瀛 (63-42)
-        cp[4417] = 0x701A; // 瀚 (63-43)
-        cp[4418] = 0x6F74; // 潴 (63-44)
-        cp[4419] = 0x701D; // 瀝 (63-45)
-        cp[4420] = 0x7018; // 瀘 (63-46)
-        cp[4421] = 0x701F; // 瀟 (63-47)
-        cp[4422] = 0x7030; // 瀰 (63-48)
-        cp[4423] = 0x703E; // 瀾 (63-49)
-        cp[4424] = 0x7032; // 瀲 (63-50)
-        cp[4425] = 0x7051; // 灑 (63-51)
-        cp[4426] = 0x7063; // 灣 (63-52)
-        cp[4427] = 0x7099; // 炙 (63-53)
-        cp[4428] = 0x7092; // 炒 (63-54)
-        cp[4429] = 0x70AF; // 炯 (63-55)
-        cp[4430] = 0x70F1; // 烱 (63-56)
-        cp[4431] = 0x70AC; // 炬 (63-57)
-        cp[4432] = 0x70B8; // 炸 (63-58)
-        cp[4433] = 0x70B3; // 炳 (63-59)
-        cp[4434] = 0x70AE; // 炮 (63-60)
-        cp[4435] = 0x70DF; // 烟 (63-61)
-        cp[4436] = 0x70CB; // 烋 (63-62)
-        cp[4437] = 0x70DD; // 烝 (63-63)
-        cp[4438] = 0x70D9; // 烙 (63-64)
-        cp[4439] = 0x7109; // 焉 (63-65)
-        cp[4440] = 0x70FD; // 烽 (63-66)
-        cp[4441] = 0x711C; // 焜 (63-67)
-        cp[4442] = 0x7119; // 焙 (63-68)
-        cp[4443] = 0x7165; // 煥 (63-69)
-        cp[4444] = 0x7155; // 煕 (63-70)
-        cp[4445] = 0x7188; // 熈 (63-71)
-        cp[4446] = 0x7166; // 煦 (63-72)
-        cp[4447] = 0x7162; // 煢 (63-73)
-        cp[4448] = 0x714C; // 煌 (63-74)
-        cp[4449] = 0x7156; // 煖 (63-75)
-        cp[4450] = 0x716C; // 煬 (63-76)
-        cp[4451] = 0x718F; // 熏 (63-77)
-        cp[4452] = 0x71FB; // 燻 (63-78)
-        cp[4453] = 0x7184; // 熄 (63-79)
-        cp[4454] = 0x7195; // 熕 (63-80)
-        cp[4455] = 0x71A8; // 熨 (63-81)
-        cp[4456] = 0x71AC; // 熬 (63-82)
-        cp[4457] = 0x71D7; // 燗 (63-83)
-        cp[4458] = 0x71B9; // 熹 (63-84)
-        cp[4459] = 0x71BE; // 熾 (63-85)
-        cp[4460] = 0x71D2; // 燒 (63-86)
-        cp[4461] = 0x71C9; // 燉 (63-87)
-        cp[4462] = 0x71D4; // 燔 (63-88)
-        cp[4463] = 0x71CE; // 燎 (63-89)
-        cp[4464] = 0x71E0; // 燠 (63-90)
-        cp[4465] = 0x71EC; // 燬 (63-91)
-        cp[4466] = 0x71E7; // 燧 (63-92)
-        cp[4467] = 0x71F5; // 燵 (63-93)
-        cp[4468] = 0x71FC; // 燼 (63-94)
-        cp[4469] = 0x71F9; // 燹 (64-01)
-        cp[4470] = 0x71FF; // 燿 (64-02)
-        cp[4471] = 0x720D; // 爍 (64-03)
-        cp[4472] = 0x7210; // 爐 (64-04)
-        cp[4473] = 0x721B; // 爛 (64-05)
-        cp[4474] = 0x7228; // 爨 (64-06)
-        cp[4475] = 0x722D; // 爭 (64-07)
-        cp[4476] = 0x722C; // 爬 (64-08)
-        cp[4477] = 0x7230; // 爰 (64-09)
-        cp[4478] = 0x7232; // 爲 (64-10)
-        cp[4479] = 0x723B; // 爻 (64-11)
-        cp[4480] = 0x723C; // 爼 (64-12)
-        cp[4481] = 0x723F; // 爿 (64-13)
-        cp[4482] = 0x7240; // 牀 (64-14)
-        cp[4483] = 0x7246; // 牆 (64-15)
-        cp[4484] = 0x724B; // 牋 (64-16)
-        cp[4485] = 0x7258; // 牘 (64-17)
-        cp[4486] = 0x7274; // 牴 (64-18)
-        cp[4487] = 0x727E; // 牾 (64-19)
-        cp[4488] = 0x7282; // 犂 (64-20)
-        cp[4489] = 0x7281; // 犁 (64-21)
-        cp[4490] = 0x7287; // 犇 (64-22)
-        cp[4491] = 0x7292; // 犒 (64-23)
-        cp[4492] = 0x7296; // 犖 (64-24)
-        cp[4493] = 0x72A2; // 犢 (64-25)
-        cp[4494] = 0x72A7; // 犧 (64-26)
-        cp[4495] = 0x72B9; // 犹 (64-27)
-        cp[4496] = 0x72B2; // 犲 (64-28)
-        cp[4497] = 0x72C3; // 狃 (64-29)
-        cp[4498] = 0x72C6; // 狆 (64-30)
-        cp[4499] = 0x72C4; // 狄 (64-31)
-        cp[4500] = 0x72CE; // 狎 (64-32)
-        cp[4501] = 0x72D2; // 狒 (64-33)
-        cp[4502] = 0x72E2; // 狢 (64-34)
-        cp[4503] = 0x72E0; // 狠 (64-35)
-        cp[4504] = 0x72E1; // 狡 (64-36)
-        cp[4505] = 0x72F9; // 狹 (64-37)
-        cp[4506] = 0x72F7; // 狷 (64-38)
-        cp[4507] = 0x500F; // 倏 (64-39)
-        cp[4508] = 0x7317; // 猗 (64-40)
-        cp[4509] = 0x730A; // 猊 (64-41)
-        cp[4510] = 0x731C; // 猜 (64-42)
-        cp[4511] = 0x7316; // 猖 (64-43)
-        cp[4512] = 0x731D; // 猝 (64-44)
-        cp[4513] = 0x7334; // 猴 (64-45)
-        cp[4514] = 0x732F; // 猯 (64-46)
-        cp[4515] = 0x7329; // 猩 (64-47)
-        cp[4516] = 0x7325; // 猥 (64-48)
-        cp[4517] = 0x733E; // 猾 (64-49)
-        cp[4518] = 0x734E; // 獎 (64-50)
-        cp[4519] = 0x734F; // 獏 (64-51)
-        cp[4520] = 0x9ED8; // 默 (64-52)
-        cp[4521] = 0x7357; // 獗 (64-53)
-        cp[4522] = 0x736A; // 獪 (64-54)
-        cp[4523] = 0x7368; // 獨 (64-55)
-        cp[4524] = 0x7370; // 獰 (64-56)
-        cp[4525] = 0x7378; // 獸 (64-57)
-        cp[4526] = 0x7375; // 獵 (64-58)
-        cp[4527] = 0x737B; // 獻 (64-59)
-        cp[4528] = 0x737A; // 獺 (64-60)
-        cp[4529] = 0x73C8; // 珈 (64-61)
-        cp[4530] = 0x73B3; // 玳 (64-62)
-        cp[4531] = 0x73CE; // 珎 (64-63)
-        cp[4532] = 0x73BB; // 玻 (64-64)
-        cp[4533] = 0x73C0; // 珀 (64-65)
-        cp[4534] = 0x73E5; // 珥 (64-66)
-        cp[4535] = 0x73EE; // 珮 (64-67)
-        cp[4536] = 0x73DE; // 珞 (64-68)
-        cp[4537] = 0x74A2; // 璢 (64-69)
-        cp[4538] = 0x7405; // 琅 (64-70)
-        cp[4539] = 0x746F; // 瑯 (64-71)
-        cp[4540] = 0x7425; // 琥 (64-72)
-        cp[4541] = 0x73F8; // 珸 (64-73)
-        cp[4542] = 0x7432; // 琲 (64-74)
-        cp[4543] = 0x743A; // 琺 (64-75)
-        cp[4544] = 0x7455; // 瑕 (64-76)
-        cp[4545] = 0x743F; // 琿 (64-77)
-        cp[4546] = 0x745F; // 瑟 (64-78)
-        cp[4547] = 0x7459; // 瑙 (64-79)
-        cp[4548] = 0x7441; // 瑁 (64-80)
-        cp[4549] = 0x745C; // 瑜 (64-81)
-        cp[4550] = 0x7469; // 瑩 (64-82)
-        cp[4551] = 0x7470; // 瑰 (64-83)
-        cp[4552] = 0x7463; // 瑣 (64-84)
-        cp[4553] = 0x746A; // 瑪 (64-85)
-        cp[4554] = 0x7476; // 瑶 (64-86)
-        cp[4555] = 0x747E; // 瑾 (64-87)
-        cp[4556] = 0x748B; // 璋 (64-88)
-        cp[4557] = 0x749E; // 璞 (64-89)
-        cp[4558] = 0x74A7; // 璧 (64-90)
-        cp[4559] = 0x74CA; // 瓊 (64-91)
-        cp[4560] = 0x74CF; // 瓏 (64-92)
-        cp[4561] = 0x74D4; // 瓔 (64-93)
-        cp[4562] = 0x73F1; // 珱 (64-94)
-        cp[4563] = 0x74E0; // 瓠 (65-01)
-        cp[4564] = 0x74E3; // 瓣 (65-02)
-        cp[4565] = 0x74E7; // 瓧 (65-03)
-        cp[4566] = 0x74E9; // 瓩 (65-04)
-        cp[4567] = 0x74EE; // 瓮 (65-05)
-        cp[4568] = 0x74F2; // 瓲 (65-06)
-        cp[4569] = 0x74F0; // 瓰 (65-07)
-        cp[4570] = 0x74F1; // 瓱 (65-08)
-        cp[4571] = 0x74F8; // 瓸 (65-09)
-        cp[4572] = 0x74F7; // 瓷 (65-10)
-        cp[4573] = 0x7504; // 甄 (65-11)
-        cp[4574] = 0x7503; // 甃 (65-12)
-        cp[4575] = 0x7505; // 甅 (65-13)
-        cp[4576] = 0x750C; // 甌 (65-14)
-        cp[4577] = 0x750E; // 甎 (65-15)
-        cp[4578] = 0x750D; // 甍 (65-16)
-        cp[4579] = 0x7515; // 甕 (65-17)
-        cp[4580] = 0x7513; // 甓 (65-18)
-        cp[4581] = 0x751E; // 甞 (65-19)
-        cp[4582] = 0x7526; // 甦 (65-20)
-        cp[4583] = 0x752C; // 甬 (65-21)
-        cp[4584] = 0x753C; // 甼 (65-22)
-        cp[4585] = 0x7544; // 畄 (65-23)
-        cp[4586] = 0x754D; // 畍 (65-24)
-        cp[4587] = 0x754A; // 畊 (65-25)
-        cp[4588] = 0x7549; // 畉 (65-26)
-        cp[4589] = 0x755B; // 畛 (65-27)
-        cp[4590] = 0x7546; // 畆 (65-28)
-        cp[4591] = 0x755A; // 畚 (65-29)
-        cp[4592] = 0x7569; // 畩 (65-30)
-        cp[4593] = 0x7564; // 畤 (65-31)
-        cp[4594] = 0x7567; // 畧 (65-32)
-        cp[4595] = 0x756B; // 畫 (65-33)
-        cp[4596] = 0x756D; // 畭 (65-34)
-        cp[4597] = 0x7578; // 畸 (65-35)
-        cp[4598] = 0x7576; // 當 (65-36)
-        cp[4599] = 0x7586; // 疆 (65-37)
-        cp[4600] = 0x7587; // 疇 (65-38)
-        cp[4601] = 0x7574; // 畴 (65-39)
-        cp[4602] = 0x758A; // 疊 (65-40)
-        cp[4603] = 0x7589; // 疉 (65-41)
-        cp[4604] = 0x7582; // 疂 (65-42)
-        cp[4605] = 0x7594; // 疔 (65-43)
-        cp[4606] = 0x759A; // 疚 (65-44)
-        cp[4607] = 0x759D; // 疝 (65-45)
-        cp[4608] = 0x75A5; // 疥 (65-46)
-        cp[4609] = 0x75A3; // 疣 (65-47)
-        cp[4610] = 0x75C2; // 痂 (65-48)
-        cp[4611] = 0x75B3; // 疳 (65-49)
-        cp[4612] = 0x75C3; // 痃 (65-50)
-        cp[4613] = 0x75B5; // 疵 (65-51)
-        cp[4614] = 0x75BD; // 疽 (65-52)
-        cp[4615] = 0x75B8; // 疸 (65-53)
-        cp[4616] = 0x75BC; // 疼 (65-54)
-        cp[4617] = 0x75B1; // 疱 (65-55)
-        cp[4618] = 0x75CD; // 痍 (65-56)
-        cp[4619] = 0x75CA; // 痊 (65-57)
-        cp[4620] = 0x75D2; // 痒 (65-58)
-        cp[4621] = 0x75D9; // 痙 (65-59)
-        cp[4622] = 0x75E3; // 痣 (65-60)
-        cp[4623] = 0x75DE; // 痞 (65-61)
-        cp[4624] = 0x75FE; // 痾 (65-62)
-        cp[4625] = 0x75FF; // 痿 (65-63)
-        cp[4626] = 0x75FC; // 痼 (65-64)
-        cp[4627] = 0x7601; // 瘁 (65-65)
-        cp[4628] = 0x75F0; // 痰 (65-66)
-        cp[4629] = 0x75FA; // 痺 (65-67)
-        cp[4630] = 0x75F2; // 痲 (65-68)
-        cp[4631] = 0x75F3; // 痳 (65-69)
-        cp[4632] = 0x760B; // 瘋 (65-70)
-        cp[4633] = 0x760D; // 瘍 (65-71)
-        cp[4634] = 0x7609; // 瘉 (65-72)
-        cp[4635] = 0x761F; // 瘟 (65-73)
-        cp[4636] = 0x7627; // 瘧 (65-74)
-        cp[4637] = 0x7620; // 瘠 (65-75)
-        cp[4638] = 0x7621; // 瘡 (65-76)
-        cp[4639] = 0x7622; // 瘢 (65-77)
-        cp[4640] = 0x7624; // 瘤 (65-78)
-        cp[4641] = 0x7634; // 瘴 (65-79)
-        cp[4642] = 0x7630; // 瘰 (65-80)
-        cp[4643] = 0x763B; // 瘻 (65-81)
-        cp[4644] = 0x7647; // 癇 (65-82)
-        cp[4645] = 0x7648; // 癈 (65-83)
-        cp[4646] = 0x7646; // 癆 (65-84)
-        cp[4647] = 0x765C; // 癜 (65-85)
-        cp[4648] = 0x7658; // 癘 (65-86)
-        cp[4649] = 0x7661; // 癡 (65-87)
-        cp[4650] = 0x7662; // 癢 (65-88)
-        cp[4651] = 0x7668; // 癨 (65-89)
-        cp[4652] = 0x7669; // 癩 (65-90)
-        cp[4653] = 0x766A; // 癪 (65-91)
-        cp[4654] = 0x7667; // 癧 (65-92)
-        cp[4655] = 0x766C; // 癬 (65-93)
-        cp[4656] = 0x7670; // 癰 (65-94)
-        cp[4657] = 0x7672; // 癲 (66-01)
-        cp[4658] = 0x7676; // 癶 (66-02)
-        cp[4659] = 0x7678; // 癸 (66-03)
-        cp[4660] = 0x767C; // 發 (66-04)
-        cp[4661] = 0x7680; // 皀 (66-05)
-        cp[4662] = 0x7683; // 皃 (66-06)
-        cp[4663] = 0x7688; // 皈 (66-07)
-        cp[4664] = 0x768B; // 皋 (66-08)
-        cp[4665] = 0x768E; // 皎 (66-09)
-        cp[4666] = 0x7696; // 皖 (66-10)
-        cp[4667] = 0x7693; // 皓 (66-11)
-        cp[4668] = 0x7699; // 皙 (66-12)
-        cp[4669] = 0x769A; // 皚 (66-13)
-        cp[4670] = 0x76B0; // 皰 (66-14)
-        cp[4671] = 0x76B4; // 皴 (66-15)
-        cp[4672] = 0x76B8; // 皸 (66-16)
-        cp[4673] = 0x76B9; // 皹 (66-17)
-        cp[4674] = 0x76BA; // 皺 (66-18)
-        cp[4675] = 0x76C2; // 盂 (66-19)
-        cp[4676] = 0x76CD; // 盍 (66-20)
-        cp[4677] = 0x76D6; // 盖 (66-21)
-        cp[4678] = 0x76D2; // 盒 (66-22)
-        cp[4679] = 0x76DE; // 盞 (66-23)
-        cp[4680] = 0x76E1; // 盡 (66-24)
-        cp[4681] = 0x76E5; // 盥 (66-25)
-        cp[4682] = 0x76E7; // 盧 (66-26)
-        cp[4683] = 0x76EA; // 盪 (66-27)
-        cp[4684] = 0x862F; // 蘯 (66-28)
-        cp[4685] = 0x76FB; // 盻 (66-29)
-        cp[4686] = 0x7708; // 眈 (66-30)
-        cp[4687] = 0x7707; // 眇 (66-31)
-        cp[4688] = 0x7704; // 眄 (66-32)
-        cp[4689] = 0x7729; // 眩 (66-33)
-        cp[4690] = 0x7724; // 眤 (66-34)
-        cp[4691] = 0x771E; // 眞 (66-35)
-        cp[4692] = 0x7725; // 眥 (66-36)
-        cp[4693] = 0x7726; // 眦 (66-37)
-        cp[4694] = 0x771B; // 眛 (66-38)
-        cp[4695] = 0x7737; // 眷 (66-39)
-        cp[4696] = 0x7738; // 眸 (66-40)
-        cp[4697] = 0x7747; // 睇 (66-41)
-        cp[4698] = 0x775A; // 睚 (66-42)
-        cp[4699] = 0x7768; // 睨 (66-43)
-        cp[4700] = 0x776B; // 睫 (66-44)
-        cp[4701] = 0x775B; // 睛 (66-45)
-        cp[4702] = 0x7765; // 睥 (66-46)
-        cp[4703] = 0x777F; // 睿 (66-47)
-        cp[4704] = 0x777E; // 睾 (66-48)
-        cp[4705] = 0x7779; // 睹 (66-49)
-        cp[4706] = 0x778E; // 瞎 (66-50)
-        cp[4707] = 0x778B; // 瞋 (66-51)
-        cp[4708] = 0x7791; // 瞑 (66-52)
-        cp[4709] = 0x77A0; // 瞠 (66-53)
-        cp[4710] = 0x779E; // 瞞 (66-54)
-        cp[4711] = 0x77B0; // 瞰 (66-55)
-        cp[4712] = 0x77B6; // 瞶 (66-56)
-        cp[4713] = 0x77B9; // 瞹 (66-57)
-        cp[4714] = 0x77BF; // 瞿 (66-58)
-        cp[4715] = 0x77BC; // 瞼 (66-59)
-        cp[4716] = 0x77BD; // 瞽 (66-60)
-        cp[4717] = 0x77BB; // 瞻 (66-61)
-        cp[4718] = 0x77C7; // 矇 (66-62)
-        cp[4719] = 0x77CD; // 矍 (66-63)
-        cp[4720] = 0x77D7; // 矗 (66-64)
-        cp[4721] = 0x77DA; // 矚 (66-65)
-        cp[4722] = 0x77DC; // 矜 (66-66)
-        cp[4723] = 0x77E3; // 矣 (66-67)
-        cp[4724] = 0x77EE; // 矮 (66-68)
-        cp[4725] = 0x77FC; // 矼 (66-69)
-        cp[4726] = 0x780C; // 砌 (66-70)
-        cp[4727] = 0x7812; // 砒 (66-71)
-        cp[4728] = 0x7926; // 礦 (66-72)
-        cp[4729] = 0x7820; // 砠 (66-73)
-        cp[4730] = 0x792A; // 礪 (66-74)
-        cp[4731] = 0x7845; // 硅 (66-75)
-        cp[4732] = 0x788E; // 碎 (66-76)
-        cp[4733] = 0x7874; // 硴 (66-77)
-        cp[4734] = 0x7886; // 碆 (66-78)
-        cp[4735] = 0x787C; // 硼 (66-79)
-        cp[4736] = 0x789A; // 碚 (66-80)
-        cp[4737] = 0x788C; // 碌 (66-81)
-        cp[4738] = 0x78A3; // 碣 (66-82)
-        cp[4739] = 0x78B5; // 碵 (66-83)
-        cp[4740] = 0x78AA; // 碪 (66-84)
-        cp[4741] = 0x78AF; // 碯 (66-85)
-        cp[4742] = 0x78D1; // 磑 (66-86)
-        cp[4743] = 0x78C6; // 磆 (66-87)
-        cp[4744] = 0x78CB; // 磋 (66-88)
-        cp[4745] = 0x78D4; // 磔 (66-89)
-        cp[4746] = 0x78BE; // 碾 (66-90)
-        cp[4747] = 0x78BC; // 碼 (66-91)
-        cp[4748] = 0x78C5; // 磅 (66-92)
-        cp[4749] = 0x78CA; // 磊 (66-93)
-        cp[4750] = 0x78EC; // 磬 (66-94)
-        cp[4751] = 0x78E7; // 磧 (67-01)
-        cp[4752] = 0x78DA; // 磚 (67-02)
-        cp[4753] = 0x78FD; // 磽 (67-03)
-        cp[4754] = 0x78F4; // 磴 (67-04)
-        cp[4755] = 0x7907; // 礇 (67-05)
-        cp[4756] = 0x7912; // 礒 (67-06)
-        cp[4757] = 0x7911; // 礑 (67-07)
-        cp[4758] = 0x7919; // 礙 (67-08)
-        cp[4759] = 0x792C; // 礬 (67-09)
-        cp[4760] = 0x792B; // 礫 (67-10)
-        cp[4761] = 0x7940; // 祀 (67-11)
-        cp[4762] = 0x7960; // 祠 (67-12)
-        cp[4763] = 0x7957; // 祗 (67-13)
-        cp[4764] = 0x795F; // 祟 (67-14)
-        cp[4765] = 0x795A; // 祚 (67-15)
-        cp[4766] = 0x7955; // 祕 (67-16)
-        cp[4767] = 0x7953; // 祓 (67-17)
-        cp[4768] = 0x797A; // 祺 (67-18)
-        cp[4769] = 0x797F; // 祿 (67-19)
-        cp[4770] = 0x798A; // 禊 (67-20)
-        cp[4771] = 0x799D; // 禝 (67-21)
-        cp[4772] = 0x79A7; // 禧 (67-22)
-        cp[4773] = 0x9F4B; // 齋 (67-23)
-        cp[4774] = 0x79AA; // 禪 (67-24)
-        cp[4775] = 0x79AE; // 禮 (67-25)
-        cp[4776] = 0x79B3; // 禳 (67-26)
-        cp[4777] = 0x79B9; // 禹 (67-27)
-        cp[4778] = 0x79BA; // 禺 (67-28)
-        cp[4779] = 0x79C9; // 秉 (67-29)
-        cp[4780] = 0x79D5; // 秕 (67-30)
-        cp[4781] = 0x79E7; // 秧 (67-31)
-        cp[4782] = 0x79EC; // 秬 (67-32)
-        cp[4783] = 0x79E1; // 秡 (67-33)
-        cp[4784] = 0x79E3; // 秣 (67-34)
-        cp[4785] = 0x7A08; // 稈 (67-35)
-        cp[4786] = 0x7A0D; // 稍 (67-36)
-        cp[4787] = 0x7A18; // 稘 (67-37)
-        cp[4788] = 0x7A19; // 稙 (67-38)
-        cp[4789] = 0x7A20; // 稠 (67-39)
-        cp[4790] = 0x7A1F; // 稟 (67-40)
-        cp[4791] = 0x7980; // 禀 (67-41)
-        cp[4792] = 0x7A31; // 稱 (67-42)
-        cp[4793] = 0x7A3B; // 稻 (67-43)
-        cp[4794] = 0x7A3E; // 稾 (67-44)
-        cp[4795] = 0x7A37; // 稷 (67-45)
-        cp[4796] = 0x7A43; // 穃 (67-46)
-        cp[4797] = 0x7A57; // 穗 (67-47)
-        cp[4798] = 0x7A49; // 穉 (67-48)
-        cp[4799] = 0x7A61; // 穡 (67-49)
-        cp[4800] = 0x7A62; // 穢 (67-50)
-        cp[4801] = 0x7A69; // 穩 (67-51)
-        cp[4802] = 0x9F9D; // 龝 (67-52)
-        cp[4803] = 0x7A70; // 穰 (67-53)
-        cp[4804] = 0x7A79; // 穹 (67-54)
-        cp[4805] = 0x7A7D; // 穽 (67-55)
-        cp[4806] = 0x7A88; // 窈 (67-56)
-        cp[4807] = 0x7A97; // 窗 (67-57)
-        cp[4808] = 0x7A95; // 窕 (67-58)
-        cp[4809] = 0x7A98; // 窘 (67-59)
-        cp[4810] = 0x7A96; // 窖 (67-60)
-        cp[4811] = 0x7AA9; // 窩 (67-61)
-        cp[4812] = 0x7AC8; // 竈 (67-62)
-        cp[4813] = 0x7AB0; // 窰 (67-63)
-        cp[4814] = 0x7AB6; // 窶 (67-64)
-        cp[4815] = 0x7AC5; // 竅 (67-65)
-        cp[4816] = 0x7AC4; // 竄 (67-66)
-        cp[4817] = 0x7ABF; // 窿 (67-67)
-        cp[4818] = 0x9083; // 邃 (67-68)
-        cp[4819] = 0x7AC7; // 竇 (67-69)
-        cp[4820] = 0x7ACA; // 竊 (67-70)
-        cp[4821] = 0x7ACD; // 竍 (67-71)
-        cp[4822] = 0x7ACF; // 竏 (67-72)
-        cp[4823] = 0x7AD5; // 竕 (67-73)
-        cp[4824] = 0x7AD3; // 竓 (67-74)
-        cp[4825] = 0x7AD9; // 站 (67-75)
-        cp[4826] = 0x7ADA; // 竚 (67-76)
-        cp[4827] = 0x7ADD; // 竝 (67-77)
-        cp[4828] = 0x7AE1; // 竡 (67-78)
-        cp[4829] = 0x7AE2; // 竢 (67-79)
-        cp[4830] = 0x7AE6; // 竦 (67-80)
-        cp[4831] = 0x7AED; // 竭 (67-81)
-        cp[4832] = 0x7AF0; // 竰 (67-82)
-        cp[4833] = 0x7B02; // 笂 (67-83)
-        cp[4834] = 0x7B0F; // 笏 (67-84)
-        cp[4835] = 0x7B0A; // 笊 (67-85)
-        cp[4836] = 0x7B06; // 笆 (67-86)
-        cp[4837] = 0x7B33; // 笳 (67-87)
-        cp[4838] = 0x7B18; // 笘 (67-88)
-        cp[4839] = 0x7B19; // 笙 (67-89)
-        cp[4840] = 0x7B1E; // 笞 (67-90)
-        cp[4841] = 0x7B35; // 笵 (67-91)
-        cp[4842] = 0x7B28; // 笨 (67-92)
-        cp[4843] = 0x7B36; // 笶 (67-93)
-        cp[4844] = 0x7B50; // 筐 (67-94)
-        cp[4845] = 0x7B7A; // 筺 (68-01)
-        cp[4846] = 0x7B04; // 笄 (68-02)
-        cp[4847] = 0x7B4D; // 筍 (68-03)
-        cp[4848] = 0x7B0B; // 笋 (68-04)
-        cp[4849] = 0x7B4C; // 筌 (68-05)
-        cp[4850] = 0x7B45; // 筅 (68-06)
-        cp[4851] = 0x7B75; // 筵 (68-07)
-        cp[4852] = 0x7B65; // 筥 (68-08)
-        cp[4853] = 0x7B74; // 筴 (68-09)
-        cp[4854] = 0x7B67; // 筧 (68-10)
-        cp[4855] = 0x7B70; // 筰 (68-11)
-        cp[4856] = 0x7B71; // 筱 (68-12)
-        cp[4857] = 0x7B6C; // 筬 (68-13)
-        cp[4858] = 0x7B6E; // 筮 (68-14)
-        cp[4859] = 0x7B9D; // 箝 (68-15)
-        cp[4860] = 0x7B98; // 箘 (68-16)
-        cp[4861] = 0x7B9F; // 箟 (68-17)
-        cp[4862] = 0x7B8D; // 箍 (68-18)
-        cp[4863] = 0x7B9C; // 箜 (68-19)
-        cp[4864] = 0x7B9A; // 箚 (68-20)
-        cp[4865] = 0x7B8B; // 箋 (68-21)
-        cp[4866] = 0x7B92; // 箒 (68-22)
-        cp[4867] = 0x7B8F; // 箏 (68-23)
-        cp[4868] = 0x7B5D; // 筝 (68-24)
-        cp[4869] = 0x7B99; // 箙 (68-25)
-        cp[4870] = 0x7BCB; // 篋 (68-26)
-        cp[4871] = 0x7BC1; // 篁 (68-27)
-        cp[4872] = 0x7BCC; // 篌 (68-28)
-        cp[4873] = 0x7BCF; // 篏 (68-29)
-        cp[4874] = 0x7BB4; // 箴 (68-30)
-        cp[4875] = 0x7BC6; // 篆 (68-31)
-        cp[4876] = 0x7BDD; // 篝 (68-32)
-        cp[4877] = 0x7BE9; // 篩 (68-33)
-        cp[4878] = 0x7C11; // 簑 (68-34)
-        cp[4879] = 0x7C14; // 簔 (68-35)
-        cp[4880] = 0x7BE6; // 篦 (68-36)
-        cp[4881] = 0x7BE5; // 篥 (68-37)
-        cp[4882] = 0x7C60; // 籠 (68-38)
-        cp[4883] = 0x7C00; // 簀 (68-39)
-        cp[4884] = 0x7C07; // 簇 (68-40)
-        cp[4885] = 0x7C13; // 簓 (68-41)
-        cp[4886] = 0x7BF3; // 篳 (68-42)
-        cp[4887] = 0x7BF7; // 篷 (68-43)
-        cp[4888] = 0x7C17; // 簗 (68-44)
-        cp[4889] = 0x7C0D; // 簍 (68-45)
-        cp[4890] = 0x7BF6; // 篶 (68-46)
-        cp[4891] = 0x7C23; // 簣 (68-47)
-        cp[4892] = 0x7C27; // 簧 (68-48)
-        cp[4893] = 0x7C2A; // 簪 (68-49)
-        cp[4894] = 0x7C1F; // 簟 (68-50)
-        cp[4895] = 0x7C37; // 簷 (68-51)
-        cp[4896] = 0x7C2B; // 簫 (68-52)
-        cp[4897] = 0x7C3D; // 簽 (68-53)
-        cp[4898] = 0x7C4C; // 籌 (68-54)
-        cp[4899] = 0x7C43; // 籃 (68-55)
-        cp[4900] = 0x7C54; // 籔 (68-56)
-        cp[4901] = 0x7C4F; // 籏 (68-57)
-        cp[4902] = 0x7C40; // 籀 (68-58)
-        cp[4903] = 0x7C50; // 籐 (68-59)
-        cp[4904] = 0x7C58; // 籘 (68-60)
-        cp[4905] = 0x7C5F; // 籟 (68-61)
-        cp[4906] = 0x7C64; // 籤 (68-62)
-        cp[4907] = 0x7C56; // 籖 (68-63)
-        cp[4908] = 0x7C65; // 籥 (68-64)
-        cp[4909] = 0x7C6C; // 籬 (68-65)
-        cp[4910] = 0x7C75; // 籵 (68-66)
-        cp[4911] = 0x7C83; // 粃 (68-67)
-        cp[4912] = 0x7C90; // 粐 (68-68)
-        cp[4913] = 0x7CA4; // 粤 (68-69)
-        cp[4914] = 0x7CAD; // 粭 (68-70)
-        cp[4915] = 0x7CA2; // 粢 (68-71)
-        cp[4916] = 0x7CAB; // 粫 (68-72)
-        cp[4917] = 0x7CA1; // 粡 (68-73)
-        cp[4918] = 0x7CA8; // 粨 (68-74)
-        cp[4919] = 0x7CB3; // 粳 (68-75)
-        cp[4920] = 0x7CB2; // 粲 (68-76)
-        cp[4921] = 0x7CB1; // 粱 (68-77)
-        cp[4922] = 0x7CAE; // 粮 (68-78)
-        cp[4923] = 0x7CB9; // 粹 (68-79)
-        cp[4924] = 0x7CBD; // 粽 (68-80)
-        cp[4925] = 0x7CC0; // 糀 (68-81)
-        cp[4926] = 0x7CC5; // 糅 (68-82)
-        cp[4927] = 0x7CC2; // 糂 (68-83)
-        cp[4928] = 0x7CD8; // 糘 (68-84)
-        cp[4929] = 0x7CD2; // 糒 (68-85)
-        cp[4930] = 0x7CDC; // 糜 (68-86)
-        cp[4931] = 0x7CE2; // 糢 (68-87)
-        cp[4932] = 0x9B3B; // 鬻 (68-88)
-        cp[4933] = 0x7CEF; // 糯 (68-89)
-        cp[4934] = 0x7CF2; // 糲 (68-90)
-        cp[4935] = 0x7CF4; // 糴 (68-91)
-        cp[4936] = 0x7CF6; // 糶 (68-92)
-        cp[4937] = 0x7CFA; // 糺 (68-93)
-        cp[4938] = 0x7D06; // 紆 (68-94)
-        cp[4939] = 0x7D02; // 紂 (69-01)
-        cp[4940] = 0x7D1C; // 紜 (69-02)
-        cp[4941] = 0x7D15; // 紕 (69-03)
-        cp[4942] = 0x7D0A; // 紊 (69-04)
-        cp[4943] = 0x7D45; // 絅 (69-05)
-        cp[4944] = 0x7D4B; // 絋 (69-06)
-        cp[4945] = 0x7D2E; // 紮 (69-07)
-        cp[4946] = 0x7D32; // 紲 (69-08)
-        cp[4947] = 0x7D3F; // 紿 (69-09)
-        cp[4948] = 0x7D35; // 紵 (69-10)
-        cp[4949] = 0x7D46; // 絆 (69-11)
-        cp[4950] = 0x7D73; // 絳 (69-12)
-        cp[4951] = 0x7D56; // 絖 (69-13)
-        cp[4952] = 0x7D4E; // 絎 (69-14)
-        cp[4953] = 0x7D72; // 絲 (69-15)
-        cp[4954] = 0x7D68; // 絨 (69-16)
-        cp[4955] = 0x7D6E; // 絮 (69-17)
-        cp[4956] = 0x7D4F; // 絏 (69-18)
-        cp[4957] = 0x7D63; // 絣 (69-19)
-        cp[4958] = 0x7D93; // 經 (69-20)
-        cp[4959] = 0x7D89; // 綉 (69-21)
-        cp[4960] = 0x7D5B; // 絛 (69-22)
-        cp[4961] = 0x7D8F; // 綏 (69-23)
-        cp[4962] = 0x7D7D; // 絽 (69-24)
-        cp[4963] = 0x7D9B; // 綛 (69-25)
-        cp[4964] = 0x7DBA; // 綺 (69-26)
-        cp[4965] = 0x7DAE; // 綮 (69-27)
-        cp[4966] = 0x7DA3; // 綣 (69-28)
-        cp[4967] = 0x7DB5; // 綵 (69-29)
-        cp[4968] = 0x7DC7; // 緇 (69-30)
-        cp[4969] = 0x7DBD; // 綽 (69-31)
-        cp[4970] = 0x7DAB; // 綫 (69-32)
-        cp[4971] = 0x7E3D; // 總 (69-33)
-        cp[4972] = 0x7DA2; // 綢 (69-34)
-        cp[4973] = 0x7DAF; // 綯 (69-35)
-        cp[4974] = 0x7DDC; // 緜 (69-36)
-        cp[4975] = 0x7DB8; // 綸 (69-37)
-        cp[4976] = 0x7D9F; // 綟 (69-38)
-        cp[4977] = 0x7DB0; // 綰 (69-39)
-        cp[4978] = 0x7DD8; // 緘 (69-40)
-        cp[4979] = 0x7DDD; // 緝 (69-41)
-        cp[4980] = 0x7DE4; // 緤 (69-42)
-        cp[4981] = 0x7DDE; // 緞 (69-43)
-        cp[4982] = 0x7DFB; // 緻 (69-44)
-        cp[4983] = 0x7DF2; // 緲 (69-45)
-        cp[4984] = 0x7DE1; // 緡 (69-46)
-        cp[4985] = 0x7E05; // 縅 (69-47)
-        cp[4986] = 0x7E0A; // 縊 (69-48)
-        cp[4987] = 0x7E23; // 縣 (69-49)
-        cp[4988] = 0x7E21; // 縡 (69-50)
-        cp[4989] = 0x7E12; // 縒 (69-51)
-        cp[4990] = 0x7E31; // 縱 (69-52)
-        cp[4991] = 0x7E1F; // 縟 (69-53)
-        cp[4992] = 0x7E09; // 縉 (69-54)
-        cp[4993] = 0x7E0B; // 縋 (69-55)
-        cp[4994] = 0x7E22; // 縢 (69-56)
-        cp[4995] = 0x7E46; // 繆 (69-57)
-        cp[4996] = 0x7E66; // 繦 (69-58)
-        cp[4997] = 0x7E3B; // 縻 (69-59)
-        cp[4998] = 0x7E35; // 縵 (69-60)
-        cp[4999] = 0x7E39; // 縹 (69-61)
-        return t5(cp);
-    }
-
-    private static Integer[] t5(Integer[] cp) {
-        cp[5000] = 0x7E43; // 繃 (69-62)
-        cp[5001] = 0x7E37; // 縷 (69-63)
-        cp[5002] = 0x7E32; // 縲 (69-64)
-        cp[5003] = 0x7E3A; // 縺 (69-65)
-        cp[5004] = 0x7E67; // 繧 (69-66)
-        cp[5005] = 0x7E5D; // 繝 (69-67)
-        cp[5006] = 0x7E56; // 繖 (69-68)
-        cp[5007] = 0x7E5E; // 繞 (69-69)
-        cp[5008] = 0x7E59; // 繙 (69-70)
-        cp[5009] = 0x7E5A; // 繚 (69-71)
-        cp[5010] = 0x7E79; // 繹 (69-72)
-        cp[5011] = 0x7E6A; // 繪 (69-73)
-        cp[5012] = 0x7E69; // 繩 (69-74)
-        cp[5013] = 0x7E7C; // 繼 (69-75)
-        cp[5014] = 0x7E7B; // 繻 (69-76)
-        cp[5015] = 0x7E83; // 纃 (69-77)
-        cp[5016] = 0x7DD5; // 緕 (69-78)
-        cp[5017] = 0x7E7D; // 繽 (69-79)
-        cp[5018] = 0x8FAE; // 辮 (69-80)
-        cp[5019] = 0x7E7F; // 繿 (69-81)
-        cp[5020] = 0x7E88; // 纈 (69-82)
-        cp[5021] = 0x7E89; // 纉 (69-83)
-        cp[5022] = 0x7E8C; // 續 (69-84)
-        cp[5023] = 0x7E92; // 纒 (69-85)
-        cp[5024] = 0x7E90; // 纐 (69-86)
-        cp[5025] = 0x7E93; // 纓 (69-87)
-        cp[5026] = 0x7E94; // 纔 (69-88)
-        cp[5027] = 0x7E96; // 纖 (69-89)
-        cp[5028] = 0x7E8E; // 纎 (69-90)
-        cp[5029] = 0x7E9B; // 纛 (69-91)
-        cp[5030] = 0x7E9C; // 纜 (69-92)
-        cp[5031] = 0x7F38; // 缸 (69-93)
-        cp[5032] = 0x7F3A; // 缺 (69-94)
-        cp[5033] = 0x7F45; // 罅 (70-01)
-        cp[5034] = 0x7F4C; // 罌 (70-02)
-        cp[5035] = 0x7F4D; // 罍 (70-03)
-        cp[5036] = 0x7F4E; // 罎 (70-04)
-        cp[5037] = 0x7F50; // 罐 (70-05)
-        cp[5038] = 0x7F51; // 网 (70-06)
-        cp[5039] = 0x7F55; // 罕 (70-07)
-        cp[5040] = 0x7F54; // 罔 (70-08)
-        cp[5041] = 0x7F58; // 罘 (70-09)
-        cp[5042] = 0x7F5F; // 罟 (70-10)
-        cp[5043] = 0x7F60; // 罠 (70-11)
-        cp[5044] = 0x7F68; // 罨 (70-12)
-        cp[5045] = 0x7F69; // 罩 (70-13)
-        cp[5046] = 0x7F67; // 罧 (70-14)
-        cp[5047] = 0x7F78; // 罸 (70-15)
-        cp[5048] = 0x7F82; // 羂 (70-16)
-        cp[5049] = 0x7F86; // 羆 (70-17)
-        cp[5050] = 0x7F83; // 羃 (70-18)
-        cp[5051] = 0x7F88; // 羈 (70-19)
-        cp[5052] = 0x7F87; // 羇 (70-20)
-        cp[5053] = 0x7F8C; // 羌 (70-21)
-        cp[5054] = 0x7F94; // 羔 (70-22)
-        cp[5055] = 0x7F9E; // 羞 (70-23)
-        cp[5056] = 0x7F9D; // 羝 (70-24)
-        cp[5057] = 0x7F9A; // 羚 (70-25)
-        cp[5058] = 0x7FA3; // 羣 (70-26)
-        cp[5059] = 0x7FAF; // 羯 (70-27)
-        cp[5060] = 0x7FB2; // 羲 (70-28)
-        cp[5061] = 0x7FB9; // 羹 (70-29)
-        cp[5062] = 0x7FAE; // 羮 (70-30)
-        cp[5063] = 0x7FB6; // 羶 (70-31)
-        cp[5064] = 0x7FB8; // 羸 (70-32)
-        cp[5065] = 0x8B71; // 譱 (70-33)
-        cp[5066] = 0x7FC5; // 翅 (70-34)
-        cp[5067] = 0x7FC6; // 翆 (70-35)
-        cp[5068] = 0x7FCA; // 翊 (70-36)
-        cp[5069] = 0x7FD5; // 翕 (70-37)
-        cp[5070] = 0x7FD4; // 翔 (70-38)
-        cp[5071] = 0x7FE1; // 翡 (70-39)
-        cp[5072] = 0x7FE6; // 翦 (70-40)
-        cp[5073] = 0x7FE9; // 翩 (70-41)
-        cp[5074] = 0x7FF3; // 翳 (70-42)
-        cp[5075] = 0x7FF9; // 翹 (70-43)
-        cp[5076] = 0x98DC; // 飜 (70-44)
-        cp[5077] = 0x8006; // 耆 (70-45)
-        cp[5078] = 0x8004; // 耄 (70-46)
-        cp[5079] = 0x800B; // 耋 (70-47)
-        cp[5080] = 0x8012; // 耒 (70-48)
-        cp[5081] = 0x8018; // 耘 (70-49)
-        cp[5082] = 0x8019; // 耙 (70-50)
-        cp[5083] = 0x801C; // 耜 (70-51)
-        cp[5084] = 0x8021; // 耡 (70-52)
-        cp[5085] = 0x8028; // 耨 (70-53)
-        cp[5086] = 0x803F; // 耿 (70-54)
-        cp[5087] = 0x803B; // 耻 (70-55)
-        cp[5088] = 0x804A; // 聊 (70-56)
-        cp[5089] = 0x8046; // 聆 (70-57)
-        cp[5090] = 0x8052; // 聒 (70-58)
-        cp[5091] = 0x8058; // 聘 (70-59)
-        cp[5092] = 0x805A; // 聚 (70-60)
-        cp[5093] = 0x805F; // 聟 (70-61)
-        cp[5094] = 0x8062; // 聢 (70-62)
-        cp[5095] = 0x8068; // 聨 (70-63)
-        cp[5096] = 0x8073; // 聳 (70-64)
-        cp[5097] = 0x8072; // 聲 (70-65)
-        cp[5098] = 0x8070; // 聰 (70-66)
-        cp[5099] = 0x8076; // 聶 (70-67)
-        cp[5100] = 0x8079; // 聹 (70-68)
-        cp[5101] = 0x807D; // 聽 (70-69)
-        cp[5102] = 0x807F; // 聿 (70-70)
-        cp[5103] = 0x8084; // 肄 (70-71)
-        cp[5104] = 0x8086; // 肆 (70-72)
-        cp[5105] = 0x8085; // 肅 (70-73)
-        cp[5106] = 0x809B; // 肛 (70-74)
-        cp[5107] = 0x8093; // 肓 (70-75)
-        cp[5108] = 0x809A; // 肚 (70-76)
-        cp[5109] = 0x80AD; // 肭 (70-77)
-        cp[5110] = 0x5190; // 冐 (70-78)
-        cp[5111] = 0x80AC; // 肬 (70-79)
-        cp[5112] = 0x80DB; // 胛 (70-80)
-        cp[5113] = 0x80E5; // 胥 (70-81)
-        cp[5114] = 0x80D9; // 胙 (70-82)
-        cp[5115] = 0x80DD; // 胝 (70-83)
-        cp[5116] = 0x80C4; // 胄 (70-84)
-        cp[5117] = 0x80DA; // 胚 (70-85)
-        cp[5118] = 0x80D6; // 胖 (70-86)
-        cp[5119] = 0x8109; // 脉 (70-87)
-        cp[5120] = 0x80EF; // 胯 (70-88)
-        cp[5121] = 0x80F1; // 胱 (70-89)
-        cp[5122] = 0x811B; // 脛 (70-90)
-        cp[5123] = 0x8129; // 脩 (70-91)
-        cp[5124] = 0x8123; // 脣 (70-92)
-        cp[5125] = 0x812F; // 脯 (70-93)
-        cp[5126] = 0x814B; // 腋 (70-94)
-        cp[5127] = 0x968B; // 隋 (71-01)
-        cp[5128] = 0x8146; // 腆 (71-02)
-        cp[5129] = 0x813E; // 脾 (71-03)
-        cp[5130] = 0x8153; // 腓 (71-04)
-        cp[5131] = 0x8151; // 腑 (71-05)
-        cp[5132] = 0x80FC; // 胼 (71-06)
-        cp[5133] = 0x8171; // 腱 (71-07)
-        cp[5134] = 0x816E; // 腮 (71-08)
-        cp[5135] = 0x8165; // 腥 (71-09)
-        cp[5136] = 0x8166; // 腦 (71-10)
-        cp[5137] = 0x8174; // 腴 (71-11)
-        cp[5138] = 0x8183; // 膃 (71-12)
-        cp[5139] = 0x8188; // 膈 (71-13)
-        cp[5140] = 0x818A; // 膊 (71-14)
-        cp[5141] = 0x8180; // 膀 (71-15)
-        cp[5142] = 0x8182; // 膂 (71-16)
-        cp[5143] = 0x81A0; // 膠 (71-17)
-        cp[5144] = 0x8195; // 膕 (71-18)
-        cp[5145] = 0x81A4; // 膤 (71-19)
-        cp[5146] = 0x81A3; // 膣 (71-20)
-        cp[5147] = 0x815F; // 腟 (71-21)
-        cp[5148] = 0x8193; // 膓 (71-22)
-        cp[5149] = 0x81A9; // 膩 (71-23)
-        cp[5150] = 0x81B0; // 膰 (71-24)
-        cp[5151] = 0x81B5; // 膵 (71-25)
-        cp[5152] = 0x81BE; // 膾 (71-26)
-        cp[5153] = 0x81B8; // 膸 (71-27)
-        cp[5154] = 0x81BD; // 膽 (71-28)
-        cp[5155] = 0x81C0; // 臀 (71-29)
-        cp[5156] = 0x81C2; // 臂 (71-30)
-        cp[5157] = 0x81BA; // 膺 (71-31)
-        cp[5158] = 0x81C9; // 臉 (71-32)
-        cp[5159] = 0x81CD; // 臍 (71-33)
-        cp[5160] = 0x81D1; // 臑 (71-34)
-        cp[5161] = 0x81D9; // 臙 (71-35)
-        cp[5162] = 0x81D8; // 臘 (71-36)
-        cp[5163] = 0x81C8; // 臈 (71-37)
-        cp[5164] = 0x81DA; // 臚 (71-38)
-        cp[5165] = 0x81DF; // 臟 (71-39)
-        cp[5166] = 0x81E0; // 臠 (71-40)
-        cp[5167] = 0x81E7; // 臧 (71-41)
-        cp[5168] = 0x81FA; // 臺 (71-42)
-        cp[5169] = 0x81FB; // 臻 (71-43)
-        cp[5170] = 0x81FE; // 臾 (71-44)
-        cp[5171] = 0x8201; // 舁 (71-45)
-        cp[5172] = 0x8202; // 舂 (71-46)
-        cp[5173] = 0x8205; // 舅 (71-47)
-        cp[5174] = 0x8207; // 與 (71-48)
-        cp[5175] = 0x820A; // 舊 (71-49)
-        cp[5176] = 0x820D; // 舍 (71-50)
-        cp[5177] = 0x8210; // 舐 (71-51)
-        cp[5178] = 0x8216; // 舖 (71-52)
-        cp[5179] = 0x8229; // 舩 (71-53)
-        cp[5180] = 0x822B; // 舫 (71-54)
-        cp[5181] = 0x8238; // 舸 (71-55)
-        cp[5182] = 0x8233; // 舳 (71-56)
-        cp[5183] = 0x8240; // 艀 (71-57)
-        cp[5184] = 0x8259; // 艙 (71-58)
-        cp[5185] = 0x8258; // 艘 (71-59)
-        cp[5186] = 0x825D; // 艝 (71-60)
-        cp[5187] = 0x825A; // 艚 (71-61)
-        cp[5188] = 0x825F; // 艟 (71-62)
-        cp[5189] = 0x8264; // 艤 (71-63)
-        cp[5190] = 0x8262; // 艢 (71-64)
-        cp[5191] = 0x8268; // 艨 (71-65)
-        cp[5192] = 0x826A; // 艪 (71-66)
-        cp[5193] = 0x826B; // 艫 (71-67)
-        cp[5194] = 0x822E; // 舮 (71-68)
-        cp[5195] = 0x8271; // 艱 (71-69)
-        cp[5196] = 0x8277; // 艷 (71-70)
-        cp[5197] = 0x8278; // 艸 (71-71)
-        cp[5198] = 0x827E; // 艾 (71-72)
-        cp[5199] = 0x828D; // 芍 (71-73)
-        cp[5200] = 0x8292; // 芒 (71-74)
-        cp[5201] = 0x82AB; // 芫 (71-75)
-        cp[5202] = 0x829F; // 芟 (71-76)
-        cp[5203] = 0x82BB; // 芻 (71-77)
-        cp[5204] = 0x82AC; // 芬 (71-78)
-        cp[5205] = 0x82E1; // 苡 (71-79)
-        cp[5206] = 0x82E3; // 苣 (71-80)
-        cp[5207] = 0x82DF; // 苟 (71-81)
-        cp[5208] = 0x82D2; // 苒 (71-82)
-        cp[5209] = 0x82F4; // 苴 (71-83)
-        cp[5210] = 0x82F3; // 苳 (71-84)
-        cp[5211] = 0x82FA; // 苺 (71-85)
-        cp[5212] = 0x8393; // 莓 (71-86)
-        cp[5213] = 0x8303; // 范 (71-87)
-        cp[5214] = 0x82FB; // 苻 (71-88)
-        cp[5215] = 0x82F9; // 苹 (71-89)
-        cp[5216] = 0x82DE; // 苞 (71-90)
-        cp[5217] = 0x8306; // 茆 (71-91)
-        cp[5218] = 0x82DC; // 苜 (71-92)
-        cp[5219] = 0x8309; // 茉 (71-93)
-        cp[5220] = 0x82D9; // 苙 (71-94)
-        cp[5221] = 0x8335; // 茵 (72-01)
-        cp[5222] = 0x8334; // 茴 (72-02)
-        cp[5223] = 0x8316; // 茖 (72-03)
-        cp[5224] = 0x8332; // 茲 (72-04)
-        cp[5225] = 0x8331; // 茱 (72-05)
-        cp[5226] = 0x8340; // 荀 (72-06)
-        cp[5227] = 0x8339; // 茹 (72-07)
-        cp[5228] = 0x8350; // 荐 (72-08)
-        cp[5229] = 0x8345; // 荅 (72-09)
-        cp[5230] = 0x832F; // 茯 (72-10)
-        cp[5231] = 0x832B; // 茫 (72-11)
-        cp[5232] = 0x8317; // 茗 (72-12)
-        cp[5233] = 0x8318; // 茘 (72-13)
-        cp[5234] = 0x8385; // 莅 (72-14)
-        cp[5235] = 0x839A; // 莚 (72-15)
-        cp[5236] = 0x83AA; // 莪 (72-16)
-        cp[5237] = 0x839F; // 莟 (72-17)
-        cp[5238] = 0x83A2; // 莢 (72-18)
-        cp[5239] = 0x8396; // 莖 (72-19)
-        cp[5240] = 0x8323; // 茣 (72-20)
-        cp[5241] = 0x838E; // 莎 (72-21)
-        cp[5242] = 0x8387; // 莇 (72-22)
-        cp[5243] = 0x838A; // 莊 (72-23)
-        cp[5244] = 0x837C; // 荼 (72-24)
-        cp[5245] = 0x83B5; // 莵 (72-25)
-        cp[5246] = 0x8373; // 荳 (72-26)
-        cp[5247] = 0x8375; // 荵 (72-27)
-        cp[5248] = 0x83A0; // 莠 (72-28)
-        cp[5249] = 0x8389; // 莉 (72-29)
-        cp[5250] = 0x83A8; // 莨 (72-30)
-        cp[5251] = 0x83F4; // 菴 (72-31)
-        cp[5252] = 0x8413; // 萓 (72-32)
-        cp[5253] = 0x83EB; // 菫 (72-33)
-        cp[5254] = 0x83CE; // 菎 (72-34)
-        cp[5255] = 0x83FD; // 菽 (72-35)
-        cp[5256] = 0x8403; // 萃 (72-36)
-        cp[5257] = 0x83D8; // 菘 (72-37)
-        cp[5258] = 0x840B; // 萋 (72-38)
-        cp[5259] = 0x83C1; // 菁 (72-39)
-        cp[5260] = 0x83F7; // 菷 (72-40)
-        cp[5261] = 0x8407; // 萇 (72-41)
-        cp[5262] = 0x83E0; // 菠 (72-42)
-        cp[5263] = 0x83F2; // 菲 (72-43)
-        cp[5264] = 0x840D; // 萍 (72-44)
-        cp[5265] = 0x8422; // 萢 (72-45)
-        cp[5266] = 0x8420; // 萠 (72-46)
-        cp[5267] = 0x83BD; // 莽 (72-47)
-        cp[5268] = 0x8438; // 萸 (72-48)
-        cp[5269] = 0x8506; // 蔆 (72-49)
-        cp[5270] = 0x83FB; // 菻 (72-50)
-        cp[5271] = 0x846D; // 葭 (72-51)
-        cp[5272] = 0x842A; // 萪 (72-52)
-        cp[5273] = 0x843C; // 萼 (72-53)
-        cp[5274] = 0x855A; // 蕚 (72-54)
-        cp[5275] = 0x8484; // 蒄 (72-55)
-        cp[5276] = 0x8477; // 葷 (72-56)
-        cp[5277] = 0x846B; // 葫 (72-57)
-        cp[5278] = 0x84AD; // 蒭 (72-58)
-        cp[5279] = 0x846E; // 葮 (72-59)
-        cp[5280] = 0x8482; // 蒂 (72-60)
-        cp[5281] = 0x8469; // 葩 (72-61)
-        cp[5282] = 0x8446; // 葆 (72-62)
-        cp[5283] = 0x842C; // 萬 (72-63)
-        cp[5284] = 0x846F; // 葯 (72-64)
-        cp[5285] = 0x8479; // 葹 (72-65)
-        cp[5286] = 0x8435; // 萵 (72-66)
-        cp[5287] = 0x84CA; // 蓊 (72-67)
-        cp[5288] = 0x8462; // 葢 (72-68)
-        cp[5289] = 0x84B9; // 蒹 (72-69)
-        cp[5290] = 0x84BF; // 蒿 (72-70)
-        cp[5291] = 0x849F; // 蒟 (72-71)
-        cp[5292] = 0x84D9; // 蓙 (72-72)
-        cp[5293] = 0x84CD; // 蓍 (72-73)
-        cp[5294] = 0x84BB; // 蒻 (72-74)
-        cp[5295] = 0x84DA; // 蓚 (72-75)
-        cp[5296] = 0x84D0; // 蓐 (72-76)
-        cp[5297] = 0x84C1; // 蓁 (72-77)
-        cp[5298] = 0x84C6; // 蓆 (72-78)
-        cp[5299] = 0x84D6; // 蓖 (72-79)
-        cp[5300] = 0x84A1; // 蒡 (72-80)
-        cp[5301] = 0x8521; // 蔡 (72-81)
-        cp[5302] = 0x84FF; // 蓿 (72-82)
-        cp[5303] = 0x84F4; // 蓴 (72-83)
-        cp[5304] = 0x8517; // 蔗 (72-84)
-        cp[5305] = 0x8518; // 蔘 (72-85)
-        cp[5306] = 0x852C; // 蔬 (72-86)
-        cp[5307] = 0x851F; // 蔟 (72-87)
-        cp[5308] = 0x8515; // 蔕 (72-88)
-        cp[5309] = 0x8514; // 蔔 (72-89)
-        cp[5310] = 0x84FC; // 蓼 (72-90)
-        cp[5311] = 0x8540; // 蕀 (72-91)
-        cp[5312] = 0x8563; // 蕣 (72-92)
-        cp[5313] = 0x8558; // 蕘 (72-93)
-        cp[5314] = 0x8548; // 蕈 (72-94)
-        cp[5315] = 0x8541; // 蕁 (73-01)
-        cp[5316] = 0x8602; // 蘂 (73-02)
-        cp[5317] = 0x854B; // 蕋 (73-03)
-        cp[5318] = 0x8555; // 蕕 (73-04)
-        cp[5319] = 0x8580; // 薀 (73-05)
-        cp[5320] = 0x85A4; // 薤 (73-06)
-        cp[5321] = 0x8588; // 薈 (73-07)
-        cp[5322] = 0x8591; // 薑 (73-08)
-        cp[5323] = 0x858A; // 薊 (73-09)
-        cp[5324] = 0x85A8; // 薨 (73-10)
-        cp[5325] = 0x856D; // 蕭 (73-11)
-        cp[5326] = 0x8594; // 薔 (73-12)
-        cp[5327] = 0x859B; // 薛 (73-13)
-        cp[5328] = 0x85EA; // 藪 (73-14)
-        cp[5329] = 0x8587; // 薇 (73-15)
-        cp[5330] = 0x859C; // 薜 (73-16)
-        cp[5331] = 0x8577; // 蕷 (73-17)
-        cp[5332] = 0x857E; // 蕾 (73-18)
-        cp[5333] = 0x8590; // 薐 (73-19)
-        cp[5334] = 0x85C9; // 藉 (73-20)
-        cp[5335] = 0x85BA; // 薺 (73-21)
-        cp[5336] = 0x85CF; // 藏 (73-22)
-        cp[5337] = 0x85B9; // 薹 (73-23)
-        cp[5338] = 0x85D0; // 藐 (73-24)
-        cp[5339] = 0x85D5; // 藕 (73-25)
-        cp[5340] = 0x85DD; // 藝 (73-26)
-        cp[5341] = 0x85E5; // 藥 (73-27)
-        cp[5342] = 0x85DC; // 藜 (73-28)
-        cp[5343] = 0x85F9; // 藹 (73-29)
-        cp[5344] = 0x860A; // 蘊 (73-30)
-        cp[5345] = 0x8613; // 蘓 (73-31)
-        cp[5346] = 0x860B; // 蘋 (73-32)
-        cp[5347] = 0x85FE; // 藾 (73-33)
-        cp[5348] = 0x85FA; // 藺 (73-34)
-        cp[5349] = 0x8606; // 蘆 (73-35)
-        cp[5350] = 0x8622; // 蘢 (73-36)
-        cp[5351] = 0x861A; // 蘚 (73-37)
-        cp[5352] = 0x8630; // 蘰 (73-38)
-        cp[5353] = 0x863F; // 蘿 (73-39)
-        cp[5354] = 0x864D; // 虍 (73-40)
-        cp[5355] = 0x4E55; // 乕 (73-41)
-        cp[5356] = 0x8654; // 虔 (73-42)
-        cp[5357] = 0x865F; // 號 (73-43)
-        cp[5358] = 0x8667; // 虧 (73-44)
-        cp[5359] = 0x8671; // 虱 (73-45)
-        cp[5360] = 0x8693; // 蚓 (73-46)
-        cp[5361] = 0x86A3; // 蚣 (73-47)
-        cp[5362] = 0x86A9; // 蚩 (73-48)
-        cp[5363] = 0x86AA; // 蚪 (73-49)
-        cp[5364] = 0x868B; // 蚋 (73-50)
-        cp[5365] = 0x868C; // 蚌 (73-51)
-        cp[5366] = 0x86B6; // 蚶 (73-52)
-        cp[5367] = 0x86AF; // 蚯 (73-53)
-        cp[5368] = 0x86C4; // 蛄 (73-54)
-        cp[5369] = 0x86C6; // 蛆 (73-55)
-        cp[5370] = 0x86B0; // 蚰 (73-56)
-        cp[5371] = 0x86C9; // 蛉 (73-57)
-        cp[5372] = 0x8823; // 蠣 (73-58)
-        cp[5373] = 0x86AB; // 蚫 (73-59)
-        cp[5374] = 0x86D4; // 蛔 (73-60)
-        cp[5375] = 0x86DE; // 蛞 (73-61)
-        cp[5376] = 0x86E9; // 蛩 (73-62)
-        cp[5377] = 0x86EC; // 蛬 (73-63)
-        cp[5378] = 0x86DF; // 蛟 (73-64)
-        cp[5379] = 0x86DB; // 蛛 (73-65)
-        cp[5380] = 0x86EF; // 蛯 (73-66)
-        cp[5381] = 0x8712; // 蜒 (73-67)
-        cp[5382] = 0x8706; // 蜆 (73-68)
-        cp[5383] = 0x8708; // 蜈 (73-69)
-        cp[5384] = 0x8700; // 蜀 (73-70)
-        cp[5385] = 0x8703; // 蜃 (73-71)
-        cp[5386] = 0x86FB; // 蛻 (73-72)
-        cp[5387] = 0x8711; // 蜑 (73-73)
-        cp[5388] = 0x8709; // 蜉 (73-74)
-        cp[5389] = 0x870D; // 蜍 (73-75)
-        cp[5390] = 0x86F9; // 蛹 (73-76)
-        cp[5391] = 0x870A; // 蜊 (73-77)
-        cp[5392] = 0x8734; // 蜴 (73-78)
-        cp[5393] = 0x873F; // 蜿 (73-79)
-        cp[5394] = 0x8737; // 蜷 (73-80)
-        cp[5395] = 0x873B; // 蜻 (73-81)
-        cp[5396] = 0x8725; // 蜥 (73-82)
-        cp[5397] = 0x8729; // 蜩 (73-83)
-        cp[5398] = 0x871A; // 蜚 (73-84)
-        cp[5399] = 0x8760; // 蝠 (73-85)
-        cp[5400] = 0x875F; // 蝟 (73-86)
-        cp[5401] = 0x8778; // 蝸 (73-87)
-        cp[5402] = 0x874C; // 蝌 (73-88)
-        cp[5403] = 0x874E; // 蝎 (73-89)
-        cp[5404] = 0x8774; // 蝴 (73-90)
-        cp[5405] = 0x8757; // 蝗 (73-91)
-        cp[5406] = 0x8768; // 蝨 (73-92)
-        cp[5407] = 0x876E; // 蝮 (73-93)
-        cp[5408] = 0x8759; // 蝙 (73-94)
-        cp[5409] = 0x8753; // 蝓 (74-01)
-        cp[5410] = 0x8763; // 蝣 (74-02)
-        cp[5411] = 0x876A; // 蝪 (74-03)
-        cp[5412] = 0x8805; // 蠅 (74-04)
-        cp[5413] = 0x87A2; // 螢 (74-05)
-        cp[5414] = 0x879F; // 螟 (74-06)
-        cp[5415] = 0x8782; // 螂 (74-07)
-        cp[5416] = 0x87AF; // 螯 (74-08)
-        cp[5417] = 0x87CB; // 蟋 (74-09)
-        cp[5418] = 0x87BD; // 螽 (74-10)
-        cp[5419] = 0x87C0; // 蟀 (74-11)
-        cp[5420] = 0x87D0; // 蟐 (74-12)
-        cp[5421] = 0x96D6; // 雖 (74-13)
-        cp[5422] = 0x87AB; // 螫 (74-14)
-        cp[5423] = 0x87C4; // 蟄 (74-15)
-        cp[5424] = 0x87B3; // 螳 (74-16)
-        cp[5425] = 0x87C7; // 蟇 (74-17)
-        cp[5426] = 0x87C6; // 蟆 (74-18)
-        cp[5427] = 0x87BB; // 螻 (74-19)
-        cp[5428] = 0x87EF; // 蟯 (74-20)
-        cp[5429] = 0x87F2; // 蟲 (74-21)
-        cp[5430] = 0x87E0; // 蟠 (74-22)
-        cp[5431] = 0x880F; // 蠏 (74-23)
-        cp[5432] = 0x880D; // 蠍 (74-24)
-        cp[5433] = 0x87FE; // 蟾 (74-25)
-        cp[5434] = 0x87F6; // 蟶 (74-26)
-        cp[5435] = 0x87F7; // 蟷 (74-27)
-        cp[5436] = 0x880E; // 蠎 (74-28)
-        cp[5437] = 0x87D2; // 蟒 (74-29)
-        cp[5438] = 0x8811; // 蠑 (74-30)
-        cp[5439] = 0x8816; // 蠖 (74-31)
-        cp[5440] = 0x8815; // 蠕 (74-32)
-        cp[5441] = 0x8822; // 蠢 (74-33)
-        cp[5442] = 0x8821; // 蠡 (74-34)
-        cp[5443] = 0x8831; // 蠱 (74-35)
-        cp[5444] = 0x8836; // 蠶 (74-36)
-        cp[5445] = 0x8839; // 蠹 (74-37)
-        cp[5446] = 0x8827; // 蠧 (74-38)
-        cp[5447] = 0x883B; // 蠻 (74-39)
-        cp[5448] = 0x8844; // 衄 (74-40)
-        cp[5449] = 0x8842; // 衂 (74-41)
-        cp[5450] = 0x8852; // 衒 (74-42)
-        cp[5451] = 0x8859; // 衙 (74-43)
-        cp[5452] = 0x885E; // 衞 (74-44)
-        cp[5453] = 0x8862; // 衢 (74-45)
-        cp[5454] = 0x886B; // 衫 (74-46)
-        cp[5455] = 0x8881; // 袁 (74-47)
-        cp[5456] = 0x887E; // 衾 (74-48)
-        cp[5457] = 0x889E; // 袞 (74-49)
-        cp[5458] = 0x8875; // 衵 (74-50)
-        cp[5459] = 0x887D; // 衽 (74-51)
-        cp[5460] = 0x88B5; // 袵 (74-52)
-        cp[5461] = 0x8872; // 衲 (74-53)
-        cp[5462] = 0x8882; // 袂 (74-54)
-        cp[5463] = 0x8897; // 袗 (74-55)
-        cp[5464] = 0x8892; // 袒 (74-56)
-        cp[5465] = 0x88AE; // 袮 (74-57)
-        cp[5466] = 0x8899; // 袙 (74-58)
-        cp[5467] = 0x88A2; // 袢 (74-59)
-        cp[5468] = 0x888D; // 袍 (74-60)
-        cp[5469] = 0x88A4; // 袤 (74-61)
-        cp[5470] = 0x88B0; // 袰 (74-62)
-        cp[5471] = 0x88BF; // 袿 (74-63)
-        cp[5472] = 0x88B1; // 袱 (74-64)
-        cp[5473] = 0x88C3; // 裃 (74-65)
-        cp[5474] = 0x88C4; // 裄 (74-66)
-        cp[5475] = 0x88D4; // 裔 (74-67)
-        cp[5476] = 0x88D8; // 裘 (74-68)
-        cp[5477] = 0x88D9; // 裙 (74-69)
-        cp[5478] = 0x88DD; // 裝 (74-70)
-        cp[5479] = 0x88F9; // 裹 (74-71)
-        cp[5480] = 0x8902; // 褂 (74-72)
-        cp[5481] = 0x88FC; // 裼 (74-73)
-        cp[5482] = 0x88F4; // 裴 (74-74)
-        cp[5483] = 0x88E8; // 裨 (74-75)
-        cp[5484] = 0x88F2; // 裲 (74-76)
-        cp[5485] = 0x8904; // 褄 (74-77)
-        cp[5486] = 0x890C; // 褌 (74-78)
-        cp[5487] = 0x890A; // 褊 (74-79)
-        cp[5488] = 0x8913; // 褓 (74-80)
-        cp[5489] = 0x8943; // 襃 (74-81)
-        cp[5490] = 0x891E; // 褞 (74-82)
-        cp[5491] = 0x8925; // 褥 (74-83)
-        cp[5492] = 0x892A; // 褪 (74-84)
-        cp[5493] = 0x892B; // 褫 (74-85)
-        cp[5494] = 0x8941; // 襁 (74-86)
-        cp[5495] = 0x8944; // 襄 (74-87)
-        cp[5496] = 0x893B; // 褻 (74-88)
-        cp[5497] = 0x8936; // 褶 (74-89)
-        cp[5498] = 0x8938; // 褸 (74-90)
-        cp[5499] = 0x894C; // 襌 (74-91)
-        cp[5500] = 0x891D; // 褝 (74-92)
-        cp[5501] = 0x8960; // 襠 (74-93)
-        cp[5502] = 0x895E; // 襞 (74-94)
-        cp[5503] = 0x8966; // 襦 (75-01)
-        cp[5504] = 0x8964; // 襤 (75-02)
-        cp[5505] = 0x896D; // 襭 (75-03)
-        cp[5506] = 0x896A; // 襪 (75-04)
-        cp[5507] = 0x896F; // 襯 (75-05)
-        cp[5508] = 0x8974; // 襴 (75-06)
-        cp[5509] = 0x8977; // 襷 (75-07)
-        cp[5510] = 0x897E; // 襾 (75-08)
-        cp[5511] = 0x8983; // 覃 (75-09)
-        cp[5512] = 0x8988; // 覈 (75-10)
-        cp[5513] = 0x898A; // 覊 (75-11)
-        cp[5514] = 0x8993; // 覓 (75-12)
-        cp[5515] = 0x8998; // 覘 (75-13)
-        cp[5516] = 0x89A1; // 覡 (75-14)
-        cp[5517] = 0x89A9; // 覩 (75-15)
-        cp[5518] = 0x89A6; // 覦 (75-16)
-        cp[5519] = 0x89AC; // 覬 (75-17)
-        cp[5520] = 0x89AF; // 覯 (75-18)
-        cp[5521] = 0x89B2; // 覲 (75-19)
-        cp[5522] = 0x89BA; // 覺 (75-20)
-        cp[5523] = 0x89BD; // 覽 (75-21)
-        cp[5524] = 0x89BF; // 覿 (75-22)
-        cp[5525] = 0x89C0; // 觀 (75-23)
-        cp[5526] = 0x89DA; // 觚 (75-24)
-        cp[5527] = 0x89DC; // 觜 (75-25)
-        cp[5528] = 0x89DD; // 觝 (75-26)
-        cp[5529] = 0x89E7; // 觧 (75-27)
-        cp[5530] = 0x89F4; // 觴 (75-28)
-        cp[5531] = 0x89F8; // 觸 (75-29)
-        cp[5532] = 0x8A03; // 訃 (75-30)
-        cp[5533] = 0x8A16; // 訖 (75-31)
-        cp[5534] = 0x8A10; // 訐 (75-32)
-        cp[5535] = 0x8A0C; // 訌 (75-33)
-        cp[5536] = 0x8A1B; // 訛 (75-34)
-        cp[5537] = 0x8A1D; // 訝 (75-35)
-        cp[5538] = 0x8A25; // 訥 (75-36)
-        cp[5539] = 0x8A36; // 訶 (75-37)
-        cp[5540] = 0x8A41; // 詁 (75-38)
-        cp[5541] = 0x8A5B; // 詛 (75-39)
-        cp[5542] = 0x8A52; // 詒 (75-40)
-        cp[5543] = 0x8A46; // 詆 (75-41)
-        cp[5544] = 0x8A48; // 詈 (75-42)
-        cp[5545] = 0x8A7C; // 詼 (75-43)
-        cp[5546] = 0x8A6D; // 詭 (75-44)
-        cp[5547] = 0x8A6C; // 詬 (75-45)
-        cp[5548] = 0x8A62; // 詢 (75-46)
-        cp[5549] = 0x8A85; // 誅 (75-47)
-        cp[5550] = 0x8A82; // 誂 (75-48)
-        cp[5551] = 0x8A84; // 誄 (75-49)
-        cp[5552] = 0x8AA8; // 誨 (75-50)
-        cp[5553] = 0x8AA1; // 誡 (75-51)
-        cp[5554] = 0x8A91; // 誑 (75-52)
-        cp[5555] = 0x8AA5; // 誥 (75-53)
-        cp[5556] = 0x8AA6; // 誦 (75-54)
-        cp[5557] = 0x8A9A; // 誚 (75-55)
-        cp[5558] = 0x8AA3; // 誣 (75-56)
-        cp[5559] = 0x8AC4; // 諄 (75-57)
-        cp[5560] = 0x8ACD; // 諍 (75-58)
-        cp[5561] = 0x8AC2; // 諂 (75-59)
-        cp[5562] = 0x8ADA; // 諚 (75-60)
-        cp[5563] = 0x8AEB; // 諫 (75-61)
-        cp[5564] = 0x8AF3; // 諳 (75-62)
-        cp[5565] = 0x8AE7; // 諧 (75-63)
-        cp[5566] = 0x8AE4; // 諤 (75-64)
-        cp[5567] = 0x8AF1; // 諱 (75-65)
-        cp[5568] = 0x8B14; // 謔 (75-66)
-        cp[5569] = 0x8AE0; // 諠 (75-67)
-        cp[5570] = 0x8AE2; // 諢 (75-68)
-        cp[5571] = 0x8AF7; // 諷 (75-69)
-        cp[5572] = 0x8ADE; // 諞 (75-70)
-        cp[5573] = 0x8ADB; // 諛 (75-71)
-        cp[5574] = 0x8B0C; // 謌 (75-72)
-        cp[5575] = 0x8B07; // 謇 (75-73)
-        cp[5576] = 0x8B1A; // 謚 (75-74)
-        cp[5577] = 0x8AE1; // 諡 (75-75)
-        cp[5578] = 0x8B16; // 謖 (75-76)
-        cp[5579] = 0x8B10; // 謐 (75-77)
-        cp[5580] = 0x8B17; // 謗 (75-78)
-        cp[5581] = 0x8B20; // 謠 (75-79)
-        cp[5582] = 0x8B33; // 謳 (75-80)
-        cp[5583] = 0x97AB; // 鞫 (75-81)
-        cp[5584] = 0x8B26; // 謦 (75-82)
-        cp[5585] = 0x8B2B; // 謫 (75-83)
-        cp[5586] = 0x8B3E; // 謾 (75-84)
-        cp[5587] = 0x8B28; // 謨 (75-85)
-        cp[5588] = 0x8B41; // 譁 (75-86)
-        cp[5589] = 0x8B4C; // 譌 (75-87)
-        cp[5590] = 0x8B4F; // 譏 (75-88)
-        cp[5591] = 0x8B4E; // 譎 (75-89)
-        cp[5592] = 0x8B49; // 證 (75-90)
-        cp[5593] = 0x8B56; // 譖 (75-91)
-        cp[5594] = 0x8B5B; // 譛 (75-92)
-        cp[5595] = 0x8B5A; // 譚 (75-93)
-        cp[5596] = 0x8B6B; // 譫 (75-94)
-        cp[5597] = 0x8B5F; // 譟 (76-01)
-        cp[5598] = 0x8B6C; // 譬 (76-02)
-        cp[5599] = 0x8B6F; // 譯 (76-03)
-        cp[5600] = 0x8B74; // 譴 (76-04)
-        cp[5601] = 0x8B7D; // 譽 (76-05)
-        cp[5602] = 0x8B80; // 讀 (76-06)
-        cp[5603] = 0x8B8C; // 讌 (76-07)
-        cp[5604] = 0x8B8E; // 讎 (76-08)
-        cp[5605] = 0x8B92; // 讒 (76-09)
-        cp[5606] = 0x8B93; // 讓 (76-10)
-        cp[5607] = 0x8B96; // 讖 (76-11)
-        cp[5608] = 0x8B99; // 讙 (76-12)
-        cp[5609] = 0x8B9A; // 讚 (76-13)
-        cp[5610] = 0x8C3A; // 谺 (76-14)
-        cp[5611] = 0x8C41; // 豁 (76-15)
-        cp[5612] = 0x8C3F; // 谿 (76-16)
-        cp[5613] = 0x8C48; // 豈 (76-17)
-        cp[5614] = 0x8C4C; // 豌 (76-18)
-        cp[5615] = 0x8C4E; // 豎 (76-19)
-        cp[5616] = 0x8C50; // 豐 (76-20)
-        cp[5617] = 0x8C55; // 豕 (76-21)
-        cp[5618] = 0x8C62; // 豢 (76-22)
-        cp[5619] = 0x8C6C; // 豬 (76-23)
-        cp[5620] = 0x8C78; // 豸 (76-24)
-        cp[5621] = 0x8C7A; // 豺 (76-25)
-        cp[5622] = 0x8C82; // 貂 (76-26)
-        cp[5623] = 0x8C89; // 貉 (76-27)
-        cp[5624] = 0x8C85; // 貅 (76-28)
-        cp[5625] = 0x8C8A; // 貊 (76-29)
-        cp[5626] = 0x8C8D; // 貍 (76-30)
-        cp[5627] = 0x8C8E; // 貎 (76-31)
-        cp[5628] = 0x8C94; // 貔 (76-32)
-        cp[5629] = 0x8C7C; // 豼 (76-33)
-        cp[5630] = 0x8C98; // 貘 (76-34)
-        cp[5631] = 0x621D; // 戝 (76-35)
-        cp[5632] = 0x8CAD; // 貭 (76-36)
-        cp[5633] = 0x8CAA; // 貪 (76-37)
-        cp[5634] = 0x8CBD; // 貽 (76-38)
-        cp[5635] = 0x8CB2; // 貲 (76-39)
-        cp[5636] = 0x8CB3; // 貳 (76-40)
-        cp[5637] = 0x8CAE; // 貮 (76-41)
-        cp[5638] = 0x8CB6; // 貶 (76-42)
-        cp[5639] = 0x8CC8; // 賈 (76-43)
-        cp[5640] = 0x8CC1; // 賁 (76-44)
-        cp[5641] = 0x8CE4; // 賤 (76-45)
-        cp[5642] = 0x8CE3; // 賣 (76-46)
-        cp[5643] = 0x8CDA; // 賚 (76-47)
-        cp[5644] = 0x8CFD; // 賽 (76-48)
-        cp[5645] = 0x8CFA; // 賺 (76-49)
-        cp[5646] = 0x8CFB; // 賻 (76-50)
-        cp[5647] = 0x8D04; // 贄 (76-51)
-        cp[5648] = 0x8D05; // 贅 (76-52)
-        cp[5649] = 0x8D0A; // 贊 (76-53)
-        cp[5650] = 0x8D07; // 贇 (76-54)
-        cp[5651] = 0x8D0F; // 贏 (76-55)
-        cp[5652] = 0x8D0D; // 贍 (76-56)
-        cp[5653] = 0x8D10; // 贐 (76-57)
-        cp[5654] = 0x9F4E; // 齎 (76-58)
-        cp[5655] = 0x8D13; // 贓 (76-59)
-        cp[5656] = 0x8CCD; // 賍 (76-60)
-        cp[5657] = 0x8D14; // 贔 (76-61)
-        cp[5658] = 0x8D16; // 贖 (76-62)
-        cp[5659] = 0x8D67; // 赧 (76-63)
-        cp[5660] = 0x8D6D; // 赭 (76-64)
-        cp[5661] = 0x8D71; // 赱 (76-65)
-        cp[5662] = 0x8D73; // 赳 (76-66)
-        cp[5663] = 0x8D81; // 趁 (76-67)
-        cp[5664] = 0x8D99; // 趙 (76-68)
-        cp[5665] = 0x8DC2; // 跂 (76-69)
-        cp[5666] = 0x8DBE; // 趾 (76-70)
-        cp[5667] = 0x8DBA; // 趺 (76-71)
-        cp[5668] = 0x8DCF; // 跏 (76-72)
-        cp[5669] = 0x8DDA; // 跚 (76-73)
-        cp[5670] = 0x8DD6; // 跖 (76-74)
-        cp[5671] = 0x8DCC; // 跌 (76-75)
-        cp[5672] = 0x8DDB; // 跛 (76-76)
-        cp[5673] = 0x8DCB; // 跋 (76-77)
-        cp[5674] = 0x8DEA; // 跪 (76-78)
-        cp[5675] = 0x8DEB; // 跫 (76-79)
-        cp[5676] = 0x8DDF; // 跟 (76-80)
-        cp[5677] = 0x8DE3; // 跣 (76-81)
-        cp[5678] = 0x8DFC; // 跼 (76-82)
-        cp[5679] = 0x8E08; // 踈 (76-83)
-        cp[5680] = 0x8E09; // 踉 (76-84)
-        cp[5681] = 0x8DFF; // 跿 (76-85)
-        cp[5682] = 0x8E1D; // 踝 (76-86)
-        cp[5683] = 0x8E1E; // 踞 (76-87)
-        cp[5684] = 0x8E10; // 踐 (76-88)
-        cp[5685] = 0x8E1F; // 踟 (76-89)
-        cp[5686] = 0x8E42; // 蹂 (76-90)
-        cp[5687] = 0x8E35; // 踵 (76-91)
-        cp[5688] = 0x8E30; // 踰 (76-92)
-        cp[5689] = 0x8E34; // 踴 (76-93)
-        cp[5690] = 0x8E4A; // 蹊 (76-94)
-        cp[5691] = 0x8E47; // 蹇 (77-01)
-        cp[5692] = 0x8E49; // 蹉 (77-02)
-        cp[5693] = 0x8E4C; // 蹌 (77-03)
-        cp[5694] = 0x8E50; // 蹐 (77-04)
-        cp[5695] = 0x8E48; // 蹈 (77-05)
-        cp[5696] = 0x8E59; // 蹙 (77-06)
-        cp[5697] = 0x8E64; // 蹤 (77-07)
-        cp[5698] = 0x8E60; // 蹠 (77-08)
-        cp[5699] = 0x8E2A; // 踪 (77-09)
-        cp[5700] = 0x8E63; // 蹣 (77-10)
-        cp[5701] = 0x8E55; // 蹕 (77-11)
-        cp[5702] = 0x8E76; // 蹶 (77-12)
-        cp[5703] = 0x8E72; // 蹲 (77-13)
-        cp[5704] = 0x8E7C; // 蹼 (77-14)
-        cp[5705] = 0x8E81; // 躁 (77-15)
-        cp[5706] = 0x8E87; // 躇 (77-16)
-        cp[5707] = 0x8E85; // 躅 (77-17)
-        cp[5708] = 0x8E84; // 躄 (77-18)
-        cp[5709] = 0x8E8B; // 躋 (77-19)
-        cp[5710] = 0x8E8A; // 躊 (77-20)
-        cp[5711] = 0x8E93; // 躓 (77-21)
-        cp[5712] = 0x8E91; // 躑 (77-22)
-        cp[5713] = 0x8E94; // 躔 (77-23)
-        cp[5714] = 0x8E99; // 躙 (77-24)
-        cp[5715] = 0x8EAA; // 躪 (77-25)
-        cp[5716] = 0x8EA1; // 躡 (77-26)
-        cp[5717] = 0x8EAC; // 躬 (77-27)
-        cp[5718] = 0x8EB0; // 躰 (77-28)
-        cp[5719] = 0x8EC6; // 軆 (77-29)
-        cp[5720] = 0x8EB1; // 躱 (77-30)
-        cp[5721] = 0x8EBE; // 躾 (77-31)
-        cp[5722] = 0x8EC5; // 軅 (77-32)
-        cp[5723] = 0x8EC8; // 軈 (77-33)
-        cp[5724] = 0x8ECB; // 軋 (77-34)
-        cp[5725] = 0x8EDB; // 軛 (77-35)
-        cp[5726] = 0x8EE3; // 軣 (77-36)
-        cp[5727] = 0x8EFC; // 軼 (77-37)
-        cp[5728] = 0x8EFB; // 軻 (77-38)
-        cp[5729] = 0x8EEB; // 軫 (77-39)
-        cp[5730] = 0x8EFE; // 軾 (77-40)
-        cp[5731] = 0x8F0A; // 輊 (77-41)
-        cp[5732] = 0x8F05; // 輅 (77-42)
-        cp[5733] = 0x8F15; // 輕 (77-43)
-        cp[5734] = 0x8F12; // 輒 (77-44)
-        cp[5735] = 0x8F19; // 輙 (77-45)
-        cp[5736] = 0x8F13; // 輓 (77-46)
-        cp[5737] = 0x8F1C; // 輜 (77-47)
-        cp[5738] = 0x8F1F; // 輟 (77-48)
-        cp[5739] = 0x8F1B; // 輛 (77-49)
-        cp[5740] = 0x8F0C; // 輌 (77-50)
-        cp[5741] = 0x8F26; // 輦 (77-51)
-        cp[5742] = 0x8F33; // 輳 (77-52)
-        cp[5743] = 0x8F3B; // 輻 (77-53)
-        cp[5744] = 0x8F39; // 輹 (77-54)
-        cp[5745] = 0x8F45; // 轅 (77-55)
-        cp[5746] = 0x8F42; // 轂 (77-56)
-        cp[5747] = 0x8F3E; // 輾 (77-57)
-        cp[5748] = 0x8F4C; // 轌 (77-58)
-        cp[5749] = 0x8F49; // 轉 (77-59)
-        cp[5750] = 0x8F46; // 轆 (77-60)
-        cp[5751] = 0x8F4E; // 轎 (77-61)
-        cp[5752] = 0x8F57; // 轗 (77-62)
-        cp[5753] = 0x8F5C; // 轜 (77-63)
-        cp[5754] = 0x8F62; // 轢 (77-64)
-        cp[5755] = 0x8F63; // 轣 (77-65)
-        cp[5756] = 0x8F64; // 轤 (77-66)
-        cp[5757] = 0x8F9C; // 辜 (77-67)
-        cp[5758] = 0x8F9F; // 辟 (77-68)
-        cp[5759] = 0x8FA3; // 辣 (77-69)
-        cp[5760] = 0x8FAD; // 辭 (77-70)
-        cp[5761] = 0x8FAF; // 辯 (77-71)
-        cp[5762] = 0x8FB7; // 辷 (77-72)
-        cp[5763] = 0x8FDA; // 迚 (77-73)
-        cp[5764] = 0x8FE5; // 迥 (77-74)
-        cp[5765] = 0x8FE2; // 迢 (77-75)
-        cp[5766] = 0x8FEA; // 迪 (77-76)
-        cp[5767] = 0x8FEF; // 迯 (77-77)
-        cp[5768] = 0x9087; // 邇 (77-78)
-        cp[5769] = 0x8FF4; // 迴 (77-79)
-        cp[5770] = 0x9005; // 逅 (77-80)
-        cp[5771] = 0x8FF9; // 迹 (77-81)
-        cp[5772] = 0x8FFA; // 迺 (77-82)
-        cp[5773] = 0x9011; // 逑 (77-83)
-        cp[5774] = 0x9015; // 逕 (77-84)
-        cp[5775] = 0x9021; // 逡 (77-85)
-        cp[5776] = 0x900D; // 逍 (77-86)
-        cp[5777] = 0x901E; // 逞 (77-87)
-        cp[5778] = 0x9016; // 逖 (77-88)
-        cp[5779] = 0x900B; // 逋 (77-89)
-        cp[5780] = 0x9027; // 逧 (77-90)
-        cp[5781] = 0x9036; // 逶 (77-91)
-        cp[5782] = 0x9035; // 逵 (77-92)
-        cp[5783] = 0x9039; // 逹 (77-93)
-        cp[5784] = 0x8FF8; // 迸 (77-94)
-        cp[5785] = 0x904F; // 遏 (78-01)
-        cp[5786] = 0x9050; // 遐 (78-02)
-        cp[5787] = 0x9051; // 遑 (78-03)
-        cp[5788] = 0x9052; // 遒 (78-04)
-        cp[5789] = 0x900E; // 逎 (78-05)
-        cp[5790] = 0x9049; // 遉 (78-06)
-        cp[5791] = 0x903E; // 逾 (78-07)
-        cp[5792] = 0x9056; // 遖 (78-08)
-        cp[5793] = 0x9058; // 遘 (78-09)
-        cp[5794] = 0x905E; // 遞 (78-10)
-        cp[5795] = 0x9068; // 遨 (78-11)
-        cp[5796] = 0x906F; // 遯 (78-12)
-        cp[5797] = 0x9076; // 遶 (78-13)
-        cp[5798] = 0x96A8; // 隨 (78-14)
-        cp[5799] = 0x9072; // 遲 (78-15)
-        cp[5800] = 0x9082; // 邂 (78-16)
-        cp[5801] = 0x907D; // 遽 (78-17)
-        cp[5802] = 0x9081; // 邁 (78-18)
-        cp[5803] = 0x9080; // 邀 (78-19)
-        cp[5804] = 0x908A; // 邊 (78-20)
-        cp[5805] = 0x9089; // 邉 (78-21)
-        cp[5806] = 0x908F; // 邏 (78-22)
-        cp[5807] = 0x90A8; // 邨 (78-23)
-        cp[5808] = 0x90AF; // 邯 (78-24)
-        cp[5809] = 0x90B1; // 邱 (78-25)
-        cp[5810] = 0x90B5; // 邵 (78-26)
-        cp[5811] = 0x90E2; // 郢 (78-27)
-        cp[5812] = 0x90E4; // 郤 (78-28)
-        cp[5813] = 0x6248; // 扈 (78-29)
-        cp[5814] = 0x90DB; // 郛 (78-30)
-        cp[5815] = 0x9102; // 鄂 (78-31)
-        cp[5816] = 0x9112; // 鄒 (78-32)
-        cp[5817] = 0x9119; // 鄙 (78-33)
-        cp[5818] = 0x9132; // 鄲 (78-34)
-        cp[5819] = 0x9130; // 鄰 (78-35)
-        cp[5820] = 0x914A; // 酊 (78-36)
-        cp[5821] = 0x9156; // 酖 (78-37)
-        cp[5822] = 0x9158; // 酘 (78-38)
-        cp[5823] = 0x9163; // 酣 (78-39)
-        cp[5824] = 0x9165; // 酥 (78-40)
-        cp[5825] = 0x9169; // 酩 (78-41)
-        cp[5826] = 0x9173; // 酳 (78-42)
-        cp[5827] = 0x9172; // 酲 (78-43)
-        cp[5828] = 0x918B; // 醋 (78-44)
-        cp[5829] = 0x9189; // 醉 (78-45)
-        cp[5830] = 0x9182; // 醂 (78-46)
-        cp[5831] = 0x91A2; // 醢 (78-47)
-        cp[5832] = 0x91AB; // 醫 (78-48)
-        cp[5833] = 0x91AF; // 醯 (78-49)
-        cp[5834] = 0x91AA; // 醪 (78-50)
-        cp[5835] = 0x91B5; // 醵 (78-51)
-        cp[5836] = 0x91B4; // 醴 (78-52)
-        cp[5837] = 0x91BA; // 醺 (78-53)
-        cp[5838] = 0x91C0; // 釀 (78-54)
-        cp[5839] = 0x91C1; // 釁 (78-55)
-        cp[5840] = 0x91C9; // 釉 (78-56)
-        cp[5841] = 0x91CB; // 釋 (78-57)
-        cp[5842] = 0x91D0; // 釐 (78-58)
-        cp[5843] = 0x91D6; // 釖 (78-59)
-        cp[5844] = 0x91DF; // 釟 (78-60)
-        cp[5845] = 0x91E1; // 釡 (78-61)
-        cp[5846] = 0x91DB; // 釛 (78-62)
-        cp[5847] = 0x91FC; // 釼 (78-63)
-        cp[5848] = 0x91F5; // 釵 (78-64)
-        cp[5849] = 0x91F6; // 釶 (78-65)
-        cp[5850] = 0x921E; // 鈞 (78-66)
-        cp[5851] = 0x91FF; // 釿 (78-67)
-        cp[5852] = 0x9214; // 鈔 (78-68)
-        cp[5853] = 0x922C; // 鈬 (78-69)
-        cp[5854] = 0x9215; // 鈕 (78-70)
-        cp[5855] = 0x9211; // 鈑 (78-71)
-        cp[5856] = 0x925E; // 鉞 (78-72)
-        cp[5857] = 0x9257; // 鉗 (78-73)
-        cp[5858] = 0x9245; // 鉅 (78-74)
-        cp[5859] = 0x9249; // 鉉 (78-75)
-        cp[5860] = 0x9264; // 鉤 (78-76)
-        cp[5861] = 0x9248; // 鉈 (78-77)
-        cp[5862] = 0x9295; // 銕 (78-78)
-        cp[5863] = 0x923F; // 鈿 (78-79)
-        cp[5864] = 0x924B; // 鉋 (78-80)
-        cp[5865] = 0x9250; // 鉐 (78-81)
-        cp[5866] = 0x929C; // 銜 (78-82)
-        cp[5867] = 0x9296; // 銖 (78-83)
-        cp[5868] = 0x9293; // 銓 (78-84)
-        cp[5869] = 0x929B; // 銛 (78-85)
-        cp[5870] = 0x925A; // 鉚 (78-86)
-        cp[5871] = 0x92CF; // 鋏 (78-87)
-        cp[5872] = 0x92B9; // 銹 (78-88)
-        cp[5873] = 0x92B7; // 銷 (78-89)
-        cp[5874] = 0x92E9; // 鋩 (78-90)
-        cp[5875] = 0x930F; // 錏 (78-91)
-        cp[5876] = 0x92FA; // 鋺 (78-92)
-        cp[5877] = 0x9344; // 鍄 (78-93)
-        cp[5878] = 0x932E; // 錮 (78-94)
-        cp[5879] = 0x9319; // 錙 (79-01)
-        cp[5880] = 0x9322; // 錢 (79-02)
-        cp[5881] = 0x931A; // 錚 (79-03)
-        cp[5882] = 0x9323; // 錣 (79-04)
-        cp[5883] = 0x933A; // 錺 (79-05)
-        cp[5884] = 0x9335; // 錵 (79-06)
-        cp[5885] = 0x933B; // 錻 (79-07)
-        cp[5886] = 0x935C; // 鍜 (79-08)
-        cp[5887] = 0x9360; // 鍠 (79-09)
-        cp[5888] = 0x937C; // 鍼 (79-10)
-        cp[5889] = 0x936E; // 鍮 (79-11)
-        cp[5890] = 0x9356; // 鍖 (79-12)
-        cp[5891] = 0x93B0; // 鎰 (79-13)
-        cp[5892] = 0x93AC; // 鎬 (79-14)
-        cp[5893] = 0x93AD; // 鎭 (79-15)
-        cp[5894] = 0x9394; // 鎔 (79-16)
-        cp[5895] = 0x93B9; // 鎹 (79-17)
-        cp[5896] = 0x93D6; // 鏖 (79-18)
-        cp[5897] = 0x93D7; // 鏗 (79-19)
-        cp[5898] = 0x93E8; // 鏨 (79-20)
-        cp[5899] = 0x93E5; // 鏥 (79-21)
-        cp[5900] = 0x93D8; // 鏘 (79-22)
-        cp[5901] = 0x93C3; // 鏃 (79-23)
-        cp[5902] = 0x93DD; // 鏝 (79-24)
-        cp[5903] = 0x93D0; // 鏐 (79-25)
-        cp[5904] = 0x93C8; // 鏈 (79-26)
-        cp[5905] = 0x93E4; // 鏤 (79-27)
-        cp[5906] = 0x941A; // 鐚 (79-28)
-        cp[5907] = 0x9414; // 鐔 (79-29)
-        cp[5908] = 0x9413; // 鐓 (79-30)
-        cp[5909] = 0x9403; // 鐃 (79-31)
-        cp[5910] = 0x9407; // 鐇 (79-32)
-        cp[5911] = 0x9410; // 鐐 (79-33)
-        cp[5912] = 0x9436; // 鐶 (79-34)
-        cp[5913] = 0x942B; // 鐫 (79-35)
-        cp[5914] = 0x9435; // 鐵 (79-36)
-        cp[5915] = 0x9421; // 鐡 (79-37)
-        cp[5916] = 0x943A; // 鐺 (79-38)
-        cp[5917] = 0x9441; // 鑁 (79-39)
-        cp[5918] = 0x9452; // 鑒 (79-40)
-        cp[5919] = 0x9444; // 鑄 (79-41)
-        cp[5920] = 0x945B; // 鑛 (79-42)
-        cp[5921] = 0x9460; // 鑠 (79-43)
-        cp[5922] = 0x9462; // 鑢 (79-44)
-        cp[5923] = 0x945E; // 鑞 (79-45)
-        cp[5924] = 0x946A; // 鑪 (79-46)
-        cp[5925] = 0x9229; // 鈩 (79-47)
-        cp[5926] = 0x9470; // 鑰 (79-48)
-        cp[5927] = 0x9475; // 鑵 (79-49)
-        cp[5928] = 0x9477; // 鑷 (79-50)
-        cp[5929] = 0x947D; // 鑽 (79-51)
-        cp[5930] = 0x945A; // 鑚 (79-52)
-        cp[5931] = 0x947C; // 鑼 (79-53)
-        cp[5932] = 0x947E; // 鑾 (79-54)
-        cp[5933] = 0x9481; // 钁 (79-55)
-        cp[5934] = 0x947F; // 鑿 (79-56)
-        cp[5935] = 0x9582; // 閂 (79-57)
-        cp[5936] = 0x9587; // 閇 (79-58)
-        cp[5937] = 0x958A; // 閊 (79-59)
-        cp[5938] = 0x9594; // 閔 (79-60)
-        cp[5939] = 0x9596; // 閖 (79-61)
-        cp[5940] = 0x9598; // 閘 (79-62)
-        cp[5941] = 0x9599; // 閙 (79-63)
-        cp[5942] = 0x95A0; // 閠 (79-64)
-        cp[5943] = 0x95A8; // 閨 (79-65)
-        cp[5944] = 0x95A7; // 閧 (79-66)
-        cp[5945] = 0x95AD; // 閭 (79-67)
-        cp[5946] = 0x95BC; // 閼 (79-68)
-        cp[5947] = 0x95BB; // 閻 (79-69)
-        cp[5948] = 0x95B9; // 閹 (79-70)
-        cp[5949] = 0x95BE; // 閾 (79-71)
-        cp[5950] = 0x95CA; // 闊 (79-72)
-        cp[5951] = 0x6FF6; // 濶 (79-73)
-        cp[5952] = 0x95C3; // 闃 (79-74)
-        cp[5953] = 0x95CD; // 闍 (79-75)
-        cp[5954] = 0x95CC; // 闌 (79-76)
-        cp[5955] = 0x95D5; // 闕 (79-77)
-        cp[5956] = 0x95D4; // 闔 (79-78)
-        cp[5957] = 0x95D6; // 闖 (79-79)
-        cp[5958] = 0x95DC; // 關 (79-80)
-        cp[5959] = 0x95E1; // 闡 (79-81)
-        cp[5960] = 0x95E5; // 闥 (79-82)
-        cp[5961] = 0x95E2; // 闢 (79-83)
-        cp[5962] = 0x9621; // 阡 (79-84)
-        cp[5963] = 0x9628; // 阨 (79-85)
-        cp[5964] = 0x962E; // 阮 (79-86)
-        cp[5965] = 0x962F; // 阯 (79-87)
-        cp[5966] = 0x9642; // 陂 (79-88)
-        cp[5967] = 0x964C; // 陌 (79-89)
-        cp[5968] = 0x964F; // 陏 (79-90)
-        cp[5969] = 0x964B; // 陋 (79-91)
-        cp[5970] = 0x9677; // 陷 (79-92)
-        cp[5971] = 0x965C; // 陜 (79-93)
-        cp[5972] = 0x965E; // 陞 (79-94)
-        cp[5973] = 0x965D; // 陝 (80-01)
-        cp[5974] = 0x965F; // 陟 (80-02)
-        cp[5975] = 0x9666; // 陦 (80-03)
-        cp[5976] = 0x9672; // 陲 (80-04)
-        cp[5977] = 0x966C; // 陬 (80-05)
-        cp[5978] = 0x968D; // 隍 (80-06)
-        cp[5979] = 0x9698; // 隘 (80-07)
-        cp[5980] = 0x9695; // 隕 (80-08)
-        cp[5981] = 0x9697; // 隗 (80-09)
-        cp[5982] = 0x96AA; // 險 (80-10)
-        cp[5983] = 0x96A7; // 隧 (80-11)
-        cp[5984] = 0x96B1; // 隱 (80-12)
-        cp[5985] = 0x96B2; // 隲 (80-13)
-        cp[5986] = 0x96B0; // 隰 (80-14)
-        cp[5987] = 0x96B4; // 隴 (80-15)
-        cp[5988] = 0x96B6; // 隶 (80-16)
-        cp[5989] = 0x96B8; // 隸 (80-17)
-        cp[5990] = 0x96B9; // 隹 (80-18)
-        cp[5991] = 0x96CE; // 雎 (80-19)
-        cp[5992] = 0x96CB; // 雋 (80-20)
-        cp[5993] = 0x96C9; // 雉 (80-21)
-        cp[5994] = 0x96CD; // 雍 (80-22)
-        cp[5995] = 0x894D; // 襍 (80-23)
-        cp[5996] = 0x96DC; // 雜 (80-24)
-        cp[5997] = 0x970D; // 霍 (80-25)
-        cp[5998] = 0x96D5; // 雕 (80-26)
-        cp[5999] = 0x96F9; // 雹 (80-27)
-        return t6(cp);
-    }
-
-    private static Integer[] t6(Integer[] cp) {
-        cp[6000] = 0x9704; // 霄 (80-28)
-        cp[6001] = 0x9706; // 霆 (80-29)
-        cp[6002] = 0x9708; // 霈 (80-30)
-        cp[6003] = 0x9713; // 霓 (80-31)
-        cp[6004] = 0x970E; // 霎 (80-32)
-        cp[6005] = 0x9711; // 霑 (80-33)
-        cp[6006] = 0x970F; // 霏 (80-34)
-        cp[6007] = 0x9716; // 霖 (80-35)
-        cp[6008] = 0x9719; // 霙 (80-36)
-        cp[6009] = 0x9724; // 霤 (80-37)
-        cp[6010] = 0x972A; // 霪 (80-38)
-        cp[6011] = 0x9730; // 霰 (80-39)
-        cp[6012] = 0x9739; // 霹 (80-40)
-        cp[6013] = 0x973D; // 霽 (80-41)
-        cp[6014] = 0x973E; // 霾 (80-42)
-        cp[6015] = 0x9744; // 靄 (80-43)
-        cp[6016] = 0x9746; // 靆 (80-44)
-        cp[6017] = 0x9748; // 靈 (80-45)
-        cp[6018] = 0x9742; // 靂 (80-46)
-        cp[6019] = 0x9749; // 靉 (80-47)
-        cp[6020] = 0x975C; // 靜 (80-48)
-        cp[6021] = 0x9760; // 靠 (80-49)
-        cp[6022] = 0x9764; // 靤 (80-50)
-        cp[6023] = 0x9766; // 靦 (80-51)
-        cp[6024] = 0x9768; // 靨 (80-52)
-        cp[6025] = 0x52D2; // 勒 (80-53)
-        cp[6026] = 0x976B; // 靫 (80-54)
-        cp[6027] = 0x9771; // 靱 (80-55)
-        cp[6028] = 0x9779; // 靹 (80-56)
-        cp[6029] = 0x9785; // 鞅 (80-57)
-        cp[6030] = 0x977C; // 靼 (80-58)
-        cp[6031] = 0x9781; // 鞁 (80-59)
-        cp[6032] = 0x977A; // 靺 (80-60)
-        cp[6033] = 0x9786; // 鞆 (80-61)
-        cp[6034] = 0x978B; // 鞋 (80-62)
-        cp[6035] = 0x978F; // 鞏 (80-63)
-        cp[6036] = 0x9790; // 鞐 (80-64)
-        cp[6037] = 0x979C; // 鞜 (80-65)
-        cp[6038] = 0x97A8; // 鞨 (80-66)
-        cp[6039] = 0x97A6; // 鞦 (80-67)
-        cp[6040] = 0x97A3; // 鞣 (80-68)
-        cp[6041] = 0x97B3; // 鞳 (80-69)
-        cp[6042] = 0x97B4; // 鞴 (80-70)
-        cp[6043] = 0x97C3; // 韃 (80-71)
-        cp[6044] = 0x97C6; // 韆 (80-72)
-        cp[6045] = 0x97C8; // 韈 (80-73)
-        cp[6046] = 0x97CB; // 韋 (80-74)
-        cp[6047] = 0x97DC; // 韜 (80-75)
-        cp[6048] = 0x97ED; // 韭 (80-76)
-        cp[6049] = 0x9F4F; // 齏 (80-77)
-        cp[6050] = 0x97F2; // 韲 (80-78)
-        cp[6051] = 0x7ADF; // 竟 (80-79)
-        cp[6052] = 0x97F6; // 韶 (80-80)
-        cp[6053] = 0x97F5; // 韵 (80-81)
-        cp[6054] = 0x980F; // 頏 (80-82)
-        cp[6055] = 0x980C; // 頌 (80-83)
-        cp[6056] = 0x9838; // 頸 (80-84)
-        cp[6057] = 0x9824; // 頤 (80-85)
-        cp[6058] = 0x9821; // 頡 (80-86)
-        cp[6059] = 0x9837; // 頷 (80-87)
-        cp[6060] = 0x983D; // 頽 (80-88)
-        cp[6061] = 0x9846; // 顆 (80-89)
-        cp[6062] = 0x984F; // 顏 (80-90)
-        cp[6063] = 0x984B; // 顋 (80-91)
-        cp[6064] = 0x986B; // 顫 (80-92)
-        cp[6065] = 0x986F; // 顯 (80-93)
-        cp[6066] = 0x9870; // 顰 (80-94)
-        cp[6067] = 0x9871; // 顱 (81-01)
-        cp[6068] = 0x9874; // 顴 (81-02)
-        cp[6069] = 0x9873; // 顳 (81-03)
-        cp[6070] = 0x98AA; // 颪 (81-04)
-        cp[6071] = 0x98AF; // 颯 (81-05)
-        cp[6072] = 0x98B1; // 颱 (81-06)
-        cp[6073] = 0x98B6; // 颶 (81-07)
-        cp[6074] = 0x98C4; // 飄 (81-08)
-        cp[6075] = 0x98C3; // 飃 (81-09)
-        cp[6076] = 0x98C6; // 飆 (81-10)
-        cp[6077] = 0x98E9; // 飩 (81-11)
-        cp[6078] = 0x98EB; // 飫 (81-12)
-        cp[6079] = 0x9903; // 餃 (81-13)
-        cp[6080] = 0x9909; // 餉 (81-14)
-        cp[6081] = 0x9912; // 餒 (81-15)
-        cp[6082] = 0x9914; // 餔 (81-16)
-        cp[6083] = 0x9918; // 餘 (81-17)
-        cp[6084] = 0x9921; // 餡 (81-18)
-        cp[6085] = 0x991D; // 餝 (81-19)
-        cp[6086] = 0x991E; // 餞 (81-20)
-        cp[6087] = 0x9924; // 餤 (81-21)
-        cp[6088] = 0x9920; // 餠 (81-22)
-        cp[6089] = 0x992C; // 餬 (81-23)
-        cp[6090] = 0x992E; // 餮 (81-24)
-        cp[6091] = 0x993D; // 餽 (81-25)
-        cp[6092] = 0x993E; // 餾 (81-26)
-        cp[6093] = 0x9942; // 饂 (81-27)
-        cp[6094] = 0x9949; // 饉 (81-28)
-        cp[6095] = 0x9945; // 饅 (81-29)
-        cp[6096] = 0x9950; // 饐 (81-30)
-        cp[6097] = 0x994B; // 饋 (81-31)
-        cp[6098] = 0x9951; // 饑 (81-32)
-        cp[6099] = 0x9952; // 饒 (81-33)
-        cp[6100] = 0x994C; // 饌 (81-34)
-        cp[6101] = 0x9955; // 饕 (81-35)
-        cp[6102] = 0x9997; // 馗 (81-36)
-        cp[6103] = 0x9998; // 馘 (81-37)
-        cp[6104] = 0x99A5; // 馥 (81-38)
-        cp[6105] = 0x99AD; // 馭 (81-39)
-        cp[6106] = 0x99AE; // 馮 (81-40)
-        cp[6107] = 0x99BC; // 馼 (81-41)
-        cp[6108] = 0x99DF; // 駟 (81-42)
-        cp[6109] = 0x99DB; // 駛 (81-43)
-        cp[6110] = 0x99DD; // 駝 (81-44)
-        cp[6111] = 0x99D8; // 駘 (81-45)
-        cp[6112] = 0x99D1; // 駑 (81-46)
-        cp[6113] = 0x99ED; // 駭 (81-47)
-        cp[6114] = 0x99EE; // 駮 (81-48)
-        cp[6115] = 0x99F1; // 駱 (81-49)
-        cp[6116] = 0x99F2; // 駲 (81-50)
-        cp[6117] = 0x99FB; // 駻 (81-51)
-        cp[6118] = 0x99F8; // 駸 (81-52)
-        cp[6119] = 0x9A01; // 騁 (81-53)
-        cp[6120] = 0x9A0F; // 騏 (81-54)
-        cp[6121] = 0x9A05; // 騅 (81-55)
-        cp[6122] = 0x99E2; // 駢 (81-56)
-        cp[6123] = 0x9A19; // 騙 (81-57)
-        cp[6124] = 0x9A2B; // 騫 (81-58)
-        cp[6125] = 0x9A37; // 騷 (81-59)
-        cp[6126] = 0x9A45; // 驅 (81-60)
-        cp[6127] = 0x9A42; // 驂 (81-61)
-        cp[6128] = 0x9A40; // 驀 (81-62)
-        cp[6129] = 0x9A43; // 驃 (81-63)
-        cp[6130] = 0x9A3E; // 騾 (81-64)
-        cp[6131] = 0x9A55; // 驕 (81-65)
-        cp[6132] = 0x9A4D; // 驍 (81-66)
-        cp[6133] = 0x9A5B; // 驛 (81-67)
-        cp[6134] = 0x9A57; // 驗 (81-68)
-        cp[6135] = 0x9A5F; // 驟 (81-69)
-        cp[6136] = 0x9A62; // 驢 (81-70)
-        cp[6137] = 0x9A65; // 驥 (81-71)
-        cp[6138] = 0x9A64; // 驤 (81-72)
-        cp[6139] = 0x9A69; // 驩 (81-73)
-        cp[6140] = 0x9A6B; // 驫 (81-74)
-        cp[6141] = 0x9A6A; // 驪 (81-75)
-        cp[6142] = 0x9AAD; // 骭 (81-76)
-        cp[6143] = 0x9AB0; // 骰 (81-77)
-        cp[6144] = 0x9ABC; // 骼 (81-78)
-        cp[6145] = 0x9AC0; // 髀 (81-79)
-        cp[6146] = 0x9ACF; // 髏 (81-80)
-        cp[6147] = 0x9AD1; // 髑 (81-81)
-        cp[6148] = 0x9AD3; // 髓 (81-82)
-        cp[6149] = 0x9AD4; // 體 (81-83)
-        cp[6150] = 0x9ADE; // 髞 (81-84)
-        cp[6151] = 0x9ADF; // 髟 (81-85)
-        cp[6152] = 0x9AE2; // 髢 (81-86)
-        cp[6153] = 0x9AE3; // 髣 (81-87)
-        cp[6154] = 0x9AE6; // 髦 (81-88)
-        cp[6155] = 0x9AEF; // 髯 (81-89)
-        cp[6156] = 0x9AEB; // 髫 (81-90)
-        cp[6157] = 0x9AEE; // 髮 (81-91)
-        cp[6158] = 0x9AF4; // 髴 (81-92)
-        cp[6159] = 0x9AF1; // 髱 (81-93)
-        cp[6160] = 0x9AF7; // 髷 (81-94)
-        cp[6161] = 0x9AFB; // 髻 (82-01)
-        cp[6162] = 0x9B06; // 鬆 (82-02)
-        cp[6163] = 0x9B18; // 鬘 (82-03)
-        cp[6164] = 0x9B1A; // 鬚 (82-04)
-        cp[6165] = 0x9B1F; // 鬟 (82-05)
-        cp[6166] = 0x9B22; // 鬢 (82-06)
-        cp[6167] = 0x9B23; // 鬣 (82-07)
-        cp[6168] = 0x9B25; // 鬥 (82-08)
-        cp[6169] = 0x9B27; // 鬧 (82-09)
-        cp[6170] = 0x9B28; // 鬨 (82-10)
-        cp[6171] = 0x9B29; // 鬩 (82-11)
-        cp[6172] = 0x9B2A; // 鬪 (82-12)
-        cp[6173] = 0x9B2E; // 鬮 (82-13)
-        cp[6174] = 0x9B2F; // 鬯 (82-14)
-        cp[6175] = 0x9B32; // 鬲 (82-15)
-        cp[6176] = 0x9B44; // 魄 (82-16)
-        cp[6177] = 0x9B43; // 魃 (82-17)
-        cp[6178] = 0x9B4F; // 魏 (82-18)
-        cp[6179] = 0x9B4D; // 魍 (82-19)
-        cp[6180] = 0x9B4E; // 魎 (82-20)
-        cp[6181] = 0x9B51; // 魑 (82-21)
-        cp[6182] = 0x9B58; // 魘 (82-22)
-        cp[6183] = 0x9B74; // 魴 (82-23)
-        cp[6184] = 0x9B93; // 鮓 (82-24)
-        cp[6185] = 0x9B83; // 鮃 (82-25)
-        cp[6186] = 0x9B91; // 鮑 (82-26)
-        cp[6187] = 0x9B96; // 鮖 (82-27)
-        cp[6188] = 0x9B97; // 鮗 (82-28)
-        cp[6189] = 0x9B9F; // 鮟 (82-29)
-        cp[6190] = 0x9BA0; // 鮠 (82-30)
-        cp[6191] = 0x9BA8; // 鮨 (82-31)
-        cp[6192] = 0x9BB4; // 鮴 (82-32)
-        cp[6193] = 0x9BC0; // 鯀 (82-33)
-        cp[6194] = 0x9BCA; // 鯊 (82-34)
-        cp[6195] = 0x9BB9; // 鮹 (82-35)
-        cp[6196] = 0x9BC6; // 鯆 (82-36)
-        cp[6197] = 0x9BCF; // 鯏 (82-37)
-        cp[6198] = 0x9BD1; // 鯑 (82-38)
-        cp[6199] = 0x9BD2; // 鯒 (82-39)
-        cp[6200] = 0x9BE3; // 鯣 (82-40)
-        cp[6201] = 0x9BE2; // 鯢 (82-41)
-        cp[6202] = 0x9BE4; // 鯤 (82-42)
-        cp[6203] = 0x9BD4; // 鯔 (82-43)
-        cp[6204] = 0x9BE1; // 鯡 (82-44)
-        cp[6205] = 0x9C3A; // 鰺 (82-45)
-        cp[6206] = 0x9BF2; // 鯲 (82-46)
-        cp[6207] = 0x9BF1; // 鯱 (82-47)
-        cp[6208] = 0x9BF0; // 鯰 (82-48)
-        cp[6209] = 0x9C15; // 鰕 (82-49)
-        cp[6210] = 0x9C14; // 鰔 (82-50)
-        cp[6211] = 0x9C09; // 鰉 (82-51)
-        cp[6212] = 0x9C13; // 鰓 (82-52)
-        cp[6213] = 0x9C0C; // 鰌 (82-53)
-        cp[6214] = 0x9C06; // 鰆 (82-54)
-        cp[6215] = 0x9C08; // 鰈 (82-55)
-        cp[6216] = 0x9C12; // 鰒 (82-56)
-        cp[6217] = 0x9C0A; // 鰊 (82-57)
-        cp[6218] = 0x9C04; // 鰄 (82-58)
-        cp[6219] = 0x9C2E; // 鰮 (82-59)
-        cp[6220] = 0x9C1B; // 鰛 (82-60)
-        cp[6221] = 0x9C25; // 鰥 (82-61)
-        cp[6222] = 0x9C24; // 鰤 (82-62)
-        cp[6223] = 0x9C21; // 鰡 (82-63)
-        cp[6224] = 0x9C30; // 鰰 (82-64)
-        cp[6225] = 0x9C47; // 鱇 (82-65)
-        cp[6226] = 0x9C32; // 鰲 (82-66)
-        cp[6227] = 0x9C46; // 鱆 (82-67)
-        cp[6228] = 0x9C3E; // 鰾 (82-68)
-        cp[6229] = 0x9C5A; // 鱚 (82-69)
-        cp[6230] = 0x9C60; // 鱠 (82-70)
-        cp[6231] = 0x9C67; // 鱧 (82-71)
-        cp[6232] = 0x9C76; // 鱶 (82-72)
-        cp[6233] = 0x9C78; // 鱸 (82-73)
-        cp[6234] = 0x9CE7; // 鳧 (82-74)
-        cp[6235] = 0x9CEC; // 鳬 (82-75)
-        cp[6236] = 0x9CF0; // 鳰 (82-76)
-        cp[6237] = 0x9D09; // 鴉 (82-77)
-        cp[6238] = 0x9D08; // 鴈 (82-78)
-        cp[6239] = 0x9CEB; // 鳫 (82-79)
-        cp[6240] = 0x9D03; // 鴃 (82-80)
-        cp[6241] = 0x9D06; // 鴆 (82-81)
-        cp[6242] = 0x9D2A; // 鴪 (82-82)
-        cp[6243] = 0x9D26; // 鴦 (82-83)
-        cp[6244] = 0x9DAF; // 鶯 (82-84)
-        cp[6245] = 0x9D23; // 鴣 (82-85)
-        cp[6246] = 0x9D1F; // 鴟 (82-86)
-        cp[6247] = 0x9D44; // 鵄 (82-87)
-        cp[6248] = 0x9D15; // 鴕 (82-88)
-        cp[6249] = 0x9D12; // 鴒 (82-89)
-        cp[6250] = 0x9D41; // 鵁 (82-90)
-        cp[6251] = 0x9D3F; // 鴿 (82-91)
-        cp[6252] = 0x9D3E; // 鴾 (82-92)
-        cp[6253] = 0x9D46; // 鵆 (82-93)
-        cp[6254] = 0x9D48; // 鵈 (82-94)
-        cp[6255] = 0x9D5D; // 鵝 (83-01)
-        cp[6256] = 0x9D5E; // 鵞 (83-02)
-        cp[6257] = 0x9D64; // 鵤 (83-03)
-        cp[6258] = 0x9D51; // 鵑 (83-04)
-        cp[6259] = 0x9D50; // 鵐 (83-05)
-        cp[6260] = 0x9D59; // 鵙 (83-06)
-        cp[6261] = 0x9D72; // 鵲 (83-07)
-        cp[6262] = 0x9D89; // 鶉 (83-08)
-        cp[6263] = 0x9D87; // 鶇 (83-09)
-        cp[6264] = 0x9DAB; // 鶫 (83-10)
-        cp[6265] = 0x9D6F; // 鵯 (83-11)
-        cp[6266] = 0x9D7A; // 鵺 (83-12)
-        cp[6267] = 0x9D9A; // 鶚 (83-13)
-        cp[6268] = 0x9DA4; // 鶤 (83-14)
-        cp[6269] = 0x9DA9; // 鶩 (83-15)
-        cp[6270] = 0x9DB2; // 鶲 (83-16)
-        cp[6271] = 0x9DC4; // 鷄 (83-17)
-        cp[6272] = 0x9DC1; // 鷁 (83-18)
-        cp[6273] = 0x9DBB; // 鶻 (83-19)
-        cp[6274] = 0x9DB8; // 鶸 (83-20)
-        cp[6275] = 0x9DBA; // 鶺 (83-21)
-        cp[6276] = 0x9DC6; // 鷆 (83-22)
-        cp[6277] = 0x9DCF; // 鷏 (83-23)
-        cp[6278] = 0x9DC2; // 鷂 (83-24)
-        cp[6279] = 0x9DD9; // 鷙 (83-25)
-        cp[6280] = 0x9DD3; // 鷓 (83-26)
-        cp[6281] = 0x9DF8; // 鷸 (83-27)
-        cp[6282] = 0x9DE6; // 鷦 (83-28)
-        cp[6283] = 0x9DED; // 鷭 (83-29)
-        cp[6284] = 0x9DEF; // 鷯 (83-30)
-        cp[6285] = 0x9DFD; // 鷽 (83-31)
-        cp[6286] = 0x9E1A; // 鸚 (83-32)
-        cp[6287] = 0x9E1B; // 鸛 (83-33)
-        cp[6288] = 0x9E1E; // 鸞 (83-34)
-        cp[6289] = 0x9E75; // 鹵 (83-35)
-        cp[6290] = 0x9E79; // 鹹 (83-36)
-        cp[6291] = 0x9E7D; // 鹽 (83-37)
-        cp[6292] = 0x9E81; // 麁 (83-38)
-        cp[6293] = 0x9E88; // 麈 (83-39)
-        cp[6294] = 0x9E8B; // 麋 (83-40)
-        cp[6295] = 0x9E8C; // 麌 (83-41)
-        cp[6296] = 0x9E92; // 麒 (83-42)
-        cp[6297] = 0x9E95; // 麕 (83-43)
-        cp[6298] = 0x9E91; // 麑 (83-44)
-        cp[6299] = 0x9E9D; // 麝 (83-45)
-        cp[6300] = 0x9EA5; // 麥 (83-46)
-        cp[6301] = 0x9EA9; // 麩 (83-47)
-        cp[6302] = 0x9EB8; // 麸 (83-48)
-        cp[6303] = 0x9EAA; // 麪 (83-49)
-        cp[6304] = 0x9EAD; // 麭 (83-50)
-        cp[6305] = 0x9761; // 靡 (83-51)
-        cp[6306] = 0x9ECC; // 黌 (83-52)
-        cp[6307] = 0x9ECE; // 黎 (83-53)
-        cp[6308] = 0x9ECF; // 黏 (83-54)
-        cp[6309] = 0x9ED0; // 黐 (83-55)
-        cp[6310] = 0x9ED4; // 黔 (83-56)
-        cp[6311] = 0x9EDC; // 黜 (83-57)
-        cp[6312] = 0x9EDE; // 點 (83-58)
-        cp[6313] = 0x9EDD; // 黝 (83-59)
-        cp[6314] = 0x9EE0; // 黠 (83-60)
-        cp[6315] = 0x9EE5; // 黥 (83-61)
-        cp[6316] = 0x9EE8; // 黨 (83-62)
-        cp[6317] = 0x9EEF; // 黯 (83-63)
-        cp[6318] = 0x9EF4; // 黴 (83-64)
-        cp[6319] = 0x9EF6; // 黶 (83-65)
-        cp[6320] = 0x9EF7; // 黷 (83-66)
-        cp[6321] = 0x9EF9; // 黹 (83-67)
-        cp[6322] = 0x9EFB; // 黻 (83-68)
-        cp[6323] = 0x9EFC; // 黼 (83-69)
-        cp[6324] = 0x9EFD; // 黽 (83-70)
-        cp[6325] = 0x9F07; // 鼇 (83-71)
-        cp[6326] = 0x9F08; // 鼈 (83-72)
-        cp[6327] = 0x76B7; // 皷 (83-73)
-        cp[6328] = 0x9F15; // 鼕 (83-74)
-        cp[6329] = 0x9F21; // 鼡 (83-75)
-        cp[6330] = 0x9F2C; // 鼬 (83-76)
-        cp[6331] = 0x9F3E; // 鼾 (83-77)
-        cp[6332] = 0x9F4A; // 齊 (83-78)
-        cp[6333] = 0x9F52; // 齒 (83-79)
-        cp[6334] = 0x9F54; // 齔 (83-80)
-        cp[6335] = 0x9F63; // 齣 (83-81)
-        cp[6336] = 0x9F5F; // 齟 (83-82)
-        cp[6337] = 0x9F60; // 齠 (83-83)
-        cp[6338] = 0x9F61; // 齡 (83-84)
-        cp[6339] = 0x9F66; // 齦 (83-85)
-        cp[6340] = 0x9F67; // 齧 (83-86)
-        cp[6341] = 0x9F6C; // 齬 (83-87)
-        cp[6342] = 0x9F6A; // 齪 (83-88)
-        cp[6343] = 0x9F77; // 齷 (83-89)
-        cp[6344] = 0x9F72; // 齲 (83-90)
-        cp[6345] = 0x9F76; // 齶 (83-91)
-        cp[6346] = 0x9F95; // 龕 (83-92)
-        cp[6347] = 0x9F9C; // 龜 (83-93)
-        cp[6348] = 0x9FA0; // 龠 (83-94)
-        cp[6349] = 0x582F; // 堯 (84-01)
-        cp[6350] = 0x69C7; // 槇 (84-02)
-        cp[6351] = 0x9059; // 遙 (84-03)
-        cp[6352] = 0x7464; // 瑤 (84-04)
-        cp[6353] = 0x51DC; // 凜 (84-05)
-        cp[6354] = 0x7199; // 熙 (84-06)
-        cp[6355] = 0x4FF1; // 俱 (1-14-01)
-        cp[6356] = 0x2000B; // 𠀋 (1-14-02)
-        cp[6357] = 0x3402; // 㐂 (1-14-03)
-        cp[6358] = 0x4E28; // 丨 (1-14-04)
-        cp[6359] = 0x4E2F; // 丯 (1-14-05)
-        cp[6360] = 0x4E30; // 丰 (1-14-06)
-        cp[6361] = 0x4E8D; // 亍 (1-14-07)
-        cp[6362] = 0x4EE1; // 仡 (1-14-08)
-        cp[6363] = 0x4EFD; // 份 (1-14-09)
-        cp[6364] = 0x4EFF; // 仿 (1-14-10)
-        cp[6365] = 0x4F03; // 伃 (1-14-11)
-        cp[6366] = 0x4F0B; // 伋 (1-14-12)
-        cp[6367] = 0x4F60; // 你 (1-14-13)
-        cp[6368] = 0x4F48; // 佈 (1-14-14)
-        cp[6369] = 0x4F49; // 佉 (1-14-15)
-        cp[6370] = 0x4F56; // 佖 (1-14-16)
-        cp[6371] = 0x4F5F; // 佟 (1-14-17)
-        cp[6372] = 0x4F6A; // 佪 (1-14-18)
-        cp[6373] = 0x4F6C; // 佬 (1-14-19)
-        cp[6374] = 0x4F7E; // 佾 (1-14-20)
-        cp[6375] = 0x4F8A; // 侊 (1-14-21)
-        cp[6376] = 0x4F94; // 侔 (1-14-22)
-        cp[6377] = 0x4F97; // 侗 (1-14-23)
-        cp[6378] = 0xFA30; // 侮 (1-14-24)
-        cp[6379] = 0x4FC9; // 俉 (1-14-25)
-        cp[6380] = 0x4FE0; // 俠 (1-14-26)
-        cp[6381] = 0x5001; // 倁 (1-14-27)
-        cp[6382] = 0x5002; // 倂 (1-14-28)
-        cp[6383] = 0x500E; // 倎 (1-14-29)
-        cp[6384] = 0x5018; // 倘 (1-14-30)
-        cp[6385] = 0x5027; // 倧 (1-14-31)
-        cp[6386] = 0x502E; // 倮 (1-14-32)
-        cp[6387] = 0x5040; // 偀 (1-14-33)
-        cp[6388] = 0x503B; // 倻 (1-14-34)
-        cp[6389] = 0x5041; // 偁 (1-14-35)
-        cp[6390] = 0x5094; // 傔 (1-14-36)
-        cp[6391] = 0x50CC; // 僌 (1-14-37)
-        cp[6392] = 0x50F2; // 僲 (1-14-38)
-        cp[6393] = 0x50D0; // 僐 (1-14-39)
-        cp[6394] = 0x50E6; // 僦 (1-14-40)
-        cp[6395] = 0xFA31; // 僧 (1-14-41)
-        cp[6396] = 0x5106; // 儆 (1-14-42)
-        cp[6397] = 0x5103; // 儃 (1-14-43)
-        cp[6398] = 0x510B; // 儋 (1-14-44)
-        cp[6399] = 0x511E; // 儞 (1-14-45)
-        cp[6400] = 0x5135; // 儵 (1-14-46)
-        cp[6401] = 0x514A; // 兊 (1-14-47)
-        cp[6402] = 0xFA32; // 免 (1-14-48)
-        cp[6403] = 0x5155; // 兕 (1-14-49)
-        cp[6404] = 0x5157; // 兗 (1-14-50)
-        cp[6405] = 0x34B5; // 㒵 (1-14-51)
-        cp[6406] = 0x519D; // 冝 (1-14-52)
-        cp[6407] = 0x51C3; // 凃 (1-14-53)
-        cp[6408] = 0x51CA; // 凊 (1-14-54)
-        cp[6409] = 0x51DE; // 凞 (1-14-55)
-        cp[6410] = 0x51E2; // 凢 (1-14-56)
-        cp[6411] = 0x51EE; // 凮 (1-14-57)
-        cp[6412] = 0x5201; // 刁 (1-14-58)
-        cp[6413] = 0x34DB; // 㓛 (1-14-59)
-        cp[6414] = 0x5213; // 刓 (1-14-60)
-        cp[6415] = 0x5215; // 刕 (1-14-61)
-        cp[6416] = 0x5249; // 剉 (1-14-62)
-        cp[6417] = 0x5257; // 剗 (1-14-63)
-        cp[6418] = 0x5261; // 剡 (1-14-64)
-        cp[6419] = 0x5293; // 劓 (1-14-65)
-        cp[6420] = 0x52C8; // 勈 (1-14-66)
-        cp[6421] = 0xFA33; // 勉 (1-14-67)
-        cp[6422] = 0x52CC; // 勌 (1-14-68)
-        cp[6423] = 0x52D0; // 勐 (1-14-69)
-        cp[6424] = 0x52D6; // 勖 (1-14-70)
-        cp[6425] = 0x52DB; // 勛 (1-14-71)
-        cp[6426] = 0xFA34; // 勤 (1-14-72)
-        cp[6427] = 0x52F0; // 勰 (1-14-73)
-        cp[6428] = 0x52FB; // 勻 (1-14-74)
-        cp[6429] = 0x5300; // 匀 (1-14-75)
-        cp[6430] = 0x5307; // 匇 (1-14-76)
-        cp[6431] = 0x531C; // 匜 (1-14-77)
-        cp[6432] = 0xFA35; // 卑 (1-14-78)
-        cp[6433] = 0x5361; // 卡 (1-14-79)
-        cp[6434] = 0x5363; // 卣 (1-14-80)
-        cp[6435] = 0x537D; // 卽 (1-14-81)
-        cp[6436] = 0x5393; // 厓 (1-14-82)
-        cp[6437] = 0x539D; // 厝 (1-14-83)
-        cp[6438] = 0x53B2; // 厲 (1-14-84)
-        cp[6439] = 0x5412; // 吒 (1-14-85)
-        cp[6440] = 0x5427; // 吧 (1-14-86)
-        cp[6441] = 0x544D; // 呍 (1-14-87)
-        cp[6442] = 0x549C; // 咜 (1-14-88)
-        cp[6443] = 0x546B; // 呫 (1-14-89)
-        cp[6444] = 0x5474; // 呴 (1-14-90)
-        cp[6445] = 0x547F; // 呿 (1-14-91)
-        cp[6446] = 0x5488; // 咈 (1-14-92)
-        cp[6447] = 0x5496; // 咖 (1-14-93)
-        cp[6448] = 0x54A1; // 咡 (1-14-94)
-        cp[6449] = 0x54A9; // 咩 (1-15-01)
-        cp[6450] = 0x54C6; // 哆 (1-15-02)
-        cp[6451] = 0x54FF; // 哿 (1-15-03)
-        cp[6452] = 0x550E; // 唎 (1-15-04)
-        cp[6453] = 0x552B; // 唫 (1-15-05)
-        cp[6454] = 0x5535; // 唵 (1-15-06)
-        cp[6455] = 0x5550; // 啐 (1-15-07)
-        cp[6456] = 0x555E; // 啞 (1-15-08)
-        cp[6457] = 0x5581; // 喁 (1-15-09)
-        cp[6458] = 0x5586; // 喆 (1-15-10)
-        cp[6459] = 0x558E; // 喎 (1-15-11)
-        cp[6460] = 0xFA36; // 喝 (1-15-12)
-        cp[6461] = 0x55AD; // 喭 (1-15-13)
-        cp[6462] = 0x55CE; // 嗎 (1-15-14)
-        cp[6463] = 0xFA37; // 嘆 (1-15-15)
-        cp[6464] = 0x5608; // 嘈 (1-15-16)
-        cp[6465] = 0x560E; // 嘎 (1-15-17)
-        cp[6466] = 0x563B; // 嘻 (1-15-18)
-        cp[6467] = 0x5649; // 噉 (1-15-19)
-        cp[6468] = 0x5676; // 噶 (1-15-20)
-        cp[6469] = 0x5666; // 噦 (1-15-21)
-        cp[6470] = 0xFA38; // 器 (1-15-22)
-        cp[6471] = 0x566F; // 噯 (1-15-23)
-        cp[6472] = 0x5671; // 噱 (1-15-24)
-        cp[6473] = 0x5672; // 噲 (1-15-25)
-        cp[6474] = 0x5699; // 嚙 (1-15-26)
-        cp[6475] = 0x569E; // 嚞 (1-15-27)
-        cp[6476] = 0x56A9; // 嚩 (1-15-28)
-        cp[6477] = 0x56AC; // 嚬 (1-15-29)
-        cp[6478] = 0x56B3; // 嚳 (1-15-30)
-        cp[6479] = 0x56C9; // 囉 (1-15-31)
-        cp[6480] = 0x56CA; // 囊 (1-15-32)
-        cp[6481] = 0x570A; // 圊 (1-15-33)
-        cp[6482] = 0x2123D; // 𡈽 (1-15-34)
-        cp[6483] = 0x5721; // 圡 (1-15-35)
-        cp[6484] = 0x572F; // 圯 (1-15-36)
-        cp[6485] = 0x5733; // 圳 (1-15-37)
-        cp[6486] = 0x5734; // 圴 (1-15-38)
-        cp[6487] = 0x5770; // 坰 (1-15-39)
-        cp[6488] = 0x5777; // 坷 (1-15-40)
-        cp[6489] = 0x577C; // 坼 (1-15-41)
-        cp[6490] = 0x579C; // 垜 (1-15-42)
-        cp[6491] = 0xFA0F; // 﨏 (1-15-43)
-        cp[6492] = 0x2131B; // 𡌛 (1-15-44)
-        cp[6493] = 0x57B8; // 垸 (1-15-45)
-        cp[6494] = 0x57C7; // 埇 (1-15-46)
-        cp[6495] = 0x57C8; // 埈 (1-15-47)
-        cp[6496] = 0x57CF; // 埏 (1-15-48)
-        cp[6497] = 0x57E4; // 埤 (1-15-49)
-        cp[6498] = 0x57ED; // 埭 (1-15-50)
-        cp[6499] = 0x57F5; // 埵 (1-15-51)
-        cp[6500] = 0x57F6; // 埶 (1-15-52)
-        cp[6501] = 0x57FF; // 埿 (1-15-53)
-        cp[6502] = 0x5809; // 堉 (1-15-54)
-        cp[6503] = 0xFA10; // 塚 (1-15-55)
-        cp[6504] = 0x5861; // 塡 (1-15-56)
-        cp[6505] = 0x5864; // 塤 (1-15-57)
-        cp[6506] = 0xFA39; // 塀 (1-15-58)
-        cp[6507] = 0x587C; // 塼 (1-15-59)
-        cp[6508] = 0x5889; // 墉 (1-15-60)
-        cp[6509] = 0x589E; // 增 (1-15-61)
-        cp[6510] = 0xFA3A; // 墨 (1-15-62)
-        cp[6511] = 0x58A9; // 墩 (1-15-63)
-        cp[6512] = 0x2146E; // 𡑮 (1-15-64)
-        cp[6513] = 0x58D2; // 壒 (1-15-65)
-        cp[6514] = 0x58CE; // 壎 (1-15-66)
-        cp[6515] = 0x58D4; // 壔 (1-15-67)
-        cp[6516] = 0x58DA; // 壚 (1-15-68)
-        cp[6517] = 0x58E0; // 壠 (1-15-69)
-        cp[6518] = 0x58E9; // 壩 (1-15-70)
-        cp[6519] = 0x590C; // 夌 (1-15-71)
-        cp[6520] = 0x8641; // 虁 (1-15-72)
-        cp[6521] = 0x595D; // 奝 (1-15-73)
-        cp[6522] = 0x596D; // 奭 (1-15-74)
-        cp[6523] = 0x598B; // 妋 (1-15-75)
-        cp[6524] = 0x5992; // 妒 (1-15-76)
-        cp[6525] = 0x59A4; // 妤 (1-15-77)
-        cp[6526] = 0x59C3; // 姃 (1-15-78)
-        cp[6527] = 0x59D2; // 姒 (1-15-79)
-        cp[6528] = 0x59DD; // 姝 (1-15-80)
-        cp[6529] = 0x5A13; // 娓 (1-15-81)
-        cp[6530] = 0x5A23; // 娣 (1-15-82)
-        cp[6531] = 0x5A67; // 婧 (1-15-83)
-        cp[6532] = 0x5A6D; // 婭 (1-15-84)
-        cp[6533] = 0x5A77; // 婷 (1-15-85)
-        cp[6534] = 0x5A7E; // 婾 (1-15-86)
-        cp[6535] = 0x5A84; // 媄 (1-15-87)
-        cp[6536] = 0x5A9E; // 媞 (1-15-88)
-        cp[6537] = 0x5AA7; // 媧 (1-15-89)
-        cp[6538] = 0x5AC4; // 嫄 (1-15-90)
-        cp[6539] = 0x218BD; // 𡢽 (1-15-91)
-        cp[6540] = 0x5B19; // 嬙 (1-15-92)
-        cp[6541] = 0x5B25; // 嬥 (1-15-93)
-        cp[6542] = 0x525D; // 剝 (1-15-94)
-        cp[6543] = 0x20B9F; // 𠮟 (1-47-52)
-        cp[6544] = 0x5B41; // 孁 (1-47-53)
-        cp[6545] = 0x5B56; // 孖 (1-47-54)
-        cp[6546] = 0x5B7D; // 孽 (1-47-55)
-        cp[6547] = 0x5B93; // 宓 (1-47-56)
-        cp[6548] = 0x5BD8; // 寘 (1-47-57)
-        cp[6549] = 0x5BEC; // 寬 (1-47-58)
-        cp[6550] = 0x5C12; // 尒 (1-47-59)
-        cp[6551] = 0x5C1E; // 尞 (1-47-60)
-        cp[6552] = 0x5C23; // 尣 (1-47-61)
-        cp[6553] = 0x5C2B; // 尫 (1-47-62)
-        cp[6554] = 0x378D; // 㞍 (1-47-63)
-        cp[6555] = 0x5C62; // 屢 (1-47-64)
-        cp[6556] = 0xFA3B; // 層 (1-47-65)
-        cp[6557] = 0xFA3C; // 屮 (1-47-66)
-        cp[6558] = 0x216B4; // 𡚴 (1-47-67)
-        cp[6559] = 0x5C7A; // 屺 (1-47-68)
-        cp[6560] = 0x5C8F; // 岏 (1-47-69)
-        cp[6561] = 0x5C9F; // 岟 (1-47-70)
-        cp[6562] = 0x5CA3; // 岣 (1-47-71)
-        cp[6563] = 0x5CAA; // 岪 (1-47-72)
-        cp[6564] = 0x5CBA; // 岺 (1-47-73)
-        cp[6565] = 0x5CCB; // 峋 (1-47-74)
-        cp[6566] = 0x5CD0; // 峐 (1-47-75)
-        cp[6567] = 0x5CD2; // 峒 (1-47-76)
-        cp[6568] = 0x5CF4; // 峴 (1-47-77)
-        cp[6569] = 0x21E34; // 𡸴 (1-47-78)
-        cp[6570] = 0x37E2; // 㟢 (1-47-79)
-        cp[6571] = 0x5D0D; // 崍 (1-47-80)
-        cp[6572] = 0x5D27; // 崧 (1-47-81)
-        cp[6573] = 0xFA11; // 﨑 (1-47-82)
-        cp[6574] = 0x5D46; // 嵆 (1-47-83)
-        cp[6575] = 0x5D47; // 嵇 (1-47-84)
-        cp[6576] = 0x5D53; // 嵓 (1-47-85)
-        cp[6577] = 0x5D4A; // 嵊 (1-47-86)
-        cp[6578] = 0x5D6D; // 嵭 (1-47-87)
-        cp[6579] = 0x5D81; // 嶁 (1-47-88)
-        cp[6580] = 0x5DA0; // 嶠 (1-47-89)
-        cp[6581] = 0x5DA4; // 嶤 (1-47-90)
-        cp[6582] = 0x5DA7; // 嶧 (1-47-91)
-        cp[6583] = 0x5DB8; // 嶸 (1-47-92)
-        cp[6584] = 0x5DCB; // 巋 (1-47-93)
-        cp[6585] = 0x541E; // 吞 (1-47-94)
-        cp[6586] = 0x5653; // 噓 (1-84-07)
-        cp[6587] = 0x5DE2; // 巢 (1-84-08)
-        cp[6588] = 0x5E14; // 帔 (1-84-09)
-        cp[6589] = 0x5E18; // 帘 (1-84-10)
-        cp[6590] = 0x5E58; // 幘 (1-84-11)
-        cp[6591] = 0x5E5E; // 幞 (1-84-12)
-        cp[6592] = 0x5EBE; // 庾 (1-84-13)
-        cp[6593] = 0xF928; // 廊 (1-84-14)
-        cp[6594] = 0x5ECB; // 廋 (1-84-15)
-        cp[6595] = 0x5EF9; // 廹 (1-84-16)
-        cp[6596] = 0x5F00; // 开 (1-84-17)
-        cp[6597] = 0x5F02; // 异 (1-84-18)
-        cp[6598] = 0x5F07; // 弇 (1-84-19)
-        cp[6599] = 0x5F1D; // 弝 (1-84-20)
-        cp[6600] = 0x5F23; // 弣 (1-84-21)
-        cp[6601] = 0x5F34; // 弴 (1-84-22)
-        cp[6602] = 0x5F36; // 弶 (1-84-23)
-        cp[6603] = 0x5F3D; // 弽 (1-84-24)
-        cp[6604] = 0x5F40; // 彀 (1-84-25)
-        cp[6605] = 0x5F45; // 彅 (1-84-26)
-        cp[6606] = 0x5F54; // 彔 (1-84-27)
-        cp[6607] = 0x5F58; // 彘 (1-84-28)
-        cp[6608] = 0x5F64; // 彤 (1-84-29)
-        cp[6609] = 0x5F67; // 彧 (1-84-30)
-        cp[6610] = 0x5F7D; // 彽 (1-84-31)
-        cp[6611] = 0x5F89; // 徉 (1-84-32)
-        cp[6612] = 0x5F9C; // 徜 (1-84-33)
-        cp[6613] = 0x5FA7; // 徧 (1-84-34)
-        cp[6614] = 0x5FAF; // 徯 (1-84-35)
-        cp[6615] = 0x5FB5; // 徵 (1-84-36)
-        cp[6616] = 0x5FB7; // 德 (1-84-37)
-        cp[6617] = 0x5FC9; // 忉 (1-84-38)
-        cp[6618] = 0x5FDE; // 忞 (1-84-39)
-        cp[6619] = 0x5FE1; // 忡 (1-84-40)
-        cp[6620] = 0x5FE9; // 忩 (1-84-41)
-        cp[6621] = 0x600D; // 怍 (1-84-42)
-        cp[6622] = 0x6014; // 怔 (1-84-43)
-        cp[6623] = 0x6018; // 怘 (1-84-44)
-        cp[6624] = 0x6033; // 怳 (1-84-45)
-        cp[6625] = 0x6035; // 怵 (1-84-46)
-        cp[6626] = 0x6047; // 恇 (1-84-47)
-        cp[6627] = 0xFA3D; // 悔 (1-84-48)
-        cp[6628] = 0x609D; // 悝 (1-84-49)
-        cp[6629] = 0x609E; // 悞 (1-84-50)
-        cp[6630] = 0x60CB; // 惋 (1-84-51)
-        cp[6631] = 0x60D4; // 惔 (1-84-52)
-        cp[6632] = 0x60D5; // 惕 (1-84-53)
-        cp[6633] = 0x60DD; // 惝 (1-84-54)
-        cp[6634] = 0x60F8; // 惸 (1-84-55)
-        cp[6635] = 0x611C; // 愜 (1-84-56)
-        cp[6636] = 0x612B; // 愫 (1-84-57)
-        cp[6637] = 0x6130; // 愰 (1-84-58)
-        cp[6638] = 0x6137; // 愷 (1-84-59)
-        cp[6639] = 0xFA3E; // 慨 (1-84-60)
-        cp[6640] = 0x618D; // 憍 (1-84-61)
-        cp[6641] = 0xFA3F; // 憎 (1-84-62)
-        cp[6642] = 0x61BC; // 憼 (1-84-63)
-        cp[6643] = 0x61B9; // 憹 (1-84-64)
-        cp[6644] = 0xFA40; // 懲 (1-84-65)
-        cp[6645] = 0x6222; // 戢 (1-84-66)
-        cp[6646] = 0x623E; // 戾 (1-84-67)
-        cp[6647] = 0x6243; // 扃 (1-84-68)
-        cp[6648] = 0x6256; // 扖 (1-84-69)
-        cp[6649] = 0x625A; // 扚 (1-84-70)
-        cp[6650] = 0x626F; // 扯 (1-84-71)
-        cp[6651] = 0x6285; // 抅 (1-84-72)
-        cp[6652] = 0x62C4; // 拄 (1-84-73)
-        cp[6653] = 0x62D6; // 拖 (1-84-74)
-        cp[6654] = 0x62FC; // 拼 (1-84-75)
-        cp[6655] = 0x630A; // 挊 (1-84-76)
-        cp[6656] = 0x6318; // 挘 (1-84-77)
-        cp[6657] = 0x6339; // 挹 (1-84-78)
-        cp[6658] = 0x6343; // 捃 (1-84-79)
-        cp[6659] = 0x6365; // 捥 (1-84-80)
-        cp[6660] = 0x637C; // 捼 (1-84-81)
-        cp[6661] = 0x63E5; // 揥 (1-84-82)
-        cp[6662] = 0x63ED; // 揭 (1-84-83)
-        cp[6663] = 0x63F5; // 揵 (1-84-84)
-        cp[6664] = 0x6410; // 搐 (1-84-85)
-        cp[6665] = 0x6414; // 搔 (1-84-86)
-        cp[6666] = 0x6422; // 搢 (1-84-87)
-        cp[6667] = 0x6479; // 摹 (1-84-88)
-        cp[6668] = 0x6451; // 摑 (1-84-89)
-        cp[6669] = 0x6460; // 摠 (1-84-90)
-        cp[6670] = 0x646D; // 摭 (1-84-91)
-        cp[6671] = 0x64CE; // 擎 (1-84-92)
-        cp[6672] = 0x64BE; // 撾 (1-84-93)
-        cp[6673] = 0x64BF; // 撿 (1-84-94)
-        cp[6674] = 0x64C4; // 擄 (1-85-01)
-        cp[6675] = 0x64CA; // 擊 (1-85-02)
-        cp[6676] = 0x64D0; // 擐 (1-85-03)
-        cp[6677] = 0x64F7; // 擷 (1-85-04)
-        cp[6678] = 0x64FB; // 擻 (1-85-05)
-        cp[6679] = 0x6522; // 攢 (1-85-06)
-        cp[6680] = 0x6529; // 攩 (1-85-07)
-        cp[6681] = 0xFA41; // 敏 (1-85-08)
-        cp[6682] = 0x6567; // 敧 (1-85-09)
-        cp[6683] = 0x659D; // 斝 (1-85-10)
-        cp[6684] = 0xFA42; // 既 (1-85-11)
-        cp[6685] = 0x6600; // 昀 (1-85-12)
-        cp[6686] = 0x6609; // 昉 (1-85-13)
-        cp[6687] = 0x6615; // 昕 (1-85-14)
-        cp[6688] = 0x661E; // 昞 (1-85-15)
-        cp[6689] = 0x663A; // 昺 (1-85-16)
-        cp[6690] = 0x6622; // 昢 (1-85-17)
-        cp[6691] = 0x6624; // 昤 (1-85-18)
-        cp[6692] = 0x662B; // 昫 (1-85-19)
-        cp[6693] = 0x6630; // 昰 (1-85-20)
-        cp[6694] = 0x6631; // 昱 (1-85-21)
-        cp[6695] = 0x6633; // 昳 (1-85-22)
-        cp[6696] = 0x66FB; // 曻 (1-85-23)
-        cp[6697] = 0x6648; // 晈 (1-85-24)
-        cp[6698] = 0x664C; // 晌 (1-85-25)
-        cp[6699] = 0x231C4; // 𣇄 (1-85-26)
-        cp[6700] = 0x6659; // 晙 (1-85-27)
-        cp[6701] = 0x665A; // 晚 (1-85-28)
-        cp[6702] = 0x6661; // 晡 (1-85-29)
-        cp[6703] = 0x6665; // 晥 (1-85-30)
-        cp[6704] = 0x6673; // 晳 (1-85-31)
-        cp[6705] = 0x6677; // 晷 (1-85-32)
-        cp[6706] = 0x6678; // 晸 (1-85-33)
-        cp[6707] = 0x668D; // 暍 (1-85-34)
-        cp[6708] = 0xFA43; // 暑 (1-85-35)
-        cp[6709] = 0x66A0; // 暠 (1-85-36)
-        cp[6710] = 0x66B2; // 暲 (1-85-37)
-        cp[6711] = 0x66BB; // 暻 (1-85-38)
-        cp[6712] = 0x66C6; // 曆 (1-85-39)
-        cp[6713] = 0x66C8; // 曈 (1-85-40)
-        cp[6714] = 0x3B22; // 㬢 (1-85-41)
-        cp[6715] = 0x66DB; // 曛 (1-85-42)
-        cp[6716] = 0x66E8; // 曨 (1-85-43)
-        cp[6717] = 0x66FA; // 曺 (1-85-44)
-        cp[6718] = 0x6713; // 朓 (1-85-45)
-        cp[6719] = 0xF929; // 朗 (1-85-46)
-        cp[6720] = 0x6733; // 朳 (1-85-47)
-        cp[6721] = 0x6766; // 杦 (1-85-48)
-        cp[6722] = 0x6747; // 杇 (1-85-49)
-        cp[6723] = 0x6748; // 杈 (1-85-50)
-        cp[6724] = 0x677B; // 杻 (1-85-51)
-        cp[6725] = 0x6781; // 极 (1-85-52)
-        cp[6726] = 0x6793; // 枓 (1-85-53)
-        cp[6727] = 0x6798; // 枘 (1-85-54)
-        cp[6728] = 0x679B; // 枛 (1-85-55)
-        cp[6729] = 0x67BB; // 枻 (1-85-56)
-        cp[6730] = 0x67F9; // 柹 (1-85-57)
-        cp[6731] = 0x67C0; // 柀 (1-85-58)
-        cp[6732] = 0x67D7; // 柗 (1-85-59)
-        cp[6733] = 0x67FC; // 柼 (1-85-60)
-        cp[6734] = 0x6801; // 栁 (1-85-61)
-        cp[6735] = 0x6852; // 桒 (1-85-62)
-        cp[6736] = 0x681D; // 栝 (1-85-63)
-        cp[6737] = 0x682C; // 栬 (1-85-64)
-        cp[6738] = 0x6831; // 栱 (1-85-65)
-        cp[6739] = 0x685B; // 桛 (1-85-66)
-        cp[6740] = 0x6872; // 桲 (1-85-67)
-        cp[6741] = 0x6875; // 桵 (1-85-68)
-        cp[6742] = 0xFA44; // 梅 (1-85-69)
-        cp[6743] = 0x68A3; // 梣 (1-85-70)
-        cp[6744] = 0x68A5; // 梥 (1-85-71)
-        cp[6745] = 0x68B2; // 梲 (1-85-72)
-        cp[6746] = 0x68C8; // 棈 (1-85-73)
-        cp[6747] = 0x68D0; // 棐 (1-85-74)
-        cp[6748] = 0x68E8; // 棨 (1-85-75)
-        cp[6749] = 0x68ED; // 棭 (1-85-76)
-        cp[6750] = 0x68F0; // 棰 (1-85-77)
-        cp[6751] = 0x68F1; // 棱 (1-85-78)
-        cp[6752] = 0x68FC; // 棼 (1-85-79)
-        cp[6753] = 0x690A; // 椊 (1-85-80)
-        cp[6754] = 0x6949; // 楉 (1-85-81)
-        cp[6755] = 0x235C4; // 𣗄 (1-85-82)
-        cp[6756] = 0x6935; // 椵 (1-85-83)
-        cp[6757] = 0x6942; // 楂 (1-85-84)
-        cp[6758] = 0x6957; // 楗 (1-85-85)
-        cp[6759] = 0x6963; // 楣 (1-85-86)
-        cp[6760] = 0x6964; // 楤 (1-85-87)
-        cp[6761] = 0x6968; // 楨 (1-85-88)
-        cp[6762] = 0x6980; // 榀 (1-85-89)
-        cp[6763] = 0xFA14; // 﨔 (1-85-90)
-        cp[6764] = 0x69A5; // 榥 (1-85-91)
-        cp[6765] = 0x69AD; // 榭 (1-85-92)
-        cp[6766] = 0x69CF; // 槏 (1-85-93)
-        cp[6767] = 0x3BB6; // 㮶 (1-85-94)
-        cp[6768] = 0x3BC3; // 㯃 (1-86-01)
-        cp[6769] = 0x69E2; // 槢 (1-86-02)
-        cp[6770] = 0x69E9; // 槩 (1-86-03)
-        cp[6771] = 0x69EA; // 槪 (1-86-04)
-        cp[6772] = 0x69F5; // 槵 (1-86-05)
-        cp[6773] = 0x69F6; // 槶 (1-86-06)
-        cp[6774] = 0x6A0F; // 樏 (1-86-07)
-        cp[6775] = 0x6A15; // 樕 (1-86-08)
-        cp[6776] = 0x2373F; // 𣜿 (1-86-09)
-        cp[6777] = 0x6A3B; // 樻 (1-86-10)
-        cp[6778] = 0x6A3E; // 樾 (1-86-11)
-        cp[6779] = 0x6A45; // 橅 (1-86-12)
-        cp[6780] = 0x6A50; // 橐 (1-86-13)
-        cp[6781] = 0x6A56; // 橖 (1-86-14)
-        cp[6782] = 0x6A5B; // 橛 (1-86-15)
-        cp[6783] = 0x6A6B; // 橫 (1-86-16)
-        cp[6784] = 0x6A73; // 橳 (1-86-17)
-        cp[6785] = 0x23763; // 𣝣 (1-86-18)
-        cp[6786] = 0x6A89; // 檉 (1-86-19)
-        cp[6787] = 0x6A94; // 檔 (1-86-20)
-        cp[6788] = 0x6A9D; // 檝 (1-86-21)
-        cp[6789] = 0x6A9E; // 檞 (1-86-22)
-        cp[6790] = 0x6AA5; // 檥 (1-86-23)
-        cp[6791] = 0x6AE4; // 櫤 (1-86-24)
-        cp[6792] = 0x6AE7; // 櫧 (1-86-25)
-        cp[6793] = 0x3C0F; // 㰏 (1-86-26)
-        cp[6794] = 0xF91D; // 欄 (1-86-27)
-        cp[6795] = 0x6B1B; // 欛 (1-86-28)
-        cp[6796] = 0x6B1E; // 欞 (1-86-29)
-        cp[6797] = 0x6B2C; // 欬 (1-86-30)
-        cp[6798] = 0x6B35; // 欵 (1-86-31)
-        cp[6799] = 0x6B46; // 歆 (1-86-32)
-        cp[6800] = 0x6B56; // 歖 (1-86-33)
-        cp[6801] = 0x6B60; // 歠 (1-86-34)
-        cp[6802] = 0x6B65; // 步 (1-86-35)
-        cp[6803] = 0x6B67; // 歧 (1-86-36)
-        cp[6804] = 0x6B77; // 歷 (1-86-37)
-        cp[6805] = 0x6B82; // 殂 (1-86-38)
-        cp[6806] = 0x6BA9; // 殩 (1-86-39)
-        cp[6807] = 0x6BAD; // 殭 (1-86-40)
-        cp[6808] = 0xF970; // 殺 (1-86-41)
-        cp[6809] = 0x6BCF; // 每 (1-86-42)
-        cp[6810] = 0x6BD6; // 毖 (1-86-43)
-        cp[6811] = 0x6BD7; // 毗 (1-86-44)
-        cp[6812] = 0x6BFF; // 毿 (1-86-45)
-        cp[6813] = 0x6C05; // 氅 (1-86-46)
-        cp[6814] = 0x6C10; // 氐 (1-86-47)
-        cp[6815] = 0x6C33; // 氳 (1-86-48)
-        cp[6816] = 0x6C59; // 汙 (1-86-49)
-        cp[6817] = 0x6C5C; // 汜 (1-86-50)
-        cp[6818] = 0x6CAA; // 沪 (1-86-51)
-        cp[6819] = 0x6C74; // 汴 (1-86-52)
-        cp[6820] = 0x6C76; // 汶 (1-86-53)
-        cp[6821] = 0x6C85; // 沅 (1-86-54)
-        cp[6822] = 0x6C86; // 沆 (1-86-55)
-        cp[6823] = 0x6C98; // 沘 (1-86-56)
-        cp[6824] = 0x6C9C; // 沜 (1-86-57)
-        cp[6825] = 0x6CFB; // 泻 (1-86-58)
-        cp[6826] = 0x6CC6; // 泆 (1-86-59)
-        cp[6827] = 0x6CD4; // 泔 (1-86-60)
-        cp[6828] = 0x6CE0; // 泠 (1-86-61)
-        cp[6829] = 0x6CEB; // 泫 (1-86-62)
-        cp[6830] = 0x6CEE; // 泮 (1-86-63)
-        cp[6831] = 0x23CFE; // 𣳾 (1-86-64)
-        cp[6832] = 0x6D04; // 洄 (1-86-65)
-        cp[6833] = 0x6D0E; // 洎 (1-86-66)
-        cp[6834] = 0x6D2E; // 洮 (1-86-67)
-        cp[6835] = 0x6D31; // 洱 (1-86-68)
-        cp[6836] = 0x6D39; // 洹 (1-86-69)
-        cp[6837] = 0x6D3F; // 洿 (1-86-70)
-        cp[6838] = 0x6D58; // 浘 (1-86-71)
-        cp[6839] = 0x6D65; // 浥 (1-86-72)
-        cp[6840] = 0xFA45; // 海 (1-86-73)
-        cp[6841] = 0x6D82; // 涂 (1-86-74)
-        cp[6842] = 0x6D87; // 涇 (1-86-75)
-        cp[6843] = 0x6D89; // 涉 (1-86-76)
-        cp[6844] = 0x6D94; // 涔 (1-86-77)
-        cp[6845] = 0x6DAA; // 涪 (1-86-78)
-        cp[6846] = 0x6DAC; // 涬 (1-86-79)
-        cp[6847] = 0x6DBF; // 涿 (1-86-80)
-        cp[6848] = 0x6DC4; // 淄 (1-86-81)
-        cp[6849] = 0x6DD6; // 淖 (1-86-82)
-        cp[6850] = 0x6DDA; // 淚 (1-86-83)
-        cp[6851] = 0x6DDB; // 淛 (1-86-84)
-        cp[6852] = 0x6DDD; // 淝 (1-86-85)
-        cp[6853] = 0x6DFC; // 淼 (1-86-86)
-        cp[6854] = 0xFA46; // 渚 (1-86-87)
-        cp[6855] = 0x6E34; // 渴 (1-86-88)
-        cp[6856] = 0x6E44; // 湄 (1-86-89)
-        cp[6857] = 0x6E5C; // 湜 (1-86-90)
-        cp[6858] = 0x6E5E; // 湞 (1-86-91)
-        cp[6859] = 0x6EAB; // 溫 (1-86-92)
-        cp[6860] = 0x6EB1; // 溱 (1-86-93)
-        cp[6861] = 0x6EC1; // 滁 (1-86-94)
-        cp[6862] = 0x6EC7; // 滇 (1-87-01)
-        cp[6863] = 0x6ECE; // 滎 (1-87-02)
-        cp[6864] = 0x6F10; // 漐 (1-87-03)
-        cp[6865] = 0x6F1A; // 漚 (1-87-04)
-        cp[6866] = 0xFA47; // 漢 (1-87-05)
-        cp[6867] = 0x6F2A; // 漪 (1-87-06)
-        cp[6868] = 0x6F2F; // 漯 (1-87-07)
-        cp[6869] = 0x6F33; // 漳 (1-87-08)
-        cp[6870] = 0x6F51; // 潑 (1-87-09)
-        cp[6871] = 0x6F59; // 潙 (1-87-10)
-        cp[6872] = 0x6F5E; // 潞 (1-87-11)
-        cp[6873] = 0x6F61; // 潡 (1-87-12)
-        cp[6874] = 0x6F62; // 潢 (1-87-13)
-        cp[6875] = 0x6F7E; // 潾 (1-87-14)
-        cp[6876] = 0x6F88; // 澈 (1-87-15)
-        cp[6877] = 0x6F8C; // 澌 (1-87-16)
-        cp[6878] = 0x6F8D; // 澍 (1-87-17)
-        cp[6879] = 0x6F94; // 澔 (1-87-18)
-        cp[6880] = 0x6FA0; // 澠 (1-87-19)
-        cp[6881] = 0x6FA7; // 澧 (1-87-20)
-        cp[6882] = 0x6FB6; // 澶 (1-87-21)
-        cp[6883] = 0x6FBC; // 澼 (1-87-22)
-        cp[6884] = 0x6FC7; // 濇 (1-87-23)
-        cp[6885] = 0x6FCA; // 濊 (1-87-24)
-        cp[6886] = 0x6FF9; // 濹 (1-87-25)
-        cp[6887] = 0x6FF0; // 濰 (1-87-26)
-        cp[6888] = 0x6FF5; // 濵 (1-87-27)
-        cp[6889] = 0x7005; // 瀅 (1-87-28)
-        cp[6890] = 0x7006; // 瀆 (1-87-29)
-        cp[6891] = 0x7028; // 瀨 (1-87-30)
-        cp[6892] = 0x704A; // 灊 (1-87-31)
-        cp[6893] = 0x705D; // 灝 (1-87-32)
-        cp[6894] = 0x705E; // 灞 (1-87-33)
-        cp[6895] = 0x704E; // 灎 (1-87-34)
-        cp[6896] = 0x7064; // 灤 (1-87-35)
-        cp[6897] = 0x7075; // 灵 (1-87-36)
-        cp[6898] = 0x7085; // 炅 (1-87-37)
-        cp[6899] = 0x70A4; // 炤 (1-87-38)
-        cp[6900] = 0x70AB; // 炫 (1-87-39)
-        cp[6901] = 0x70B7; // 炷 (1-87-40)
-        cp[6902] = 0x70D4; // 烔 (1-87-41)
-        cp[6903] = 0x70D8; // 烘 (1-87-42)
-        cp[6904] = 0x70E4; // 烤 (1-87-43)
-        cp[6905] = 0x710F; // 焏 (1-87-44)
-        cp[6906] = 0x712B; // 焫 (1-87-45)
-        cp[6907] = 0x711E; // 焞 (1-87-46)
-        cp[6908] = 0x7120; // 焠 (1-87-47)
-        cp[6909] = 0x712E; // 焮 (1-87-48)
-        cp[6910] = 0x7130; // 焰 (1-87-49)
-        cp[6911] = 0x7146; // 煆 (1-87-50)
-        cp[6912] = 0x7147; // 煇 (1-87-51)
-        cp[6913] = 0x7151; // 煑 (1-87-52)
-        cp[6914] = 0xFA48; // 煮 (1-87-53)
-        cp[6915] = 0x7152; // 煒 (1-87-54)
-        cp[6916] = 0x715C; // 煜 (1-87-55)
-        cp[6917] = 0x7160; // 煠 (1-87-56)
-        cp[6918] = 0x7168; // 煨 (1-87-57)
-        cp[6919] = 0xFA15; // 凞 (1-87-58)
-        cp[6920] = 0x7185; // 熅 (1-87-59)
-        cp[6921] = 0x7187; // 熇 (1-87-60)
-        cp[6922] = 0x7192; // 熒 (1-87-61)
-        cp[6923] = 0x71C1; // 燁 (1-87-62)
-        cp[6924] = 0x71BA; // 熺 (1-87-63)
-        cp[6925] = 0x71C4; // 燄 (1-87-64)
-        cp[6926] = 0x71FE; // 燾 (1-87-65)
-        cp[6927] = 0x7200; // 爀 (1-87-66)
-        cp[6928] = 0x7215; // 爕 (1-87-67)
-        cp[6929] = 0x7255; // 牕 (1-87-68)
-        cp[6930] = 0x7256; // 牖 (1-87-69)
-        cp[6931] = 0x3E3F; // 㸿 (1-87-70)
-        cp[6932] = 0x728D; // 犍 (1-87-71)
-        cp[6933] = 0x729B; // 犛 (1-87-72)
-        cp[6934] = 0x72BE; // 犾 (1-87-73)
-        cp[6935] = 0x72C0; // 狀 (1-87-74)
-        cp[6936] = 0x72FB; // 狻 (1-87-75)
-        cp[6937] = 0x247F1; // 𤟱 (1-87-76)
-        cp[6938] = 0x7327; // 猧 (1-87-77)
-        cp[6939] = 0x7328; // 猨 (1-87-78)
-        cp[6940] = 0xFA16; // 猪 (1-87-79)
-        cp[6941] = 0x7350; // 獐 (1-87-80)
-        cp[6942] = 0x7366; // 獦 (1-87-81)
-        cp[6943] = 0x737C; // 獼 (1-87-82)
-        cp[6944] = 0x7395; // 玕 (1-87-83)
-        cp[6945] = 0x739F; // 玟 (1-87-84)
-        cp[6946] = 0x73A0; // 玠 (1-87-85)
-        cp[6947] = 0x73A2; // 玢 (1-87-86)
-        cp[6948] = 0x73A6; // 玦 (1-87-87)
-        cp[6949] = 0x73AB; // 玫 (1-87-88)
-        cp[6950] = 0x73C9; // 珉 (1-87-89)
-        cp[6951] = 0x73CF; // 珏 (1-87-90)
-        cp[6952] = 0x73D6; // 珖 (1-87-91)
-        cp[6953] = 0x73D9; // 珙 (1-87-92)
-        cp[6954] = 0x73E3; // 珣 (1-87-93)
-        cp[6955] = 0x73E9; // 珩 (1-87-94)
-        cp[6956] = 0x7407; // 琇 (1-88-01)
-        cp[6957] = 0x740A; // 琊 (1-88-02)
-        cp[6958] = 0x741A; // 琚 (1-88-03)
-        cp[6959] = 0x741B; // 琛 (1-88-04)
-        cp[6960] = 0xFA4A; // 琢 (1-88-05)
-        cp[6961] = 0x7426; // 琦 (1-88-06)
-        cp[6962] = 0x7428; // 琨 (1-88-07)
-        cp[6963] = 0x742A; // 琪 (1-88-08)
-        cp[6964] = 0x742B; // 琫 (1-88-09)
-        cp[6965] = 0x742C; // 琬 (1-88-10)
-        cp[6966] = 0x742E; // 琮 (1-88-11)
-        cp[6967] = 0x742F; // 琯 (1-88-12)
-        cp[6968] = 0x7430; // 琰 (1-88-13)
-        cp[6969] = 0x7444; // 瑄 (1-88-14)
-        cp[6970] = 0x7446; // 瑆 (1-88-15)
-        cp[6971] = 0x7447; // 瑇 (1-88-16)
-        cp[6972] = 0x744B; // 瑋 (1-88-17)
-        cp[6973] = 0x7457; // 瑗 (1-88-18)
-        cp[6974] = 0x7462; // 瑢 (1-88-19)
-        cp[6975] = 0x746B; // 瑫 (1-88-20)
-        cp[6976] = 0x746D; // 瑭 (1-88-21)
-        cp[6977] = 0x7486; // 璆 (1-88-22)
-        cp[6978] = 0x7487; // 璇 (1-88-23)
-        cp[6979] = 0x7489; // 璉 (1-88-24)
-        cp[6980] = 0x7498; // 璘 (1-88-25)
-        cp[6981] = 0x749C; // 璜 (1-88-26)
-        cp[6982] = 0x749F; // 璟 (1-88-27)
-        cp[6983] = 0x74A3; // 璣 (1-88-28)
-        cp[6984] = 0x7490; // 璐 (1-88-29)
-        cp[6985] = 0x74A6; // 璦 (1-88-30)
-        cp[6986] = 0x74A8; // 璨 (1-88-31)
-        cp[6987] = 0x74A9; // 璩 (1-88-32)
-        cp[6988] = 0x74B5; // 璵 (1-88-33)
-        cp[6989] = 0x74BF; // 璿 (1-88-34)
-        cp[6990] = 0x74C8; // 瓈 (1-88-35)
-        cp[6991] = 0x74C9; // 瓉 (1-88-36)
-        cp[6992] = 0x74DA; // 瓚 (1-88-37)
-        cp[6993] = 0x74FF; // 瓿 (1-88-38)
-        cp[6994] = 0x7501; // 甁 (1-88-39)
-        cp[6995] = 0x7517; // 甗 (1-88-40)
-        cp[6996] = 0x752F; // 甯 (1-88-41)
-        cp[6997] = 0x756F; // 畯 (1-88-42)
-        cp[6998] = 0x7579; // 畹 (1-88-43)
-        cp[6999] = 0x7592; // 疒 (1-88-44)
-        return t7(cp);
-    }
-
-    private static Integer[] t7(Integer[] cp) {
-        cp[7000] = 0x3F72; // 㽲 (1-88-45)
-        cp[7001] = 0x75CE; // 痎 (1-88-46)
-        cp[7002] = 0x75E4; // 痤 (1-88-47)
-        cp[7003] = 0x7600; // 瘀 (1-88-48)
-        cp[7004] = 0x7602; // 瘂 (1-88-49)
-        cp[7005] = 0x7608; // 瘈 (1-88-50)
-        cp[7006] = 0x7615; // 瘕 (1-88-51)
-        cp[7007] = 0x7616; // 瘖 (1-88-52)
-        cp[7008] = 0x7619; // 瘙 (1-88-53)
-        cp[7009] = 0x761E; // 瘞 (1-88-54)
-        cp[7010] = 0x762D; // 瘭 (1-88-55)
-        cp[7011] = 0x7635; // 瘵 (1-88-56)
-        cp[7012] = 0x7643; // 癃 (1-88-57)
-        cp[7013] = 0x764B; // 癋 (1-88-58)
-        cp[7014] = 0x7664; // 癤 (1-88-59)
-        cp[7015] = 0x7665; // 癥 (1-88-60)
-        cp[7016] = 0x766D; // 癭 (1-88-61)
-        cp[7017] = 0x766F; // 癯 (1-88-62)
-        cp[7018] = 0x7671; // 癱 (1-88-63)
-        cp[7019] = 0x7681; // 皁 (1-88-64)
-        cp[7020] = 0x769B; // 皛 (1-88-65)
-        cp[7021] = 0x769D; // 皝 (1-88-66)
-        cp[7022] = 0x769E; // 皞 (1-88-67)
-        cp[7023] = 0x76A6; // 皦 (1-88-68)
-        cp[7024] = 0x76AA; // 皪 (1-88-69)
-        cp[7025] = 0x76B6; // 皶 (1-88-70)
-        cp[7026] = 0x76C5; // 盅 (1-88-71)
-        cp[7027] = 0x76CC; // 盌 (1-88-72)
-        cp[7028] = 0x76CE; // 盎 (1-88-73)
-        cp[7029] = 0x76D4; // 盔 (1-88-74)
-        cp[7030] = 0x76E6; // 盦 (1-88-75)
-        cp[7031] = 0x76F1; // 盱 (1-88-76)
-        cp[7032] = 0x76FC; // 盼 (1-88-77)
-        cp[7033] = 0x770A; // 眊 (1-88-78)
-        cp[7034] = 0x7719; // 眙 (1-88-79)
-        cp[7035] = 0x7734; // 眴 (1-88-80)
-        cp[7036] = 0x7736; // 眶 (1-88-81)
-        cp[7037] = 0x7746; // 睆 (1-88-82)
-        cp[7038] = 0x774D; // 睍 (1-88-83)
-        cp[7039] = 0x774E; // 睎 (1-88-84)
-        cp[7040] = 0x775C; // 睜 (1-88-85)
-        cp[7041] = 0x775F; // 睟 (1-88-86)
-        cp[7042] = 0x7762; // 睢 (1-88-87)
-        cp[7043] = 0x777A; // 睺 (1-88-88)
-        cp[7044] = 0x7780; // 瞀 (1-88-89)
-        cp[7045] = 0x7794; // 瞔 (1-88-90)
-        cp[7046] = 0x77AA; // 瞪 (1-88-91)
-        cp[7047] = 0x77E0; // 矠 (1-88-92)
-        cp[7048] = 0x782D; // 砭 (1-88-93)
-        cp[7049] = 0x2548E; // 𥒎 (1-88-94)
-        cp[7050] = 0x7843; // 硃 (1-89-01)
-        cp[7051] = 0x784E; // 硎 (1-89-02)
-        cp[7052] = 0x784F; // 硏 (1-89-03)
-        cp[7053] = 0x7851; // 硑 (1-89-04)
-        cp[7054] = 0x7868; // 硨 (1-89-05)
-        cp[7055] = 0x786E; // 确 (1-89-06)
-        cp[7056] = 0xFA4B; // 碑 (1-89-07)
-        cp[7057] = 0x78B0; // 碰 (1-89-08)
-        cp[7058] = 0x2550E; // 𥔎 (1-89-09)
-        cp[7059] = 0x78AD; // 碭 (1-89-10)
-        cp[7060] = 0x78E4; // 磤 (1-89-11)
-        cp[7061] = 0x78F2; // 磲 (1-89-12)
-        cp[7062] = 0x7900; // 礀 (1-89-13)
-        cp[7063] = 0x78F7; // 磷 (1-89-14)
-        cp[7064] = 0x791C; // 礜 (1-89-15)
-        cp[7065] = 0x792E; // 礮 (1-89-16)
-        cp[7066] = 0x7931; // 礱 (1-89-17)
-        cp[7067] = 0x7934; // 礴 (1-89-18)
-        cp[7068] = 0xFA4C; // 社 (1-89-19)
-        cp[7069] = 0xFA4D; // 祉 (1-89-20)
-        cp[7070] = 0x7945; // 祅 (1-89-21)
-        cp[7071] = 0x7946; // 祆 (1-89-22)
-        cp[7072] = 0xFA4E; // 祈 (1-89-23)
-        cp[7073] = 0xFA4F; // 祐 (1-89-24)
-        cp[7074] = 0xFA50; // 祖 (1-89-25)
-        cp[7075] = 0x795C; // 祜 (1-89-26)
-        cp[7076] = 0xFA51; // 祝 (1-89-27)
-        cp[7077] = 0xFA19; // 神 (1-89-28)
-        cp[7078] = 0xFA1A; // 祥 (1-89-29)
-        cp[7079] = 0x7979; // 祹 (1-89-30)
-        cp[7080] = 0xFA52; // 禍 (1-89-31)
-        cp[7081] = 0xFA53; // 禎 (1-89-32)
-        cp[7082] = 0xFA1B; // 福 (1-89-33)
-        cp[7083] = 0x7998; // 禘 (1-89-34)
-        cp[7084] = 0x79B1; // 禱 (1-89-35)
-        cp[7085] = 0x79B8; // 禸 (1-89-36)
-        cp[7086] = 0x79C8; // 秈 (1-89-37)
-        cp[7087] = 0x79CA; // 秊 (1-89-38)
-        cp[7088] = 0x25771; // 𥝱 (1-89-39)
-        cp[7089] = 0x79D4; // 秔 (1-89-40)
-        cp[7090] = 0x79DE; // 秞 (1-89-41)
-        cp[7091] = 0x79EB; // 秫 (1-89-42)
-        cp[7092] = 0x79ED; // 秭 (1-89-43)
-        cp[7093] = 0x7A03; // 稃 (1-89-44)
-        cp[7094] = 0xFA54; // 穀 (1-89-45)
-        cp[7095] = 0x7A39; // 稹 (1-89-46)
-        cp[7096] = 0x7A5D; // 穝 (1-89-47)
-        cp[7097] = 0x7A6D; // 穭 (1-89-48)
-        cp[7098] = 0xFA55; // 突 (1-89-49)
-        cp[7099] = 0x7A85; // 窅 (1-89-50)
-        cp[7100] = 0x7AA0; // 窠 (1-89-51)
-        cp[7101] = 0x259C4; // 𥧄 (1-89-52)
-        cp[7102] = 0x7AB3; // 窳 (1-89-53)
-        cp[7103] = 0x7ABB; // 窻 (1-89-54)
-        cp[7104] = 0x7ACE; // 竎 (1-89-55)
-        cp[7105] = 0x7AEB; // 竫 (1-89-56)
-        cp[7106] = 0x7AFD; // 竽 (1-89-57)
-        cp[7107] = 0x7B12; // 笒 (1-89-58)
-        cp[7108] = 0x7B2D; // 笭 (1-89-59)
-        cp[7109] = 0x7B3B; // 笻 (1-89-60)
-        cp[7110] = 0x7B47; // 筇 (1-89-61)
-        cp[7111] = 0x7B4E; // 筎 (1-89-62)
-        cp[7112] = 0x7B60; // 筠 (1-89-63)
-        cp[7113] = 0x7B6D; // 筭 (1-89-64)
-        cp[7114] = 0x7B6F; // 筯 (1-89-65)
-        cp[7115] = 0x7B72; // 筲 (1-89-66)
-        cp[7116] = 0x7B9E; // 箞 (1-89-67)
-        cp[7117] = 0xFA56; // 節 (1-89-68)
-        cp[7118] = 0x7BD7; // 篗 (1-89-69)
-        cp[7119] = 0x7BD9; // 篙 (1-89-70)
-        cp[7120] = 0x7C01; // 簁 (1-89-71)
-        cp[7121] = 0x7C31; // 簱 (1-89-72)
-        cp[7122] = 0x7C1E; // 簞 (1-89-73)
-        cp[7123] = 0x7C20; // 簠 (1-89-74)
-        cp[7124] = 0x7C33; // 簳 (1-89-75)
-        cp[7125] = 0x7C36; // 簶 (1-89-76)
-        cp[7126] = 0x4264; // 䉤 (1-89-77)
-        cp[7127] = 0x25DA1; // 𥶡 (1-89-78)
-        cp[7128] = 0x7C59; // 籙 (1-89-79)
-        cp[7129] = 0x7C6D; // 籭 (1-89-80)
-        cp[7130] = 0x7C79; // 籹 (1-89-81)
-        cp[7131] = 0x7C8F; // 粏 (1-89-82)
-        cp[7132] = 0x7C94; // 粔 (1-89-83)
-        cp[7133] = 0x7CA0; // 粠 (1-89-84)
-        cp[7134] = 0x7CBC; // 粼 (1-89-85)
-        cp[7135] = 0x7CD5; // 糕 (1-89-86)
-        cp[7136] = 0x7CD9; // 糙 (1-89-87)
-        cp[7137] = 0x7CDD; // 糝 (1-89-88)
-        cp[7138] = 0x7D07; // 紇 (1-89-89)
-        cp[7139] = 0x7D08; // 紈 (1-89-90)
-        cp[7140] = 0x7D13; // 紓 (1-89-91)
-        cp[7141] = 0x7D1D; // 紝 (1-89-92)
-        cp[7142] = 0x7D23; // 紣 (1-89-93)
-        cp[7143] = 0x7D31; // 紱 (1-89-94)
-        cp[7144] = 0x7D41; // 絁 (1-90-01)
-        cp[7145] = 0x7D48; // 絈 (1-90-02)
-        cp[7146] = 0x7D53; // 絓 (1-90-03)
-        cp[7147] = 0x7D5C; // 絜 (1-90-04)
-        cp[7148] = 0x7D7A; // 絺 (1-90-05)
-        cp[7149] = 0x7D83; // 綃 (1-90-06)
-        cp[7150] = 0x7D8B; // 綋 (1-90-07)
-        cp[7151] = 0x7DA0; // 綠 (1-90-08)
-        cp[7152] = 0x7DA6; // 綦 (1-90-09)
-        cp[7153] = 0x7DC2; // 緂 (1-90-10)
-        cp[7154] = 0x7DCC; // 緌 (1-90-11)
-        cp[7155] = 0x7DD6; // 緖 (1-90-12)
-        cp[7156] = 0x7DE3; // 緣 (1-90-13)
-        cp[7157] = 0xFA57; // 練 (1-90-14)
-        cp[7158] = 0x7E28; // 縨 (1-90-15)
-        cp[7159] = 0x7E08; // 縈 (1-90-16)
-        cp[7160] = 0x7E11; // 縑 (1-90-17)
-        cp[7161] = 0x7E15; // 縕 (1-90-18)
-        cp[7162] = 0xFA59; // 繁 (1-90-19)
-        cp[7163] = 0x7E47; // 繇 (1-90-20)
-        cp[7164] = 0x7E52; // 繒 (1-90-21)
-        cp[7165] = 0x7E61; // 繡 (1-90-22)
-        cp[7166] = 0x7E8A; // 纊 (1-90-23)
-        cp[7167] = 0x7E8D; // 纍 (1-90-24)
-        cp[7168] = 0x7F47; // 罇 (1-90-25)
-        cp[7169] = 0xFA5A; // 署 (1-90-26)
-        cp[7170] = 0x7F91; // 羑 (1-90-27)
-        cp[7171] = 0x7F97; // 羗 (1-90-28)
-        cp[7172] = 0x7FBF; // 羿 (1-90-29)
-        cp[7173] = 0x7FCE; // 翎 (1-90-30)
-        cp[7174] = 0x7FDB; // 翛 (1-90-31)
-        cp[7175] = 0x7FDF; // 翟 (1-90-32)
-        cp[7176] = 0x7FEC; // 翬 (1-90-33)
-        cp[7177] = 0x7FEE; // 翮 (1-90-34)
-        cp[7178] = 0x7FFA; // 翺 (1-90-35)
-        cp[7179] = 0xFA5B; // 者 (1-90-36)
-        cp[7180] = 0x8014; // 耔 (1-90-37)
-        cp[7181] = 0x8026; // 耦 (1-90-38)
-        cp[7182] = 0x8035; // 耵 (1-90-39)
-        cp[7183] = 0x8037; // 耷 (1-90-40)
-        cp[7184] = 0x803C; // 耼 (1-90-41)
-        cp[7185] = 0x80CA; // 胊 (1-90-42)
-        cp[7186] = 0x80D7; // 胗 (1-90-43)
-        cp[7187] = 0x80E0; // 胠 (1-90-44)
-        cp[7188] = 0x80F3; // 胳 (1-90-45)
-        cp[7189] = 0x8118; // 脘 (1-90-46)
-        cp[7190] = 0x814A; // 腊 (1-90-47)
-        cp[7191] = 0x8160; // 腠 (1-90-48)
-        cp[7192] = 0x8167; // 腧 (1-90-49)
-        cp[7193] = 0x8168; // 腨 (1-90-50)
-        cp[7194] = 0x816D; // 腭 (1-90-51)
-        cp[7195] = 0x81BB; // 膻 (1-90-52)
-        cp[7196] = 0x81CA; // 臊 (1-90-53)
-        cp[7197] = 0x81CF; // 臏 (1-90-54)
-        cp[7198] = 0x81D7; // 臗 (1-90-55)
-        cp[7199] = 0xFA5C; // 臭 (1-90-56)
-        cp[7200] = 0x4453; // 䑓 (1-90-57)
-        cp[7201] = 0x445B; // 䑛 (1-90-58)
-        cp[7202] = 0x8260; // 艠 (1-90-59)
-        cp[7203] = 0x8274; // 艴 (1-90-60)
-        cp[7204] = 0x26AFF; // 𦫿 (1-90-61)
-        cp[7205] = 0x828E; // 芎 (1-90-62)
-        cp[7206] = 0x82A1; // 芡 (1-90-63)
-        cp[7207] = 0x82A3; // 芣 (1-90-64)
-        cp[7208] = 0x82A4; // 芤 (1-90-65)
-        cp[7209] = 0x82A9; // 芩 (1-90-66)
-        cp[7210] = 0x82AE; // 芮 (1-90-67)
-        cp[7211] = 0x82B7; // 芷 (1-90-68)
-        cp[7212] = 0x82BE; // 芾 (1-90-69)
-        cp[7213] = 0x82BF; // 芿 (1-90-70)
-        cp[7214] = 0x82C6; // 苆 (1-90-71)
-        cp[7215] = 0x82D5; // 苕 (1-90-72)
-        cp[7216] = 0x82FD; // 苽 (1-90-73)
-        cp[7217] = 0x82FE; // 苾 (1-90-74)
-        cp[7218] = 0x8300; // 茀 (1-90-75)
-        cp[7219] = 0x8301; // 茁 (1-90-76)
-        cp[7220] = 0x8362; // 荢 (1-90-77)
-        cp[7221] = 0x8322; // 茢 (1-90-78)
-        cp[7222] = 0x832D; // 茭 (1-90-79)
-        cp[7223] = 0x833A; // 茺 (1-90-80)
-        cp[7224] = 0x8343; // 荃 (1-90-81)
-        cp[7225] = 0x8347; // 荇 (1-90-82)
-        cp[7226] = 0x8351; // 荑 (1-90-83)
-        cp[7227] = 0x8355; // 荕 (1-90-84)
-        cp[7228] = 0x837D; // 荽 (1-90-85)
-        cp[7229] = 0x8386; // 莆 (1-90-86)
-        cp[7230] = 0x8392; // 莒 (1-90-87)
-        cp[7231] = 0x8398; // 莘 (1-90-88)
-        cp[7232] = 0x83A7; // 莧 (1-90-89)
-        cp[7233] = 0x83A9; // 莩 (1-90-90)
-        cp[7234] = 0x83BF; // 莿 (1-90-91)
-        cp[7235] = 0x83C0; // 菀 (1-90-92)
-        cp[7236] = 0x83C7; // 菇 (1-90-93)
-        cp[7237] = 0x83CF; // 菏 (1-90-94)
-        cp[7238] = 0x83D1; // 菑 (1-91-01)
-        cp[7239] = 0x83E1; // 菡 (1-91-02)
-        cp[7240] = 0x83EA; // 菪 (1-91-03)
-        cp[7241] = 0x8401; // 萁 (1-91-04)
-        cp[7242] = 0x8406; // 萆 (1-91-05)
-        cp[7243] = 0x840A; // 萊 (1-91-06)
-        cp[7244] = 0xFA5F; // 著 (1-91-07)
-        cp[7245] = 0x8448; // 葈 (1-91-08)
-        cp[7246] = 0x845F; // 葟 (1-91-09)
-        cp[7247] = 0x8470; // 葰 (1-91-10)
-        cp[7248] = 0x8473; // 葳 (1-91-11)
-        cp[7249] = 0x8485; // 蒅 (1-91-12)
-        cp[7250] = 0x849E; // 蒞 (1-91-13)
-        cp[7251] = 0x84AF; // 蒯 (1-91-14)
-        cp[7252] = 0x84B4; // 蒴 (1-91-15)
-        cp[7253] = 0x84BA; // 蒺 (1-91-16)
-        cp[7254] = 0x84C0; // 蓀 (1-91-17)
-        cp[7255] = 0x84C2; // 蓂 (1-91-18)
-        cp[7256] = 0x26E40; // 𦹀 (1-91-19)
-        cp[7257] = 0x8532; // 蔲 (1-91-20)
-        cp[7258] = 0x851E; // 蔞 (1-91-21)
-        cp[7259] = 0x8523; // 蔣 (1-91-22)
-        cp[7260] = 0x852F; // 蔯 (1-91-23)
-        cp[7261] = 0x8559; // 蕙 (1-91-24)
-        cp[7262] = 0x8564; // 蕤 (1-91-25)
-        cp[7263] = 0xFA1F; // 﨟 (1-91-26)
-        cp[7264] = 0x85AD; // 薭 (1-91-27)
-        cp[7265] = 0x857A; // 蕺 (1-91-28)
-        cp[7266] = 0x858C; // 薌 (1-91-29)
-        cp[7267] = 0x858F; // 薏 (1-91-30)
-        cp[7268] = 0x85A2; // 薢 (1-91-31)
-        cp[7269] = 0x85B0; // 薰 (1-91-32)
-        cp[7270] = 0x85CB; // 藋 (1-91-33)
-        cp[7271] = 0x85CE; // 藎 (1-91-34)
-        cp[7272] = 0x85ED; // 藭 (1-91-35)
-        cp[7273] = 0x8612; // 蘒 (1-91-36)
-        cp[7274] = 0x85FF; // 藿 (1-91-37)
-        cp[7275] = 0x8604; // 蘄 (1-91-38)
-        cp[7276] = 0x8605; // 蘅 (1-91-39)
-        cp[7277] = 0x8610; // 蘐 (1-91-40)
-        cp[7278] = 0x270F4; // 𧃴 (1-91-41)
-        cp[7279] = 0x8618; // 蘘 (1-91-42)
-        cp[7280] = 0x8629; // 蘩 (1-91-43)
-        cp[7281] = 0x8638; // 蘸 (1-91-44)
-        cp[7282] = 0x8657; // 虗 (1-91-45)
-        cp[7283] = 0x865B; // 虛 (1-91-46)
-        cp[7284] = 0xF936; // 虜 (1-91-47)
-        cp[7285] = 0x8662; // 虢 (1-91-48)
-        cp[7286] = 0x459D; // 䖝 (1-91-49)
-        cp[7287] = 0x866C; // 虬 (1-91-50)
-        cp[7288] = 0x8675; // 虵 (1-91-51)
-        cp[7289] = 0x8698; // 蚘 (1-91-52)
-        cp[7290] = 0x86B8; // 蚸 (1-91-53)
-        cp[7291] = 0x86FA; // 蛺 (1-91-54)
-        cp[7292] = 0x86FC; // 蛼 (1-91-55)
-        cp[7293] = 0x86FD; // 蛽 (1-91-56)
-        cp[7294] = 0x870B; // 蜋 (1-91-57)
-        cp[7295] = 0x8771; // 蝱 (1-91-58)
-        cp[7296] = 0x8787; // 螇 (1-91-59)
-        cp[7297] = 0x8788; // 螈 (1-91-60)
-        cp[7298] = 0x87AC; // 螬 (1-91-61)
-        cp[7299] = 0x87AD; // 螭 (1-91-62)
-        cp[7300] = 0x87B5; // 螵 (1-91-63)
-        cp[7301] = 0x45EA; // 䗪 (1-91-64)
-        cp[7302] = 0x87D6; // 蟖 (1-91-65)
-        cp[7303] = 0x87EC; // 蟬 (1-91-66)
-        cp[7304] = 0x8806; // 蠆 (1-91-67)
-        cp[7305] = 0x880A; // 蠊 (1-91-68)
-        cp[7306] = 0x8810; // 蠐 (1-91-69)
-        cp[7307] = 0x8814; // 蠔 (1-91-70)
-        cp[7308] = 0x881F; // 蠟 (1-91-71)
-        cp[7309] = 0x8898; // 袘 (1-91-72)
-        cp[7310] = 0x88AA; // 袪 (1-91-73)
-        cp[7311] = 0x88CA; // 裊 (1-91-74)
-        cp[7312] = 0x88CE; // 裎 (1-91-75)
-        cp[7313] = 0x27684; // 𧚄 (1-91-76)
-        cp[7314] = 0x88F5; // 裵 (1-91-77)
-        cp[7315] = 0x891C; // 褜 (1-91-78)
-        cp[7316] = 0xFA60; // 褐 (1-91-79)
-        cp[7317] = 0x8918; // 褘 (1-91-80)
-        cp[7318] = 0x8919; // 褙 (1-91-81)
-        cp[7319] = 0x891A; // 褚 (1-91-82)
-        cp[7320] = 0x8927; // 褧 (1-91-83)
-        cp[7321] = 0x8930; // 褰 (1-91-84)
-        cp[7322] = 0x8932; // 褲 (1-91-85)
-        cp[7323] = 0x8939; // 褹 (1-91-86)
-        cp[7324] = 0x8940; // 襀 (1-91-87)
-        cp[7325] = 0x8994; // 覔 (1-91-88)
-        cp[7326] = 0xFA61; // 視 (1-91-89)
-        cp[7327] = 0x89D4; // 觔 (1-91-90)
-        cp[7328] = 0x89E5; // 觥 (1-91-91)
-        cp[7329] = 0x89F6; // 觶 (1-91-92)
-        cp[7330] = 0x8A12; // 訒 (1-91-93)
-        cp[7331] = 0x8A15; // 訕 (1-91-94)
-        cp[7332] = 0x8A22; // 訢 (1-92-01)
-        cp[7333] = 0x8A37; // 訷 (1-92-02)
-        cp[7334] = 0x8A47; // 詇 (1-92-03)
-        cp[7335] = 0x8A4E; // 詎 (1-92-04)
-        cp[7336] = 0x8A5D; // 詝 (1-92-05)
-        cp[7337] = 0x8A61; // 詡 (1-92-06)
-        cp[7338] = 0x8A75; // 詵 (1-92-07)
-        cp[7339] = 0x8A79; // 詹 (1-92-08)
-        cp[7340] = 0x8AA7; // 誧 (1-92-09)
-        cp[7341] = 0x8AD0; // 諐 (1-92-10)
-        cp[7342] = 0x8ADF; // 諟 (1-92-11)
-        cp[7343] = 0x8AF4; // 諴 (1-92-12)
-        cp[7344] = 0x8AF6; // 諶 (1-92-13)
-        cp[7345] = 0xFA22; // 諸 (1-92-14)
-        cp[7346] = 0xFA62; // 謁 (1-92-15)
-        cp[7347] = 0xFA63; // 謹 (1-92-16)
-        cp[7348] = 0x8B46; // 譆 (1-92-17)
-        cp[7349] = 0x8B54; // 譔 (1-92-18)
-        cp[7350] = 0x8B59; // 譙 (1-92-19)
-        cp[7351] = 0x8B69; // 譩 (1-92-20)
-        cp[7352] = 0x8B9D; // 讝 (1-92-21)
-        cp[7353] = 0x8C49; // 豉 (1-92-22)
-        cp[7354] = 0x8C68; // 豨 (1-92-23)
-        cp[7355] = 0xFA64; // 賓 (1-92-24)
-        cp[7356] = 0x8CE1; // 賡 (1-92-25)
-        cp[7357] = 0x8CF4; // 賴 (1-92-26)
-        cp[7358] = 0x8CF8; // 賸 (1-92-27)
-        cp[7359] = 0x8CFE; // 賾 (1-92-28)
-        cp[7360] = 0xFA65; // 贈 (1-92-29)
-        cp[7361] = 0x8D12; // 贒 (1-92-30)
-        cp[7362] = 0x8D1B; // 贛 (1-92-31)
-        cp[7363] = 0x8DAF; // 趯 (1-92-32)
-        cp[7364] = 0x8DCE; // 跎 (1-92-33)
-        cp[7365] = 0x8DD1; // 跑 (1-92-34)
-        cp[7366] = 0x8DD7; // 跗 (1-92-35)
-        cp[7367] = 0x8E20; // 踠 (1-92-36)
-        cp[7368] = 0x8E23; // 踣 (1-92-37)
-        cp[7369] = 0x8E3D; // 踽 (1-92-38)
-        cp[7370] = 0x8E70; // 蹰 (1-92-39)
-        cp[7371] = 0x8E7B; // 蹻 (1-92-40)
-        cp[7372] = 0x28277; // 𨉷 (1-92-41)
-        cp[7373] = 0x8EC0; // 軀 (1-92-42)
-        cp[7374] = 0x4844; // 䡄 (1-92-43)
-        cp[7375] = 0x8EFA; // 軺 (1-92-44)
-        cp[7376] = 0x8F1E; // 輞 (1-92-45)
-        cp[7377] = 0x8F2D; // 輭 (1-92-46)
-        cp[7378] = 0x8F36; // 輶 (1-92-47)
-        cp[7379] = 0x8F54; // 轔 (1-92-48)
-        cp[7380] = 0x283CD; // 𨏍 (1-92-49)
-        cp[7381] = 0x8FA6; // 辦 (1-92-50)
-        cp[7382] = 0x8FB5; // 辵 (1-92-51)
-        cp[7383] = 0x8FE4; // 迤 (1-92-52)
-        cp[7384] = 0x8FE8; // 迨 (1-92-53)
-        cp[7385] = 0x8FEE; // 迮 (1-92-54)
-        cp[7386] = 0x9008; // 逈 (1-92-55)
-        cp[7387] = 0x902D; // 逭 (1-92-56)
-        cp[7388] = 0xFA67; // 逸 (1-92-57)
-        cp[7389] = 0x9088; // 邈 (1-92-58)
-        cp[7390] = 0x9095; // 邕 (1-92-59)
-        cp[7391] = 0x9097; // 邗 (1-92-60)
-        cp[7392] = 0x9099; // 邙 (1-92-61)
-        cp[7393] = 0x909B; // 邛 (1-92-62)
-        cp[7394] = 0x90A2; // 邢 (1-92-63)
-        cp[7395] = 0x90B3; // 邳 (1-92-64)
-        cp[7396] = 0x90BE; // 邾 (1-92-65)
-        cp[7397] = 0x90C4; // 郄 (1-92-66)
-        cp[7398] = 0x90C5; // 郅 (1-92-67)
-        cp[7399] = 0x90C7; // 郇 (1-92-68)
-        cp[7400] = 0x90D7; // 郗 (1-92-69)
-        cp[7401] = 0x90DD; // 郝 (1-92-70)
-        cp[7402] = 0x90DE; // 郞 (1-92-71)
-        cp[7403] = 0x90EF; // 郯 (1-92-72)
-        cp[7404] = 0x90F4; // 郴 (1-92-73)
-        cp[7405] = 0xFA26; // 都 (1-92-74)
-        cp[7406] = 0x9114; // 鄔 (1-92-75)
-        cp[7407] = 0x9115; // 鄕 (1-92-76)
-        cp[7408] = 0x9116; // 鄖 (1-92-77)
-        cp[7409] = 0x9122; // 鄢 (1-92-78)
-        cp[7410] = 0x9123; // 鄣 (1-92-79)
-        cp[7411] = 0x9127; // 鄧 (1-92-80)
-        cp[7412] = 0x912F; // 鄯 (1-92-81)
-        cp[7413] = 0x9131; // 鄱 (1-92-82)
-        cp[7414] = 0x9134; // 鄴 (1-92-83)
-        cp[7415] = 0x913D; // 鄽 (1-92-84)
-        cp[7416] = 0x9148; // 酈 (1-92-85)
-        cp[7417] = 0x915B; // 酛 (1-92-86)
-        cp[7418] = 0x9183; // 醃 (1-92-87)
-        cp[7419] = 0x919E; // 醞 (1-92-88)
-        cp[7420] = 0x91AC; // 醬 (1-92-89)
-        cp[7421] = 0x91B1; // 醱 (1-92-90)
-        cp[7422] = 0x91BC; // 醼 (1-92-91)
-        cp[7423] = 0x91D7; // 釗 (1-92-92)
-        cp[7424] = 0x91FB; // 釻 (1-92-93)
-        cp[7425] = 0x91E4; // 釤 (1-92-94)
-        cp[7426] = 0x91E5; // 釥 (1-93-01)
-        cp[7427] = 0x91ED; // 釭 (1-93-02)
-        cp[7428] = 0x91F1; // 釱 (1-93-03)
-        cp[7429] = 0x9207; // 鈇 (1-93-04)
-        cp[7430] = 0x9210; // 鈐 (1-93-05)
-        cp[7431] = 0x9238; // 鈸 (1-93-06)
-        cp[7432] = 0x9239; // 鈹 (1-93-07)
-        cp[7433] = 0x923A; // 鈺 (1-93-08)
-        cp[7434] = 0x923C; // 鈼 (1-93-09)
-        cp[7435] = 0x9240; // 鉀 (1-93-10)
-        cp[7436] = 0x9243; // 鉃 (1-93-11)
-        cp[7437] = 0x924F; // 鉏 (1-93-12)
-        cp[7438] = 0x9278; // 鉸 (1-93-13)
-        cp[7439] = 0x9288; // 銈 (1-93-14)
-        cp[7440] = 0x92C2; // 鋂 (1-93-15)
-        cp[7441] = 0x92CB; // 鋋 (1-93-16)
-        cp[7442] = 0x92CC; // 鋌 (1-93-17)
-        cp[7443] = 0x92D3; // 鋓 (1-93-18)
-        cp[7444] = 0x92E0; // 鋠 (1-93-19)
-        cp[7445] = 0x92FF; // 鋿 (1-93-20)
-        cp[7446] = 0x9304; // 錄 (1-93-21)
-        cp[7447] = 0x931F; // 錟 (1-93-22)
-        cp[7448] = 0x9321; // 錡 (1-93-23)
-        cp[7449] = 0x9325; // 錥 (1-93-24)
-        cp[7450] = 0x9348; // 鍈 (1-93-25)
-        cp[7451] = 0x9349; // 鍉 (1-93-26)
-        cp[7452] = 0x934A; // 鍊 (1-93-27)
-        cp[7453] = 0x9364; // 鍤 (1-93-28)
-        cp[7454] = 0x9365; // 鍥 (1-93-29)
-        cp[7455] = 0x936A; // 鍪 (1-93-30)
-        cp[7456] = 0x9370; // 鍰 (1-93-31)
-        cp[7457] = 0x939B; // 鎛 (1-93-32)
-        cp[7458] = 0x93A3; // 鎣 (1-93-33)
-        cp[7459] = 0x93BA; // 鎺 (1-93-34)
-        cp[7460] = 0x93C6; // 鏆 (1-93-35)
-        cp[7461] = 0x93DE; // 鏞 (1-93-36)
-        cp[7462] = 0x93DF; // 鏟 (1-93-37)
-        cp[7463] = 0x9404; // 鐄 (1-93-38)
-        cp[7464] = 0x93FD; // 鏽 (1-93-39)
-        cp[7465] = 0x9433; // 鐳 (1-93-40)
-        cp[7466] = 0x944A; // 鑊 (1-93-41)
-        cp[7467] = 0x9463; // 鑣 (1-93-42)
-        cp[7468] = 0x946B; // 鑫 (1-93-43)
-        cp[7469] = 0x9471; // 鑱 (1-93-44)
-        cp[7470] = 0x9472; // 鑲 (1-93-45)
-        cp[7471] = 0x958E; // 閎 (1-93-46)
-        cp[7472] = 0x959F; // 閟 (1-93-47)
-        cp[7473] = 0x95A6; // 閦 (1-93-48)
-        cp[7474] = 0x95A9; // 閩 (1-93-49)
-        cp[7475] = 0x95AC; // 閬 (1-93-50)
-        cp[7476] = 0x95B6; // 閶 (1-93-51)
-        cp[7477] = 0x95BD; // 閽 (1-93-52)
-        cp[7478] = 0x95CB; // 闋 (1-93-53)
-        cp[7479] = 0x95D0; // 闐 (1-93-54)
-        cp[7480] = 0x95D3; // 闓 (1-93-55)
-        cp[7481] = 0x49B0; // 䦰 (1-93-56)
-        cp[7482] = 0x95DA; // 闚 (1-93-57)
-        cp[7483] = 0x95DE; // 闞 (1-93-58)
-        cp[7484] = 0x9658; // 陘 (1-93-59)
-        cp[7485] = 0x9684; // 隄 (1-93-60)
-        cp[7486] = 0xF9DC; // 隆 (1-93-61)
-        cp[7487] = 0x969D; // 隝 (1-93-62)
-        cp[7488] = 0x96A4; // 隤 (1-93-63)
-        cp[7489] = 0x96A5; // 隥 (1-93-64)
-        cp[7490] = 0x96D2; // 雒 (1-93-65)
-        cp[7491] = 0x96DE; // 雞 (1-93-66)
-        cp[7492] = 0xFA68; // 難 (1-93-67)
-        cp[7493] = 0x96E9; // 雩 (1-93-68)
-        cp[7494] = 0x96EF; // 雯 (1-93-69)
-        cp[7495] = 0x9733; // 霳 (1-93-70)
-        cp[7496] = 0x973B; // 霻 (1-93-71)
-        cp[7497] = 0x974D; // 靍 (1-93-72)
-        cp[7498] = 0x974E; // 靎 (1-93-73)
-        cp[7499] = 0x974F; // 靏 (1-93-74)
-        cp[7500] = 0x975A; // 靚 (1-93-75)
-        cp[7501] = 0x976E; // 靮 (1-93-76)
-        cp[7502] = 0x9773; // 靳 (1-93-77)
-        cp[7503] = 0x9795; // 鞕 (1-93-78)
-        cp[7504] = 0x97AE; // 鞮 (1-93-79)
-        cp[7505] = 0x97BA; // 鞺 (1-93-80)
-        cp[7506] = 0x97C1; // 韁 (1-93-81)
-        cp[7507] = 0x97C9; // 韉 (1-93-82)
-        cp[7508] = 0x97DE; // 韞 (1-93-83)
-        cp[7509] = 0x97DB; // 韛 (1-93-84)
-        cp[7510] = 0x97F4; // 韴 (1-93-85)
-        cp[7511] = 0xFA69; // 響 (1-93-86)
-        cp[7512] = 0x980A; // 頊 (1-93-87)
-        cp[7513] = 0x981E; // 頞 (1-93-88)
-        cp[7514] = 0x982B; // 頫 (1-93-89)
-        cp[7515] = 0x9830; // 頰 (1-93-90)
-        cp[7516] = 0xFA6A; // 頻 (1-93-91)
-        cp[7517] = 0x9852; // 顒 (1-93-92)
-        cp[7518] = 0x9853; // 顓 (1-93-93)
-        cp[7519] = 0x9856; // 顖 (1-93-94)
-        cp[7520] = 0x9857; // 顗 (1-94-01)
-        cp[7521] = 0x9859; // 顙 (1-94-02)
-        cp[7522] = 0x985A; // 顚 (1-94-03)
-        cp[7523] = 0xF9D0; // 類 (1-94-04)
-        cp[7524] = 0x9865; // 顥 (1-94-05)
-        cp[7525] = 0x986C; // 顬 (1-94-06)
-        cp[7526] = 0x98BA; // 颺 (1-94-07)
-        cp[7527] = 0x98C8; // 飈 (1-94-08)
-        cp[7528] = 0x98E7; // 飧 (1-94-09)
-        cp[7529] = 0x9958; // 饘 (1-94-10)
-        cp[7530] = 0x999E; // 馞 (1-94-11)
-        cp[7531] = 0x9A02; // 騂 (1-94-12)
-        cp[7532] = 0x9A03; // 騃 (1-94-13)
-        cp[7533] = 0x9A24; // 騤 (1-94-14)
-        cp[7534] = 0x9A2D; // 騭 (1-94-15)
-        cp[7535] = 0x9A2E; // 騮 (1-94-16)
-        cp[7536] = 0x9A38; // 騸 (1-94-17)
-        cp[7537] = 0x9A4A; // 驊 (1-94-18)
-        cp[7538] = 0x9A4E; // 驎 (1-94-19)
-        cp[7539] = 0x9A52; // 驒 (1-94-20)
-        cp[7540] = 0x9AB6; // 骶 (1-94-21)
-        cp[7541] = 0x9AC1; // 髁 (1-94-22)
-        cp[7542] = 0x9AC3; // 髃 (1-94-23)
-        cp[7543] = 0x9ACE; // 髎 (1-94-24)
-        cp[7544] = 0x9AD6; // 髖 (1-94-25)
-        cp[7545] = 0x9AF9; // 髹 (1-94-26)
-        cp[7546] = 0x9B02; // 鬂 (1-94-27)
-        cp[7547] = 0x9B08; // 鬈 (1-94-28)
-        cp[7548] = 0x9B20; // 鬠 (1-94-29)
-        cp[7549] = 0x4C17; // 䰗 (1-94-30)
-        cp[7550] = 0x9B2D; // 鬭 (1-94-31)
-        cp[7551] = 0x9B5E; // 魞 (1-94-32)
-        cp[7552] = 0x9B79; // 魹 (1-94-33)
-        cp[7553] = 0x9B66; // 魦 (1-94-34)
-        cp[7554] = 0x9B72; // 魲 (1-94-35)
-        cp[7555] = 0x9B75; // 魵 (1-94-36)
-        cp[7556] = 0x9B84; // 鮄 (1-94-37)
-        cp[7557] = 0x9B8A; // 鮊 (1-94-38)
-        cp[7558] = 0x9B8F; // 鮏 (1-94-39)
-        cp[7559] = 0x9B9E; // 鮞 (1-94-40)
-        cp[7560] = 0x9BA7; // 鮧 (1-94-41)
-        cp[7561] = 0x9BC1; // 鯁 (1-94-42)
-        cp[7562] = 0x9BCE; // 鯎 (1-94-43)
-        cp[7563] = 0x9BE5; // 鯥 (1-94-44)
-        cp[7564] = 0x9BF8; // 鯸 (1-94-45)
-        cp[7565] = 0x9BFD; // 鯽 (1-94-46)
-        cp[7566] = 0x9C00; // 鰀 (1-94-47)
-        cp[7567] = 0x9C23; // 鰣 (1-94-48)
-        cp[7568] = 0x9C41; // 鱁 (1-94-49)
-        cp[7569] = 0x9C4F; // 鱏 (1-94-50)
-        cp[7570] = 0x9C50; // 鱐 (1-94-51)
-        cp[7571] = 0x9C53; // 鱓 (1-94-52)
-        cp[7572] = 0x9C63; // 鱣 (1-94-53)
-        cp[7573] = 0x9C65; // 鱥 (1-94-54)
-        cp[7574] = 0x9C77; // 鱷 (1-94-55)
-        cp[7575] = 0x9D1D; // 鴝 (1-94-56)
-        cp[7576] = 0x9D1E; // 鴞 (1-94-57)
-        cp[7577] = 0x9D43; // 鵃 (1-94-58)
-        cp[7578] = 0x9D47; // 鵇 (1-94-59)
-        cp[7579] = 0x9D52; // 鵒 (1-94-60)
-        cp[7580] = 0x9D63; // 鵣 (1-94-61)
-        cp[7581] = 0x9D70; // 鵰 (1-94-62)
-        cp[7582] = 0x9D7C; // 鵼 (1-94-63)
-        cp[7583] = 0x9D8A; // 鶊 (1-94-64)
-        cp[7584] = 0x9D96; // 鶖 (1-94-65)
-        cp[7585] = 0x9DC0; // 鷀 (1-94-66)
-        cp[7586] = 0x9DAC; // 鶬 (1-94-67)
-        cp[7587] = 0x9DBC; // 鶼 (1-94-68)
-        cp[7588] = 0x9DD7; // 鷗 (1-94-69)
-        cp[7589] = 0x2A190; // 𪆐 (1-94-70)
-        cp[7590] = 0x9DE7; // 鷧 (1-94-71)
-        cp[7591] = 0x9E07; // 鸇 (1-94-72)
-        cp[7592] = 0x9E15; // 鸕 (1-94-73)
-        cp[7593] = 0x9E7C; // 鹼 (1-94-74)
-        cp[7594] = 0x9E9E; // 麞 (1-94-75)
-        cp[7595] = 0x9EA4; // 麤 (1-94-76)
-        cp[7596] = 0x9EAC; // 麬 (1-94-77)
-        cp[7597] = 0x9EAF; // 麯 (1-94-78)
-        cp[7598] = 0x9EB4; // 麴 (1-94-79)
-        cp[7599] = 0x9EB5; // 麵 (1-94-80)
-        cp[7600] = 0x9EC3; // 黃 (1-94-81)
-        cp[7601] = 0x9ED1; // 黑 (1-94-82)
-        cp[7602] = 0x9F10; // 鼐 (1-94-83)
-        cp[7603] = 0x9F39; // 鼹 (1-94-84)
-        cp[7604] = 0x9F57; // 齗 (1-94-85)
-        cp[7605] = 0x9F90; // 龐 (1-94-86)
-        cp[7606] = 0x9F94; // 龔 (1-94-87)
-        cp[7607] = 0x9F97; // 龗 (1-94-88)
-        cp[7608] = 0x9FA2; // 龢 (1-94-89)
-        cp[7609] = 0x59F8; // 姸 (1-94-90)
-        cp[7610] = 0x5C5B; // 屛 (1-94-91)
-        cp[7611] = 0x5E77; // 幷 (1-94-92)
-        cp[7612] = 0x7626; // 瘦 (1-94-93)
-        cp[7613] = 0x7E6B; // 繫 (1-94-94)
-        cp[7614] = 0x20089; // 𠂉 (2-01-01)
-        cp[7615] = 0x4E02; // 丂 (2-01-02)
-        cp[7616] = 0x4E0F; // 丏 (2-01-03)
-        cp[7617] = 0x4E12; // 丒 (2-01-04)
-        cp[7618] = 0x4E29; // 丩 (2-01-05)
-        cp[7619] = 0x4E2B; // 丫 (2-01-06)
-        cp[7620] = 0x4E2E; // 丮 (2-01-07)
-        cp[7621] = 0x4E40; // 乀 (2-01-08)
-        cp[7622] = 0x4E47; // 乇 (2-01-09)
-        cp[7623] = 0x4E48; // 么 (2-01-10)
-        cp[7624] = 0x200A2; // 𠂢 (2-01-11)
-        cp[7625] = 0x4E51; // 乑 (2-01-12)
-        cp[7626] = 0x3406; // 㐆 (2-01-13)
-        cp[7627] = 0x200A4; // 𠂤 (2-01-14)
-        cp[7628] = 0x4E5A; // 乚 (2-01-15)
-        cp[7629] = 0x4E69; // 乩 (2-01-16)
-        cp[7630] = 0x4E9D; // 亝 (2-01-17)
-        cp[7631] = 0x342C; // 㐬 (2-01-18)
-        cp[7632] = 0x342E; // 㐮 (2-01-19)
-        cp[7633] = 0x4EB9; // 亹 (2-01-20)
-        cp[7634] = 0x4EBB; // 亻 (2-01-21)
-        cp[7635] = 0x201A2; // 𠆢 (2-01-22)
-        cp[7636] = 0x4EBC; // 亼 (2-01-23)
-        cp[7637] = 0x4EC3; // 仃 (2-01-24)
-        cp[7638] = 0x4EC8; // 仈 (2-01-25)
-        cp[7639] = 0x4ED0; // 仐 (2-01-26)
-        cp[7640] = 0x4EEB; // 仫 (2-01-27)
-        cp[7641] = 0x4EDA; // 仚 (2-01-28)
-        cp[7642] = 0x4EF1; // 仱 (2-01-29)
-        cp[7643] = 0x4EF5; // 仵 (2-01-30)
-        cp[7644] = 0x4F00; // 伀 (2-01-31)
-        cp[7645] = 0x4F16; // 伖 (2-01-32)
-        cp[7646] = 0x4F64; // 佤 (2-01-33)
-        cp[7647] = 0x4F37; // 伷 (2-01-34)
-        cp[7648] = 0x4F3E; // 伾 (2-01-35)
-        cp[7649] = 0x4F54; // 佔 (2-01-36)
-        cp[7650] = 0x4F58; // 佘 (2-01-37)
-        cp[7651] = 0x20213; // 𠈓 (2-01-38)
-        cp[7652] = 0x4F77; // 佷 (2-01-39)
-        cp[7653] = 0x4F78; // 佸 (2-01-40)
-        cp[7654] = 0x4F7A; // 佺 (2-01-41)
-        cp[7655] = 0x4F7D; // 佽 (2-01-42)
-        cp[7656] = 0x4F82; // 侂 (2-01-43)
-        cp[7657] = 0x4F85; // 侅 (2-01-44)
-        cp[7658] = 0x4F92; // 侒 (2-01-45)
-        cp[7659] = 0x4F9A; // 侚 (2-01-46)
-        cp[7660] = 0x4FE6; // 俦 (2-01-47)
-        cp[7661] = 0x4FB2; // 侲 (2-01-48)
-        cp[7662] = 0x4FBE; // 侾 (2-01-49)
-        cp[7663] = 0x4FC5; // 俅 (2-01-50)
-        cp[7664] = 0x4FCB; // 俋 (2-01-51)
-        cp[7665] = 0x4FCF; // 俏 (2-01-52)
-        cp[7666] = 0x4FD2; // 俒 (2-01-53)
-        cp[7667] = 0x346A; // 㑪 (2-01-54)
-        cp[7668] = 0x4FF2; // 俲 (2-01-55)
-        cp[7669] = 0x5000; // 倀 (2-01-56)
-        cp[7670] = 0x5010; // 倐 (2-01-57)
-        cp[7671] = 0x5013; // 倓 (2-01-58)
-        cp[7672] = 0x501C; // 倜 (2-01-59)
-        cp[7673] = 0x501E; // 倞 (2-01-60)
-        cp[7674] = 0x5022; // 倢 (2-01-61)
-        cp[7675] = 0x3468; // 㑨 (2-01-62)
-        cp[7676] = 0x5042; // 偂 (2-01-63)
-        cp[7677] = 0x5046; // 偆 (2-01-64)
-        cp[7678] = 0x504E; // 偎 (2-01-65)
-        cp[7679] = 0x5053; // 偓 (2-01-66)
-        cp[7680] = 0x5057; // 偗 (2-01-67)
-        cp[7681] = 0x5063; // 偣 (2-01-68)
-        cp[7682] = 0x5066; // 偦 (2-01-69)
-        cp[7683] = 0x506A; // 偪 (2-01-70)
-        cp[7684] = 0x5070; // 偰 (2-01-71)
-        cp[7685] = 0x50A3; // 傣 (2-01-72)
-        cp[7686] = 0x5088; // 傈 (2-01-73)
-        cp[7687] = 0x5092; // 傒 (2-01-74)
-        cp[7688] = 0x5093; // 傓 (2-01-75)
-        cp[7689] = 0x5095; // 傕 (2-01-76)
-        cp[7690] = 0x5096; // 傖 (2-01-77)
-        cp[7691] = 0x509C; // 傜 (2-01-78)
-        cp[7692] = 0x50AA; // 傪 (2-01-79)
-        cp[7693] = 0x2032B; // 𠌫 (2-01-80)
-        cp[7694] = 0x50B1; // 傱 (2-01-81)
-        cp[7695] = 0x50BA; // 傺 (2-01-82)
-        cp[7696] = 0x50BB; // 傻 (2-01-83)
-        cp[7697] = 0x50C4; // 僄 (2-01-84)
-        cp[7698] = 0x50C7; // 僇 (2-01-85)
-        cp[7699] = 0x50F3; // 僳 (2-01-86)
-        cp[7700] = 0x20381; // 𠎁 (2-01-87)
-        cp[7701] = 0x50CE; // 僎 (2-01-88)
-        cp[7702] = 0x20371; // 𠍱 (2-01-89)
-        cp[7703] = 0x50D4; // 僔 (2-01-90)
-        cp[7704] = 0x50D9; // 僙 (2-01-91)
-        cp[7705] = 0x50E1; // 僡 (2-01-92)
-        cp[7706] = 0x50E9; // 僩 (2-01-93)
-        cp[7707] = 0x3492; // 㒒 (2-01-94)
-        cp[7708] = 0x5108; // 儈 (2-03-01)
-        cp[7709] = 0x203F9; // 𠏹 (2-03-02)
-        cp[7710] = 0x5117; // 儗 (2-03-03)
-        cp[7711] = 0x511B; // 儛 (2-03-04)
-        cp[7712] = 0x2044A; // 𠑊 (2-03-05)
-        cp[7713] = 0x5160; // 兠 (2-03-06)
-        cp[7714] = 0x20509; // 𠔉 (2-03-07)
-        cp[7715] = 0x5173; // 关 (2-03-08)
-        cp[7716] = 0x5183; // 冃 (2-03-09)
-        cp[7717] = 0x518B; // 冋 (2-03-10)
-        cp[7718] = 0x34BC; // 㒼 (2-03-11)
-        cp[7719] = 0x5198; // 冘 (2-03-12)
-        cp[7720] = 0x51A3; // 冣 (2-03-13)
-        cp[7721] = 0x51AD; // 冭 (2-03-14)
-        cp[7722] = 0x34C7; // 㓇 (2-03-15)
-        cp[7723] = 0x51BC; // 冼 (2-03-16)
-        cp[7724] = 0x205D6; // 𠗖 (2-03-17)
-        cp[7725] = 0x20628; // 𠘨 (2-03-18)
-        cp[7726] = 0x51F3; // 凳 (2-03-19)
-        cp[7727] = 0x51F4; // 凴 (2-03-20)
-        cp[7728] = 0x5202; // 刂 (2-03-21)
-        cp[7729] = 0x5212; // 划 (2-03-22)
-        cp[7730] = 0x5216; // 刖 (2-03-23)
-        cp[7731] = 0x2074F; // 𠝏 (2-03-24)
-        cp[7732] = 0x5255; // 剕 (2-03-25)
-        cp[7733] = 0x525C; // 剜 (2-03-26)
-        cp[7734] = 0x526C; // 剬 (2-03-27)
-        cp[7735] = 0x5277; // 剷 (2-03-28)
-        cp[7736] = 0x5284; // 劄 (2-03-29)
-        cp[7737] = 0x5282; // 劂 (2-03-30)
-        cp[7738] = 0x20807; // 𠠇 (2-03-31)
-        cp[7739] = 0x5298; // 劘 (2-03-32)
-        cp[7740] = 0x2083A; // 𠠺 (2-03-33)
-        cp[7741] = 0x52A4; // 劤 (2-03-34)
-        cp[7742] = 0x52A6; // 劦 (2-03-35)
-        cp[7743] = 0x52AF; // 劯 (2-03-36)
-        cp[7744] = 0x52BA; // 劺 (2-03-37)
-        cp[7745] = 0x52BB; // 劻 (2-03-38)
-        cp[7746] = 0x52CA; // 勊 (2-03-39)
-        cp[7747] = 0x351F; // 㔟 (2-03-40)
-        cp[7748] = 0x52D1; // 勑 (2-03-41)
-        cp[7749] = 0x208B9; // 𠢹 (2-03-42)
-        cp[7750] = 0x52F7; // 勷 (2-03-43)
-        cp[7751] = 0x530A; // 匊 (2-03-44)
-        cp[7752] = 0x530B; // 匋 (2-03-45)
-        cp[7753] = 0x5324; // 匤 (2-03-46)
-        cp[7754] = 0x5335; // 匵 (2-03-47)
-        cp[7755] = 0x533E; // 匾 (2-03-48)
-        cp[7756] = 0x5342; // 卂 (2-03-49)
-        cp[7757] = 0x2097C; // 𠥼 (2-03-50)
-        cp[7758] = 0x2099D; // 𠦝 (2-03-51)
-        cp[7759] = 0x5367; // 卧 (2-03-52)
-        cp[7760] = 0x536C; // 卬 (2-03-53)
-        cp[7761] = 0x537A; // 卺 (2-03-54)
-        cp[7762] = 0x53A4; // 厤 (2-03-55)
-        cp[7763] = 0x53B4; // 厴 (2-03-56)
-        cp[7764] = 0x20AD3; // 𠫓 (2-03-57)
-        cp[7765] = 0x53B7; // 厷 (2-03-58)
-        cp[7766] = 0x53C0; // 叀 (2-03-59)
-        cp[7767] = 0x20B1D; // 𠬝 (2-03-60)
-        cp[7768] = 0x355D; // 㕝 (2-03-61)
-        cp[7769] = 0x355E; // 㕞 (2-03-62)
-        cp[7770] = 0x53D5; // 叕 (2-03-63)
-        cp[7771] = 0x53DA; // 叚 (2-03-64)
-        cp[7772] = 0x3563; // 㕣 (2-03-65)
-        cp[7773] = 0x53F4; // 叴 (2-03-66)
-        cp[7774] = 0x53F5; // 叵 (2-03-67)
-        cp[7775] = 0x5455; // 呕 (2-03-68)
-        cp[7776] = 0x5424; // 吤 (2-03-69)
-        cp[7777] = 0x5428; // 吨 (2-03-70)
-        cp[7778] = 0x356E; // 㕮 (2-03-71)
-        cp[7779] = 0x5443; // 呃 (2-03-72)
-        cp[7780] = 0x5462; // 呢 (2-03-73)
-        cp[7781] = 0x5466; // 呦 (2-03-74)
-        cp[7782] = 0x546C; // 呬 (2-03-75)
-        cp[7783] = 0x548A; // 咊 (2-03-76)
-        cp[7784] = 0x548D; // 咍 (2-03-77)
-        cp[7785] = 0x5495; // 咕 (2-03-78)
-        cp[7786] = 0x54A0; // 咠 (2-03-79)
-        cp[7787] = 0x54A6; // 咦 (2-03-80)
-        cp[7788] = 0x54AD; // 咭 (2-03-81)
-        cp[7789] = 0x54AE; // 咮 (2-03-82)
-        cp[7790] = 0x54B7; // 咷 (2-03-83)
-        cp[7791] = 0x54BA; // 咺 (2-03-84)
-        cp[7792] = 0x54BF; // 咿 (2-03-85)
-        cp[7793] = 0x54C3; // 哃 (2-03-86)
-        cp[7794] = 0x20D45; // 𠵅 (2-03-87)
-        cp[7795] = 0x54EC; // 哬 (2-03-88)
-        cp[7796] = 0x54EF; // 哯 (2-03-89)
-        cp[7797] = 0x54F1; // 哱 (2-03-90)
-        cp[7798] = 0x54F3; // 哳 (2-03-91)
-        cp[7799] = 0x5500; // 唀 (2-03-92)
-        cp[7800] = 0x5501; // 唁 (2-03-93)
-        cp[7801] = 0x5509; // 唉 (2-03-94)
-        cp[7802] = 0x553C; // 唼 (2-04-01)
-        cp[7803] = 0x5541; // 啁 (2-04-02)
-        cp[7804] = 0x35A6; // 㖦 (2-04-03)
-        cp[7805] = 0x5547; // 啇 (2-04-04)
-        cp[7806] = 0x554A; // 啊 (2-04-05)
-        cp[7807] = 0x35A8; // 㖨 (2-04-06)
-        cp[7808] = 0x5560; // 啠 (2-04-07)
-        cp[7809] = 0x5561; // 啡 (2-04-08)
-        cp[7810] = 0x5564; // 啤 (2-04-09)
-        cp[7811] = 0x20DE1; // 𠷡 (2-04-10)
-        cp[7812] = 0x557D; // 啽 (2-04-11)
-        cp[7813] = 0x5582; // 喂 (2-04-12)
-        cp[7814] = 0x5588; // 喈 (2-04-13)
-        cp[7815] = 0x5591; // 喑 (2-04-14)
-        cp[7816] = 0x35C5; // 㗅 (2-04-15)
-        cp[7817] = 0x55D2; // 嗒 (2-04-16)
-        cp[7818] = 0x20E95; // 𠺕 (2-04-17)
-        cp[7819] = 0x20E6D; // 𠹭 (2-04-18)
-        cp[7820] = 0x55BF; // 喿 (2-04-19)
-        cp[7821] = 0x55C9; // 嗉 (2-04-20)
-        cp[7822] = 0x55CC; // 嗌 (2-04-21)
-        cp[7823] = 0x55D1; // 嗑 (2-04-22)
-        cp[7824] = 0x55DD; // 嗝 (2-04-23)
-        cp[7825] = 0x35DA; // 㗚 (2-04-24)
-        cp[7826] = 0x55E2; // 嗢 (2-04-25)
-        cp[7827] = 0x20E64; // 𠹤 (2-04-26)
-        cp[7828] = 0x55E9; // 嗩 (2-04-27)
-        cp[7829] = 0x5628; // 嘨 (2-04-28)
-        cp[7830] = 0x20F5F; // 𠽟 (2-04-29)
-        cp[7831] = 0x5607; // 嘇 (2-04-30)
-        cp[7832] = 0x5610; // 嘐 (2-04-31)
-        cp[7833] = 0x5630; // 嘰 (2-04-32)
-        cp[7834] = 0x5637; // 嘷 (2-04-33)
-        cp[7835] = 0x35F4; // 㗴 (2-04-34)
-        cp[7836] = 0x563D; // 嘽 (2-04-35)
-        cp[7837] = 0x563F; // 嘿 (2-04-36)
-        cp[7838] = 0x5640; // 噀 (2-04-37)
-        cp[7839] = 0x5647; // 噇 (2-04-38)
-        cp[7840] = 0x565E; // 噞 (2-04-39)
-        cp[7841] = 0x5660; // 噠 (2-04-40)
-        cp[7842] = 0x566D; // 噭 (2-04-41)
-        cp[7843] = 0x3605; // 㘅 (2-04-42)
-        cp[7844] = 0x5688; // 嚈 (2-04-43)
-        cp[7845] = 0x568C; // 嚌 (2-04-44)
-        cp[7846] = 0x5695; // 嚕 (2-04-45)
-        cp[7847] = 0x569A; // 嚚 (2-04-46)
-        cp[7848] = 0x569D; // 嚝 (2-04-47)
-        cp[7849] = 0x56A8; // 嚨 (2-04-48)
-        cp[7850] = 0x56AD; // 嚭 (2-04-49)
-        cp[7851] = 0x56B2; // 嚲 (2-04-50)
-        cp[7852] = 0x56C5; // 囅 (2-04-51)
-        cp[7853] = 0x56CD; // 囍 (2-04-52)
-        cp[7854] = 0x56DF; // 囟 (2-04-53)
-        cp[7855] = 0x56E8; // 囨 (2-04-54)
-        cp[7856] = 0x56F6; // 囶 (2-04-55)
-        cp[7857] = 0x56F7; // 囷 (2-04-56)
-        cp[7858] = 0x21201; // 𡈁 (2-04-57)
-        cp[7859] = 0x5715; // 圕 (2-04-58)
-        cp[7860] = 0x5723; // 圣 (2-04-59)
-        cp[7861] = 0x21255; // 𡉕 (2-04-60)
-        cp[7862] = 0x5729; // 圩 (2-04-61)
-        cp[7863] = 0x2127B; // 𡉻 (2-04-62)
-        cp[7864] = 0x5745; // 坅 (2-04-63)
-        cp[7865] = 0x5746; // 坆 (2-04-64)
-        cp[7866] = 0x574C; // 坌 (2-04-65)
-        cp[7867] = 0x574D; // 坍 (2-04-66)
-        cp[7868] = 0x21274; // 𡉴 (2-04-67)
-        cp[7869] = 0x5768; // 坨 (2-04-68)
-        cp[7870] = 0x576F; // 坯 (2-04-69)
-        cp[7871] = 0x5773; // 坳 (2-04-70)
-        cp[7872] = 0x5774; // 坴 (2-04-71)
-        cp[7873] = 0x5775; // 坵 (2-04-72)
-        cp[7874] = 0x577B; // 坻 (2-04-73)
-        cp[7875] = 0x212E4; // 𡋤 (2-04-74)
-        cp[7876] = 0x212D7; // 𡋗 (2-04-75)
-        cp[7877] = 0x57AC; // 垬 (2-04-76)
-        cp[7878] = 0x579A; // 垚 (2-04-77)
-        cp[7879] = 0x579D; // 垝 (2-04-78)
-        cp[7880] = 0x579E; // 垞 (2-04-79)
-        cp[7881] = 0x57A8; // 垨 (2-04-80)
-        cp[7882] = 0x57D7; // 埗 (2-04-81)
-        cp[7883] = 0x212FD; // 𡋽 (2-04-82)
-        cp[7884] = 0x57CC; // 埌 (2-04-83)
-        cp[7885] = 0x21336; // 𡌶 (2-04-84)
-        cp[7886] = 0x21344; // 𡍄 (2-04-85)
-        cp[7887] = 0x57DE; // 埞 (2-04-86)
-        cp[7888] = 0x57E6; // 埦 (2-04-87)
-        cp[7889] = 0x57F0; // 埰 (2-04-88)
-        cp[7890] = 0x364A; // 㙊 (2-04-89)
-        cp[7891] = 0x57F8; // 埸 (2-04-90)
-        cp[7892] = 0x57FB; // 埻 (2-04-91)
-        cp[7893] = 0x57FD; // 埽 (2-04-92)
-        cp[7894] = 0x5804; // 堄 (2-04-93)
-        cp[7895] = 0x581E; // 堞 (2-04-94)
-        cp[7896] = 0x5820; // 堠 (2-05-01)
-        cp[7897] = 0x5827; // 堧 (2-05-02)
-        cp[7898] = 0x5832; // 堲 (2-05-03)
-        cp[7899] = 0x5839; // 堹 (2-05-04)
-        cp[7900] = 0x213C4; // 𡏄 (2-05-05)
-        cp[7901] = 0x5849; // 塉 (2-05-06)
-        cp[7902] = 0x584C; // 塌 (2-05-07)
-        cp[7903] = 0x5867; // 塧 (2-05-08)
-        cp[7904] = 0x588A; // 墊 (2-05-09)
-        cp[7905] = 0x588B; // 墋 (2-05-10)
-        cp[7906] = 0x588D; // 墍 (2-05-11)
-        cp[7907] = 0x588F; // 墏 (2-05-12)
-        cp[7908] = 0x5890; // 墐 (2-05-13)
-        cp[7909] = 0x5894; // 墔 (2-05-14)
-        cp[7910] = 0x589D; // 墝 (2-05-15)
-        cp[7911] = 0x58AA; // 墪 (2-05-16)
-        cp[7912] = 0x58B1; // 墱 (2-05-17)
-        cp[7913] = 0x2146D; // 𡑭 (2-05-18)
-        cp[7914] = 0x58C3; // 壃 (2-05-19)
-        cp[7915] = 0x58CD; // 壍 (2-05-20)
-        cp[7916] = 0x58E2; // 壢 (2-05-21)
-        cp[7917] = 0x58F3; // 壳 (2-05-22)
-        cp[7918] = 0x58F4; // 壴 (2-05-23)
-        cp[7919] = 0x5905; // 夅 (2-05-24)
-        cp[7920] = 0x5906; // 夆 (2-05-25)
-        cp[7921] = 0x590B; // 夋 (2-05-26)
-        cp[7922] = 0x590D; // 复 (2-05-27)
-        cp[7923] = 0x5914; // 夔 (2-05-28)
-        cp[7924] = 0x5924; // 夤 (2-05-29)
-        cp[7925] = 0x215D7; // 𡗗 (2-05-30)
-        cp[7926] = 0x3691; // 㚑 (2-05-31)
-        cp[7927] = 0x593D; // 夽 (2-05-32)
-        cp[7928] = 0x3699; // 㚙 (2-05-33)
-        cp[7929] = 0x5946; // 奆 (2-05-34)
-        cp[7930] = 0x3696; // 㚖 (2-05-35)
-        cp[7931] = 0x26C29; // 𦰩 (2-05-36)
-        cp[7932] = 0x595B; // 奛 (2-05-37)
-        cp[7933] = 0x595F; // 奟 (2-05-38)
-        cp[7934] = 0x21647; // 𡙇 (2-05-39)
-        cp[7935] = 0x5975; // 奵 (2-05-40)
-        cp[7936] = 0x5976; // 奶 (2-05-41)
-        cp[7937] = 0x597C; // 奼 (2-05-42)
-        cp[7938] = 0x599F; // 妟 (2-05-43)
-        cp[7939] = 0x59AE; // 妮 (2-05-44)
-        cp[7940] = 0x59BC; // 妼 (2-05-45)
-        cp[7941] = 0x59C8; // 姈 (2-05-46)
-        cp[7942] = 0x59CD; // 姍 (2-05-47)
-        cp[7943] = 0x59DE; // 姞 (2-05-48)
-        cp[7944] = 0x59E3; // 姣 (2-05-49)
-        cp[7945] = 0x59E4; // 姤 (2-05-50)
-        cp[7946] = 0x59E7; // 姧 (2-05-51)
-        cp[7947] = 0x59EE; // 姮 (2-05-52)
-        cp[7948] = 0x21706; // 𡜆 (2-05-53)
-        cp[7949] = 0x21742; // 𡝂 (2-05-54)
-        cp[7950] = 0x36CF; // 㛏 (2-05-55)
-        cp[7951] = 0x5A0C; // 娌 (2-05-56)
-        cp[7952] = 0x5A0D; // 娍 (2-05-57)
-        cp[7953] = 0x5A17; // 娗 (2-05-58)
-        cp[7954] = 0x5A27; // 娧 (2-05-59)
-        cp[7955] = 0x5A2D; // 娭 (2-05-60)
-        cp[7956] = 0x5A55; // 婕 (2-05-61)
-        cp[7957] = 0x5A65; // 婥 (2-05-62)
-        cp[7958] = 0x5A7A; // 婺 (2-05-63)
-        cp[7959] = 0x5A8B; // 媋 (2-05-64)
-        cp[7960] = 0x5A9C; // 媜 (2-05-65)
-        cp[7961] = 0x5A9F; // 媟 (2-05-66)
-        cp[7962] = 0x5AA0; // 媠 (2-05-67)
-        cp[7963] = 0x5AA2; // 媢 (2-05-68)
-        cp[7964] = 0x5AB1; // 媱 (2-05-69)
-        cp[7965] = 0x5AB3; // 媳 (2-05-70)
-        cp[7966] = 0x5AB5; // 媵 (2-05-71)
-        cp[7967] = 0x5ABA; // 媺 (2-05-72)
-        cp[7968] = 0x5ABF; // 媿 (2-05-73)
-        cp[7969] = 0x5ADA; // 嫚 (2-05-74)
-        cp[7970] = 0x5ADC; // 嫜 (2-05-75)
-        cp[7971] = 0x5AE0; // 嫠 (2-05-76)
-        cp[7972] = 0x5AE5; // 嫥 (2-05-77)
-        cp[7973] = 0x5AF0; // 嫰 (2-05-78)
-        cp[7974] = 0x5AEE; // 嫮 (2-05-79)
-        cp[7975] = 0x5AF5; // 嫵 (2-05-80)
-        cp[7976] = 0x5B00; // 嬀 (2-05-81)
-        cp[7977] = 0x5B08; // 嬈 (2-05-82)
-        cp[7978] = 0x5B17; // 嬗 (2-05-83)
-        cp[7979] = 0x5B34; // 嬴 (2-05-84)
-        cp[7980] = 0x5B2D; // 嬭 (2-05-85)
-        cp[7981] = 0x5B4C; // 孌 (2-05-86)
-        cp[7982] = 0x5B52; // 孒 (2-05-87)
-        cp[7983] = 0x5B68; // 孨 (2-05-88)
-        cp[7984] = 0x5B6F; // 孯 (2-05-89)
-        cp[7985] = 0x5B7C; // 孼 (2-05-90)
-        cp[7986] = 0x5B7F; // 孿 (2-05-91)
-        cp[7987] = 0x5B81; // 宁 (2-05-92)
-        cp[7988] = 0x5B84; // 宄 (2-05-93)
-        cp[7989] = 0x219C3; // 𡧃 (2-05-94)
-        cp[7990] = 0x5B96; // 宖 (2-08-01)
-        cp[7991] = 0x5BAC; // 宬 (2-08-02)
-        cp[7992] = 0x3761; // 㝡 (2-08-03)
-        cp[7993] = 0x5BC0; // 寀 (2-08-04)
-        cp[7994] = 0x3762; // 㝢 (2-08-05)
-        cp[7995] = 0x5BCE; // 寎 (2-08-06)
-        cp[7996] = 0x5BD6; // 寖 (2-08-07)
-        cp[7997] = 0x376C; // 㝬 (2-08-08)
-        cp[7998] = 0x376B; // 㝫 (2-08-09)
-        cp[7999] = 0x5BF1; // 寱 (2-08-10)
-        return t8(cp);
-    }
-
-    private static Integer[] t8(Integer[] cp) {
-        cp[8000] = 0x5BFD; // 寽 (2-08-11)
-        cp[8001] = 0x3775; // 㝵 (2-08-12)
-        cp[8002] = 0x5C03; // 尃 (2-08-13)
-        cp[8003] = 0x5C29; // 尩 (2-08-14)
-        cp[8004] = 0x5C30; // 尰 (2-08-15)
-        cp[8005] = 0x21C56; // 𡱖 (2-08-16)
-        cp[8006] = 0x5C5F; // 屟 (2-08-17)
-        cp[8007] = 0x5C63; // 屣 (2-08-18)
-        cp[8008] = 0x5C67; // 屧 (2-08-19)
-        cp[8009] = 0x5C68; // 屨 (2-08-20)
-        cp[8010] = 0x5C69; // 屩 (2-08-21)
-        cp[8011] = 0x5C70; // 屰 (2-08-22)
-        cp[8012] = 0x21D2D; // 𡴭 (2-08-23)
-        cp[8013] = 0x21D45; // 𡵅 (2-08-24)
-        cp[8014] = 0x5C7C; // 屼 (2-08-25)
-        cp[8015] = 0x21D78; // 𡵸 (2-08-26)
-        cp[8016] = 0x21D62; // 𡵢 (2-08-27)
-        cp[8017] = 0x5C88; // 岈 (2-08-28)
-        cp[8018] = 0x5C8A; // 岊 (2-08-29)
-        cp[8019] = 0x37C1; // 㟁 (2-08-30)
-        cp[8020] = 0x21DA1; // 𡶡 (2-08-31)
-        cp[8021] = 0x21D9C; // 𡶜 (2-08-32)
-        cp[8022] = 0x5CA0; // 岠 (2-08-33)
-        cp[8023] = 0x5CA2; // 岢 (2-08-34)
-        cp[8024] = 0x5CA6; // 岦 (2-08-35)
-        cp[8025] = 0x5CA7; // 岧 (2-08-36)
-        cp[8026] = 0x21D92; // 𡶒 (2-08-37)
-        cp[8027] = 0x5CAD; // 岭 (2-08-38)
-        cp[8028] = 0x5CB5; // 岵 (2-08-39)
-        cp[8029] = 0x21DB7; // 𡶷 (2-08-40)
-        cp[8030] = 0x5CC9; // 峉 (2-08-41)
-        cp[8031] = 0x21DE0; // 𡷠 (2-08-42)
-        cp[8032] = 0x21E33; // 𡸳 (2-08-43)
-        cp[8033] = 0x5D06; // 崆 (2-08-44)
-        cp[8034] = 0x5D10; // 崐 (2-08-45)
-        cp[8035] = 0x5D2B; // 崫 (2-08-46)
-        cp[8036] = 0x5D1D; // 崝 (2-08-47)
-        cp[8037] = 0x5D20; // 崠 (2-08-48)
-        cp[8038] = 0x5D24; // 崤 (2-08-49)
-        cp[8039] = 0x5D26; // 崦 (2-08-50)
-        cp[8040] = 0x5D31; // 崱 (2-08-51)
-        cp[8041] = 0x5D39; // 崹 (2-08-52)
-        cp[8042] = 0x5D42; // 嵂 (2-08-53)
-        cp[8043] = 0x37E8; // 㟨 (2-08-54)
-        cp[8044] = 0x5D61; // 嵡 (2-08-55)
-        cp[8045] = 0x5D6A; // 嵪 (2-08-56)
-        cp[8046] = 0x37F4; // 㟴 (2-08-57)
-        cp[8047] = 0x5D70; // 嵰 (2-08-58)
-        cp[8048] = 0x21F1E; // 𡼞 (2-08-59)
-        cp[8049] = 0x37FD; // 㟽 (2-08-60)
-        cp[8050] = 0x5D88; // 嶈 (2-08-61)
-        cp[8051] = 0x3800; // 㠀 (2-08-62)
-        cp[8052] = 0x5D92; // 嶒 (2-08-63)
-        cp[8053] = 0x5D94; // 嶔 (2-08-64)
-        cp[8054] = 0x5D97; // 嶗 (2-08-65)
-        cp[8055] = 0x5D99; // 嶙 (2-08-66)
-        cp[8056] = 0x5DB0; // 嶰 (2-08-67)
-        cp[8057] = 0x5DB2; // 嶲 (2-08-68)
-        cp[8058] = 0x5DB4; // 嶴 (2-08-69)
-        cp[8059] = 0x21F76; // 𡽶 (2-08-70)
-        cp[8060] = 0x5DB9; // 嶹 (2-08-71)
-        cp[8061] = 0x5DD1; // 巑 (2-08-72)
-        cp[8062] = 0x5DD7; // 巗 (2-08-73)
-        cp[8063] = 0x5DD8; // 巘 (2-08-74)
-        cp[8064] = 0x5DE0; // 巠 (2-08-75)
-        cp[8065] = 0x21FFA; // 𡿺 (2-08-76)
-        cp[8066] = 0x5DE4; // 巤 (2-08-77)
-        cp[8067] = 0x5DE9; // 巩 (2-08-78)
-        cp[8068] = 0x382F; // 㠯 (2-08-79)
-        cp[8069] = 0x5E00; // 帀 (2-08-80)
-        cp[8070] = 0x3836; // 㠶 (2-08-81)
-        cp[8071] = 0x5E12; // 帒 (2-08-82)
-        cp[8072] = 0x5E15; // 帕 (2-08-83)
-        cp[8073] = 0x3840; // 㡀 (2-08-84)
-        cp[8074] = 0x5E1F; // 帟 (2-08-85)
-        cp[8075] = 0x5E2E; // 帮 (2-08-86)
-        cp[8076] = 0x5E3E; // 帾 (2-08-87)
-        cp[8077] = 0x5E49; // 幉 (2-08-88)
-        cp[8078] = 0x385C; // 㡜 (2-08-89)
-        cp[8079] = 0x5E56; // 幖 (2-08-90)
-        cp[8080] = 0x3861; // 㡡 (2-08-91)
-        cp[8081] = 0x5E6B; // 幫 (2-08-92)
-        cp[8082] = 0x5E6C; // 幬 (2-08-93)
-        cp[8083] = 0x5E6D; // 幭 (2-08-94)
-        cp[8084] = 0x5E6E; // 幮 (2-12-01)
-        cp[8085] = 0x2217B; // 𢅻 (2-12-02)
-        cp[8086] = 0x5EA5; // 庥 (2-12-03)
-        cp[8087] = 0x5EAA; // 庪 (2-12-04)
-        cp[8088] = 0x5EAC; // 庬 (2-12-05)
-        cp[8089] = 0x5EB9; // 庹 (2-12-06)
-        cp[8090] = 0x5EBF; // 庿 (2-12-07)
-        cp[8091] = 0x5EC6; // 廆 (2-12-08)
-        cp[8092] = 0x5ED2; // 廒 (2-12-09)
-        cp[8093] = 0x5ED9; // 廙 (2-12-10)
-        cp[8094] = 0x2231E; // 𢌞 (2-12-11)
-        cp[8095] = 0x5EFD; // 廽 (2-12-12)
-        cp[8096] = 0x5F08; // 弈 (2-12-13)
-        cp[8097] = 0x5F0E; // 弎 (2-12-14)
-        cp[8098] = 0x5F1C; // 弜 (2-12-15)
-        cp[8099] = 0x223AD; // 𢎭 (2-12-16)
-        cp[8100] = 0x5F1E; // 弞 (2-12-17)
-        cp[8101] = 0x5F47; // 彇 (2-12-18)
-        cp[8102] = 0x5F63; // 彣 (2-12-19)
-        cp[8103] = 0x5F72; // 彲 (2-12-20)
-        cp[8104] = 0x5F7E; // 彾 (2-12-21)
-        cp[8105] = 0x5F8F; // 徏 (2-12-22)
-        cp[8106] = 0x5FA2; // 徢 (2-12-23)
-        cp[8107] = 0x5FA4; // 徤 (2-12-24)
-        cp[8108] = 0x5FB8; // 徸 (2-12-25)
-        cp[8109] = 0x5FC4; // 忄 (2-12-26)
-        cp[8110] = 0x38FA; // 㣺 (2-12-27)
-        cp[8111] = 0x5FC7; // 忇 (2-12-28)
-        cp[8112] = 0x5FCB; // 忋 (2-12-29)
-        cp[8113] = 0x5FD2; // 忒 (2-12-30)
-        cp[8114] = 0x5FD3; // 忓 (2-12-31)
-        cp[8115] = 0x5FD4; // 忔 (2-12-32)
-        cp[8116] = 0x5FE2; // 忢 (2-12-33)
-        cp[8117] = 0x5FEE; // 忮 (2-12-34)
-        cp[8118] = 0x5FEF; // 忯 (2-12-35)
-        cp[8119] = 0x5FF3; // 忳 (2-12-36)
-        cp[8120] = 0x5FFC; // 忼 (2-12-37)
-        cp[8121] = 0x3917; // 㤗 (2-12-38)
-        cp[8122] = 0x6017; // 怗 (2-12-39)
-        cp[8123] = 0x6022; // 怢 (2-12-40)
-        cp[8124] = 0x6024; // 怤 (2-12-41)
-        cp[8125] = 0x391A; // 㤚 (2-12-42)
-        cp[8126] = 0x604C; // 恌 (2-12-43)
-        cp[8127] = 0x607F; // 恿 (2-12-44)
-        cp[8128] = 0x608A; // 悊 (2-12-45)
-        cp[8129] = 0x6095; // 悕 (2-12-46)
-        cp[8130] = 0x60A8; // 您 (2-12-47)
-        cp[8131] = 0x226F3; // 𢛳 (2-12-48)
-        cp[8132] = 0x60B0; // 悰 (2-12-49)
-        cp[8133] = 0x60B1; // 悱 (2-12-50)
-        cp[8134] = 0x60BE; // 悾 (2-12-51)
-        cp[8135] = 0x60C8; // 惈 (2-12-52)
-        cp[8136] = 0x60D9; // 惙 (2-12-53)
-        cp[8137] = 0x60DB; // 惛 (2-12-54)
-        cp[8138] = 0x60EE; // 惮 (2-12-55)
-        cp[8139] = 0x60F2; // 惲 (2-12-56)
-        cp[8140] = 0x60F5; // 惵 (2-12-57)
-        cp[8141] = 0x6110; // 愐 (2-12-58)
-        cp[8142] = 0x6112; // 愒 (2-12-59)
-        cp[8143] = 0x6113; // 愓 (2-12-60)
-        cp[8144] = 0x6119; // 愙 (2-12-61)
-        cp[8145] = 0x611E; // 愞 (2-12-62)
-        cp[8146] = 0x613A; // 愺 (2-12-63)
-        cp[8147] = 0x396F; // 㥯 (2-12-64)
-        cp[8148] = 0x6141; // 慁 (2-12-65)
-        cp[8149] = 0x6146; // 慆 (2-12-66)
-        cp[8150] = 0x6160; // 慠 (2-12-67)
-        cp[8151] = 0x617C; // 慼 (2-12-68)
-        cp[8152] = 0x2285B; // 𢡛 (2-12-69)
-        cp[8153] = 0x6192; // 憒 (2-12-70)
-        cp[8154] = 0x6193; // 憓 (2-12-71)
-        cp[8155] = 0x6197; // 憗 (2-12-72)
-        cp[8156] = 0x6198; // 憘 (2-12-73)
-        cp[8157] = 0x61A5; // 憥 (2-12-74)
-        cp[8158] = 0x61A8; // 憨 (2-12-75)
-        cp[8159] = 0x61AD; // 憭 (2-12-76)
-        cp[8160] = 0x228AB; // 𢢫 (2-12-77)
-        cp[8161] = 0x61D5; // 懕 (2-12-78)
-        cp[8162] = 0x61DD; // 懝 (2-12-79)
-        cp[8163] = 0x61DF; // 懟 (2-12-80)
-        cp[8164] = 0x61F5; // 懵 (2-12-81)
-        cp[8165] = 0x2298F; // 𢦏 (2-12-82)
-        cp[8166] = 0x6215; // 戕 (2-12-83)
-        cp[8167] = 0x6223; // 戣 (2-12-84)
-        cp[8168] = 0x6229; // 戩 (2-12-85)
-        cp[8169] = 0x6246; // 扆 (2-12-86)
-        cp[8170] = 0x624C; // 扌 (2-12-87)
-        cp[8171] = 0x6251; // 扑 (2-12-88)
-        cp[8172] = 0x6252; // 扒 (2-12-89)
-        cp[8173] = 0x6261; // 扡 (2-12-90)
-        cp[8174] = 0x6264; // 扤 (2-12-91)
-        cp[8175] = 0x627B; // 扻 (2-12-92)
-        cp[8176] = 0x626D; // 扭 (2-12-93)
-        cp[8177] = 0x6273; // 扳 (2-12-94)
-        cp[8178] = 0x6299; // 抙 (2-13-01)
-        cp[8179] = 0x62A6; // 抦 (2-13-02)
-        cp[8180] = 0x62D5; // 拕 (2-13-03)
-        cp[8181] = 0x22AB8; // 𢪸 (2-13-04)
-        cp[8182] = 0x62FD; // 拽 (2-13-05)
-        cp[8183] = 0x6303; // 挃 (2-13-06)
-        cp[8184] = 0x630D; // 挍 (2-13-07)
-        cp[8185] = 0x6310; // 挐 (2-13-08)
-        cp[8186] = 0x22B4F; // 𢭏 (2-13-09)
-        cp[8187] = 0x22B50; // 𢭐 (2-13-10)
-        cp[8188] = 0x6332; // 挲 (2-13-11)
-        cp[8189] = 0x6335; // 挵 (2-13-12)
-        cp[8190] = 0x633B; // 挻 (2-13-13)
-        cp[8191] = 0x633C; // 挼 (2-13-14)
-        cp[8192] = 0x6341; // 捁 (2-13-15)
-        cp[8193] = 0x6344; // 捄 (2-13-16)
-        cp[8194] = 0x634E; // 捎 (2-13-17)
-        cp[8195] = 0x22B46; // 𢭆 (2-13-18)
-        cp[8196] = 0x6359; // 捙 (2-13-19)
-        cp[8197] = 0x22C1D; // 𢰝 (2-13-20)
-        cp[8198] = 0x22BA6; // 𢮦 (2-13-21)
-        cp[8199] = 0x636C; // 捬 (2-13-22)
-        cp[8200] = 0x6384; // 掄 (2-13-23)
-        cp[8201] = 0x6399; // 掙 (2-13-24)
-        cp[8202] = 0x22C24; // 𢰤 (2-13-25)
-        cp[8203] = 0x6394; // 掔 (2-13-26)
-        cp[8204] = 0x63BD; // 掽 (2-13-27)
-        cp[8205] = 0x63F7; // 揷 (2-13-28)
-        cp[8206] = 0x63D4; // 揔 (2-13-29)
-        cp[8207] = 0x63D5; // 揕 (2-13-30)
-        cp[8208] = 0x63DC; // 揜 (2-13-31)
-        cp[8209] = 0x63E0; // 揠 (2-13-32)
-        cp[8210] = 0x63EB; // 揫 (2-13-33)
-        cp[8211] = 0x63EC; // 揬 (2-13-34)
-        cp[8212] = 0x63F2; // 揲 (2-13-35)
-        cp[8213] = 0x6409; // 搉 (2-13-36)
-        cp[8214] = 0x641E; // 搞 (2-13-37)
-        cp[8215] = 0x6425; // 搥 (2-13-38)
-        cp[8216] = 0x6429; // 搩 (2-13-39)
-        cp[8217] = 0x642F; // 搯 (2-13-40)
-        cp[8218] = 0x645A; // 摚 (2-13-41)
-        cp[8219] = 0x645B; // 摛 (2-13-42)
-        cp[8220] = 0x645D; // 摝 (2-13-43)
-        cp[8221] = 0x6473; // 摳 (2-13-44)
-        cp[8222] = 0x647D; // 摽 (2-13-45)
-        cp[8223] = 0x6487; // 撇 (2-13-46)
-        cp[8224] = 0x6491; // 撑 (2-13-47)
-        cp[8225] = 0x649D; // 撝 (2-13-48)
-        cp[8226] = 0x649F; // 撟 (2-13-49)
-        cp[8227] = 0x64CB; // 擋 (2-13-50)
-        cp[8228] = 0x64CC; // 擌 (2-13-51)
-        cp[8229] = 0x64D5; // 擕 (2-13-52)
-        cp[8230] = 0x64D7; // 擗 (2-13-53)
-        cp[8231] = 0x22DE1; // 𢷡 (2-13-54)
-        cp[8232] = 0x64E4; // 擤 (2-13-55)
-        cp[8233] = 0x64E5; // 擥 (2-13-56)
-        cp[8234] = 0x64FF; // 擿 (2-13-57)
-        cp[8235] = 0x6504; // 攄 (2-13-58)
-        cp[8236] = 0x3A6E; // 㩮 (2-13-59)
-        cp[8237] = 0x650F; // 攏 (2-13-60)
-        cp[8238] = 0x6514; // 攔 (2-13-61)
-        cp[8239] = 0x6516; // 攖 (2-13-62)
-        cp[8240] = 0x3A73; // 㩳 (2-13-63)
-        cp[8241] = 0x651E; // 攞 (2-13-64)
-        cp[8242] = 0x6532; // 攲 (2-13-65)
-        cp[8243] = 0x6544; // 敄 (2-13-66)
-        cp[8244] = 0x6554; // 敔 (2-13-67)
-        cp[8245] = 0x656B; // 敫 (2-13-68)
-        cp[8246] = 0x657A; // 敺 (2-13-69)
-        cp[8247] = 0x6581; // 斁 (2-13-70)
-        cp[8248] = 0x6584; // 斄 (2-13-71)
-        cp[8249] = 0x6585; // 斅 (2-13-72)
-        cp[8250] = 0x658A; // 斊 (2-13-73)
-        cp[8251] = 0x65B2; // 斲 (2-13-74)
-        cp[8252] = 0x65B5; // 斵 (2-13-75)
-        cp[8253] = 0x65B8; // 斸 (2-13-76)
-        cp[8254] = 0x65BF; // 斿 (2-13-77)
-        cp[8255] = 0x65C2; // 旂 (2-13-78)
-        cp[8256] = 0x65C9; // 旉 (2-13-79)
-        cp[8257] = 0x65D4; // 旔 (2-13-80)
-        cp[8258] = 0x3AD6; // 㫖 (2-13-81)
-        cp[8259] = 0x65F2; // 旲 (2-13-82)
-        cp[8260] = 0x65F9; // 旹 (2-13-83)
-        cp[8261] = 0x65FC; // 旼 (2-13-84)
-        cp[8262] = 0x6604; // 昄 (2-13-85)
-        cp[8263] = 0x6608; // 昈 (2-13-86)
-        cp[8264] = 0x6621; // 昡 (2-13-87)
-        cp[8265] = 0x662A; // 昪 (2-13-88)
-        cp[8266] = 0x6645; // 晅 (2-13-89)
-        cp[8267] = 0x6651; // 晑 (2-13-90)
-        cp[8268] = 0x664E; // 晎 (2-13-91)
-        cp[8269] = 0x3AEA; // 㫪 (2-13-92)
-        cp[8270] = 0x231C3; // 𣇃 (2-13-93)
-        cp[8271] = 0x6657; // 晗 (2-13-94)
-        cp[8272] = 0x665B; // 晛 (2-14-01)
-        cp[8273] = 0x6663; // 晣 (2-14-02)
-        cp[8274] = 0x231F5; // 𣇵 (2-14-03)
-        cp[8275] = 0x231B6; // 𣆶 (2-14-04)
-        cp[8276] = 0x666A; // 晪 (2-14-05)
-        cp[8277] = 0x666B; // 晫 (2-14-06)
-        cp[8278] = 0x666C; // 晬 (2-14-07)
-        cp[8279] = 0x666D; // 晭 (2-14-08)
-        cp[8280] = 0x667B; // 晻 (2-14-09)
-        cp[8281] = 0x6680; // 暀 (2-14-10)
-        cp[8282] = 0x6690; // 暐 (2-14-11)
-        cp[8283] = 0x6692; // 暒 (2-14-12)
-        cp[8284] = 0x6699; // 暙 (2-14-13)
-        cp[8285] = 0x3B0E; // 㬎 (2-14-14)
-        cp[8286] = 0x66AD; // 暭 (2-14-15)
-        cp[8287] = 0x66B1; // 暱 (2-14-16)
-        cp[8288] = 0x66B5; // 暵 (2-14-17)
-        cp[8289] = 0x3B1A; // 㬚 (2-14-18)
-        cp[8290] = 0x66BF; // 暿 (2-14-19)
-        cp[8291] = 0x3B1C; // 㬜 (2-14-20)
-        cp[8292] = 0x66EC; // 曬 (2-14-21)
-        cp[8293] = 0x3AD7; // 㫗 (2-14-22)
-        cp[8294] = 0x6701; // 朁 (2-14-23)
-        cp[8295] = 0x6705; // 朅 (2-14-24)
-        cp[8296] = 0x6712; // 朒 (2-14-25)
-        cp[8297] = 0x23372; // 𣍲 (2-14-26)
-        cp[8298] = 0x6719; // 朙 (2-14-27)
-        cp[8299] = 0x233D3; // 𣏓 (2-14-28)
-        cp[8300] = 0x233D2; // 𣏒 (2-14-29)
-        cp[8301] = 0x674C; // 杌 (2-14-30)
-        cp[8302] = 0x674D; // 杍 (2-14-31)
-        cp[8303] = 0x6754; // 杔 (2-14-32)
-        cp[8304] = 0x675D; // 杝 (2-14-33)
-        cp[8305] = 0x233D0; // 𣏐 (2-14-34)
-        cp[8306] = 0x233E4; // 𣏤 (2-14-35)
-        cp[8307] = 0x233D5; // 𣏕 (2-14-36)
-        cp[8308] = 0x6774; // 杴 (2-14-37)
-        cp[8309] = 0x6776; // 杶 (2-14-38)
-        cp[8310] = 0x233DA; // 𣏚 (2-14-39)
-        cp[8311] = 0x6792; // 枒 (2-14-40)
-        cp[8312] = 0x233DF; // 𣏟 (2-14-41)
-        cp[8313] = 0x8363; // 荣 (2-14-42)
-        cp[8314] = 0x6810; // 栐 (2-14-43)
-        cp[8315] = 0x67B0; // 枰 (2-14-44)
-        cp[8316] = 0x67B2; // 枲 (2-14-45)
-        cp[8317] = 0x67C3; // 柃 (2-14-46)
-        cp[8318] = 0x67C8; // 柈 (2-14-47)
-        cp[8319] = 0x67D2; // 柒 (2-14-48)
-        cp[8320] = 0x67D9; // 柙 (2-14-49)
-        cp[8321] = 0x67DB; // 柛 (2-14-50)
-        cp[8322] = 0x67F0; // 柰 (2-14-51)
-        cp[8323] = 0x67F7; // 柷 (2-14-52)
-        cp[8324] = 0x2344A; // 𣑊 (2-14-53)
-        cp[8325] = 0x23451; // 𣑑 (2-14-54)
-        cp[8326] = 0x2344B; // 𣑋 (2-14-55)
-        cp[8327] = 0x6818; // 栘 (2-14-56)
-        cp[8328] = 0x681F; // 栟 (2-14-57)
-        cp[8329] = 0x682D; // 栭 (2-14-58)
-        cp[8330] = 0x23465; // 𣑥 (2-14-59)
-        cp[8331] = 0x6833; // 栳 (2-14-60)
-        cp[8332] = 0x683B; // 栻 (2-14-61)
-        cp[8333] = 0x683E; // 栾 (2-14-62)
-        cp[8334] = 0x6844; // 桄 (2-14-63)
-        cp[8335] = 0x6845; // 桅 (2-14-64)
-        cp[8336] = 0x6849; // 桉 (2-14-65)
-        cp[8337] = 0x684C; // 桌 (2-14-66)
-        cp[8338] = 0x6855; // 桕 (2-14-67)
-        cp[8339] = 0x6857; // 桗 (2-14-68)
-        cp[8340] = 0x3B77; // 㭷 (2-14-69)
-        cp[8341] = 0x686B; // 桫 (2-14-70)
-        cp[8342] = 0x686E; // 桮 (2-14-71)
-        cp[8343] = 0x687A; // 桺 (2-14-72)
-        cp[8344] = 0x687C; // 桼 (2-14-73)
-        cp[8345] = 0x6882; // 梂 (2-14-74)
-        cp[8346] = 0x6890; // 梐 (2-14-75)
-        cp[8347] = 0x6896; // 梖 (2-14-76)
-        cp[8348] = 0x3B6D; // 㭭 (2-14-77)
-        cp[8349] = 0x6898; // 梘 (2-14-78)
-        cp[8350] = 0x6899; // 梙 (2-14-79)
-        cp[8351] = 0x689A; // 梚 (2-14-80)
-        cp[8352] = 0x689C; // 梜 (2-14-81)
-        cp[8353] = 0x68AA; // 梪 (2-14-82)
-        cp[8354] = 0x68AB; // 梫 (2-14-83)
-        cp[8355] = 0x68B4; // 梴 (2-14-84)
-        cp[8356] = 0x68BB; // 梻 (2-14-85)
-        cp[8357] = 0x68FB; // 棻 (2-14-86)
-        cp[8358] = 0x234E4; // 𣓤 (2-14-87)
-        cp[8359] = 0x2355A; // 𣕚 (2-14-88)
-        cp[8360] = 0xFA13; // 﨓 (2-14-89)
-        cp[8361] = 0x68C3; // 棃 (2-14-90)
-        cp[8362] = 0x68C5; // 棅 (2-14-91)
-        cp[8363] = 0x68CC; // 棌 (2-14-92)
-        cp[8364] = 0x68CF; // 棏 (2-14-93)
-        cp[8365] = 0x68D6; // 棖 (2-14-94)
-        cp[8366] = 0x68D9; // 棙 (2-15-01)
-        cp[8367] = 0x68E4; // 棤 (2-15-02)
-        cp[8368] = 0x68E5; // 棥 (2-15-03)
-        cp[8369] = 0x68EC; // 棬 (2-15-04)
-        cp[8370] = 0x68F7; // 棷 (2-15-05)
-        cp[8371] = 0x6903; // 椃 (2-15-06)
-        cp[8372] = 0x6907; // 椇 (2-15-07)
-        cp[8373] = 0x3B87; // 㮇 (2-15-08)
-        cp[8374] = 0x3B88; // 㮈 (2-15-09)
-        cp[8375] = 0x23594; // 𣖔 (2-15-10)
-        cp[8376] = 0x693B; // 椻 (2-15-11)
-        cp[8377] = 0x3B8D; // 㮍 (2-15-12)
-        cp[8378] = 0x6946; // 楆 (2-15-13)
-        cp[8379] = 0x6969; // 楩 (2-15-14)
-        cp[8380] = 0x696C; // 楬 (2-15-15)
-        cp[8381] = 0x6972; // 楲 (2-15-16)
-        cp[8382] = 0x697A; // 楺 (2-15-17)
-        cp[8383] = 0x697F; // 楿 (2-15-18)
-        cp[8384] = 0x6992; // 榒 (2-15-19)
-        cp[8385] = 0x3BA4; // 㮤 (2-15-20)
-        cp[8386] = 0x6996; // 榖 (2-15-21)
-        cp[8387] = 0x6998; // 榘 (2-15-22)
-        cp[8388] = 0x69A6; // 榦 (2-15-23)
-        cp[8389] = 0x69B0; // 榰 (2-15-24)
-        cp[8390] = 0x69B7; // 榷 (2-15-25)
-        cp[8391] = 0x69BA; // 榺 (2-15-26)
-        cp[8392] = 0x69BC; // 榼 (2-15-27)
-        cp[8393] = 0x69C0; // 槀 (2-15-28)
-        cp[8394] = 0x69D1; // 槑 (2-15-29)
-        cp[8395] = 0x69D6; // 槖 (2-15-30)
-        cp[8396] = 0x23639; // 𣘹 (2-15-31)
-        cp[8397] = 0x23647; // 𣙇 (2-15-32)
-        cp[8398] = 0x6A30; // 樰 (2-15-33)
-        cp[8399] = 0x23638; // 𣘸 (2-15-34)
-        cp[8400] = 0x2363A; // 𣘺 (2-15-35)
-        cp[8401] = 0x69E3; // 槣 (2-15-36)
-        cp[8402] = 0x69EE; // 槮 (2-15-37)
-        cp[8403] = 0x69EF; // 槯 (2-15-38)
-        cp[8404] = 0x69F3; // 槳 (2-15-39)
-        cp[8405] = 0x3BCD; // 㯍 (2-15-40)
-        cp[8406] = 0x69F4; // 槴 (2-15-41)
-        cp[8407] = 0x69FE; // 槾 (2-15-42)
-        cp[8408] = 0x6A11; // 樑 (2-15-43)
-        cp[8409] = 0x6A1A; // 樚 (2-15-44)
-        cp[8410] = 0x6A1D; // 樝 (2-15-45)
-        cp[8411] = 0x2371C; // 𣜜 (2-15-46)
-        cp[8412] = 0x6A32; // 樲 (2-15-47)
-        cp[8413] = 0x6A33; // 樳 (2-15-48)
-        cp[8414] = 0x6A34; // 樴 (2-15-49)
-        cp[8415] = 0x6A3F; // 樿 (2-15-50)
-        cp[8416] = 0x6A46; // 橆 (2-15-51)
-        cp[8417] = 0x6A49; // 橉 (2-15-52)
-        cp[8418] = 0x6A7A; // 橺 (2-15-53)
-        cp[8419] = 0x6A4E; // 橎 (2-15-54)
-        cp[8420] = 0x6A52; // 橒 (2-15-55)
-        cp[8421] = 0x6A64; // 橤 (2-15-56)
-        cp[8422] = 0x2370C; // 𣜌 (2-15-57)
-        cp[8423] = 0x6A7E; // 橾 (2-15-58)
-        cp[8424] = 0x6A83; // 檃 (2-15-59)
-        cp[8425] = 0x6A8B; // 檋 (2-15-60)
-        cp[8426] = 0x3BF0; // 㯰 (2-15-61)
-        cp[8427] = 0x6A91; // 檑 (2-15-62)
-        cp[8428] = 0x6A9F; // 檟 (2-15-63)
-        cp[8429] = 0x6AA1; // 檡 (2-15-64)
-        cp[8430] = 0x23764; // 𣝤 (2-15-65)
-        cp[8431] = 0x6AAB; // 檫 (2-15-66)
-        cp[8432] = 0x6ABD; // 檽 (2-15-67)
-        cp[8433] = 0x6AC6; // 櫆 (2-15-68)
-        cp[8434] = 0x6AD4; // 櫔 (2-15-69)
-        cp[8435] = 0x6AD0; // 櫐 (2-15-70)
-        cp[8436] = 0x6ADC; // 櫜 (2-15-71)
-        cp[8437] = 0x6ADD; // 櫝 (2-15-72)
-        cp[8438] = 0x237FF; // 𣟿 (2-15-73)
-        cp[8439] = 0x237E7; // 𣟧 (2-15-74)
-        cp[8440] = 0x6AEC; // 櫬 (2-15-75)
-        cp[8441] = 0x6AF1; // 櫱 (2-15-76)
-        cp[8442] = 0x6AF2; // 櫲 (2-15-77)
-        cp[8443] = 0x6AF3; // 櫳 (2-15-78)
-        cp[8444] = 0x6AFD; // 櫽 (2-15-79)
-        cp[8445] = 0x23824; // 𣠤 (2-15-80)
-        cp[8446] = 0x6B0B; // 欋 (2-15-81)
-        cp[8447] = 0x6B0F; // 欏 (2-15-82)
-        cp[8448] = 0x6B10; // 欐 (2-15-83)
-        cp[8449] = 0x6B11; // 欑 (2-15-84)
-        cp[8450] = 0x2383D; // 𣠽 (2-15-85)
-        cp[8451] = 0x6B17; // 欗 (2-15-86)
-        cp[8452] = 0x3C26; // 㰦 (2-15-87)
-        cp[8453] = 0x6B2F; // 欯 (2-15-88)
-        cp[8454] = 0x6B4A; // 歊 (2-15-89)
-        cp[8455] = 0x6B58; // 歘 (2-15-90)
-        cp[8456] = 0x6B6C; // 歬 (2-15-91)
-        cp[8457] = 0x6B75; // 歵 (2-15-92)
-        cp[8458] = 0x6B7A; // 歺 (2-15-93)
-        cp[8459] = 0x6B81; // 殁 (2-15-94)
-        cp[8460] = 0x6B9B; // 殛 (2-78-01)
-        cp[8461] = 0x6BAE; // 殮 (2-78-02)
-        cp[8462] = 0x23A98; // 𣪘 (2-78-03)
-        cp[8463] = 0x6BBD; // 殽 (2-78-04)
-        cp[8464] = 0x6BBE; // 殾 (2-78-05)
-        cp[8465] = 0x6BC7; // 毇 (2-78-06)
-        cp[8466] = 0x6BC8; // 毈 (2-78-07)
-        cp[8467] = 0x6BC9; // 毉 (2-78-08)
-        cp[8468] = 0x6BDA; // 毚 (2-78-09)
-        cp[8469] = 0x6BE6; // 毦 (2-78-10)
-        cp[8470] = 0x6BE7; // 毧 (2-78-11)
-        cp[8471] = 0x6BEE; // 毮 (2-78-12)
-        cp[8472] = 0x6BF1; // 毱 (2-78-13)
-        cp[8473] = 0x6C02; // 氂 (2-78-14)
-        cp[8474] = 0x6C0A; // 氊 (2-78-15)
-        cp[8475] = 0x6C0E; // 氎 (2-78-16)
-        cp[8476] = 0x6C35; // 氵 (2-78-17)
-        cp[8477] = 0x6C36; // 氶 (2-78-18)
-        cp[8478] = 0x6C3A; // 氺 (2-78-19)
-        cp[8479] = 0x23C7F; // 𣱿 (2-78-20)
-        cp[8480] = 0x6C3F; // 氿 (2-78-21)
-        cp[8481] = 0x6C4D; // 汍 (2-78-22)
-        cp[8482] = 0x6C5B; // 汛 (2-78-23)
-        cp[8483] = 0x6C6D; // 汭 (2-78-24)
-        cp[8484] = 0x6C84; // 沄 (2-78-25)
-        cp[8485] = 0x6C89; // 沉 (2-78-26)
-        cp[8486] = 0x3CC3; // 㳃 (2-78-27)
-        cp[8487] = 0x6C94; // 沔 (2-78-28)
-        cp[8488] = 0x6C95; // 沕 (2-78-29)
-        cp[8489] = 0x6C97; // 沗 (2-78-30)
-        cp[8490] = 0x6CAD; // 沭 (2-78-31)
-        cp[8491] = 0x6CC2; // 泂 (2-78-32)
-        cp[8492] = 0x6CD0; // 泐 (2-78-33)
-        cp[8493] = 0x3CD2; // 㳒 (2-78-34)
-        cp[8494] = 0x6CD6; // 泖 (2-78-35)
-        cp[8495] = 0x6CDA; // 泚 (2-78-36)
-        cp[8496] = 0x6CDC; // 泜 (2-78-37)
-        cp[8497] = 0x6CE9; // 泩 (2-78-38)
-        cp[8498] = 0x6CEC; // 泬 (2-78-39)
-        cp[8499] = 0x6CED; // 泭 (2-78-40)
-        cp[8500] = 0x23D00; // 𣴀 (2-78-41)
-        cp[8501] = 0x6D00; // 洀 (2-78-42)
-        cp[8502] = 0x6D0A; // 洊 (2-78-43)
-        cp[8503] = 0x6D24; // 洤 (2-78-44)
-        cp[8504] = 0x6D26; // 洦 (2-78-45)
-        cp[8505] = 0x6D27; // 洧 (2-78-46)
-        cp[8506] = 0x6C67; // 汧 (2-78-47)
-        cp[8507] = 0x6D2F; // 洯 (2-78-48)
-        cp[8508] = 0x6D3C; // 洼 (2-78-49)
-        cp[8509] = 0x6D5B; // 浛 (2-78-50)
-        cp[8510] = 0x6D5E; // 浞 (2-78-51)
-        cp[8511] = 0x6D60; // 浠 (2-78-52)
-        cp[8512] = 0x6D70; // 浰 (2-78-53)
-        cp[8513] = 0x6D80; // 涀 (2-78-54)
-        cp[8514] = 0x6D81; // 涁 (2-78-55)
-        cp[8515] = 0x6D8A; // 涊 (2-78-56)
-        cp[8516] = 0x6D8D; // 涍 (2-78-57)
-        cp[8517] = 0x6D91; // 涑 (2-78-58)
-        cp[8518] = 0x6D98; // 涘 (2-78-59)
-        cp[8519] = 0x23D40; // 𣵀 (2-78-60)
-        cp[8520] = 0x6E17; // 渗 (2-78-61)
-        cp[8521] = 0x23DFA; // 𣷺 (2-78-62)
-        cp[8522] = 0x23DF9; // 𣷹 (2-78-63)
-        cp[8523] = 0x23DD3; // 𣷓 (2-78-64)
-        cp[8524] = 0x6DAB; // 涫 (2-78-65)
-        cp[8525] = 0x6DAE; // 涮 (2-78-66)
-        cp[8526] = 0x6DB4; // 涴 (2-78-67)
-        cp[8527] = 0x6DC2; // 淂 (2-78-68)
-        cp[8528] = 0x6D34; // 洴 (2-78-69)
-        cp[8529] = 0x6DC8; // 淈 (2-78-70)
-        cp[8530] = 0x6DCE; // 淎 (2-78-71)
-        cp[8531] = 0x6DCF; // 淏 (2-78-72)
-        cp[8532] = 0x6DD0; // 淐 (2-78-73)
-        cp[8533] = 0x6DDF; // 淟 (2-78-74)
-        cp[8534] = 0x6DE9; // 淩 (2-78-75)
-        cp[8535] = 0x6DF6; // 淶 (2-78-76)
-        cp[8536] = 0x6E36; // 渶 (2-78-77)
-        cp[8537] = 0x6E1E; // 渞 (2-78-78)
-        cp[8538] = 0x6E22; // 渢 (2-78-79)
-        cp[8539] = 0x6E27; // 渧 (2-78-80)
-        cp[8540] = 0x3D11; // 㴑 (2-78-81)
-        cp[8541] = 0x6E32; // 渲 (2-78-82)
-        cp[8542] = 0x6E3C; // 渼 (2-78-83)
-        cp[8543] = 0x6E48; // 湈 (2-78-84)
-        cp[8544] = 0x6E49; // 湉 (2-78-85)
-        cp[8545] = 0x6E4B; // 湋 (2-78-86)
-        cp[8546] = 0x6E4C; // 湌 (2-78-87)
-        cp[8547] = 0x6E4F; // 湏 (2-78-88)
-        cp[8548] = 0x6E51; // 湑 (2-78-89)
-        cp[8549] = 0x6E53; // 湓 (2-78-90)
-        cp[8550] = 0x6E54; // 湔 (2-78-91)
-        cp[8551] = 0x6E57; // 湗 (2-78-92)
-        cp[8552] = 0x6E63; // 湣 (2-78-93)
-        cp[8553] = 0x3D1E; // 㴞 (2-78-94)
-        cp[8554] = 0x6E93; // 溓 (2-79-01)
-        cp[8555] = 0x6EA7; // 溧 (2-79-02)
-        cp[8556] = 0x6EB4; // 溴 (2-79-03)
-        cp[8557] = 0x6EBF; // 溿 (2-79-04)
-        cp[8558] = 0x6EC3; // 滃 (2-79-05)
-        cp[8559] = 0x6ECA; // 滊 (2-79-06)
-        cp[8560] = 0x6ED9; // 滙 (2-79-07)
-        cp[8561] = 0x6F35; // 漵 (2-79-08)
-        cp[8562] = 0x6EEB; // 滫 (2-79-09)
-        cp[8563] = 0x6EF9; // 滹 (2-79-10)
-        cp[8564] = 0x6EFB; // 滻 (2-79-11)
-        cp[8565] = 0x6F0A; // 漊 (2-79-12)
-        cp[8566] = 0x6F0C; // 漌 (2-79-13)
-        cp[8567] = 0x6F18; // 漘 (2-79-14)
-        cp[8568] = 0x6F25; // 漥 (2-79-15)
-        cp[8569] = 0x6F36; // 漶 (2-79-16)
-        cp[8570] = 0x6F3C; // 漼 (2-79-17)
-        cp[8571] = 0x23F7E; // 𣽾 (2-79-18)
-        cp[8572] = 0x6F52; // 潒 (2-79-19)
-        cp[8573] = 0x6F57; // 潗 (2-79-20)
-        cp[8574] = 0x6F5A; // 潚 (2-79-21)
-        cp[8575] = 0x6F60; // 潠 (2-79-22)
-        cp[8576] = 0x6F68; // 潨 (2-79-23)
-        cp[8577] = 0x6F98; // 澘 (2-79-24)
-        cp[8578] = 0x6F7D; // 潽 (2-79-25)
-        cp[8579] = 0x6F90; // 澐 (2-79-26)
-        cp[8580] = 0x6F96; // 澖 (2-79-27)
-        cp[8581] = 0x6FBE; // 澾 (2-79-28)
-        cp[8582] = 0x6F9F; // 澟 (2-79-29)
-        cp[8583] = 0x6FA5; // 澥 (2-79-30)
-        cp[8584] = 0x6FAF; // 澯 (2-79-31)
-        cp[8585] = 0x3D64; // 㵤 (2-79-32)
-        cp[8586] = 0x6FB5; // 澵 (2-79-33)
-        cp[8587] = 0x6FC8; // 濈 (2-79-34)
-        cp[8588] = 0x6FC9; // 濉 (2-79-35)
-        cp[8589] = 0x6FDA; // 濚 (2-79-36)
-        cp[8590] = 0x6FDE; // 濞 (2-79-37)
-        cp[8591] = 0x6FE9; // 濩 (2-79-38)
-        cp[8592] = 0x24096; // 𤂖 (2-79-39)
-        cp[8593] = 0x6FFC; // 濼 (2-79-40)
-        cp[8594] = 0x7000; // 瀀 (2-79-41)
-        cp[8595] = 0x7007; // 瀇 (2-79-42)
-        cp[8596] = 0x700A; // 瀊 (2-79-43)
-        cp[8597] = 0x7023; // 瀣 (2-79-44)
-        cp[8598] = 0x24103; // 𤄃 (2-79-45)
-        cp[8599] = 0x7039; // 瀹 (2-79-46)
-        cp[8600] = 0x703A; // 瀺 (2-79-47)
-        cp[8601] = 0x703C; // 瀼 (2-79-48)
-        cp[8602] = 0x7043; // 灃 (2-79-49)
-        cp[8603] = 0x7047; // 灇 (2-79-50)
-        cp[8604] = 0x704B; // 灋 (2-79-51)
-        cp[8605] = 0x3D9A; // 㶚 (2-79-52)
-        cp[8606] = 0x7054; // 灔 (2-79-53)
-        cp[8607] = 0x7065; // 灥 (2-79-54)
-        cp[8608] = 0x7069; // 灩 (2-79-55)
-        cp[8609] = 0x706C; // 灬 (2-79-56)
-        cp[8610] = 0x706E; // 灮 (2-79-57)
-        cp[8611] = 0x7076; // 灶 (2-79-58)
-        cp[8612] = 0x707E; // 灾 (2-79-59)
-        cp[8613] = 0x7081; // 炁 (2-79-60)
-        cp[8614] = 0x7086; // 炆 (2-79-61)
-        cp[8615] = 0x7095; // 炕 (2-79-62)
-        cp[8616] = 0x7097; // 炗 (2-79-63)
-        cp[8617] = 0x70BB; // 炻 (2-79-64)
-        cp[8618] = 0x241C6; // 𤇆 (2-79-65)
-        cp[8619] = 0x709F; // 炟 (2-79-66)
-        cp[8620] = 0x70B1; // 炱 (2-79-67)
-        cp[8621] = 0x241FE; // 𤇾 (2-79-68)
-        cp[8622] = 0x70EC; // 烬 (2-79-69)
-        cp[8623] = 0x70CA; // 烊 (2-79-70)
-        cp[8624] = 0x70D1; // 烑 (2-79-71)
-        cp[8625] = 0x70D3; // 烓 (2-79-72)
-        cp[8626] = 0x70DC; // 烜 (2-79-73)
-        cp[8627] = 0x7103; // 焃 (2-79-74)
-        cp[8628] = 0x7104; // 焄 (2-79-75)
-        cp[8629] = 0x7106; // 焆 (2-79-76)
-        cp[8630] = 0x7107; // 焇 (2-79-77)
-        cp[8631] = 0x7108; // 焈 (2-79-78)
-        cp[8632] = 0x710C; // 焌 (2-79-79)
-        cp[8633] = 0x3DC0; // 㷀 (2-79-80)
-        cp[8634] = 0x712F; // 焯 (2-79-81)
-        cp[8635] = 0x7131; // 焱 (2-79-82)
-        cp[8636] = 0x7150; // 煐 (2-79-83)
-        cp[8637] = 0x714A; // 煊 (2-79-84)
-        cp[8638] = 0x7153; // 煓 (2-79-85)
-        cp[8639] = 0x715E; // 煞 (2-79-86)
-        cp[8640] = 0x3DD4; // 㷔 (2-79-87)
-        cp[8641] = 0x7196; // 熖 (2-79-88)
-        cp[8642] = 0x7180; // 熀 (2-79-89)
-        cp[8643] = 0x719B; // 熛 (2-79-90)
-        cp[8644] = 0x71A0; // 熠 (2-79-91)
-        cp[8645] = 0x71A2; // 熢 (2-79-92)
-        cp[8646] = 0x71AE; // 熮 (2-79-93)
-        cp[8647] = 0x71AF; // 熯 (2-79-94)
-        cp[8648] = 0x71B3; // 熳 (2-80-01)
-        cp[8649] = 0x243BC; // 𤎼 (2-80-02)
-        cp[8650] = 0x71CB; // 燋 (2-80-03)
-        cp[8651] = 0x71D3; // 燓 (2-80-04)
-        cp[8652] = 0x71D9; // 燙 (2-80-05)
-        cp[8653] = 0x71DC; // 燜 (2-80-06)
-        cp[8654] = 0x7207; // 爇 (2-80-07)
-        cp[8655] = 0x3E05; // 㸅 (2-80-08)
-        cp[8656] = 0xFA49; // 爫 (2-80-09)
-        cp[8657] = 0x722B; // 爫 (2-80-10)
-        cp[8658] = 0x7234; // 爴 (2-80-11)
-        cp[8659] = 0x7238; // 爸 (2-80-12)
-        cp[8660] = 0x7239; // 爹 (2-80-13)
-        cp[8661] = 0x4E2C; // 丬 (2-80-14)
-        cp[8662] = 0x7242; // 牂 (2-80-15)
-        cp[8663] = 0x7253; // 牓 (2-80-16)
-        cp[8664] = 0x7257; // 牗 (2-80-17)
-        cp[8665] = 0x7263; // 牣 (2-80-18)
-        cp[8666] = 0x24629; // 𤘩 (2-80-19)
-        cp[8667] = 0x726E; // 牮 (2-80-20)
-        cp[8668] = 0x726F; // 牯 (2-80-21)
-        cp[8669] = 0x7278; // 牸 (2-80-22)
-        cp[8670] = 0x727F; // 牿 (2-80-23)
-        cp[8671] = 0x728E; // 犎 (2-80-24)
-        cp[8672] = 0x246A5; // 𤚥 (2-80-25)
-        cp[8673] = 0x72AD; // 犭 (2-80-26)
-        cp[8674] = 0x72AE; // 犮 (2-80-27)
-        cp[8675] = 0x72B0; // 犰 (2-80-28)
-        cp[8676] = 0x72B1; // 犱 (2-80-29)
-        cp[8677] = 0x72C1; // 狁 (2-80-30)
-        cp[8678] = 0x3E60; // 㹠 (2-80-31)
-        cp[8679] = 0x72CC; // 狌 (2-80-32)
-        cp[8680] = 0x3E66; // 㹦 (2-80-33)
-        cp[8681] = 0x3E68; // 㹨 (2-80-34)
-        cp[8682] = 0x72F3; // 狳 (2-80-35)
-        cp[8683] = 0x72FA; // 狺 (2-80-36)
-        cp[8684] = 0x7307; // 猇 (2-80-37)
-        cp[8685] = 0x7312; // 猒 (2-80-38)
-        cp[8686] = 0x7318; // 猘 (2-80-39)
-        cp[8687] = 0x7319; // 猙 (2-80-40)
-        cp[8688] = 0x3E83; // 㺃 (2-80-41)
-        cp[8689] = 0x7339; // 猹 (2-80-42)
-        cp[8690] = 0x732C; // 猬 (2-80-43)
-        cp[8691] = 0x7331; // 猱 (2-80-44)
-        cp[8692] = 0x7333; // 猳 (2-80-45)
-        cp[8693] = 0x733D; // 猽 (2-80-46)
-        cp[8694] = 0x7352; // 獒 (2-80-47)
-        cp[8695] = 0x3E94; // 㺔 (2-80-48)
-        cp[8696] = 0x736B; // 獫 (2-80-49)
-        cp[8697] = 0x736C; // 獬 (2-80-50)
-        cp[8698] = 0x24896; // 𤢖 (2-80-51)
-        cp[8699] = 0x736E; // 獮 (2-80-52)
-        cp[8700] = 0x736F; // 獯 (2-80-53)
-        cp[8701] = 0x7371; // 獱 (2-80-54)
-        cp[8702] = 0x7377; // 獷 (2-80-55)
-        cp[8703] = 0x7381; // 玁 (2-80-56)
-        cp[8704] = 0x7385; // 玅 (2-80-57)
-        cp[8705] = 0x738A; // 玊 (2-80-58)
-        cp[8706] = 0x7394; // 玔 (2-80-59)
-        cp[8707] = 0x7398; // 玘 (2-80-60)
-        cp[8708] = 0x739C; // 玜 (2-80-61)
-        cp[8709] = 0x739E; // 玞 (2-80-62)
-        cp[8710] = 0x73A5; // 玥 (2-80-63)
-        cp[8711] = 0x73A8; // 玨 (2-80-64)
-        cp[8712] = 0x73B5; // 玵 (2-80-65)
-        cp[8713] = 0x73B7; // 玷 (2-80-66)
-        cp[8714] = 0x73B9; // 玹 (2-80-67)
-        cp[8715] = 0x73BC; // 玼 (2-80-68)
-        cp[8716] = 0x73BF; // 玿 (2-80-69)
-        cp[8717] = 0x73C5; // 珅 (2-80-70)
-        cp[8718] = 0x73CB; // 珋 (2-80-71)
-        cp[8719] = 0x73E1; // 珡 (2-80-72)
-        cp[8720] = 0x73E7; // 珧 (2-80-73)
-        cp[8721] = 0x73F9; // 珹 (2-80-74)
-        cp[8722] = 0x7413; // 琓 (2-80-75)
-        cp[8723] = 0x73FA; // 珺 (2-80-76)
-        cp[8724] = 0x7401; // 琁 (2-80-77)
-        cp[8725] = 0x7424; // 琤 (2-80-78)
-        cp[8726] = 0x7431; // 琱 (2-80-79)
-        cp[8727] = 0x7439; // 琹 (2-80-80)
-        cp[8728] = 0x7453; // 瑓 (2-80-81)
-        cp[8729] = 0x7440; // 瑀 (2-80-82)
-        cp[8730] = 0x7443; // 瑃 (2-80-83)
-        cp[8731] = 0x744D; // 瑍 (2-80-84)
-        cp[8732] = 0x7452; // 瑒 (2-80-85)
-        cp[8733] = 0x745D; // 瑝 (2-80-86)
-        cp[8734] = 0x7471; // 瑱 (2-80-87)
-        cp[8735] = 0x7481; // 璁 (2-80-88)
-        cp[8736] = 0x7485; // 璅 (2-80-89)
-        cp[8737] = 0x7488; // 璈 (2-80-90)
-        cp[8738] = 0x24A4D; // 𤩍 (2-80-91)
-        cp[8739] = 0x7492; // 璒 (2-80-92)
-        cp[8740] = 0x7497; // 璗 (2-80-93)
-        cp[8741] = 0x7499; // 璙 (2-80-94)
-        cp[8742] = 0x74A0; // 璠 (2-81-01)
-        cp[8743] = 0x74A1; // 璡 (2-81-02)
-        cp[8744] = 0x74A5; // 璥 (2-81-03)
-        cp[8745] = 0x74AA; // 璪 (2-81-04)
-        cp[8746] = 0x74AB; // 璫 (2-81-05)
-        cp[8747] = 0x74B9; // 璹 (2-81-06)
-        cp[8748] = 0x74BB; // 璻 (2-81-07)
-        cp[8749] = 0x74BA; // 璺 (2-81-08)
-        cp[8750] = 0x74D6; // 瓖 (2-81-09)
-        cp[8751] = 0x74D8; // 瓘 (2-81-10)
-        cp[8752] = 0x74DE; // 瓞 (2-81-11)
-        cp[8753] = 0x74EF; // 瓯 (2-81-12)
-        cp[8754] = 0x74EB; // 瓫 (2-81-13)
-        cp[8755] = 0x24B56; // 𤭖 (2-81-14)
-        cp[8756] = 0x74FA; // 瓺 (2-81-15)
-        cp[8757] = 0x24B6F; // 𤭯 (2-81-16)
-        cp[8758] = 0x7520; // 甠 (2-81-17)
-        cp[8759] = 0x7524; // 甤 (2-81-18)
-        cp[8760] = 0x752A; // 甪 (2-81-19)
-        cp[8761] = 0x3F57; // 㽗 (2-81-20)
-        cp[8762] = 0x24C16; // 𤰖 (2-81-21)
-        cp[8763] = 0x753D; // 甽 (2-81-22)
-        cp[8764] = 0x753E; // 甾 (2-81-23)
-        cp[8765] = 0x7540; // 畀 (2-81-24)
-        cp[8766] = 0x7548; // 畈 (2-81-25)
-        cp[8767] = 0x754E; // 畎 (2-81-26)
-        cp[8768] = 0x7550; // 畐 (2-81-27)
-        cp[8769] = 0x7552; // 畒 (2-81-28)
-        cp[8770] = 0x756C; // 畬 (2-81-29)
-        cp[8771] = 0x7572; // 畲 (2-81-30)
-        cp[8772] = 0x7571; // 畱 (2-81-31)
-        cp[8773] = 0x757A; // 畺 (2-81-32)
-        cp[8774] = 0x757D; // 畽 (2-81-33)
-        cp[8775] = 0x757E; // 畾 (2-81-34)
-        cp[8776] = 0x7581; // 疁 (2-81-35)
-        cp[8777] = 0x24D14; // 𤴔 (2-81-36)
-        cp[8778] = 0x758C; // 疌 (2-81-37)
-        cp[8779] = 0x3F75; // 㽵 (2-81-38)
-        cp[8780] = 0x75A2; // 疢 (2-81-39)
-        cp[8781] = 0x3F77; // 㽷 (2-81-40)
-        cp[8782] = 0x75B0; // 疰 (2-81-41)
-        cp[8783] = 0x75B7; // 疷 (2-81-42)
-        cp[8784] = 0x75BF; // 疿 (2-81-43)
-        cp[8785] = 0x75C0; // 痀 (2-81-44)
-        cp[8786] = 0x75C6; // 痆 (2-81-45)
-        cp[8787] = 0x75CF; // 痏 (2-81-46)
-        cp[8788] = 0x75D3; // 痓 (2-81-47)
-        cp[8789] = 0x75DD; // 痝 (2-81-48)
-        cp[8790] = 0x75DF; // 痟 (2-81-49)
-        cp[8791] = 0x75E0; // 痠 (2-81-50)
-        cp[8792] = 0x75E7; // 痧 (2-81-51)
-        cp[8793] = 0x75EC; // 痬 (2-81-52)
-        cp[8794] = 0x75EE; // 痮 (2-81-53)
-        cp[8795] = 0x75F1; // 痱 (2-81-54)
-        cp[8796] = 0x75F9; // 痹 (2-81-55)
-        cp[8797] = 0x7603; // 瘃 (2-81-56)
-        cp[8798] = 0x7618; // 瘘 (2-81-57)
-        cp[8799] = 0x7607; // 瘇 (2-81-58)
-        cp[8800] = 0x760F; // 瘏 (2-81-59)
-        cp[8801] = 0x3FAE; // 㾮 (2-81-60)
-        cp[8802] = 0x24E0E; // 𤸎 (2-81-61)
-        cp[8803] = 0x7613; // 瘓 (2-81-62)
-        cp[8804] = 0x761B; // 瘛 (2-81-63)
-        cp[8805] = 0x761C; // 瘜 (2-81-64)
-        cp[8806] = 0x24E37; // 𤸷 (2-81-65)
-        cp[8807] = 0x7625; // 瘥 (2-81-66)
-        cp[8808] = 0x7628; // 瘨 (2-81-67)
-        cp[8809] = 0x763C; // 瘼 (2-81-68)
-        cp[8810] = 0x7633; // 瘳 (2-81-69)
-        cp[8811] = 0x24E6A; // 𤹪 (2-81-70)
-        cp[8812] = 0x3FC9; // 㿉 (2-81-71)
-        cp[8813] = 0x7641; // 癁 (2-81-72)
-        cp[8814] = 0x24E8B; // 𤺋 (2-81-73)
-        cp[8815] = 0x7649; // 癉 (2-81-74)
-        cp[8816] = 0x7655; // 癕 (2-81-75)
-        cp[8817] = 0x3FD7; // 㿗 (2-81-76)
-        cp[8818] = 0x766E; // 癮 (2-81-77)
-        cp[8819] = 0x7695; // 皕 (2-81-78)
-        cp[8820] = 0x769C; // 皜 (2-81-79)
-        cp[8821] = 0x76A1; // 皡 (2-81-80)
-        cp[8822] = 0x76A0; // 皠 (2-81-81)
-        cp[8823] = 0x76A7; // 皧 (2-81-82)
-        cp[8824] = 0x76A8; // 皨 (2-81-83)
-        cp[8825] = 0x76AF; // 皯 (2-81-84)
-        cp[8826] = 0x2504A; // 𥁊 (2-81-85)
-        cp[8827] = 0x76C9; // 盉 (2-81-86)
-        cp[8828] = 0x25055; // 𥁕 (2-81-87)
-        cp[8829] = 0x76E8; // 盨 (2-81-88)
-        cp[8830] = 0x76EC; // 盬 (2-81-89)
-        cp[8831] = 0x25122; // 𥄢 (2-81-90)
-        cp[8832] = 0x7717; // 眗 (2-81-91)
-        cp[8833] = 0x771A; // 眚 (2-81-92)
-        cp[8834] = 0x772D; // 眭 (2-81-93)
-        cp[8835] = 0x7735; // 眵 (2-81-94)
-        cp[8836] = 0x251A9; // 𥆩 (2-82-01)
-        cp[8837] = 0x4039; // 䀹 (2-82-02)
-        cp[8838] = 0x251E5; // 𥇥 (2-82-03)
-        cp[8839] = 0x251CD; // 𥇍 (2-82-04)
-        cp[8840] = 0x7758; // 睘 (2-82-05)
-        cp[8841] = 0x7760; // 睠 (2-82-06)
-        cp[8842] = 0x776A; // 睪 (2-82-07)
-        cp[8843] = 0x2521E; // 𥈞 (2-82-08)
-        cp[8844] = 0x7772; // 睲 (2-82-09)
-        cp[8845] = 0x777C; // 睼 (2-82-10)
-        cp[8846] = 0x777D; // 睽 (2-82-11)
-        cp[8847] = 0x2524C; // 𥉌 (2-82-12)
-        cp[8848] = 0x4058; // 䁘 (2-82-13)
-        cp[8849] = 0x779A; // 瞚 (2-82-14)
-        cp[8850] = 0x779F; // 瞟 (2-82-15)
-        cp[8851] = 0x77A2; // 瞢 (2-82-16)
-        cp[8852] = 0x77A4; // 瞤 (2-82-17)
-        cp[8853] = 0x77A9; // 瞩 (2-82-18)
-        cp[8854] = 0x77DE; // 矞 (2-82-19)
-        cp[8855] = 0x77DF; // 矟 (2-82-20)
-        cp[8856] = 0x77E4; // 矤 (2-82-21)
-        cp[8857] = 0x77E6; // 矦 (2-82-22)
-        cp[8858] = 0x77EA; // 矪 (2-82-23)
-        cp[8859] = 0x77EC; // 矬 (2-82-24)
-        cp[8860] = 0x4093; // 䂓 (2-82-25)
-        cp[8861] = 0x77F0; // 矰 (2-82-26)
-        cp[8862] = 0x77F4; // 矴 (2-82-27)
-        cp[8863] = 0x77FB; // 矻 (2-82-28)
-        cp[8864] = 0x2542E; // 𥐮 (2-82-29)
-        cp[8865] = 0x7805; // 砅 (2-82-30)
-        cp[8866] = 0x7806; // 砆 (2-82-31)
-        cp[8867] = 0x7809; // 砉 (2-82-32)
-        cp[8868] = 0x780D; // 砍 (2-82-33)
-        cp[8869] = 0x7819; // 砙 (2-82-34)
-        cp[8870] = 0x7821; // 砡 (2-82-35)
-        cp[8871] = 0x782C; // 砬 (2-82-36)
-        cp[8872] = 0x7847; // 硇 (2-82-37)
-        cp[8873] = 0x7864; // 硤 (2-82-38)
-        cp[8874] = 0x786A; // 硪 (2-82-39)
-        cp[8875] = 0x254D9; // 𥓙 (2-82-40)
-        cp[8876] = 0x788A; // 碊 (2-82-41)
-        cp[8877] = 0x7894; // 碔 (2-82-42)
-        cp[8878] = 0x78A4; // 碤 (2-82-43)
-        cp[8879] = 0x789D; // 碝 (2-82-44)
-        cp[8880] = 0x789E; // 碞 (2-82-45)
-        cp[8881] = 0x789F; // 碟 (2-82-46)
-        cp[8882] = 0x78BB; // 碻 (2-82-47)
-        cp[8883] = 0x78C8; // 磈 (2-82-48)
-        cp[8884] = 0x78CC; // 磌 (2-82-49)
-        cp[8885] = 0x78CE; // 磎 (2-82-50)
-        cp[8886] = 0x78D5; // 磕 (2-82-51)
-        cp[8887] = 0x78E0; // 磠 (2-82-52)
-        cp[8888] = 0x78E1; // 磡 (2-82-53)
-        cp[8889] = 0x78E6; // 磦 (2-82-54)
-        cp[8890] = 0x78F9; // 磹 (2-82-55)
-        cp[8891] = 0x78FA; // 磺 (2-82-56)
-        cp[8892] = 0x78FB; // 磻 (2-82-57)
-        cp[8893] = 0x78FE; // 磾 (2-82-58)
-        cp[8894] = 0x255A7; // 𥖧 (2-82-59)
-        cp[8895] = 0x7910; // 礐 (2-82-60)
-        cp[8896] = 0x791B; // 礛 (2-82-61)
-        cp[8897] = 0x7930; // 礰 (2-82-62)
-        cp[8898] = 0x7925; // 礥 (2-82-63)
-        cp[8899] = 0x793B; // 礻 (2-82-64)
-        cp[8900] = 0x794A; // 祊 (2-82-65)
-        cp[8901] = 0x7958; // 祘 (2-82-66)
-        cp[8902] = 0x795B; // 祛 (2-82-67)
-        cp[8903] = 0x4105; // 䄅 (2-82-68)
-        cp[8904] = 0x7967; // 祧 (2-82-69)
-        cp[8905] = 0x7972; // 祲 (2-82-70)
-        cp[8906] = 0x7994; // 禔 (2-82-71)
-        cp[8907] = 0x7995; // 禕 (2-82-72)
-        cp[8908] = 0x7996; // 禖 (2-82-73)
-        cp[8909] = 0x799B; // 禛 (2-82-74)
-        cp[8910] = 0x79A1; // 禡 (2-82-75)
-        cp[8911] = 0x79A9; // 禩 (2-82-76)
-        cp[8912] = 0x79B4; // 禴 (2-82-77)
-        cp[8913] = 0x79BB; // 离 (2-82-78)
-        cp[8914] = 0x79C2; // 秂 (2-82-79)
-        cp[8915] = 0x79C7; // 秇 (2-82-80)
-        cp[8916] = 0x79CC; // 秌 (2-82-81)
-        cp[8917] = 0x79CD; // 种 (2-82-82)
-        cp[8918] = 0x79D6; // 秖 (2-82-83)
-        cp[8919] = 0x4148; // 䅈 (2-82-84)
-        cp[8920] = 0x257A9; // 𥞩 (2-82-85)
-        cp[8921] = 0x257B4; // 𥞴 (2-82-86)
-        cp[8922] = 0x414F; // 䅏 (2-82-87)
-        cp[8923] = 0x7A0A; // 稊 (2-82-88)
-        cp[8924] = 0x7A11; // 稑 (2-82-89)
-        cp[8925] = 0x7A15; // 稕 (2-82-90)
-        cp[8926] = 0x7A1B; // 稛 (2-82-91)
-        cp[8927] = 0x7A1E; // 稞 (2-82-92)
-        cp[8928] = 0x4163; // 䅣 (2-82-93)
-        cp[8929] = 0x7A2D; // 稭 (2-82-94)
-        cp[8930] = 0x7A38; // 稸 (2-83-01)
-        cp[8931] = 0x7A47; // 穇 (2-83-02)
-        cp[8932] = 0x7A4C; // 穌 (2-83-03)
-        cp[8933] = 0x7A56; // 穖 (2-83-04)
-        cp[8934] = 0x7A59; // 穙 (2-83-05)
-        cp[8935] = 0x7A5C; // 穜 (2-83-06)
-        cp[8936] = 0x7A5F; // 穟 (2-83-07)
-        cp[8937] = 0x7A60; // 穠 (2-83-08)
-        cp[8938] = 0x7A67; // 穧 (2-83-09)
-        cp[8939] = 0x7A6A; // 穪 (2-83-10)
-        cp[8940] = 0x7A75; // 穵 (2-83-11)
-        cp[8941] = 0x7A78; // 穸 (2-83-12)
-        cp[8942] = 0x7A82; // 窂 (2-83-13)
-        cp[8943] = 0x7A8A; // 窊 (2-83-14)
-        cp[8944] = 0x7A90; // 窐 (2-83-15)
-        cp[8945] = 0x7AA3; // 窣 (2-83-16)
-        cp[8946] = 0x7AAC; // 窬 (2-83-17)
-        cp[8947] = 0x259D4; // 𥧔 (2-83-18)
-        cp[8948] = 0x41B4; // 䆴 (2-83-19)
-        cp[8949] = 0x7AB9; // 窹 (2-83-20)
-        cp[8950] = 0x7ABC; // 窼 (2-83-21)
-        cp[8951] = 0x7ABE; // 窾 (2-83-22)
-        cp[8952] = 0x41BF; // 䆿 (2-83-23)
-        cp[8953] = 0x7ACC; // 竌 (2-83-24)
-        cp[8954] = 0x7AD1; // 竑 (2-83-25)
-        cp[8955] = 0x7AE7; // 竧 (2-83-26)
-        cp[8956] = 0x7AE8; // 竨 (2-83-27)
-        cp[8957] = 0x7AF4; // 竴 (2-83-28)
-        cp[8958] = 0x25AE4; // 𥫤 (2-83-29)
-        cp[8959] = 0x25AE3; // 𥫣 (2-83-30)
-        cp[8960] = 0x7B07; // 笇 (2-83-31)
-        cp[8961] = 0x25AF1; // 𥫱 (2-83-32)
-        cp[8962] = 0x7B3D; // 笽 (2-83-33)
-        cp[8963] = 0x7B27; // 笧 (2-83-34)
-        cp[8964] = 0x7B2A; // 笪 (2-83-35)
-        cp[8965] = 0x7B2E; // 笮 (2-83-36)
-        cp[8966] = 0x7B2F; // 笯 (2-83-37)
-        cp[8967] = 0x7B31; // 笱 (2-83-38)
-        cp[8968] = 0x41E6; // 䇦 (2-83-39)
-        cp[8969] = 0x41F3; // 䇳 (2-83-40)
-        cp[8970] = 0x7B7F; // 筿 (2-83-41)
-        cp[8971] = 0x7B41; // 筁 (2-83-42)
-        cp[8972] = 0x41EE; // 䇮 (2-83-43)
-        cp[8973] = 0x7B55; // 筕 (2-83-44)
-        cp[8974] = 0x7B79; // 筹 (2-83-45)
-        cp[8975] = 0x7B64; // 筤 (2-83-46)
-        cp[8976] = 0x7B66; // 筦 (2-83-47)
-        cp[8977] = 0x7B69; // 筩 (2-83-48)
-        cp[8978] = 0x7B73; // 筳 (2-83-49)
-        cp[8979] = 0x25BB2; // 𥮲 (2-83-50)
-        cp[8980] = 0x4207; // 䈇 (2-83-51)
-        cp[8981] = 0x7B90; // 箐 (2-83-52)
-        cp[8982] = 0x7B91; // 箑 (2-83-53)
-        cp[8983] = 0x7B9B; // 箛 (2-83-54)
-        cp[8984] = 0x420E; // 䈎 (2-83-55)
-        cp[8985] = 0x7BAF; // 箯 (2-83-56)
-        cp[8986] = 0x7BB5; // 箵 (2-83-57)
-        cp[8987] = 0x7BBC; // 箼 (2-83-58)
-        cp[8988] = 0x7BC5; // 篅 (2-83-59)
-        cp[8989] = 0x7BCA; // 篊 (2-83-60)
-        cp[8990] = 0x25C4B; // 𥱋 (2-83-61)
-        cp[8991] = 0x25C64; // 𥱤 (2-83-62)
-        cp[8992] = 0x7BD4; // 篔 (2-83-63)
-        cp[8993] = 0x7BD6; // 篖 (2-83-64)
-        cp[8994] = 0x7BDA; // 篚 (2-83-65)
-        cp[8995] = 0x7BEA; // 篪 (2-83-66)
-        cp[8996] = 0x7BF0; // 篰 (2-83-67)
-        cp[8997] = 0x7C03; // 簃 (2-83-68)
-        cp[8998] = 0x7C0B; // 簋 (2-83-69)
-        cp[8999] = 0x7C0E; // 簎 (2-83-70)
-        return t9(cp);
-    }
-
-    private static Integer[] t9(Integer[] cp) {
-        cp[9000] = 0x7C0F; // 簏 (2-83-71)
-        cp[9001] = 0x7C26; // 簦 (2-83-72)
-        cp[9002] = 0x7C45; // 籅 (2-83-73)
-        cp[9003] = 0x7C4A; // 籊 (2-83-74)
-        cp[9004] = 0x7C51; // 籑 (2-83-75)
-        cp[9005] = 0x7C57; // 籗 (2-83-76)
-        cp[9006] = 0x7C5E; // 籞 (2-83-77)
-        cp[9007] = 0x7C61; // 籡 (2-83-78)
-        cp[9008] = 0x7C69; // 籩 (2-83-79)
-        cp[9009] = 0x7C6E; // 籮 (2-83-80)
-        cp[9010] = 0x7C6F; // 籯 (2-83-81)
-        cp[9011] = 0x7C70; // 籰 (2-83-82)
-        cp[9012] = 0x25E2E; // 𥸮 (2-83-83)
-        cp[9013] = 0x25E56; // 𥹖 (2-83-84)
-        cp[9014] = 0x25E65; // 𥹥 (2-83-85)
-        cp[9015] = 0x7CA6; // 粦 (2-83-86)
-        cp[9016] = 0x25E62; // 𥹢 (2-83-87)
-        cp[9017] = 0x7CB6; // 粶 (2-83-88)
-        cp[9018] = 0x7CB7; // 粷 (2-83-89)
-        cp[9019] = 0x7CBF; // 粿 (2-83-90)
-        cp[9020] = 0x25ED8; // 𥻘 (2-83-91)
-        cp[9021] = 0x7CC4; // 糄 (2-83-92)
-        cp[9022] = 0x25EC2; // 𥻂 (2-83-93)
-        cp[9023] = 0x7CC8; // 糈 (2-83-94)
-        cp[9024] = 0x7CCD; // 糍 (2-84-01)
-        cp[9025] = 0x25EE8; // 𥻨 (2-84-02)
-        cp[9026] = 0x7CD7; // 糗 (2-84-03)
-        cp[9027] = 0x25F23; // 𥼣 (2-84-04)
-        cp[9028] = 0x7CE6; // 糦 (2-84-05)
-        cp[9029] = 0x7CEB; // 糫 (2-84-06)
-        cp[9030] = 0x25F5C; // 𥽜 (2-84-07)
-        cp[9031] = 0x7CF5; // 糵 (2-84-08)
-        cp[9032] = 0x7D03; // 紃 (2-84-09)
-        cp[9033] = 0x7D09; // 紉 (2-84-10)
-        cp[9034] = 0x42C6; // 䋆 (2-84-11)
-        cp[9035] = 0x7D12; // 紒 (2-84-12)
-        cp[9036] = 0x7D1E; // 紞 (2-84-13)
-        cp[9037] = 0x25FE0; // 𥿠 (2-84-14)
-        cp[9038] = 0x25FD4; // 𥿔 (2-84-15)
-        cp[9039] = 0x7D3D; // 紽 (2-84-16)
-        cp[9040] = 0x7D3E; // 紾 (2-84-17)
-        cp[9041] = 0x7D40; // 絀 (2-84-18)
-        cp[9042] = 0x7D47; // 絇 (2-84-19)
-        cp[9043] = 0x2600C; // 𦀌 (2-84-20)
-        cp[9044] = 0x25FFB; // 𥿻 (2-84-21)
-        cp[9045] = 0x42D6; // 䋖 (2-84-22)
-        cp[9046] = 0x7D59; // 絙 (2-84-23)
-        cp[9047] = 0x7D5A; // 絚 (2-84-24)
-        cp[9048] = 0x7D6A; // 絪 (2-84-25)
-        cp[9049] = 0x7D70; // 絰 (2-84-26)
-        cp[9050] = 0x42DD; // 䋝 (2-84-27)
-        cp[9051] = 0x7D7F; // 絿 (2-84-28)
-        cp[9052] = 0x26017; // 𦀗 (2-84-29)
-        cp[9053] = 0x7D86; // 綆 (2-84-30)
-        cp[9054] = 0x7D88; // 綈 (2-84-31)
-        cp[9055] = 0x7D8C; // 綌 (2-84-32)
-        cp[9056] = 0x7D97; // 綗 (2-84-33)
-        cp[9057] = 0x26060; // 𦁠 (2-84-34)
-        cp[9058] = 0x7D9D; // 綝 (2-84-35)
-        cp[9059] = 0x7DA7; // 綧 (2-84-36)
-        cp[9060] = 0x7DAA; // 綪 (2-84-37)
-        cp[9061] = 0x7DB6; // 綶 (2-84-38)
-        cp[9062] = 0x7DB7; // 綷 (2-84-39)
-        cp[9063] = 0x7DC0; // 緀 (2-84-40)
-        cp[9064] = 0x7DD7; // 緗 (2-84-41)
-        cp[9065] = 0x7DD9; // 緙 (2-84-42)
-        cp[9066] = 0x7DE6; // 緦 (2-84-43)
-        cp[9067] = 0x7DF1; // 緱 (2-84-44)
-        cp[9068] = 0x7DF9; // 緹 (2-84-45)
-        cp[9069] = 0x4302; // 䌂 (2-84-46)
-        cp[9070] = 0x260ED; // 𦃭 (2-84-47)
-        cp[9071] = 0xFA58; // 縉 (2-84-48)
-        cp[9072] = 0x7E10; // 縐 (2-84-49)
-        cp[9073] = 0x7E17; // 縗 (2-84-50)
-        cp[9074] = 0x7E1D; // 縝 (2-84-51)
-        cp[9075] = 0x7E20; // 縠 (2-84-52)
-        cp[9076] = 0x7E27; // 縧 (2-84-53)
-        cp[9077] = 0x7E2C; // 縬 (2-84-54)
-        cp[9078] = 0x7E45; // 繅 (2-84-55)
-        cp[9079] = 0x7E73; // 繳 (2-84-56)
-        cp[9080] = 0x7E75; // 繵 (2-84-57)
-        cp[9081] = 0x7E7E; // 繾 (2-84-58)
-        cp[9082] = 0x7E86; // 纆 (2-84-59)
-        cp[9083] = 0x7E87; // 纇 (2-84-60)
-        cp[9084] = 0x432B; // 䌫 (2-84-61)
-        cp[9085] = 0x7E91; // 纑 (2-84-62)
-        cp[9086] = 0x7E98; // 纘 (2-84-63)
-        cp[9087] = 0x7E9A; // 纚 (2-84-64)
-        cp[9088] = 0x4343; // 䍃 (2-84-65)
-        cp[9089] = 0x7F3C; // 缼 (2-84-66)
-        cp[9090] = 0x7F3B; // 缻 (2-84-67)
-        cp[9091] = 0x7F3E; // 缾 (2-84-68)
-        cp[9092] = 0x7F43; // 罃 (2-84-69)
-        cp[9093] = 0x7F44; // 罄 (2-84-70)
-        cp[9094] = 0x7F4F; // 罏 (2-84-71)
-        cp[9095] = 0x34C1; // 㓁 (2-84-72)
-        cp[9096] = 0x26270; // 𦉰 (2-84-73)
-        cp[9097] = 0x7F52; // 罒 (2-84-74)
-        cp[9098] = 0x26286; // 𦊆 (2-84-75)
-        cp[9099] = 0x7F61; // 罡 (2-84-76)
-        cp[9100] = 0x7F63; // 罣 (2-84-77)
-        cp[9101] = 0x7F64; // 罤 (2-84-78)
-        cp[9102] = 0x7F6D; // 罭 (2-84-79)
-        cp[9103] = 0x7F7D; // 罽 (2-84-80)
-        cp[9104] = 0x7F7E; // 罾 (2-84-81)
-        cp[9105] = 0x2634C; // 𦍌 (2-84-82)
-        cp[9106] = 0x7F90; // 羐 (2-84-83)
-        cp[9107] = 0x517B; // 养 (2-84-84)
-        cp[9108] = 0x23D0E; // 𣴎 (2-84-85)
-        cp[9109] = 0x7F96; // 羖 (2-84-86)
-        cp[9110] = 0x7F9C; // 羜 (2-84-87)
-        cp[9111] = 0x7FAD; // 羭 (2-84-88)
-        cp[9112] = 0x26402; // 𦐂 (2-84-89)
-        cp[9113] = 0x7FC3; // 翃 (2-84-90)
-        cp[9114] = 0x7FCF; // 翏 (2-84-91)
-        cp[9115] = 0x7FE3; // 翣 (2-84-92)
-        cp[9116] = 0x7FE5; // 翥 (2-84-93)
-        cp[9117] = 0x7FEF; // 翯 (2-84-94)
-        cp[9118] = 0x7FF2; // 翲 (2-85-01)
-        cp[9119] = 0x8002; // 耂 (2-85-02)
-        cp[9120] = 0x800A; // 耊 (2-85-03)
-        cp[9121] = 0x8008; // 耈 (2-85-04)
-        cp[9122] = 0x800E; // 耎 (2-85-05)
-        cp[9123] = 0x8011; // 耑 (2-85-06)
-        cp[9124] = 0x8016; // 耖 (2-85-07)
-        cp[9125] = 0x8024; // 耤 (2-85-08)
-        cp[9126] = 0x802C; // 耬 (2-85-09)
-        cp[9127] = 0x8030; // 耰 (2-85-10)
-        cp[9128] = 0x8043; // 聃 (2-85-11)
-        cp[9129] = 0x8066; // 聦 (2-85-12)
-        cp[9130] = 0x8071; // 聱 (2-85-13)
-        cp[9131] = 0x8075; // 聵 (2-85-14)
-        cp[9132] = 0x807B; // 聻 (2-85-15)
-        cp[9133] = 0x8099; // 肙 (2-85-16)
-        cp[9134] = 0x809C; // 肜 (2-85-17)
-        cp[9135] = 0x80A4; // 肤 (2-85-18)
-        cp[9136] = 0x80A7; // 肧 (2-85-19)
-        cp[9137] = 0x80B8; // 肸 (2-85-20)
-        cp[9138] = 0x2667E; // 𦙾 (2-85-21)
-        cp[9139] = 0x80C5; // 胅 (2-85-22)
-        cp[9140] = 0x80D5; // 胕 (2-85-23)
-        cp[9141] = 0x80D8; // 胘 (2-85-24)
-        cp[9142] = 0x80E6; // 胦 (2-85-25)
-        cp[9143] = 0x266B0; // 𦚰 (2-85-26)
-        cp[9144] = 0x810D; // 脍 (2-85-27)
-        cp[9145] = 0x80F5; // 胵 (2-85-28)
-        cp[9146] = 0x80FB; // 胻 (2-85-29)
-        cp[9147] = 0x43EE; // 䏮 (2-85-30)
-        cp[9148] = 0x8135; // 脵 (2-85-31)
-        cp[9149] = 0x8116; // 脖 (2-85-32)
-        cp[9150] = 0x811E; // 脞 (2-85-33)
-        cp[9151] = 0x43F0; // 䏰 (2-85-34)
-        cp[9152] = 0x8124; // 脤 (2-85-35)
-        cp[9153] = 0x8127; // 脧 (2-85-36)
-        cp[9154] = 0x812C; // 脬 (2-85-37)
-        cp[9155] = 0x2671D; // 𦜝 (2-85-38)
-        cp[9156] = 0x813D; // 脽 (2-85-39)
-        cp[9157] = 0x4408; // 䐈 (2-85-40)
-        cp[9158] = 0x8169; // 腩 (2-85-41)
-        cp[9159] = 0x4417; // 䐗 (2-85-42)
-        cp[9160] = 0x8181; // 膁 (2-85-43)
-        cp[9161] = 0x441C; // 䐜 (2-85-44)
-        cp[9162] = 0x8184; // 膄 (2-85-45)
-        cp[9163] = 0x8185; // 膅 (2-85-46)
-        cp[9164] = 0x4422; // 䐢 (2-85-47)
-        cp[9165] = 0x8198; // 膘 (2-85-48)
-        cp[9166] = 0x81B2; // 膲 (2-85-49)
-        cp[9167] = 0x81C1; // 臁 (2-85-50)
-        cp[9168] = 0x81C3; // 臃 (2-85-51)
-        cp[9169] = 0x81D6; // 臖 (2-85-52)
-        cp[9170] = 0x81DB; // 臛 (2-85-53)
-        cp[9171] = 0x268DD; // 𦣝 (2-85-54)
-        cp[9172] = 0x81E4; // 臤 (2-85-55)
-        cp[9173] = 0x268EA; // 𦣪 (2-85-56)
-        cp[9174] = 0x81EC; // 臬 (2-85-57)
-        cp[9175] = 0x26951; // 𦥑 (2-85-58)
-        cp[9176] = 0x81FD; // 臽 (2-85-59)
-        cp[9177] = 0x81FF; // 臿 (2-85-60)
-        cp[9178] = 0x2696F; // 𦥯 (2-85-61)
-        cp[9179] = 0x8204; // 舄 (2-85-62)
-        cp[9180] = 0x269DD; // 𦧝 (2-85-63)
-        cp[9181] = 0x8219; // 舙 (2-85-64)
-        cp[9182] = 0x8221; // 舡 (2-85-65)
-        cp[9183] = 0x8222; // 舢 (2-85-66)
-        cp[9184] = 0x26A1E; // 𦨞 (2-85-67)
-        cp[9185] = 0x8232; // 舲 (2-85-68)
-        cp[9186] = 0x8234; // 舴 (2-85-69)
-        cp[9187] = 0x823C; // 舼 (2-85-70)
-        cp[9188] = 0x8246; // 艆 (2-85-71)
-        cp[9189] = 0x8249; // 艉 (2-85-72)
-        cp[9190] = 0x8245; // 艅 (2-85-73)
-        cp[9191] = 0x26A58; // 𦩘 (2-85-74)
-        cp[9192] = 0x824B; // 艋 (2-85-75)
-        cp[9193] = 0x4476; // 䑶 (2-85-76)
-        cp[9194] = 0x824F; // 艏 (2-85-77)
-        cp[9195] = 0x447A; // 䑺 (2-85-78)
-        cp[9196] = 0x8257; // 艗 (2-85-79)
-        cp[9197] = 0x26A8C; // 𦪌 (2-85-80)
-        cp[9198] = 0x825C; // 艜 (2-85-81)
-        cp[9199] = 0x8263; // 艣 (2-85-82)
-        cp[9200] = 0x26AB7; // 𦪷 (2-85-83)
-        cp[9201] = 0xFA5D; // 艹 (2-85-84)
-        cp[9202] = 0xFA5E; // 艹 (2-85-85)
-        cp[9203] = 0x8279; // 艹 (2-85-86)
-        cp[9204] = 0x4491; // 䒑 (2-85-87)
-        cp[9205] = 0x827D; // 艽 (2-85-88)
-        cp[9206] = 0x827F; // 艿 (2-85-89)
-        cp[9207] = 0x8283; // 芃 (2-85-90)
-        cp[9208] = 0x828A; // 芊 (2-85-91)
-        cp[9209] = 0x8293; // 芓 (2-85-92)
-        cp[9210] = 0x82A7; // 芧 (2-85-93)
-        cp[9211] = 0x82A8; // 芨 (2-85-94)
-        cp[9212] = 0x82B2; // 芲 (2-86-01)
-        cp[9213] = 0x82B4; // 芴 (2-86-02)
-        cp[9214] = 0x82BA; // 芺 (2-86-03)
-        cp[9215] = 0x82BC; // 芼 (2-86-04)
-        cp[9216] = 0x82E2; // 苢 (2-86-05)
-        cp[9217] = 0x82E8; // 苨 (2-86-06)
-        cp[9218] = 0x82F7; // 苷 (2-86-07)
-        cp[9219] = 0x8307; // 茇 (2-86-08)
-        cp[9220] = 0x8308; // 茈 (2-86-09)
-        cp[9221] = 0x830C; // 茌 (2-86-10)
-        cp[9222] = 0x8354; // 荔 (2-86-11)
-        cp[9223] = 0x831B; // 茛 (2-86-12)
-        cp[9224] = 0x831D; // 茝 (2-86-13)
-        cp[9225] = 0x8330; // 茰 (2-86-14)
-        cp[9226] = 0x833C; // 茼 (2-86-15)
-        cp[9227] = 0x8344; // 荄 (2-86-16)
-        cp[9228] = 0x8357; // 荗 (2-86-17)
-        cp[9229] = 0x44BE; // 䒾 (2-86-18)
-        cp[9230] = 0x837F; // 荿 (2-86-19)
-        cp[9231] = 0x44D4; // 䓔 (2-86-20)
-        cp[9232] = 0x44B3; // 䒳 (2-86-21)
-        cp[9233] = 0x838D; // 莍 (2-86-22)
-        cp[9234] = 0x8394; // 莔 (2-86-23)
-        cp[9235] = 0x8395; // 莕 (2-86-24)
-        cp[9236] = 0x839B; // 莛 (2-86-25)
-        cp[9237] = 0x839D; // 莝 (2-86-26)
-        cp[9238] = 0x83C9; // 菉 (2-86-27)
-        cp[9239] = 0x83D0; // 菐 (2-86-28)
-        cp[9240] = 0x83D4; // 菔 (2-86-29)
-        cp[9241] = 0x83DD; // 菝 (2-86-30)
-        cp[9242] = 0x83E5; // 菥 (2-86-31)
-        cp[9243] = 0x83F9; // 菹 (2-86-32)
-        cp[9244] = 0x840F; // 萏 (2-86-33)
-        cp[9245] = 0x8411; // 萑 (2-86-34)
-        cp[9246] = 0x8415; // 萕 (2-86-35)
-        cp[9247] = 0x26C73; // 𦱳 (2-86-36)
-        cp[9248] = 0x8417; // 萗 (2-86-37)
-        cp[9249] = 0x8439; // 萹 (2-86-38)
-        cp[9250] = 0x844A; // 葊 (2-86-39)
-        cp[9251] = 0x844F; // 葏 (2-86-40)
-        cp[9252] = 0x8451; // 葑 (2-86-41)
-        cp[9253] = 0x8452; // 葒 (2-86-42)
-        cp[9254] = 0x8459; // 葙 (2-86-43)
-        cp[9255] = 0x845A; // 葚 (2-86-44)
-        cp[9256] = 0x845C; // 葜 (2-86-45)
-        cp[9257] = 0x26CDD; // 𦳝 (2-86-46)
-        cp[9258] = 0x8465; // 葥 (2-86-47)
-        cp[9259] = 0x8476; // 葶 (2-86-48)
-        cp[9260] = 0x8478; // 葸 (2-86-49)
-        cp[9261] = 0x847C; // 葼 (2-86-50)
-        cp[9262] = 0x8481; // 蒁 (2-86-51)
-        cp[9263] = 0x450D; // 䔍 (2-86-52)
-        cp[9264] = 0x84DC; // 蓜 (2-86-53)
-        cp[9265] = 0x8497; // 蒗 (2-86-54)
-        cp[9266] = 0x84A6; // 蒦 (2-86-55)
-        cp[9267] = 0x84BE; // 蒾 (2-86-56)
-        cp[9268] = 0x4508; // 䔈 (2-86-57)
-        cp[9269] = 0x84CE; // 蓎 (2-86-58)
-        cp[9270] = 0x84CF; // 蓏 (2-86-59)
-        cp[9271] = 0x84D3; // 蓓 (2-86-60)
-        cp[9272] = 0x26E65; // 𦹥 (2-86-61)
-        cp[9273] = 0x84E7; // 蓧 (2-86-62)
-        cp[9274] = 0x84EA; // 蓪 (2-86-63)
-        cp[9275] = 0x84EF; // 蓯 (2-86-64)
-        cp[9276] = 0x84F0; // 蓰 (2-86-65)
-        cp[9277] = 0x84F1; // 蓱 (2-86-66)
-        cp[9278] = 0x84FA; // 蓺 (2-86-67)
-        cp[9279] = 0x84FD; // 蓽 (2-86-68)
-        cp[9280] = 0x850C; // 蔌 (2-86-69)
-        cp[9281] = 0x851B; // 蔛 (2-86-70)
-        cp[9282] = 0x8524; // 蔤 (2-86-71)
-        cp[9283] = 0x8525; // 蔥 (2-86-72)
-        cp[9284] = 0x852B; // 蔫 (2-86-73)
-        cp[9285] = 0x8534; // 蔴 (2-86-74)
-        cp[9286] = 0x854F; // 蕏 (2-86-75)
-        cp[9287] = 0x856F; // 蕯 (2-86-76)
-        cp[9288] = 0x4525; // 䔥 (2-86-77)
-        cp[9289] = 0x4543; // 䕃 (2-86-78)
-        cp[9290] = 0x853E; // 蔾 (2-86-79)
-        cp[9291] = 0x8551; // 蕑 (2-86-80)
-        cp[9292] = 0x8553; // 蕓 (2-86-81)
-        cp[9293] = 0x855E; // 蕞 (2-86-82)
-        cp[9294] = 0x8561; // 蕡 (2-86-83)
-        cp[9295] = 0x8562; // 蕢 (2-86-84)
-        cp[9296] = 0x26F94; // 𦾔 (2-86-85)
-        cp[9297] = 0x857B; // 蕻 (2-86-86)
-        cp[9298] = 0x857D; // 蕽 (2-86-87)
-        cp[9299] = 0x857F; // 蕿 (2-86-88)
-        cp[9300] = 0x8581; // 薁 (2-86-89)
-        cp[9301] = 0x8586; // 薆 (2-86-90)
-        cp[9302] = 0x8593; // 薓 (2-86-91)
-        cp[9303] = 0x859D; // 薝 (2-86-92)
-        cp[9304] = 0x859F; // 薟 (2-86-93)
-        cp[9305] = 0x26FF8; // 𦿸 (2-86-94)
-        cp[9306] = 0x26FF6; // 𦿶 (2-87-01)
-        cp[9307] = 0x26FF7; // 𦿷 (2-87-02)
-        cp[9308] = 0x85B7; // 薷 (2-87-03)
-        cp[9309] = 0x85BC; // 薼 (2-87-04)
-        cp[9310] = 0x85C7; // 藇 (2-87-05)
-        cp[9311] = 0x85CA; // 藊 (2-87-06)
-        cp[9312] = 0x85D8; // 藘 (2-87-07)
-        cp[9313] = 0x85D9; // 藙 (2-87-08)
-        cp[9314] = 0x85DF; // 藟 (2-87-09)
-        cp[9315] = 0x85E1; // 藡 (2-87-10)
-        cp[9316] = 0x85E6; // 藦 (2-87-11)
-        cp[9317] = 0x85F6; // 藶 (2-87-12)
-        cp[9318] = 0x8600; // 蘀 (2-87-13)
-        cp[9319] = 0x8611; // 蘑 (2-87-14)
-        cp[9320] = 0x861E; // 蘞 (2-87-15)
-        cp[9321] = 0x8621; // 蘡 (2-87-16)
-        cp[9322] = 0x8624; // 蘤 (2-87-17)
-        cp[9323] = 0x8627; // 蘧 (2-87-18)
-        cp[9324] = 0x2710D; // 𧄍 (2-87-19)
-        cp[9325] = 0x8639; // 蘹 (2-87-20)
-        cp[9326] = 0x863C; // 蘼 (2-87-21)
-        cp[9327] = 0x27139; // 𧄹 (2-87-22)
-        cp[9328] = 0x8640; // 虀 (2-87-23)
-        cp[9329] = 0xFA20; // 蘒 (2-87-24)
-        cp[9330] = 0x8653; // 虓 (2-87-25)
-        cp[9331] = 0x8656; // 虖 (2-87-26)
-        cp[9332] = 0x866F; // 虯 (2-87-27)
-        cp[9333] = 0x8677; // 虷 (2-87-28)
-        cp[9334] = 0x867A; // 虺 (2-87-29)
-        cp[9335] = 0x8687; // 蚇 (2-87-30)
-        cp[9336] = 0x8689; // 蚉 (2-87-31)
-        cp[9337] = 0x868D; // 蚍 (2-87-32)
-        cp[9338] = 0x8691; // 蚑 (2-87-33)
-        cp[9339] = 0x869C; // 蚜 (2-87-34)
-        cp[9340] = 0x869D; // 蚝 (2-87-35)
-        cp[9341] = 0x86A8; // 蚨 (2-87-36)
-        cp[9342] = 0xFA21; // 﨡 (2-87-37)
-        cp[9343] = 0x86B1; // 蚱 (2-87-38)
-        cp[9344] = 0x86B3; // 蚳 (2-87-39)
-        cp[9345] = 0x86C1; // 蛁 (2-87-40)
-        cp[9346] = 0x86C3; // 蛃 (2-87-41)
-        cp[9347] = 0x86D1; // 蛑 (2-87-42)
-        cp[9348] = 0x86D5; // 蛕 (2-87-43)
-        cp[9349] = 0x86D7; // 蛗 (2-87-44)
-        cp[9350] = 0x86E3; // 蛣 (2-87-45)
-        cp[9351] = 0x86E6; // 蛦 (2-87-46)
-        cp[9352] = 0x45B8; // 䖸 (2-87-47)
-        cp[9353] = 0x8705; // 蜅 (2-87-48)
-        cp[9354] = 0x8707; // 蜇 (2-87-49)
-        cp[9355] = 0x870E; // 蜎 (2-87-50)
-        cp[9356] = 0x8710; // 蜐 (2-87-51)
-        cp[9357] = 0x8713; // 蜓 (2-87-52)
-        cp[9358] = 0x8719; // 蜙 (2-87-53)
-        cp[9359] = 0x871F; // 蜟 (2-87-54)
-        cp[9360] = 0x8721; // 蜡 (2-87-55)
-        cp[9361] = 0x8723; // 蜣 (2-87-56)
-        cp[9362] = 0x8731; // 蜱 (2-87-57)
-        cp[9363] = 0x873A; // 蜺 (2-87-58)
-        cp[9364] = 0x873E; // 蜾 (2-87-59)
-        cp[9365] = 0x8740; // 蝀 (2-87-60)
-        cp[9366] = 0x8743; // 蝃 (2-87-61)
-        cp[9367] = 0x8751; // 蝑 (2-87-62)
-        cp[9368] = 0x8758; // 蝘 (2-87-63)
-        cp[9369] = 0x8764; // 蝤 (2-87-64)
-        cp[9370] = 0x8765; // 蝥 (2-87-65)
-        cp[9371] = 0x8772; // 蝲 (2-87-66)
-        cp[9372] = 0x877C; // 蝼 (2-87-67)
-        cp[9373] = 0x273DB; // 𧏛 (2-87-68)
-        cp[9374] = 0x273DA; // 𧏚 (2-87-69)
-        cp[9375] = 0x87A7; // 螧 (2-87-70)
-        cp[9376] = 0x8789; // 螉 (2-87-71)
-        cp[9377] = 0x878B; // 螋 (2-87-72)
-        cp[9378] = 0x8793; // 螓 (2-87-73)
-        cp[9379] = 0x87A0; // 螠 (2-87-74)
-        cp[9380] = 0x273FE; // 𧏾 (2-87-75)
-        cp[9381] = 0x45E5; // 䗥 (2-87-76)
-        cp[9382] = 0x87BE; // 螾 (2-87-77)
-        cp[9383] = 0x27410; // 𧐐 (2-87-78)
-        cp[9384] = 0x87C1; // 蟁 (2-87-79)
-        cp[9385] = 0x87CE; // 蟎 (2-87-80)
-        cp[9386] = 0x87F5; // 蟵 (2-87-81)
-        cp[9387] = 0x87DF; // 蟟 (2-87-82)
-        cp[9388] = 0x27449; // 𧑉 (2-87-83)
-        cp[9389] = 0x87E3; // 蟣 (2-87-84)
-        cp[9390] = 0x87E5; // 蟥 (2-87-85)
-        cp[9391] = 0x87E6; // 蟦 (2-87-86)
-        cp[9392] = 0x87EA; // 蟪 (2-87-87)
-        cp[9393] = 0x87EB; // 蟫 (2-87-88)
-        cp[9394] = 0x87ED; // 蟭 (2-87-89)
-        cp[9395] = 0x8801; // 蠁 (2-87-90)
-        cp[9396] = 0x8803; // 蠃 (2-87-91)
-        cp[9397] = 0x880B; // 蠋 (2-87-92)
-        cp[9398] = 0x8813; // 蠓 (2-87-93)
-        cp[9399] = 0x8828; // 蠨 (2-87-94)
-        cp[9400] = 0x882E; // 蠮 (2-88-01)
-        cp[9401] = 0x8832; // 蠲 (2-88-02)
-        cp[9402] = 0x883C; // 蠼 (2-88-03)
-        cp[9403] = 0x460F; // 䘏 (2-88-04)
-        cp[9404] = 0x884A; // 衊 (2-88-05)
-        cp[9405] = 0x8858; // 衘 (2-88-06)
-        cp[9406] = 0x885F; // 衟 (2-88-07)
-        cp[9407] = 0x8864; // 衤 (2-88-08)
-        cp[9408] = 0x27615; // 𧘕 (2-88-09)
-        cp[9409] = 0x27614; // 𧘔 (2-88-10)
-        cp[9410] = 0x8869; // 衩 (2-88-11)
-        cp[9411] = 0x27631; // 𧘱 (2-88-12)
-        cp[9412] = 0x886F; // 衯 (2-88-13)
-        cp[9413] = 0x88A0; // 袠 (2-88-14)
-        cp[9414] = 0x88BC; // 袼 (2-88-15)
-        cp[9415] = 0x88BD; // 袽 (2-88-16)
-        cp[9416] = 0x88BE; // 袾 (2-88-17)
-        cp[9417] = 0x88C0; // 裀 (2-88-18)
-        cp[9418] = 0x88D2; // 裒 (2-88-19)
-        cp[9419] = 0x27693; // 𧚓 (2-88-20)
-        cp[9420] = 0x88D1; // 裑 (2-88-21)
-        cp[9421] = 0x88D3; // 裓 (2-88-22)
-        cp[9422] = 0x88DB; // 裛 (2-88-23)
-        cp[9423] = 0x88F0; // 裰 (2-88-24)
-        cp[9424] = 0x88F1; // 裱 (2-88-25)
-        cp[9425] = 0x4641; // 䙁 (2-88-26)
-        cp[9426] = 0x8901; // 褁 (2-88-27)
-        cp[9427] = 0x2770E; // 𧜎 (2-88-28)
-        cp[9428] = 0x8937; // 褷 (2-88-29)
-        cp[9429] = 0x27723; // 𧜣 (2-88-30)
-        cp[9430] = 0x8942; // 襂 (2-88-31)
-        cp[9431] = 0x8945; // 襅 (2-88-32)
-        cp[9432] = 0x8949; // 襉 (2-88-33)
-        cp[9433] = 0x27752; // 𧝒 (2-88-34)
-        cp[9434] = 0x4665; // 䙥 (2-88-35)
-        cp[9435] = 0x8962; // 襢 (2-88-36)
-        cp[9436] = 0x8980; // 覀 (2-88-37)
-        cp[9437] = 0x8989; // 覉 (2-88-38)
-        cp[9438] = 0x8990; // 覐 (2-88-39)
-        cp[9439] = 0x899F; // 覟 (2-88-40)
-        cp[9440] = 0x89B0; // 覰 (2-88-41)
-        cp[9441] = 0x89B7; // 覷 (2-88-42)
-        cp[9442] = 0x89D6; // 觖 (2-88-43)
-        cp[9443] = 0x89D8; // 觘 (2-88-44)
-        cp[9444] = 0x89EB; // 觫 (2-88-45)
-        cp[9445] = 0x46A1; // 䚡 (2-88-46)
-        cp[9446] = 0x89F1; // 觱 (2-88-47)
-        cp[9447] = 0x89F3; // 觳 (2-88-48)
-        cp[9448] = 0x89FD; // 觽 (2-88-49)
-        cp[9449] = 0x89FF; // 觿 (2-88-50)
-        cp[9450] = 0x46AF; // 䚯 (2-88-51)
-        cp[9451] = 0x8A11; // 訑 (2-88-52)
-        cp[9452] = 0x8A14; // 訔 (2-88-53)
-        cp[9453] = 0x27985; // 𧦅 (2-88-54)
-        cp[9454] = 0x8A21; // 訡 (2-88-55)
-        cp[9455] = 0x8A35; // 訵 (2-88-56)
-        cp[9456] = 0x8A3E; // 訾 (2-88-57)
-        cp[9457] = 0x8A45; // 詅 (2-88-58)
-        cp[9458] = 0x8A4D; // 詍 (2-88-59)
-        cp[9459] = 0x8A58; // 詘 (2-88-60)
-        cp[9460] = 0x8AAE; // 誮 (2-88-61)
-        cp[9461] = 0x8A90; // 誐 (2-88-62)
-        cp[9462] = 0x8AB7; // 誷 (2-88-63)
-        cp[9463] = 0x8ABE; // 誾 (2-88-64)
-        cp[9464] = 0x8AD7; // 諗 (2-88-65)
-        cp[9465] = 0x8AFC; // 諼 (2-88-66)
-        cp[9466] = 0x27A84; // 𧪄 (2-88-67)
-        cp[9467] = 0x8B0A; // 謊 (2-88-68)
-        cp[9468] = 0x8B05; // 謅 (2-88-69)
-        cp[9469] = 0x8B0D; // 謍 (2-88-70)
-        cp[9470] = 0x8B1C; // 謜 (2-88-71)
-        cp[9471] = 0x8B1F; // 謟 (2-88-72)
-        cp[9472] = 0x8B2D; // 謭 (2-88-73)
-        cp[9473] = 0x8B43; // 譃 (2-88-74)
-        cp[9474] = 0x470C; // 䜌 (2-88-75)
-        cp[9475] = 0x8B51; // 譑 (2-88-76)
-        cp[9476] = 0x8B5E; // 譞 (2-88-77)
-        cp[9477] = 0x8B76; // 譶 (2-88-78)
-        cp[9478] = 0x8B7F; // 譿 (2-88-79)
-        cp[9479] = 0x8B81; // 讁 (2-88-80)
-        cp[9480] = 0x8B8B; // 讋 (2-88-81)
-        cp[9481] = 0x8B94; // 讔 (2-88-82)
-        cp[9482] = 0x8B95; // 讕 (2-88-83)
-        cp[9483] = 0x8B9C; // 讜 (2-88-84)
-        cp[9484] = 0x8B9E; // 讞 (2-88-85)
-        cp[9485] = 0x8C39; // 谹 (2-88-86)
-        cp[9486] = 0x27BB3; // 𧮳 (2-88-87)
-        cp[9487] = 0x8C3D; // 谽 (2-88-88)
-        cp[9488] = 0x27BBE; // 𧮾 (2-88-89)
-        cp[9489] = 0x27BC7; // 𧯇 (2-88-90)
-        cp[9490] = 0x8C45; // 豅 (2-88-91)
-        cp[9491] = 0x8C47; // 豇 (2-88-92)
-        cp[9492] = 0x8C4F; // 豏 (2-88-93)
-        cp[9493] = 0x8C54; // 豔 (2-88-94)
-        cp[9494] = 0x8C57; // 豗 (2-89-01)
-        cp[9495] = 0x8C69; // 豩 (2-89-02)
-        cp[9496] = 0x8C6D; // 豭 (2-89-03)
-        cp[9497] = 0x8C73; // 豳 (2-89-04)
-        cp[9498] = 0x27CB8; // 𧲸 (2-89-05)
-        cp[9499] = 0x8C93; // 貓 (2-89-06)
-        cp[9500] = 0x8C92; // 貒 (2-89-07)
-        cp[9501] = 0x8C99; // 貙 (2-89-08)
-        cp[9502] = 0x4764; // 䝤 (2-89-09)
-        cp[9503] = 0x8C9B; // 貛 (2-89-10)
-        cp[9504] = 0x8CA4; // 貤 (2-89-11)
-        cp[9505] = 0x8CD6; // 賖 (2-89-12)
-        cp[9506] = 0x8CD5; // 賕 (2-89-13)
-        cp[9507] = 0x8CD9; // 賙 (2-89-14)
-        cp[9508] = 0x27DA0; // 𧶠 (2-89-15)
-        cp[9509] = 0x8CF0; // 賰 (2-89-16)
-        cp[9510] = 0x8CF1; // 賱 (2-89-17)
-        cp[9511] = 0x27E10; // 𧸐 (2-89-18)
-        cp[9512] = 0x8D09; // 贉 (2-89-19)
-        cp[9513] = 0x8D0E; // 贎 (2-89-20)
-        cp[9514] = 0x8D6C; // 赬 (2-89-21)
-        cp[9515] = 0x8D84; // 趄 (2-89-22)
-        cp[9516] = 0x8D95; // 趕 (2-89-23)
-        cp[9517] = 0x8DA6; // 趦 (2-89-24)
-        cp[9518] = 0x27FB7; // 𧾷 (2-89-25)
-        cp[9519] = 0x8DC6; // 跆 (2-89-26)
-        cp[9520] = 0x8DC8; // 跈 (2-89-27)
-        cp[9521] = 0x8DD9; // 跙 (2-89-28)
-        cp[9522] = 0x8DEC; // 跬 (2-89-29)
-        cp[9523] = 0x8E0C; // 踌 (2-89-30)
-        cp[9524] = 0x47FD; // 䟽 (2-89-31)
-        cp[9525] = 0x8DFD; // 跽 (2-89-32)
-        cp[9526] = 0x8E06; // 踆 (2-89-33)
-        cp[9527] = 0x2808A; // 𨂊 (2-89-34)
-        cp[9528] = 0x8E14; // 踔 (2-89-35)
-        cp[9529] = 0x8E16; // 踖 (2-89-36)
-        cp[9530] = 0x8E21; // 踡 (2-89-37)
-        cp[9531] = 0x8E22; // 踢 (2-89-38)
-        cp[9532] = 0x8E27; // 踧 (2-89-39)
-        cp[9533] = 0x280BB; // 𨂻 (2-89-40)
-        cp[9534] = 0x4816; // 䠖 (2-89-41)
-        cp[9535] = 0x8E36; // 踶 (2-89-42)
-        cp[9536] = 0x8E39; // 踹 (2-89-43)
-        cp[9537] = 0x8E4B; // 蹋 (2-89-44)
-        cp[9538] = 0x8E54; // 蹔 (2-89-45)
-        cp[9539] = 0x8E62; // 蹢 (2-89-46)
-        cp[9540] = 0x8E6C; // 蹬 (2-89-47)
-        cp[9541] = 0x8E6D; // 蹭 (2-89-48)
-        cp[9542] = 0x8E6F; // 蹯 (2-89-49)
-        cp[9543] = 0x8E98; // 躘 (2-89-50)
-        cp[9544] = 0x8E9E; // 躞 (2-89-51)
-        cp[9545] = 0x8EAE; // 躮 (2-89-52)
-        cp[9546] = 0x8EB3; // 躳 (2-89-53)
-        cp[9547] = 0x8EB5; // 躵 (2-89-54)
-        cp[9548] = 0x8EB6; // 躶 (2-89-55)
-        cp[9549] = 0x8EBB; // 躻 (2-89-56)
-        cp[9550] = 0x28282; // 𨊂 (2-89-57)
-        cp[9551] = 0x8ED1; // 軑 (2-89-58)
-        cp[9552] = 0x8ED4; // 軔 (2-89-59)
-        cp[9553] = 0x484E; // 䡎 (2-89-60)
-        cp[9554] = 0x8EF9; // 軹 (2-89-61)
-        cp[9555] = 0x282F3; // 𨋳 (2-89-62)
-        cp[9556] = 0x8F00; // 輀 (2-89-63)
-        cp[9557] = 0x8F08; // 輈 (2-89-64)
-        cp[9558] = 0x8F17; // 輗 (2-89-65)
-        cp[9559] = 0x8F2B; // 輫 (2-89-66)
-        cp[9560] = 0x8F40; // 轀 (2-89-67)
-        cp[9561] = 0x8F4A; // 轊 (2-89-68)
-        cp[9562] = 0x8F58; // 轘 (2-89-69)
-        cp[9563] = 0x2840C; // 𨐌 (2-89-70)
-        cp[9564] = 0x8FA4; // 辤 (2-89-71)
-        cp[9565] = 0x8FB4; // 辴 (2-89-72)
-        cp[9566] = 0xFA66; // 辶 (2-89-73)
-        cp[9567] = 0x8FB6; // 辶 (2-89-74)
-        cp[9568] = 0x28455; // 𨑕 (2-89-75)
-        cp[9569] = 0x8FC1; // 迁 (2-89-76)
-        cp[9570] = 0x8FC6; // 迆 (2-89-77)
-        cp[9571] = 0xFA24; // 﨤 (2-89-78)
-        cp[9572] = 0x8FCA; // 迊 (2-89-79)
-        cp[9573] = 0x8FCD; // 迍 (2-89-80)
-        cp[9574] = 0x8FD3; // 迓 (2-89-81)
-        cp[9575] = 0x8FD5; // 迕 (2-89-82)
-        cp[9576] = 0x8FE0; // 迠 (2-89-83)
-        cp[9577] = 0x8FF1; // 迱 (2-89-84)
-        cp[9578] = 0x8FF5; // 迵 (2-89-85)
-        cp[9579] = 0x8FFB; // 迻 (2-89-86)
-        cp[9580] = 0x9002; // 适 (2-89-87)
-        cp[9581] = 0x900C; // 逌 (2-89-88)
-        cp[9582] = 0x9037; // 逷 (2-89-89)
-        cp[9583] = 0x2856B; // 𨕫 (2-89-90)
-        cp[9584] = 0x9043; // 遃 (2-89-91)
-        cp[9585] = 0x9044; // 遄 (2-89-92)
-        cp[9586] = 0x905D; // 遝 (2-89-93)
-        cp[9587] = 0x285C8; // 𨗈 (2-89-94)
-        cp[9588] = 0x285C9; // 𨗉 (2-90-01)
-        cp[9589] = 0x9085; // 邅 (2-90-02)
-        cp[9590] = 0x908C; // 邌 (2-90-03)
-        cp[9591] = 0x9090; // 邐 (2-90-04)
-        cp[9592] = 0x961D; // 阝 (2-90-05)
-        cp[9593] = 0x90A1; // 邡 (2-90-06)
-        cp[9594] = 0x48B5; // 䢵 (2-90-07)
-        cp[9595] = 0x90B0; // 邰 (2-90-08)
-        cp[9596] = 0x90B6; // 邶 (2-90-09)
-        cp[9597] = 0x90C3; // 郃 (2-90-10)
-        cp[9598] = 0x90C8; // 郈 (2-90-11)
-        cp[9599] = 0x286D7; // 𨛗 (2-90-12)
-        cp[9600] = 0x90DC; // 郜 (2-90-13)
-        cp[9601] = 0x90DF; // 郟 (2-90-14)
-        cp[9602] = 0x286FA; // 𨛺 (2-90-15)
-        cp[9603] = 0x90F6; // 郶 (2-90-16)
-        cp[9604] = 0x90F2; // 郲 (2-90-17)
-        cp[9605] = 0x9100; // 鄀 (2-90-18)
-        cp[9606] = 0x90EB; // 郫 (2-90-19)
-        cp[9607] = 0x90FE; // 郾 (2-90-20)
-        cp[9608] = 0x90FF; // 郿 (2-90-21)
-        cp[9609] = 0x9104; // 鄄 (2-90-22)
-        cp[9610] = 0x9106; // 鄆 (2-90-23)
-        cp[9611] = 0x9118; // 鄘 (2-90-24)
-        cp[9612] = 0x911C; // 鄜 (2-90-25)
-        cp[9613] = 0x911E; // 鄞 (2-90-26)
-        cp[9614] = 0x9137; // 鄷 (2-90-27)
-        cp[9615] = 0x9139; // 鄹 (2-90-28)
-        cp[9616] = 0x913A; // 鄺 (2-90-29)
-        cp[9617] = 0x9146; // 酆 (2-90-30)
-        cp[9618] = 0x9147; // 酇 (2-90-31)
-        cp[9619] = 0x9157; // 酗 (2-90-32)
-        cp[9620] = 0x9159; // 酙 (2-90-33)
-        cp[9621] = 0x9161; // 酡 (2-90-34)
-        cp[9622] = 0x9164; // 酤 (2-90-35)
-        cp[9623] = 0x9174; // 酴 (2-90-36)
-        cp[9624] = 0x9179; // 酹 (2-90-37)
-        cp[9625] = 0x9185; // 醅 (2-90-38)
-        cp[9626] = 0x918E; // 醎 (2-90-39)
-        cp[9627] = 0x91A8; // 醨 (2-90-40)
-        cp[9628] = 0x91AE; // 醮 (2-90-41)
-        cp[9629] = 0x91B3; // 醳 (2-90-42)
-        cp[9630] = 0x91B6; // 醶 (2-90-43)
-        cp[9631] = 0x91C3; // 釃 (2-90-44)
-        cp[9632] = 0x91C4; // 釄 (2-90-45)
-        cp[9633] = 0x91DA; // 釚 (2-90-46)
-        cp[9634] = 0x28949; // 𨥉 (2-90-47)
-        cp[9635] = 0x28946; // 𨥆 (2-90-48)
-        cp[9636] = 0x91EC; // 釬 (2-90-49)
-        cp[9637] = 0x91EE; // 釮 (2-90-50)
-        cp[9638] = 0x9201; // 鈁 (2-90-51)
-        cp[9639] = 0x920A; // 鈊 (2-90-52)
-        cp[9640] = 0x9216; // 鈖 (2-90-53)
-        cp[9641] = 0x9217; // 鈗 (2-90-54)
-        cp[9642] = 0x2896B; // 𨥫 (2-90-55)
-        cp[9643] = 0x9233; // 鈳 (2-90-56)
-        cp[9644] = 0x9242; // 鉂 (2-90-57)
-        cp[9645] = 0x9247; // 鉇 (2-90-58)
-        cp[9646] = 0x924A; // 鉊 (2-90-59)
-        cp[9647] = 0x924E; // 鉎 (2-90-60)
-        cp[9648] = 0x9251; // 鉑 (2-90-61)
-        cp[9649] = 0x9256; // 鉖 (2-90-62)
-        cp[9650] = 0x9259; // 鉙 (2-90-63)
-        cp[9651] = 0x9260; // 鉠 (2-90-64)
-        cp[9652] = 0x9261; // 鉡 (2-90-65)
-        cp[9653] = 0x9265; // 鉥 (2-90-66)
-        cp[9654] = 0x9267; // 鉧 (2-90-67)
-        cp[9655] = 0x9268; // 鉨 (2-90-68)
-        cp[9656] = 0x28987; // 𨦇 (2-90-69)
-        cp[9657] = 0x28988; // 𨦈 (2-90-70)
-        cp[9658] = 0x927C; // 鉼 (2-90-71)
-        cp[9659] = 0x927D; // 鉽 (2-90-72)
-        cp[9660] = 0x927F; // 鉿 (2-90-73)
-        cp[9661] = 0x9289; // 銉 (2-90-74)
-        cp[9662] = 0x928D; // 銍 (2-90-75)
-        cp[9663] = 0x9297; // 銗 (2-90-76)
-        cp[9664] = 0x9299; // 銙 (2-90-77)
-        cp[9665] = 0x929F; // 銟 (2-90-78)
-        cp[9666] = 0x92A7; // 銧 (2-90-79)
-        cp[9667] = 0x92AB; // 銫 (2-90-80)
-        cp[9668] = 0x289BA; // 𨦺 (2-90-81)
-        cp[9669] = 0x289BB; // 𨦻 (2-90-82)
-        cp[9670] = 0x92B2; // 銲 (2-90-83)
-        cp[9671] = 0x92BF; // 銿 (2-90-84)
-        cp[9672] = 0x92C0; // 鋀 (2-90-85)
-        cp[9673] = 0x92C6; // 鋆 (2-90-86)
-        cp[9674] = 0x92CE; // 鋎 (2-90-87)
-        cp[9675] = 0x92D0; // 鋐 (2-90-88)
-        cp[9676] = 0x92D7; // 鋗 (2-90-89)
-        cp[9677] = 0x92D9; // 鋙 (2-90-90)
-        cp[9678] = 0x92E5; // 鋥 (2-90-91)
-        cp[9679] = 0x92E7; // 鋧 (2-90-92)
-        cp[9680] = 0x9311; // 錑 (2-90-93)
-        cp[9681] = 0x28A1E; // 𨨞 (2-90-94)
-        cp[9682] = 0x28A29; // 𨨩 (2-91-01)
-        cp[9683] = 0x92F7; // 鋷 (2-91-02)
-        cp[9684] = 0x92F9; // 鋹 (2-91-03)
-        cp[9685] = 0x92FB; // 鋻 (2-91-04)
-        cp[9686] = 0x9302; // 錂 (2-91-05)
-        cp[9687] = 0x930D; // 錍 (2-91-06)
-        cp[9688] = 0x9315; // 錕 (2-91-07)
-        cp[9689] = 0x931D; // 錝 (2-91-08)
-        cp[9690] = 0x931E; // 錞 (2-91-09)
-        cp[9691] = 0x9327; // 錧 (2-91-10)
-        cp[9692] = 0x9329; // 錩 (2-91-11)
-        cp[9693] = 0x28A71; // 𨩱 (2-91-12)
-        cp[9694] = 0x28A43; // 𨩃 (2-91-13)
-        cp[9695] = 0x9347; // 鍇 (2-91-14)
-        cp[9696] = 0x9351; // 鍑 (2-91-15)
-        cp[9697] = 0x9357; // 鍗 (2-91-16)
-        cp[9698] = 0x935A; // 鍚 (2-91-17)
-        cp[9699] = 0x936B; // 鍫 (2-91-18)
-        cp[9700] = 0x9371; // 鍱 (2-91-19)
-        cp[9701] = 0x9373; // 鍳 (2-91-20)
-        cp[9702] = 0x93A1; // 鎡 (2-91-21)
-        cp[9703] = 0x28A99; // 𨪙 (2-91-22)
-        cp[9704] = 0x28ACD; // 𨫍 (2-91-23)
-        cp[9705] = 0x9388; // 鎈 (2-91-24)
-        cp[9706] = 0x938B; // 鎋 (2-91-25)
-        cp[9707] = 0x938F; // 鎏 (2-91-26)
-        cp[9708] = 0x939E; // 鎞 (2-91-27)
-        cp[9709] = 0x93F5; // 鏵 (2-91-28)
-        cp[9710] = 0x28AE4; // 𨫤 (2-91-29)
-        cp[9711] = 0x28ADD; // 𨫝 (2-91-30)
-        cp[9712] = 0x93F1; // 鏱 (2-91-31)
-        cp[9713] = 0x93C1; // 鏁 (2-91-32)
-        cp[9714] = 0x93C7; // 鏇 (2-91-33)
-        cp[9715] = 0x93DC; // 鏜 (2-91-34)
-        cp[9716] = 0x93E2; // 鏢 (2-91-35)
-        cp[9717] = 0x93E7; // 鏧 (2-91-36)
-        cp[9718] = 0x9409; // 鐉 (2-91-37)
-        cp[9719] = 0x940F; // 鐏 (2-91-38)
-        cp[9720] = 0x9416; // 鐖 (2-91-39)
-        cp[9721] = 0x9417; // 鐗 (2-91-40)
-        cp[9722] = 0x93FB; // 鏻 (2-91-41)
-        cp[9723] = 0x9432; // 鐲 (2-91-42)
-        cp[9724] = 0x9434; // 鐴 (2-91-43)
-        cp[9725] = 0x943B; // 鐻 (2-91-44)
-        cp[9726] = 0x9445; // 鑅 (2-91-45)
-        cp[9727] = 0x28BC1; // 𨯁 (2-91-46)
-        cp[9728] = 0x28BEF; // 𨯯 (2-91-47)
-        cp[9729] = 0x946D; // 鑭 (2-91-48)
-        cp[9730] = 0x946F; // 鑯 (2-91-49)
-        cp[9731] = 0x9578; // 镸 (2-91-50)
-        cp[9732] = 0x9579; // 镹 (2-91-51)
-        cp[9733] = 0x9586; // 閆 (2-91-52)
-        cp[9734] = 0x958C; // 閌 (2-91-53)
-        cp[9735] = 0x958D; // 閍 (2-91-54)
-        cp[9736] = 0x28D10; // 𨴐 (2-91-55)
-        cp[9737] = 0x95AB; // 閫 (2-91-56)
-        cp[9738] = 0x95B4; // 閴 (2-91-57)
-        cp[9739] = 0x28D71; // 𨵱 (2-91-58)
-        cp[9740] = 0x95C8; // 闈 (2-91-59)
-        cp[9741] = 0x28DFB; // 𨷻 (2-91-60)
-        cp[9742] = 0x28E1F; // 𨸟 (2-91-61)
-        cp[9743] = 0x962C; // 阬 (2-91-62)
-        cp[9744] = 0x9633; // 阳 (2-91-63)
-        cp[9745] = 0x9634; // 阴 (2-91-64)
-        cp[9746] = 0x28E36; // 𨸶 (2-91-65)
-        cp[9747] = 0x963C; // 阼 (2-91-66)
-        cp[9748] = 0x9641; // 陁 (2-91-67)
-        cp[9749] = 0x9661; // 陡 (2-91-68)
-        cp[9750] = 0x28E89; // 𨺉 (2-91-69)
-        cp[9751] = 0x9682; // 隂 (2-91-70)
-        cp[9752] = 0x28EEB; // 𨻫 (2-91-71)
-        cp[9753] = 0x969A; // 隚 (2-91-72)
-        cp[9754] = 0x28F32; // 𨼲 (2-91-73)
-        cp[9755] = 0x49E7; // 䧧 (2-91-74)
-        cp[9756] = 0x96A9; // 隩 (2-91-75)
-        cp[9757] = 0x96AF; // 隯 (2-91-76)
-        cp[9758] = 0x96B3; // 隳 (2-91-77)
-        cp[9759] = 0x96BA; // 隺 (2-91-78)
-        cp[9760] = 0x96BD; // 隽 (2-91-79)
-        cp[9761] = 0x49FA; // 䧺 (2-91-80)
-        cp[9762] = 0x28FF8; // 𨿸 (2-91-81)
-        cp[9763] = 0x96D8; // 雘 (2-91-82)
-        cp[9764] = 0x96DA; // 雚 (2-91-83)
-        cp[9765] = 0x96DD; // 雝 (2-91-84)
-        cp[9766] = 0x4A04; // 䨄 (2-91-85)
-        cp[9767] = 0x9714; // 霔 (2-91-86)
-        cp[9768] = 0x9723; // 霣 (2-91-87)
-        cp[9769] = 0x4A29; // 䨩 (2-91-88)
-        cp[9770] = 0x9736; // 霶 (2-91-89)
-        cp[9771] = 0x9741; // 靁 (2-91-90)
-        cp[9772] = 0x9747; // 靇 (2-91-91)
-        cp[9773] = 0x9755; // 靕 (2-91-92)
-        cp[9774] = 0x9757; // 靗 (2-91-93)
-        cp[9775] = 0x975B; // 靛 (2-91-94)
-        cp[9776] = 0x976A; // 靪 (2-92-01)
-        cp[9777] = 0x292A0; // 𩊠 (2-92-02)
-        cp[9778] = 0x292B1; // 𩊱 (2-92-03)
-        cp[9779] = 0x9796; // 鞖 (2-92-04)
-        cp[9780] = 0x979A; // 鞚 (2-92-05)
-        cp[9781] = 0x979E; // 鞞 (2-92-06)
-        cp[9782] = 0x97A2; // 鞢 (2-92-07)
-        cp[9783] = 0x97B1; // 鞱 (2-92-08)
-        cp[9784] = 0x97B2; // 鞲 (2-92-09)
-        cp[9785] = 0x97BE; // 鞾 (2-92-10)
-        cp[9786] = 0x97CC; // 韌 (2-92-11)
-        cp[9787] = 0x97D1; // 韑 (2-92-12)
-        cp[9788] = 0x97D4; // 韔 (2-92-13)
-        cp[9789] = 0x97D8; // 韘 (2-92-14)
-        cp[9790] = 0x97D9; // 韙 (2-92-15)
-        cp[9791] = 0x97E1; // 韡 (2-92-16)
-        cp[9792] = 0x97F1; // 韱 (2-92-17)
-        cp[9793] = 0x9804; // 頄 (2-92-18)
-        cp[9794] = 0x980D; // 頍 (2-92-19)
-        cp[9795] = 0x980E; // 頎 (2-92-20)
-        cp[9796] = 0x9814; // 頔 (2-92-21)
-        cp[9797] = 0x9816; // 頖 (2-92-22)
-        cp[9798] = 0x4ABC; // 䪼 (2-92-23)
-        cp[9799] = 0x29490; // 𩒐 (2-92-24)
-        cp[9800] = 0x9823; // 頣 (2-92-25)
-        cp[9801] = 0x9832; // 頲 (2-92-26)
-        cp[9802] = 0x9833; // 頳 (2-92-27)
-        cp[9803] = 0x9825; // 頥 (2-92-28)
-        cp[9804] = 0x9847; // 顇 (2-92-29)
-        cp[9805] = 0x9866; // 顦 (2-92-30)
-        cp[9806] = 0x98AB; // 颫 (2-92-31)
-        cp[9807] = 0x98AD; // 颭 (2-92-32)
-        cp[9808] = 0x98B0; // 颰 (2-92-33)
-        cp[9809] = 0x295CF; // 𩗏 (2-92-34)
-        cp[9810] = 0x98B7; // 颷 (2-92-35)
-        cp[9811] = 0x98B8; // 颸 (2-92-36)
-        cp[9812] = 0x98BB; // 颻 (2-92-37)
-        cp[9813] = 0x98BC; // 颼 (2-92-38)
-        cp[9814] = 0x98BF; // 颿 (2-92-39)
-        cp[9815] = 0x98C2; // 飂 (2-92-40)
-        cp[9816] = 0x98C7; // 飇 (2-92-41)
-        cp[9817] = 0x98CB; // 飋 (2-92-42)
-        cp[9818] = 0x98E0; // 飠 (2-92-43)
-        cp[9819] = 0x2967F; // 𩙿 (2-92-44)
-        cp[9820] = 0x98E1; // 飡 (2-92-45)
-        cp[9821] = 0x98E3; // 飣 (2-92-46)
-        cp[9822] = 0x98E5; // 飥 (2-92-47)
-        cp[9823] = 0x98EA; // 飪 (2-92-48)
-        cp[9824] = 0x98F0; // 飰 (2-92-49)
-        cp[9825] = 0x98F1; // 飱 (2-92-50)
-        cp[9826] = 0x98F3; // 飳 (2-92-51)
-        cp[9827] = 0x9908; // 餈 (2-92-52)
-        cp[9828] = 0x4B3B; // 䬻 (2-92-53)
-        cp[9829] = 0x296F0; // 𩛰 (2-92-54)
-        cp[9830] = 0x9916; // 餖 (2-92-55)
-        cp[9831] = 0x9917; // 餗 (2-92-56)
-        cp[9832] = 0x29719; // 𩜙 (2-92-57)
-        cp[9833] = 0x991A; // 餚 (2-92-58)
-        cp[9834] = 0x991B; // 餛 (2-92-59)
-        cp[9835] = 0x991C; // 餜 (2-92-60)
-        cp[9836] = 0x29750; // 𩝐 (2-92-61)
-        cp[9837] = 0x9931; // 餱 (2-92-62)
-        cp[9838] = 0x9932; // 餲 (2-92-63)
-        cp[9839] = 0x9933; // 餳 (2-92-64)
-        cp[9840] = 0x993A; // 餺 (2-92-65)
-        cp[9841] = 0x993B; // 餻 (2-92-66)
-        cp[9842] = 0x993C; // 餼 (2-92-67)
-        cp[9843] = 0x9940; // 饀 (2-92-68)
-        cp[9844] = 0x9941; // 饁 (2-92-69)
-        cp[9845] = 0x9946; // 饆 (2-92-70)
-        cp[9846] = 0x994D; // 饍 (2-92-71)
-        cp[9847] = 0x994E; // 饎 (2-92-72)
-        cp[9848] = 0x995C; // 饜 (2-92-73)
-        cp[9849] = 0x995F; // 饟 (2-92-74)
-        cp[9850] = 0x9960; // 饠 (2-92-75)
-        cp[9851] = 0x99A3; // 馣 (2-92-76)
-        cp[9852] = 0x99A6; // 馦 (2-92-77)
-        cp[9853] = 0x99B9; // 馹 (2-92-78)
-        cp[9854] = 0x99BD; // 馽 (2-92-79)
-        cp[9855] = 0x99BF; // 馿 (2-92-80)
-        cp[9856] = 0x99C3; // 駃 (2-92-81)
-        cp[9857] = 0x99C9; // 駉 (2-92-82)
-        cp[9858] = 0x99D4; // 駔 (2-92-83)
-        cp[9859] = 0x99D9; // 駙 (2-92-84)
-        cp[9860] = 0x99DE; // 駞 (2-92-85)
-        cp[9861] = 0x298C6; // 𩣆 (2-92-86)
-        cp[9862] = 0x99F0; // 駰 (2-92-87)
-        cp[9863] = 0x99F9; // 駹 (2-92-88)
-        cp[9864] = 0x99FC; // 駼 (2-92-89)
-        cp[9865] = 0x9A0A; // 騊 (2-92-90)
-        cp[9866] = 0x9A11; // 騑 (2-92-91)
-        cp[9867] = 0x9A16; // 騖 (2-92-92)
-        cp[9868] = 0x9A1A; // 騚 (2-92-93)
-        cp[9869] = 0x9A20; // 騠 (2-92-94)
-        cp[9870] = 0x9A31; // 騱 (2-93-01)
-        cp[9871] = 0x9A36; // 騶 (2-93-02)
-        cp[9872] = 0x9A44; // 驄 (2-93-03)
-        cp[9873] = 0x9A4C; // 驌 (2-93-04)
-        cp[9874] = 0x9A58; // 驘 (2-93-05)
-        cp[9875] = 0x4BC2; // 䯂 (2-93-06)
-        cp[9876] = 0x9AAF; // 骯 (2-93-07)
-        cp[9877] = 0x4BCA; // 䯊 (2-93-08)
-        cp[9878] = 0x9AB7; // 骷 (2-93-09)
-        cp[9879] = 0x4BD2; // 䯒 (2-93-10)
-        cp[9880] = 0x9AB9; // 骹 (2-93-11)
-        cp[9881] = 0x29A72; // 𩩲 (2-93-12)
-        cp[9882] = 0x9AC6; // 髆 (2-93-13)
-        cp[9883] = 0x9AD0; // 髐 (2-93-14)
-        cp[9884] = 0x9AD2; // 髒 (2-93-15)
-        cp[9885] = 0x9AD5; // 髕 (2-93-16)
-        cp[9886] = 0x4BE8; // 䯨 (2-93-17)
-        cp[9887] = 0x9ADC; // 髜 (2-93-18)
-        cp[9888] = 0x9AE0; // 髠 (2-93-19)
-        cp[9889] = 0x9AE5; // 髥 (2-93-20)
-        cp[9890] = 0x9AE9; // 髩 (2-93-21)
-        cp[9891] = 0x9B03; // 鬃 (2-93-22)
-        cp[9892] = 0x9B0C; // 鬌 (2-93-23)
-        cp[9893] = 0x9B10; // 鬐 (2-93-24)
-        cp[9894] = 0x9B12; // 鬒 (2-93-25)
-        cp[9895] = 0x9B16; // 鬖 (2-93-26)
-        cp[9896] = 0x9B1C; // 鬜 (2-93-27)
-        cp[9897] = 0x9B2B; // 鬫 (2-93-28)
-        cp[9898] = 0x9B33; // 鬳 (2-93-29)
-        cp[9899] = 0x9B3D; // 鬽 (2-93-30)
-        cp[9900] = 0x4C20; // 䰠 (2-93-31)
-        cp[9901] = 0x9B4B; // 魋 (2-93-32)
-        cp[9902] = 0x9B63; // 魣 (2-93-33)
-        cp[9903] = 0x9B65; // 魥 (2-93-34)
-        cp[9904] = 0x9B6B; // 魫 (2-93-35)
-        cp[9905] = 0x9B6C; // 魬 (2-93-36)
-        cp[9906] = 0x9B73; // 魳 (2-93-37)
-        cp[9907] = 0x9B76; // 魶 (2-93-38)
-        cp[9908] = 0x9B77; // 魷 (2-93-39)
-        cp[9909] = 0x9BA6; // 鮦 (2-93-40)
-        cp[9910] = 0x9BAC; // 鮬 (2-93-41)
-        cp[9911] = 0x9BB1; // 鮱 (2-93-42)
-        cp[9912] = 0x29DDB; // 𩷛 (2-93-43)
-        cp[9913] = 0x29E3D; // 𩸽 (2-93-44)
-        cp[9914] = 0x9BB2; // 鮲 (2-93-45)
-        cp[9915] = 0x9BB8; // 鮸 (2-93-46)
-        cp[9916] = 0x9BBE; // 鮾 (2-93-47)
-        cp[9917] = 0x9BC7; // 鯇 (2-93-48)
-        cp[9918] = 0x9BF3; // 鯳 (2-93-49)
-        cp[9919] = 0x9BD8; // 鯘 (2-93-50)
-        cp[9920] = 0x9BDD; // 鯝 (2-93-51)
-        cp[9921] = 0x9BE7; // 鯧 (2-93-52)
-        cp[9922] = 0x9BEA; // 鯪 (2-93-53)
-        cp[9923] = 0x9BEB; // 鯫 (2-93-54)
-        cp[9924] = 0x9BEF; // 鯯 (2-93-55)
-        cp[9925] = 0x9BEE; // 鯮 (2-93-56)
-        cp[9926] = 0x29E15; // 𩸕 (2-93-57)
-        cp[9927] = 0x9BFA; // 鯺 (2-93-58)
-        cp[9928] = 0x29E8A; // 𩺊 (2-93-59)
-        cp[9929] = 0x9BF7; // 鯷 (2-93-60)
-        cp[9930] = 0x29E49; // 𩹉 (2-93-61)
-        cp[9931] = 0x9C16; // 鰖 (2-93-62)
-        cp[9932] = 0x9C18; // 鰘 (2-93-63)
-        cp[9933] = 0x9C19; // 鰙 (2-93-64)
-        cp[9934] = 0x9C1A; // 鰚 (2-93-65)
-        cp[9935] = 0x9C1D; // 鰝 (2-93-66)
-        cp[9936] = 0x9C22; // 鰢 (2-93-67)
-        cp[9937] = 0x9C27; // 鰧 (2-93-68)
-        cp[9938] = 0x9C29; // 鰩 (2-93-69)
-        cp[9939] = 0x9C2A; // 鰪 (2-93-70)
-        cp[9940] = 0x29EC4; // 𩻄 (2-93-71)
-        cp[9941] = 0x9C31; // 鰱 (2-93-72)
-        cp[9942] = 0x9C36; // 鰶 (2-93-73)
-        cp[9943] = 0x9C37; // 鰷 (2-93-74)
-        cp[9944] = 0x9C45; // 鱅 (2-93-75)
-        cp[9945] = 0x9C5C; // 鱜 (2-93-76)
-        cp[9946] = 0x29EE9; // 𩻩 (2-93-77)
-        cp[9947] = 0x9C49; // 鱉 (2-93-78)
-        cp[9948] = 0x9C4A; // 鱊 (2-93-79)
-        cp[9949] = 0x29EDB; // 𩻛 (2-93-80)
-        cp[9950] = 0x9C54; // 鱔 (2-93-81)
-        cp[9951] = 0x9C58; // 鱘 (2-93-82)
-        cp[9952] = 0x9C5B; // 鱛 (2-93-83)
-        cp[9953] = 0x9C5D; // 鱝 (2-93-84)
-        cp[9954] = 0x9C5F; // 鱟 (2-93-85)
-        cp[9955] = 0x9C69; // 鱩 (2-93-86)
-        cp[9956] = 0x9C6A; // 鱪 (2-93-87)
-        cp[9957] = 0x9C6B; // 鱫 (2-93-88)
-        cp[9958] = 0x9C6D; // 鱭 (2-93-89)
-        cp[9959] = 0x9C6E; // 鱮 (2-93-90)
-        cp[9960] = 0x9C70; // 鱰 (2-93-91)
-        cp[9961] = 0x9C72; // 鱲 (2-93-92)
-        cp[9962] = 0x9C75; // 鱵 (2-93-93)
-        cp[9963] = 0x9C7A; // 鱺 (2-93-94)
-        cp[9964] = 0x9CE6; // 鳦 (2-94-01)
-        cp[9965] = 0x9CF2; // 鳲 (2-94-02)
-        cp[9966] = 0x9D0B; // 鴋 (2-94-03)
-        cp[9967] = 0x9D02; // 鴂 (2-94-04)
-        cp[9968] = 0x29FCE; // 𩿎 (2-94-05)
-        cp[9969] = 0x9D11; // 鴑 (2-94-06)
-        cp[9970] = 0x9D17; // 鴗 (2-94-07)
-        cp[9971] = 0x9D18; // 鴘 (2-94-08)
-        cp[9972] = 0x2A02F; // 𪀯 (2-94-09)
-        cp[9973] = 0x4CC4; // 䳄 (2-94-10)
-        cp[9974] = 0x2A01A; // 𪀚 (2-94-11)
-        cp[9975] = 0x9D32; // 鴲 (2-94-12)
-        cp[9976] = 0x4CD1; // 䳑 (2-94-13)
-        cp[9977] = 0x9D42; // 鵂 (2-94-14)
-        cp[9978] = 0x9D4A; // 鵊 (2-94-15)
-        cp[9979] = 0x9D5F; // 鵟 (2-94-16)
-        cp[9980] = 0x9D62; // 鵢 (2-94-17)
-        cp[9981] = 0x2A0F9; // 𪃹 (2-94-18)
-        cp[9982] = 0x9D69; // 鵩 (2-94-19)
-        cp[9983] = 0x9D6B; // 鵫 (2-94-20)
-        cp[9984] = 0x2A082; // 𪂂 (2-94-21)
-        cp[9985] = 0x9D73; // 鵳 (2-94-22)
-        cp[9986] = 0x9D76; // 鵶 (2-94-23)
-        cp[9987] = 0x9D77; // 鵷 (2-94-24)
-        cp[9988] = 0x9D7E; // 鵾 (2-94-25)
-        cp[9989] = 0x9D84; // 鶄 (2-94-26)
-        cp[9990] = 0x9D8D; // 鶍 (2-94-27)
-        cp[9991] = 0x9D99; // 鶙 (2-94-28)
-        cp[9992] = 0x9DA1; // 鶡 (2-94-29)
-        cp[9993] = 0x9DBF; // 鶿 (2-94-30)
-        cp[9994] = 0x9DB5; // 鶵 (2-94-31)
-        cp[9995] = 0x9DB9; // 鶹 (2-94-32)
-        cp[9996] = 0x9DBD; // 鶽 (2-94-33)
-        cp[9997] = 0x9DC3; // 鷃 (2-94-34)
-        cp[9998] = 0x9DC7; // 鷇 (2-94-35)
-        cp[9999] = 0x9DC9; // 鷉 (2-94-36)
-        return t10(cp);
-    }
-
-    private static Integer[] t10(Integer[] cp) {
-        cp[10000] = 0x9DD6; // 鷖 (2-94-37)
-        cp[10001] = 0x9DDA; // 鷚 (2-94-38)
-        cp[10002] = 0x9DDF; // 鷟 (2-94-39)
-        cp[10003] = 0x9DE0; // 鷠 (2-94-40)
-        cp[10004] = 0x9DE3; // 鷣 (2-94-41)
-        cp[10005] = 0x9DF4; // 鷴 (2-94-42)
-        cp[10006] = 0x4D07; // 䴇 (2-94-43)
-        cp[10007] = 0x9E0A; // 鸊 (2-94-44)
-        cp[10008] = 0x9E02; // 鸂 (2-94-45)
-        cp[10009] = 0x9E0D; // 鸍 (2-94-46)
-        cp[10010] = 0x9E19; // 鸙 (2-94-47)
-        cp[10011] = 0x9E1C; // 鸜 (2-94-48)
-        cp[10012] = 0x9E1D; // 鸝 (2-94-49)
-        cp[10013] = 0x9E7B; // 鹻 (2-94-50)
-        cp[10014] = 0x22218; // 𢈘 (2-94-51)
-        cp[10015] = 0x9E80; // 麀 (2-94-52)
-        cp[10016] = 0x9E85; // 麅 (2-94-53)
-        cp[10017] = 0x9E9B; // 麛 (2-94-54)
-        cp[10018] = 0x9EA8; // 麨 (2-94-55)
-        cp[10019] = 0x2A38C; // 𪎌 (2-94-56)
-        cp[10020] = 0x9EBD; // 麽 (2-94-57)
-        cp[10021] = 0x2A437; // 𪐷 (2-94-58)
-        cp[10022] = 0x9EDF; // 黟 (2-94-59)
-        cp[10023] = 0x9EE7; // 黧 (2-94-60)
-        cp[10024] = 0x9EEE; // 黮 (2-94-61)
-        cp[10025] = 0x9EFF; // 黿 (2-94-62)
-        cp[10026] = 0x9F02; // 鼂 (2-94-63)
-        cp[10027] = 0x4D77; // 䵷 (2-94-64)
-        cp[10028] = 0x9F03; // 鼃 (2-94-65)
-        cp[10029] = 0x9F17; // 鼗 (2-94-66)
-        cp[10030] = 0x9F19; // 鼙 (2-94-67)
-        cp[10031] = 0x9F2F; // 鼯 (2-94-68)
-        cp[10032] = 0x9F37; // 鼷 (2-94-69)
-        cp[10033] = 0x9F3A; // 鼺 (2-94-70)
-        cp[10034] = 0x9F3D; // 鼽 (2-94-71)
-        cp[10035] = 0x9F41; // 齁 (2-94-72)
-        cp[10036] = 0x9F45; // 齅 (2-94-73)
-        cp[10037] = 0x9F46; // 齆 (2-94-74)
-        cp[10038] = 0x9F53; // 齓 (2-94-75)
-        cp[10039] = 0x9F55; // 齕 (2-94-76)
-        cp[10040] = 0x9F58; // 齘 (2-94-77)
-        cp[10041] = 0x2A5F1; // 𪗱 (2-94-78)
-        cp[10042] = 0x9F5D; // 齝 (2-94-79)
-        cp[10043] = 0x2A602; // 𪘂 (2-94-80)
-        cp[10044] = 0x9F69; // 齩 (2-94-81)
-        cp[10045] = 0x2A61A; // 𪘚 (2-94-82)
-        cp[10046] = 0x9F6D; // 齭 (2-94-83)
-        cp[10047] = 0x9F70; // 齰 (2-94-84)
-        cp[10048] = 0x9F75; // 齵 (2-94-85)
-        cp[10049] = 0x2A6B2; // 𪚲 (2-94-86)
-        return cp;
-    }
-}
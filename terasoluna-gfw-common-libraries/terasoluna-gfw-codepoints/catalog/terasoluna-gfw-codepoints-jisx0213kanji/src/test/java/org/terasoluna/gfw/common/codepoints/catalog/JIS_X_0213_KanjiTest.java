@@ -18,6 +18,10 @@ package org.terasoluna.gfw.common.codepoints.catalog;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 import org.terasoluna.gfw.common.codepoints.CodePoints;
 
@@ -37,4 +41,61 @@ public class JIS_X_0213_KanjiTest {
         CodePoints codePoints = CodePoints.of(clazz);
         assertThat(codePoints.containsAll("あ"), is(false));
     }
+
+    @Test
+    public void testIsValid_firstAndLast() {
+        CodePoints codePoints = CodePoints.of(clazz);
+        assertThat(codePoints.containsAll("亜" /* 1-16-01 */), is(true));
+        assertThat(codePoints.containsAll("\uD869\uDEB2" /* 2-94-86 */), is(
+                true));
+    }
+
+    @Test
+    public void testEqualsBaseline() {
+        // level 1 to 4 Kanji are all characters in row 14, 15 and from row 16 to row 94 of plane 1, and row 1, 3, 4, 5, 8,
+        // from row 12 to row 15 and from row 78 to row 94 of plane 2
+        Charset shiftJis2004 = Charset.forName("x-SJIS_0213");
+        Set<Integer> baseline = new HashSet<Integer>();
+        for (int row = 14; row <= 94; row++) {
+            for (int cell = 1; cell <= 94; cell++) {
+                addIfMapped(baseline, new String(shiftJis2004(1, row,
+                        cell), shiftJis2004));
+            }
+        }
+        for (int row : new int[] { 1, 3, 4, 5, 8, 12, 13, 14, 15, 78, 79, 80,
+                81, 82, 83, 84, 85, 86, 87, 88, 89, 90, 91, 92, 93, 94 }) {
+            for (int cell = 1; cell <= 94; cell++) {
+                addIfMapped(baseline, new String(shiftJis2004(2, row,
+                        cell), shiftJis2004));
+            }
+        }
+
+        assertThat(baseline.size(), is(10050));
+        assertThat(new CodePoints(CodePoints.of(clazz)), is(
+                new CodePoints(baseline)));
+    }
+
+    private static byte[] shiftJis2004(int plane, int row, int cell) {
+        int first;
+        if (plane == 1) {
+            first = (row <= 62) ? (row + 257) / 2 : (row + 385) / 2;
+        } else if (row <= 15) {
+            first = (row + 479) / 2 - (row / 8) * 3;
+        } else {
+            first = (row + 411) / 2;
+        }
+        int second;
+        if (row % 2 == 0) {
+            second = cell + 158;
+        } else {
+            second = cell + ((cell <= 63) ? 63 : 64);
+        }
+        return new byte[] { (byte) first, (byte) second };
+    }
+
+    private static void addIfMapped(Set<Integer> codePoints, String s) {
+        if (s.codePointCount(0, s.length()) == 1 && s.charAt(0) != '\uFFFD') {
+            codePoints.add(s.codePointAt(0));
+        }
+    }
 }
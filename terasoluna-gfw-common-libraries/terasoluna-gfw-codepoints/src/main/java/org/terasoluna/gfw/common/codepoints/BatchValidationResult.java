@@ -0,0 +1,142 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Result of validating a list of strings at once.
+ * <p>
+ * Failing indexes are held in a {@link BitSet} and the first excluded code point of each value in an {@code int} array, so
+ * that no object is created per value.
+ * </p>
+ *
+ * <pre>
+ * <code>BatchValidationResult result = codePoints.validateAll(values);
+ * for (int i = result.nextFailure(0); i &gt;= 0; i = result.nextFailure(i + 1)) {
+ *     report(i, result.getFirstExcludedCodePoint(i));
+ * }
+ * </code>
+ * </pre>
+ *
+ * @see CodePoints#validateAll(java.util.List)
+ * @since 5.6.0
+ */
+public final class BatchValidationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * indexes of values which include excluded code points.
+     */
+    private final BitSet failures;
+
+    /**
+     * first excluded code point of each value, or {@link CodePoints#NOT_FOUND}.
+     */
+    private final int[] firstExcludedCodePoints;
+
+    /**
+     * Constructor.
+     * @param firstExcludedCodePoints first excluded code point of each value, or {@link CodePoints#NOT_FOUND}. the array is
+     *            retained.
+     */
+    BatchValidationResult(int[] firstExcludedCodePoints) {
+        this.firstExcludedCodePoints = firstExcludedCodePoints;
+        this.failures = new BitSet(firstExcludedCodePoints.length);
+        for (int i = 0; i < firstExcludedCodePoints.length; i++) {
+            if (firstExcludedCodePoints[i] != CodePoints.NOT_FOUND) {
+                failures.set(i);
+            }
+        }
+    }
+
+    /**
+     * returns the number of validated values.
+     * @return number of validated values
+     */
+    public int size() {
+        return firstExcludedCodePoints.length;
+    }
+
+    /**
+     * returns whether all values are valid.
+     * @return {@code true} if no value includes excluded code points
+     */
+    public boolean isValid() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * returns the number of values which include excluded code points.
+     * @return number of failures
+     */
+    public int getFailureCount() {
+        return failures.cardinality();
+    }
+
+    /**
+     * returns whether the value at the given index includes excluded code points.
+     * @param index index of the value
+     * @return {@code true} if the value is invalid
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isFailure(int index) {
+        checkIndex(index);
+        return failures.get(index);
+    }
+
+    /**
+     * returns the index of the first failure at or after the given index.
+     * @param fromIndex index to start searching
+     * @return index of the next failure, or {@code -1} if there is no more failure
+     */
+    public int nextFailure(int fromIndex) {
+        return failures.nextSetBit(fromIndex);
+    }
+
+    /**
+     * returns a copy of the indexes of failures.
+     * @return indexes of values which include excluded code points
+     */
+    public BitSet getFailures() {
+        return (BitSet) failures.clone();
+    }
+
+    /**
+     * returns the first excluded code point of the value at the given index.
+     * @param index index of the value
+     * @return first excluded code point, or {@link CodePoints#NOT_FOUND} if the value is valid
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getFirstExcludedCodePoint(int index) {
+        checkIndex(index);
+        return firstExcludedCodePoints[index];
+    }
+
+    /**
+     * check the given index.
+     * @param index index of the value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= firstExcludedCodePoints.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: "
+                    + firstExcludedCodePoints.length);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task which finds the first excluded code point of each value in a range of an array.
+ * @since 5.6.0
+ */
+final class BatchValidationTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * minimum number of values processed by a task.
+     */
+    private static final int MIN_BATCH_SIZE = 256;
+
+    /**
+     * code points to check.
+     */
+    private final CodePointSet set;
+
+    /**
+     * values to validate.
+     */
+    private final CharSequence[] values;
+
+    /**
+     * first excluded code point of each value.
+     */
+    private final int[] results;
+
+    /**
+     * first index (inclusive).
+     */
+    private final int from;
+
+    /**
+     * last index (exclusive).
+     */
+    private final int to;
+
+    /**
+     * number of values under which a task is not split.
+     */
+    private final int threshold;
+
+    /**
+     * Constructor.
+     * @param set code points to check
+     * @param values values to validate
+     * @param results first excluded code point of each value
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param threshold number of values under which a task is not split
+     */
+    private BatchValidationTask(CodePointSet set, CharSequence[] values,
+            int[] results, int from, int to, int threshold) {
+        this.set = set;
+        this.values = values;
+        this.results = results;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    /**
+     * validate all values.
+     * @param set code points to check
+     * @param values values to validate
+     * @param forkJoinPool pool to validate the values in parallel
+     * @return result of validation
+     * @throws IllegalArgumentException if {@code forkJoinPool} is {@code null}
+     */
+    static BatchValidationResult validate(CodePointSet set,
+            List<? extends CharSequence> values, ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("forkJoinPool must not be null");
+        }
+        CharSequence[] array = values.toArray(new CharSequence[values.size()]);
+        int[] results = new int[array.length];
+        if (array.length <= MIN_BATCH_SIZE) {
+            new BatchValidationTask(set, array, results, 0, array.length, array.length)
+                    .compute();
+            return new BatchValidationResult(results);
+        }
+        // a few tasks per thread to balance values of different lengths
+        int threshold = Math.max(MIN_BATCH_SIZE, array.length / (forkJoinPool
+                .getParallelism() * 4));
+        forkJoinPool.invoke(
+                new BatchValidationTask(set, array, results, 0, array.length, threshold));
+        return new BatchValidationResult(results);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+        if (to - from > threshold) {
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new BatchValidationTask(set, values, results, from, middle, threshold),
+                    new BatchValidationTask(set, values, results, middle, to, threshold));
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            CharSequence value = values[i];
+            results[i] = (value == null || set == null) ? CodePoints.NOT_FOUND
+                    : set.firstExcluded(value);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+/**
+ * Incremental scanner which is fed {@code char}s one by one, assembles code points (also across the boundaries of buffers)
+ * and checks them against a {@link CodePointSet} while tracking their positions. Excluded code points are passed to a
+ * {@link Handler}.
+ * <p>
+ * A high surrogate which is not followed by a low surrogate, and an unpaired low surrogate are treated as code points by
+ * themselves as {@link String#codePointAt(int)} does. This class is not thread-safe.
+ * </p>
+ * @since 5.6.0
+ */
+final class CodePointScanner {
+
+    /**
+     * Callback which receives excluded code points.
+     */
+    interface Handler {
+
+        /**
+         * handle an excluded code point.
+         * @param codePoint excluded code point
+         * @param offset offset of the first {@code char} of the code point
+         * @param line line number (1-based)
+         * @param column column number in code points (1-based)
+         * @return {@code true} to continue scanning, {@code false} to stop
+         */
+        boolean handle(int codePoint, long offset, long line, long column);
+    }
+
+    /**
+     * {@link Handler} which keeps the first excluded code point and stops scanning.
+     */
+    static final class FirstExcluded implements Handler {
+
+        /**
+         * first excluded code point.
+         */
+        private ExcludedCodePoint first;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean handle(int codePoint, long offset, long line,
+                long column) {
+            first = new ExcludedCodePoint(codePoint, offset, line, column);
+            return false;
+        }
+
+        /**
+         * returns the first excluded code point.
+         * @return first excluded code point, or {@code null} if not found
+         */
+        ExcludedCodePoint get() {
+            return first;
+        }
+    }
+
+    /**
+     * code points to check.
+     */
+    private final CodePointSet set;
+
+    /**
+     * handler of excluded code points.
+     */
+    private final Handler handler;
+
+    /**
+     * offset of the next code point.
+     */
+    private long offset;
+
+    /**
+     * line number of the next code point.
+     */
+    private long line = 1;
+
+    /**
+     * column number of the next code point.
+     */
+    private long column = 1;
+
+    /**
+     * whether the previous code point is {@code CR}.
+     */
+    private boolean afterCarriageReturn;
+
+    /**
+     * high surrogate waiting for the following low surrogate.
+     */
+    private char pendingHighSurrogate;
+
+    /**
+     * whether {@link #pendingHighSurrogate} is valid.
+     */
+    private boolean pending;
+
+    /**
+     * Constructor.
+     * @param set code points to check
+     * @param handler handler of excluded code points
+     */
+    CodePointScanner(CodePointSet set, Handler handler) {
+        this.set = set;
+        this.handler = handler;
+    }
+
+    /**
+     * feed the next {@code char}.
+     * @param c next {@code char}
+     * @return {@code false} if the handler requested to stop scanning
+     */
+    boolean next(char c) {
+        if (pending) {
+            pending = false;
+            if (Character.isLowSurrogate(c)) {
+                return accept(Character.toCodePoint(pendingHighSurrogate, c),
+                        2);
+            }
+            if (!accept(pendingHighSurrogate, 1)) {
+                return false;
+            }
+        }
+        if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+            pending = true;
+            return true;
+        }
+        return accept(c, 1);
+    }
+
+    /**
+     * notify the end of the text.
+     * @return {@code false} if the handler requested to stop scanning
+     */
+    boolean finish() {
+        if (pending) {
+            pending = false;
+            return accept(pendingHighSurrogate, 1);
+        }
+        return true;
+    }
+
+    /**
+     * returns the number of {@code char}s consumed as complete code points.
+     * @return number of {@code char}s
+     */
+    long getOffset() {
+        return offset;
+    }
+
+    /**
+     * returns the line number of the next code point.
+     * @return line number (1-based)
+     */
+    long getLine() {
+        return line;
+    }
+
+    /**
+     * check the given code point and advance the position.
+     * @param codePoint code point to check
+     * @param charCount number of {@code char}s of the code point
+     * @return {@code false} if the handler requested to stop scanning
+     */
+    private boolean accept(int codePoint, int charCount) {
+        boolean proceed = set.contains(codePoint) || handler.handle(codePoint,
+                offset, line, column);
+        offset += charCount;
+        if (codePoint == '\r') {
+            line++;
+            column = 1;
+            afterCarriageReturn = true;
+        } else if (codePoint == '\n') {
+            if (!afterCarriageReturn) {
+                line++;
+            }
+            column = 1;
+            afterCarriageReturn = false;
+        } else {
+            column++;
+            afterCarriageReturn = false;
+        }
+        return proceed;
+    }
+}
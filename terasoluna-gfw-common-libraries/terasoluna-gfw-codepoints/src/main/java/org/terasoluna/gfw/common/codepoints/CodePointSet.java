@@ -0,0 +1,595 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Immutable packed set of code points used as the storage of {@link CodePoints}.
+ * <p>
+ * Code points in the Basic Multilingual Plane are held in a dense bitmap whose length is trimmed to the highest member, and
+ * supplementary code points are held as sorted closed ranges ({@code int} array of start/end pairs). Membership checks are
+ * therefore a bit test or a binary search over ranges and never box the code point. Set operations are word-wise on the
+ * bitmap and linear merges on the ranges.
+ * </p>
+ * <p>
+ * {@link #firstExcluded(CharSequence)} has a fast path for ASCII input: eight {@code char}s are OR-ed together, and if the
+ * block is ASCII, each {@code char} is tested against the first two words of the bitmap without checking for surrogates or
+ * bounds.
+ * </p>
+ * @since 5.6.0
+ */
+final class CodePointSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * empty set.
+     */
+    static final CodePointSet EMPTY = new CodePointSet(new long[0], new int[0]);
+
+    /**
+     * number of words which can hold all code points in the Basic Multilingual Plane.
+     */
+    private static final int BMP_WORDS = (Character.MAX_VALUE + 1) >>> 6;
+
+    /**
+     * bitmap of code points in the Basic Multilingual Plane. bit {@code (c & 63)} of {@code bmp[c >>> 6]} is set if {@code c}
+     * is a member.
+     */
+    private final long[] bmp;
+
+    /**
+     * supplementary code points as {@code [start0, end0, start1, end1, ...]}. Ranges are sorted, closed, and neither overlap
+     * nor adjoin each other.
+     */
+    private final int[] supplementary;
+
+    /**
+     * Constructor. The given arrays must not be modified after this call.
+     * @param bmp bitmap of code points in the Basic Multilingual Plane
+     * @param supplementary normalized ranges of supplementary code points
+     */
+    private CodePointSet(long[] bmp, int[] supplementary) {
+        this.bmp = trim(bmp);
+        this.supplementary = supplementary;
+    }
+
+    /**
+     * Creates a set which uses the given arrays as they are. The given arrays must not be modified after this call.
+     * @param bmp bitmap of code points in the Basic Multilingual Plane
+     * @param supplementary ranges of supplementary code points as {@code [start0, end0, start1, end1, ...]}
+     * @return set backed by the given arrays
+     * @throws IllegalArgumentException if the bitmap is longer than the Basic Multilingual Plane, or the ranges are not
+     *             sorted, closed, non-adjoining ranges of supplementary code points
+     */
+    static CodePointSet adopt(long[] bmp, int[] supplementary) {
+        if (bmp.length > BMP_WORDS) {
+            throw new IllegalArgumentException("bitmap must not exceed "
+                    + BMP_WORDS + " words");
+        }
+        if (supplementary.length % 2 != 0) {
+            throw new IllegalArgumentException("ranges must be given as pairs of start and end");
+        }
+        int previousEnd = Character.MIN_SUPPLEMENTARY_CODE_POINT - 2;
+        for (int i = 0; i < supplementary.length; i += 2) {
+            int start = supplementary[i];
+            int end = supplementary[i + 1];
+            if (start <= previousEnd + 1 || end < start
+                    || end > Character.MAX_CODE_POINT) {
+                throw new IllegalArgumentException("invalid supplementary range: "
+                        + start + "-" + end);
+            }
+            previousEnd = end;
+        }
+        return new CodePointSet(bmp, supplementary);
+    }
+
+    /**
+     * returns whether the given code point is included in this set.
+     * @param codePoint code point to check
+     * @return {@code true} if the given code point is included
+     */
+    boolean contains(int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            int index = codePoint >>> 6;
+            return index < bmp.length && (bmp[index] & (1L << codePoint)) != 0;
+        }
+        int low = 0;
+        int high = (supplementary.length >>> 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (codePoint < supplementary[mid << 1]) {
+                high = mid - 1;
+            } else if (codePoint > supplementary[(mid << 1) + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * returns the first code point in the given character sequence which is not included in this set.
+     * <p>
+     * A high surrogate which is not followed by a low surrogate, and an unpaired low surrogate are treated as code points by
+     * themselves as {@link Character#codePointAt(CharSequence, int)} does.
+     * </p>
+     * @param s target character sequence
+     * @return first excluded code point, or {@link CodePoints#NOT_FOUND} if all code points are included
+     */
+    int firstExcluded(CharSequence s) {
+        int index = indexOfExcluded(s, 0);
+        return index < 0 ? CodePoints.NOT_FOUND
+                : Character.codePointAt(s, index);
+    }
+
+    /**
+     * returns the index of the first code point at or after the given index which is not included in this set.
+     * @param s target character sequence
+     * @param fromIndex index to start searching, which must be at the boundary of code points
+     * @return index of the first excluded code point, or {@code -1} if all code points are included
+     */
+    int indexOfExcluded(CharSequence s, int fromIndex) {
+        int len = s.length();
+        int i = fromIndex;
+        // members among U+0000-U+003F and U+0040-U+007F
+        long ascii0 = (bmp.length > 0) ? bmp[0] : 0L;
+        long ascii1 = (bmp.length > 1) ? bmp[1] : 0L;
+        while (i < len) {
+            int blockEnd = i + 8;
+            if (blockEnd <= len && (s.charAt(i) | s.charAt(i + 1) | s.charAt(i
+                    + 2) | s.charAt(i + 3) | s.charAt(i + 4) | s.charAt(i + 5)
+                    | s.charAt(i + 6) | s.charAt(i + 7)) < 0x80) {
+                for (; i < blockEnd; i++) {
+                    char c = s.charAt(i);
+                    if ((((c < 64) ? ascii0 : ascii1) & (1L << c)) == 0) {
+                        return i;
+                    }
+                }
+                continue;
+            }
+            blockEnd = Math.min(blockEnd, len);
+            while (i < blockEnd) {
+                char c = s.charAt(i);
+                if (!Character.isSurrogate(c)) {
+                    int index = c >>> 6;
+                    if (index >= bmp.length || (bmp[index] & (1L << c)) == 0) {
+                        return i;
+                    }
+                    i++;
+                    continue;
+                }
+                int codePoint = Character.codePointAt(s, i);
+                if (!contains(codePoint)) {
+                    return i;
+                }
+                i += Character.charCount(codePoint);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * returns a copy of the bitmap of the Basic Multilingual Plane, trimmed to the highest member.
+     * @return bitmap in which bit {@code (c & 63)} of {@code bitmap[c >>> 6]} is set if {@code c} is a member
+     */
+    long[] bitmap() {
+        return bmp.clone();
+    }
+
+    /**
+     * returns a copy of the ranges of supplementary code points.
+     * @return sorted and normalized ranges as {@code [start0, end0, start1, end1, ...]}
+     */
+    int[] supplementaryRanges() {
+        return supplementary.clone();
+    }
+
+    /**
+     * returns the number of code points in this set.
+     * @return the number of code points
+     */
+    int size() {
+        int size = 0;
+        for (long word : bmp) {
+            size += Long.bitCount(word);
+        }
+        for (int i = 0; i < supplementary.length; i += 2) {
+            size += supplementary[i + 1] - supplementary[i] + 1;
+        }
+        return size;
+    }
+
+    /**
+     * returns all code points in this set in ascending order.
+     * @return code points in ascending order
+     */
+    int[] toArray() {
+        int[] codePoints = new int[size()];
+        int n = 0;
+        for (int i = 0; i < bmp.length; i++) {
+            long word = bmp[i];
+            while (word != 0) {
+                codePoints[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        for (int i = 0; i < supplementary.length; i += 2) {
+            for (int c = supplementary[i]; c <= supplementary[i + 1]; c++) {
+                codePoints[n++] = c;
+            }
+        }
+        return codePoints;
+    }
+
+    /**
+     * returns all code points in this set as closed ranges in ascending order.
+     * @return array of {@code [start0, end0, start1, end1, ...]}
+     */
+    int[] toRanges() {
+        RangeBuffer ranges = new RangeBuffer(supplementary.length + 16);
+        for (int i = 0; i < bmp.length; i++) {
+            long word = bmp[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                // length of the run of set bits starting at bit
+                int run = Long.numberOfTrailingZeros(~(word >>> bit));
+                if (run == 64) {
+                    run = 64 - bit;
+                }
+                ranges.append((i << 6) + bit, (i << 6) + bit + run - 1);
+                word = (bit + run == 64) ? 0 : word & (-1L << (bit + run));
+            }
+        }
+        for (int i = 0; i < supplementary.length; i += 2) {
+            ranges.append(supplementary[i], supplementary[i + 1]);
+        }
+        return ranges.toArray();
+    }
+
+    /**
+     * unite with the given set
+     * @param other set to unite
+     * @return united set
+     */
+    CodePointSet union(CodePointSet other) {
+        long[] longer = bmp.length >= other.bmp.length ? bmp : other.bmp;
+        long[] shorter = longer == bmp ? other.bmp : bmp;
+        long[] newBmp = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            newBmp[i] |= shorter[i];
+        }
+        return new CodePointSet(newBmp, unionRanges(supplementary,
+                other.supplementary));
+    }
+
+    /**
+     * subtract the given set
+     * @param other set to subtract
+     * @return subtracted set
+     */
+    CodePointSet subtract(CodePointSet other) {
+        long[] newBmp = Arrays.copyOf(bmp, bmp.length);
+        int common = Math.min(bmp.length, other.bmp.length);
+        for (int i = 0; i < common; i++) {
+            newBmp[i] &= ~other.bmp[i];
+        }
+        return new CodePointSet(newBmp, subtractRanges(supplementary,
+                other.supplementary));
+    }
+
+    /**
+     * intersect with the given set
+     * @param other set to intersect
+     * @return intersected set
+     */
+    CodePointSet intersect(CodePointSet other) {
+        long[] newBmp = new long[Math.min(bmp.length, other.bmp.length)];
+        for (int i = 0; i < newBmp.length; i++) {
+            newBmp[i] = bmp[i] & other.bmp[i];
+        }
+        return new CodePointSet(newBmp, intersectRanges(supplementary,
+                other.supplementary));
+    }
+
+    /**
+     * equals method
+     * @param o object to check
+     * @return {@code true} if the given object contains same code points
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CodePointSet)) {
+            return false;
+        }
+        CodePointSet that = (CodePointSet) o;
+        return Arrays.equals(bmp, that.bmp) && Arrays.equals(supplementary,
+                that.supplementary);
+    }
+
+    /**
+     * hash code of the instance
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(bmp) + Arrays.hashCode(supplementary);
+    }
+
+    /**
+     * drop trailing empty words so that equal sets have equal bitmaps.
+     * @param words bitmap
+     * @return trimmed bitmap
+     */
+    private static long[] trim(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+
+    /**
+     * unite two normalized ranges
+     * @param a ranges
+     * @param b ranges
+     * @return normalized united ranges
+     */
+    private static int[] unionRanges(int[] a, int[] b) {
+        RangeBuffer result = new RangeBuffer(a.length + b.length);
+        int i = 0, j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] <= b[j])) {
+                result.append(a[i], a[i + 1]);
+                i += 2;
+            } else {
+                result.append(b[j], b[j + 1]);
+                j += 2;
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * subtract normalized ranges from normalized ranges
+     * @param a ranges to subtract from
+     * @param b ranges to subtract
+     * @return normalized subtracted ranges
+     */
+    private static int[] subtractRanges(int[] a, int[] b) {
+        RangeBuffer result = new RangeBuffer(a.length + b.length);
+        int j = 0;
+        for (int i = 0; i < a.length; i += 2) {
+            int start = a[i];
+            int end = a[i + 1];
+            while (j < b.length && b[j + 1] < start) {
+                j += 2;
+            }
+            for (int k = j; k < b.length && b[k] <= end
+                    && start <= end; k += 2) {
+                if (b[k] > start) {
+                    result.append(start, b[k] - 1);
+                }
+                start = Math.max(start, b[k + 1] + 1);
+            }
+            if (start <= end) {
+                result.append(start, end);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * intersect two normalized ranges
+     * @param a ranges
+     * @param b ranges
+     * @return normalized intersected ranges
+     */
+    private static int[] intersectRanges(int[] a, int[] b) {
+        RangeBuffer result = new RangeBuffer(Math.min(a.length, b.length) * 2);
+        int i = 0, j = 0;
+        while (i < a.length && j < b.length) {
+            int start = Math.max(a[i], b[j]);
+            int end = Math.min(a[i + 1], b[j + 1]);
+            if (start <= end) {
+                result.append(start, end);
+            }
+            if (a[i + 1] < b[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Growable buffer of ranges which coalesces a range appended in ascending order of start with the previous one when they
+     * overlap or adjoin.
+     */
+    private static final class RangeBuffer {
+
+        /**
+         * ranges.
+         */
+        private int[] ranges;
+
+        /**
+         * number of valid elements in {@link #ranges}.
+         */
+        private int length;
+
+        /**
+         * Constructor.
+         * @param capacity initial capacity
+         */
+        RangeBuffer(int capacity) {
+            this.ranges = new int[Math.max(capacity, 2)];
+        }
+
+        /**
+         * append a range whose start is not less than the start of the previous one.
+         * @param start first code point of the range
+         * @param end last code point of the range (inclusive)
+         */
+        void append(int start, int end) {
+            if (length > 0 && start <= ranges[length - 1] + 1) {
+                ranges[length - 1] = Math.max(ranges[length - 1], end);
+                return;
+            }
+            if (length == ranges.length) {
+                ranges = Arrays.copyOf(ranges, length * 2);
+            }
+            ranges[length++] = start;
+            ranges[length++] = end;
+        }
+
+        /**
+         * returns appended ranges.
+         * @return array of {@code [start0, end0, start1, end1, ...]}
+         */
+        int[] toArray() {
+            return Arrays.copyOf(ranges, length);
+        }
+    }
+
+    /**
+     * Builder of {@link CodePointSet}. This class is not thread-safe.
+     */
+    static final class Builder {
+
+        /**
+         * bitmap of code points in the Basic Multilingual Plane.
+         */
+        private final long[] bmp = new long[BMP_WORDS];
+
+        /**
+         * supplementary ranges in insertion order, packed as {@code (start << 32) | end}.
+         */
+        private long[] supplementary = new long[0];
+
+        /**
+         * number of valid elements in {@link #supplementary}.
+         */
+        private int supplementaryCount;
+
+        /**
+         * add a code point
+         * @param codePoint code point to add
+         * @return this builder
+         * @throws IllegalArgumentException if the given value is not a valid Unicode code point
+         */
+        Builder add(int codePoint) {
+            return addRange(codePoint, codePoint);
+        }
+
+        /**
+         * add all code points in the given closed range
+         * @param start first code point of the range
+         * @param end last code point of the range (inclusive)
+         * @return this builder
+         * @throws IllegalArgumentException if the given range is empty or includes invalid Unicode code points
+         */
+        Builder addRange(int start, int end) {
+            if (start < Character.MIN_CODE_POINT) {
+                throw new IllegalArgumentException("invalid code point: "
+                        + start);
+            }
+            if (end > Character.MAX_CODE_POINT) {
+                throw new IllegalArgumentException("invalid code point: "
+                        + end);
+            }
+            if (start > end) {
+                throw new IllegalArgumentException("invalid range: " + start
+                        + "-" + end);
+            }
+            int last = Math.min(end, Character.MAX_VALUE);
+            int c = start;
+            // set whole words at once where possible
+            while (c <= last) {
+                if ((c & 63) == 0 && c + 63 <= last) {
+                    bmp[c >>> 6] = -1L;
+                    c += 64;
+                } else {
+                    bmp[c >>> 6] |= 1L << c;
+                    c++;
+                }
+            }
+            if (end >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (supplementaryCount == supplementary.length) {
+                    supplementary = Arrays.copyOf(supplementary, Math.max(16,
+                            supplementaryCount * 2));
+                }
+                long s = Math.max(start,
+                        Character.MIN_SUPPLEMENTARY_CODE_POINT);
+                supplementary[supplementaryCount++] = (s << 32) | end;
+            }
+            return this;
+        }
+
+        /**
+         * add all code points set in the given bitmap of the Basic Multilingual Plane
+         * @param words bitmap in which bit {@code (c & 63)} of {@code words[c >>> 6]} is set if {@code c} is a member
+         * @return this builder
+         * @throws IllegalArgumentException if the given bitmap is longer than the Basic Multilingual Plane
+         */
+        Builder addBitmap(long[] words) {
+            if (words.length > BMP_WORDS) {
+                throw new IllegalArgumentException("bitmap must not exceed "
+                        + BMP_WORDS + " words");
+            }
+            for (int i = 0; i < words.length; i++) {
+                bmp[i] |= words[i];
+            }
+            return this;
+        }
+
+        /**
+         * add all code points in the given string
+         * @param s string which includes target code points
+         * @return this builder
+         */
+        Builder addAll(String s) {
+            int len = s.length();
+            int codePoint;
+            for (int i = 0; i < len; i += Character.charCount(codePoint)) {
+                codePoint = s.codePointAt(i);
+                add(codePoint);
+            }
+            return this;
+        }
+
+        /**
+         * build an immutable set
+         * @return built set
+         */
+        CodePointSet build() {
+            long[] sorted = Arrays.copyOf(supplementary, supplementaryCount);
+            Arrays.sort(sorted);
+            RangeBuffer ranges = new RangeBuffer(sorted.length * 2);
+            for (long range : sorted) {
+                ranges.append((int) (range >>> 32), (int) range);
+            }
+            return new CodePointSet(bmp.clone(), ranges.toArray());
+        }
+    }
+}
@@ -15,13 +15,19 @@
  */
 package org.terasoluna.gfw.common.codepoints;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
- * Represents the collection of code point. This class holds immutable code points as {@link java.util.Set} and provides
+ * Represents the collection of code point. This class holds immutable code points as a packed bitmap and provides
  * <ul>
  * <li>check method if the code points in the given string are included</li>
  * <li>set operations (union, subtract, intersect)</li>
@@ -75,6 +81,12 @@ import java.util.concurrent.ConcurrentMap;
  *
  * </li>
  * </ol>
+ * Contiguous code points can be also created from ranges with {@link #ranges(int...)}.
+ * 
+ * <pre>
+ * <code>CodePoints cp = CodePoints.ranges(0x0061, 0x007A); // a-z</code>
+ * </pre>
+ * 
  * <h3>How to check strings</h3> {@link #containsAll(String)} returns {@code true} if all code points in the given string are
  * included in the target code points. Otherwise {@code false} is returned.
  * 
@@ -110,6 +122,39 @@ import java.util.concurrent.ConcurrentMap;
  * </code>
  * </pre>
  *
+ * {@link #findExcludedCodePoints(CharSequence, int)} and {@link #visitExcludedCodePoints(CharSequence, ExcludedCodePointVisitor)}
+ * report every excluded code point together with its index without boxing, so that the offending characters can be
+ * highlighted without scanning the string again.
+ *
+ * <pre>
+ * <code>CodePoints cp = new CodePoints(0x0061, 0x0062); // a b
+ * cp.findExcludedCodePoints("abcad", 10); // [0x0063, 2, 0x0064, 4]
+ * </code>
+ * </pre>
+ *
+ * {@link #findFirstExcludedCodePoint(CharSequence)}, {@link #findFirstExcludedCodePoint(char[], int, int)} and
+ * {@link #findFirstExcludedCodePoint(Reader)} return the first excluded code point together with its line and column. The
+ * {@link Reader} variant reads the content incrementally, so that large files can be checked without loading them as a
+ * {@link String}.
+ *
+ * <pre>
+ * <code>CodePoints cp = new CodePoints(0x0061, 0x0062, 0x000A); // a b LF
+ * cp.findFirstExcludedCodePoint(new StringReader("ab\nbac")); // U+0063 at line 2, column 3 (offset 5)
+ * </code>
+ * </pre>
+ *
+ * <h3>How to sanitize strings</h3> {@link #sanitize(String, String)} replaces each code point which is not included in the
+ * target with the given replacement, and {@link #strip(String)} removes them. The given string itself is returned if it
+ * contains no excluded code points. The {@link Appendable} variants write the result to the given output in one pass.
+ *
+ * <pre>
+ * <code>CodePoints cp = new CodePoints(0x0061, 0x0062); // a b
+ * cp.sanitize("abcad", "?"); // "ab?a?"
+ * cp.strip("abcad"); // "aba"
+ * cp.strip("abab"); // the given instance
+ * </code>
+ * </pre>
+ *
  * <h3>How to compose code points</h3>
  * <p>
  * {@code CodePoints} provides composable APIs. Since a {@code CodePoints} instance is immutable. These API does not effect the
@@ -188,31 +233,71 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class CodePoints implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    /**
+     * changed from {@code 1L} in 5.6.0 because the code points are serialized as {@link CodePointSet} instead of
+     * {@code Set<Integer>}.
+     */
+    private static final long serialVersionUID = 2L;
 
     /**
      * shows no code point is found in the given string which is not included in the target code points.
      */
     public static final int NOT_FOUND = Integer.MIN_VALUE;
 
+    /**
+     * size of the buffer to read from {@link Reader}.
+     */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * index of the result of {@link #union(CodePoints)} in memoized results.
+     */
+    private static final int UNION = 0;
+
+    /**
+     * index of the result of {@link #subtract(CodePoints)} in memoized results.
+     */
+    private static final int SUBTRACT = 1;
+
+    /**
+     * index of the result of {@link #intersect(CodePoints)} in memoized results.
+     */
+    private static final int INTERSECT = 2;
+
     /**
      * {@code CodePoints} cache
      */
     private static final ConcurrentMap<Class<? extends CodePoints>, CodePoints> cache = new ConcurrentHashMap<Class<? extends CodePoints>, CodePoints>();
 
+    /**
+     * updater of {@link #derived}.
+     */
+    private static final AtomicReferenceFieldUpdater<CodePoints, Derived[]> DERIVED_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(CodePoints.class, Derived[].class, "derived");
+
+    /**
+     * entries of memoized results before any set operation.
+     */
+    private static final Derived[] NO_DERIVED = new Derived[0];
+
     /**
      * set for code points.
      */
-    private final Set<Integer> set;
+    private final CodePointSet set;
+
+    /**
+     * results of set operations with this instance as the left operand, one entry per right operand instance. {@code null} if
+     * no operation has been done.
+     */
+    private transient volatile Derived[] derived;
 
     /**
-     * Constructor with the given {@code java.lang.Integer} code points
+     * Constructor with the given {@code java.lang.Integer} code points. As in the previous versions, {@code null} elements and
+     * values which are not valid code points are accepted. They are ignored because no string contains them.
      * @param codePoints array of actual code points
      */
     public CodePoints(Integer... codePoints) {
-        Set<Integer> s = new HashSet<Integer>(codePoints.length);
-        Collections.addAll(s, codePoints);
-        this.set = Collections.unmodifiableSet(s);
+        this(Arrays.asList(codePoints));
     }
 
     /**
@@ -220,35 +305,55 @@ public class CodePoints implements Serializable {
      * @param strings array of strings which include target code points
      */
     public CodePoints(String... strings) {
-        Set<Integer> s = new HashSet<Integer>();
+        CodePointSet.Builder builder = new CodePointSet.Builder();
         for (String str : strings) {
-            int len = str.length();
-            int codePoint;
-            for (int i = 0; i < len; i += Character.charCount(codePoint)) {
-                codePoint = str.codePointAt(i);
-                s.add(codePoint);
-            }
+            builder.addAll(str);
         }
-        this.set = Collections.unmodifiableSet(s);
+        this.set = builder.build();
     }
 
     /**
-     * Constructor with the given {@code java.lang.Integer} code points
+     * Constructor with the given {@code java.lang.Integer} code points. As in the previous versions, {@code null} elements and
+     * values which are not valid code points are accepted. They are ignored because no string contains them.
      * @param codePoints collection of actual code points
      */
     public CodePoints(Collection<Integer> codePoints) {
-        Set<Integer> s = new HashSet<Integer>(codePoints);
-        this.set = Collections.unmodifiableSet(s);
+        CodePointSet.Builder builder = new CodePointSet.Builder();
+        for (Integer codePoint : codePoints) {
+            if (codePoint != null && Character.isValidCodePoint(codePoint)) {
+                builder.add(codePoint);
+            }
+        }
+        this.set = builder.build();
     }
 
     /**
-     * Constructor with the given {@code CodePoints}. The {@code java.util.Set} object inside {@code CodePoints} is shared.
+     * Constructor with the given {@code CodePoints}. The set of code points inside {@code CodePoints} is shared.
      * @param codePoints actual code points
      */
     public CodePoints(CodePoints codePoints) {
         this.set = codePoints.set;
     }
 
+    /**
+     * Constructor with the given {@code CodePointSet}.
+     * @param set set of code points
+     */
+    CodePoints(CodePointSet set) {
+        this.set = set;
+    }
+
+    /**
+     * returns whether the given code point is included in the target code points.
+     * @param codePoint code point to check
+     * @return {@code true} if the given code point is included in the target code points. Otherwise {@code false} is
+     *         returned.
+     * @since 5.6.0
+     */
+    public boolean contains(int codePoint) {
+        return this.set.contains(codePoint);
+    }
+
     /**
      * returns whether all code points in the given string are included in the target code points.
      * @param s target string
@@ -259,6 +364,17 @@ public class CodePoints implements Serializable {
         return this.firstExcludedCodePoint(s) == NOT_FOUND;
     }
 
+    /**
+     * returns whether all code points in the given character sequence are included in the target code points.
+     * @param s target character sequence
+     * @return {@code true} if all code points in the given character sequence are included in the target code points.
+     *         Otherwise {@code false} is returned.
+     * @since 5.6.0
+     */
+    public boolean containsAll(CharSequence s) {
+        return this.firstExcludedCodePoint(s) == NOT_FOUND;
+    }
+
     /**
      * returns the first code point in the given string which is not included in the target code points.
      * @param s target string
@@ -266,19 +382,102 @@ public class CodePoints implements Serializable {
      *         returned if all code points in the given string are included in the target code points.
      */
     public int firstExcludedCodePoint(String s) {
-        if (s == null || s.isEmpty()) {
+        return this.firstExcludedCodePoint((CharSequence) s);
+    }
+
+    /**
+     * returns the first code point in the given character sequence which is not included in the target code points.
+     * @param s target character sequence
+     * @return first code point in the given character sequence which is not included in the target code points.
+     *         {@link #NOT_FOUND} is returned if all code points in the given character sequence are included in the target code
+     *         points.
+     * @since 5.6.0
+     */
+    public int firstExcludedCodePoint(CharSequence s) {
+        if (s == null) {
             return NOT_FOUND;
         }
-        // http://www.ibm.com/developerworks/jp/ysl/library/java/j-unicode_surrogate/
+        return set.firstExcluded(s);
+    }
+
+    /**
+     * returns the first code point in the given character sequence which is not included in the target code points together
+     * with its position.
+     * @param s target character sequence
+     * @return first excluded code point and its position. {@code null} is returned if all code points in the given character
+     *         sequence are included in the target code points or the given character sequence is {@code null}.
+     * @since 5.6.0
+     */
+    public ExcludedCodePoint findFirstExcludedCodePoint(CharSequence s) {
+        if (s == null) {
+            return null;
+        }
+        CodePointScanner.FirstExcluded first = new CodePointScanner.FirstExcluded();
+        CodePointScanner scanner = new CodePointScanner(set, first);
         int len = s.length();
-        int codePoint;
-        for (int i = 0; i < len; i += Character.charCount(codePoint)) {
-            codePoint = s.codePointAt(i);
-            if (!set.contains(codePoint)) {
-                return codePoint;
+        for (int i = 0; i < len; i++) {
+            if (!scanner.next(s.charAt(i))) {
+                return first.get();
+            }
+        }
+        scanner.finish();
+        return first.get();
+    }
+
+    /**
+     * returns the first code point in the given slice of {@code char} array which is not included in the target code points
+     * together with its position. The position is relative to {@code offset}.
+     * @param chars target {@code char} array
+     * @param offset index of the first {@code char} to scan
+     * @param length number of {@code char}s to scan
+     * @return first excluded code point and its position. {@code null} is returned if all code points in the given slice are
+     *         included in the target code points.
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is out of the bounds of the given array
+     * @since 5.6.0
+     */
+    public ExcludedCodePoint findFirstExcludedCodePoint(char[] chars,
+            int offset, int length) {
+        if (offset < 0 || length < 0 || offset > chars.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length="
+                    + length + ", array length=" + chars.length);
+        }
+        CodePointScanner.FirstExcluded first = new CodePointScanner.FirstExcluded();
+        CodePointScanner scanner = new CodePointScanner(set, first);
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (!scanner.next(chars[i])) {
+                return first.get();
             }
         }
-        return NOT_FOUND;
+        scanner.finish();
+        return first.get();
+    }
+
+    /**
+     * returns the first code point read from the given reader which is not included in the target code points together with
+     * its position. The reader is read incrementally up to the excluded code point, so that large contents can be checked
+     * without loading them as a whole. The reader is not closed.
+     * @param reader reader to scan
+     * @return first excluded code point and its position. {@code null} is returned if all code points read from the given
+     *         reader are included in the target code points.
+     * @throws IOException if an I/O error occurs
+     * @since 5.6.0
+     */
+    public ExcludedCodePoint findFirstExcludedCodePoint(
+            Reader reader) throws IOException {
+        CodePointScanner.FirstExcluded first = new CodePointScanner.FirstExcluded();
+        CodePointScanner scanner = new CodePointScanner(set, first);
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        int n;
+        while ((n = reader.read(buffer)) >= 0) {
+            for (int i = 0; i < n; i++) {
+                if (!scanner.next(buffer[i])) {
+                    return first.get();
+                }
+            }
+        }
+        scanner.finish();
+        return first.get();
     }
 
     /**
@@ -292,67 +491,405 @@ public class CodePoints implements Serializable {
             return Collections.emptySet();
         }
         Set<Integer> excludedCodePoints = new LinkedHashSet<Integer>();
-        // http://www.ibm.com/developerworks/jp/ysl/library/java/j-unicode_surrogate/
-        int len = s.length();
-        Integer codePoint;
-        for (int i = 0; i < len; i += Character.charCount(codePoint)) {
-            codePoint = s.codePointAt(i);
-            if (!set.contains(codePoint)) {
-                excludedCodePoints.add(codePoint);
-            }
+        int index = set.indexOfExcluded(s, 0);
+        while (index >= 0) {
+            int codePoint = s.codePointAt(index);
+            excludedCodePoints.add(codePoint);
+            index = set.indexOfExcluded(s, index + Character.charCount(
+                    codePoint));
         }
         return excludedCodePoints;
     }
 
+    /**
+     * visits code points in the given character sequence which are not included in the target code points together with their
+     * indexes, in the order of appearance. Code points are not boxed and duplicates are visited as many times as they appear.
+     * @param s target character sequence
+     * @param visitor visitor of excluded code points. scanning stops when it returns {@code false}
+     * @return number of visited code points
+     * @since 5.6.0
+     */
+    public int visitExcludedCodePoints(CharSequence s,
+            ExcludedCodePointVisitor visitor) {
+        if (s == null) {
+            return 0;
+        }
+        int count = 0;
+        int index = set.indexOfExcluded(s, 0);
+        while (index >= 0) {
+            int codePoint = Character.codePointAt(s, index);
+            count++;
+            if (!visitor.visit(codePoint, index)) {
+                break;
+            }
+            index = set.indexOfExcluded(s, index + Character.charCount(
+                    codePoint));
+        }
+        return count;
+    }
+
+    /**
+     * returns code points in the given character sequence which are not included in the target code points together with their
+     * indexes as {@code [codePoint0, index0, codePoint1, index1, ...]}, in the order of appearance.
+     *
+     * <pre>
+     * <code>CodePoints cp = new CodePoints(0x0061, 0x0062); // a b
+     * cp.findExcludedCodePoints("abcad", 10); // [0x0063, 2, 0x0064, 4]
+     * cp.findExcludedCodePoints("abcad", 1); // [0x0063, 2]
+     * </code>
+     * </pre>
+     *
+     * @param s target character sequence
+     * @param maxCount maximum number of code points to return
+     * @return pairs of excluded code points and their indexes. an empty array is returned if all code points in the given
+     *         character sequence are included in the target code points or the given character sequence is {@code null}.
+     * @throws IllegalArgumentException if {@code maxCount} is negative
+     * @since 5.6.0
+     */
+    public int[] findExcludedCodePoints(CharSequence s, int maxCount) {
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount must not be negative");
+        }
+        if (s == null || maxCount == 0) {
+            return new int[0];
+        }
+        int limit = Math.min(maxCount, s.length());
+        int[] pairs = new int[Math.min(limit, 8) * 2];
+        int size = 0;
+        int count = 0;
+        int index = set.indexOfExcluded(s, 0);
+        while (index >= 0 && count < limit) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, (int) Math.min(2L * limit, 2L
+                        * size));
+            }
+            count++;
+            int codePoint = Character.codePointAt(s, index);
+            pairs[size++] = codePoint;
+            pairs[size++] = index;
+            index = set.indexOfExcluded(s, index + Character.charCount(
+                    codePoint));
+        }
+        return size == pairs.length ? pairs : Arrays.copyOf(pairs, size);
+    }
+
+    /**
+     * replaces each code point in the given string which is not included in the target code points with the given
+     * replacement.
+     * @param s target string
+     * @param replacement replacement of an excluded code point (a surrogate pair is replaced once)
+     * @return sanitized string. the given string itself is returned if all code points in it are included in the target code
+     *         points or it is {@code null}.
+     * @throws IllegalArgumentException if {@code replacement} is {@code null}
+     * @since 5.6.0
+     */
+    public String sanitize(String s, String replacement) {
+        return (String) this.sanitize((CharSequence) s,
+                (CharSequence) replacement);
+    }
+
+    /**
+     * replaces each code point in the given character sequence which is not included in the target code points with the given
+     * replacement.
+     * @param s target character sequence
+     * @param replacement replacement of an excluded code point (a surrogate pair is replaced once)
+     * @return sanitized character sequence. the given instance itself is returned if all code points in it are included in the
+     *         target code points or it is {@code null}. Otherwise a new {@link String} is returned.
+     * @throws IllegalArgumentException if {@code replacement} is {@code null}
+     * @since 5.6.0
+     */
+    public CharSequence sanitize(CharSequence s, CharSequence replacement) {
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (s == null) {
+            return null;
+        }
+        int index = set.indexOfExcluded(s, 0);
+        if (index < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        try {
+            sanitize(s, replacement, sb, index);
+        } catch (IOException e) {
+            // never thrown by StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * writes the given character sequence to the given output replacing each code point which is not included in the target
+     * code points with the given replacement.
+     * @param s target character sequence. nothing is written if {@code null}
+     * @param replacement replacement of an excluded code point (a surrogate pair is replaced once)
+     * @param out output
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if {@code replacement} is {@code null}
+     * @since 5.6.0
+     */
+    public void sanitize(CharSequence s, CharSequence replacement,
+            Appendable out) throws IOException {
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (s == null) {
+            return;
+        }
+        sanitize(s, replacement, out, set.indexOfExcluded(s, 0));
+    }
+
+    /**
+     * removes code points in the given string which are not included in the target code points.
+     * @param s target string
+     * @return stripped string. the given string itself is returned if all code points in it are included in the target code
+     *         points or it is {@code null}.
+     * @since 5.6.0
+     */
+    public String strip(String s) {
+        return this.sanitize(s, "");
+    }
+
+    /**
+     * removes code points in the given character sequence which are not included in the target code points.
+     * @param s target character sequence
+     * @return stripped character sequence. the given instance itself is returned if all code points in it are included in the
+     *         target code points or it is {@code null}. Otherwise a new {@link String} is returned.
+     * @since 5.6.0
+     */
+    public CharSequence strip(CharSequence s) {
+        return this.sanitize(s, "");
+    }
+
+    /**
+     * writes the given character sequence to the given output removing code points which are not included in the target code
+     * points.
+     * @param s target character sequence. nothing is written if {@code null}
+     * @param out output
+     * @throws IOException if an I/O error occurs
+     * @since 5.6.0
+     */
+    public void strip(CharSequence s, Appendable out) throws IOException {
+        this.sanitize(s, "", out);
+    }
+
+    /**
+     * write the sanitized character sequence to the given output.
+     * @param s target character sequence
+     * @param replacement replacement of an excluded code point
+     * @param out output
+     * @param firstIndex index of the first excluded code point, or {@code -1} if not found
+     * @throws IOException if an I/O error occurs
+     */
+    private void sanitize(CharSequence s, CharSequence replacement,
+            Appendable out, int firstIndex) throws IOException {
+        int start = 0;
+        int index = firstIndex;
+        while (index >= 0) {
+            out.append(s, start, index);
+            out.append(replacement);
+            start = index + Character.charCount(Character.codePointAt(s,
+                    index));
+            index = set.indexOfExcluded(s, start);
+        }
+        out.append(s, start, s.length());
+    }
+
+    /**
+     * validates all values in the given list in parallel with {@link ForkJoinPool#commonPool()}.
+     * @param values values to validate. {@code null} elements are valid
+     * @return indexes of values which include code points not included in the target code points and their first excluded
+     *         code points
+     * @since 5.6.0
+     */
+    public BatchValidationResult validateAll(
+            List<? extends CharSequence> values) {
+        return BatchValidationTask.validate(set, values, ForkJoinPool
+                .commonPool());
+    }
+
+    /**
+     * validates all values in the given list splitting the work with fork/join in the given pool.
+     *
+     * <pre>
+     * <code>BatchValidationResult result = CodePoints.of(JIS_X_0208_Hiragana.class).validateAll(names, forkJoinPool);
+     * result.getFailures(); // {1, 5}
+     * result.getFirstExcludedCodePoint(1); // 0x30A2 (ア)
+     * </code>
+     * </pre>
+     *
+     * @param values values to validate. {@code null} elements are valid
+     * @param forkJoinPool pool to validate the values in parallel. it is not shut down by this method.
+     * @return indexes of values which include code points not included in the target code points and their first excluded
+     *         code points
+     * @throws IllegalArgumentException if {@code forkJoinPool} is {@code null}
+     * @since 5.6.0
+     */
+    public BatchValidationResult validateAll(
+            List<? extends CharSequence> values, ForkJoinPool forkJoinPool) {
+        return BatchValidationTask.validate(set, values, forkJoinPool);
+    }
+
     /**
      * unite two set of code points
+     * <p>
+     * The result is memoized while both operands are reachable, so that uniting the same instance again returns the same
+     * instance.
+     * </p>
      * @param codePoints code points to unite
      * @return united code points
      */
     public CodePoints union(CodePoints codePoints) {
-        Set<Integer> setTmp = new HashSet<Integer>(this.set);
-        setTmp.addAll(codePoints.set);
-        return new CodePoints(setTmp);
+        return derive(UNION, codePoints);
     }
 
     /**
      * subtract two set of code points
+     * <p>
+     * The result is memoized as {@link #union(CodePoints)}.
+     * </p>
      * @param codePoints code points to subtract
      * @return subtracted code points
      */
     public CodePoints subtract(CodePoints codePoints) {
-        Set<Integer> setTmp = new HashSet<Integer>(this.set);
-        setTmp.removeAll(codePoints.set);
-        return new CodePoints(setTmp);
+        return derive(SUBTRACT, codePoints);
     }
 
     /**
      * intersect two set of code points
+     * <p>
+     * The result is memoized as {@link #union(CodePoints)}.
+     * </p>
      * @param codePoints code points to intersect
      * @return intersected code points
      */
     public CodePoints intersect(CodePoints codePoints) {
-        Set<Integer> setTmp = new HashSet<Integer>(this.set);
-        setTmp.retainAll(codePoints.set);
-        return new CodePoints(setTmp);
+        return derive(INTERSECT, codePoints);
+    }
+
+    /**
+     * returns the memoized result of the given set operation, computing it at first time. The result is computed without any
+     * lock, and the first one published is returned if other threads compute it concurrently.
+     * @param operation {@link #UNION}, {@link #SUBTRACT} or {@link #INTERSECT}
+     * @param codePoints right operand
+     * @return result of the operation
+     */
+    private CodePoints derive(int operation, CodePoints codePoints) {
+        AtomicReferenceArray<CodePoints> results = derivedEntry(
+                codePoints).results;
+        CodePoints result = results.get(operation);
+        if (result != null) {
+            return result;
+        }
+        CodePointSet other = codePoints.set;
+        result = new CodePoints(operation == UNION ? set.union(other)
+                : operation == SUBTRACT ? set.subtract(other)
+                        : set.intersect(other));
+        if (results.compareAndSet(operation, null, result)) {
+            return result;
+        }
+        return results.get(operation);
+    }
+
+    /**
+     * returns the entry of memoized results for the given right operand, adding it if not exists. Entries are compared by
+     * identity, and entries of right operands which have been garbage collected are dropped when an entry is added.
+     * @param codePoints right operand
+     * @return entry for the right operand
+     */
+    private Derived derivedEntry(CodePoints codePoints) {
+        while (true) {
+            Derived[] current = derived;
+            Derived[] entries = (current == null) ? NO_DERIVED : current;
+            // scan without allocation, since a hit is the common case
+            for (Derived entry : entries) {
+                if (entry.get() == codePoints) {
+                    return entry;
+                }
+            }
+            Derived[] live = new Derived[entries.length + 1];
+            int n = 0;
+            for (Derived entry : entries) {
+                if (entry.get() != null) {
+                    live[n++] = entry;
+                }
+            }
+            Derived entry = new Derived(codePoints);
+            live[n++] = entry;
+            if (DERIVED_UPDATER.compareAndSet(this, current, Arrays.copyOf(live,
+                    n))) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Creates {@link CodePoints} which consist of the given closed ranges. Each range is given as a pair of its first and last
+     * code points. Contiguous code points are stored as ranges, so this is cheaper than listing every code point.
+     *
+     * <pre>
+     * <code>CodePoints cp = CodePoints.ranges(0x0030, 0x0039, 0x0041, 0x005A); // 0-9 A-Z</code>
+     * </pre>
+     * @param ranges array of {@code [start0, end0, start1, end1, ...]}
+     * @return code points which consist of the given ranges
+     * @throws IllegalArgumentException if the length of the given array is odd, a range is empty, or includes an invalid code
+     *             point
+     * @since 5.6.0
+     */
+    public static CodePoints ranges(int... ranges) {
+        if (ranges.length % 2 != 0) {
+            throw new IllegalArgumentException("ranges must be given as pairs of start and end");
+        }
+        CodePointSet.Builder builder = new CodePointSet.Builder();
+        for (int i = 0; i < ranges.length; i += 2) {
+            builder.addRange(ranges[i], ranges[i + 1]);
+        }
+        return new CodePoints(builder.build());
+    }
+
+    /**
+     * Creates {@link CodePoints} from a bitmap of the Basic Multilingual Plane and ranges of supplementary code points. This is
+     * mainly used by classes generated by {@code terasoluna-gfw-codepoints-generator}, which hold their members as constant
+     * arrays.
+     * <p>
+     * The given arrays are copied, so that modifying them after this call does not affect the created {@link CodePoints}.
+     * </p>
+     *
+     * <pre>
+     * <code>private static final long[] BMP = { 0x0000000000000000L, 0x07FFFFFE07FFFFFEL }; // A-Z a-z
+     * CodePoints cp = CodePoints.bitmap(BMP);</code>
+     * </pre>
+     * @param bmp bitmap in which bit {@code (c & 63)} of {@code bmp[c >>> 6]} is set if {@code c} is a member
+     * @param supplementaryRanges array of {@code [start0, end0, start1, end1, ...]}. Ranges must be of supplementary code
+     *            points, sorted in ascending order and neither overlap nor adjoin each other.
+     * @return code points which consist of the given bitmap and ranges
+     * @throws IllegalArgumentException if the bitmap is longer than 1024 words, or the ranges are invalid
+     * @since 5.6.0
+     */
+    public static CodePoints bitmap(long[] bmp, int... supplementaryRanges) {
+        return new CodePoints(CodePointSet.adopt(bmp.clone(),
+                supplementaryRanges.clone()));
     }
 
     /**
      * Produces cached {@link CodePoints}. At first time, a new {@link CodePoints} is created. After second time, same instance
-     * is returned.
+     * is returned. If several threads create the same class at the same time, all of them get the instance registered first.
      * @param clazz {@link CodePoints} class to create
      * @param <T> {@link CodePoints} class
      * @return cached instance
      */
     @SuppressWarnings("unchecked")
     public static <T extends CodePoints> T of(Class<T> clazz) {
-        if (cache.containsKey(clazz)) {
-            return (T) cache.get(clazz);
+        CodePoints cached = cache.get(clazz);
+        if (cached != null) {
+            return (T) cached;
         }
         try {
+            // instantiate outside of the map since the constructor may call this method recursively
             T codePoints = clazz.newInstance();
-            cache.put(clazz, codePoints);
-            return codePoints;
+            CodePoints existing = cache.putIfAbsent(clazz, codePoints);
+            return existing == null ? codePoints : (T) existing;
         } catch (InstantiationException e) {
             throw new IllegalArgumentException("exception occurred while initializing", e);
         } catch (IllegalAccessException e) {
@@ -362,6 +899,9 @@ public class CodePoints implements Serializable {
 
     /**
      * Helper method to check whether all code points in the given string are included in any of the code points list.
+     * <p>
+     * Use {@link CodePointsMatcher} instead if the same code points list is used repeatedly.
+     * </p>
      * @param s target string
      * @param codePointsList array of code points
      * @return {@code true} if all code points in the given string are included in any of the code points list. Otherwise
@@ -369,29 +909,15 @@ public class CodePoints implements Serializable {
      */
     public static boolean containsAllInAnyCodePoints(String s,
             final CodePoints... codePointsList) {
-        Map<Integer, Integer> excludedCounts = new HashMap<Integer, Integer>();
-        for (CodePoints codePoints : codePointsList) {
-            Set<Integer> excluded = codePoints.allExcludedCodePoints(s);
-            if (excluded.isEmpty()) {
-                // return immediately if the given string consists of a code points.
-                return true;
-            }
-
-            for (Integer codePoint : excluded) {
-                // count the number of CodePoints in the given list which forbade the given code point
-                Integer count = excludedCounts.get(codePoint);
-                if (count != null) {
-                    excludedCounts.put(codePoint, count + 1);
-                } else {
-                    excludedCounts.put(codePoint, 1);
-                }
-            }
+        if (s == null || codePointsList.length == 0) {
+            return true;
         }
-
-        for (Map.Entry<Integer, Integer> entry : excludedCounts.entrySet()) {
-            if (entry.getValue() == codePointsList.length) {
-                // All CodePoints forbade the given code point.
-                // This means there are some code points which are not included in any given CodePoints' list
+        int len = s.length();
+        int codePoint;
+        for (int i = 0; i < len; i += Character.charCount(codePoint)) {
+            codePoint = s.codePointAt(i);
+            if (!containsInAny(codePoint, codePointsList)) {
+                // there is a code point which is not included in any given CodePoints' list
                 return false;
             }
         }
@@ -399,6 +925,30 @@ public class CodePoints implements Serializable {
         return true;
     }
 
+    /**
+     * returns whether the given code point is included in any of the code points list.
+     * @param codePoint code point to check
+     * @param codePointsList array of code points
+     * @return {@code true} if the given code point is included in any of the code points list
+     */
+    private static boolean containsInAny(int codePoint,
+            CodePoints[] codePointsList) {
+        for (CodePoints codePoints : codePointsList) {
+            if (codePoints.set.contains(codePoint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * returns the set of code points held by this instance.
+     * @return set of code points
+     */
+    CodePointSet codePointSet() {
+        return set;
+    }
+
     /**
      * equals method
      * @param o object to check
@@ -427,4 +977,24 @@ public class CodePoints implements Serializable {
     public int hashCode() {
         return set.hashCode();
     }
+
+    /**
+     * Memoized results of set operations with a right operand, which is weakly referenced so that temporary right operands do
+     * not leak.
+     */
+    private static final class Derived extends WeakReference<CodePoints> {
+
+        /**
+         * results indexed by {@link #UNION}, {@link #SUBTRACT} and {@link #INTERSECT}.
+         */
+        final AtomicReferenceArray<CodePoints> results = new AtomicReferenceArray<CodePoints>(3);
+
+        /**
+         * Constructor.
+         * @param operand right operand
+         */
+        Derived(CodePoints operand) {
+            super(operand);
+        }
+    }
 }
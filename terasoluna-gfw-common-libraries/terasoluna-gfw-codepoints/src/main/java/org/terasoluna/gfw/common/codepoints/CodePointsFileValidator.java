@@ -0,0 +1,487 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates that all code points in a (possibly very large) file are included in any of the given {@link CodePoints}.
+ * <p>
+ * The file is memory-mapped with {@link FileChannel#map(FileChannel.MapMode, long, long)} and decoded in chunks. If the
+ * charset is ASCII compatible and stateless (UTF-8, US-ASCII, ISO-8859-1, Shift_JIS, Windows-31J, EUC-JP), the file is split
+ * just after line feeds into chunks of about {@link #setChunkSize(int) chunk size} bytes and the chunks are validated in
+ * parallel with fork/join. Since a line feed byte never appears inside a multibyte character or a surrogate pair in these
+ * charsets, no character is split across chunks. Files in other charsets are validated as a single chunk.
+ * </p>
+ * <p>
+ * Malformed or unmappable byte sequences are decoded to {@code U+FFFD} and reported as violations unless {@code U+FFFD} is
+ * included in the given code points.
+ * </p>
+ *
+ * <pre>
+ * <code>CodePointsFileValidator validator = new CodePointsFileValidator(Charset.forName("Windows-31J"), CodePoints.of(
+ *         JIS_X_0208_Hiragana.class), CodePoints.of(ASCIIPrintableChars.class), CodePoints.of(CRLF.class));
+ * for (ExcludedCodePoint violation : validator.validate(Paths.get("input.csv"))) {
+ *     logger.warn("invalid character {}", violation); // U+3000 at line 3, column 12 (offset 40)
+ * }
+ * </code>
+ * </pre>
+ *
+ * Instances are thread-safe once configured.
+ * @since 5.6.0
+ */
+public final class CodePointsFileValidator {
+
+    /**
+     * default chunk size in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * default maximum number of violations to report.
+     */
+    public static final int DEFAULT_MAX_VIOLATIONS = 1000;
+
+    /**
+     * canonical names of charsets which can be split at line feed bytes.
+     */
+    private static final Set<String> SPLITTABLE_CHARSETS = new HashSet<String>(Arrays
+            .asList("UTF-8", "US-ASCII", "ISO-8859-1", "Shift_JIS",
+                    "windows-31j", "EUC-JP"));
+
+    /**
+     * size of the buffer used to search line feeds.
+     */
+    private static final int SEARCH_BUFFER_SIZE = 8192;
+
+    /**
+     * size of the buffer used to decode characters.
+     */
+    private static final int DECODE_BUFFER_SIZE = 8192;
+
+    /**
+     * united set of code points.
+     */
+    private final CodePointSet set;
+
+    /**
+     * charset of files.
+     */
+    private final Charset charset;
+
+    /**
+     * chunk size in bytes.
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * maximum number of violations to report.
+     */
+    private int maxViolations = DEFAULT_MAX_VIOLATIONS;
+
+    /**
+     * pool to validate chunks in parallel.
+     */
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+    /**
+     * Constructor.
+     * @param charset charset of files
+     * @param codePointsList code points to which all code points in files must belong (any of them)
+     * @throws IllegalArgumentException if {@code charset} is {@code null} or {@code codePointsList} is empty
+     */
+    public CodePointsFileValidator(Charset charset,
+            CodePoints... codePointsList) {
+        if (charset == null) {
+            throw new IllegalArgumentException("charset must not be null");
+        }
+        if (codePointsList == null || codePointsList.length == 0) {
+            throw new IllegalArgumentException("codePointsList must not be empty");
+        }
+        CodePointSet united = codePointsList[0].codePointSet();
+        for (int i = 1; i < codePointsList.length; i++) {
+            united = united.union(codePointsList[i].codePointSet());
+        }
+        this.set = united;
+        this.charset = charset;
+    }
+
+    /**
+     * set the chunk size in bytes. A chunk is extended to the next line feed.
+     * @param chunkSize chunk size in bytes
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * set the maximum number of violations to report.
+     * @param maxViolations maximum number of violations
+     * @throws IllegalArgumentException if {@code maxViolations} is not positive
+     */
+    public void setMaxViolations(int maxViolations) {
+        if (maxViolations <= 0) {
+            throw new IllegalArgumentException("maxViolations must be positive");
+        }
+        this.maxViolations = maxViolations;
+    }
+
+    /**
+     * set the pool to validate chunks in parallel. {@link ForkJoinPool#commonPool()} is used by default.
+     * @param forkJoinPool pool to validate chunks
+     * @throws IllegalArgumentException if {@code forkJoinPool} is {@code null}
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("forkJoinPool must not be null");
+        }
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * validate the given file.
+     * @param file file to validate
+     * @return code points which are not included in any of the code points list, in the order of appearance. At most
+     *         {@link #setMaxViolations(int) max violations} are returned. Empty if the file is valid.
+     * @throws IOException if an I/O error occurs
+     */
+    public List<ExcludedCodePoint> validate(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long[] bounds = split(channel);
+            ChunkResult[] results = new ChunkResult[bounds.length - 1];
+            try {
+                forkJoinPool.invoke(
+                        new ValidateTask(channel, bounds, results, 0, results.length));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return merge(results);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * split the file into chunks which start just after line feeds.
+     * @param channel channel of the file
+     * @return boundaries of chunks (the first element is 0 and the last one is the file size)
+     * @throws IOException if an I/O error occurs
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<Long>();
+        bounds.add(0L);
+        if (SPLITTABLE_CHARSETS.contains(charset.name())) {
+            ByteBuffer buffer = ByteBuffer.allocate(SEARCH_BUFFER_SIZE);
+            long start = 0;
+            while (size - start > chunkSize) {
+                start = nextLineStart(channel, start + chunkSize, size, buffer);
+                if (start >= size) {
+                    break;
+                }
+                bounds.add(start);
+            }
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * returns the position just after the first line feed at or after the given position.
+     * @param channel channel of the file
+     * @param position position to start searching
+     * @param size size of the file
+     * @param buffer buffer to read
+     * @return position just after the line feed, or {@code size} if not found
+     * @throws IOException if an I/O error occurs
+     */
+    private static long nextLineStart(FileChannel channel, long position,
+            long size, ByteBuffer buffer) throws IOException {
+        long p = position;
+        while (p < size) {
+            buffer.clear();
+            int read = channel.read(buffer, p);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += read;
+        }
+        return size;
+    }
+
+    /**
+     * validate a chunk of the file.
+     * @param channel channel of the file
+     * @param start start position of the chunk
+     * @param end end position of the chunk (exclusive)
+     * @return result of the chunk
+     * @throws IOException if an I/O error occurs
+     */
+    private ChunkResult validateChunk(FileChannel channel, long start,
+            long end) throws IOException {
+        final ChunkResult result = new ChunkResult();
+        CodePointScanner scanner = new CodePointScanner(set, new CodePointScanner.Handler() {
+            @Override
+            public boolean handle(int codePoint, long offset, long line,
+                    long column) {
+                result.violations.add(
+                        new ExcludedCodePoint(codePoint, offset, line, column));
+                return result.violations.size() < maxViolations;
+            }
+        });
+        CharsetDecoder decoder = charset.newDecoder().onMalformedInput(
+                CodingErrorAction.REPLACE).onUnmappableCharacter(
+                        CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+        long position = start;
+        boolean proceed = true;
+        while (proceed) {
+            long length = Math.min(end - position, Math.max(chunkSize,
+                    DECODE_BUFFER_SIZE));
+            boolean endOfInput = position + length == end;
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position, length);
+            proceed = decode(decoder, bytes, chars, endOfInput, scanner);
+            if (endOfInput) {
+                break;
+            }
+            // an incomplete character at the end of the window is decoded with the next window
+            position += bytes.position();
+        }
+        if (proceed) {
+            proceed = flush(decoder, chars, scanner) && scanner.finish();
+        }
+        result.chars = scanner.getOffset();
+        result.lines = scanner.getLine() - 1;
+        return result;
+    }
+
+    /**
+     * decode the given bytes and feed the decoded characters to the scanner.
+     * @param decoder decoder
+     * @param bytes bytes to decode
+     * @param chars buffer for decoded characters
+     * @param endOfInput whether the given bytes are the end of the chunk
+     * @param scanner scanner
+     * @return {@code false} if the scanner requested to stop
+     * @throws CharacterCodingException never thrown since errors are replaced
+     */
+    private static boolean decode(CharsetDecoder decoder, ByteBuffer bytes,
+            CharBuffer chars, boolean endOfInput,
+            CodePointScanner scanner) throws CharacterCodingException {
+        while (true) {
+            CoderResult coderResult = decoder.decode(bytes, chars, endOfInput);
+            if (coderResult.isError()) {
+                coderResult.throwException();
+            }
+            if (!drain(chars, scanner)) {
+                return false;
+            }
+            if (coderResult.isUnderflow()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * flush the decoder and feed the remaining characters to the scanner.
+     * @param decoder decoder
+     * @param chars buffer for decoded characters
+     * @param scanner scanner
+     * @return {@code false} if the scanner requested to stop
+     */
+    private static boolean flush(CharsetDecoder decoder, CharBuffer chars,
+            CodePointScanner scanner) {
+        while (true) {
+            CoderResult coderResult = decoder.flush(chars);
+            if (!drain(chars, scanner)) {
+                return false;
+            }
+            if (coderResult.isUnderflow()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * feed the decoded characters to the scanner and clear the buffer.
+     * @param chars buffer for decoded characters
+     * @param scanner scanner
+     * @return {@code false} if the scanner requested to stop
+     */
+    private static boolean drain(CharBuffer chars, CodePointScanner scanner) {
+        chars.flip();
+        try {
+            while (chars.hasRemaining()) {
+                if (!scanner.next(chars.get())) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            chars.clear();
+        }
+    }
+
+    /**
+     * merge the results of chunks translating positions into the ones in the whole file.
+     * @param results results of chunks
+     * @return violations in the whole file
+     */
+    private List<ExcludedCodePoint> merge(ChunkResult[] results) {
+        List<ExcludedCodePoint> violations = new ArrayList<ExcludedCodePoint>();
+        long charOffset = 0;
+        long lineOffset = 0;
+        for (ChunkResult result : results) {
+            for (ExcludedCodePoint v : result.violations) {
+                if (violations.size() >= maxViolations) {
+                    return Collections.unmodifiableList(violations);
+                }
+                violations.add(new ExcludedCodePoint(v
+                        .getCodePoint(), charOffset + v.getOffset(), lineOffset
+                                + v.getLine(), v.getColumn()));
+            }
+            charOffset += result.chars;
+            lineOffset += result.lines;
+        }
+        return Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Result of a chunk. Positions are relative to the beginning of the chunk.
+     */
+    private static final class ChunkResult {
+
+        /**
+         * violations in the chunk.
+         */
+        private final List<ExcludedCodePoint> violations = new ArrayList<ExcludedCodePoint>();
+
+        /**
+         * number of {@code char}s in the chunk.
+         */
+        private long chars;
+
+        /**
+         * number of line breaks in the chunk.
+         */
+        private long lines;
+    }
+
+    /**
+     * Fork/join task which validates a range of chunks.
+     */
+    private final class ValidateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * channel of the file.
+         */
+        private final transient FileChannel channel;
+
+        /**
+         * boundaries of chunks.
+         */
+        private final long[] bounds;
+
+        /**
+         * results of chunks.
+         */
+        private final ChunkResult[] results;
+
+        /**
+         * first chunk index.
+         */
+        private final int from;
+
+        /**
+         * last chunk index (exclusive).
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         * @param channel channel of the file
+         * @param bounds boundaries of chunks
+         * @param results results of chunks
+         * @param from first chunk index
+         * @param to last chunk index (exclusive)
+         */
+        ValidateTask(FileChannel channel, long[] bounds, ChunkResult[] results,
+                int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ValidateTask(channel, bounds, results, from, middle),
+                        new ValidateTask(channel, bounds, results, middle, to));
+                return;
+            }
+            try {
+                results[from] = validateChunk(channel, bounds[from], bounds[from
+                        + 1]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
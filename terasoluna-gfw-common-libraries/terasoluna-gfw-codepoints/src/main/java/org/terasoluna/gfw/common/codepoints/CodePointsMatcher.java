@@ -0,0 +1,171 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Precompiled matcher which checks whether all code points in the given string are included in any of the given
+ * {@link CodePoints}.
+ * <p>
+ * The given {@link CodePoints} are united once at construction time, so that {@link #matches(CharSequence)} scans the string
+ * only once and does not allocate any object. This is equivalent to
+ * {@link CodePoints#containsAllInAnyCodePoints(String, CodePoints...)} and intended to be created once and reused.
+ * </p>
+ *
+ * <pre>
+ * <code>CodePointsMatcher matcher = new CodePointsMatcher(CodePoints.of(JIS_X_0208_Hiragana.class), CodePoints.of(
+ *         JIS_X_0208_Katakana.class));
+ * matcher.matches("あいアイ"); // true
+ * matcher.matches("あいaアイ"); // false
+ * </code>
+ * </pre>
+ *
+ * {@link #of(Class...)} returns a matcher shared across callers for the same set of {@link CodePoints} classes, so that
+ * validators using the same combination (e.g. {@code @ConsistOf}) share one compiled matcher.
+ *
+ * <pre>
+ * <code>CodePointsMatcher matcher = CodePointsMatcher.of(JIS_X_0208_Hiragana.class, JIS_X_0208_Katakana.class);
+ * </code>
+ * </pre>
+ *
+ * @since 5.6.0
+ */
+public final class CodePointsMatcher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * shared matchers keyed by the set of {@link CodePoints} classes.
+     */
+    private static final ConcurrentMap<Set<Class<? extends CodePoints>>, CodePointsMatcher> cache = new ConcurrentHashMap<Set<Class<? extends CodePoints>>, CodePointsMatcher>();
+
+    /**
+     * function to compile a matcher for a set of {@link CodePoints} classes.
+     */
+    private static final Function<Set<Class<? extends CodePoints>>, CodePointsMatcher> compiler = new Function<Set<Class<? extends CodePoints>>, CodePointsMatcher>() {
+        @Override
+        public CodePointsMatcher apply(
+                Set<Class<? extends CodePoints>> classes) {
+            CodePoints[] codePointsList = new CodePoints[classes.size()];
+            int i = 0;
+            for (Class<? extends CodePoints> clazz : classes) {
+                codePointsList[i++] = CodePoints.of(clazz);
+            }
+            return new CodePointsMatcher(codePointsList);
+        }
+    };
+
+    /**
+     * united set of code points. {@code null} if no {@link CodePoints} is given.
+     */
+    private final CodePointSet set;
+
+    /**
+     * Constructor with the given {@link CodePoints}.
+     * <p>
+     * If no {@link CodePoints} is given, this matcher accepts any string as
+     * {@link CodePoints#containsAllInAnyCodePoints(String, CodePoints...)} does.
+     * </p>
+     * @param codePointsList array of code points
+     */
+    public CodePointsMatcher(CodePoints... codePointsList) {
+        CodePointSet united = null;
+        for (CodePoints codePoints : codePointsList) {
+            CodePointSet s = codePoints.codePointSet();
+            united = (united == null) ? s : united.union(s);
+        }
+        this.set = united;
+    }
+
+    /**
+     * Produces a shared matcher for the given {@link CodePoints} classes. At first time for a set of classes, a new matcher is
+     * compiled from the code points cached by {@link CodePoints#of(Class)}. After second time, same instance is returned
+     * regardless of the order and duplicates of the given classes.
+     * @param classes {@link CodePoints} classes
+     * @return shared matcher
+     */
+    @SafeVarargs
+    public static CodePointsMatcher of(Class<? extends CodePoints>... classes) {
+        Set<Class<? extends CodePoints>> key = Collections.unmodifiableSet(
+                new HashSet<Class<? extends CodePoints>>(Arrays.asList(
+                        classes)));
+        CodePointsMatcher matcher = cache.get(key);
+        if (matcher != null) {
+            return matcher;
+        }
+        return cache.computeIfAbsent(key, compiler);
+    }
+
+    /**
+     * returns whether all code points in the given string are included in any of the code points list.
+     * @param s target string
+     * @return {@code true} if all code points in the given string are included in any of the code points list or the given
+     *         string is {@code null} or empty. Otherwise {@code false} is returned.
+     */
+    public boolean matches(CharSequence s) {
+        return firstUnmatchedCodePoint(s) == CodePoints.NOT_FOUND;
+    }
+
+    /**
+     * returns the first code point in the given string which is not included in any of the code points list.
+     * @param s target string
+     * @return first code point in the given string which is not included in any of the code points list.
+     *         {@link CodePoints#NOT_FOUND} is returned if all code points in the given string are included.
+     */
+    public int firstUnmatchedCodePoint(CharSequence s) {
+        if (s == null || set == null) {
+            return CodePoints.NOT_FOUND;
+        }
+        return set.firstExcluded(s);
+    }
+
+    /**
+     * validates all values in the given list in parallel with {@link ForkJoinPool#commonPool()}.
+     * @param values values to validate. {@code null} elements are valid
+     * @return indexes of values which include code points not included in any of the code points list and their first
+     *         unmatched code points
+     * @see CodePoints#validateAll(List)
+     */
+    public BatchValidationResult validateAll(
+            List<? extends CharSequence> values) {
+        return BatchValidationTask.validate(set, values, ForkJoinPool
+                .commonPool());
+    }
+
+    /**
+     * validates all values in the given list splitting the work with fork/join in the given pool.
+     * @param values values to validate. {@code null} elements are valid
+     * @param forkJoinPool pool to validate the values in parallel. it is not shut down by this method.
+     * @return indexes of values which include code points not included in any of the code points list and their first
+     *         unmatched code points
+     * @throws IllegalArgumentException if {@code forkJoinPool} is {@code null}
+     * @see CodePoints#validateAll(List, ForkJoinPool)
+     */
+    public BatchValidationResult validateAll(
+            List<? extends CharSequence> values, ForkJoinPool forkJoinPool) {
+        return BatchValidationTask.validate(set, values, forkJoinPool);
+    }
+}
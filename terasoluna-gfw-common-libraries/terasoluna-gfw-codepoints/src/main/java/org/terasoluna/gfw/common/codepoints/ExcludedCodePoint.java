@@ -0,0 +1,140 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import java.io.Serializable;
+
+/**
+ * Code point which is not included in the target code points, together with its position in the scanned text.
+ * <p>
+ * Lines are separated by {@code CR}, {@code LF} or {@code CRLF}. Both line and column numbers start from 1, and columns are
+ * counted in code points (a surrogate pair is one column).
+ * </p>
+ * @see CodePoints#findFirstExcludedCodePoint(java.io.Reader)
+ * @since 5.6.0
+ */
+public final class ExcludedCodePoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * excluded code point.
+     */
+    private final int codePoint;
+
+    /**
+     * offset of the first {@code char} of the code point from the beginning of the text.
+     */
+    private final long offset;
+
+    /**
+     * line number (1-based).
+     */
+    private final long line;
+
+    /**
+     * column number in code points (1-based).
+     */
+    private final long column;
+
+    /**
+     * Constructor.
+     * @param codePoint excluded code point
+     * @param offset offset of the first {@code char} of the code point from the beginning of the text
+     * @param line line number (1-based)
+     * @param column column number in code points (1-based)
+     */
+    public ExcludedCodePoint(int codePoint, long offset, long line,
+            long column) {
+        this.codePoint = codePoint;
+        this.offset = offset;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * returns the excluded code point.
+     * @return excluded code point
+     */
+    public int getCodePoint() {
+        return codePoint;
+    }
+
+    /**
+     * returns the offset of the first {@code char} of the code point from the beginning of the text.
+     * @return offset in {@code char}s
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * returns the line number.
+     * @return line number (1-based)
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * returns the column number.
+     * @return column number in code points (1-based)
+     */
+    public long getColumn() {
+        return column;
+    }
+
+    /**
+     * equals method
+     * @param o object to check
+     * @return {@code true} if the given object has same code point and position
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExcludedCodePoint)) {
+            return false;
+        }
+        ExcludedCodePoint that = (ExcludedCodePoint) o;
+        return codePoint == that.codePoint && offset == that.offset
+                && line == that.line && column == that.column;
+    }
+
+    /**
+     * hash code of the instance
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        int result = codePoint;
+        result = 31 * result + (int) (offset ^ (offset >>> 32));
+        result = 31 * result + (int) (line ^ (line >>> 32));
+        result = 31 * result + (int) (column ^ (column >>> 32));
+        return result;
+    }
+
+    /**
+     * returns the string representation such as {@code U+3042 at line 1, column 2 (offset 1)}.
+     * @return string representation
+     */
+    @Override
+    public String toString() {
+        return String.format("U+%04X at line %d, column %d (offset %d)",
+                codePoint, line, column, offset);
+    }
+}
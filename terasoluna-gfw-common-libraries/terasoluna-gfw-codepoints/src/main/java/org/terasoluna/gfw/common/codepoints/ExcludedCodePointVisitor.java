@@ -0,0 +1,44 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+/**
+ * Visitor of code points which are not included in the target code points.
+ *
+ * <pre>
+ * <code>final BitSet highlighted = new BitSet();
+ * codePoints.visitExcludedCodePoints(input, new ExcludedCodePointVisitor() {
+ *     public boolean visit(int codePoint, int index) {
+ *         highlighted.set(index, index + Character.charCount(codePoint));
+ *         return true;
+ *     }
+ * });
+ * </code>
+ * </pre>
+ *
+ * @see CodePoints#visitExcludedCodePoints(CharSequence, ExcludedCodePointVisitor)
+ * @since 5.6.0
+ */
+public interface ExcludedCodePointVisitor {
+
+    /**
+     * visit an excluded code point.
+     * @param codePoint excluded code point
+     * @param index index of the first {@code char} of the code point
+     * @return {@code true} to continue visiting, {@code false} to stop
+     */
+    boolean visit(int codePoint, int index);
+}
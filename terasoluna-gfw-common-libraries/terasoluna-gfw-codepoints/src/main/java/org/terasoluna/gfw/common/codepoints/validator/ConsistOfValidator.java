@@ -15,23 +15,39 @@
  */
 package org.terasoluna.gfw.common.codepoints.validator;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashSet;
+import java.util.Set;
+
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 import org.terasoluna.gfw.common.codepoints.CodePoints;
+import org.terasoluna.gfw.common.codepoints.CodePointsMatcher;
 import org.terasoluna.gfw.common.codepoints.ConsistOf;
 
 /**
  * Validator implementation corresponding to {@link ConsistOf} annotation. This validator checks whether all code points in the
  * given string are included in any {@link CodePoints} class specified by {@link ConsistOf#value()}.
+ * <p>
+ * Validators for the same combination of {@link CodePoints} classes share one matcher obtained by
+ * {@link CodePointsMatcher#of(Class...)}. Call {@link #warmUp(Class...)} at startup to compile the matchers for the given bean
+ * classes in advance.
+ * </p>
  * @since 5.1.0
  */
 public class ConsistOfValidator implements
                                 ConstraintValidator<ConsistOf, CharSequence> {
     /**
-     * Array of CodePoints to check
+     * Matcher compiled from CodePoints to check
      */
-    private CodePoints[] codePointsArray;
+    private CodePointsMatcher matcher;
 
     /**
      * initialize to validate with {@link ConsistOf}
@@ -39,11 +55,7 @@ public class ConsistOfValidator implements
      */
     @Override
     public void initialize(ConsistOf consistOf) {
-        Class<? extends CodePoints>[] classes = consistOf.value();
-        this.codePointsArray = new CodePoints[classes.length];
-        for (int i = 0; i < classes.length; i++) {
-            this.codePointsArray[i] = CodePoints.of(classes[i]);
-        }
+        this.matcher = CodePointsMatcher.of(consistOf.value());
     }
 
     /**
@@ -57,10 +69,67 @@ public class ConsistOfValidator implements
     @Override
     public boolean isValid(CharSequence value,
             ConstraintValidatorContext context) {
-        if (value == null) {
-            return true;
+        return matcher.matches(value);
+    }
+
+    /**
+     * compile the matchers for {@link ConsistOf} annotations in the given bean classes in advance.
+     * <p>
+     * {@link ConsistOf} on fields, methods, and parameters of methods and constructors (also through composed constraint
+     * annotations) declared in the given classes and their superclasses are compiled. Annotations on type arguments are not
+     * covered and compiled on first use.
+     * </p>
+     * @param beanClasses bean classes to scan
+     * @since 5.6.0
+     */
+    public static void warmUp(Class<?>... beanClasses) {
+        Set<Class<? extends Annotation>> visited = new HashSet<Class<? extends Annotation>>();
+        for (Class<?> beanClass : beanClasses) {
+            for (Class<?> c = beanClass; c != null && c != Object.class; c = c
+                    .getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    warmUp(field, visited);
+                }
+                for (Method method : c.getDeclaredMethods()) {
+                    warmUp(method, visited);
+                    warmUpParameters(method, visited);
+                }
+                for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+                    warmUp(constructor, visited);
+                    warmUpParameters(constructor, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * compile the matchers for {@link ConsistOf} annotations on the parameters of the given method or constructor.
+     * @param executable method or constructor
+     * @param visited annotation types already scanned
+     */
+    private static void warmUpParameters(Executable executable,
+            Set<Class<? extends Annotation>> visited) {
+        for (Parameter parameter : executable.getParameters()) {
+            warmUp(parameter, visited);
+        }
+    }
+
+    /**
+     * compile the matchers for {@link ConsistOf} annotations on the given element and composed constraint annotations.
+     * @param element annotated element
+     * @param visited annotation types already scanned
+     */
+    private static void warmUp(AnnotatedElement element,
+            Set<Class<? extends Annotation>> visited) {
+        for (ConsistOf consistOf : element.getAnnotationsByType(
+                ConsistOf.class)) {
+            CodePointsMatcher.of(consistOf.value());
+        }
+        for (Annotation annotation : element.getAnnotations()) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (!type.getName().startsWith("java.") && visited.add(type)) {
+                warmUp(type, visited);
+            }
         }
-        String s = value.toString();
-        return CodePoints.containsAllInAnyCodePoints(s, codePointsArray);
     }
 }
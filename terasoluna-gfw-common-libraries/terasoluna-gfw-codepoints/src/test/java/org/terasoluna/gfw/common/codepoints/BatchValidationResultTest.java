@@ -0,0 +1,122 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BatchValidationResultTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final CodePoints codePoints = new CodePoints("abc");
+
+    @Test
+    public void testValidateAll_sequential() {
+        BatchValidationResult result = codePoints.validateAll(Arrays.asList(
+                "abc", "abd", null, "", "xa", "cba"));
+
+        assertThat(result.size(), is(6));
+        assertThat(result.isValid(), is(false));
+        assertThat(result.getFailureCount(), is(2));
+        assertThat(result.isFailure(0), is(false));
+        assertThat(result.isFailure(1), is(true));
+        assertThat(result.nextFailure(0), is(1));
+        assertThat(result.nextFailure(2), is(4));
+        assertThat(result.nextFailure(5), is(-1));
+        assertThat(result.getFirstExcludedCodePoint(1), is((int) 'd'));
+        assertThat(result.getFirstExcludedCodePoint(2), is(
+                CodePoints.NOT_FOUND));
+        assertThat(result.getFirstExcludedCodePoint(4), is((int) 'x'));
+    }
+
+    @Test
+    public void testValidateAll_parallel() {
+        List<CharSequence> values = new ArrayList<CharSequence>();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 20000; i++) {
+            if (i % 7 == 0) {
+                values.add(new StringBuilder("ab").append(i));
+                expected.set(i);
+            } else {
+                values.add("cab");
+            }
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        BatchValidationResult parallel;
+        try {
+            parallel = codePoints.validateAll(values, forkJoinPool);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        BatchValidationResult common = codePoints.validateAll(
+                new LinkedList<CharSequence>(values));
+
+        assertThat(parallel.getFailures(), is(expected));
+        assertThat(common.getFailures(), is(expected));
+        assertThat(parallel.getFirstExcludedCodePoint(7), is((int) '7'));
+        assertThat(parallel.getFirstExcludedCodePoint(19998), is(
+                CodePoints.NOT_FOUND));
+    }
+
+    @Test
+    public void testValidateAll_allValid() {
+        BatchValidationResult result = codePoints.validateAll(Arrays.asList("a",
+                "b"));
+
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getFailureCount(), is(0));
+        assertThat(result.getFailures().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testValidateAll_matcher() {
+        CodePointsMatcher matcher = new CodePointsMatcher(new CodePoints("a"), new CodePoints("b"));
+
+        BatchValidationResult result = matcher.validateAll(Arrays.asList("ab",
+                "ac"));
+
+        assertThat(result.getFailures(), is(BitSet.valueOf(new long[] { 2 })));
+        assertThat(new CodePointsMatcher().validateAll(Arrays.asList("x"))
+                .isValid(), is(true));
+    }
+
+    @Test
+    public void testValidateAll_nullForkJoinPool() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("forkJoinPool must not be null");
+        codePoints.validateAll(Arrays.asList("a"), null);
+    }
+
+    @Test
+    public void testGetFirstExcludedCodePoint_outOfRange() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        expectedException.expectMessage("index: 1, size: 1");
+        codePoints.validateAll(Arrays.asList("a")).getFirstExcludedCodePoint(1);
+    }
+}
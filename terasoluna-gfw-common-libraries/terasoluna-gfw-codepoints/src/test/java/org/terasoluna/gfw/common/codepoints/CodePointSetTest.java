@@ -0,0 +1,262 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.terasoluna.gfw.common.codepoints.catalog.ASCIIPrintableChars;
+
+public class CodePointSetTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testContains() {
+        CodePointSet set = new CodePointSet.Builder().add(0x0000).add(0x003F)
+                .add(0x0040).add(0xFFFF).add(0x2000B).add(0x10FFFF).build();
+
+        assertThat(set.contains(0x0000), is(true));
+        assertThat(set.contains(0x003F), is(true));
+        assertThat(set.contains(0x0040), is(true));
+        assertThat(set.contains(0xFFFF), is(true));
+        assertThat(set.contains(0x2000B), is(true));
+        assertThat(set.contains(0x10FFFF), is(true));
+        assertThat(set.contains(0x0041), is(false));
+        assertThat(set.contains(0xFFFE), is(false));
+        assertThat(set.contains(0x2000C), is(false));
+        assertThat(set.contains(-1), is(false));
+        assertThat(set.contains(Integer.MIN_VALUE), is(false));
+        assertThat(set.size(), is(6));
+    }
+
+    @Test
+    public void testContains_beyondBitmap() {
+        CodePointSet set = new CodePointSet.Builder().addAll("ab").build();
+
+        assertThat(set.contains('a'), is(true));
+        assertThat(set.contains('あ'), is(false));
+    }
+
+    @Test
+    public void testBuild_duplicates() {
+        CodePointSet set = new CodePointSet.Builder().add(0x2000B).add(0x20B9F)
+                .add(0x2000B).add('a').add('a').build();
+
+        assertThat(set.size(), is(3));
+        assertThat(set.toArray(), is(new int[] { 'a', 0x2000B, 0x20B9F }));
+    }
+
+    @Test
+    public void testBuild_invalidCodePoint() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("invalid code point: 1114112");
+        new CodePointSet.Builder().add(Character.MAX_CODE_POINT + 1);
+    }
+
+    @Test
+    public void testBuild_negativeCodePoint() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("invalid code point: -1");
+        new CodePointSet.Builder().add(-1);
+    }
+
+    @Test
+    public void testSetOperations() {
+        CodePointSet abc = new CodePointSet.Builder().addAll("abc").add(0x2000B)
+                .add(0x20B9F).build();
+        CodePointSet bcd = new CodePointSet.Builder().addAll("bcdあ").add(
+                0x20B9F).build();
+
+        assertThat(abc.union(bcd).toArray(), is(new int[] { 'a', 'b', 'c', 'd',
+                'あ', 0x2000B, 0x20B9F }));
+        assertThat(abc.intersect(bcd).toArray(), is(new int[] { 'b', 'c',
+                0x20B9F }));
+        assertThat(abc.subtract(bcd).toArray(), is(new int[] { 'a', 0x2000B }));
+        assertThat(bcd.subtract(abc).toArray(), is(new int[] { 'd', 'あ' }));
+    }
+
+    @Test
+    public void testEqualsAndHashCode_trimmedBitmap() {
+        CodePointSet a = new CodePointSet.Builder().addAll("a").build();
+        CodePointSet aWithKana = new CodePointSet.Builder().addAll("aあ")
+                .build();
+        CodePointSet subtracted = aWithKana.subtract(new CodePointSet.Builder()
+                .addAll("あ").build());
+
+        assertThat(subtracted.equals(a), is(true));
+        assertThat(subtracted.hashCode(), is(a.hashCode()));
+        assertThat(a.equals(aWithKana), is(false));
+        assertThat(CodePointSet.EMPTY.equals(a.subtract(a)), is(true));
+    }
+
+    @Test
+    public void testAddRange() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x003E, 0x0081)
+                .addRange(0xFFF0, 0x10010).addRange(0x20000, 0x2A6DF).build();
+
+        assertThat(set.contains(0x003D), is(false));
+        assertThat(set.contains(0x003E), is(true));
+        assertThat(set.contains(0x0040), is(true));
+        assertThat(set.contains(0x0081), is(true));
+        assertThat(set.contains(0x0082), is(false));
+        assertThat(set.contains(0xFFFF), is(true));
+        assertThat(set.contains(0x10000), is(true));
+        assertThat(set.contains(0x10010), is(true));
+        assertThat(set.contains(0x10011), is(false));
+        assertThat(set.contains(0x1FFFF), is(false));
+        assertThat(set.contains(0x20000), is(true));
+        assertThat(set.contains(0x2A6DF), is(true));
+        assertThat(set.contains(0x2A6E0), is(false));
+        assertThat(set.size(), is(0x44 + 0x21 + 0xA6E0));
+        assertThat(set.toRanges(), is(new int[] { 0x003E, 0x0081, 0xFFF0,
+                0x10010, 0x20000, 0x2A6DF }));
+    }
+
+    @Test
+    public void testAddRange_invalidRange() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("invalid range: 98-97");
+        new CodePointSet.Builder().addRange('b', 'a');
+    }
+
+    @Test
+    public void testBuild_coalesceRanges() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x20010, 0x20020)
+                .add(0x20021).addRange(0x20000, 0x20012).add(0x20030).build();
+
+        assertThat(set.toRanges(), is(new int[] { 0x20000, 0x20021, 0x20030,
+                0x20030 }));
+        assertThat(set, is(new CodePointSet.Builder().addRange(0x20000, 0x20021)
+                .add(0x20030).build()));
+    }
+
+    @Test
+    public void testToRanges_wordBoundaries() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x0000, 0x003F)
+                .addRange(0x0040, 0x0041).add(0x007F).add(0x00BF).addRange(
+                        0x00C0, 0x00FF).build();
+
+        assertThat(set.toRanges(), is(new int[] { 0x0000, 0x0041, 0x007F,
+                0x007F, 0x00BF, 0x00FF }));
+    }
+
+    @Test
+    public void testSetOperations_supplementaryRanges() {
+        CodePointSet a = new CodePointSet.Builder().addRange(0x20000, 0x20010)
+                .addRange(0x20020, 0x20030).addRange(0x20040, 0x20050).build();
+        CodePointSet b = new CodePointSet.Builder().addRange(0x20005, 0x20025)
+                .addRange(0x20028, 0x20029).addRange(0x20050, 0x20060).build();
+
+        assertThat(a.union(b).toRanges(), is(new int[] { 0x20000, 0x20030,
+                0x20040, 0x20060 }));
+        assertThat(a.intersect(b).toRanges(), is(new int[] { 0x20005, 0x20010,
+                0x20020, 0x20025, 0x20028, 0x20029, 0x20050, 0x20050 }));
+        assertThat(a.subtract(b).toRanges(), is(new int[] { 0x20000, 0x20004,
+                0x20026, 0x20027, 0x2002A, 0x20030, 0x20040, 0x2004F }));
+        assertThat(b.subtract(a).toRanges(), is(new int[] { 0x20011, 0x2001F,
+                0x20051, 0x20060 }));
+    }
+
+    @Test
+    public void testFirstExcluded_allAscii() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x0000, 0x007F)
+                .add('あ').add(0x20B9F).build();
+
+        assertThat(set.firstExcluded(""), is(CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("user01@example.com"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("abcdefghあ\uD842\uDF9Fijklmnop"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("abcdefghijklmnopé"), is((int) 'é'));
+        assertThat(set.firstExcluded("abcdefgいhijklmnop"), is((int) 'い'));
+        assertThat(set.firstExcluded("abcdefghijklmnop\u007F\u0080"), is(
+                0x0080));
+        assertThat(set.firstExcluded("abcdefgh\uD842"), is(0xD842));
+        assertThat(set.firstExcluded("abcdefgh\uD842\uDFB7"), is(0x20BB7));
+    }
+
+    @Test
+    public void testFirstExcluded_latin1() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x0000, 0x00FF)
+                .build();
+
+        assertThat(set.firstExcluded("abcdefghijklmnopéàü"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("abcdefghijklmnopéàüĀ"), is(0x0100));
+    }
+
+    @Test
+    public void testFirstExcluded_asciiPrintable() {
+        CodePoints codePoints = new ASCIIPrintableChars();
+        CodePointSet set = codePoints.codePointSet();
+
+        assertThat(set.firstExcluded("user01@example.com"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("~!\"#$%&'()*+,-./ 0123456789"), is(
+                CodePoints.NOT_FOUND));
+        // excluded characters at each position of an ASCII block
+        for (int i = 0; i < 16; i++) {
+            StringBuilder sb = new StringBuilder("abcdefghijklmnop");
+            sb.setCharAt(i, '\t');
+            assertThat(set.firstExcluded(sb), is((int) '\t'));
+            sb.setCharAt(i, '\u007F');
+            assertThat(set.firstExcluded(sb), is(0x007F));
+            sb.setCharAt(i, 'あ');
+            assertThat(set.firstExcluded(sb), is((int) 'あ'));
+        }
+        assertThat(set.firstExcluded("abcdefghijklmno\r\n"), is((int) '\r'));
+        assertThat(set.firstExcluded("abcdefg\uD842\uDF9Fhijklmnop"), is(
+                0x20B9F));
+    }
+
+    @Test
+    public void testFirstExcluded_asciiAfterNonAscii() {
+        CodePointSet set = new CodePointSet.Builder().addRange(0x0020, 0x007E)
+                .addAll("あいう").add(0x20B9F).build();
+
+        assertThat(set.firstExcluded("あいう\uD842\uDF9Fabcdefghijklmnop"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("あいう\uD842\uDF9Fabcdefghijklm\u0000op"),
+                is(0x0000));
+    }
+
+    @Test
+    public void testFirstExcluded_partialAscii() {
+        CodePointSet set = new CodePointSet.Builder().addAll("abcdefgh")
+                .build();
+
+        assertThat(set.firstExcluded("abcdefghabcdefgh"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(set.firstExcluded("abcdefghabcdefghi"), is((int) 'i'));
+        assertThat(set.firstExcluded("\u0000"), is(0x0000));
+        assertThat(set.firstExcluded("\uDFB7a"), is(0xDFB7));
+    }
+
+    @Test
+    public void testFirstExcluded_shortBitmap() {
+        CodePointSet digits = new CodePointSet.Builder().addRange('0', '9')
+                .build();
+
+        assertThat(digits.firstExcluded("0123456789"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(digits.firstExcluded("01234567a9"), is((int) 'a'));
+        assertThat(CodePointSet.EMPTY.firstExcluded("abcdefgh"), is((int) 'a'));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class CodePointsFileValidatorTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final CodePoints alphabets = new CodePoints("abcdefghijklmnopqrstuvwxyz");
+
+    private final CodePoints lineBreaks = new CodePoints("\r\n");
+
+    private final CodePoints hiragana = new CodePoints("あいうえお");
+
+    @Test
+    public void testValidate_valid() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks, hiragana);
+
+        List<ExcludedCodePoint> result = validator.validate(write(
+                "abc\r\nあいう\nxyz\n", StandardCharsets.UTF_8));
+
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testValidate_emptyFile() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets);
+
+        assertThat(validator.validate(write("", StandardCharsets.UTF_8))
+                .isEmpty(), is(true));
+    }
+
+    @Test
+    public void testValidate_singleChunk() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks);
+
+        List<ExcludedCodePoint> result = validator.validate(write(
+                "abc\r\nab1\nあb", StandardCharsets.UTF_8));
+
+        assertThat(result, is(Arrays.asList(new ExcludedCodePoint('1', 7, 2, 3),
+                new ExcludedCodePoint('あ', 9, 3, 1))));
+    }
+
+    @Test
+    public void testValidate_chunks() throws Exception {
+        String line = "abcdefghij\n";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append(line);
+        }
+        // a surrogate pair at the beginning of a line and one at the end of a line
+        sb.replace(11 * 30, 11 * 30 + 1, "𠮟");
+        sb.replace(11 * 60 + 10 + 1, 11 * 60 + 10 + 1, "𠮟");
+        sb.append("abc\r\nab");
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks);
+        validator.setChunkSize(16);
+
+        List<ExcludedCodePoint> result = validator.validate(write(sb.toString(),
+                StandardCharsets.UTF_8));
+
+        assertThat(result, is(Arrays.asList(
+                new ExcludedCodePoint(0x20B9F, 330, 31, 1),
+                new ExcludedCodePoint(0x20B9F, 11 * 60 + 10 + 1, 61, 11))));
+    }
+
+    @Test
+    public void testValidate_chunksEqualToSequential() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("abc").append(i).append(i % 3 == 0 ? "\r\n" : "\n")
+                    .append("あいう𠮟え");
+        }
+        Path file = write(sb.toString(), StandardCharsets.UTF_8);
+        CodePointsFileValidator sequential = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks, hiragana);
+        sequential.setMaxViolations(Integer.MAX_VALUE);
+        CodePointsFileValidator parallel = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks, hiragana);
+        parallel.setMaxViolations(Integer.MAX_VALUE);
+        parallel.setChunkSize(37);
+        parallel.setForkJoinPool(new ForkJoinPool(4));
+
+        List<ExcludedCodePoint> expected = sequential.validate(file);
+        List<ExcludedCodePoint> actual = parallel.validate(file);
+
+        assertThat(expected.size() > 1000, is(true));
+        assertThat(actual, is(expected));
+        assertThat(expected.get(expected.size() - 1), is(
+                new ExcludedCodePoint(0x20B9F, sb.length() - 3, 501, 4)));
+    }
+
+    @Test
+    public void testValidate_shiftJis() throws Exception {
+        Charset windows31j = Charset.forName("Windows-31J");
+        CodePointsFileValidator validator = new CodePointsFileValidator(windows31j, alphabets, lineBreaks, hiragana);
+        validator.setChunkSize(2);
+
+        List<ExcludedCodePoint> result = validator.validate(write(
+                "あい\r\naｱb\nうえ\n①", windows31j));
+
+        assertThat(result, is(Arrays.asList(new ExcludedCodePoint('ｱ', 5, 2, 2),
+                new ExcludedCodePoint('①', 11, 4, 1))));
+    }
+
+    @Test
+    public void testValidate_notSplittableCharset() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_16, alphabets, lineBreaks);
+        validator.setChunkSize(1);
+
+        List<ExcludedCodePoint> result = validator.validate(write("ab\nc\nd1",
+                StandardCharsets.UTF_16));
+
+        assertThat(result, is(Collections.singletonList(
+                new ExcludedCodePoint('1', 6, 3, 2))));
+    }
+
+    @Test
+    public void testValidate_malformed() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets);
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), new byte[] { 'a', (byte) 0xFF, 'b' });
+
+        List<ExcludedCodePoint> result = validator.validate(file.toPath());
+
+        assertThat(result, is(Collections.singletonList(
+                new ExcludedCodePoint(0xFFFD, 1, 1, 2))));
+    }
+
+    @Test
+    public void testValidate_maxViolations() throws Exception {
+        CodePointsFileValidator validator = new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets, lineBreaks);
+        validator.setChunkSize(1);
+        validator.setMaxViolations(3);
+
+        List<ExcludedCodePoint> result = validator.validate(write(
+                "1\n2\n34\n5\n", StandardCharsets.UTF_8));
+
+        assertThat(result, is(Arrays.asList(new ExcludedCodePoint('1', 0, 1, 1),
+                new ExcludedCodePoint('2', 2, 2, 1),
+                new ExcludedCodePoint('3', 4, 3, 1))));
+    }
+
+    @Test
+    public void testConstructor_empty() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("codePointsList must not be empty");
+        new CodePointsFileValidator(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSetChunkSize_notPositive() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("chunkSize must be positive");
+        new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets)
+                .setChunkSize(0);
+    }
+
+    @Test
+    public void testValidate_notFound() throws Exception {
+        expectedException.expect(IOException.class);
+        new CodePointsFileValidator(StandardCharsets.UTF_8, alphabets).validate(
+                new File(temporaryFolder.getRoot(), "notFound").toPath());
+    }
+
+    private Path write(String content, Charset charset) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), content.getBytes(charset));
+        return file.toPath();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.terasoluna.gfw.common.codepoints.catalog.ABCD;
+import org.terasoluna.gfw.common.codepoints.catalog.ASCIIControlChars;
+import org.terasoluna.gfw.common.codepoints.catalog.ASCIIPrintableChars;
+
+public class CodePointsMatcherTest {
+
+    /**
+     * U+2000B(「丈」の右上に点を打った字)
+     */
+    private static final String SURROGATE_PAIR_CHAR_2000B = new String(new int[] {
+            0x2000B }, 0, 1);
+
+    @Test
+    public void testMatches() {
+        CodePointsMatcher matcher = new CodePointsMatcher(new CodePoints("あいう"), new CodePoints("アイウ"), new CodePoints(0x2000B));
+
+        assertThat(matcher.matches("あア"), is(true));
+        assertThat(matcher.matches("ウいア" + SURROGATE_PAIR_CHAR_2000B), is(
+                true));
+        assertThat(matcher.matches(new StringBuilder("いイ")), is(true));
+        assertThat(matcher.matches("あアa"), is(false));
+        assertThat(matcher.matches("あえ"), is(false));
+    }
+
+    @Test
+    public void testMatches_nullOrEmpty() {
+        CodePointsMatcher matcher = new CodePointsMatcher(new CodePoints("あ"));
+
+        assertThat(matcher.matches(null), is(true));
+        assertThat(matcher.matches(""), is(true));
+    }
+
+    @Test
+    public void testMatches_noCodePoints() {
+        CodePointsMatcher matcher = new CodePointsMatcher();
+
+        assertThat(matcher.matches("abc"), is(true));
+        assertThat(CodePoints.containsAllInAnyCodePoints("abc"), is(true));
+    }
+
+    @Test
+    public void testFirstUnmatchedCodePoint() {
+        CodePointsMatcher matcher = new CodePointsMatcher(new CodePoints("あいう"), new CodePoints("アイウ"));
+
+        assertThat(matcher.firstUnmatchedCodePoint("あアい"), is(
+                CodePoints.NOT_FOUND));
+        assertThat(matcher.firstUnmatchedCodePoint("あ"
+                + SURROGATE_PAIR_CHAR_2000B + "え"), is(0x2000B));
+        assertThat(matcher.firstUnmatchedCodePoint("あイえお"), is("え".codePointAt(
+                0)));
+    }
+
+    @Test
+    public void testMatches_sameAsContainsAllInAnyCodePoints() {
+        CodePoints[] codePointsList = { new CodePoints("abc"),
+                new CodePoints("cde"), new CodePoints("xyz") };
+        CodePointsMatcher matcher = new CodePointsMatcher(codePointsList);
+        String[] inputs = { "abcde", "xyza", "abcdef", "w", "zzz", "" };
+
+        for (String input : inputs) {
+            assertThat(input, matcher.matches(input), is(CodePoints
+                    .containsAllInAnyCodePoints(input, codePointsList)));
+        }
+    }
+
+    @Test
+    public void testOf() {
+        CodePointsMatcher matcher = CodePointsMatcher.of(ABCD.class,
+                ASCIIControlChars.class);
+
+        assertThat(matcher.matches("ABCD\r\n"), is(true));
+        assertThat(matcher.matches("ABCDE"), is(false));
+        assertThat(CodePointsMatcher.of(ASCIIControlChars.class, ABCD.class,
+                ABCD.class), is(sameInstance(matcher)));
+        assertThat(CodePointsMatcher.of(ABCD.class, ASCIIPrintableChars.class),
+                is(not(sameInstance(matcher))));
+    }
+}
@@ -16,10 +16,21 @@
 package org.terasoluna.gfw.common.codepoints;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -49,6 +60,26 @@ public class CodePointsTest {
     /**
      * Asserts that {1, 2, 3, 4} ∩ {2, 3, 4, 5} ∩ {3, 4, 5,6} ＝ {3, 4}
      */
+    @Test
+    public void testConstructor_invalidCodePoints() {
+        // accepted as in 5.5 and ignored because no string contains them
+        CodePoints codePoints = new CodePoints(0x61, null, -1, Character.MAX_CODE_POINT
+                + 1);
+
+        assertThat(codePoints.containsAll("a"), is(true));
+        assertThat(codePoints.containsAll("b"), is(false));
+        assertThat(codePoints, is(new CodePoints("a")));
+    }
+
+    @Test
+    public void testConstructor_invalidCodePointsInCollection() {
+        CodePoints codePoints = new CodePoints(Arrays.asList(0x61, null,
+                Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        assertThat(codePoints.containsAll("a"), is(true));
+        assertThat(codePoints, is(new CodePoints("a")));
+    }
+
     @Test
     public void testIntersection() {
         List<Set<Integer>> materialSets = new ArrayList<Set<Integer>>();
@@ -571,6 +602,301 @@ public class CodePointsTest {
         assertThat(result.size(), is(0));
     }
 
+    @Test
+    public void testFindExcludedCodePoints() {
+        CodePoints codePoints = new CodePoints("a", "b");
+
+        assertThat(codePoints.findExcludedCodePoints("abcad", 10), is(
+                new int[] { 'c', 2, 'd', 4 }));
+        assertThat(codePoints.findExcludedCodePoints("abcad", 1), is(new int[] {
+                'c', 2 }));
+        assertThat(codePoints.findExcludedCodePoints("cc", 10), is(new int[] {
+                'c', 0, 'c', 1 }));
+        assertThat(codePoints.findExcludedCodePoints("a"
+                + SURROGATE_PAIR_CHAR_2000B + "bあ", 10), is(new int[] { 0x2000B,
+                        1, 'あ', 4 }));
+        assertThat(codePoints.findExcludedCodePoints("ab", 10), is(new int[0]));
+        assertThat(codePoints.findExcludedCodePoints(null, 10), is(new int[0]));
+        assertThat(codePoints.findExcludedCodePoints("c", 0), is(new int[0]));
+    }
+
+    @Test
+    public void testFindExcludedCodePoints_many() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("axb");
+        }
+        CodePoints codePoints = new CodePoints("a", "b");
+
+        int[] result = codePoints.findExcludedCodePoints(sb, 50);
+
+        assertThat(result.length, is(100));
+        assertThat(result[98], is((int) 'x'));
+        assertThat(result[99], is(148));
+        assertThat(codePoints.findExcludedCodePoints(sb,
+                Integer.MAX_VALUE).length, is(200));
+    }
+
+    @Test
+    public void testFindExcludedCodePoints_negativeMaxCount() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("maxCount must not be negative");
+        new CodePoints("a").findExcludedCodePoints("a", -1);
+    }
+
+    @Test
+    public void testVisitExcludedCodePoints() {
+        CodePoints codePoints = new CodePoints("a", "b");
+        final List<Integer> visited = new ArrayList<Integer>();
+
+        int count = codePoints.visitExcludedCodePoints("abc"
+                + SURROGATE_PAIR_CHAR_2000B + "dab",
+                new ExcludedCodePointVisitor() {
+                    @Override
+                    public boolean visit(int codePoint, int index) {
+                        visited.add(codePoint);
+                        visited.add(index);
+                        return true;
+                    }
+                });
+
+        assertThat(count, is(3));
+        assertThat(visited, is(Arrays.asList((int) 'c', 2, 0x2000B, 3,
+                (int) 'd', 5)));
+    }
+
+    @Test
+    public void testVisitExcludedCodePoints_stop() {
+        CodePoints codePoints = new CodePoints("a", "b");
+        final List<Integer> visited = new ArrayList<Integer>();
+
+        int count = codePoints.visitExcludedCodePoints("xyz",
+                new ExcludedCodePointVisitor() {
+                    @Override
+                    public boolean visit(int codePoint, int index) {
+                        visited.add(index);
+                        return visited.size() < 2;
+                    }
+                });
+
+        assertThat(count, is(2));
+        assertThat(visited, is(Arrays.asList(0, 1)));
+        assertThat(codePoints.visitExcludedCodePoints(null, null), is(0));
+    }
+
+    @Test
+    public void testOf_concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CodePoints>> futures = new ArrayList<Future<CodePoints>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<CodePoints>() {
+                    @Override
+                    public CodePoints call() {
+                        return CodePoints.of(ConcurrentCodePoints.class);
+                    }
+                }));
+            }
+            CodePoints first = futures.get(0).get();
+            for (Future<CodePoints> future : futures) {
+                assertThat(future.get(), is(sameInstance(first)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class ConcurrentCodePoints extends CodePoints {
+        private static final long serialVersionUID = 1L;
+
+        public ConcurrentCodePoints() {
+            super(CodePoints.of(ABCD.class).union(new CodePoints("xyz")));
+        }
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        CodePoints codePoints = CodePoints.of(ABCD.class).union(
+                new CodePoints(0x2000B));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(codePoints);
+        out.close();
+
+        CodePoints deserialized = (CodePoints) new ObjectInputStream(new ByteArrayInputStream(bytes
+                .toByteArray())).readObject();
+
+        assertThat(deserialized, is(codePoints));
+        assertThat(deserialized.containsAll("ABCD" + SURROGATE_PAIR_CHAR_2000B),
+                is(true));
+        assertThat(deserialized.union(new CodePoints("E")), is(
+                new CodePoints("ABCDE" + SURROGATE_PAIR_CHAR_2000B)));
+    }
+
+    @Test
+    public void testSetOperations_memoized() {
+        CodePoints abcd = CodePoints.of(ABCD.class);
+        CodePoints ab = new CodePoints("AB");
+        CodePoints xyz = new CodePoints("xyz");
+
+        CodePoints union = abcd.union(xyz);
+        CodePoints subtract = abcd.subtract(ab);
+        CodePoints intersect = abcd.intersect(ab);
+
+        assertThat(abcd.union(xyz), is(sameInstance(union)));
+        assertThat(abcd.subtract(ab), is(sameInstance(subtract)));
+        assertThat(abcd.intersect(ab), is(sameInstance(intersect)));
+        assertThat(union, is(new CodePoints("ABCDxyz")));
+        assertThat(subtract, is(new CodePoints("CD")));
+        assertThat(intersect, is(new CodePoints("AB")));
+        // operands are compared by identity
+        CodePoints zyx = new CodePoints("zyx");
+        assertThat(abcd.union(zyx), is(not(sameInstance(union))));
+        assertThat(abcd.union(zyx), is(union));
+        assertThat(ab.union(abcd), is(not(sameInstance(union))));
+    }
+
+    @Test
+    public void testSetOperations_memoizedConcurrently() throws Exception {
+        final CodePoints abcd = CodePoints.of(ABCD.class);
+        final CodePoints[] operands = new CodePoints[16];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = new CodePoints(0x100 + i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CodePoints[]>> futures = new ArrayList<Future<CodePoints[]>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    CodePoints[] results = new CodePoints[operands.length];
+                    for (int i = 0; i < operands.length; i++) {
+                        results[i] = abcd.union(operands[i]);
+                    }
+                    return results;
+                }));
+            }
+            CodePoints[] first = futures.get(0).get();
+            for (Future<CodePoints[]> future : futures) {
+                CodePoints[] results = future.get();
+                for (int i = 0; i < operands.length; i++) {
+                    assertThat(results[i], is(sameInstance(first[i])));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBitmap() {
+        CodePoints codePoints = CodePoints.bitmap(new long[] { 0L,
+                0x07FFFFFE07FFFFFEL }, 0x20000, 0x2000F);
+
+        assertThat(codePoints.containsAll("AZaz"), is(true));
+        assertThat(codePoints.containsAll("@"), is(false));
+        assertThat(codePoints.containsAll(SURROGATE_PAIR_CHAR_2000B), is(true));
+        assertThat(codePoints.codePointSet(), is(CodePoints.ranges(0x0041,
+                0x005A, 0x0061, 0x007A, 0x20000, 0x2000F).codePointSet()));
+    }
+
+    @Test
+    public void testBitmap_copiesArrays() {
+        long[] bmp = { 0L, 0x07FFFFFE07FFFFFEL };
+        int[] ranges = { 0x20000, 0x2000F };
+        CodePoints codePoints = CodePoints.bitmap(bmp, ranges);
+
+        bmp[1] = 0L;
+        ranges[0] = 0x10000;
+
+        assertThat(codePoints.containsAll("AZaz"), is(true));
+        assertThat(codePoints.contains(0x10000), is(false));
+        assertThat(codePoints.contains(0x20000), is(true));
+    }
+
+    @Test
+    public void testBitmap_tooLong() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("bitmap must not exceed 1024 words");
+        CodePoints.bitmap(new long[1025]);
+    }
+
+    @Test
+    public void testBitmap_oddRanges() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "ranges must be given as pairs of start and end");
+        CodePoints.bitmap(new long[0], 0x20000);
+    }
+
+    @Test
+    public void testBitmap_notSupplementary() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("invalid supplementary range: " + 0xFFFF
+                + "-" + 0x10000);
+        CodePoints.bitmap(new long[0], 0xFFFF, 0x10000);
+    }
+
+    @Test
+    public void testBitmap_adjoiningRanges() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("invalid supplementary range: "
+                + 0x20010 + "-" + 0x2001F);
+        CodePoints.bitmap(new long[0], 0x20000, 0x2000F, 0x20010, 0x2001F);
+    }
+
+    @Test
+    public void testSanitize() {
+        CodePoints codePoints = new CodePoints("a", "b");
+
+        assertThat(codePoints.sanitize("abcad", "?"), is("ab?a?"));
+        assertThat(codePoints.sanitize("c" + SURROGATE_PAIR_CHAR_2000B + "a",
+                "?"), is("??a"));
+        assertThat(codePoints.sanitize("xyz", "[]"), is("[][][]"));
+        assertThat(codePoints.sanitize((String) null, "?"), is(nullValue()));
+    }
+
+    @Test
+    public void testSanitize_returnsSameInstanceIfClean() {
+        CodePoints codePoints = new CodePoints("a", "b");
+        String s = "abab";
+        StringBuilder sb = new StringBuilder("ba");
+
+        assertThat(codePoints.sanitize(s, "?"), is(sameInstance(s)));
+        assertThat(codePoints.strip(s), is(sameInstance(s)));
+        assertThat(codePoints.strip(sb), is(sameInstance((CharSequence) sb)));
+        assertThat(codePoints.strip(new StringBuilder("bca")), is(
+                (CharSequence) "ba"));
+    }
+
+    @Test
+    public void testSanitize_nullReplacement() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("replacement must not be null");
+        new CodePoints("a").sanitize("a", null);
+    }
+
+    @Test
+    public void testStrip() {
+        CodePoints codePoints = new CodePoints("a", "b");
+
+        assertThat(codePoints.strip("abcad"), is("aba"));
+        assertThat(codePoints.strip(SURROGATE_PAIR_CHAR_2000B + "a\uD842"), is(
+                "a"));
+        assertThat(codePoints.strip("cd"), is(""));
+    }
+
+    @Test
+    public void testSanitize_appendable() throws Exception {
+        CodePoints codePoints = new CodePoints("a", "b");
+        StringBuilder out = new StringBuilder("> ");
+
+        codePoints.sanitize("abcad", "?", out);
+        codePoints.strip("xaybz", out);
+        codePoints.strip(null, out);
+
+        assertThat(out.toString(), is("> ab?a?ab"));
+    }
+
     @Test
     public void testGetAllNotAllowedCodePoint_empty() {
         String testStr = "";
@@ -646,6 +972,129 @@ public class CodePointsTest {
         assertThat(it.next().intValue(), is(0x20B9F));
     }
 
+    @Test
+    public void testRanges() {
+        CodePoints codePoints = CodePoints.ranges(0x0030, 0x0039, 0x0041,
+                0x005A, 0x2000B, 0x2000B);
+
+        assertThat(codePoints.containsAll("0123456789"), is(true));
+        assertThat(codePoints.containsAll("ABCXYZ"), is(true));
+        assertThat(codePoints.containsAll(SURROGATE_PAIR_CHAR_2000B), is(true));
+        assertThat(codePoints.containsAll("a"), is(false));
+        assertThat(codePoints.containsAll(SURROGATE_PARE_CHAR_20B9F), is(
+                false));
+        assertThat(codePoints, is(
+                new CodePoints("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+                        + SURROGATE_PAIR_CHAR_2000B)));
+    }
+
+    @Test
+    public void testRanges_oddLength() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "ranges must be given as pairs of start and end");
+        CodePoints.ranges(0x0030, 0x0039, 0x0041);
+    }
+
+    @Test
+    public void testContains() {
+        CodePoints codePoints = new CodePoints("あいう" + SURROGATE_PAIR_CHAR_2000B);
+
+        assertThat(codePoints.contains('あ'), is(true));
+        assertThat(codePoints.contains(0x2000B), is(true));
+        assertThat(codePoints.contains('え'), is(false));
+        assertThat(codePoints.contains(0x2000C), is(false));
+    }
+
+    @Test
+    public void testContainsAll_charSequence() {
+        CodePoints codePoints = new CodePoints("あいう");
+
+        assertThat(codePoints.containsAll(new StringBuilder("あいう")), is(true));
+        assertThat(codePoints.containsAll(new StringBuilder("あいうえ")), is(
+                false));
+        assertThat(codePoints.firstExcludedCodePoint(new StringBuilder("あ"
+                + SURROGATE_PAIR_CHAR_2000B)), is(0x2000B));
+    }
+
+    @Test
+    public void testFindFirstExcludedCodePoint_charSequence() {
+        CodePoints codePoints = new CodePoints("abc\r\n");
+
+        assertThat(codePoints.findFirstExcludedCodePoint("abc\r\nab"), is(
+                nullValue()));
+        assertThat(codePoints.findFirstExcludedCodePoint((CharSequence) null),
+                is(nullValue()));
+        assertThat(codePoints.findFirstExcludedCodePoint("abc\r\nabd"), is(
+                new ExcludedCodePoint('d', 7, 2, 3)));
+        assertThat(codePoints.findFirstExcludedCodePoint("ab\nc\rb\r\n\nX"), is(
+                new ExcludedCodePoint('X', 9, 5, 1)));
+        assertThat(codePoints.findFirstExcludedCodePoint("a"
+                + SURROGATE_PAIR_CHAR_2000B + "bd"), is(
+                        new ExcludedCodePoint(0x2000B, 1, 1, 2)));
+        assertThat(codePoints.findFirstExcludedCodePoint(
+                SURROGATE_PAIR_CHAR_2000B.substring(0, 1)), is(
+                        new ExcludedCodePoint(0xD840, 0, 1, 1)));
+        assertThat(codePoints.findFirstExcludedCodePoint("a"
+                + SURROGATE_PAIR_CHAR_2000B.substring(0, 1) + "b"), is(
+                        new ExcludedCodePoint(0xD840, 1, 1, 2)));
+    }
+
+    @Test
+    public void testFindFirstExcludedCodePoint_surrogatePair() {
+        CodePoints codePoints = new CodePoints("ab"
+                + SURROGATE_PAIR_CHAR_2000B);
+
+        assertThat(codePoints.findFirstExcludedCodePoint(
+                SURROGATE_PAIR_CHAR_2000B + "a" + SURROGATE_PARE_CHAR_20B9F),
+                is(new ExcludedCodePoint(0x20B9F, 3, 1, 3)));
+    }
+
+    @Test
+    public void testFindFirstExcludedCodePoint_charArray() {
+        CodePoints codePoints = new CodePoints("abc");
+        char[] chars = "xxabcdxx".toCharArray();
+
+        assertThat(codePoints.findFirstExcludedCodePoint(chars, 2, 3), is(
+                nullValue()));
+        assertThat(codePoints.findFirstExcludedCodePoint(chars, 2, 4), is(
+                new ExcludedCodePoint('d', 3, 1, 4)));
+    }
+
+    @Test
+    public void testFindFirstExcludedCodePoint_charArray_outOfBounds() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        new CodePoints("abc").findFirstExcludedCodePoint(new char[3], 1, 3);
+    }
+
+    @Test
+    public void testFindFirstExcludedCodePoint_reader() throws Exception {
+        CodePoints codePoints = new CodePoints("a\n"
+                + SURROGATE_PAIR_CHAR_2000B);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            // surrogate pairs across the boundaries of the read buffer
+            sb.append(SURROGATE_PAIR_CHAR_2000B).append('a').append('\n');
+        }
+        String valid = sb.toString();
+
+        assertThat(codePoints.findFirstExcludedCodePoint(
+                new StringReader(valid)), is(nullValue()));
+        assertThat(codePoints.findFirstExcludedCodePoint(new StringReader(valid
+                + "aab")), is(new ExcludedCodePoint('b', 40002, 10001, 3)));
+        assertThat(codePoints.findFirstExcludedCodePoint(new StringReader(valid
+                + SURROGATE_PAIR_CHAR_2000B.substring(0, 1))), is(
+                        new ExcludedCodePoint(0xD840, 40000, 10001, 1)));
+    }
+
+    @Test
+    public void testExcludedCodePoint_toString() {
+        assertThat(new ExcludedCodePoint(0x3042, 1, 2, 3).toString(), is(
+                "U+3042 at line 2, column 3 (offset 1)"));
+        assertThat(new ExcludedCodePoint(0x2000B, 1, 2, 3).toString(), is(
+                "U+2000B at line 2, column 3 (offset 1)"));
+    }
+
     @Test
     public void testOf_caches_are_same_instance() {
         ABCD cp1 = CodePoints.of(ABCD.class);
@@ -402,4 +402,21 @@ public class ConsistOfValidatorTest {
 
     }
 
+    @Test
+    public void testWarmUp() throws Exception {
+        ConsistOfValidator.warmUp(Name_WarmUp.class);
+
+        assertThat(WarmUpCodePoints.instances.get(), is(1));
+
+        Validator validator = Validation.buildDefaultValidatorFactory()
+                .getValidator();
+        Set<ConstraintViolation<Name_WarmUp>> violations = validator.validate(
+                new Name_WarmUp("XAZG"));
+
+        assertThat(violations.size(), is(1));
+        assertThat(violations.iterator().next().getPropertyPath().toString(),
+                is("nickName"));
+        assertThat(WarmUpCodePoints.instances.get(), is(1));
+    }
+
 }
@@ -0,0 +1,401 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints.generator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Generates Java sources of {@code CodePoints} classes which hold their members as {@code static final} bitmaps.
+ * <p>
+ * A generated class passes constant arrays to {@code CodePoints.bitmap(long[], int...)}, so that no code point is boxed or
+ * added one by one at runtime. Code points are defined in a text file:
+ * </p>
+ *
+ * <pre>
+ * <code># Characters allowed in the customer name.
+ * # &#64;since 1.0.0
+ *
+ * 0020            # SPACE
+ * 0041..005A      # A-Z
+ * U+3041..U+3096  # Hiragana
+ * 20B9F
+ * </code>
+ * </pre>
+ * <p>
+ * Each line is a hexadecimal code point or a closed range {@code start..end}, optionally prefixed with {@code U+}. Text after
+ * {@code #} is a comment and blank lines are ignored. The comment lines at the top of the file are written as the Javadoc of
+ * the generated class.
+ * </p>
+ * <p>
+ * Definition files are placed in the same layout as Java sources: {@code com/example/CustomerName.txt} generates
+ * {@code com.example.CustomerName}. This class is a build tool and is not needed at runtime. The catalog modules run it in the
+ * {@code generate-sources} phase with {@code exec-maven-plugin}, and third parties can do the same for their own catalogs.
+ * Plugin dependencies are not managed by {@code dependencyManagement}, so the version is given explicitly, e.g. with
+ * {@code terasoluna.gfw.version} of {@code terasoluna-gfw-parent}:
+ * </p>
+ *
+ * <pre>
+ * <code>&lt;plugin&gt;
+ *   &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *   &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *   &lt;executions&gt;
+ *     &lt;execution&gt;
+ *       &lt;phase&gt;generate-sources&lt;/phase&gt;
+ *       &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *       &lt;configuration&gt;
+ *         &lt;mainClass&gt;org.terasoluna.gfw.common.codepoints.generator.CodePointsSourceGenerator&lt;/mainClass&gt;
+ *         &lt;includeProjectDependencies&gt;false&lt;/includeProjectDependencies&gt;
+ *         &lt;includePluginDependencies&gt;true&lt;/includePluginDependencies&gt;
+ *         &lt;arguments&gt;
+ *           &lt;argument&gt;${project.basedir}/src/main/codepoints&lt;/argument&gt;
+ *           &lt;argument&gt;${project.build.directory}/generated-sources/codepoints&lt;/argument&gt;
+ *         &lt;/arguments&gt;
+ *         &lt;sourceRoot&gt;${project.build.directory}/generated-sources/codepoints&lt;/sourceRoot&gt;
+ *       &lt;/configuration&gt;
+ *     &lt;/execution&gt;
+ *   &lt;/executions&gt;
+ *   &lt;dependencies&gt;
+ *     &lt;dependency&gt;
+ *       &lt;groupId&gt;org.terasoluna.gfw.codepoints&lt;/groupId&gt;
+ *       &lt;artifactId&gt;terasoluna-gfw-codepoints-generator&lt;/artifactId&gt;
+ *       &lt;version&gt;${terasoluna.gfw.version}&lt;/version&gt;
+ *     &lt;/dependency&gt;
+ *   &lt;/dependencies&gt;
+ * &lt;/plugin&gt;</code>
+ * </pre>
+ * @since 5.6.0
+ */
+public final class CodePointsSourceGenerator {
+
+    /**
+     * file extension of code points definitions.
+     */
+    static final String DEFINITION_EXTENSION = ".txt";
+
+    /**
+     * number of code points in the Basic Multilingual Plane.
+     */
+    private static final int BMP_SIZE = Character.MAX_VALUE + 1;
+
+    /**
+     * number of {@code long} values per line in generated sources.
+     */
+    private static final int LONGS_PER_LINE = 3;
+
+    /**
+     * number of {@code int} values per line in generated sources.
+     */
+    private static final int INTS_PER_LINE = 6;
+
+    /**
+     * Constructor.
+     */
+    private CodePointsSourceGenerator() {
+        // NOP
+    }
+
+    /**
+     * Generates Java sources from all definitions in the given directory.
+     * @param args definition directory and output directory
+     * @throws IOException if a definition cannot be read or a source cannot be written
+     * @throws IllegalArgumentException if the number of arguments is not two
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("usage: "
+                    + CodePointsSourceGenerator.class.getName()
+                    + " <definition directory> <output directory>");
+        }
+        generateAll(new File(args[0]), new File(args[1]));
+    }
+
+    /**
+     * Generates Java sources from all definitions ({@code *.txt}) in the given directory and its subdirectories. The path of
+     * a definition relative to the given directory determines the package and the name of the generated class.
+     * @param definitionDirectory root directory of definitions. nothing is generated if it does not exist.
+     * @param outputDirectory root directory of sources
+     * @return written files
+     * @throws IOException if a definition cannot be read or a source cannot be written
+     */
+    public static List<File> generateAll(File definitionDirectory,
+            File outputDirectory) throws IOException {
+        List<File> generated = new ArrayList<File>();
+        if (definitionDirectory.isDirectory()) {
+            generateAll(definitionDirectory, "", outputDirectory, generated);
+        }
+        return generated;
+    }
+
+    /**
+     * Generates the Java source of the given definition to {@code <output directory>/<package path>/<simple name>.java}.
+     * @param definition definition file
+     * @param className fully qualified name of the class to generate
+     * @param outputDirectory root directory of sources
+     * @return written file
+     * @throws IOException if the definition cannot be read or the source cannot be written
+     */
+    public static File generate(File definition, String className,
+            File outputDirectory) throws IOException {
+        Definition codePoints;
+        Reader reader = new InputStreamReader(new FileInputStream(definition), StandardCharsets.UTF_8);
+        try {
+            codePoints = readDefinition(reader);
+        } catch (IOException e) {
+            throw new IOException(definition + ": " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+        int lastDot = className.lastIndexOf('.');
+        File directory = lastDot < 0 ? outputDirectory
+                : new File(outputDirectory, className.substring(0, lastDot)
+                        .replace('.', File.separatorChar));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("failed to create directory: " + directory);
+        }
+        File file = new File(directory, className.substring(lastDot + 1)
+                + ".java");
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        try {
+            writeSource(codePoints, className, definition.getName(), out);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * generate Java sources from definitions in the given directory recursively.
+     * @param directory directory to scan
+     * @param packageName package corresponding to the directory
+     * @param outputDirectory root directory of sources
+     * @param generated list to add written files
+     * @throws IOException if a definition cannot be read or a source cannot be written
+     */
+    private static void generateAll(File directory, String packageName,
+            File outputDirectory, List<File> generated) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("failed to list directory: " + directory);
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            String prefix = packageName.isEmpty() ? "" : packageName + ".";
+            if (file.isDirectory()) {
+                generateAll(file, prefix + name, outputDirectory, generated);
+            } else if (name.endsWith(DEFINITION_EXTENSION)) {
+                String simpleName = name.substring(0, name.length()
+                        - DEFINITION_EXTENSION.length());
+                generated.add(generate(file, prefix + simpleName,
+                        outputDirectory));
+            }
+        }
+    }
+
+    /**
+     * read a code points definition. The reader is not closed.
+     * @param reader reader of the definition
+     * @return defined code points and description
+     * @throws IOException if an I/O error occurs or the definition is malformed
+     */
+    static Definition readDefinition(Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        BitSet codePoints = new BitSet();
+        List<String> description = new ArrayList<String>();
+        boolean header = true;
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String entry = (comment < 0 ? line : line.substring(0, comment))
+                    .trim();
+            if (entry.isEmpty()) {
+                if (header && comment >= 0) {
+                    description.add(line.substring(comment + 1).trim());
+                } else {
+                    header = false;
+                }
+                continue;
+            }
+            header = false;
+            try {
+                int separator = entry.indexOf("..");
+                int start = parseCodePoint(separator < 0 ? entry
+                        : entry.substring(0, separator));
+                int end = separator < 0 ? start
+                        : parseCodePoint(entry.substring(separator + 2));
+                if (start > end) {
+                    throw new IllegalArgumentException("invalid range");
+                }
+                codePoints.set(start, end + 1);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("invalid code point definition at line "
+                        + lineNumber + ": " + entry, e);
+            }
+        }
+        return new Definition(codePoints, description);
+    }
+
+    /**
+     * write the Java source of the given code points. The writer is flushed but not closed.
+     * @param definition code points and description to write
+     * @param className fully qualified name of the class to generate
+     * @param source name of the definition written in the generated source
+     * @param out writer
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeSource(Definition definition, String className,
+            String source, Writer out) throws IOException {
+        BitSet codePoints = definition.codePoints;
+        int lastDot = className.lastIndexOf('.');
+        String simpleName = className.substring(lastDot + 1);
+        StringBuilder sb = new StringBuilder();
+        sb.append("// generated by ").append(CodePointsSourceGenerator.class
+                .getName()).append(" from ").append(source).append(
+                        ". DO NOT EDIT.\n");
+        if (lastDot >= 0) {
+            sb.append("package ").append(className.substring(0, lastDot))
+                    .append(";\n\n");
+        }
+        sb.append(
+                "import org.terasoluna.gfw.common.codepoints.CodePoints;\n\n");
+        sb.append("/**\n");
+        if (definition.description.isEmpty()) {
+            sb.append(" * Code points generated from {@code ").append(source)
+                    .append("}.\n");
+        } else {
+            for (String line : definition.description) {
+                sb.append(line.isEmpty() ? " *" : " * ").append(line).append(
+                        '\n');
+            }
+        }
+        sb.append(" */\n");
+        sb.append("public final class ").append(simpleName).append(
+                " extends CodePoints {\n\n");
+        sb.append("    private static final long serialVersionUID = 1L;\n\n");
+        sb.append("    /**\n");
+        sb.append(
+                "     * bitmap of code points in the Basic Multilingual Plane.\n");
+        sb.append("     */\n");
+        sb.append("    private static final long[] BMP = {");
+        long[] bitmap = codePoints.get(0, BMP_SIZE).toLongArray();
+        for (int i = 0; i < bitmap.length; i++) {
+            appendSeparator(sb, i, LONGS_PER_LINE);
+            sb.append(String.format("0x%016XL", bitmap[i]));
+        }
+        sb.append(" };\n\n");
+        sb.append("    /**\n");
+        sb.append("     * ranges of supplementary code points.\n");
+        sb.append("     */\n");
+        sb.append("    private static final int[] SUPPLEMENTARY = {");
+        int i = 0;
+        for (int start = codePoints.nextSetBit(
+                BMP_SIZE); start >= 0; start = codePoints.nextSetBit(start)) {
+            int end = codePoints.nextClearBit(start) - 1;
+            appendSeparator(sb, i++, INTS_PER_LINE);
+            sb.append(String.format("0x%X", start));
+            appendSeparator(sb, i++, INTS_PER_LINE);
+            sb.append(String.format("0x%X", end));
+            start = end + 1;
+        }
+        sb.append(" };\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Constructor.\n");
+        sb.append("     */\n");
+        sb.append("    public ").append(simpleName).append("() {\n");
+        sb.append("        super(CodePoints.bitmap(BMP, SUPPLEMENTARY));\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        out.write(sb.toString());
+        out.flush();
+    }
+
+    /**
+     * parse a hexadecimal code point optionally prefixed with {@code U+}.
+     * @param s string to parse
+     * @return parsed code point
+     * @throws IllegalArgumentException if the given string is not a valid code point in hexadecimal
+     */
+    private static int parseCodePoint(String s) {
+        String hex = s.trim();
+        if (hex.startsWith("U+") || hex.startsWith("u+")) {
+            hex = hex.substring(2);
+        }
+        int codePoint = Integer.parseInt(hex, 16);
+        if (!Character.isValidCodePoint(codePoint)) {
+            throw new IllegalArgumentException("invalid code point: " + hex);
+        }
+        return codePoint;
+    }
+
+    /**
+     * append the separator of array elements.
+     * @param sb buffer
+     * @param index index of the element to append
+     * @param perLine number of elements per line
+     */
+    private static void appendSeparator(StringBuilder sb, int index,
+            int perLine) {
+        if (index > 0) {
+            sb.append(',');
+        }
+        if (index % perLine == 0) {
+            sb.append("\n            ");
+        } else {
+            sb.append(' ');
+        }
+    }
+
+    /**
+     * Code points and description read from a definition.
+     */
+    static final class Definition {
+
+        /**
+         * defined code points.
+         */
+        final BitSet codePoints;
+
+        /**
+         * lines of the description of the code points.
+         */
+        final List<String> description;
+
+        /**
+         * Constructor.
+         * @param codePoints defined code points
+         * @param description lines of the description
+         */
+        Definition(BitSet codePoints, List<String> description) {
+            this.codePoints = codePoints;
+            this.description = description;
+        }
+    }
+}
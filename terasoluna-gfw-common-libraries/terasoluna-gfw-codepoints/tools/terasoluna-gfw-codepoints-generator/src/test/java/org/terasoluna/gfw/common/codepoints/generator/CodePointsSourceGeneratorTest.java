@@ -0,0 +1,182 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.codepoints.generator;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.terasoluna.gfw.common.codepoints.generator.CodePointsSourceGenerator.Definition;
+
+public class CodePointsSourceGeneratorTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadDefinition() throws Exception {
+        Definition definition = CodePointsSourceGenerator.readDefinition(
+                new StringReader("# Customer name.\n" + "#\n"
+                        + "# @since 1.0.0\n" + "\n" + "# not a description\n"
+                        + "0020  # SPACE\n" + "\n" + "0041..005A\n"
+                        + "  U+3041..U+3043  \n" + "20B9F # 𠮟\n"));
+
+        BitSet expected = new BitSet();
+        expected.set(0x0020);
+        expected.set(0x0041, 0x005A + 1);
+        expected.set(0x3041, 0x3043 + 1);
+        expected.set(0x20B9F);
+        assertThat(definition.codePoints, is(expected));
+        assertThat(definition.description, is(Arrays.asList("Customer name.",
+                "", "@since 1.0.0")));
+    }
+
+    @Test
+    public void testReadDefinition_invalid() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage(
+                "invalid code point definition at line 2: 0041..XYZ");
+        CodePointsSourceGenerator.readDefinition(
+                new StringReader("0020\n0041..XYZ\n"));
+    }
+
+    @Test
+    public void testReadDefinition_outOfRange() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage(
+                "invalid code point definition at line 1: 110000");
+        CodePointsSourceGenerator.readDefinition(new StringReader("110000"));
+    }
+
+    @Test
+    public void testReadDefinition_reversedRange() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage(
+                "invalid code point definition at line 1: 005A..0041");
+        CodePointsSourceGenerator.readDefinition(
+                new StringReader("005A..0041"));
+    }
+
+    @Test
+    public void testWriteSource() throws Exception {
+        BitSet codePoints = new BitSet();
+        codePoints.set(0x0041, 0x005A + 1);
+        codePoints.set(0x0061, 0x007A + 1);
+        codePoints.set(0x20000, 0x2000F + 1);
+        codePoints.set(0x20010, 0x2001F + 1);
+        codePoints.set(0x2A700);
+        StringWriter out = new StringWriter();
+
+        CodePointsSourceGenerator.writeSource(new Definition(codePoints, Arrays
+                .asList("Alphabets.", "", "@since 1.0.0")),
+                "com.example.Alphabets", "Alphabets.txt", out);
+
+        String source = out.toString();
+        assertThat(source, containsString("package com.example;\n"));
+        assertThat(source, containsString(
+                "/**\n * Alphabets.\n *\n * @since 1.0.0\n */\n"));
+        assertThat(source, containsString(
+                "public final class Alphabets extends CodePoints {"));
+        assertThat(source, containsString(
+                "private static final long[] BMP = {\n            0x0000000000000000L, 0x07FFFFFE07FFFFFEL };"));
+        assertThat(source, containsString(
+                "private static final int[] SUPPLEMENTARY = {\n            0x20000, 0x2001F, 0x2A700, 0x2A700 };"));
+        assertThat(source, containsString(
+                "super(CodePoints.bitmap(BMP, SUPPLEMENTARY));"));
+    }
+
+    @Test
+    public void testWriteSource_noDescription() throws Exception {
+        StringWriter out = new StringWriter();
+
+        CodePointsSourceGenerator.writeSource(
+                new Definition(new BitSet(), Collections.<String> emptyList()),
+                "A", "A.txt", out);
+
+        String source = out.toString();
+        assertThat(source.contains("package"), is(false));
+        assertThat(source, containsString(
+                "/**\n * Code points generated from {@code A.txt}.\n */\n"));
+        assertThat(source, containsString(
+                "private static final long[] BMP = { };"));
+    }
+
+    @Test
+    public void testGenerateAll() throws Exception {
+        File definitions = temporaryFolder.newFolder("codepoints");
+        File directory = new File(definitions, "com/example");
+        directory.mkdirs();
+        Files.write(new File(directory, "A.txt").toPath(), "0061 # a\n"
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(directory, "README").toPath(), "not a definition"
+                .getBytes(StandardCharsets.UTF_8));
+        File output = temporaryFolder.newFolder("generated");
+
+        File expected = new File(output, "com/example/A.java");
+        assertThat(CodePointsSourceGenerator.generateAll(definitions, output),
+                is(Collections.singletonList(expected)));
+        assertThat(new String(Files.readAllBytes(expected
+                .toPath()), StandardCharsets.UTF_8), containsString(
+                        "public final class A extends CodePoints {"));
+    }
+
+    @Test
+    public void testGenerateAll_noDefinitions() throws Exception {
+        File output = temporaryFolder.newFolder("generated");
+
+        assertThat(CodePointsSourceGenerator.generateAll(
+                new File(temporaryFolder.getRoot(), "missing"), output)
+                .isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGenerate_invalid() throws Exception {
+        File definition = temporaryFolder.newFile("B.txt");
+        Files.write(definition.toPath(), "XYZ\n".getBytes(
+                StandardCharsets.UTF_8));
+
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage(definition
+                + ": invalid code point definition at line 1: XYZ");
+        CodePointsSourceGenerator.generate(definition, "B", temporaryFolder
+                .getRoot());
+    }
+
+    @Test
+    public void testMain_usage() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("usage: "
+                + CodePointsSourceGenerator.class.getName()
+                + " <definition directory> <output directory>");
+        CodePointsSourceGenerator.main(new String[] { "codepoints" });
+    }
+}
@@ -15,8 +15,19 @@
  */
 package org.terasoluna.gfw.common.query;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * An object to escape like condition in a query.<br>
+ * <p>
+ * The escape character is {@link #LIKE_ESC_CHAR} by default, and can be changed for each database dialect by
+ * {@link #withFullWidthWildcardsEscape(char)} or {@link #withoutFullWidthWildcardsEscape(char)}. A condition which contains
+ * no character to escape is returned without copying.
+ * </p>
  * @since 1.0.2
  */
 public class LikeConditionEscape {
@@ -25,6 +36,11 @@ public class LikeConditionEscape {
      */
     private final boolean escapeFullWithWildcards;
 
+    /**
+     * escape character.
+     */
+    private final char escapeChar;
+
     /**
      * Escape character used in the pattern string of LIKE value. Escape character is '~'.
      */
@@ -33,9 +49,18 @@ public class LikeConditionEscape {
     /**
      * Constructor
      * @param escapeFullWithWildcards whether to escape full-width wildcards.
+     * @param escapeChar escape character.
+     * @throws IllegalArgumentException if the escape character is a wildcard to escape.
      */
-    private LikeConditionEscape(boolean escapeFullWithWildcards) {
+    private LikeConditionEscape(boolean escapeFullWithWildcards,
+            char escapeChar) {
+        if (escapeChar == '%' || escapeChar == '_' || (escapeFullWithWildcards
+                && (escapeChar == '％' || escapeChar == '＿'))) {
+            throw new IllegalArgumentException("escapeChar must not be a wildcard (escapeChar = "
+                    + escapeChar + ")");
+        }
         this.escapeFullWithWildcards = escapeFullWithWildcards;
+        this.escapeChar = escapeChar;
     }
 
     /**
@@ -43,7 +68,19 @@ public class LikeConditionEscape {
      * @return LikeConditionEscape instance for including full-with wildcards
      */
     public static LikeConditionEscape withFullWidthWildcardsEscape() {
-        return new LikeConditionEscape(true);
+        return new LikeConditionEscape(true, LIKE_ESC_CHAR);
+    }
+
+    /**
+     * Constructor to escape like condition in a query (including full-with wildcards) with the given escape character.
+     * @param escapeChar escape character specified in the {@code ESCAPE} clause of the query (e.g. {@code '\\'} or {@code '!'})
+     * @return LikeConditionEscape instance for including full-with wildcards
+     * @throws IllegalArgumentException if the escape character is a wildcard.
+     * @since 5.6.0
+     */
+    public static LikeConditionEscape withFullWidthWildcardsEscape(
+            char escapeChar) {
+        return new LikeConditionEscape(true, escapeChar);
     }
 
     /**
@@ -52,7 +89,29 @@ public class LikeConditionEscape {
      * @return LikeConditionEscape instance for excluding full-with wildcards
      */
     public static LikeConditionEscape withoutFullWidthWildcardsEscape() {
-        return new LikeConditionEscape(false);
+        return new LikeConditionEscape(false, LIKE_ESC_CHAR);
+    }
+
+    /**
+     * Constructor to escape like condition in a query (<strong>NOT</strong> including full-with wildcards) with the given
+     * escape character.
+     * @param escapeChar escape character specified in the {@code ESCAPE} clause of the query (e.g. {@code '\\'} or {@code '!'})
+     * @return LikeConditionEscape instance for excluding full-with wildcards
+     * @throws IllegalArgumentException if the escape character is {@code '%'} or {@code '_'}.
+     * @since 5.6.0
+     */
+    public static LikeConditionEscape withoutFullWidthWildcardsEscape(
+            char escapeChar) {
+        return new LikeConditionEscape(false, escapeChar);
+    }
+
+    /**
+     * Returns the escape character.
+     * @return escape character
+     * @since 5.6.0
+     */
+    public char getEscapeChar() {
+        return escapeChar;
     }
 
     /**
@@ -63,9 +122,9 @@ public class LikeConditionEscape {
      * Conversion rules are as follows:
      * </p>
      * <ol>
-     * <li>Escape {@link #LIKE_ESC_CHAR} using {@link #LIKE_ESC_CHAR}.</li>
-     * <li>Escape '%' and '_' using {@link #LIKE_ESC_CHAR}.</li>
-     * <li>Escape '％' and '＿' using {@link #LIKE_ESC_CHAR} if <code>escapeFullWithWildcards</code> is <code>true</code>.</li>
+     * <li>Escape the escape character ({@link #LIKE_ESC_CHAR} by default) using the escape character.</li>
+     * <li>Escape '%' and '_' using the escape character.</li>
+     * <li>Escape '％' and '＿' using the escape character if <code>escapeFullWithWildcards</code> is <code>true</code>.</li>
      * </ol>
      * <p>
      * For example.<br>
@@ -106,20 +165,37 @@ public class LikeConditionEscape {
         if (condition == null) {
             return storingLikeCondition;
         }
-        for (int i = 0; i < condition.length(); i++) {
-            char c = condition.charAt(i);
-            if (c == LIKE_ESC_CHAR) {
-                storingLikeCondition.append(LIKE_ESC_CHAR);
-            } else if (c == '%' || c == '_') {
-                storingLikeCondition.append(LIKE_ESC_CHAR);
-            } else if (escapeFullWithWildcards && (c == '＿' || c == '％')) {
-                storingLikeCondition.append(LIKE_ESC_CHAR);
-            }
-            storingLikeCondition.append(c);
+        try {
+            appendEscaped(condition, 0, condition.length(), indexOfEscapeTarget(
+                    condition, 0, condition.length()), storingLikeCondition);
+        } catch (IOException e) {
+            // never happens with StringBuilder
+            throw new IllegalStateException(e);
         }
         return storingLikeCondition;
     }
 
+    /**
+     * Convert a search criteria string to the escaped string of LIKE condition and append it to the given {@link Appendable}.
+     * <p>
+     * Conversion rules see JavaDoc of {@link #toLikeCondition(String, StringBuilder)}. Nothing is appended when condition is
+     * <code>null</code>. Runs of characters which need no escaping are appended at once, so that multiple conditions can be
+     * written into one buffer or stream without intermediate strings.
+     * </p>
+     * @param condition search criteria string.
+     * @param likeCondition destination of the converted search criteria string.
+     * @throws IOException if an I/O error occurs in the destination.
+     * @since 5.6.0
+     */
+    public void toLikeCondition(CharSequence condition,
+            Appendable likeCondition) throws IOException {
+        if (condition == null) {
+            return;
+        }
+        appendEscaped(condition, 0, condition.length(), indexOfEscapeTarget(
+                condition, 0, condition.length()), likeCondition);
+    }
+
     /**
      * Convert a search criteria string to the escaped string of LIKE condition
      * <p>
@@ -136,7 +212,11 @@ public class LikeConditionEscape {
         if (condition == null) {
             return null;
         }
-        return toLikeCondition(condition, new StringBuilder()).toString();
+        int index = indexOfEscapeTarget(condition, 0, condition.length());
+        if (index < 0) {
+            return condition;
+        }
+        return escape("", condition, index, "");
     }
 
     /**
@@ -155,8 +235,11 @@ public class LikeConditionEscape {
         if (condition == null) {
             return null;
         }
-        return toLikeCondition(condition, new StringBuilder()).append("%")
-                .toString();
+        int index = indexOfEscapeTarget(condition, 0, condition.length());
+        if (index < 0) {
+            return condition.concat("%");
+        }
+        return escape("", condition, index, "%");
     }
 
     /**
@@ -175,7 +258,11 @@ public class LikeConditionEscape {
         if (condition == null) {
             return null;
         }
-        return toLikeCondition(condition, new StringBuilder("%")).toString();
+        int index = indexOfEscapeTarget(condition, 0, condition.length());
+        if (index < 0) {
+            return "%".concat(condition);
+        }
+        return escape("%", condition, index, "");
     }
 
     /**
@@ -194,7 +281,226 @@ public class LikeConditionEscape {
         if (condition == null) {
             return null;
         }
-        return toLikeCondition(condition, new StringBuilder("%")).append("%")
-                .toString();
+        int index = indexOfEscapeTarget(condition, 0, condition.length());
+        if (index < 0) {
+            return new StringBuilder(condition.length() + 2).append('%').append(
+                    condition).append('%').toString();
+        }
+        return escape("%", condition, index, "%");
+    }
+
+    /**
+     * Split a free text into search terms and convert each of them to the escaped string of LIKE condition with "%" keyword
+     * appended to the back and forth.
+     * <p>
+     * Terms are separated by one or more half-width spaces (' ') or full-width spaces ('　'). Duplicated terms are removed
+     * keeping the first one, and at most <code>maxTerms</code> terms are converted from the beginning of the text. Conversion
+     * rules of each term see JavaDoc of {@link #toLikeCondition(String, StringBuilder)}. The text is scanned only once, and no
+     * string other than the returned conditions is created.
+     * </p>
+     * <p>
+     * For example.<br>
+     *
+     * <pre>
+     * <code>
+     * toContainingConditions(" a%　b  a c ", 10) -&gt; ["%a~%%", "%b%", "%a%", "%c%"]
+     * toContainingConditions("a b a c", 2)      -&gt; ["%a%", "%b%"]
+     * toContainingConditions("　 ", 10)          -&gt; []
+     * toContainingConditions(null, 10)          -&gt; []
+     * </code>
+     * </pre>
+     * <p>
+     * The returned list can be passed to the <code>&lt;foreach&gt;</code> element of MyBatis:
+     * </p>
+     *
+     * <pre>
+     * <code>&lt;foreach collection="conditions" item="condition" separator="AND"&gt;
+     *   name LIKE #{condition} ESCAPE '~'
+     * &lt;/foreach&gt;</code>
+     * </pre>
+     * @param text free text which contains search terms separated by spaces.
+     * @param maxTerms maximum number of terms to convert.
+     * @return new list of converted search criteria strings in the order of appearance. empty if text is <code>null</code> or
+     *         contains no term.
+     * @throws IllegalArgumentException if <code>maxTerms</code> is negative.
+     * @since 5.6.0
+     */
+    public List<String> toContainingConditions(String text, int maxTerms) {
+        if (maxTerms < 0) {
+            throw new IllegalArgumentException("maxTerms must not be negative");
+        }
+        List<String> conditions = new ArrayList<String>();
+        if (text == null || maxTerms == 0) {
+            return conditions;
+        }
+        Set<String> found = new HashSet<String>();
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isSpace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            int index = -1;
+            while (i < length && !isSpace(text.charAt(i))) {
+                if (index < 0 && isEscapeTarget(text.charAt(i))) {
+                    index = i;
+                }
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+            sb.setLength(0);
+            sb.append('%');
+            try {
+                appendEscaped(text, start, i, index, sb);
+            } catch (IOException e) {
+                // never happens with StringBuilder
+                throw new IllegalStateException(e);
+            }
+            String condition = sb.append('%').toString();
+            if (found.add(condition)) {
+                conditions.add(condition);
+                if (conditions.size() == maxTerms) {
+                    break;
+                }
+            }
+        }
+        return conditions;
+    }
+
+    /**
+     * escape the condition with the given prefix and suffix into a new string.
+     * @param prefix string prepended to the escaped condition
+     * @param condition search criteria string
+     * @param index index of the first character to escape, or {@code -1} if none
+     * @param suffix string appended to the escaped condition
+     * @return escaped string
+     */
+    private String escape(String prefix, String condition, int index,
+            String suffix) {
+        // reserve room for a few escape characters
+        StringBuilder sb = new StringBuilder(prefix.length() + condition
+                .length() + suffix.length() + 8);
+        sb.append(prefix);
+        try {
+            appendEscaped(condition, 0, condition.length(), index, sb);
+        } catch (IOException e) {
+            // never happens with StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return sb.append(suffix).toString();
+    }
+
+    /**
+     * append the escaped range of the condition, copying runs of characters which need no escaping at once.
+     * @param condition search criteria string
+     * @param start start index of the range (inclusive)
+     * @param end end index of the range (exclusive)
+     * @param index index of the first character to escape in the range, or {@code -1} if none
+     * @param out destination
+     * @throws IOException if an I/O error occurs in the destination
+     */
+    private void appendEscaped(CharSequence condition, int start, int end,
+            int index, Appendable out) throws IOException {
+        int copied = start;
+        int i = index;
+        while (i >= 0) {
+            out.append(condition, copied, i).append(escapeChar);
+            copied = i;
+            i = indexOfEscapeTarget(condition, i + 1, end);
+        }
+        out.append(condition, copied, end);
+    }
+
+    /**
+     * returns the index of the first character which needs escaping in the given range.
+     * @param condition search criteria string
+     * @param from index to start searching from (inclusive)
+     * @param end end index of the range (exclusive)
+     * @return index of the first character to escape, or {@code -1} if none
+     */
+    private int indexOfEscapeTarget(CharSequence condition, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (isEscapeTarget(condition.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * returns whether the given character needs escaping.
+     * @param c character to check
+     * @return {@code true} if the character is the escape character or a wildcard to escape
+     */
+    boolean isEscapeTarget(char c) {
+        return c == escapeChar || c == '%' || c == '_'
+                || (escapeFullWithWildcards && (c == '＿' || c == '％'));
+    }
+
+    /**
+     * returns whether the given character separates search terms.
+     * @param c character to check
+     * @return {@code true} if the character is a half-width or full-width space
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '　';
+    }
+
+    /**
+     * Convert a search criteria string to the half-open range {@code [condition, upperBound)} of strings which start with it.
+     * <p>
+     * The range can be used with {@code >=} and {@code <} instead of the LIKE condition returned by
+     * {@link #toStartingWithCondition(String)}, so that an index on the column is used. The bounds are not escaped.
+     * </p>
+     * <p>
+     * The upper bound is the smallest string greater than every string starting with the condition in the code point order,
+     * which is the order of the binary collation of UTF-8 (or UTF-32) databases. It is computed by removing trailing
+     * {@link Character#MAX_CODE_POINT}s and incrementing the last code point, skipping the surrogate range:
+     * </p>
+     *
+     * <pre>
+     * <code>
+     * toStartingWithRange("abc")   -&gt; ["abc", "abd")
+     * toStartingWithRange("aあ")    -&gt; ["aあ", "aぃ")
+     * toStartingWithRange("a" + U+D7FF)   -&gt; upper bound "a" + U+E000 (surrogates are skipped)
+     * toStartingWithRange("a" + U+FFFF)   -&gt; upper bound "a" + U+10000 (a surrogate pair)
+     * toStartingWithRange("a" + U+10FFFF) -&gt; upper bound "b" (U+10FFFF is removed)
+     * toStartingWithRange("")           -&gt; ["", null)
+     * toStartingWithRange(null)         -&gt; null
+     * </code>
+     * </pre>
+     * <p>
+     * The upper bound is {@code null} if the condition is empty or consists only of {@link Character#MAX_CODE_POINT}s. Note
+     * that the range does not match the LIKE condition under a linguistic (case or width insensitive) collation.
+     * </p>
+     * @param condition search criteria string.
+     * @return range of strings starting with the condition, or {@code null} if condition is {@code null}.
+     * @since 5.6.0
+     */
+    public PrefixRange toStartingWithRange(String condition) {
+        if (condition == null) {
+            return null;
+        }
+        int end = condition.length();
+        while (end > 0) {
+            int codePoint = condition.codePointBefore(end);
+            if (codePoint != Character.MAX_CODE_POINT) {
+                int next = codePoint + 1;
+                if (next >= Character.MIN_SURROGATE
+                        && next <= Character.MAX_SURROGATE) {
+                    next = Character.MAX_SURROGATE + 1;
+                }
+                StringBuilder upperBound = new StringBuilder(end + 1);
+                upperBound.append(condition, 0, end - Character.charCount(
+                        codePoint)).appendCodePoint(next);
+                return new PrefixRange(condition, upperBound.toString());
+            }
+            end -= Character.charCount(codePoint);
+        }
+        return new PrefixRange(condition, null);
     }
 }
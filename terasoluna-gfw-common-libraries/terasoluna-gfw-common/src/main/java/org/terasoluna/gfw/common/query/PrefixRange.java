@@ -0,0 +1,114 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.query;
+
+import java.io.Serializable;
+
+/**
+ * Half-open range {@code [lowerBound, upperBound)} of strings which start with a prefix.
+ * <p>
+ * A starting-with search can be written with comparison operators instead of a LIKE pattern, so that a B-tree index on the
+ * column is used regardless of the escape character:
+ * </p>
+ *
+ * <pre>
+ * <code>WHERE name &gt;= #{range.lowerBound}
+ * &lt;if test="range.upperBound != null"&gt;
+ *   AND name &lt; #{range.upperBound}
+ * &lt;/if&gt;</code>
+ * </pre>
+ * @see LikeConditionEscape#toStartingWithRange(String)
+ * @since 5.6.0
+ */
+public final class PrefixRange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * inclusive lower bound (the prefix itself).
+     */
+    private final String lowerBound;
+
+    /**
+     * exclusive upper bound, or {@code null} if unbounded.
+     */
+    private final String upperBound;
+
+    /**
+     * Constructor.
+     * @param lowerBound inclusive lower bound
+     * @param upperBound exclusive upper bound, or {@code null} if unbounded
+     */
+    PrefixRange(String lowerBound, String upperBound) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * returns the inclusive lower bound, which is the prefix itself.
+     * @return inclusive lower bound
+     */
+    public String getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * returns the exclusive upper bound.
+     * @return exclusive upper bound, or {@code null} if every string greater than or equal to the lower bound starts with the
+     *         prefix (e.g. the prefix is empty)
+     */
+    public String getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * equals method
+     * @param o object to check
+     * @return {@code true} if the given object has same bounds
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PrefixRange)) {
+            return false;
+        }
+        PrefixRange that = (PrefixRange) o;
+        return lowerBound.equals(that.lowerBound) && (upperBound == null
+                ? that.upperBound == null : upperBound.equals(that.upperBound));
+    }
+
+    /**
+     * hash code of the instance
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * lowerBound.hashCode() + (upperBound == null ? 0
+                : upperBound.hashCode());
+    }
+
+    /**
+     * returns the string representation such as {@code [abc, abd)}.
+     * @return string representation
+     */
+    @Override
+    public String toString() {
+        return "[" + lowerBound + ", " + (upperBound == null ? "" : upperBound)
+                + ")";
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.terasoluna.gfw.common.query;
 
+import java.util.List;
+
 /**
  * Utility about escaping of query.<br>
  * <p>
@@ -149,6 +151,38 @@ public final class QueryEscapeUtils {
         return WITHOUT_FULL_WIDTH.toContainingCondition(condition);
     }
 
+    /**
+     * Split a free text into search terms and convert each of them to the escaped string of LIKE condition with "%" keyword
+     * appended to the back and forth.
+     * <p>
+     * Splitting and conversion rules see JavaDoc of {@link LikeConditionEscape#toContainingConditions(String, int)}.
+     * </p>
+     * @param text free text which contains search terms separated by spaces.
+     * @param maxTerms maximum number of terms to convert.
+     * @return new list of converted search criteria strings in the order of appearance.
+     * @throws IllegalArgumentException if <code>maxTerms</code> is negative.
+     * @see LikeConditionEscape#toContainingConditions(String, int)
+     * @since 5.6.0
+     */
+    public static List<String> toContainingConditions(String text,
+            int maxTerms) {
+        return WITHOUT_FULL_WIDTH.toContainingConditions(text, maxTerms);
+    }
+
+    /**
+     * Convert a search criteria string to the half-open range of strings which start with it.
+     * <p>
+     * Bounds computation rules see JavaDoc of {@link LikeConditionEscape#toStartingWithRange(String)}.
+     * </p>
+     * @param condition search criteria string.
+     * @return range of strings starting with the condition, or {@code null} if condition is {@code null}.
+     * @see LikeConditionEscape#toStartingWithRange(String)
+     * @since 5.6.0
+     */
+    public static PrefixRange toStartingWithRange(String condition) {
+        return WITHOUT_FULL_WIDTH.toStartingWithRange(condition);
+    }
+
     /**
      * <p>
      * Returns {@link LikeConditionEscape} object to convert a search criteria string to the escaped string of LIKE condition.
@@ -0,0 +1,322 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.query;
+
+import java.io.IOException;
+
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * Generator of width and case insensitive search keys.
+ * <p>
+ * A search key is a value converted to upper case, to fullwidth by a {@link FullHalfConverter} and then to upper case by
+ * code point, e.g. {@code "ｶﾀｶﾅ abc"} and {@code "カタカナ　ＡＢＣ"} have the same key {@code "カタカナ　ＡＢＣ"}. Case is folded
+ * before width as well, so that a character whose upper case is halfwidth (e.g. {@code "ı"} to {@code "I"}) is folded to
+ * fullwidth. Storing the key of a value in a separate column allows width and case insensitive searches to use a plain
+ * index on the column instead of function-based comparisons such as {@code UPPER(...)}:
+ * </p>
+ *
+ * <pre>
+ * <code>// when registering
+ * customer.setNameKey(generator.toSearchKey(customer.getName()));
+ *
+ * // when searching
+ * criteria.setNameKeyCondition(generator.toStartingWithCondition(name));
+ * // WHERE name_key LIKE #{nameKeyCondition} ESCAPE '~'</code>
+ * </pre>
+ * <p>
+ * The LIKE conditions are folded and escaped with a {@link LikeConditionEscape} in one pass without intermediate strings.
+ * This class requires {@code terasoluna-gfw-string} in the classpath. An instance is immutable and thread-safe.
+ * </p>
+ * @since 5.6.0
+ */
+public class SearchKeyGenerator {
+
+    /**
+     * converter to fold widths.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * escape of LIKE conditions.
+     */
+    private final LikeConditionEscape escape;
+
+    /**
+     * Constructor which folds widths with {@link DefaultFullHalf#INSTANCE} and escapes LIKE conditions with
+     * {@link LikeConditionEscape#withFullWidthWildcardsEscape()}.
+     * <p>
+     * Full-width wildcards have to be escaped because folding converts {@code '%'} and {@code '_'} to {@code '％'} and
+     * {@code '＿'}.
+     * </p>
+     */
+    public SearchKeyGenerator() {
+        this(DefaultFullHalf.INSTANCE, LikeConditionEscape
+                .withFullWidthWildcardsEscape());
+    }
+
+    /**
+     * Constructor.
+     * @param converter converter to fold widths
+     * @param escape escape of LIKE conditions
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public SearchKeyGenerator(FullHalfConverter converter,
+            LikeConditionEscape escape) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
+        if (escape == null) {
+            throw new IllegalArgumentException("escape must not be null");
+        }
+        this.converter = converter;
+        this.escape = escape;
+    }
+
+    /**
+     * Convert a value to the search key.
+     * <p>
+     * The result is intended to be stored in the column searched by the conditions of this generator, or to be compared with
+     * the column by {@code =}.
+     * </p>
+     * @param value value to convert
+     * @return search key, or {@code null} if value is {@code null}
+     */
+    public String toSearchKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        return fold(value, "", false, "");
+    }
+
+    /**
+     * Convert a search criteria string to the search key escaped for LIKE condition, and append "%" keyword to the backward.
+     * @param condition search criteria string
+     * @return converted search criteria string, or {@code null} if condition is {@code null}
+     */
+    public String toStartingWithCondition(String condition) {
+        if (condition == null) {
+            return null;
+        }
+        return fold(condition, "", true, "%");
+    }
+
+    /**
+     * Convert a search criteria string to the search key escaped for LIKE condition, and append "%" keyword to the front.
+     * @param condition search criteria string
+     * @return converted search criteria string, or {@code null} if condition is {@code null}
+     */
+    public String toEndingWithCondition(String condition) {
+        if (condition == null) {
+            return null;
+        }
+        return fold(condition, "%", true, "");
+    }
+
+    /**
+     * Convert a search criteria string to the search key escaped for LIKE condition, and append "%" keyword to the back and
+     * forth.
+     * @param condition search criteria string
+     * @return converted search criteria string, or {@code null} if condition is {@code null}
+     */
+    public String toContainingCondition(String condition) {
+        if (condition == null) {
+            return null;
+        }
+        return fold(condition, "%", true, "%");
+    }
+
+    /**
+     * Convert a search criteria string to the half-open range of search keys which start with the search key of it.
+     * <p>
+     * Bounds computation rules see JavaDoc of {@link LikeConditionEscape#toStartingWithRange(String)}.
+     * </p>
+     * @param condition search criteria string
+     * @return range of search keys, or {@code null} if condition is {@code null}
+     */
+    public PrefixRange toStartingWithRange(String condition) {
+        return escape.toStartingWithRange(toSearchKey(condition));
+    }
+
+    /**
+     * fold the value into a new string with the given prefix and suffix.
+     * @param value value to fold
+     * @param prefix string prepended to the folded value
+     * @param escaping whether to escape the folded value for LIKE condition
+     * @param suffix string appended to the folded value
+     * @return folded string
+     */
+    private String fold(String value, String prefix, boolean escaping,
+            String suffix) {
+        StringBuilder sb = new StringBuilder(prefix.length() + value.length()
+                + suffix.length() + 8);
+        sb.append(prefix);
+        FoldingAppendable folding = new FoldingAppendable(sb, escaping ? escape
+                : null);
+        try {
+            converter.toFullwidth(new UpperCaseSequence(value), folding);
+        } catch (IOException e) {
+            // never happens with StringBuilder
+            throw new IllegalStateException(e);
+        }
+        folding.flush();
+        return sb.append(suffix).toString();
+    }
+
+    /**
+     * View of a {@link CharSequence} whose {@code char}s are converted to upper case, which folds case before width without
+     * an intermediate string.
+     */
+    private static final class UpperCaseSequence implements CharSequence {
+
+        /**
+         * underlying sequence.
+         */
+        private final CharSequence value;
+
+        /**
+         * Constructor.
+         * @param value underlying sequence
+         */
+        UpperCaseSequence(CharSequence value) {
+            this.value = value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public char charAt(int index) {
+            return Character.toUpperCase(value.charAt(index));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new UpperCaseSequence(value.subSequence(start, end));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return new StringBuilder(this).toString();
+        }
+    }
+
+    /**
+     * {@link Appendable} which receives fullwidth characters, converts them to upper case and escapes them. A high surrogate is
+     * held until the next character, so that a supplementary character is converted as a code point even if its surrogates are
+     * appended separately.
+     */
+    private static final class FoldingAppendable implements Appendable {
+
+        /**
+         * destination.
+         */
+        private final StringBuilder out;
+
+        /**
+         * escape of LIKE conditions, or {@code null} not to escape.
+         */
+        private final LikeConditionEscape escape;
+
+        /**
+         * high surrogate waiting for the low surrogate, or {@code 0} if none.
+         */
+        private char pendingHighSurrogate;
+
+        /**
+         * Constructor.
+         * @param out destination
+         * @param escape escape of LIKE conditions, or {@code null} not to escape
+         */
+        FoldingAppendable(StringBuilder out, LikeConditionEscape escape) {
+            this.out = out;
+            this.escape = escape;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(CharSequence csq) {
+            CharSequence s = csq == null ? "null" : csq;
+            return append(s, 0, s.length());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            CharSequence s = csq == null ? "null" : csq;
+            for (int i = start; i < end; i++) {
+                append(s.charAt(i));
+            }
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(char c) {
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    out.appendCodePoint(Character.toUpperCase(Character
+                            .toCodePoint(high, c)));
+                    return this;
+                }
+                out.append(high);
+            }
+            if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+                return this;
+            }
+            char upper = Character.toUpperCase(c);
+            if (escape != null && escape.isEscapeTarget(upper)) {
+                out.append(escape.getEscapeChar());
+            }
+            out.append(upper);
+            return this;
+        }
+
+        /**
+         * append the high surrogate held at the end of the value, if any.
+         */
+        void flush() {
+            if (pendingHighSurrogate != 0) {
+                out.append(pendingHighSurrogate);
+                pendingHighSurrogate = 0;
+            }
+        }
+    }
+}
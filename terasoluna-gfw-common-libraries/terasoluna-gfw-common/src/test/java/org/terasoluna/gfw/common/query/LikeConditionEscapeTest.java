@@ -0,0 +1,261 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LikeConditionEscapeTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final LikeConditionEscape escape = LikeConditionEscape
+            .withoutFullWidthWildcardsEscape();
+
+    @Test
+    public void testToLikeCondition_nothingToEscape() {
+        String condition = "abcＡＢＣ％＿";
+        assertThat(escape.toLikeCondition(condition), is(sameInstance(
+                condition)));
+        assertThat(escape.toStartingWithCondition(condition), is("abcＡＢＣ％＿%"));
+        assertThat(escape.toEndingWithCondition(condition), is("%abcＡＢＣ％＿"));
+        assertThat(escape.toContainingCondition(condition), is("%abcＡＢＣ％＿%"));
+    }
+
+    @Test
+    public void testToLikeCondition_escapeAtBothEnds() {
+        assertThat(escape.toLikeCondition("%ab~c_"), is("~%ab~~c~_"));
+        assertThat(escape.toContainingCondition("%%"), is("%~%~%%"));
+    }
+
+    @Test
+    public void testToLikeCondition_appendable() throws Exception {
+        StringWriter out = new StringWriter();
+        escape.toLikeCondition("a%b", out);
+        out.append('%');
+        escape.toLikeCondition(new StringBuilder("_c~"), out);
+        escape.toLikeCondition((CharSequence) null, out);
+        assertThat(out.toString(), is("a~%b%~_c~~"));
+    }
+
+    @Test
+    public void testToLikeCondition_appendableWithFullWidth() throws Exception {
+        StringBuilder out = new StringBuilder();
+        LikeConditionEscape.withFullWidthWildcardsEscape().toLikeCondition(
+                (CharSequence) "a％＿", (Appendable) out);
+        assertThat(out.toString(), is("a~％~＿"));
+    }
+
+    @Test
+    public void testToLikeCondition_escapeChar() {
+        LikeConditionEscape backslash = LikeConditionEscape
+                .withoutFullWidthWildcardsEscape('\\');
+        assertThat(backslash.getEscapeChar(), is('\\'));
+        assertThat(backslash.toLikeCondition("a~b"), is("a~b"));
+        assertThat(backslash.toContainingCondition("a\\%_％"), is(
+                "%a\\\\\\%\\_％%"));
+
+        LikeConditionEscape exclamation = LikeConditionEscape
+                .withFullWidthWildcardsEscape('!');
+        assertThat(exclamation.getEscapeChar(), is('!'));
+        assertThat(exclamation.toStartingWithCondition("!％~"), is("!!!％~%"));
+        assertThat(escape.getEscapeChar(), is(
+                LikeConditionEscape.LIKE_ESC_CHAR));
+    }
+
+    @Test
+    public void testWithoutFullWidthWildcardsEscape_fullWidthEscapeChar() {
+        assertThat(LikeConditionEscape.withoutFullWidthWildcardsEscape('％')
+                .toLikeCondition("a％%"), is("a％％％%"));
+    }
+
+    @Test
+    public void testWithoutFullWidthWildcardsEscape_wildcard() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "escapeChar must not be a wildcard (escapeChar = %)");
+        LikeConditionEscape.withoutFullWidthWildcardsEscape('%');
+    }
+
+    @Test
+    public void testWithFullWidthWildcardsEscape_fullWidthWildcard() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "escapeChar must not be a wildcard (escapeChar = ＿)");
+        LikeConditionEscape.withFullWidthWildcardsEscape('＿');
+    }
+
+    @Test
+    public void testToContainingConditions() {
+        assertThat(escape.toContainingConditions(" a%　b  a c ", 10), is(Arrays
+                .asList("%a~%%", "%b%", "%a%", "%c%")));
+    }
+
+    @Test
+    public void testToContainingConditions_escapeInTerms() {
+        assertThat(escape.toContainingConditions("~x_　%％　~x_", 10), is(Arrays
+                .asList("%~~x~_%", "%~%％%")));
+        assertThat(LikeConditionEscape.withFullWidthWildcardsEscape()
+                .toContainingConditions("a％ ＿", 10), is(Arrays.asList("%a~％%",
+                        "%~＿%")));
+    }
+
+    @Test
+    public void testToContainingConditions_maxTerms() {
+        assertThat(escape.toContainingConditions("a b a c", 2), is(Arrays
+                .asList("%a%", "%b%")));
+        assertThat(escape.toContainingConditions("a a a", 2), is(Collections
+                .singletonList("%a%")));
+        assertThat(escape.toContainingConditions("a b", 0), is(Collections
+                .<String> emptyList()));
+    }
+
+    @Test
+    public void testToContainingConditions_noTerm() {
+        assertThat(escape.toContainingConditions("", 10), is(Collections
+                .<String> emptyList()));
+        assertThat(escape.toContainingConditions("　 　", 10), is(Collections
+                .<String> emptyList()));
+        assertThat(escape.toContainingConditions(null, 10), is(Collections
+                .<String> emptyList()));
+    }
+
+    @Test
+    public void testToContainingConditions_negativeMaxTerms() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("maxTerms must not be negative");
+        escape.toContainingConditions("a", -1);
+    }
+
+    @Test
+    public void testToStartingWithRange() {
+        assertThat(escape.toStartingWithRange("abc"), is(
+                new PrefixRange("abc", "abd")));
+        assertThat(escape.toStartingWithRange("aあ"), is(
+                new PrefixRange("aあ", "aぃ")));
+        assertThat(escape.toStartingWithRange("a%_~"), is(
+                new PrefixRange("a%_~", "a%_\u007F")));
+    }
+
+    @Test
+    public void testToStartingWithRange_surrogates() {
+        assertThat(escape.toStartingWithRange("a\uD7FF"), is(
+                new PrefixRange("a\uD7FF", "a\uE000")));
+        assertThat(escape.toStartingWithRange("a\uFFFF"), is(
+                new PrefixRange("a\uFFFF", "a\uD800\uDC00")));
+        assertThat(escape.toStartingWithRange("a𠮟"), is(
+                new PrefixRange("a𠮟", "a𠮠")));
+        assertThat(escape.toStartingWithRange("a\uD800\uDFFF"), is(
+                new PrefixRange("a\uD800\uDFFF", "a\uD801\uDC00")));
+    }
+
+    @Test
+    public void testToStartingWithRange_unpairedSurrogates() {
+        assertThat(escape.toStartingWithRange("a\uD800"), is(
+                new PrefixRange("a\uD800", "a\uE000")));
+        assertThat(escape.toStartingWithRange("a\uDFFF"), is(
+                new PrefixRange("a\uDFFF", "a\uE000")));
+    }
+
+    @Test
+    public void testToStartingWithRange_maxCodePoint() {
+        assertThat(escape.toStartingWithRange("a\uDBFF\uDFFF"), is(
+                new PrefixRange("a\uDBFF\uDFFF", "b")));
+        assertThat(escape.toStartingWithRange("a\uDBFF\uDFFF\uDBFF\uDFFF"), is(
+                new PrefixRange("a\uDBFF\uDFFF\uDBFF\uDFFF", "b")));
+        assertThat(escape.toStartingWithRange("\uDBFF\uDFFF"), is(
+                new PrefixRange("\uDBFF\uDFFF", null)));
+    }
+
+    @Test
+    public void testToStartingWithRange_empty() {
+        PrefixRange range = escape.toStartingWithRange("");
+        assertThat(range.getLowerBound(), is(""));
+        assertThat(range.getUpperBound(), is(nullValue()));
+        assertThat(range.toString(), is("[, )"));
+    }
+
+    @Test
+    public void testToStartingWithRange_null() {
+        assertThat(escape.toStartingWithRange(null), is(nullValue()));
+    }
+
+    @Test
+    public void testToStartingWithRange_codePointOrder() {
+        int[] codePoints = { 'a', 'b', 0xD7FF, 0xE000, 0xFFFF, 0x10000, 0x20B9F,
+                Character.MAX_CODE_POINT };
+        Random random = new Random(0);
+        for (int n = 0; n < 2000; n++) {
+            String prefix = randomString(random, codePoints, 3);
+            String value = randomString(random, codePoints, 5);
+            PrefixRange range = escape.toStartingWithRange(prefix);
+            boolean inRange = compare(range.getLowerBound(), value) <= 0
+                    && (range.getUpperBound() == null || compare(value, range
+                            .getUpperBound()) < 0);
+            assertThat(prefix + " / " + value, inRange, is(value.startsWith(
+                    prefix)));
+        }
+    }
+
+    @Test
+    public void testPrefixRange() {
+        PrefixRange range = new PrefixRange("abc", "abd");
+        assertThat(range.toString(), is("[abc, abd)"));
+        assertThat(range.equals(range), is(true));
+        assertThat(range.equals("abc"), is(false));
+        assertThat(range.equals(new PrefixRange("abc", null)), is(false));
+        assertThat(new PrefixRange("", null).equals(new PrefixRange("", null)),
+                is(true));
+        assertThat(range.hashCode(), is(new PrefixRange("abc", "abd")
+                .hashCode()));
+    }
+
+    private static String randomString(Random random, int[] codePoints,
+            int maxLength) {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            sb.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static int compare(String s1, String s2) {
+        int i = 0;
+        int j = 0;
+        while (i < s1.length() && j < s2.length()) {
+            int c1 = s1.codePointAt(i);
+            int c2 = s2.codePointAt(j);
+            if (c1 != c2) {
+                return Integer.compare(c1, c2);
+            }
+            i += Character.charCount(c1);
+            j += Character.charCount(c2);
+        }
+        return Integer.compare(s1.length() - i, s2.length() - j);
+    }
+}
@@ -17,9 +17,11 @@ package org.terasoluna.gfw.common.query;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.junit.experimental.theories.DataPoints;
@@ -185,6 +187,26 @@ public class QueryEscapeUtilsTest {
         assertThat(errorMessage, actual.toString(), is(expected.toString()));
     }
 
+    /**
+     * test {@link QueryEscapeUtils#toContainingConditions(String, int)}
+     */
+    @Test
+    public void testToContainingConditions() {
+        assertThat(QueryEscapeUtils.toContainingConditions("a%　＿ a%", 10), is(
+                Arrays.asList("%a~%%", "%＿%")));
+    }
+
+    /**
+     * test {@link QueryEscapeUtils#toStartingWithRange(String)}
+     */
+    @Test
+    public void testToStartingWithRange() {
+        PrefixRange range = QueryEscapeUtils.toStartingWithRange("a%");
+        assertThat(range.getLowerBound(), is("a%"));
+        assertThat(range.getUpperBound(), is("a&"));
+        assertThat(QueryEscapeUtils.toStartingWithRange(null), nullValue());
+    }
+
     @Test
     public void testQueryEscapeUtils() throws Exception {
         // set up
@@ -0,0 +1,136 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+import org.terasoluna.gfw.common.fullhalf.FullHalfPairsBuilder;
+
+public class SearchKeyGeneratorTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final SearchKeyGenerator generator = new SearchKeyGenerator();
+
+    @Test
+    public void testToSearchKey() {
+        assertThat(generator.toSearchKey("ｶﾀｶﾅ abc"), is("カタカナ　ＡＢＣ"));
+        assertThat(generator.toSearchKey("カタカナ　ＡＢＣ"), is("カタカナ　ＡＢＣ"));
+        assertThat(generator.toSearchKey("ｶﾞｷﾞ ａｂｃ"), is("ガギ　ＡＢＣ"));
+        assertThat(generator.toSearchKey("50%_~"), is("５０％＿～"));
+        assertThat(generator.toSearchKey(""), is(""));
+        assertThat(generator.toSearchKey(null), is(nullValue()));
+    }
+
+    @Test
+    public void testToSearchKey_upperCaseIsHalfwidth() {
+        // LATIN SMALL LETTER DOTLESS I (U+0131) and LATIN SMALL LETTER LONG S (U+017F) are upper-cased to ASCII
+        assertThat(generator.toSearchKey("\u0131"), is("Ｉ"));
+        assertThat(generator.toSearchKey("\u017F"), is("Ｓ"));
+        assertThat(generator.toSearchKey("\u0131"), is(generator.toSearchKey(
+                "I")));
+        assertThat(generator.toSearchKey("\u017F"), is(generator.toSearchKey(
+                "s")));
+        assertThat(generator.toContainingCondition("\u0131\u017F"), is("%ＩＳ%"));
+    }
+
+    @Test
+    public void testToSearchKey_idempotent() {
+        for (String value : new String[] { "ｶﾞｷﾞ abc", "\u0131\u017F",
+                "a\uD801\uDC28b", "50%_~" }) {
+            String key = generator.toSearchKey(value);
+            assertThat(generator.toSearchKey(key), is(key));
+        }
+    }
+
+    @Test
+    public void testToSearchKey_supplementary() {
+        // DESERET SMALL LETTER LONG I (U+10428) to DESERET CAPITAL LETTER LONG I (U+10400)
+        assertThat(generator.toSearchKey("a\uD801\uDC28b"), is(
+                "Ａ\uD801\uDC00Ｂ"));
+        assertThat(generator.toContainingCondition("\uD801\uDC28%"), is(
+                "%\uD801\uDC00~％%"));
+        // unpaired surrogates are kept as they are
+        assertThat(generator.toSearchKey("\uD801a\uDC28\uD801"), is(
+                "\uD801Ａ\uDC28\uD801"));
+    }
+
+    @Test
+    public void testToLikeConditions() {
+        assertThat(generator.toStartingWithCondition("ｶﾀ a"), is("カタ　Ａ%"));
+        assertThat(generator.toEndingWithCondition("ｶﾀ a"), is("%カタ　Ａ"));
+        assertThat(generator.toContainingCondition("ｶﾀ a"), is("%カタ　Ａ%"));
+        assertThat(generator.toStartingWithCondition(null), is(nullValue()));
+        assertThat(generator.toEndingWithCondition(null), is(nullValue()));
+        assertThat(generator.toContainingCondition(null), is(nullValue()));
+    }
+
+    @Test
+    public void testToLikeConditions_defaultEscapesFoldedWildcards() {
+        assertThat(generator.toStartingWithCondition("50%_"), is("５０~％~＿%"));
+        assertThat(generator.toContainingCondition("%_"), is("%~％~＿%"));
+    }
+
+    @Test
+    public void testToLikeConditions_escapeFullWidthWildcards() {
+        SearchKeyGenerator withFullWidth = new SearchKeyGenerator(DefaultFullHalf.INSTANCE, LikeConditionEscape
+                .withFullWidthWildcardsEscape());
+        assertThat(withFullWidth.toContainingCondition("a%_＿"), is(
+                "%Ａ~％~＿~＿%"));
+        assertThat(withFullWidth.toSearchKey("a%_＿"), is("Ａ％＿＿"));
+    }
+
+    @Test
+    public void testToLikeConditions_escapeNotConverted() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("ア", "ｱ").build());
+        SearchKeyGenerator custom = new SearchKeyGenerator(converter, LikeConditionEscape
+                .withoutFullWidthWildcardsEscape('\\'));
+        assertThat(custom.toStartingWithCondition("ｱa%_\\~"), is(
+                "アA\\%\\_\\\\~%"));
+        assertThat(custom.toSearchKey("ｱa%_\\~"), is("アA%_\\~"));
+    }
+
+    @Test
+    public void testToStartingWithRange() {
+        PrefixRange range = generator.toStartingWithRange("ｶﾀｶ");
+        assertThat(range.getLowerBound(), is("カタカ"));
+        assertThat(range.getUpperBound(), is("カタガ"));
+        assertThat(generator.toStartingWithRange(null), is(nullValue()));
+    }
+
+    @Test
+    public void testConstructor_nullConverter() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        new SearchKeyGenerator(null, LikeConditionEscape
+                .withoutFullWidthWildcardsEscape());
+    }
+
+    @Test
+    public void testConstructor_nullEscape() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("escape must not be null");
+        new SearchKeyGenerator(DefaultFullHalf.INSTANCE, null);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+/**
+ * Immutable-after-build lookup table from a {@code char} to a value, indexed directly by the {@code char} value.
+ * <p>
+ * The table is split into 256 pages of 256 entries and only pages which hold a mapping are allocated, so that tables over a
+ * few blocks (e.g. Basic Latin, Katakana and Halfwidth and Fullwidth Forms) stay small while a lookup is two array accesses
+ * without any allocation.
+ * </p>
+ * @param <V> type of the values
+ * @since 5.6.0
+ */
+final class CharTable<V> {
+
+    /**
+     * pages of mappings. {@code pages[c >>> 8][c & 0xFF]} is the mapping of {@code c}.
+     */
+    private final Object[][] pages = new Object[256][];
+
+    /**
+     * returns the mapping of the given {@code char}.
+     * @param c {@code char} to look up
+     * @return mapped value, or {@code null} if not mapped
+     */
+    @SuppressWarnings("unchecked")
+    V get(char c) {
+        Object[] page = pages[c >>> 8];
+        return page == null ? null : (V) page[c & 0xFF];
+    }
+
+    /**
+     * registers a mapping unless the given {@code char} is already mapped.
+     * @param c {@code char} to map
+     * @param value mapped value
+     */
+    void putIfAbsent(char c, V value) {
+        Object[] page = pages[c >>> 8];
+        if (page == null) {
+            page = new Object[256];
+            pages[c >>> 8] = page;
+        }
+        if (page[c & 0xFF] == null) {
+            page[c & 0xFF] = value;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import java.util.Arrays;
+
+/**
+ * Immutable-after-build trie from {@code char} sequences to {@link String}s, used to find the longest registered key at a
+ * position of a text.
+ * <p>
+ * The first level is a {@link CharTable} indexed directly by the {@code char} value. Deeper levels hold their children in
+ * sorted arrays. A lookup is bounded by the longest key, so converting a text takes linear time in its length regardless of
+ * the number of keys, without any allocation. Keys are UTF-16 sequences, so supplementary characters are matched as their
+ * surrogate pairs.
+ * </p>
+ * @since 5.6.0
+ */
+final class CharTrie {
+
+    /**
+     * keys of a node without children, shared by all leaves.
+     */
+    private static final char[] NO_KEYS = new char[0];
+
+    /**
+     * children of a node without children, shared by all leaves.
+     */
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * Node of the trie.
+     */
+    static final class Node {
+
+        /**
+         * length of the key which ends at this node.
+         */
+        final int length;
+
+        /**
+         * value of the key which ends at this node, or {@code null} if no key ends at this node.
+         */
+        String value;
+
+        /**
+         * sorted {@code char}s of the children.
+         */
+        char[] keys = NO_KEYS;
+
+        /**
+         * children, parallel to {@link #keys}.
+         */
+        Node[] children = NO_CHILDREN;
+
+        /**
+         * Constructor.
+         * @param length length of the key which ends at this node
+         */
+        Node(int length) {
+            this.length = length;
+        }
+
+        /**
+         * returns the child for the given {@code char}.
+         * @param c {@code char} to look up
+         * @return child, or {@code null} if not exists
+         */
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * returns the child for the given {@code char}, creating it if not exists.
+         * @param c {@code char} to look up
+         * @return child
+         */
+        Node getOrCreateChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertion = -index - 1;
+            Node child = new Node(length + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            newKeys[insertion] = c;
+            newChildren[insertion] = child;
+            System.arraycopy(keys, insertion, newKeys, insertion + 1,
+                    keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1,
+                    children.length - insertion);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    /**
+     * first level nodes.
+     */
+    private final CharTable<Node> roots = new CharTable<Node>();
+
+    /**
+     * length of the longest key.
+     */
+    private int maxLength;
+
+    /**
+     * registers a mapping unless the given key is already mapped.
+     * @param key non-empty key
+     * @param value mapped string
+     */
+    void putIfAbsent(String key, String value) {
+        char first = key.charAt(0);
+        Node node = roots.get(first);
+        if (node == null) {
+            node = new Node(1);
+            roots.putIfAbsent(first, node);
+        }
+        for (int i = 1; i < key.length(); i++) {
+            node = node.getOrCreateChild(key.charAt(i));
+        }
+        if (node.value == null) {
+            node.value = value;
+        }
+        maxLength = Math.max(maxLength, key.length());
+    }
+
+    /**
+     * returns the mapping of the given {@code char} as a key of length 1.
+     * @param c {@code char} to look up
+     * @return mapped string, or {@code null} if not mapped
+     */
+    String get(char c) {
+        Node node = roots.get(c);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * returns the node of the longest key which the given range starts with.
+     * @param s text to match
+     * @param start start index (inclusive)
+     * @param end end index (exclusive). characters from this index are not looked at.
+     * @return node of the longest key, or {@code null} if no key matches
+     */
+    Node longestMatch(CharSequence s, int start, int end) {
+        Node node = roots.get(s.charAt(start));
+        Node match = null;
+        int i = start + 1;
+        while (node != null) {
+            if (node.value != null) {
+                match = node;
+            }
+            if (i >= end) {
+                break;
+            }
+            node = node.child(s.charAt(i++));
+        }
+        return match;
+    }
+
+    /**
+     * returns the length of the longest key.
+     * @return length of the longest key, or {@code 0} if empty
+     */
+    int maxLength() {
+        return maxLength;
+    }
+}
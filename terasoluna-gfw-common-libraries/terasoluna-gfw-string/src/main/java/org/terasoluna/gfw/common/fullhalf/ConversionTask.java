@@ -0,0 +1,138 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task which converts each value in a range of an array.
+ * @since 5.6.0
+ */
+final class ConversionTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * minimum number of values processed by a task.
+     */
+    private static final int MIN_BATCH_SIZE = 256;
+
+    /**
+     * converter to use.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * values to convert.
+     */
+    private final String[] values;
+
+    /**
+     * converted values.
+     */
+    private final String[] results;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private final boolean toFullwidth;
+
+    /**
+     * first index (inclusive).
+     */
+    private final int from;
+
+    /**
+     * last index (exclusive).
+     */
+    private final int to;
+
+    /**
+     * number of values under which a task is not split.
+     */
+    private final int threshold;
+
+    /**
+     * Constructor.
+     * @param converter converter to use
+     * @param values values to convert
+     * @param results converted values
+     * @param toFullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param threshold number of values under which a task is not split
+     */
+    private ConversionTask(FullHalfConverter converter, String[] values,
+            String[] results, boolean toFullwidth, int from, int to,
+            int threshold) {
+        this.converter = converter;
+        this.values = values;
+        this.results = results;
+        this.toFullwidth = toFullwidth;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    /**
+     * convert all values. values are converted in the calling thread if they are not more than a task processes.
+     * @param converter converter to use
+     * @param values values to convert
+     * @param toFullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     * @param forkJoinPool pool to convert the values in parallel
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code values} or {@code forkJoinPool} is {@code null}
+     */
+    static String[] convert(FullHalfConverter converter, String[] values,
+            boolean toFullwidth, ForkJoinPool forkJoinPool) {
+        if (values == null) {
+            throw new IllegalArgumentException("values must not be null.");
+        }
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("forkJoinPool must not be null");
+        }
+        String[] results = new String[values.length];
+        if (values.length <= MIN_BATCH_SIZE) {
+            new ConversionTask(converter, values, results, toFullwidth, 0, values.length, values.length)
+                    .compute();
+            return results;
+        }
+        // a few tasks per thread to balance values of different lengths
+        int threshold = Math.max(MIN_BATCH_SIZE, values.length / (forkJoinPool
+                .getParallelism() * 4));
+        forkJoinPool.invoke(
+                new ConversionTask(converter, values, results, toFullwidth, 0, values.length, threshold));
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+        if (to - from > threshold) {
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ConversionTask(converter, values, results, toFullwidth, from, middle, threshold),
+                    new ConversionTask(converter, values, results, toFullwidth, middle, to, threshold));
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            results[i] = converter.convert(values[i], toFullwidth);
+        }
+    }
+}
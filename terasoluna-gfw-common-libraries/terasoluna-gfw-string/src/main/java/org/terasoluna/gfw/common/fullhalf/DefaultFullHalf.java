@@ -783,10 +783,9 @@ public final class DefaultFullHalf {
     }
 
     /**
-     * a singleton instance with default mapping table.
-     * @see DefaultFullHalf
+     * default mapping table.
      */
-    public static final FullHalfConverter INSTANCE = new FullHalfConverter(
+    static final FullHalfPairs PAIRS =
             new FullHalfPairsBuilder()
                 .pair("！", "!")
                 .pair("”", "\"")
@@ -974,5 +973,13 @@ public final class DefaultFullHalf {
                 .pair("゛", "ﾞ")
                 .pair("゜", "ﾟ")
                 .pair("　", " ")
-                .build());
+                .build();
+
+    /**
+     * a singleton instance with default mapping table. It is the instance returned by
+     * {@link FullHalfConverter#of(FullHalfPairs)} for the default mapping table.
+     * @see DefaultFullHalf
+     */
+    public static final FullHalfConverter INSTANCE = FullHalfConverter.of(
+            PAIRS);
 }
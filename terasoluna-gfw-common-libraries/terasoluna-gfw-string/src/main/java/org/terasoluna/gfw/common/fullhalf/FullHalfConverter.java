@@ -15,7 +15,19 @@
  */
 package org.terasoluna.gfw.common.fullhalf;
 
-import java.util.*;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Convert which converts from fullwidth to halfwidth and from halfwidth to fullwidth. This implementation does not have the
@@ -31,18 +43,56 @@ import java.util.*;
  * If the halfwidth or fullwidth in the given pair is already registered, the former is preferred. Note that it cannot be
  * overridden.
  * </p>
+ * <p>
+ * The given pairs are compiled into tries at construction time. A text is converted from the beginning by replacing the
+ * longest fullwidth (or halfwidth) registered at the current position, so that pairs of multiple characters (e.g.
+ * {@code "ｶﾞ"}) and, with {@link FullHalfPairsBuilder#sequence(String, String)}, supplementary characters can be registered.
+ * Conversion takes linear time in the length of the text
+ * regardless of the number of pairs, and does not allocate anything per character.
+ * </p>
+ * <p>
+ * When converting to fullwidth, an appendable character (see {@link FullHalfPairs.AppendablePredicate}) which follows a
+ * character not converted as a part of a longer halfwidth is converted on its own together with the character, e.g.
+ * {@code "ｱﾞ"} is converted to {@code "ア゛"}.
+ * </p>
+ * <p>
+ * Besides {@link String}s, characters can be converted into an {@link Appendable}, from a {@link Reader} to a {@link Writer},
+ * or through a {@link Reader} returned by {@link #fullwidthReader(Reader)} or {@link #halfwidthReader(Reader)} in constant
+ * memory.
+ * </p>
+ * <p>
+ * Many values can be converted in parallel with {@link #toFullwidthAll(String[])}, in a given pool with
+ * {@link #toFullwidthAll(String[], ForkJoinPool)}, or with
+ * {@link #fullwidthSpliterator(Spliterator)} (and their halfwidth counterparts).
+ * </p>
+ * <p>
+ * {@link #of(FullHalfPairs)} returns a shared instance for equal pairs. Shared instances are weakly referenced, so a
+ * converter which is no longer used is discarded together with its predicate.
+ * </p>
  * @since 5.1.0
  */
 public final class FullHalfConverter {
+
     /**
-     * map to convert from fullwidth char
+     * cache of converters interned by {@link #of(FullHalfPairs)}. Values are weak references removed from the cache once they
+     * are cleared.
      */
-    private final Map<String, FullHalfPair> fullwidthMap;
+    private static final ConcurrentMap<PairsKey, ConverterReference> CACHE = new ConcurrentHashMap<PairsKey, ConverterReference>();
 
     /**
-     * map to convert from halfwidth char
+     * queue of the cleared references in {@link #CACHE}.
      */
-    private final Map<String, FullHalfPair> halfwidthMap;
+    private static final ReferenceQueue<FullHalfConverter> CLEARED = new ReferenceQueue<FullHalfConverter>();
+
+    /**
+     * trie to convert from fullwidth
+     */
+    private final CharTrie fullwidthTrie = new CharTrie();
+
+    /**
+     * trie to convert from halfwidth
+     */
+    private final CharTrie halfwidthTrie = new CharTrie();
 
     /**
      * predicates if the given character is appendable like 'ﾞ' or 'ﾟ'.
@@ -60,112 +110,578 @@ public final class FullHalfConverter {
         if (pairs == null) {
             throw new IllegalArgumentException("pairs must not be null.");
         }
-        Set<FullHalfPair> pairSet = pairs.pairs();
-        Map<String, FullHalfPair> f = new HashMap<String, FullHalfPair>();
-        Map<String, FullHalfPair> h = new HashMap<String, FullHalfPair>();
-        for (FullHalfPair pair : pairSet) {
+        for (FullHalfPair pair : pairs.pairs()) {
             // first definition is prior
-            if (!f.containsKey(pair.fullwidth())) {
-                f.put(pair.fullwidth(), pair);
+            this.fullwidthTrie.putIfAbsent(pair.fullwidth(), pair.halfwidth());
+            this.halfwidthTrie.putIfAbsent(pair.halfwidth(), pair.fullwidth());
+        }
+        this.predicate = pairs.predicate();
+    }
+
+    /**
+     * Returns a converter for the given pairs. Converters for pairs which have equal {@link FullHalfPair}s in the same order and
+     * the same predicate are shared while the converter is reachable, so that an identical mapping table is compiled only once.
+     * @param pairs pair of fullwidth-halfwidth. must not be null.
+     * @return converter for the given pairs
+     * @throws IllegalArgumentException if the given pairs is null
+     * @since 5.6.0
+     */
+    public static FullHalfConverter of(FullHalfPairs pairs) {
+        if (pairs == null) {
+            throw new IllegalArgumentException("pairs must not be null.");
+        }
+        expungeClearedEntries();
+        PairsKey key = new PairsKey(pairs);
+        ConverterReference reference = CACHE.get(key);
+        FullHalfConverter converter = reference != null ? reference.get()
+                : null;
+        if (converter != null) {
+            return converter;
+        }
+        converter = new FullHalfConverter(pairs);
+        ConverterReference newReference = new ConverterReference(key, converter);
+        while (true) {
+            ConverterReference existingReference = CACHE.putIfAbsent(key,
+                    newReference);
+            if (existingReference == null) {
+                return converter;
             }
-            if (!h.containsKey(pair.halfwidth())) {
-                h.put(pair.halfwidth(), pair);
+            FullHalfConverter existing = existingReference.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (CACHE.replace(key, existingReference, newReference)) {
+                return converter;
             }
         }
-        this.fullwidthMap = Collections.unmodifiableMap(f);
-        this.halfwidthMap = Collections.unmodifiableMap(h);
-        this.predicate = pairs.predicate();
+    }
+
+    /**
+     * Returns the number of entries in the cache of {@link #of(FullHalfPairs)}, after removing the cleared ones.
+     * @return number of entries
+     */
+    static int cacheSize() {
+        expungeClearedEntries();
+        return CACHE.size();
+    }
+
+    /**
+     * Removes the entries whose converter has been garbage collected from the cache of {@link #of(FullHalfPairs)}.
+     */
+    private static void expungeClearedEntries() {
+        Reference<? extends FullHalfConverter> cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            ConverterReference reference = (ConverterReference) cleared;
+            CACHE.remove(reference.key, reference);
+        }
     }
 
     /**
      * Converts from fullwidth to halfwidth as much as possible with the given mapping table.
      * @param fullwidth string to convert
-     * @return converted string. if the given string is null or empty, returns as it is.
+     * @return converted string. if the given string is null or empty, or no character is converted, returns as it is.
      */
     public String toHalfwidth(String fullwidth) {
-        if (fullwidth == null || fullwidth.isEmpty()) {
-            return fullwidth;
+        return convert(fullwidth, false);
+    }
+
+    /**
+     * Converts all values in the given list from fullwidth to halfwidth in parallel with {@link ForkJoinPool#commonPool()}.
+     * @param fullwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code fullwidths} is null
+     * @since 5.6.0
+     */
+    public List<String> toHalfwidthAll(List<String> fullwidths) {
+        return toHalfwidthAll(fullwidths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts all values in the given list from fullwidth to halfwidth splitting the work with fork/join in the given pool.
+     * A small list is converted in the calling thread.
+     * @param fullwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @param forkJoinPool pool to convert the values in parallel. it is not shut down by this method.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code fullwidths} or {@code forkJoinPool} is null
+     * @since 5.6.0
+     */
+    public List<String> toHalfwidthAll(List<String> fullwidths,
+            ForkJoinPool forkJoinPool) {
+        if (fullwidths == null) {
+            throw new IllegalArgumentException("values must not be null.");
+        }
+        return Arrays.asList(ConversionTask.convert(this, fullwidths.toArray(
+                new String[fullwidths.size()]), false, forkJoinPool));
+    }
+
+    /**
+     * Converts all values in the given array from fullwidth to halfwidth in parallel with {@link ForkJoinPool#commonPool()}.
+     * @param fullwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code fullwidths} is null
+     * @since 5.6.0
+     */
+    public String[] toHalfwidthAll(String[] fullwidths) {
+        return toHalfwidthAll(fullwidths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts all values in the given array from fullwidth to halfwidth splitting the work with fork/join in the given pool.
+     * A small array is converted in the calling thread.
+     * @param fullwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @param forkJoinPool pool to convert the values in parallel. it is not shut down by this method.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code fullwidths} or {@code forkJoinPool} is null
+     * @since 5.6.0
+     */
+    public String[] toHalfwidthAll(String[] fullwidths,
+            ForkJoinPool forkJoinPool) {
+        return ConversionTask.convert(this, fullwidths, false, forkJoinPool);
+    }
+
+    /**
+     * Returns a {@link Spliterator} which converts from fullwidth to halfwidth the elements of the given {@link Spliterator}.
+     * The returned spliterator can be split as the given one, so that it can be converted in a parallel stream like
+     * {@code StreamSupport.stream(converter.halfwidthSpliterator(names.spliterator()), true)}.
+     * @param fullwidths spliterator of values to convert
+     * @return spliterator of converted values
+     * @since 5.6.0
+     */
+    public Spliterator<String> halfwidthSpliterator(
+            Spliterator<String> fullwidths) {
+        return new FullHalfSpliterator(fullwidths, this, false);
+    }
+
+    /**
+     * Converts from fullwidth to halfwidth as much as possible with the given mapping table, and appends the result to the
+     * given {@link Appendable}.
+     * @param fullwidth characters to convert. if null, nothing is appended.
+     * @param out destination of the converted characters
+     * @throws IOException if an I/O error occurs in the destination
+     * @since 5.6.0
+     */
+    public void toHalfwidth(CharSequence fullwidth,
+            Appendable out) throws IOException {
+        if (fullwidth == null) {
+            return;
         }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < fullwidth.length(); i++) {
-            String s = String.valueOf(fullwidth.charAt(i));
-            builder.append(halfwidth(s));
+        int start = indexOfHalfwidthChange(fullwidth);
+        if (start < 0) {
+            out.append(fullwidth);
+            return;
         }
-        return builder.toString();
+        out.append(fullwidth, 0, start);
+        appendHalfwidth(fullwidth, start, fullwidth.length(), true, out);
+    }
+
+    /**
+     * Converts from fullwidth to halfwidth all characters read from the given {@link Reader}, and writes the result to the given
+     * {@link Writer}. Characters are processed in constant memory. Neither the reader nor the writer is closed.
+     * @param in source of characters to convert
+     * @param out destination of the converted characters
+     * @throws IOException if an I/O error occurs
+     * @since 5.6.0
+     */
+    public void toHalfwidth(Reader in, Writer out) throws IOException {
+        transfer(halfwidthReader(in), out);
+    }
+
+    /**
+     * Returns a {@link Reader} which converts from fullwidth to halfwidth the characters read from the given {@link Reader}.
+     * Closing the returned reader closes the given reader.
+     * @param in source of characters to convert
+     * @return reader of the converted characters
+     * @since 5.6.0
+     */
+    public Reader halfwidthReader(Reader in) {
+        return new FullHalfReader(in, this, false);
     }
 
     /**
      * Converts from halfwidth to fullwidth as much as possible with the given mapping table.
      * @param halfwidth string to convert
-     * @return converted string. if the given string is null or empty, returns as it is.
+     * @return converted string. if the given string is null or empty, or no character is converted, returns as it is.
      */
     public String toFullwidth(String halfwidth) {
-        if (halfwidth == null || halfwidth.isEmpty()) {
-            return halfwidth;
-        }
-        StringBuilder builder = new StringBuilder();
-        Queue<String> buffer = new LinkedList<String>(); // use queue as 1 element buffer
-
-        for (int i = 0; i < halfwidth.length(); i++) {
-            char c = halfwidth.charAt(i);
-            String s = String.valueOf(c);
-            // next loop when the buffer is empty
-            if (buffer.isEmpty()) {
-                buffer.add(s);
-                continue;
+        return convert(halfwidth, true);
+    }
+
+    /**
+     * Converts all values in the given list from halfwidth to fullwidth in parallel with {@link ForkJoinPool#commonPool()}.
+     * @param halfwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code halfwidths} is null
+     * @since 5.6.0
+     */
+    public List<String> toFullwidthAll(List<String> halfwidths) {
+        return toFullwidthAll(halfwidths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts all values in the given list from halfwidth to fullwidth splitting the work with fork/join in the given pool.
+     * A small list is converted in the calling thread.
+     * @param halfwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @param forkJoinPool pool to convert the values in parallel. it is not shut down by this method.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code halfwidths} or {@code forkJoinPool} is null
+     * @since 5.6.0
+     */
+    public List<String> toFullwidthAll(List<String> halfwidths,
+            ForkJoinPool forkJoinPool) {
+        if (halfwidths == null) {
+            throw new IllegalArgumentException("values must not be null.");
+        }
+        return Arrays.asList(ConversionTask.convert(this, halfwidths.toArray(
+                new String[halfwidths.size()]), true, forkJoinPool));
+    }
+
+    /**
+     * Converts all values in the given array from halfwidth to fullwidth in parallel with {@link ForkJoinPool#commonPool()}.
+     *
+     * <pre>
+     * <code>String[] names = DefaultFullHalf.INSTANCE.toFullwidthAll(halfwidthNames);</code>
+     * </pre>
+     *
+     * @param halfwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code halfwidths} is null
+     * @since 5.6.0
+     */
+    public String[] toFullwidthAll(String[] halfwidths) {
+        return toFullwidthAll(halfwidths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts all values in the given array from halfwidth to fullwidth splitting the work with fork/join in the given pool.
+     * A small array is converted in the calling thread.
+     * @param halfwidths values to convert. {@code null} elements are converted to {@code null}.
+     * @param forkJoinPool pool to convert the values in parallel. it is not shut down by this method.
+     * @return converted values in the same order
+     * @throws IllegalArgumentException if {@code halfwidths} or {@code forkJoinPool} is null
+     * @since 5.6.0
+     */
+    public String[] toFullwidthAll(String[] halfwidths,
+            ForkJoinPool forkJoinPool) {
+        return ConversionTask.convert(this, halfwidths, true, forkJoinPool);
+    }
+
+    /**
+     * Returns a {@link Spliterator} which converts from halfwidth to fullwidth the elements of the given {@link Spliterator}.
+     * The returned spliterator can be split as the given one, so that it can be converted in a parallel stream like
+     * {@code StreamSupport.stream(converter.fullwidthSpliterator(names.spliterator()), true)}.
+     * @param halfwidths spliterator of values to convert
+     * @return spliterator of converted values
+     * @since 5.6.0
+     */
+    public Spliterator<String> fullwidthSpliterator(
+            Spliterator<String> halfwidths) {
+        return new FullHalfSpliterator(halfwidths, this, true);
+    }
+
+    /**
+     * Converts from halfwidth to fullwidth as much as possible with the given mapping table, and appends the result to the
+     * given {@link Appendable}.
+     * @param halfwidth characters to convert. if null, nothing is appended.
+     * @param out destination of the converted characters
+     * @throws IOException if an I/O error occurs in the destination
+     * @since 5.6.0
+     */
+    public void toFullwidth(CharSequence halfwidth,
+            Appendable out) throws IOException {
+        if (halfwidth == null) {
+            return;
+        }
+        int start = indexOfFullwidthChange(halfwidth);
+        if (start < 0) {
+            out.append(halfwidth);
+            return;
+        }
+        out.append(halfwidth, 0, start);
+        appendFullwidth(halfwidth, start, halfwidth.length(), true, out);
+    }
+
+    /**
+     * Converts from halfwidth to fullwidth all characters read from the given {@link Reader}, and writes the result to the given
+     * {@link Writer}. Characters are processed in constant memory, and a character followed by an appendable character (e.g.
+     * {@code "ｶ"} and {@code "ﾞ"}) is composed even if they are read separately. Neither the reader nor the writer is closed.
+     * @param in source of characters to convert
+     * @param out destination of the converted characters
+     * @throws IOException if an I/O error occurs
+     * @since 5.6.0
+     */
+    public void toFullwidth(Reader in, Writer out) throws IOException {
+        transfer(fullwidthReader(in), out);
+    }
+
+    /**
+     * Returns a {@link Reader} which converts from halfwidth to fullwidth the characters read from the given {@link Reader}. A
+     * character followed by an appendable character (e.g. {@code "ｶ"} and {@code "ﾞ"}) is composed even if they are read
+     * separately. Closing the returned reader closes the given reader.
+     * @param in source of characters to convert
+     * @return reader of the converted characters
+     * @since 5.6.0
+     */
+    public Reader fullwidthReader(Reader in) {
+        return new FullHalfReader(in, this, true);
+    }
+
+    /**
+     * Converts the given value.
+     * @param value value to convert
+     * @param toFullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     * @return converted value. if the given value is null or empty, or no character is converted, returns as it is.
+     */
+    String convert(String value, boolean toFullwidth) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int start = toFullwidth ? indexOfFullwidthChange(value)
+                : indexOfHalfwidthChange(value);
+        if (start < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        builder.append(value, 0, start);
+        try {
+            if (toFullwidth) {
+                appendFullwidth(value, start, value.length(), true, builder);
+            } else {
+                appendHalfwidth(value, start, value.length(), true, builder);
             }
-            // poll the previous string from buffer
-            String prev = buffer.poll();
-            // check if the target character is appendable
-            if (predicate.isAppendable(c)) {
-                // check if "previous string"+"appendable char" is contained in the mapping table
-                FullHalfPair pair = this.halfwidthMap.get(prev + s);
-                if (pair != null) {
-                    // append the concatenated string
-                    builder.append(pair.fullwidth());
-                } else {
-                    // append fullwidth of the previous string and current string
-                    builder.append(fullwidth(prev));
-                    builder.append(fullwidth(s));
+        } catch (IOException e) {
+            // never happens with StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the index of the first character which is converted to halfwidth.
+     * @param fullwidth characters to scan
+     * @return index of the first character to convert, or {@code -1} if no character is converted
+     */
+    private int indexOfHalfwidthChange(CharSequence fullwidth) {
+        int len = fullwidth.length();
+        for (int i = 0; i < len; i++) {
+            if (this.fullwidthTrie.longestMatch(fullwidth, i, len) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index from which the conversion to fullwidth has to be started, i.e. the first character of the first step
+     * of {@link #appendFullwidth(CharSequence, int, int, boolean, Appendable)} which converts something. The characters are
+     * stepped in the same way as the conversion, so that the conversion from the returned index gives the same result as the
+     * conversion from the beginning.
+     * @param halfwidth characters to scan
+     * @return index to start the conversion, or {@code -1} if no character is converted
+     */
+    private int indexOfFullwidthChange(CharSequence halfwidth) {
+        int len = halfwidth.length();
+        int i = 0;
+        while (i < len) {
+            if (this.halfwidthTrie.longestMatch(halfwidth, i, len) != null) {
+                return i;
+            }
+            i++;
+            if (i < len && predicate.isAppendable(halfwidth.charAt(i))) {
+                if (this.halfwidthTrie.get(halfwidth.charAt(i)) != null) {
+                    return i - 1;
                 }
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts from fullwidth to halfwidth the characters in the given range and appends them. If {@code endOfInput} is
+     * {@code false}, the last characters in the range which may be a part of a longer fullwidth are left unconverted.
+     * @param fullwidth characters to convert
+     * @param start start index (inclusive)
+     * @param end end index (exclusive)
+     * @param endOfInput whether no character follows the range
+     * @param out destination
+     * @return index of the first character which is not converted
+     * @throws IOException if an I/O error occurs in the destination
+     */
+    int appendHalfwidth(CharSequence fullwidth, int start, int end,
+            boolean endOfInput, Appendable out) throws IOException {
+        int lookahead = this.fullwidthTrie.maxLength();
+        int i = start;
+        while (i < end) {
+            if (!endOfInput && end - i < lookahead) {
+                // wait for the next characters
+                break;
+            }
+            CharTrie.Node match = this.fullwidthTrie.longestMatch(fullwidth, i,
+                    end);
+            if (match != null) {
+                out.append(match.value);
+                i += match.length;
             } else {
-                // append fullwidth of the previous string and put current string into the buffer
-                builder.append(fullwidth(prev));
-                buffer.add(s);
+                out.append(fullwidth.charAt(i));
+                i++;
             }
         }
-        // append the string in the buffer if exists
-        if (!buffer.isEmpty()) {
-            builder.append(fullwidth(buffer.poll()));
+        return i;
+    }
+
+    /**
+     * Converts from halfwidth to fullwidth the characters in the given range and appends them. If {@code endOfInput} is
+     * {@code false}, the last characters in the range which may be a part of a longer halfwidth or followed by an appendable
+     * character are left unconverted.
+     * @param halfwidth characters to convert
+     * @param start start index (inclusive)
+     * @param end end index (exclusive)
+     * @param endOfInput whether no character follows the range
+     * @param out destination
+     * @return index of the first character which is not converted
+     * @throws IOException if an I/O error occurs in the destination
+     */
+    int appendFullwidth(CharSequence halfwidth, int start, int end,
+            boolean endOfInput, Appendable out) throws IOException {
+        int lookahead = Math.max(this.halfwidthTrie.maxLength(), 2);
+        int i = start;
+        while (i < end) {
+            if (!endOfInput && end - i < lookahead) {
+                // wait for the next characters
+                break;
+            }
+            CharTrie.Node match = this.halfwidthTrie.longestMatch(halfwidth, i,
+                    end);
+            if (match != null && match.length > 1) {
+                // append the concatenated string like "ｶ"+"ﾞ"
+                out.append(match.value);
+                i += match.length;
+                continue;
+            }
+            if (match != null) {
+                out.append(match.value);
+            } else {
+                out.append(halfwidth.charAt(i));
+            }
+            i++;
+            if (i < end && predicate.isAppendable(halfwidth.charAt(i))) {
+                // append fullwidth of the appendable character following the current character
+                appendFullwidth(halfwidth.charAt(i), out);
+                i++;
+            }
         }
-        return builder.toString();
+        return i;
     }
 
     /**
-     * Returns fullwidth string if the given halfwidth string exists in the pairs
-     * @param s halfwidth
-     * @return fullwidth for the given halfwidth
+     * Returns the number of characters which a streaming conversion has to look ahead at most.
+     * @return number of characters
      */
-    private String fullwidth(String s) {
-        FullHalfPair pair = this.halfwidthMap.get(s);
-        if (pair != null) {
-            return pair.fullwidth();
+    int lookahead() {
+        return Math.max(Math.max(this.fullwidthTrie.maxLength(),
+                this.halfwidthTrie.maxLength()), 2);
+    }
+
+    /**
+     * Appends fullwidth string if the given halfwidth character exists in the pairs, otherwise the character as it is
+     * @param c halfwidth
+     * @param out destination
+     * @throws IOException if an I/O error occurs in the destination
+     */
+    private void appendFullwidth(char c, Appendable out) throws IOException {
+        String fullwidth = this.halfwidthTrie.get(c);
+        if (fullwidth != null) {
+            out.append(fullwidth);
         } else {
-            return s;
+            out.append(c);
         }
     }
 
     /**
-     * Returns halfwidth string if the given fullwidth string exists in the pairs
-     * @param s fullwidth
-     * @return halfwidth for the given fullwidth
+     * Copies all characters from the given reader to the given writer.
+     * @param in source
+     * @param out destination
+     * @throws IOException if an I/O error occurs
      */
-    private String halfwidth(String s) {
-        FullHalfPair pair = this.fullwidthMap.get(s);
-        if (pair != null) {
-            return pair.halfwidth();
-        } else {
-            return s;
+    private static void transfer(Reader in, Writer out) throws IOException {
+        char[] buffer = new char[FullHalfReader.BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    /**
+     * Key of {@link #CACHE} which is a snapshot of {@link FullHalfPairs}. The order of pairs is significant because the former is
+     * preferred.
+     */
+    private static final class PairsKey {
+
+        /**
+         * pairs in order.
+         */
+        private final List<FullHalfPair> pairs;
+
+        /**
+         * predicate.
+         */
+        private final FullHalfPairs.AppendablePredicate predicate;
+
+        /**
+         * Constructor.
+         * @param pairs pairs to copy
+         */
+        PairsKey(FullHalfPairs pairs) {
+            this.pairs = new ArrayList<FullHalfPair>(pairs.pairs());
+            this.predicate = pairs.predicate();
+        }
+
+        /**
+         * equals method
+         * @param o object to check
+         * @return {@code true} if the given object has equal pairs in the same order and the same predicate
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PairsKey)) {
+                return false;
+            }
+            PairsKey that = (PairsKey) o;
+            return predicate.equals(that.predicate) && pairs.equals(that.pairs);
+        }
+
+        /**
+         * hash code of the instance
+         * @return hash code
+         */
+        @Override
+        public int hashCode() {
+            return 31 * predicate.hashCode() + pairs.hashCode();
+        }
+    }
+
+    /**
+     * Weak reference to a converter in {@link #CACHE}, which remembers its key to be removed when cleared.
+     */
+    private static final class ConverterReference extends
+                                                  WeakReference<FullHalfConverter> {
+
+        /**
+         * key of the entry.
+         */
+        private final PairsKey key;
+
+        /**
+         * Constructor.
+         * @param key key of the entry
+         * @param converter converter to refer
+         */
+        ConverterReference(PairsKey key, FullHalfConverter converter) {
+            super(converter, CLEARED);
+            this.key = key;
         }
     }
 }
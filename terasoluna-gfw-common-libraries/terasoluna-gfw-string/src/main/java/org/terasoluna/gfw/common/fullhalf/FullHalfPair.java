@@ -42,19 +42,80 @@ public final class FullHalfPair implements Serializable {
      * @throws IllegalArgumentException if fullwidth or halfwidth is null or the length is invalid.
      */
     public FullHalfPair(String fullwidth, String halfwidth) {
-        if (fullwidth == null || fullwidth.length() != 1) {
-            throw new IllegalArgumentException("fullwidth must be 1 length string (fullwidth = "
-                    + fullwidth + ")");
-        }
-        if (halfwidth == null || (halfwidth.length() != 1 && halfwidth
-                .length() != 2)) {
-            throw new IllegalArgumentException("halfwidth must be 1 or 2 length string (halfwidth = "
-                    + halfwidth + ")");
+        this(fullwidth, halfwidth, false);
+    }
+
+    /**
+     * Constructor.
+     * @param fullwidth fullwidth of the pair
+     * @param halfwidth halfwidth of the pair
+     * @param sequence whether the pair is validated as character sequences instead of characters
+     * @throws IllegalArgumentException if fullwidth or halfwidth is invalid
+     */
+    private FullHalfPair(String fullwidth, String halfwidth, boolean sequence) {
+        if (sequence) {
+            if (!isValid(fullwidth)) {
+                throw new IllegalArgumentException("fullwidth must be non-empty string without unpaired surrogates (fullwidth = "
+                        + fullwidth + ")");
+            }
+            if (!isValid(halfwidth)) {
+                throw new IllegalArgumentException("halfwidth must be non-empty string without unpaired surrogates (halfwidth = "
+                        + halfwidth + ")");
+            }
+        } else {
+            if (fullwidth == null || fullwidth.length() != 1) {
+                throw new IllegalArgumentException("fullwidth must be 1 length string (fullwidth = "
+                        + fullwidth + ")");
+            }
+            if (halfwidth == null || (halfwidth.length() != 1 && halfwidth
+                    .length() != 2)) {
+                throw new IllegalArgumentException("halfwidth must be 1 or 2 length string (halfwidth = "
+                        + halfwidth + ")");
+            }
         }
         this.fullwidth = fullwidth;
         this.halfwidth = halfwidth;
     }
 
+    /**
+     * Creates a pair of character sequences, such as supplementary characters or a base character followed by combining
+     * characters.
+     * @param fullwidth fullwidth of the pair. must not be null nor empty, and must not contain unpaired surrogates.
+     * @param halfwidth halfwidth of the pair. must not be null nor empty, and must not contain unpaired surrogates.
+     * @return pair of the given character sequences
+     * @throws IllegalArgumentException if fullwidth or halfwidth is null, empty or contains unpaired surrogates.
+     * @see FullHalfPairsBuilder#sequence(String, String)
+     * @since 5.6.0
+     */
+    static FullHalfPair sequence(String fullwidth, String halfwidth) {
+        return new FullHalfPair(fullwidth, halfwidth, true);
+    }
+
+    /**
+     * returns whether the given string is non-empty and has no unpaired surrogates
+     * @param s string to check
+     * @return whether the given string is valid
+     */
+    private static boolean isValid(String s) {
+        if (s == null || s.isEmpty()) {
+            return false;
+        }
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 >= len || !Character.isLowSurrogate(s.charAt(i
+                        + 1))) {
+                    return false;
+                }
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * returns fullwidth of the pair
      * @return fullwidth of the pair
@@ -22,6 +22,11 @@ import java.util.Set;
  * @since 5.1.0
  */
 public class FullHalfPairs {
+    /**
+     * The default predicate which regards <code>ﾞ</code> and <code>ﾟ</code> as appendable characters.
+     */
+    static final AppendablePredicate DEFAULT_PREDICATE = new DefaultAppendablePredicate();
+
     /**
      * The set of {@link FullHalfPair}s
      */
@@ -49,13 +54,7 @@ public class FullHalfPairs {
             throw new IllegalArgumentException("pairs must not be empty");
         }
         this.pairs = pairs;
-        this.predicate = predicate != null ? predicate
-                : new AppendablePredicate() {
-                    @Override
-                    public boolean isAppendable(char c) {
-                        return c == 'ﾞ' || c == 'ﾟ';
-                    }
-                };
+        this.predicate = predicate != null ? predicate : DEFAULT_PREDICATE;
     }
 
     /**
@@ -85,4 +84,18 @@ public class FullHalfPairs {
          */
         boolean isAppendable(char c);
     }
+
+    /**
+     * The default predicate which regards <code>ﾞ</code> and <code>ﾟ</code> as appendable characters.
+     */
+    private static final class DefaultAppendablePredicate implements
+                                                          AppendablePredicate {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isAppendable(char c) {
+            return c == 'ﾞ' || c == 'ﾟ';
+        }
+    }
 }
@@ -44,6 +44,21 @@ public final class FullHalfPairsBuilder {
         return this;
     }
 
+    /**
+     * Add {@link FullHalfPair} of character sequences from the given strings. Unlike {@link #pair(String, String)}, both
+     * fullwidth and halfwidth can be any length, e.g. a supplementary character or a base character followed by combining
+     * characters.
+     * @param fullwidth fullwidth of the pair. must not be null nor empty, and must not contain unpaired surrogates.
+     * @param halfwidth halfwidth of the pair. must not be null nor empty, and must not contain unpaired surrogates.
+     * @return this instance
+     * @throws IllegalArgumentException if fullwidth or halfwidth is null, empty or contains unpaired surrogates.
+     * @since 5.6.0
+     */
+    public FullHalfPairsBuilder sequence(String fullwidth, String halfwidth) {
+        this.pairs.add(FullHalfPair.sequence(fullwidth, halfwidth));
+        return this;
+    }
+
     /**
      * Set the predicate to check whether the given character is appendable.
      * @param predicate the predicate to check whether the given character is appendable.
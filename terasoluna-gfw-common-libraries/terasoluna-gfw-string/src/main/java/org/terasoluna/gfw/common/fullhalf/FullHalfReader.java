@@ -0,0 +1,222 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * {@link FilterReader} which converts the characters read from the underlying reader with a {@link FullHalfConverter}.
+ * <p>
+ * The last characters of a buffer which may be a part of a longer mapping are held back until the next characters are read,
+ * so that a sequence (e.g. {@code "ｶ"} and {@code "ﾞ"}) is converted even if it is split by a buffer boundary. This class
+ * does not support {@link #mark(int)}.
+ * </p>
+ * @since 5.6.0
+ */
+final class FullHalfReader extends FilterReader {
+
+    /**
+     * size of the buffer to read from the underlying reader.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * converter.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private final boolean fullwidth;
+
+    /**
+     * characters read from the underlying reader.
+     */
+    private final char[] buffer;
+
+    /**
+     * {@link CharSequence} view of {@link #buffer}.
+     */
+    private final CharBuffer source;
+
+    /**
+     * number of characters in {@link #buffer} which are held back to the next conversion.
+     */
+    private int remaining;
+
+    /**
+     * converted characters.
+     */
+    private final StringBuilder converted = new StringBuilder(BUFFER_SIZE);
+
+    /**
+     * index of the next character to return in {@link #converted}.
+     */
+    private int position;
+
+    /**
+     * whether the underlying reader reached the end of the stream.
+     */
+    private boolean endOfInput;
+
+    /**
+     * Constructor.
+     * @param in underlying reader
+     * @param converter converter
+     * @param fullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     */
+    FullHalfReader(Reader in, FullHalfConverter converter, boolean fullwidth) {
+        super(in);
+        this.converter = converter;
+        this.fullwidth = fullwidth;
+        // characters left unconverted must not fill the buffer
+        this.buffer = new char[Math.max(BUFFER_SIZE, converter.lookahead()
+                * 2)];
+        this.source = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        synchronized (lock) {
+            if (!fill()) {
+                return -1;
+            }
+            return converted.charAt(position++);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        synchronized (lock) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, converted.length() - position);
+            converted.getChars(position, position + n, cbuf, off);
+            position += n;
+            return n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0L) {
+            throw new IllegalArgumentException("skip value is negative");
+        }
+        synchronized (lock) {
+            long skipped = 0;
+            while (skipped < n && fill()) {
+                int count = (int) Math.min(n - skipped, converted.length()
+                        - position);
+                position += count;
+                skipped += count;
+            }
+            return skipped;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean ready() throws IOException {
+        synchronized (lock) {
+            return position < converted.length() || in.ready();
+        }
+    }
+
+    /**
+     * returns {@code false} because mark is not supported.
+     * @return {@code false}
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * not supported.
+     * @param readAheadLimit ignored
+     * @throws IOException always
+     */
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    /**
+     * not supported.
+     * @throws IOException always
+     */
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    /**
+     * converts the next characters if all converted characters have been returned.
+     * @return {@code false} if no more characters are available
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean fill() throws IOException {
+        while (position == converted.length()) {
+            if (endOfInput) {
+                return false;
+            }
+            converted.setLength(0);
+            position = 0;
+            int n = in.read(buffer, remaining, buffer.length - remaining);
+            int end;
+            if (n < 0) {
+                endOfInput = true;
+                end = remaining;
+            } else {
+                end = remaining + n;
+            }
+            int consumed;
+            if (fullwidth) {
+                consumed = converter.appendFullwidth(source, 0, end, endOfInput,
+                        converted);
+            } else {
+                consumed = converter.appendHalfwidth(source, 0, end, endOfInput,
+                        converted);
+            }
+            // keep the characters waiting for the next characters at the head of the buffer
+            remaining = end - consumed;
+            System.arraycopy(buffer, consumed, buffer, 0, remaining);
+        }
+        return true;
+    }
+}
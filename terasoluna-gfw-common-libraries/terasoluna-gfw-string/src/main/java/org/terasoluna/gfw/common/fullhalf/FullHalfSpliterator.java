@@ -0,0 +1,126 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} which converts the elements of the underlying spliterator with a {@link FullHalfConverter}.
+ * @since 5.6.0
+ */
+final class FullHalfSpliterator implements Spliterator<String>,
+                                Consumer<String> {
+
+    /**
+     * underlying spliterator.
+     */
+    private final Spliterator<String> source;
+
+    /**
+     * converter.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private final boolean fullwidth;
+
+    /**
+     * action which receives converted values in the current traversal.
+     */
+    private Consumer<? super String> action;
+
+    /**
+     * Constructor.
+     * @param source underlying spliterator
+     * @param converter converter
+     * @param fullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     */
+    FullHalfSpliterator(Spliterator<String> source, FullHalfConverter converter,
+            boolean fullwidth) {
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        this.source = source;
+        this.converter = converter;
+        this.fullwidth = fullwidth;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        this.action = action;
+        try {
+            return source.tryAdvance(this);
+        } finally {
+            this.action = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        this.action = action;
+        try {
+            source.forEachRemaining(this);
+        } finally {
+            this.action = null;
+        }
+    }
+
+    /**
+     * converts the given element and passes it to the action of the current traversal.
+     * @param value element of the underlying spliterator
+     */
+    @Override
+    public void accept(String value) {
+        action.accept(converter.convert(value, fullwidth));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<String> trySplit() {
+        Spliterator<String> split = source.trySplit();
+        return split == null ? null
+                : new FullHalfSpliterator(split, converter, fullwidth);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    /**
+     * returns the characteristics of the underlying spliterator except {@link #DISTINCT} and {@link #SORTED} which may be
+     * broken by conversion.
+     * @return characteristics
+     */
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(DISTINCT | SORTED);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import java.util.Locale;
+
+import org.springframework.format.Formatter;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * {@link Formatter} which converts a text to fullwidth or halfwidth when parsing it.
+ * <p>
+ * Printing returns the value as is, because the value held by the bound object has already been converted.
+ * </p>
+ * <p>
+ * When this formatter is registered to a {@link org.springframework.format.FormatterRegistry}, blank text is converted to
+ * {@code null} by the registry before reaching {@link #parse(String, Locale)}.
+ * </p>
+ * @since 5.6.0
+ */
+public final class FullHalfFormatter implements Formatter<String> {
+
+    /**
+     * converter used for conversion.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private final boolean fullwidth;
+
+    /**
+     * Constructor.
+     * @param converter converter used for conversion
+     * @param fullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     * @throws IllegalArgumentException if the given converter is {@code null}
+     */
+    public FullHalfFormatter(FullHalfConverter converter, boolean fullwidth) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
+        this.converter = converter;
+        this.fullwidth = fullwidth;
+    }
+
+    /**
+     * convert the given text.
+     * @param text text to convert
+     * @param locale locale (not used)
+     * @return converted text
+     */
+    @Override
+    public String parse(String text, Locale locale) {
+        return fullwidth ? converter.toFullwidth(text)
+                : converter.toHalfwidth(text);
+    }
+
+    /**
+     * returns the given value as is.
+     * @param object value to print
+     * @param locale locale (not used)
+     * @return the given value
+     */
+    @Override
+    public String print(String object, Locale locale) {
+        return object;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import org.springframework.format.FormatterRegistrar;
+import org.springframework.format.FormatterRegistry;
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * {@link FormatterRegistrar} which registers {@link FullWidthAnnotationFormatterFactory} and
+ * {@link HalfWidthAnnotationFormatterFactory} sharing one converter.
+ * <p>
+ * Setting example:
+ * </p>
+ *
+ * <pre>
+ * <code>&lt;mvc:annotation-driven conversion-service="conversionService" /&gt;
+ *
+ * &lt;bean id="conversionService"
+ *   class="org.springframework.format.support.FormattingConversionServiceFactoryBean"&gt;
+ *   &lt;property name="formatterRegistrars"&gt;
+ *     &lt;set&gt;
+ *       &lt;bean class="org.terasoluna.gfw.common.fullhalf.format.FullHalfFormatterRegistrar" /&gt;
+ *     &lt;/set&gt;
+ *   &lt;/property&gt;
+ * &lt;/bean&gt;</code>
+ * </pre>
+ * <p>
+ * {@link DefaultFullHalf#INSTANCE} is used unless another converter is set by {@link #setConverter(FullHalfConverter)}.
+ * </p>
+ * @since 5.6.0
+ */
+public class FullHalfFormatterRegistrar implements FormatterRegistrar {
+
+    /**
+     * converter shared by the registered factories.
+     */
+    private FullHalfConverter converter = DefaultFullHalf.INSTANCE;
+
+    /**
+     * set the converter shared by the registered factories.
+     * @param converter converter
+     * @throws IllegalArgumentException if the given converter is {@code null}
+     */
+    public void setConverter(FullHalfConverter converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
+        this.converter = converter;
+    }
+
+    /**
+     * register {@link FullWidthAnnotationFormatterFactory} and {@link HalfWidthAnnotationFormatterFactory}.
+     * @param registry registry
+     */
+    @Override
+    public void registerFormatters(FormatterRegistry registry) {
+        FullWidthAnnotationFormatterFactory fullWidth = new FullWidthAnnotationFormatterFactory();
+        fullWidth.setConverter(converter);
+        registry.addFormatterForFieldAnnotation(fullWidth);
+        HalfWidthAnnotationFormatterFactory halfWidth = new HalfWidthAnnotationFormatterFactory();
+        halfWidth.setConverter(converter);
+        registry.addFormatterForFieldAnnotation(halfWidth);
+    }
+}
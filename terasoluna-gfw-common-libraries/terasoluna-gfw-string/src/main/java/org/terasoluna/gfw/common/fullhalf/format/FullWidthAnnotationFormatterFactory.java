@@ -0,0 +1,75 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.springframework.format.AnnotationFormatterFactory;
+import org.springframework.format.Parser;
+import org.springframework.format.Printer;
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * {@link AnnotationFormatterFactory} which converts {@link String}s annotated with {@link FullWidth} to fullwidth.
+ * <p>
+ * {@link DefaultFullHalf#INSTANCE} is used unless another converter is set by {@link #setConverter(FullHalfConverter)}. The
+ * formatter is created once per converter and shared among all annotated fields.
+ * </p>
+ * @since 5.6.0
+ */
+public class FullWidthAnnotationFormatterFactory implements
+                                                 AnnotationFormatterFactory<FullWidth> {
+
+    /**
+     * formatter shared among all annotated fields.
+     */
+    private FullHalfFormatter formatter = new FullHalfFormatter(DefaultFullHalf.INSTANCE, true);
+
+    /**
+     * set the converter used for conversion.
+     * @param converter converter
+     * @throws IllegalArgumentException if the given converter is {@code null}
+     */
+    public void setConverter(FullHalfConverter converter) {
+        this.formatter = new FullHalfFormatter(converter, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Class<?>> getFieldTypes() {
+        return Collections.<Class<?>> singleton(String.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Printer<?> getPrinter(FullWidth annotation, Class<?> fieldType) {
+        return formatter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Parser<?> getParser(FullWidth annotation, Class<?> fieldType) {
+        return formatter;
+    }
+}
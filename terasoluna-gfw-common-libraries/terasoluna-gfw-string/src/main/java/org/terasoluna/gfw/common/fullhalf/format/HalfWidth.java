@@ -0,0 +1,46 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a {@link String} field is converted to halfwidth when it is bound from a request parameter.
+ * <p>
+ * The value is converted once by {@link HalfWidthAnnotationFormatterFactory} at data binding, so that validators and services
+ * receive the halfwidth value and need not convert it again. The factory has to be registered to the
+ * {@link org.springframework.format.FormatterRegistry} (e.g. by {@link FullHalfFormatterRegistrar}).
+ * </p>
+ * <p>
+ * Note that a blank value (empty or only whitespace such as {@code " "} or U+3000 IDEOGRAPHIC SPACE) is bound as {@code null},
+ * because Spring's formatting conversion passes only text which has a non-whitespace character to the parser. Check blank
+ * values with {@code @NotNull} rather than {@code @NotEmpty}.
+ * </p>
+ * @since 5.6.0
+ */
+@Target({ METHOD, FIELD, ANNOTATION_TYPE, PARAMETER })
+@Retention(RUNTIME)
+@Documented
+public @interface HalfWidth {
+}
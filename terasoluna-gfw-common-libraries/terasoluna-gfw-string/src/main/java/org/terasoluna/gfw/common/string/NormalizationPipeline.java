@@ -0,0 +1,327 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.string;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.terasoluna.gfw.common.codepoints.CodePoints;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * Pipeline which normalizes a text and validates the normalized text in one pass.
+ * <p>
+ * The stages are applied in the following order, and each of them can be enabled with {@link NormalizationPipelineBuilder}:
+ * </p>
+ * <ol>
+ * <li>conversion from halfwidth to fullwidth or from fullwidth to halfwidth with {@link FullHalfConverter}</li>
+ * <li>trimming leading and trailing whitespaces</li>
+ * <li>validation whether the text consists of allowed {@link CodePoints}</li>
+ * <li>validation whether the byte length of the text does not exceed the max</li>
+ * </ol>
+ *
+ * <pre>
+ * <code>NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+ *   .toFullwidth(DefaultFullHalf.INSTANCE)
+ *   .trim()
+ *   .consistOf(CodePoints.of(JIS_X_0208_Katakana.class))
+ *   .maxByteLength(Charset.forName("Windows-31J"), 40)
+ *   .build();
+ * NormalizationResult result = pipeline.normalize(" ｶﾀｶﾅ ");
+ * result.getValue(); // "カタカナ"
+ * result.isValid(); // true</code>
+ * </pre>
+ * <p>
+ * The converted characters are checked as soon as they are appended to the result, so that the text is not scanned again
+ * after the conversion and no intermediate string is created. The byte length is counted arithmetically for UTF-8, and by
+ * encoding the result into a small buffer for other charsets. This class is immutable and thread-safe.
+ * </p>
+ * @since 5.6.0
+ */
+public final class NormalizationPipeline {
+
+    /**
+     * converter of fullwidth and halfwidth, or {@code null} not to convert.
+     */
+    private final FullHalfConverter converter;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private final boolean fullwidth;
+
+    /**
+     * whether to trim whitespaces.
+     */
+    private final boolean trim;
+
+    /**
+     * allowed code points, or {@code null} not to check.
+     */
+    private final CodePoints codePoints;
+
+    /**
+     * charset to count bytes, or {@code null} not to check.
+     */
+    private final Charset charset;
+
+    /**
+     * max byte length, or {@code -1} not to check.
+     */
+    private final int maxByteLength;
+
+    /**
+     * Constructor.
+     * @param converter converter of fullwidth and halfwidth, or {@code null} not to convert
+     * @param fullwidth {@code true} to convert to fullwidth, {@code false} to convert to halfwidth
+     * @param trim whether to trim whitespaces
+     * @param codePoints allowed code points, or {@code null} not to check
+     * @param charset charset to count bytes, or {@code null} not to check
+     * @param maxByteLength max byte length, or {@code -1} not to check
+     */
+    NormalizationPipeline(FullHalfConverter converter, boolean fullwidth,
+            boolean trim, CodePoints codePoints, Charset charset,
+            int maxByteLength) {
+        this.converter = converter;
+        this.fullwidth = fullwidth;
+        this.trim = trim;
+        this.codePoints = codePoints;
+        this.charset = charset;
+        this.maxByteLength = maxByteLength;
+    }
+
+    /**
+     * Normalizes and validates the given value.
+     * @param value value to normalize
+     * @return result which holds the normalized value and violations. if the given value is null, the value of the result is
+     *         null and it is valid.
+     */
+    public NormalizationResult normalize(String value) {
+        if (value == null) {
+            return new NormalizationResult(null, -1, -1, -1, -1);
+        }
+        Sink sink = new Sink(value.length());
+        try {
+            if (converter == null) {
+                sink.append(value);
+            } else if (fullwidth) {
+                converter.toFullwidth(value, sink);
+            } else {
+                converter.toHalfwidth(value, sink);
+            }
+        } catch (IOException e) {
+            // never happens with Sink
+            throw new IllegalStateException(e);
+        }
+        return sink.finish();
+    }
+
+    /**
+     * returns whether the given character is trimmed.
+     * @param c character to check
+     * @return {@code true} if the character is a whitespace
+     */
+    private static boolean isWhitespace(char c) {
+        return c <= ' ' || Character.isWhitespace(c);
+    }
+
+    /**
+     * returns the byte length of the given code point in UTF-8. An unpaired surrogate is counted as a replacement byte.
+     * @param codePoint code point
+     * @return byte length
+     */
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        } else if (codePoint < 0x800) {
+            return 2;
+        } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return Character.isSurrogate((char) codePoint) ? 1 : 3;
+        }
+        return 4;
+    }
+
+    /**
+     * returns the byte length of the given characters encoded with {@link #charset}. Malformed and unmappable characters are
+     * replaced as {@link String#getBytes(Charset)} does.
+     * @param s characters to encode
+     * @return byte length
+     */
+    private long encodedLength(CharSequence s) {
+        CharsetEncoder encoder = charset.newEncoder().onMalformedInput(
+                CodingErrorAction.REPLACE).onUnmappableCharacter(
+                        CodingErrorAction.REPLACE);
+        CharBuffer in = CharBuffer.wrap(s);
+        ByteBuffer out = ByteBuffer.allocate(256);
+        long length = 0;
+        CoderResult result;
+        do {
+            result = encoder.encode(in, out, true);
+            length += out.position();
+            out.clear();
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(out);
+            length += out.position();
+            out.clear();
+        } while (result.isOverflow());
+        return length;
+    }
+
+    /**
+     * {@link Appendable} which receives converted characters, trims them and checks them as soon as they are appended.
+     */
+    private final class Sink implements Appendable {
+
+        /**
+         * normalized characters.
+         */
+        private final StringBuilder buffer;
+
+        /**
+         * whether the byte length is counted while appending.
+         */
+        private final boolean countUtf8;
+
+        /**
+         * length of {@link #buffer} up to the last character which is not trimmed.
+         */
+        private int contentEnd;
+
+        /**
+         * length of {@link #buffer} which has been checked.
+         */
+        private int checked;
+
+        /**
+         * first excluded code point.
+         */
+        private int excludedCodePoint = -1;
+
+        /**
+         * index of the first excluded code point.
+         */
+        private int excludedIndex = -1;
+
+        /**
+         * byte length of the checked characters.
+         */
+        private long byteLength;
+
+        /**
+         * Constructor.
+         * @param capacity initial capacity
+         */
+        Sink(int capacity) {
+            this.buffer = new StringBuilder(capacity);
+            this.countUtf8 = StandardCharsets.UTF_8.equals(charset);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Appendable append(char c) {
+            if (trim && isWhitespace(c)) {
+                // leading whitespaces are dropped, and trailing ones are checked when a character follows
+                if (buffer.length() > 0) {
+                    buffer.append(c);
+                }
+                return this;
+            }
+            buffer.append(c);
+            contentEnd = buffer.length();
+            check(false);
+            return this;
+        }
+
+        /**
+         * checks the characters which are appended and not trimmed.
+         * @param finish whether no character will be appended
+         */
+        private void check(boolean finish) {
+            if (codePoints == null && !countUtf8) {
+                checked = contentEnd;
+                return;
+            }
+            int end = contentEnd;
+            if (!finish && Character.isHighSurrogate(buffer.charAt(end - 1))) {
+                // wait for the low surrogate
+                end--;
+            }
+            int i = checked;
+            while (i < end) {
+                int codePoint = Character.codePointAt(buffer, i);
+                if (excludedIndex < 0 && codePoints != null && !codePoints
+                        .contains(codePoint)) {
+                    excludedCodePoint = codePoint;
+                    excludedIndex = i;
+                }
+                if (countUtf8) {
+                    byteLength += utf8Length(codePoint);
+                }
+                i += Character.charCount(codePoint);
+            }
+            checked = i;
+        }
+
+        /**
+         * finishes the normalization.
+         * @return result
+         */
+        NormalizationResult finish() {
+            if (trim) {
+                buffer.setLength(contentEnd);
+            } else {
+                contentEnd = buffer.length();
+            }
+            check(true);
+            if (charset == null) {
+                return new NormalizationResult(buffer
+                        .toString(), excludedCodePoint, excludedIndex, -1, -1);
+            }
+            long length = countUtf8 ? byteLength : encodedLength(buffer);
+            return new NormalizationResult(buffer
+                    .toString(), excludedCodePoint, excludedIndex, (int) Math
+                            .min(length, Integer.MAX_VALUE), maxByteLength);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.string;
+
+import java.nio.charset.Charset;
+
+import org.terasoluna.gfw.common.codepoints.CodePoints;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+
+/**
+ * Builder to create {@link NormalizationPipeline}.
+ * @since 5.6.0
+ */
+public final class NormalizationPipelineBuilder {
+
+    /**
+     * converter of fullwidth and halfwidth.
+     */
+    private FullHalfConverter converter;
+
+    /**
+     * {@code true} to convert to fullwidth, {@code false} to convert to halfwidth.
+     */
+    private boolean fullwidth;
+
+    /**
+     * whether to trim whitespaces.
+     */
+    private boolean trim;
+
+    /**
+     * allowed code points.
+     */
+    private CodePoints codePoints;
+
+    /**
+     * charset to count bytes.
+     */
+    private Charset charset;
+
+    /**
+     * max byte length.
+     */
+    private int maxByteLength = -1;
+
+    /**
+     * Converts the value from halfwidth to fullwidth.
+     * @param converter converter to use
+     * @return this instance
+     * @throws IllegalArgumentException if the converter is null
+     */
+    public NormalizationPipelineBuilder toFullwidth(
+            FullHalfConverter converter) {
+        return convert(converter, true);
+    }
+
+    /**
+     * Converts the value from fullwidth to halfwidth.
+     * @param converter converter to use
+     * @return this instance
+     * @throws IllegalArgumentException if the converter is null
+     */
+    public NormalizationPipelineBuilder toHalfwidth(
+            FullHalfConverter converter) {
+        return convert(converter, false);
+    }
+
+    /**
+     * Removes leading and trailing whitespaces (characters not greater than {@code U+0020} and characters for which
+     * {@link Character#isWhitespace(char)} returns {@code true}, such as {@code U+3000}) from the converted value.
+     * @return this instance
+     */
+    public NormalizationPipelineBuilder trim() {
+        this.trim = true;
+        return this;
+    }
+
+    /**
+     * Checks whether the normalized value consists of the code points included in any of the given {@link CodePoints}.
+     * <p>
+     * {@code terasoluna-gfw-codepoints} is required on the classpath.
+     * </p>
+     * @param codePoints allowed code points
+     * @return this instance
+     * @throws IllegalArgumentException if no code points is given
+     */
+    public NormalizationPipelineBuilder consistOf(CodePoints... codePoints) {
+        if (codePoints == null || codePoints.length == 0) {
+            throw new IllegalArgumentException("codePoints must not be empty");
+        }
+        CodePoints union = codePoints[0];
+        for (int i = 1; i < codePoints.length; i++) {
+            union = union.union(codePoints[i]);
+        }
+        this.codePoints = union;
+        return this;
+    }
+
+    /**
+     * Checks whether the byte length of the normalized value encoded with the given charset does not exceed the given max.
+     * @param charset charset to encode
+     * @param maxByteLength max byte length
+     * @return this instance
+     * @throws IllegalArgumentException if the charset is null or the max byte length is negative
+     */
+    public NormalizationPipelineBuilder maxByteLength(Charset charset,
+            int maxByteLength) {
+        if (charset == null) {
+            throw new IllegalArgumentException("charset must not be null");
+        }
+        if (maxByteLength < 0) {
+            throw new IllegalArgumentException("maxByteLength must not be negative");
+        }
+        this.charset = charset;
+        this.maxByteLength = maxByteLength;
+        return this;
+    }
+
+    /**
+     * create {@link NormalizationPipeline}
+     * @return {@link NormalizationPipeline} instance
+     */
+    public NormalizationPipeline build() {
+        return new NormalizationPipeline(converter, fullwidth, trim, codePoints, charset, maxByteLength);
+    }
+
+    /**
+     * set the converter.
+     * @param converter converter to use
+     * @param fullwidth {@code true} to convert to fullwidth
+     * @return this instance
+     */
+    private NormalizationPipelineBuilder convert(FullHalfConverter converter,
+            boolean fullwidth) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
+        this.converter = converter;
+        this.fullwidth = fullwidth;
+        return this;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.string;
+
+import java.io.Serializable;
+
+/**
+ * Result of {@link NormalizationPipeline#normalize(String)} which holds the normalized value and violations found in it.
+ * @since 5.6.0
+ */
+public final class NormalizationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * normalized value.
+     */
+    private final String value;
+
+    /**
+     * first code point not included in the allowed code points, or {@code -1}.
+     */
+    private final int excludedCodePoint;
+
+    /**
+     * index of {@link #excludedCodePoint} in the normalized value, or {@code -1}.
+     */
+    private final int excludedIndex;
+
+    /**
+     * byte length of the normalized value, or {@code -1} if not checked.
+     */
+    private final int byteLength;
+
+    /**
+     * max byte length, or {@code -1} if not checked.
+     */
+    private final int maxByteLength;
+
+    /**
+     * Constructor.
+     * @param value normalized value
+     * @param excludedCodePoint first code point not included in the allowed code points, or {@code -1}
+     * @param excludedIndex index of the excluded code point, or {@code -1}
+     * @param byteLength byte length of the normalized value, or {@code -1} if not checked
+     * @param maxByteLength max byte length, or {@code -1} if not checked
+     */
+    NormalizationResult(String value, int excludedCodePoint, int excludedIndex,
+            int byteLength, int maxByteLength) {
+        this.value = value;
+        this.excludedCodePoint = excludedCodePoint;
+        this.excludedIndex = excludedIndex;
+        this.byteLength = byteLength;
+        this.maxByteLength = maxByteLength;
+    }
+
+    /**
+     * returns the normalized value.
+     * @return normalized value. {@code null} if the input is {@code null}.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * returns whether no violation is found.
+     * @return {@code true} if the normalized value consists of the allowed code points and does not exceed the max byte length
+     */
+    public boolean isValid() {
+        return !hasExcludedCodePoint() && !isByteLengthExceeded();
+    }
+
+    /**
+     * returns whether the normalized value has a code point not included in the allowed code points.
+     * @return {@code true} if an excluded code point is found
+     */
+    public boolean hasExcludedCodePoint() {
+        return excludedIndex >= 0;
+    }
+
+    /**
+     * returns the first code point not included in the allowed code points.
+     * @return excluded code point, or {@code -1} if not found
+     */
+    public int getExcludedCodePoint() {
+        return excludedCodePoint;
+    }
+
+    /**
+     * returns the index of the first code point not included in the allowed code points.
+     * @return index in the normalized value, or {@code -1} if not found
+     */
+    public int getExcludedIndex() {
+        return excludedIndex;
+    }
+
+    /**
+     * returns whether the byte length of the normalized value exceeds the max byte length.
+     * @return {@code true} if the max byte length is exceeded
+     */
+    public boolean isByteLengthExceeded() {
+        return maxByteLength >= 0 && byteLength > maxByteLength;
+    }
+
+    /**
+     * returns the byte length of the normalized value.
+     * @return byte length, or {@code -1} if the byte length is not checked
+     */
+    public int getByteLength() {
+        return byteLength;
+    }
+
+    /**
+     * returns the string representation.
+     * @return string representation
+     */
+    @Override
+    public String toString() {
+        return "NormalizationResult [value=" + value + ", excludedCodePoint="
+                + excludedCodePoint + ", excludedIndex=" + excludedIndex
+                + ", byteLength=" + byteLength + ", maxByteLength="
+                + maxByteLength + "]";
+    }
+}
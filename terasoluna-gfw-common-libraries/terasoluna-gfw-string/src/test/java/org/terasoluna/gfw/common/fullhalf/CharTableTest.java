@@ -0,0 +1,56 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class CharTableTest {
+
+    @Test
+    public void testGet_notMapped() {
+        CharTable<String> table = new CharTable<String>();
+        assertThat(table.get('a'), is(nullValue()));
+        assertThat(table.get('\u0000'), is(nullValue()));
+        assertThat(table.get('￿'), is(nullValue()));
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        CharTable<String> table = new CharTable<String>();
+        table.putIfAbsent('\u0000', "min");
+        table.putIfAbsent('￿', "max");
+        table.putIfAbsent('ｱ', "ア");
+
+        assertThat(table.get('\u0000'), is("min"));
+        assertThat(table.get('￿'), is("max"));
+        assertThat(table.get('ｱ'), is("ア"));
+        assertThat(table.get('ｲ'), is(nullValue()));
+        assertThat(table.get('\u0001'), is(nullValue()));
+    }
+
+    @Test
+    public void testPutIfAbsent_firstIsPrior() {
+        CharTable<String> table = new CharTable<String>();
+        table.putIfAbsent('-', "‐");
+        table.putIfAbsent('-', "－");
+
+        assertThat(table.get('-'), is("‐"));
+    }
+}
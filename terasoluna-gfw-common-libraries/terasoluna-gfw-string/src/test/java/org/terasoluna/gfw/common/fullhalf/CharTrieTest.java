@@ -0,0 +1,91 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class CharTrieTest {
+
+    @Test
+    public void testGet() {
+        CharTrie trie = new CharTrie();
+        trie.putIfAbsent("\u0000", "min");
+        trie.putIfAbsent("￿", "max");
+        trie.putIfAbsent("ｶﾞ", "ガ");
+
+        assertThat(trie.get('\u0000'), is("min"));
+        assertThat(trie.get('￿'), is("max"));
+        assertThat(trie.get('ｶ'), is(nullValue()));
+        assertThat(trie.get('a'), is(nullValue()));
+    }
+
+    @Test
+    public void testPutIfAbsent_firstIsPrior() {
+        CharTrie trie = new CharTrie();
+        trie.putIfAbsent("-", "‐");
+        trie.putIfAbsent("-", "－");
+        trie.putIfAbsent("ab", "1");
+        trie.putIfAbsent("ab", "2");
+
+        assertThat(trie.get('-'), is("‐"));
+        assertThat(trie.longestMatch("ab", 0, 2).value, is("1"));
+    }
+
+    @Test
+    public void testLongestMatch() {
+        CharTrie trie = new CharTrie();
+        trie.putIfAbsent("a", "1");
+        trie.putIfAbsent("abc", "3");
+        trie.putIfAbsent("abcde", "5");
+        trie.putIfAbsent("b", "b");
+        trie.putIfAbsent("ba", "ba");
+
+        assertThat(trie.maxLength(), is(5));
+        assertThat(trie.longestMatch("abcdx", 0, 5).value, is("3"));
+        assertThat(trie.longestMatch("abcdx", 0, 5).length, is(3));
+        assertThat(trie.longestMatch("abcde", 0, 5).value, is("5"));
+        assertThat(trie.longestMatch("abx", 0, 3).value, is("1"));
+        assertThat(trie.longestMatch("xabcde", 1, 4).value, is("3"));
+        assertThat(trie.longestMatch("xbab", 1, 4).value, is("ba"));
+        assertThat(trie.longestMatch("xbab", 1, 2).value, is("b"));
+        assertThat(trie.longestMatch("xbab", 0, 4), is(nullValue()));
+        assertThat(trie.longestMatch("c", 0, 1), is(nullValue()));
+    }
+
+    @Test
+    public void testLongestMatch_supplementary() {
+        CharTrie trie = new CharTrie();
+        trie.putIfAbsent("𠮟", "叱");
+        trie.putIfAbsent("𠮷", "吉");
+
+        assertThat(trie.longestMatch("𠮷野家", 0, 4).value, is("吉"));
+        assertThat(trie.longestMatch("𠮟", 0, 2).value, is("叱"));
+        assertThat(trie.longestMatch("𠮟", 0, 1), is(nullValue()));
+        assertThat(trie.longestMatch("𠮟", 1, 2), is(nullValue()));
+    }
+
+    @Test
+    public void testEmpty() {
+        CharTrie trie = new CharTrie();
+
+        assertThat(trie.maxLength(), is(0));
+        assertThat(trie.longestMatch("a", 0, 1), is(nullValue()));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ConvertAllTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final FullHalfConverter converter = DefaultFullHalf.INSTANCE;
+
+    @Test
+    public void testToFullwidthAll_list() {
+        List<String> result = converter.toFullwidthAll(Arrays.asList("ｶﾞｷﾞ",
+                null, "", "アイウ", "abc"));
+
+        assertThat(result, is(Arrays.asList("ガギ", null, "", "アイウ", "ａｂｃ")));
+    }
+
+    @Test
+    public void testToHalfwidthAll_list() {
+        List<String> result = converter.toHalfwidthAll(Arrays.asList("ガギ", null,
+                "ｱ"));
+
+        assertThat(result, is(Arrays.asList("ｶﾞｷﾞ", null, "ｱ")));
+    }
+
+    @Test
+    public void testToFullwidthAll_emptyList() {
+        assertThat(converter.toFullwidthAll(Collections.<String> emptyList())
+                .isEmpty(), is(true));
+    }
+
+    @Test
+    public void testToFullwidthAll_array() {
+        String[] values = values(20000);
+
+        String[] results = converter.toFullwidthAll(values);
+
+        assertThat(results.length, is(values.length));
+        for (int i = 0; i < values.length; i++) {
+            assertThat(results[i], is(converter.toFullwidth(values[i])));
+        }
+        assertThat(results[19999], is(nullValue()));
+        // not converted values are returned as they are
+        assertThat(results[2], is(sameInstance(values[2])));
+    }
+
+    @Test
+    public void testToHalfwidthAll_array() {
+        String[] values = converter.toFullwidthAll(values(5000));
+
+        String[] results = converter.toHalfwidthAll(values);
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(results[i], is(converter.toHalfwidth(values[i])));
+        }
+    }
+
+    @Test
+    public void testToFullwidthAll_list_large() {
+        List<String> values = new ArrayList<String>(Arrays.asList(values(
+                1000)));
+
+        List<String> results = converter.toFullwidthAll(values);
+
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i), is(converter.toFullwidth(values.get(
+                    i))));
+        }
+    }
+
+    @Test
+    public void testToFullwidthAll_forkJoinPool() {
+        String[] values = values(20000);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        try {
+            String[] results = converter.toFullwidthAll(values, forkJoinPool);
+
+            for (int i = 0; i < values.length; i++) {
+                assertThat(results[i], is(converter.toFullwidth(values[i])));
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testToHalfwidthAll_list_forkJoinPool() {
+        List<String> values = Arrays.asList(converter.toFullwidthAll(values(
+                5000)));
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        try {
+            List<String> results = converter.toHalfwidthAll(values,
+                    forkJoinPool);
+
+            for (int i = 0; i < values.size(); i++) {
+                assertThat(results.get(i), is(converter.toHalfwidth(values.get(
+                        i))));
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testToFullwidthAll_small() {
+        // a small array is converted in the calling thread, so a pool which rejects tasks is not used
+        ForkJoinPool forkJoinPool = new ForkJoinPool(1);
+        forkJoinPool.shutdown();
+
+        assertThat(converter.toFullwidthAll(new String[] { "ｶﾞｷﾞ", null },
+                forkJoinPool), is(new String[] { "ガギ", null }));
+        assertThat(converter.toHalfwidthAll(Arrays.asList("ガギ"), forkJoinPool),
+                is(Arrays.asList("ｶﾞｷﾞ")));
+    }
+
+    @Test
+    public void testToFullwidthAll_nullForkJoinPool() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("forkJoinPool must not be null");
+        converter.toFullwidthAll(new String[] { "a" }, null);
+    }
+
+    @Test
+    public void testToHalfwidthAll_nullForkJoinPool() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("forkJoinPool must not be null");
+        converter.toHalfwidthAll(Arrays.asList("a"), null);
+    }
+
+    @Test
+    public void testToFullwidthAll_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("values must not be null.");
+        converter.toFullwidthAll((String[]) null);
+    }
+
+    @Test
+    public void testToHalfwidthAll_nullList() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("values must not be null.");
+        converter.toHalfwidthAll((List<String>) null);
+    }
+
+    private static String[] values(int size) {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+            case 0:
+                values[i] = "ﾀﾅｶ ﾀﾛｳ" + i;
+                break;
+            case 1:
+                values[i] = "ｶﾞｯｺｳ" + i;
+                break;
+            case 2:
+                values[i] = "アイウ";
+                break;
+            default:
+                values[i] = i % 7 == 0 ? null : "ﾊﾟﾋﾟﾌﾟ";
+            }
+        }
+        return values;
+    }
+}
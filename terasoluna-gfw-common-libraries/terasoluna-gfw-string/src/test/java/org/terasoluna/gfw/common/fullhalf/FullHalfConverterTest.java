@@ -16,7 +16,13 @@
 package org.terasoluna.gfw.common.fullhalf;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashSet;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -66,6 +72,199 @@ public class FullHalfConverterTest {
         assertThat(converter.toFullwidth("ﾊﾟ"), is("ハ゜"));
     }
 
+    @Test
+    public void testCompositionWithCustomMark() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("Å", "A*").pair("Ａ", "A").pair("＊", "*").pair("Ö", "O*")
+                .appendablePredicate(new FullHalfPairs.AppendablePredicate() {
+                    @Override
+                    public boolean isAppendable(char c) {
+                        return c == '*';
+                    }
+                }).build());
+        assertThat(converter.toFullwidth("A*AO*B*"), is("ÅＡÖB＊"));
+        assertThat(converter.toHalfwidth("ÅＡÖB＊"), is("A*AO*B*"));
+    }
+
+    @Test
+    public void testCompositionFirstDefinitionPrior() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("ガ", "ｶﾞ").pair("カ", "ｶ").pair("が", "ｶﾞ").build());
+        assertThat(converter.toFullwidth("ｶﾞｶ"), is("ガカ"));
+        assertThat(converter.toHalfwidth("がガ"), is("ｶﾞｶﾞ"));
+    }
+
+    @Test
+    public void testNotMappedCharacters() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("ア", "ｱ").build());
+        assertThat(converter.toFullwidth("\u0000ｱ\uffff\ud842\udfb7ﾞ"), is(
+                "\u0000ア\uffff\ud842\udfb7ﾞ"));
+        assertThat(converter.toHalfwidth("\u0000ア\uffff"), is("\u0000ｱ\uffff"));
+    }
+
+    @Test
+    public void testToFullwidth_appendable() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        DefaultFullHalf.INSTANCE.toFullwidth(new StringBuilder("ｶﾞｱ"), sb);
+        DefaultFullHalf.INSTANCE.toFullwidth((CharSequence) null, sb);
+        assertThat(sb.append(']').toString(), is("[ガア]"));
+    }
+
+    @Test
+    public void testToHalfwidth_appendable() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        DefaultFullHalf.INSTANCE.toHalfwidth(new StringBuilder("ガア"), sb);
+        DefaultFullHalf.INSTANCE.toHalfwidth((CharSequence) null, sb);
+        assertThat(sb.append(']').toString(), is("[ｶﾞｱ]"));
+    }
+
+    @Test
+    public void testToFullwidth_noChange() {
+        String s = "アイウ　ガ" + new String("ABC".toCharArray()).toLowerCase();
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth("アイウ"), is(sameInstance(
+                "アイウ")));
+        String fullwidth = new String("ＡＢＣガ゛".toCharArray());
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth(fullwidth), is(
+                sameInstance(fullwidth)));
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth(s), is(not(sameInstance(
+                s))));
+    }
+
+    @Test
+    public void testToFullwidth_changeAfterPrefix() {
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth("アイウｴｵ"), is("アイウエオ"));
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth("アイｶﾞ"), is("アイガ"));
+        // appendable character after a character which is not converted
+        assertThat(DefaultFullHalf.INSTANCE.toFullwidth("アイﾞ"), is("アイ゛"));
+    }
+
+    @Test
+    public void testToFullwidth_stepsAsConversion() {
+        // "ﾞ" and "ﾟ" would be composed if the scan started from the second character
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("○", "ﾞﾟ").build());
+        assertThat(converter.toFullwidth("aﾞﾟ"), is("aﾞﾟ"));
+        assertThat(converter.toFullwidth("ﾞﾟ"), is("○"));
+        assertThat(converter.toFullwidth("aﾞﾞﾟ"), is("aﾞ○"));
+    }
+
+    @Test
+    public void testToHalfwidth_noChange() {
+        String halfwidth = new String("ｱｲｳ abc".toCharArray());
+        assertThat(DefaultFullHalf.INSTANCE.toHalfwidth(halfwidth), is(
+                sameInstance(halfwidth)));
+        assertThat(DefaultFullHalf.INSTANCE.toHalfwidth("ｱｲｳア"), is("ｱｲｳｱ"));
+    }
+
+    @Test
+    public void testLongestMatch() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("Ａ", "A").pair("Ｂ", "B").sequence("㍿", "株式会社").sequence(
+                        "㈱", "(株)").pair("（", "(").pair("株", "株").pair("）", ")")
+                .build());
+
+        assertThat(converter.toFullwidth("(株)AB株式会社(株"), is("㈱ＡＢ㍿（株"));
+        assertThat(converter.toHalfwidth("㈱ＡＢ㍿（株"), is("(株)AB株式会社(株"));
+    }
+
+    @Test
+    public void testSupplementary() {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .sequence("𠮟", "叱").sequence("ｱ", "𝐀").build());
+
+        assertThat(converter.toHalfwidth("𠮟る𠮷"), is("叱る𠮷"));
+        assertThat(converter.toFullwidth("𝐀叱𝐁"), is("ｱ𠮟𝐁"));
+    }
+
+    @Test
+    public void testLongestMatch_streaming() throws Exception {
+        FullHalfConverter converter = new FullHalfConverter(new FullHalfPairsBuilder()
+                .sequence("㍿", "株式会社").sequence("㈱", "(株)").pair("（", "(")
+                .build());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FullHalfReader.BUFFER_SIZE; i++) {
+            sb.append(i % 5 == 0 ? "株式会社" : "(株)").append(i % 7 == 0 ? "("
+                    : "");
+        }
+        String halfwidth = sb.toString();
+        java.io.StringWriter writer = new java.io.StringWriter();
+
+        converter.toFullwidth(new java.io.StringReader(halfwidth), writer);
+
+        assertThat(writer.toString(), is(converter.toFullwidth(halfwidth)));
+        assertThat(converter.toHalfwidth(writer.toString()), is(halfwidth));
+    }
+
+    @Test
+    public void testOf_interned() {
+        FullHalfConverter converter1 = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ａ", "A").pair("Ｂ", "B")
+                        .build());
+        FullHalfConverter converter2 = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ａ", "A").pair("Ｂ", "B")
+                        .build());
+        FullHalfConverter reordered = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ｂ", "B").pair("Ａ", "A")
+                        .build());
+
+        assertThat(converter1, is(sameInstance(converter2)));
+        assertThat(converter1, is(not(sameInstance(reordered))));
+        assertThat(converter1.toFullwidth("AB"), is("ＡＢ"));
+    }
+
+    @Test
+    public void testOf_defaultInstance() {
+        FullHalfPairs pairs = new FullHalfPairs(new LinkedHashSet<FullHalfPair>(DefaultFullHalf.PAIRS
+                .pairs()), DefaultFullHalf.PAIRS.predicate());
+
+        assertThat(FullHalfConverter.of(pairs), is(sameInstance(
+                DefaultFullHalf.INSTANCE)));
+    }
+
+    @Test
+    public void testOf_differentPredicate() {
+        FullHalfPairs.AppendablePredicate predicate = new FullHalfPairs.AppendablePredicate() {
+            @Override
+            public boolean isAppendable(char c) {
+                return false;
+            }
+        };
+        FullHalfConverter converter1 = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ａ", "A").build());
+        FullHalfConverter converter2 = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ａ", "A").appendablePredicate(
+                        predicate).build());
+
+        assertThat(converter1, is(not(sameInstance(converter2))));
+        assertThat(converter2, is(sameInstance(FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ａ", "A").appendablePredicate(
+                        predicate).build()))));
+    }
+
+    @Test
+    public void testOf_discardedWhenUnreachable() throws Exception {
+        FullHalfConverter converter = FullHalfConverter.of(
+                new FullHalfPairsBuilder().pair("Ｚ", "Z").build());
+        int size = FullHalfConverter.cacheSize();
+        WeakReference<FullHalfConverter> reference = new WeakReference<FullHalfConverter>(converter);
+        converter = null;
+        for (int i = 0; i < 50 && FullHalfConverter.cacheSize() == size; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assumeTrue(reference.get() == null);
+
+        assertThat(FullHalfConverter.cacheSize() < size, is(true));
+    }
+
+    @Test
+    public void testOf_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("pairs must not be null.");
+        FullHalfConverter.of(null);
+    }
+
     @Test
     public void testNull() {
         expectedException.expect(IllegalArgumentException.class);
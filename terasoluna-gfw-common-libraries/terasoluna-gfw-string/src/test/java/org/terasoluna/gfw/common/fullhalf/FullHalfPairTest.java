@@ -18,9 +18,13 @@ package org.terasoluna.gfw.common.fullhalf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public class FullHalfPairTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
 
     @Test
     public void testFullHalfPairEquals() {
@@ -76,4 +80,48 @@ public class FullHalfPairTest {
         assertThat(FullHalfPair1.equals(FullHalfPair2), is(false));
     }
 
+    @Test
+    public void testSequence() {
+        FullHalfPair pair = FullHalfPair.sequence("𠮟", "ｼｯ");
+
+        assertThat(pair.fullwidth(), is("𠮟"));
+        assertThat(pair.halfwidth(), is("ｼｯ"));
+    }
+
+    @Test
+    public void testSequence_fullwidthUnpairedHighSurrogate() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("fullwidth must be non-empty string");
+        FullHalfPair.sequence("\ud842a", "a");
+    }
+
+    @Test
+    public void testSequence_halfwidthUnpairedLowSurrogate() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("halfwidth must be non-empty string");
+        FullHalfPair.sequence("ａ", "\udfb7");
+    }
+
+    @Test
+    public void testSequence_halfwidthEndsWithHighSurrogate() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("halfwidth must be non-empty string");
+        FullHalfPair.sequence("ａ", "a\ud842");
+    }
+
+    @Test
+    public void testSequence_builder() {
+        FullHalfPair pair = new FullHalfPairsBuilder().sequence("㍿", "株式会社")
+                .build().pairs().iterator().next();
+
+        assertThat(pair, is(FullHalfPair.sequence("㍿", "株式会社")));
+    }
+
+    @Test
+    public void testMultipleCharacters_pair() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "fullwidth must be 1 length string (fullwidth = 𠮟)");
+        new FullHalfPairsBuilder().pair("𠮟", "ｼｯ");
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class FullHalfReaderTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final FullHalfConverter converter = DefaultFullHalf.INSTANCE;
+
+    @Test
+    public void testToFullwidth_readerWriter() throws Exception {
+        StringWriter writer = new StringWriter();
+        converter.toFullwidth(new StringReader("ｶﾞｷﾞｸﾞ ﾊﾟﾋﾟﾌﾟ ｳﾞ ABC"), writer);
+        assertThat(writer.toString(), is("ガギグ　パピプ　ヴ　ＡＢＣ"));
+    }
+
+    @Test
+    public void testToHalfwidth_readerWriter() throws Exception {
+        StringWriter writer = new StringWriter();
+        converter.toHalfwidth(new StringReader("ガギグ　パピプ　ヴ　ＡＢＣ"), writer);
+        assertThat(writer.toString(), is("ｶﾞｷﾞｸﾞ ﾊﾟﾋﾟﾌﾟ ｳﾞ ABC"));
+    }
+
+    @Test
+    public void testToFullwidth_oneCharPerRead() throws Exception {
+        Reader reader = converter.fullwidthReader(new OneCharReader("ｶﾞｶﾟﾞｱ"));
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            sb.append((char) c);
+        }
+        assertThat(sb.toString(), is(converter.toFullwidth("ｶﾞｶﾟﾞｱ")));
+        assertThat(sb.toString(), is("ガカ゜゛ア"));
+    }
+
+    @Test
+    public void testToFullwidth_acrossBufferBoundary() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FullHalfReader.BUFFER_SIZE * 3; i++) {
+            sb.append(i % 3 == 2 ? "ﾞ" : "ｶ");
+        }
+        sb.append("ｶ");
+        String halfwidth = sb.toString();
+        StringWriter writer = new StringWriter();
+
+        converter.toFullwidth(new StringReader(halfwidth), writer);
+
+        assertThat(writer.toString(), is(converter.toFullwidth(halfwidth)));
+    }
+
+    @Test
+    public void testToFullwidth_appendableAtBufferHead() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FullHalfReader.BUFFER_SIZE - 1; i++) {
+            sb.append('A');
+        }
+        sb.append("ﾊﾟﾟ");
+        StringWriter writer = new StringWriter();
+
+        converter.toFullwidth(new StringReader(sb.toString()), writer);
+
+        assertThat(writer.toString(), is(converter.toFullwidth(sb.toString())));
+        assertThat(writer.toString().endsWith("Ａパ゜"), is(true));
+    }
+
+    @Test
+    public void testToFullwidth_empty() throws Exception {
+        Reader reader = converter.fullwidthReader(new StringReader(""));
+        assertThat(reader.read(), is(-1));
+        assertThat(reader.read(new char[4], 0, 4), is(-1));
+    }
+
+    @Test
+    public void testRead_zeroLength() throws Exception {
+        Reader reader = converter.fullwidthReader(new StringReader("ｱ"));
+        assertThat(reader.read(new char[4], 0, 0), is(0));
+        assertThat(reader.read(), is((int) 'ア'));
+    }
+
+    @Test
+    public void testRead_outOfBounds() throws Exception {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        converter.fullwidthReader(new StringReader("ｱ")).read(new char[4], 2,
+                3);
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        Reader reader = converter.halfwidthReader(new StringReader("ガギグ"));
+        assertThat(reader.skip(4), is(4L));
+        assertThat(reader.read(), is((int) 'ｸ'));
+        assertThat(reader.skip(10), is(1L));
+        assertThat(reader.read(), is(-1));
+    }
+
+    @Test
+    public void testSkip_negative() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("skip value is negative");
+        converter.halfwidthReader(new StringReader("ガ")).skip(-1);
+    }
+
+    @Test
+    public void testReady() throws Exception {
+        Reader reader = converter.halfwidthReader(new StringReader("ガ"));
+        assertThat(reader.read(), is((int) 'ｶ'));
+        assertThat(reader.ready(), is(true));
+        assertThat(reader.read(), is((int) 'ﾞ'));
+    }
+
+    @Test
+    public void testMark() throws Exception {
+        Reader reader = converter.halfwidthReader(new StringReader("ガ"));
+        assertThat(reader.markSupported(), is(false));
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("mark() not supported");
+        reader.mark(1);
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("reset() not supported");
+        converter.halfwidthReader(new StringReader("ガ")).reset();
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        StringReader in = new StringReader("ガ");
+        converter.halfwidthReader(in).close();
+        expectedException.expect(IOException.class);
+        in.read();
+    }
+
+    /**
+     * Reader which returns at most one character per read.
+     */
+    private static class OneCharReader extends FilterReader {
+        OneCharReader(String s) {
+            super(new StringReader(s));
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, 1));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class FullHalfSpliteratorTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final FullHalfConverter converter = DefaultFullHalf.INSTANCE;
+
+    @Test
+    public void testParallelStream() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add("ｶﾞｯｺｳ" + i);
+        }
+
+        List<String> results = StreamSupport.stream(converter
+                .fullwidthSpliterator(values.spliterator()), true).collect(
+                        Collectors.toList());
+
+        assertThat(results.size(), is(values.size()));
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(results.get(i), is(converter.toFullwidth(values.get(
+                    i))));
+        }
+    }
+
+    @Test
+    public void testTryAdvance() {
+        Spliterator<String> spliterator = converter.halfwidthSpliterator(Arrays
+                .asList("ガ", null).spliterator());
+        List<String> results = new ArrayList<>();
+
+        assertThat(spliterator.tryAdvance(results::add), is(true));
+        assertThat(spliterator.tryAdvance(results::add), is(true));
+        assertThat(spliterator.tryAdvance(results::add), is(false));
+        assertThat(results, is(Arrays.asList("ｶﾞ", null)));
+    }
+
+    @Test
+    public void testTrySplit() {
+        Spliterator<String> spliterator = converter.fullwidthSpliterator(Arrays
+                .asList("ｱ", "ｲ", "ｳ", "ｴ").spliterator());
+        assertThat(spliterator.estimateSize(), is(4L));
+
+        Spliterator<String> prefix = spliterator.trySplit();
+        List<String> results = new ArrayList<>();
+        prefix.forEachRemaining(results::add);
+        spliterator.forEachRemaining(results::add);
+
+        assertThat(results, is(Arrays.asList("ア", "イ", "ウ", "エ")));
+        assertThat(spliterator.trySplit(), is(nullValue()));
+    }
+
+    @Test
+    public void testCharacteristics() {
+        Spliterator<String> spliterator = converter.fullwidthSpliterator(
+                new TreeSet<>(Arrays.asList("ｱ", "ｲ")).spliterator());
+
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), is(true));
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED), is(
+                true));
+        assertThat(spliterator.hasCharacteristics(Spliterator.SORTED), is(
+                false));
+        assertThat(spliterator.hasCharacteristics(Spliterator.DISTINCT), is(
+                false));
+    }
+
+    @Test
+    public void testNullSource() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("source must not be null");
+        converter.fullwidthSpliterator(null);
+    }
+}
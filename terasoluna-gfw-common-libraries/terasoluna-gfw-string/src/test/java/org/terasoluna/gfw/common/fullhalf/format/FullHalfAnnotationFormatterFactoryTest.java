@@ -0,0 +1,123 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.springframework.format.AnnotationFormatterFactory;
+import org.springframework.format.Parser;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+import org.terasoluna.gfw.common.fullhalf.FullHalfPairsBuilder;
+
+@RunWith(Parameterized.class)
+public class FullHalfAnnotationFormatterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final boolean fullwidth;
+
+    private final String from;
+
+    private final String to;
+
+    @Parameters(name = "fullwidth = {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] { { true, "ｱｲｳA", "アイウＡ" }, { false,
+                "アイウＡ", "ｱｲｳA" } });
+    }
+
+    public FullHalfAnnotationFormatterFactoryTest(boolean fullwidth,
+            String from, String to) {
+        this.fullwidth = fullwidth;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Test
+    public void testGetFieldTypes() {
+        assertThat(factory(null).getFieldTypes(), is(Collections
+                .<Class<?>> singleton(String.class)));
+    }
+
+    @Test
+    public void testGetParser_default() throws Exception {
+        assertThat(parser(factory(null)).parse(from, Locale.JAPAN), is(to));
+    }
+
+    @Test
+    public void testGetParser_converter() throws Exception {
+        Parser<String> parser = parser(factory(
+                new FullHalfConverter(new FullHalfPairsBuilder().pair("Ａ", "A")
+                        .build())));
+
+        // only "A" is mapped
+        assertThat(parser.parse(from, Locale.JAPAN), is(from.substring(0, 3)
+                + to.substring(3)));
+    }
+
+    @Test
+    public void testGetPrinter_sharedFormatter() {
+        AnnotationFormatterFactory<?> factory = factory(null);
+
+        assertThat(factory.getPrinter(null, String.class), is(sameInstance(
+                (Object) factory.getParser(null, String.class))));
+    }
+
+    @Test
+    public void testSetConverter_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        if (fullwidth) {
+            new FullWidthAnnotationFormatterFactory().setConverter(null);
+        } else {
+            new HalfWidthAnnotationFormatterFactory().setConverter(null);
+        }
+    }
+
+    private AnnotationFormatterFactory<?> factory(FullHalfConverter converter) {
+        if (fullwidth) {
+            FullWidthAnnotationFormatterFactory factory = new FullWidthAnnotationFormatterFactory();
+            if (converter != null) {
+                factory.setConverter(converter);
+            }
+            return factory;
+        }
+        HalfWidthAnnotationFormatterFactory factory = new HalfWidthAnnotationFormatterFactory();
+        if (converter != null) {
+            factory.setConverter(converter);
+        }
+        return factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Parser<String> parser(
+            AnnotationFormatterFactory<?> factory) {
+        return (Parser<String>) factory.getParser(null, String.class);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.validation.DataBinder;
+import org.terasoluna.gfw.common.fullhalf.FullHalfConverter;
+import org.terasoluna.gfw.common.fullhalf.FullHalfPairsBuilder;
+
+public class FullHalfFormatterRegistrarTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testRegisterFormatters_binding() {
+        FormattingConversionService conversionService = new FormattingConversionService();
+        new FullHalfFormatterRegistrar().registerFormatters(conversionService);
+
+        Form form = bind(conversionService, "ｶﾞｷﾞABC", "ガギＡＢＣ", "ガギＡＢＣ");
+
+        assertThat(form.getFullName(), is("ガギＡＢＣ"));
+        assertThat(form.getHalfName(), is("ｶﾞｷﾞABC"));
+        assertThat(form.getRawName(), is("ガギＡＢＣ"));
+    }
+
+    @Test
+    public void testRegisterFormatters_blank() {
+        FormattingConversionService conversionService = new FormattingConversionService();
+        new FullHalfFormatterRegistrar().registerFormatters(conversionService);
+
+        Form form = bind(conversionService, "", "\u3000", "");
+
+        // blank values are not passed to the formatters
+        assertThat(form.getFullName(), is(nullValue()));
+        assertThat(form.getHalfName(), is(nullValue()));
+        assertThat(form.getRawName(), is(""));
+    }
+
+    @Test
+    public void testRegisterFormatters_converter() {
+        FullHalfFormatterRegistrar registrar = new FullHalfFormatterRegistrar();
+        registrar.setConverter(new FullHalfConverter(new FullHalfPairsBuilder()
+                .pair("Ａ", "A").build()));
+        FormattingConversionService conversionService = new FormattingConversionService();
+        registrar.registerFormatters(conversionService);
+
+        Form form = bind(conversionService, "ｶﾞAB", "ガＡＢ", null);
+
+        assertThat(form.getFullName(), is("ｶﾞＡB"));
+        assertThat(form.getHalfName(), is("ガAＢ"));
+    }
+
+    @Test
+    public void testSetConverter_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        new FullHalfFormatterRegistrar().setConverter(null);
+    }
+
+    private Form bind(FormattingConversionService conversionService,
+            String fullName, String halfName, String rawName) {
+        Form form = new Form();
+        DataBinder binder = new DataBinder(form);
+        binder.setConversionService(conversionService);
+        MutablePropertyValues values = new MutablePropertyValues();
+        values.add("fullName", fullName);
+        values.add("halfName", halfName);
+        values.add("rawName", rawName);
+        binder.bind(values);
+        assertThat(binder.getBindingResult().hasErrors(), is(false));
+        return form;
+    }
+
+    public static class Form {
+        @FullWidth
+        private String fullName;
+
+        @HalfWidth
+        private String halfName;
+
+        private String rawName;
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public void setFullName(String fullName) {
+            this.fullName = fullName;
+        }
+
+        public String getHalfName() {
+            return halfName;
+        }
+
+        public void setHalfName(String halfName) {
+            this.halfName = halfName;
+        }
+
+        public String getRawName() {
+            return rawName;
+        }
+
+        public void setRawName(String rawName) {
+            this.rawName = rawName;
+        }
+    }
+}
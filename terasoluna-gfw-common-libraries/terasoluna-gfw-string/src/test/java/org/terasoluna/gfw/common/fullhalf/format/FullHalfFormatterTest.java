@@ -0,0 +1,59 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.fullhalf.format;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Locale;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+
+public class FullHalfFormatterTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testParse_fullwidth() throws Exception {
+        FullHalfFormatter formatter = new FullHalfFormatter(DefaultFullHalf.INSTANCE, true);
+        assertThat(formatter.parse("ｶﾞｷﾞABC", Locale.JAPAN), is("ガギＡＢＣ"));
+    }
+
+    @Test
+    public void testParse_halfwidth() throws Exception {
+        FullHalfFormatter formatter = new FullHalfFormatter(DefaultFullHalf.INSTANCE, false);
+        assertThat(formatter.parse("ガギＡＢＣ", Locale.JAPAN), is("ｶﾞｷﾞABC"));
+    }
+
+    @Test
+    public void testPrint() {
+        FullHalfFormatter formatter = new FullHalfFormatter(DefaultFullHalf.INSTANCE, true);
+        String value = "ｱｲｳ";
+        assertThat(formatter.print(value, Locale.JAPAN), is(sameInstance(
+                value)));
+    }
+
+    @Test
+    public void testConstructor_nullConverter() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        new FullHalfFormatter(null, true);
+    }
+}
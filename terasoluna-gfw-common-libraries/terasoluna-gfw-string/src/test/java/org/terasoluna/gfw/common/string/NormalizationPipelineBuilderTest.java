@@ -0,0 +1,64 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.string;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.terasoluna.gfw.common.codepoints.CodePoints;
+
+public class NormalizationPipelineBuilderTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testToFullwidth_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        new NormalizationPipelineBuilder().toFullwidth(null);
+    }
+
+    @Test
+    public void testToHalfwidth_null() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("converter must not be null");
+        new NormalizationPipelineBuilder().toHalfwidth(null);
+    }
+
+    @Test
+    public void testConsistOf_empty() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("codePoints must not be empty");
+        new NormalizationPipelineBuilder().consistOf(new CodePoints[0]);
+    }
+
+    @Test
+    public void testMaxByteLength_charsetNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("charset must not be null");
+        new NormalizationPipelineBuilder().maxByteLength(null, 1);
+    }
+
+    @Test
+    public void testMaxByteLength_negative() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("maxByteLength must not be negative");
+        new NormalizationPipelineBuilder().maxByteLength(StandardCharsets.UTF_8,
+                -1);
+    }
+}
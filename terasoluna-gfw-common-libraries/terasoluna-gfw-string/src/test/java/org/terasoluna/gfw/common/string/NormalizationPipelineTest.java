@@ -0,0 +1,170 @@
+/*
+ * Copyright(c) 2013 NTT DATA Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.terasoluna.gfw.common.string;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.terasoluna.gfw.common.codepoints.CodePoints;
+import org.terasoluna.gfw.common.fullhalf.DefaultFullHalf;
+
+public class NormalizationPipelineTest {
+
+    private final CodePoints katakana = new CodePoints("アイウエオカガキギクグタナ　");
+
+    @Test
+    public void testNormalize_allStages() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .toFullwidth(DefaultFullHalf.INSTANCE).trim().consistOf(
+                        katakana).maxByteLength(Charset.forName("Windows-31J"),
+                                12).build();
+
+        NormalizationResult result = pipeline.normalize(" ｶﾀｶﾅ ｶﾞ　");
+
+        assertThat(result.getValue(), is("カタカナ　ガ"));
+        assertThat(result.isValid(), is(true));
+        assertThat(result.hasExcludedCodePoint(), is(false));
+        assertThat(result.getExcludedCodePoint(), is(-1));
+        assertThat(result.getExcludedIndex(), is(-1));
+        assertThat(result.isByteLengthExceeded(), is(false));
+        assertThat(result.getByteLength(), is(12));
+    }
+
+    @Test
+    public void testNormalize_excludedCodePoint() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .toFullwidth(DefaultFullHalf.INSTANCE).trim().consistOf(
+                        katakana).build();
+
+        NormalizationResult result = pipeline.normalize("　ｱｲﾊﾟｱA ");
+
+        assertThat(result.getValue(), is("アイパアＡ"));
+        assertThat(result.isValid(), is(false));
+        assertThat(result.hasExcludedCodePoint(), is(true));
+        assertThat(result.getExcludedCodePoint(), is((int) 'パ'));
+        assertThat(result.getExcludedIndex(), is(2));
+        assertThat(result.getByteLength(), is(-1));
+        assertThat(result.isByteLengthExceeded(), is(false));
+    }
+
+    @Test
+    public void testNormalize_trailingWhitespacesAreNotChecked() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .trim().consistOf(new CodePoints("ab")).maxByteLength(
+                        StandardCharsets.UTF_8, 2).build();
+
+        NormalizationResult result = pipeline.normalize(" \ta b　\r\n");
+
+        assertThat(result.getValue(), is("a b"));
+        assertThat(result.getExcludedCodePoint(), is((int) ' '));
+        assertThat(result.getExcludedIndex(), is(1));
+        assertThat(result.getByteLength(), is(3));
+        assertThat(result.isByteLengthExceeded(), is(true));
+    }
+
+    @Test
+    public void testNormalize_whitespacesOnly() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .trim().consistOf(new CodePoints("a")).maxByteLength(
+                        StandardCharsets.UTF_8, 0).build();
+
+        NormalizationResult result = pipeline.normalize(" 　 ");
+
+        assertThat(result.getValue(), is(""));
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getByteLength(), is(0));
+    }
+
+    @Test
+    public void testNormalize_toHalfwidth() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .toHalfwidth(DefaultFullHalf.INSTANCE).maxByteLength(
+                        StandardCharsets.UTF_8, 100).build();
+
+        NormalizationResult result = pipeline.normalize("ガＡ　");
+
+        assertThat(result.getValue(), is("ｶﾞA "));
+        assertThat(result.getByteLength(), is(3 + 3 + 1 + 1));
+        assertThat(result.isValid(), is(true));
+    }
+
+    @Test
+    public void testNormalize_supplementary() {
+        String shikaru = new String(Character.toChars(0x20B9F));
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .trim().consistOf(new CodePoints("あ")).maxByteLength(
+                        StandardCharsets.UTF_8, 100).build();
+
+        NormalizationResult result = pipeline.normalize("あ" + shikaru
+                + " \ud842");
+
+        assertThat(result.getValue(), is("あ" + shikaru + " \ud842"));
+        assertThat(result.getExcludedCodePoint(), is(0x20B9F));
+        assertThat(result.getExcludedIndex(), is(1));
+        assertThat(result.getByteLength(), is(3 + 4 + 1 + 1));
+        assertThat(result.getByteLength(), is(result.getValue().getBytes(
+                StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    public void testNormalize_byteLengthOfOtherCharsets() {
+        String value = "ｱいうabc①𠮟";
+        for (Charset charset : new Charset[] { Charset.forName("Windows-31J"),
+                Charset.forName("EUC-JP"), Charset.forName("ISO-2022-JP"),
+                StandardCharsets.UTF_16, StandardCharsets.US_ASCII }) {
+            NormalizationResult result = new NormalizationPipelineBuilder()
+                    .maxByteLength(charset, 0).build().normalize(value);
+
+            assertThat(charset.name(), result.getByteLength(), is(value
+                    .getBytes(charset).length));
+            assertThat(result.isByteLengthExceeded(), is(true));
+        }
+    }
+
+    @Test
+    public void testNormalize_noStage() {
+        NormalizationResult result = new NormalizationPipelineBuilder().build()
+                .normalize(" ｱ ");
+
+        assertThat(result.getValue(), is(" ｱ "));
+        assertThat(result.isValid(), is(true));
+    }
+
+    @Test
+    public void testNormalize_null() {
+        NormalizationResult result = new NormalizationPipelineBuilder()
+                .toFullwidth(DefaultFullHalf.INSTANCE).consistOf(katakana)
+                .maxByteLength(StandardCharsets.UTF_8, 0).build().normalize(
+                        null);
+
+        assertThat(result.getValue(), is(nullValue()));
+        assertThat(result.isValid(), is(true));
+    }
+
+    @Test
+    public void testNormalize_consistOfAny() {
+        NormalizationPipeline pipeline = new NormalizationPipelineBuilder()
+                .consistOf(new CodePoints("a"), new CodePoints("b")).build();
+
+        assertThat(pipeline.normalize("abba").isValid(), is(true));
+        assertThat(pipeline.normalize("abc").getExcludedIndex(), is(2));
+    }
+}